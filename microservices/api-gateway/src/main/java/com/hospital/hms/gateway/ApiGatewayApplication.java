@@ -1,11 +1,16 @@
 package com.hospital.hms.gateway;
 
+import com.hospital.hms.gateway.ratelimit.TokenBucketRateLimiter;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
@@ -42,7 +47,7 @@ public class ApiGatewayApplication {
      * Configure routes for microservices
      */
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, TokenBucketRateLimiter rateLimiter) {
         return builder.routes()
             // Patient Management Service Routes
             .route("patient-management", r -> r
@@ -56,7 +61,7 @@ public class ApiGatewayApplication {
                         .setMethods("GET")
                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(1000), 2, false))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
                     .addRequestHeader("X-Service", "patient-management")
                     .addResponseHeader("X-Response-Time", "#{T(System).currentTimeMillis()}")
@@ -76,7 +81,7 @@ public class ApiGatewayApplication {
                         .setMethods("GET")
                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(1000), 2, false))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
                     .addRequestHeader("X-Service", "appointment-scheduling")
                 )
@@ -95,7 +100,7 @@ public class ApiGatewayApplication {
                         .setMethods("GET")
                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(1000), 2, false))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
                     .addRequestHeader("X-Service", "clinical-notes")
                 )
@@ -114,7 +119,7 @@ public class ApiGatewayApplication {
                         .setMethods("GET")
                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(1000), 2, false))
                     .requestRateLimiter(config -> config
-                        .setRateLimiter(redisRateLimiter())
+                        .setRateLimiter(rateLimiter)
                         .setKeyResolver(userKeyResolver()))
                     .addRequestHeader("X-Service", "billing")
                 )
@@ -129,6 +134,9 @@ public class ApiGatewayApplication {
                     .circuitBreaker(config -> config
                         .setName("fhir-patient-cb")
                         .setFallbackUri("forward:/fallback/fhir"))
+                    .requestRateLimiter(config -> config
+                        .setRateLimiter(rateLimiter)
+                        .setKeyResolver(userKeyResolver()))
                     .addRequestHeader("X-FHIR-Version", "4.0.1")
                     .addRequestHeader("X-Service", "fhir-patient")
                 )
@@ -193,27 +201,19 @@ public class ApiGatewayApplication {
     }
 
     /**
-     * Redis-based rate limiter configuration
-     */
-    @Bean
-    public org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter redisRateLimiter() {
-        return new org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter(
-            100, // requests per second
-            200, // burst capacity
-            1    // tokens per request
-        );
-    }
-
-    /**
-     * User-based key resolver for rate limiting
+     * Client key resolver for rate limiting: the authenticated principal, else the remote address
      */
     @Bean
+    @Primary
     public org.springframework.cloud.gateway.filter.ratelimit.KeyResolver userKeyResolver() {
-        return exchange -> exchange.getRequest().getQueryParams()
-            .getFirst("user")
-            != null ? 
-            reactor.core.publisher.Mono.just(exchange.getRequest().getQueryParams().getFirst("user")) :
-            reactor.core.publisher.Mono.just(exchange.getRequest().getRemoteAddress().getAddress().getHostAddress());
+        return exchange -> ReactiveSecurityContextHolder.getContext()
+            .map(SecurityContext::getAuthentication)
+            .filter(Authentication::isAuthenticated)
+            .map(Authentication::getName)
+            .switchIfEmpty(reactor.core.publisher.Mono.fromSupplier(() ->
+                exchange.getRequest().getRemoteAddress() != null
+                    ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
+                    : "unknown"));
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.hospital.hms.gateway.config;
 
 import com.hospital.hms.gateway.filter.JwtAuthenticationFilter;
+import com.hospital.hms.gateway.filter.JwtTokenVerifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -39,6 +40,9 @@ public class SecurityConfig {
     @Value("${security.jwt.secret:defaultSecretKeyForDevelopmentOnlyChangeInProduction}")
     private String jwtSecret;
 
+    @Value("${security.jwt.token-cache.max-entries:50000}")
+    private int tokenCacheMaxEntries;
+
     /**
      * Configure security filter chain
      */
@@ -86,7 +90,15 @@ public class SecurityConfig {
      */
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtSecret);
+        return new JwtAuthenticationFilter(jwtTokenVerifier());
+    }
+
+    /**
+     * Shared JWT parser with the verified-token cache
+     */
+    @Bean
+    public JwtTokenVerifier jwtTokenVerifier() {
+        return new JwtTokenVerifier(jwtSecret, tokenCacheMaxEntries);
     }
 
     /**
@@ -1,65 +1,68 @@
 package com.hospital.hms.gateway.filter;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import com.hospital.hms.gateway.filter.JwtTokenVerifier.VerifiedToken;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import javax.crypto.SecretKey;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * JWT Authentication Filter for API Gateway
- * 
+ *
  * Validates JWT tokens and sets security context for downstream services.
- * Extracts user information and authorities from JWT claims.
- * 
+ * Verification, the Authentication and the user headers derived from the
+ * claims are cached per token by {@link JwtTokenVerifier}, so a request
+ * with a known token only copies the pre-built headers. Identity headers
+ * sent by the client are always removed, whether or not the request
+ * carries a token, so downstream services only see values the gateway set.
+ *
  * @author HMS Enterprise Team
  * @version 1.0.0
  */
 public class JwtAuthenticationFilter implements WebFilter {
 
-    private final SecretKey secretKey;
+    private final JwtTokenVerifier tokenVerifier;
     private static final String TOKEN_PREFIX = "Bearer ";
     private static final String TOKEN_HEADER = HttpHeaders.AUTHORIZATION;
+    private static final String AUTH_TIME_HEADER = "X-Auth-Time";
 
-    public JwtAuthenticationFilter(String jwtSecret) {
-        this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    /**
+     * Every header downstream services read the caller's identity from
+     */
+    static final List<String> IDENTITY_HEADERS = List.of(
+        "X-User-ID", "X-User-Name", "X-User-Email", "X-User-Roles", "X-User-Permissions",
+        "X-Organization-ID", "X-Department-ID", "X-Session-ID", "X-Token-TYPE", AUTH_TIME_HEADER);
+
+    public JwtAuthenticationFilter(JwtTokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String token = extractToken(exchange);
-        
+
         if (token == null) {
-            return chain.filter(exchange);
+            return chain.filter(removeIdentityHeaders(exchange));
         }
 
+        VerifiedToken verified;
         try {
-            Claims claims = validateToken(token);
-            Authentication authentication = createAuthentication(claims);
-            
-            // Add user context headers for downstream services
-            ServerWebExchange modifiedExchange = addUserHeaders(exchange, claims);
-            
-            return chain.filter(modifiedExchange)
-                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
-                
+            verified = tokenVerifier.verify(token);
         } catch (Exception e) {
             // Invalid token - return unauthorized
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
+
+        // Add user context headers for downstream services
+        ServerWebExchange modifiedExchange = addUserHeaders(exchange, verified);
+
+        return chain.filter(modifiedExchange)
+            .contextWrite(verified.securityContext());
     }
 
     /**
@@ -67,86 +70,37 @@ public class JwtAuthenticationFilter implements WebFilter {
      */
     private String extractToken(ServerWebExchange exchange) {
         String authHeader = exchange.getRequest().getHeaders().getFirst(TOKEN_HEADER);
-        
+
         if (authHeader != null && authHeader.startsWith(TOKEN_PREFIX)) {
             return authHeader.substring(TOKEN_PREFIX.length());
         }
-        
-        return null;
-    }
 
-    /**
-     * Validate JWT token and extract claims
-     */
-    private Claims validateToken(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(secretKey)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        return null;
     }
 
     /**
-     * Create Spring Security Authentication from JWT claims
+     * Replace every identity header with the token's pre-built user headers plus the request time
      */
-    private Authentication createAuthentication(Claims claims) {
-        String username = claims.getSubject();
-        
-        @SuppressWarnings("unchecked")
-        List<String> roles = (List<String>) claims.get("roles");
-        
-        List<SimpleGrantedAuthority> authorities = roles != null ? 
-            roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                .collect(Collectors.toList()) :
-            List.of();
-
-        return new UsernamePasswordAuthenticationToken(username, null, authorities);
+    private ServerWebExchange addUserHeaders(ServerWebExchange exchange, VerifiedToken verified) {
+        return exchange.mutate()
+            .request(builder -> builder.headers(headers -> {
+                IDENTITY_HEADERS.forEach(headers::remove);
+                headers.setAll(verified.headers());
+                headers.set(AUTH_TIME_HEADER, String.valueOf(System.currentTimeMillis()));
+            }))
+            .build();
     }
 
     /**
-     * Add user context headers for downstream services
+     * Drop client-supplied identity headers from an unauthenticated request
      */
-    private ServerWebExchange addUserHeaders(ServerWebExchange exchange, Claims claims) {
+    private ServerWebExchange removeIdentityHeaders(ServerWebExchange exchange) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        if (IDENTITY_HEADERS.stream().noneMatch(requestHeaders::containsKey)) {
+            return exchange;
+        }
         return exchange.mutate()
-            .request(builder -> {
-                // Add user identification headers
-                builder.header("X-User-ID", claims.getSubject());
-                builder.header("X-User-Name", (String) claims.get("name"));
-                builder.header("X-User-Email", (String) claims.get("email"));
-                
-                // Add role headers
-                @SuppressWarnings("unchecked")
-                List<String> roles = (List<String>) claims.get("roles");
-                if (roles != null) {
-                    builder.header("X-User-Roles", String.join(",", roles));
-                }
-                
-                // Add organization/tenant context
-                String organizationId = (String) claims.get("organizationId");
-                if (organizationId != null) {
-                    builder.header("X-Organization-ID", organizationId);
-                }
-                
-                String departmentId = (String) claims.get("departmentId");
-                if (departmentId != null) {
-                    builder.header("X-Department-ID", departmentId);
-                }
-                
-                // Add permissions
-                @SuppressWarnings("unchecked")
-                List<String> permissions = (List<String>) claims.get("permissions");
-                if (permissions != null) {
-                    builder.header("X-User-Permissions", String.join(",", permissions));
-                }
-                
-                // Add session information
-                builder.header("X-Session-ID", (String) claims.get("sessionId"));
-                builder.header("X-Token-TYPE", "JWT");
-                
-                // Add timestamp
-                builder.header("X-Auth-Time", String.valueOf(System.currentTimeMillis()));
-            })
+            .request(builder -> builder.headers(headers -> IDENTITY_HEADERS.forEach(headers::remove)))
             .build();
     }
 }
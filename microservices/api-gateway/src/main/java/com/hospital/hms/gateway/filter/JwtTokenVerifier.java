@@ -0,0 +1,195 @@
+package com.hospital.hms.gateway.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.util.context.Context;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies JWTs once and caches the result until the token expires
+ *
+ * One immutable, thread-safe parser is built at startup. A verified token
+ * is cached under the SHA-256 of its compact form, together with the
+ * Authentication, the security context and the downstream user headers
+ * derived from its claims, so a repeated token costs one hash and one map
+ * lookup instead of a signature check and a claims walk. Entries are used
+ * only while the token's {@code exp} lies in the future; tokens without
+ * {@code exp} and rejected tokens are never cached. The cache is bounded:
+ * when full, expired entries are purged first and then arbitrary ones.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class JwtTokenVerifier {
+
+    private final JwtParser parser;
+    private final Clock clock;
+    private final int maxEntries;
+    private final Map<String, VerifiedToken> cache = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public JwtTokenVerifier(String jwtSecret, int maxEntries) {
+        this(jwtSecret, maxEntries, Clock.systemUTC());
+    }
+
+    public JwtTokenVerifier(String jwtSecret, int maxEntries, Clock clock) {
+        SecretKey secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser()
+            .verifyWith(secretKey)
+            .clock(() -> Date.from(clock.instant()))
+            .build();
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Verify a compact JWS
+     *
+     * @throws JwtException if the signature, format or validity period is invalid
+     */
+    public VerifiedToken verify(String token) {
+        String key = maxEntries > 0 ? hash(token) : null;
+        if (key != null) {
+            VerifiedToken cached = cache.get(key);
+            if (cached != null) {
+                if (cached.expiresAtMillis() > clock.millis()) {
+                    hits.increment();
+                    return cached;
+                }
+                cache.remove(key, cached);
+            }
+        }
+        misses.increment();
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        VerifiedToken verified = toVerifiedToken(claims);
+        if (key != null && verified.expiresAtMillis() != Long.MAX_VALUE) {
+            if (cache.size() >= maxEntries) {
+                evict();
+            }
+            cache.put(key, verified);
+        }
+        return verified;
+    }
+
+    private void evict() {
+        // One thread evicts; the others keep serving and may overshoot the bound briefly
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = clock.millis();
+            cache.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            Iterator<VerifiedToken> entries = cache.values().iterator();
+            int target = maxEntries - Math.max(1, maxEntries / 10);
+            while (cache.size() > target && entries.hasNext()) {
+                entries.next();
+                entries.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        String username = claims.getSubject();
+        List<String> roles = stringList(claims.get("roles"));
+        List<String> permissions = stringList(claims.get("permissions"));
+
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+            .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+            .collect(Collectors.toList());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(username, null, authorities);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        putIfPresent(headers, "X-User-ID", username);
+        putIfPresent(headers, "X-User-Name", claims.get("name", String.class));
+        putIfPresent(headers, "X-User-Email", claims.get("email", String.class));
+        if (!roles.isEmpty()) {
+            headers.put("X-User-Roles", String.join(",", roles));
+        }
+        putIfPresent(headers, "X-Organization-ID", claims.get("organizationId", String.class));
+        putIfPresent(headers, "X-Department-ID", claims.get("departmentId", String.class));
+        if (!permissions.isEmpty()) {
+            headers.put("X-User-Permissions", String.join(",", permissions));
+        }
+        putIfPresent(headers, "X-Session-ID", claims.get("sessionId", String.class));
+        headers.put("X-Token-TYPE", "JWT");
+
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(authentication,
+            ReactiveSecurityContextHolder.withAuthentication(authentication),
+            Map.copyOf(headers),
+            expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+    }
+
+    private static List<String> stringList(Object claim) {
+        if (claim instanceof List<?> values) {
+            return values.stream().map(String::valueOf).collect(Collectors.toList());
+        }
+        return List.of();
+    }
+
+    private static void putIfPresent(Map<String, String> headers, String name, String value) {
+        if (value != null) {
+            headers.put(name, value);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * A verified token and everything derived from its claims
+     *
+     * @param authentication the authenticated principal with its role authorities
+     * @param securityContext reactor context carrying the authentication
+     * @param headers single-valued user headers for downstream services
+     * @param expiresAtMillis {@code exp} in epoch milliseconds, {@link Long#MAX_VALUE} when absent
+     */
+    public record VerifiedToken(Authentication authentication, Context securityContext, Map<String, String> headers,
+                                long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Sheds low-priority requests when their route's downstream latency is over target
+ *
+ * Runs before the route filters, so a shed request consumes no rate limit
+ * tokens and never reaches the circuit breaker. Rate-limited and fallback
+ * responses are not counted as downstream latency.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class AdmissionControlFilter implements GlobalFilter, Ordered {
+
+    private final AdmissionController admissionController;
+
+    public AdmissionControlFilter(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        String routeId = route.getId();
+        RequestPriority priority = admissionController.resolvePriority(exchange.getRequest().getPath().value());
+
+        if (!admissionController.tryAdmit(routeId, priority)) {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(TokenBucketRateLimiter.RETRY_AFTER_HEADER, "1");
+            return exchange.getResponse().setComplete();
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+            .doFinally(signal -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status == null || (status.value() != HttpStatus.TOO_MANY_REQUESTS.value()
+                        && status.value() != HttpStatus.SERVICE_UNAVAILABLE.value())) {
+                    admissionController.recordLatency(routeId, System.nanoTime() - start);
+                }
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        // After the route is resolved, ahead of the route's own filters
+        return -10;
+    }
+}
@@ -0,0 +1,170 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency-driven load shedding by priority class, per route
+ *
+ * Each route keeps a moving average of its downstream latency. Once per
+ * adjust interval the shed level moves by one: up while the average is
+ * above the target latency, down once it falls below target times the
+ * recovery ratio (or when no request completed in the interval). At shed
+ * level {@code n} the {@code n} lowest {@link RequestPriority} classes are
+ * rejected, so bulk and reporting traffic makes room for clinical and
+ * emergency traffic first. Emergency traffic is never shed.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class AdmissionController {
+
+    private static final int PRIORITY_CLASSES = RequestPriority.values().length;
+    private static final int MAX_SHED_LEVEL = PRIORITY_CLASSES - 1;
+
+    private final RateLimitProperties.Admission properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, RouteLoad> routes = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public AdmissionController(RateLimitProperties.Admission properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    public AdmissionController(RateLimitProperties.Admission properties, MeterRegistry meterRegistry,
+                               LongSupplier nanoClock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Priority class of a request path; the first matching rule wins
+     */
+    public RequestPriority resolvePriority(String path) {
+        List<RateLimitProperties.PriorityRule> rules = properties.getPriorities();
+        for (RateLimitProperties.PriorityRule rule : rules) {
+            if (pathMatcher.match(rule.getPattern(), path)) {
+                return rule.getPriority();
+            }
+        }
+        return properties.getDefaultPriority();
+    }
+
+    public boolean tryAdmit(String routeId, RequestPriority priority) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        RouteLoad load = routeLoad(routeId);
+        load.adjust(nanoClock.getAsLong());
+        if (priority.ordinal() < PRIORITY_CLASSES - load.shedLevel.get()) {
+            return true;
+        }
+        rejections.computeIfAbsent(routeId + ":" + priority, key -> Counter.builder("gateway.admission.rejected")
+            .description("Requests shed by admission control")
+            .tag("route", routeId)
+            .tag("priority", priority.name().toLowerCase())
+            .register(meterRegistry)).increment();
+        return false;
+    }
+
+    /**
+     * Record the downstream latency of a completed request
+     */
+    public void recordLatency(String routeId, long latencyNanos) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RouteLoad load = routeLoad(routeId);
+        load.record(latencyNanos / 1_000_000d);
+        load.adjust(nanoClock.getAsLong());
+    }
+
+    public int getShedLevel(String routeId) {
+        RouteLoad load = routes.get(routeId);
+        return load != null ? load.shedLevel.get() : 0;
+    }
+
+    public double getLatencyMillis(String routeId) {
+        RouteLoad load = routes.get(routeId);
+        return load != null ? load.latency() : 0;
+    }
+
+    private RouteLoad routeLoad(String routeId) {
+        RouteLoad load = routes.get(routeId);
+        if (load != null) {
+            return load;
+        }
+        return routes.computeIfAbsent(routeId, id -> {
+            RouteLoad created = new RouteLoad(nanoClock.getAsLong());
+            Gauge.builder("gateway.admission.shed.level", created.shedLevel, AtomicInteger::get)
+                .description("Lowest priority classes currently shed")
+                .tag("route", id)
+                .register(meterRegistry);
+            Gauge.builder("gateway.admission.latency", created, RouteLoad::latency)
+                .description("Smoothed downstream latency in milliseconds")
+                .tag("route", id)
+                .register(meterRegistry);
+            return created;
+        });
+    }
+
+    private final class RouteLoad {
+        /** moving average latency in milliseconds, as double bits */
+        private final AtomicLong latencyBits = new AtomicLong(Double.doubleToLongBits(0));
+        private final AtomicLong samples = new AtomicLong();
+        private final AtomicInteger shedLevel = new AtomicInteger();
+        private final AtomicLong lastAdjusted;
+
+        private RouteLoad(long nowNanos) {
+            this.lastAdjusted = new AtomicLong(nowNanos);
+        }
+
+        double latency() {
+            return Double.longBitsToDouble(latencyBits.get());
+        }
+
+        void record(double latencyMillis) {
+            double smoothing = properties.getLatencySmoothing();
+            while (true) {
+                long bits = latencyBits.get();
+                double current = Double.longBitsToDouble(bits);
+                double next = samples.get() == 0 && current == 0
+                    ? latencyMillis
+                    : current + smoothing * (latencyMillis - current);
+                if (latencyBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                    break;
+                }
+            }
+            samples.incrementAndGet();
+        }
+
+        void adjust(long nowNanos) {
+            long last = lastAdjusted.get();
+            if (nowNanos - last < properties.getAdjustInterval().toNanos()
+                    || !lastAdjusted.compareAndSet(last, nowNanos)) {
+                return;
+            }
+            long completed = samples.getAndSet(0);
+            double targetMillis = properties.getTargetLatency().toNanos() / 1_000_000d;
+            double latency = latency();
+            int level = shedLevel.get();
+            if (completed > 0 && latency > targetMillis) {
+                shedLevel.set(Math.min(MAX_SHED_LEVEL, level + 1));
+            } else if (completed == 0 || latency < targetMillis * properties.getRecoveryRatio()) {
+                shedLevel.set(Math.max(0, level - 1));
+            }
+        }
+    }
+}
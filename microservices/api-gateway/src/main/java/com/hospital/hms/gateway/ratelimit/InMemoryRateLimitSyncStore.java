@@ -0,0 +1,28 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the Redis store
+ *
+ * Used when Redis sync is disabled and in tests; several limiters sharing
+ * one instance behave like gateway instances sharing Redis. Counters do not
+ * expire.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class InMemoryRateLimitSyncStore implements RateLimitSyncStore {
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Long> addAndGet(String key, long delta, Duration ttl) {
+        return Mono.fromSupplier(() -> counters.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(delta));
+    }
+}
@@ -0,0 +1,173 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limiting and admission control settings
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Default sustained rate per client and route
+     */
+    private double requestsPerSecond = 100;
+
+    /**
+     * Default number of requests a client may burst above the sustained rate
+     */
+    private long burstCapacity = 200;
+
+    /**
+     * Per-route overrides by route id
+     */
+    private Map<String, RouteLimit> routes = new LinkedHashMap<>();
+
+    private Sync sync = new Sync();
+
+    private Admission admission = new Admission();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public double getRequestsPerSecond() { return requestsPerSecond; }
+    public void setRequestsPerSecond(double requestsPerSecond) { this.requestsPerSecond = requestsPerSecond; }
+
+    public long getBurstCapacity() { return burstCapacity; }
+    public void setBurstCapacity(long burstCapacity) { this.burstCapacity = burstCapacity; }
+
+    public Map<String, RouteLimit> getRoutes() { return routes; }
+    public void setRoutes(Map<String, RouteLimit> routes) { this.routes = routes; }
+
+    public Sync getSync() { return sync; }
+    public void setSync(Sync sync) { this.sync = sync; }
+
+    public Admission getAdmission() { return admission; }
+    public void setAdmission(Admission admission) { this.admission = admission; }
+
+    public static class RouteLimit {
+        private Double requestsPerSecond;
+        private Long burstCapacity;
+        private int requestedTokens = 1;
+
+        public Double getRequestsPerSecond() { return requestsPerSecond; }
+        public void setRequestsPerSecond(Double requestsPerSecond) { this.requestsPerSecond = requestsPerSecond; }
+
+        public Long getBurstCapacity() { return burstCapacity; }
+        public void setBurstCapacity(Long burstCapacity) { this.burstCapacity = burstCapacity; }
+
+        public int getRequestedTokens() { return requestedTokens; }
+        public void setRequestedTokens(int requestedTokens) { this.requestedTokens = requestedTokens; }
+    }
+
+    /**
+     * Sharing of bucket consumption between gateway instances
+     */
+    public static class Sync {
+        /**
+         * Sync through Redis; otherwise an in-process store stands in and limits are per instance
+         */
+        private boolean redis = false;
+        private Duration interval = Duration.ofMillis(250);
+        private Duration ttl = Duration.ofMinutes(1);
+        private String keyPrefix = "hms:gateway:rate-limit:";
+        private int concurrency = 64;
+
+        public boolean isRedis() { return redis; }
+        public void setRedis(boolean redis) { this.redis = redis; }
+
+        public Duration getInterval() { return interval; }
+        public void setInterval(Duration interval) { this.interval = interval; }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+        public String getKeyPrefix() { return keyPrefix; }
+        public void setKeyPrefix(String keyPrefix) { this.keyPrefix = keyPrefix; }
+
+        public int getConcurrency() { return concurrency; }
+        public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+    }
+
+    /**
+     * Latency-driven load shedding by priority class
+     */
+    public static class Admission {
+        private boolean enabled = true;
+
+        /**
+         * Smoothed downstream latency above which the next-lowest priority class is shed
+         */
+        private Duration targetLatency = Duration.ofMillis(800);
+
+        /**
+         * Shedding is relaxed by one class once latency falls below target times this ratio
+         */
+        private double recoveryRatio = 0.7;
+
+        private Duration adjustInterval = Duration.ofSeconds(1);
+
+        /**
+         * Weight of each new sample in the latency moving average
+         */
+        private double latencySmoothing = 0.1;
+
+        private RequestPriority defaultPriority = RequestPriority.STANDARD;
+
+        /**
+         * Path patterns and their priority; the first match wins
+         */
+        private List<PriorityRule> priorities = new ArrayList<>();
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public Duration getTargetLatency() { return targetLatency; }
+        public void setTargetLatency(Duration targetLatency) { this.targetLatency = targetLatency; }
+
+        public double getRecoveryRatio() { return recoveryRatio; }
+        public void setRecoveryRatio(double recoveryRatio) { this.recoveryRatio = recoveryRatio; }
+
+        public Duration getAdjustInterval() { return adjustInterval; }
+        public void setAdjustInterval(Duration adjustInterval) { this.adjustInterval = adjustInterval; }
+
+        public double getLatencySmoothing() { return latencySmoothing; }
+        public void setLatencySmoothing(double latencySmoothing) { this.latencySmoothing = latencySmoothing; }
+
+        public RequestPriority getDefaultPriority() { return defaultPriority; }
+        public void setDefaultPriority(RequestPriority defaultPriority) { this.defaultPriority = defaultPriority; }
+
+        public List<PriorityRule> getPriorities() { return priorities; }
+        public void setPriorities(List<PriorityRule> priorities) { this.priorities = priorities; }
+    }
+
+    public static class PriorityRule {
+        private String pattern;
+        private RequestPriority priority;
+
+        public PriorityRule() {
+        }
+
+        public PriorityRule(String pattern, RequestPriority priority) {
+            this.pattern = pattern;
+            this.priority = priority;
+        }
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+
+        public RequestPriority getPriority() { return priority; }
+        public void setPriority(RequestPriority priority) { this.priority = priority; }
+    }
+}
@@ -0,0 +1,21 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Shared consumption counters for rate limit buckets across gateway instances
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface RateLimitSyncStore {
+
+    /**
+     * Add {@code delta} tokens to the counter of {@code key} and return its new total
+     *
+     * The counter expires {@code ttl} after its last update.
+     */
+    Mono<Long> addAndGet(String key, long delta, Duration ttl);
+}
@@ -0,0 +1,27 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Redis-backed consumption counters shared by all gateway instances
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class RedisRateLimitSyncStore implements RateLimitSyncStore {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public RedisRateLimitSyncStore(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Long> addAndGet(String key, long delta, Duration ttl) {
+        return redisTemplate.opsForValue().increment(key, delta)
+            .flatMap(total -> redisTemplate.expire(key, ttl).thenReturn(total));
+    }
+}
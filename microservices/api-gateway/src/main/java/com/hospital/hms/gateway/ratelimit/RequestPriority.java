@@ -0,0 +1,18 @@
+package com.hospital.hms.gateway.ratelimit;
+
+/**
+ * Admission priority classes, highest first
+ *
+ * Under overload the lowest classes are shed first; {@link #EMERGENCY}
+ * traffic is never shed by admission control.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public enum RequestPriority {
+    EMERGENCY,
+    CLINICAL,
+    STANDARD,
+    REPORTING,
+    BULK
+}
@@ -0,0 +1,175 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client, per-route token bucket limiter for the {@code RequestRateLimiter} filter
+ *
+ * Requests are admitted in-process against lock-free {@link TokenBucket}s,
+ * so the request path never waits on Redis. Every sync interval each
+ * bucket publishes the tokens it consumed to the {@link RateLimitSyncStore}
+ * and debits what the other gateway instances consumed, so a client's rate
+ * is enforced cluster-wide to within one sync interval. If the store is
+ * unreachable the buckets keep limiting per instance. Full buckets with
+ * nothing to publish are dropped during sync, which keeps memory
+ * proportional to the clients active in the last few seconds.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class TokenBucketRateLimiter implements RateLimiter<TokenBucketRateLimiter.Config> {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+
+    public static final String REMAINING_HEADER = "X-Rate-Limit-Remaining";
+    public static final String RESET_HEADER = "X-Rate-Limit-Reset";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final RateLimitProperties properties;
+    private final RateLimitSyncStore syncStore;
+    private final LongSupplier nanoClock;
+    private final Map<String, Config> config = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private Disposable syncTask;
+
+    public TokenBucketRateLimiter(RateLimitProperties properties, RateLimitSyncStore syncStore) {
+        this(properties, syncStore, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(RateLimitProperties properties, RateLimitSyncStore syncStore,
+                                  LongSupplier nanoClock) {
+        this.properties = properties;
+        this.syncStore = syncStore;
+        this.nanoClock = nanoClock;
+    }
+
+    @PostConstruct
+    public void start() {
+        syncTask = Flux.interval(properties.getSync().getInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> synchronize(), 0)
+            .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (syncTask != null) {
+            syncTask.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        if (!properties.isEnabled()) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+        Config routeConfig = getConfig().computeIfAbsent(routeId, this::configFor);
+        String key = routeId + ":" + id;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k ->
+                new TokenBucket(routeConfig.getReplenishRate(), routeConfig.getBurstCapacity(), nanoClock.getAsLong()));
+        }
+        TokenBucket.Decision decision = bucket.tryConsume(routeConfig.getRequestedTokens(), nanoClock.getAsLong());
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        if (!decision.allowed()) {
+            long retryAfterSeconds = Math.max(1,
+                TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1));
+            headers.put(RESET_HEADER, String.valueOf(retryAfterSeconds));
+            headers.put(RETRY_AFTER_HEADER, String.valueOf(retryAfterSeconds));
+        }
+        return Mono.just(new Response(decision.allowed(), headers));
+    }
+
+    /**
+     * Publish local consumption, debit remote consumption and drop idle buckets
+     */
+    public Mono<Void> synchronize() {
+        RateLimitProperties.Sync sync = properties.getSync();
+        AtomicInteger failures = new AtomicInteger();
+        return Flux.fromIterable(buckets.entrySet())
+            .flatMap(entry -> {
+                TokenBucket bucket = entry.getValue();
+                long published = bucket.drainUnsynced();
+                if (published == 0 && bucket.isIdle(nanoClock.getAsLong())) {
+                    // A request racing this removal may consume from the dropped bucket: at most one extra burst
+                    buckets.remove(entry.getKey(), bucket);
+                    return Mono.empty();
+                }
+                return syncStore.addAndGet(sync.getKeyPrefix() + entry.getKey(), published, sync.getTtl())
+                    .doOnNext(total -> bucket.applySyncedTotal(total, published, nanoClock.getAsLong()))
+                    .onErrorResume(e -> {
+                        bucket.restoreUnsynced(published);
+                        failures.incrementAndGet();
+                        return Mono.empty();
+                    });
+            }, sync.getConcurrency())
+            .then(Mono.fromRunnable(() -> {
+                if (failures.get() > 0) {
+                    logger.warn("Rate limit sync failed for {} buckets; limiting per instance until it recovers",
+                        failures.get());
+                }
+            }));
+    }
+
+    private Config configFor(String routeId) {
+        RateLimitProperties.RouteLimit limit = properties.getRoutes().get(routeId);
+        Config routeConfig = new Config();
+        routeConfig.setReplenishRate(limit != null && limit.getRequestsPerSecond() != null
+            ? limit.getRequestsPerSecond() : properties.getRequestsPerSecond());
+        routeConfig.setBurstCapacity(limit != null && limit.getBurstCapacity() != null
+            ? limit.getBurstCapacity() : properties.getBurstCapacity());
+        routeConfig.setRequestedTokens(limit != null ? limit.getRequestedTokens() : 1);
+        return routeConfig;
+    }
+
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    @Override
+    public Map<String, Config> getConfig() {
+        return config;
+    }
+
+    @Override
+    public Class<Config> getConfigClass() {
+        return Config.class;
+    }
+
+    @Override
+    public Config newConfig() {
+        return new Config();
+    }
+
+    public static class Config {
+        private double replenishRate;
+        private long burstCapacity;
+        private int requestedTokens = 1;
+
+        public double getReplenishRate() { return replenishRate; }
+        public void setReplenishRate(double replenishRate) { this.replenishRate = replenishRate; }
+
+        public long getBurstCapacity() { return burstCapacity; }
+        public void setBurstCapacity(long burstCapacity) { this.burstCapacity = burstCapacity; }
+
+        public int getRequestedTokens() { return requestedTokens; }
+        public void setRequestedTokens(int requestedTokens) { this.requestedTokens = requestedTokens; }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdmissionController
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class AdmissionControllerTest {
+
+    private static final String ROUTE = "patient-management";
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    private AdmissionController newController() {
+        RateLimitProperties.Admission properties = new RateLimitProperties.Admission();
+        properties.setTargetLatency(Duration.ofMillis(500));
+        properties.setAdjustInterval(Duration.ofSeconds(1));
+        properties.setLatencySmoothing(0.5);
+        properties.setPriorities(List.of(
+            new RateLimitProperties.PriorityRule("/api/v1/emergency/**", RequestPriority.EMERGENCY),
+            new RateLimitProperties.PriorityRule("/api/v1/**/export/**", RequestPriority.BULK),
+            new RateLimitProperties.PriorityRule("/api/v1/**/reports/**", RequestPriority.REPORTING),
+            new RateLimitProperties.PriorityRule("/api/v1/patients/**", RequestPriority.CLINICAL)));
+        return new AdmissionController(properties, new SimpleMeterRegistry(), nanos::get);
+    }
+
+    /**
+     * One adjust interval with every completed request at the given latency
+     */
+    private void interval(AdmissionController controller, long latencyMillis) {
+        for (int i = 0; i < 10; i++) {
+            controller.recordLatency(ROUTE, Duration.ofMillis(latencyMillis).toNanos());
+        }
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        controller.recordLatency(ROUTE, Duration.ofMillis(latencyMillis).toNanos());
+    }
+
+    @Test
+    void resolvePriority_FirstMatchingRuleWins() {
+        AdmissionController controller = newController();
+
+        assertEquals(RequestPriority.EMERGENCY, controller.resolvePriority("/api/v1/emergency/triage/42"));
+        assertEquals(RequestPriority.BULK, controller.resolvePriority("/api/v1/patients/export/all"));
+        assertEquals(RequestPriority.REPORTING, controller.resolvePriority("/api/v1/billing/reports/monthly"));
+        assertEquals(RequestPriority.CLINICAL, controller.resolvePriority("/api/v1/patients/42"));
+        assertEquals(RequestPriority.STANDARD, controller.resolvePriority("/api/v1/appointments/7"));
+    }
+
+    @Test
+    void tryAdmit_ShedsLowestPrioritiesFirstWhileLatencyIsHigh() {
+        AdmissionController controller = newController();
+        assertTrue(controller.tryAdmit(ROUTE, RequestPriority.BULK));
+
+        interval(controller, 2_000);
+        assertEquals(1, controller.getShedLevel(ROUTE));
+        assertFalse(controller.tryAdmit(ROUTE, RequestPriority.BULK));
+        assertTrue(controller.tryAdmit(ROUTE, RequestPriority.REPORTING));
+
+        interval(controller, 2_000);
+        interval(controller, 2_000);
+        assertFalse(controller.tryAdmit(ROUTE, RequestPriority.REPORTING));
+        assertFalse(controller.tryAdmit(ROUTE, RequestPriority.STANDARD));
+        assertTrue(controller.tryAdmit(ROUTE, RequestPriority.CLINICAL));
+
+        for (int i = 0; i < 10; i++) {
+            interval(controller, 2_000);
+        }
+        assertEquals(RequestPriority.values().length - 1, controller.getShedLevel(ROUTE));
+        assertFalse(controller.tryAdmit(ROUTE, RequestPriority.CLINICAL));
+        assertTrue(controller.tryAdmit(ROUTE, RequestPriority.EMERGENCY), "Emergency traffic is never shed");
+    }
+
+    @Test
+    void tryAdmit_RecoversOnceLatencyDropsOrTrafficStops() {
+        AdmissionController controller = newController();
+        interval(controller, 2_000);
+        interval(controller, 2_000);
+        assertEquals(2, controller.getShedLevel(ROUTE));
+
+        // Latency within target but above the recovery threshold holds the level
+        interval(controller, 450);
+        interval(controller, 450);
+        interval(controller, 450);
+        assertEquals(2, controller.getShedLevel(ROUTE));
+
+        interval(controller, 100);
+        assertEquals(1, controller.getShedLevel(ROUTE));
+        assertFalse(controller.tryAdmit(ROUTE, RequestPriority.BULK));
+
+        // An interval in which nothing completed also relaxes shedding
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(controller.tryAdmit(ROUTE, RequestPriority.BULK));
+        assertEquals(0, controller.getShedLevel(ROUTE));
+    }
+}
@@ -0,0 +1,143 @@
+package com.hospital.hms.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBucketRateLimiter, synced through the in-memory stand-in store
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    private TokenBucketRateLimiter newLimiter(RateLimitSyncStore store) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerSecond(10);
+        properties.setBurstCapacity(20);
+        RateLimitProperties.RouteLimit billing = new RateLimitProperties.RouteLimit();
+        billing.setRequestsPerSecond(1.0);
+        billing.setBurstCapacity(2L);
+        properties.getRoutes().put("billing", billing);
+        return new TokenBucketRateLimiter(properties, store, nanos::get);
+    }
+
+    private static boolean allowed(TokenBucketRateLimiter limiter, String route, String client) {
+        return limiter.isAllowed(route, client).block().isAllowed();
+    }
+
+    @Test
+    void isAllowed_AdmitsBurstThenRejectsUntilRefilled() {
+        TokenBucketRateLimiter limiter = newLimiter(new InMemoryRateLimitSyncStore());
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(allowed(limiter, "patient-management", "integration-a"), "request " + i);
+        }
+        RateLimiter.Response rejected = limiter.isAllowed("patient-management", "integration-a").block();
+        assertFalse(rejected.isAllowed());
+        assertEquals("0", rejected.getHeaders().get(TokenBucketRateLimiter.REMAINING_HEADER));
+        assertEquals("1", rejected.getHeaders().get(TokenBucketRateLimiter.RETRY_AFTER_HEADER));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(allowed(limiter, "patient-management", "integration-a"));
+        assertFalse(allowed(limiter, "patient-management", "integration-a"));
+    }
+
+    @Test
+    void isAllowed_BucketsArePerClientAndPerRoute() {
+        TokenBucketRateLimiter limiter = newLimiter(new InMemoryRateLimitSyncStore());
+
+        assertTrue(allowed(limiter, "billing", "integration-a"));
+        assertTrue(allowed(limiter, "billing", "integration-a"));
+        assertFalse(allowed(limiter, "billing", "integration-a"));
+
+        assertTrue(allowed(limiter, "billing", "integration-b"));
+        assertTrue(allowed(limiter, "patient-management", "integration-a"));
+    }
+
+    @Test
+    void synchronize_DebitsTokensConsumedByOtherInstances() {
+        InMemoryRateLimitSyncStore store = new InMemoryRateLimitSyncStore();
+        TokenBucketRateLimiter first = newLimiter(store);
+        TokenBucketRateLimiter second = newLimiter(store);
+        allowed(first, "patient-management", "integration-a");
+        allowed(second, "patient-management", "integration-a");
+        first.synchronize().block();
+        second.synchronize().block();
+
+        for (int i = 0; i < 15; i++) {
+            assertTrue(allowed(first, "patient-management", "integration-a"));
+        }
+        first.synchronize().block();
+        second.synchronize().block();
+
+        // The second instance spent 1 token itself and is debited the 15 spent since its baseline
+        for (int i = 0; i < 4; i++) {
+            assertTrue(allowed(second, "patient-management", "integration-a"));
+        }
+        assertFalse(allowed(second, "patient-management", "integration-a"));
+    }
+
+    @Test
+    void synchronize_DropsIdleBucketsAndSurvivesStoreFailures() {
+        TokenBucketRateLimiter limiter = newLimiter((key, delta, ttl) ->
+            Mono.error(new IllegalStateException("Redis unavailable")));
+        allowed(limiter, "patient-management", "integration-a");
+        allowed(limiter, "patient-management", "integration-b");
+
+        limiter.synchronize().block();
+        assertEquals(2, limiter.getBucketCount());
+
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        limiter.synchronize().block();
+        assertEquals(2, limiter.getBucketCount(), "Unpublished consumption must be kept");
+
+        TokenBucketRateLimiter healthy = newLimiter(new InMemoryRateLimitSyncStore());
+        allowed(healthy, "patient-management", "integration-a");
+        healthy.synchronize().block();
+        nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+        healthy.synchronize().block();
+        assertEquals(0, healthy.getBucketCount());
+    }
+
+    @Test
+    void isAllowed_ConcurrentClientsNeverExceedTheBurst() throws Exception {
+        TokenBucketRateLimiter limiter = newLimiter(new InMemoryRateLimitSyncStore());
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (allowed(limiter, "patient-management", "integration-a")) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(20, admitted.get());
+    }
+}
@@ -0,0 +1,63 @@
+package com.hospital.hms.appointmentscheduling.calendar;
+
+import com.hospital.hms.appointmentscheduling.dto.AvailableSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Searches a set of provider calendars for the earliest feasible slots
+ *
+ * Every provider calendar is combined with the shared resource calendar
+ * (a slot must have the provider and all required resources free) and
+ * scanned independently, so candidates are searched in parallel once the
+ * candidate set is large enough to pay for the fork.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class AvailableSlotFinder {
+
+    private static final int PARALLEL_THRESHOLD = 16;
+
+    private static final Comparator<AvailableSlotDto> EARLIEST_FIRST =
+            Comparator.comparing(AvailableSlotDto::getStartDateTime)
+                      .thenComparing(AvailableSlotDto::getProviderId);
+
+    /**
+     * @param providerCalendars busy calendar per candidate provider, all on the same grid
+     * @param resourceCalendar  union of busy time across required resources, or null
+     * @param durationMinutes   length of the requested slot
+     * @param notBefore         earliest acceptable start
+     * @param limit             number of slots to return
+     */
+    public List<AvailableSlotDto> findEarliest(Map<UUID, ScheduleCalendar> providerCalendars,
+                                               ScheduleCalendar resourceCalendar,
+                                               int durationMinutes,
+                                               LocalDateTime notBefore,
+                                               int limit) {
+        Stream<Map.Entry<UUID, ScheduleCalendar>> candidates = providerCalendars.entrySet().stream();
+        if (providerCalendars.size() >= PARALLEL_THRESHOLD) {
+            candidates = candidates.parallel();
+        }
+
+        return candidates
+                .flatMap(entry -> {
+                    ScheduleCalendar calendar = entry.getValue();
+                    if (resourceCalendar != null) {
+                        calendar = calendar.copy();
+                        calendar.mergeBusy(resourceCalendar);
+                    }
+                    return calendar.findEarliestFree(durationMinutes, notBefore, limit).stream()
+                            .map(start -> new AvailableSlotDto(entry.getKey(), start, start.plusMinutes(durationMinutes)));
+                })
+                .sorted(EARLIEST_FIRST)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.hospital.hms.appointmentscheduling.calendar;
+
+import net.fortuna.ical4j.model.Recur;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Expands an iCalendar RRULE into concrete occurrence start times
+ *
+ * Expansion is always bounded by a window, so unbounded rules (no COUNT or
+ * UNTIL) can be materialized a horizon at a time.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class RecurrenceExpander {
+
+    private RecurrenceExpander() {
+    }
+
+    /**
+     * Parse and validate a rule such as {@code FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=36}
+     */
+    public static Recur<LocalDateTime> parse(String rule) {
+        try {
+            return new Recur<>(rule);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid recurrence rule: " + rule, e);
+        }
+    }
+
+    /**
+     * Occurrences of the rule seeded at {@code seriesStart} that fall after
+     * {@code after} (exclusive) and no later than {@code through} (inclusive)
+     */
+    public static List<LocalDateTime> expand(Recur<LocalDateTime> recur, LocalDateTime seriesStart,
+                                             LocalDateTime after, LocalDateTime through) {
+        if (!through.isAfter(after)) {
+            return List.of();
+        }
+        return recur.getDates(seriesStart, after, through.plusSeconds(1)).stream()
+                .filter(start -> start.isAfter(after) && !start.isAfter(through))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Last occurrence of a bounded rule, or null when the rule never ends
+     */
+    public static LocalDateTime lastOccurrence(Recur<LocalDateTime> recur, LocalDateTime seriesStart, LocalDateTime searchLimit) {
+        if (recur.getCount() <= 0 && recur.getUntil() == null) {
+            return null;
+        }
+        List<LocalDateTime> all = expand(recur, seriesStart, seriesStart.minusSeconds(1), searchLimit);
+        return all.isEmpty() ? seriesStart : all.get(all.size() - 1);
+    }
+}
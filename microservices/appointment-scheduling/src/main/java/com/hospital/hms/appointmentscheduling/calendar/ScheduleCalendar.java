@@ -0,0 +1,149 @@
+package com.hospital.hms.appointmentscheduling.calendar;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * In-memory busy/free calendar over a fixed time grid
+ *
+ * Each bit represents one scheduling interval (for example 15 minutes)
+ * starting at the calendar origin; a set bit means the interval is busy.
+ * Bookings are rounded outward to whole intervals, so a calendar never
+ * reports time as free that any booking touches.
+ *
+ * Instances are not thread-safe; build one per search and share it only
+ * for reading.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class ScheduleCalendar {
+
+    private final LocalDateTime origin;
+    private final int slotMinutes;
+    private final int slotCount;
+    private final BitSet busy;
+
+    public ScheduleCalendar(LocalDateTime origin, LocalDateTime end, int slotMinutes) {
+        if (slotMinutes <= 0) {
+            throw new IllegalArgumentException("Slot length must be positive");
+        }
+        if (!end.isAfter(origin)) {
+            throw new IllegalArgumentException("Calendar end must be after its origin");
+        }
+        this.origin = origin;
+        this.slotMinutes = slotMinutes;
+        this.slotCount = (int) ceilDiv(Duration.between(origin, end).toMinutes(), slotMinutes);
+        this.busy = new BitSet(slotCount);
+    }
+
+    private ScheduleCalendar(ScheduleCalendar source) {
+        this.origin = source.origin;
+        this.slotMinutes = source.slotMinutes;
+        this.slotCount = source.slotCount;
+        this.busy = (BitSet) source.busy.clone();
+    }
+
+    /**
+     * Mark the given period busy, widened to whole slots
+     */
+    public void markBusy(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            return;
+        }
+        int first = (int) Math.max(0, Math.floorDiv(minutesFromOrigin(from), slotMinutes));
+        int last = (int) Math.min(slotCount, ceilDiv(minutesFromOrigin(to), slotMinutes));
+        if (first < last) {
+            busy.set(first, last);
+        }
+    }
+
+    /**
+     * Mark everything outside the daily opening hours busy
+     */
+    public void closeOutside(LocalTime open, LocalTime close) {
+        LocalDate day = origin.toLocalDate();
+        LocalDate lastDay = slotStart(slotCount).toLocalDate();
+        while (!day.isAfter(lastDay)) {
+            markBusy(day.atStartOfDay(), day.atTime(open));
+            markBusy(day.atTime(close), day.plusDays(1).atStartOfDay());
+            day = day.plusDays(1);
+        }
+    }
+
+    /**
+     * Mark every slot that is busy in the other calendar as busy here.
+     * Both calendars must share the same grid.
+     */
+    public void mergeBusy(ScheduleCalendar other) {
+        if (!origin.equals(other.origin) || slotMinutes != other.slotMinutes) {
+            throw new IllegalArgumentException("Calendars do not share the same grid");
+        }
+        busy.or(other.busy);
+    }
+
+    public ScheduleCalendar copy() {
+        return new ScheduleCalendar(this);
+    }
+
+    /**
+     * Find up to {@code limit} start times, in ascending order, at which a
+     * block of the given duration is entirely free and starts no earlier
+     * than {@code notBefore}.
+     */
+    public List<LocalDateTime> findEarliestFree(int durationMinutes, LocalDateTime notBefore, int limit) {
+        List<LocalDateTime> starts = new ArrayList<>(Math.min(limit, 16));
+        int needed = (int) ceilDiv(durationMinutes, slotMinutes);
+        int from = (int) Math.max(0, ceilDiv(minutesFromOrigin(notBefore), slotMinutes));
+
+        int runStart = busy.nextClearBit(from);
+        while (runStart + needed <= slotCount && starts.size() < limit) {
+            int nextBusy = busy.nextSetBit(runStart);
+            int runEnd = nextBusy < 0 ? slotCount : Math.min(nextBusy, slotCount);
+            for (int start = runStart; start + needed <= runEnd && starts.size() < limit; start++) {
+                starts.add(slotStart(start));
+            }
+            runStart = busy.nextClearBit(runEnd);
+        }
+        return starts;
+    }
+
+    public boolean isFree(LocalDateTime from, LocalDateTime to) {
+        int first = (int) Math.floorDiv(minutesFromOrigin(from), slotMinutes);
+        int last = (int) ceilDiv(minutesFromOrigin(to), slotMinutes);
+        if (first < 0 || last > slotCount) {
+            return false;
+        }
+        int nextBusy = busy.nextSetBit(first);
+        return nextBusy < 0 || nextBusy >= last;
+    }
+
+    public LocalDateTime getOrigin() {
+        return origin;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    private LocalDateTime slotStart(int index) {
+        return origin.plusMinutes((long) index * slotMinutes);
+    }
+
+    private long minutesFromOrigin(LocalDateTime time) {
+        return Duration.between(origin, time).toMinutes();
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+}
@@ -0,0 +1,33 @@
+package com.hospital.hms.appointmentscheduling.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Messaging configuration for appointment events
+ *
+ * Status transitions are published to a durable topic exchange; billing and
+ * the patient portal bind their own queues to it.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Configuration
+public class MessagingConfig {
+
+    @Bean
+    public TopicExchange appointmentEventsExchange(
+            @Value("${appointment.events.exchange:hms.appointment.events}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+}
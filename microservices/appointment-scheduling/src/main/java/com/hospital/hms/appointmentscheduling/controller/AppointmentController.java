@@ -2,7 +2,12 @@ package com.hospital.hms.appointmentscheduling.controller;
 
 import com.hospital.hms.appointmentscheduling.dto.AppointmentCreateRequestDto;
 import com.hospital.hms.appointmentscheduling.dto.AppointmentResponseDto;
+import com.hospital.hms.appointmentscheduling.dto.AppointmentSeriesCreateRequestDto;
+import com.hospital.hms.appointmentscheduling.dto.AppointmentSeriesResponseDto;
+import com.hospital.hms.appointmentscheduling.dto.AvailableSlotDto;
+import com.hospital.hms.appointmentscheduling.dto.SlotSearchRequestDto;
 import com.hospital.hms.appointmentscheduling.entity.AppointmentStatus;
+import com.hospital.hms.appointmentscheduling.service.AppointmentSeriesService;
 import com.hospital.hms.appointmentscheduling.service.AppointmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,10 +41,12 @@ import java.util.UUID;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentSeriesService appointmentSeriesService;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, AppointmentSeriesService appointmentSeriesService) {
         this.appointmentService = appointmentService;
+        this.appointmentSeriesService = appointmentSeriesService;
     }
 
     @Operation(summary = "Create a new appointment")
@@ -52,6 +59,24 @@ public class AppointmentController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Book a recurring appointment series")
+    @PostMapping("/series")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('REGISTRATION_STAFF')")
+    public ResponseEntity<AppointmentSeriesResponseDto> createAppointmentSeries(
+            @Valid @RequestBody AppointmentSeriesCreateRequestDto createRequest) {
+        
+        AppointmentSeriesResponseDto response = appointmentSeriesService.createSeries(createRequest);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Get a recurring appointment series with its booked occurrences")
+    @GetMapping("/series/{seriesId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or hasRole('NURSE') or hasRole('REGISTRATION_STAFF')")
+    public ResponseEntity<AppointmentSeriesResponseDto> getAppointmentSeries(@PathVariable UUID seriesId) {
+        AppointmentSeriesResponseDto response = appointmentSeriesService.getSeries(seriesId);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "Update appointment information")
     @PutMapping("/{appointmentId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('REGISTRATION_STAFF')")
@@ -112,6 +137,16 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Find the earliest available slots across providers, locations and resources")
+    @PostMapping("/available-slots/search")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or hasRole('NURSE') or hasRole('REGISTRATION_STAFF')")
+    public ResponseEntity<List<AvailableSlotDto>> findAvailableSlots(
+            @Valid @RequestBody SlotSearchRequestDto searchRequest) {
+        
+        List<AvailableSlotDto> response = appointmentService.findAvailableSlots(searchRequest);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "Update appointment status")
     @PutMapping("/{appointmentId}/status")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCTOR') or hasRole('NURSE') or hasRole('REGISTRATION_STAFF')")
@@ -161,6 +196,34 @@ public class AppointmentController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Get completed appointments for charge capture")
+    @GetMapping("/completed")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BILLING_MANAGER')")
+    public ResponseEntity<List<AppointmentResponseDto>> getCompletedAppointments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "1000") int size) {
+
+        List<AppointmentResponseDto> response = appointmentService.getCompletedAppointments(
+                startTime, endTime, PageRequest.of(page, size));
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Get booked appointments in a window for eligibility pre-verification")
+    @GetMapping("/upcoming")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BILLING_MANAGER')")
+    public ResponseEntity<List<AppointmentResponseDto>> getUpcomingAppointments(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "1000") int size) {
+
+        List<AppointmentResponseDto> response = appointmentService.getUpcomingAppointments(
+                startTime, endTime, PageRequest.of(page, size));
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "Get appointment statistics")
     @GetMapping("/statistics")
     @PreAuthorize("hasRole('ADMIN') or hasRole('ANALYTICS')")
@@ -90,6 +90,11 @@ public class AppointmentCreateRequestDto {
     @Schema(description = "Initial appointment status", example = "SCHEDULED")
     private AppointmentStatus status = AppointmentStatus.SCHEDULED;
 
+    @Schema(description = "Client idempotency key; replaying a request with the same key returns the original booking",
+            example = "frontdesk-01-7f3b4c1d")
+    @Size(max = 100, message = "Request key must not exceed 100 characters")
+    private String requestKey;
+
     // Constructors
     public AppointmentCreateRequestDto() {}
 
@@ -247,4 +252,12 @@ public class AppointmentCreateRequestDto {
     public void setStatus(AppointmentStatus status) {
         this.status = status;
     }
+
+    public String getRequestKey() {
+        return requestKey;
+    }
+
+    public void setRequestKey(String requestKey) {
+        this.requestKey = requestKey;
+    }
 }
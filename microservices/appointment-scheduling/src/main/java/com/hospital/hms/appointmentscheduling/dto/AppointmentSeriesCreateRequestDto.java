@@ -0,0 +1,182 @@
+package com.hospital.hms.appointmentscheduling.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for booking a recurring appointment series
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Request DTO for booking a recurring appointment series")
+public class AppointmentSeriesCreateRequestDto {
+
+    @Schema(description = "Patient ID", example = "550e8400-e29b-41d4-a716-446655440000", required = true)
+    @NotNull(message = "Patient ID is required")
+    private UUID patientId;
+
+    @Schema(description = "Patient name", example = "John Smith", required = true)
+    @NotBlank(message = "Patient name is required")
+    @Size(max = 200, message = "Patient name must not exceed 200 characters")
+    private String patientName;
+
+    @Schema(description = "Provider ID", example = "550e8400-e29b-41d4-a716-446655440001", required = true)
+    @NotNull(message = "Provider ID is required")
+    private UUID providerId;
+
+    @Schema(description = "Provider name", example = "Dr. Jane Doe", required = true)
+    @NotBlank(message = "Provider name is required")
+    @Size(max = 200, message = "Provider name must not exceed 200 characters")
+    private String providerName;
+
+    @Schema(description = "Provider specialty", example = "Nephrology")
+    @Size(max = 100, message = "Provider specialty must not exceed 100 characters")
+    private String providerSpecialty;
+
+    @Schema(description = "Location ID", example = "550e8400-e29b-41d4-a716-446655440002")
+    private UUID locationId;
+
+    @Schema(description = "Location name", example = "Dialysis Unit")
+    @Size(max = 200, message = "Location name must not exceed 200 characters")
+    private String locationName;
+
+    @Schema(description = "Appointment type", example = "PROCEDURE", required = true)
+    @NotBlank(message = "Appointment type is required")
+    @Size(max = 50, message = "Appointment type must not exceed 50 characters")
+    private String appointmentType;
+
+    @Schema(description = "Duration of each occurrence in minutes", example = "240", required = true)
+    @NotNull(message = "Duration is required")
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 480, message = "Duration must not exceed 8 hours")
+    private Integer durationMinutes;
+
+    @Schema(description = "Start of the first occurrence; seeds the recurrence", example = "2025-06-16T07:00:00", required = true)
+    @NotNull(message = "Series start is required")
+    @Future(message = "Series must start in the future")
+    private LocalDateTime seriesStart;
+
+    @Schema(description = "iCalendar RRULE", example = "FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=36", required = true)
+    @NotBlank(message = "Recurrence rule is required")
+    @Pattern(regexp = "^FREQ=(DAILY|WEEKLY|MONTHLY)(;[A-Z]+=[A-Z0-9,+\\-]+)*$", message = "Invalid recurrence rule")
+    @Size(max = 500, message = "Recurrence rule must not exceed 500 characters")
+    private String recurrenceRule;
+
+    @Schema(description = "Book the remaining occurrences when some conflict instead of rejecting the series", example = "false")
+    private Boolean skipConflicts = false;
+
+    @Schema(description = "Additional notes")
+    private String notes;
+
+    // Constructors
+    public AppointmentSeriesCreateRequestDto() {}
+
+    // Getters and Setters
+    public UUID getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(UUID patientId) {
+        this.patientId = patientId;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public void setPatientName(String patientName) {
+        this.patientName = patientName;
+    }
+
+    public UUID getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(UUID providerId) {
+        this.providerId = providerId;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public void setProviderName(String providerName) {
+        this.providerName = providerName;
+    }
+
+    public String getProviderSpecialty() {
+        return providerSpecialty;
+    }
+
+    public void setProviderSpecialty(String providerSpecialty) {
+        this.providerSpecialty = providerSpecialty;
+    }
+
+    public UUID getLocationId() {
+        return locationId;
+    }
+
+    public void setLocationId(UUID locationId) {
+        this.locationId = locationId;
+    }
+
+    public String getLocationName() {
+        return locationName;
+    }
+
+    public void setLocationName(String locationName) {
+        this.locationName = locationName;
+    }
+
+    public String getAppointmentType() {
+        return appointmentType;
+    }
+
+    public void setAppointmentType(String appointmentType) {
+        this.appointmentType = appointmentType;
+    }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public LocalDateTime getSeriesStart() {
+        return seriesStart;
+    }
+
+    public void setSeriesStart(LocalDateTime seriesStart) {
+        this.seriesStart = seriesStart;
+    }
+
+    public String getRecurrenceRule() {
+        return recurrenceRule;
+    }
+
+    public void setRecurrenceRule(String recurrenceRule) {
+        this.recurrenceRule = recurrenceRule;
+    }
+
+    public Boolean getSkipConflicts() {
+        return skipConflicts;
+    }
+
+    public void setSkipConflicts(Boolean skipConflicts) {
+        this.skipConflicts = skipConflicts;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,110 @@
+package com.hospital.hms.appointmentscheduling.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for recurring appointment series response data
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Response DTO containing a recurring appointment series and its booked occurrences")
+public class AppointmentSeriesResponseDto {
+
+    @Schema(description = "Series identifier", example = "550e8400-e29b-41d4-a716-446655440010")
+    private UUID seriesId;
+
+    @Schema(description = "iCalendar RRULE", example = "FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=36")
+    private String recurrenceRule;
+
+    @Schema(description = "Start of the first occurrence", example = "2025-06-16T07:00:00")
+    private LocalDateTime seriesStart;
+
+    @Schema(description = "Occurrences are booked up to this instant; later ones are booked as the horizon rolls forward")
+    private LocalDateTime materializedThrough;
+
+    @Schema(description = "Whether occurrences remain to be booked")
+    private Boolean active;
+
+    @Schema(description = "Occurrences booked so far", example = "36")
+    private Integer occurrencesBooked;
+
+    @Schema(description = "Booked occurrences")
+    private List<AppointmentResponseDto> appointments = new ArrayList<>();
+
+    @Schema(description = "Occurrence start times skipped because of conflicts")
+    private List<LocalDateTime> skippedOccurrences = new ArrayList<>();
+
+    // Constructors
+    public AppointmentSeriesResponseDto() {}
+
+    // Getters and Setters
+    public UUID getSeriesId() {
+        return seriesId;
+    }
+
+    public void setSeriesId(UUID seriesId) {
+        this.seriesId = seriesId;
+    }
+
+    public String getRecurrenceRule() {
+        return recurrenceRule;
+    }
+
+    public void setRecurrenceRule(String recurrenceRule) {
+        this.recurrenceRule = recurrenceRule;
+    }
+
+    public LocalDateTime getSeriesStart() {
+        return seriesStart;
+    }
+
+    public void setSeriesStart(LocalDateTime seriesStart) {
+        this.seriesStart = seriesStart;
+    }
+
+    public LocalDateTime getMaterializedThrough() {
+        return materializedThrough;
+    }
+
+    public void setMaterializedThrough(LocalDateTime materializedThrough) {
+        this.materializedThrough = materializedThrough;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public Integer getOccurrencesBooked() {
+        return occurrencesBooked;
+    }
+
+    public void setOccurrencesBooked(Integer occurrencesBooked) {
+        this.occurrencesBooked = occurrencesBooked;
+    }
+
+    public List<AppointmentResponseDto> getAppointments() {
+        return appointments;
+    }
+
+    public void setAppointments(List<AppointmentResponseDto> appointments) {
+        this.appointments = appointments;
+    }
+
+    public List<LocalDateTime> getSkippedOccurrences() {
+        return skippedOccurrences;
+    }
+
+    public void setSkippedOccurrences(List<LocalDateTime> skippedOccurrences) {
+        this.skippedOccurrences = skippedOccurrences;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hospital.hms.appointmentscheduling.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for a bookable provider slot returned by the slot search
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Response DTO describing an available appointment slot")
+public class AvailableSlotDto {
+
+    @Schema(description = "Provider ID", example = "550e8400-e29b-41d4-a716-446655440002")
+    private UUID providerId;
+
+    @Schema(description = "Provider name", example = "Dr. Jane Doe")
+    private String providerName;
+
+    @Schema(description = "Location ID", example = "550e8400-e29b-41d4-a716-446655440003")
+    private UUID locationId;
+
+    @Schema(description = "Slot start", example = "2025-06-15T10:30:00")
+    private LocalDateTime startDateTime;
+
+    @Schema(description = "Slot end", example = "2025-06-15T11:00:00")
+    private LocalDateTime endDateTime;
+
+    @Schema(description = "Resources held free for this slot")
+    private List<UUID> resourceIds;
+
+    // Constructors
+    public AvailableSlotDto() {}
+
+    public AvailableSlotDto(UUID providerId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+        this.providerId = providerId;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+    }
+
+    // Getters and Setters
+    public UUID getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(UUID providerId) {
+        this.providerId = providerId;
+    }
+
+    public String getProviderName() {
+        return providerName;
+    }
+
+    public void setProviderName(String providerName) {
+        this.providerName = providerName;
+    }
+
+    public UUID getLocationId() {
+        return locationId;
+    }
+
+    public void setLocationId(UUID locationId) {
+        this.locationId = locationId;
+    }
+
+    public LocalDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(LocalDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    public LocalDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    public void setEndDateTime(LocalDateTime endDateTime) {
+        this.endDateTime = endDateTime;
+    }
+
+    public List<UUID> getResourceIds() {
+        return resourceIds;
+    }
+
+    public void setResourceIds(List<UUID> resourceIds) {
+        this.resourceIds = resourceIds;
+    }
+}
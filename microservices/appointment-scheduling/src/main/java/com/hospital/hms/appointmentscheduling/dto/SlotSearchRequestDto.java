@@ -0,0 +1,120 @@
+package com.hospital.hms.appointmentscheduling.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for searching the earliest available appointment slots
+ * across providers, locations and resources
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Request DTO for a multi-provider available slot search")
+public class SlotSearchRequestDto {
+
+    @Schema(description = "Provider specialty to match", example = "Cardiology")
+    @Size(max = 100, message = "Provider specialty must not exceed 100 characters")
+    private String specialty;
+
+    @Schema(description = "Location ID to match", example = "550e8400-e29b-41d4-a716-446655440002")
+    private UUID locationId;
+
+    @Schema(description = "Explicit candidate providers; derived from specialty and location when empty")
+    private List<UUID> providerIds = new ArrayList<>();
+
+    @Schema(description = "Resources (rooms, equipment) that must all be free for the slot")
+    private List<UUID> resourceIds = new ArrayList<>();
+
+    @Schema(description = "Required duration in minutes", example = "30", required = true)
+    @NotNull(message = "Duration is required")
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 480, message = "Duration must not exceed 8 hours")
+    private Integer durationMinutes;
+
+    @Schema(description = "Earliest acceptable start; defaults to now", example = "2025-06-15T08:00:00")
+    private LocalDateTime searchStart;
+
+    @Schema(description = "End of the search horizon", example = "2025-06-29T18:00:00", required = true)
+    @NotNull(message = "Search horizon end is required")
+    @Future(message = "Search horizon must end in the future")
+    private LocalDateTime searchEnd;
+
+    @Schema(description = "Maximum number of slots to return", example = "10")
+    @Min(value = 1, message = "At least one result must be requested")
+    @Max(value = 100, message = "No more than 100 results may be requested")
+    private Integer maxResults = 10;
+
+    // Constructors
+    public SlotSearchRequestDto() {}
+
+    // Getters and Setters
+    public String getSpecialty() {
+        return specialty;
+    }
+
+    public void setSpecialty(String specialty) {
+        this.specialty = specialty;
+    }
+
+    public UUID getLocationId() {
+        return locationId;
+    }
+
+    public void setLocationId(UUID locationId) {
+        this.locationId = locationId;
+    }
+
+    public List<UUID> getProviderIds() {
+        return providerIds;
+    }
+
+    public void setProviderIds(List<UUID> providerIds) {
+        this.providerIds = providerIds;
+    }
+
+    public List<UUID> getResourceIds() {
+        return resourceIds;
+    }
+
+    public void setResourceIds(List<UUID> resourceIds) {
+        this.resourceIds = resourceIds;
+    }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public LocalDateTime getSearchStart() {
+        return searchStart;
+    }
+
+    public void setSearchStart(LocalDateTime searchStart) {
+        this.searchStart = searchStart;
+    }
+
+    public LocalDateTime getSearchEnd() {
+        return searchEnd;
+    }
+
+    public void setSearchEnd(LocalDateTime searchEnd) {
+        this.searchEnd = searchEnd;
+    }
+
+    public Integer getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(Integer maxResults) {
+        this.maxResults = maxResults;
+    }
+}
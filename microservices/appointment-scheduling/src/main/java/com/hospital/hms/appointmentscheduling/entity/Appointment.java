@@ -31,7 +31,9 @@ import java.util.UUID;
     @Index(name = "idx_appointment_location", columnList = "location_id"),
     @Index(name = "idx_appointment_type", columnList = "appointment_type"),
     @Index(name = "idx_appointment_created", columnList = "created_date"),
-    @Index(name = "idx_appointment_fhir", columnList = "fhir_id")
+    @Index(name = "idx_appointment_fhir", columnList = "fhir_id"),
+    @Index(name = "idx_appointment_provider_window", columnList = "provider_id, appointment_date_time, end_date_time"),
+    @Index(name = "idx_appointment_series", columnList = "series_id")
 })
 @EntityListeners(AuditingEntityListener.class)
 public class Appointment {
@@ -50,6 +52,10 @@ public class Appointment {
     @Size(max = 50, message = "Appointment number must not exceed 50 characters")
     private String appointmentNumber;
 
+    @Column(name = "request_key", unique = true, length = 100)
+    @Size(max = 100, message = "Request key must not exceed 100 characters")
+    private String requestKey;
+
     // Patient Information
     @Column(name = "patient_id", nullable = false)
     @NotNull(message = "Patient ID is required")
@@ -282,6 +288,10 @@ public class Appointment {
     @Size(max = 50, message = "Telehealth platform must not exceed 50 characters")
     private String telehealthPlatform;
 
+    // Recurring series membership
+    @Column(name = "series_id")
+    private UUID seriesId;
+
     // Follow-up
     @Column(name = "follow_up_required", nullable = false)
     private Boolean followUpRequired = false;
@@ -301,6 +311,12 @@ public class Appointment {
     @Column(name = "last_modified_date")
     private LocalDateTime lastModifiedDate;
 
+    @Column(name = "created_by", length = 100, updatable = false)
+    private String createdBy;
+
+    @Column(name = "last_modified_by", length = 100)
+    private String lastModifiedBy;
+
     @Version
     @Column(name = "version")
     private Long version;
@@ -497,6 +513,9 @@ public class Appointment {
     public String getAppointmentNumber() { return appointmentNumber; }
     public void setAppointmentNumber(String appointmentNumber) { this.appointmentNumber = appointmentNumber; }
 
+    public String getRequestKey() { return requestKey; }
+    public void setRequestKey(String requestKey) { this.requestKey = requestKey; }
+
     public UUID getPatientId() { return patientId; }
     public void setPatientId(UUID patientId) { this.patientId = patientId; }
 
@@ -692,6 +711,9 @@ public class Appointment {
     public String getTelehealthPlatform() { return telehealthPlatform; }
     public void setTelehealthPlatform(String telehealthPlatform) { this.telehealthPlatform = telehealthPlatform; }
 
+    public UUID getSeriesId() { return seriesId; }
+    public void setSeriesId(UUID seriesId) { this.seriesId = seriesId; }
+
     public Boolean getFollowUpRequired() { return followUpRequired; }
     public void setFollowUpRequired(Boolean followUpRequired) { this.followUpRequired = followUpRequired; }
 
@@ -707,6 +729,12 @@ public class Appointment {
     public LocalDateTime getLastModifiedDate() { return lastModifiedDate; }
     public void setLastModifiedDate(LocalDateTime lastModifiedDate) { this.lastModifiedDate = lastModifiedDate; }
 
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public String getLastModifiedBy() { return lastModifiedBy; }
+    public void setLastModifiedBy(String lastModifiedBy) { this.lastModifiedBy = lastModifiedBy; }
+
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
 
@@ -0,0 +1,247 @@
+package com.hospital.hms.appointmentscheduling.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Appointment Series Entity
+ *
+ * Represents a recurring booking (for example dialysis three times a week)
+ * described by an iCalendar RRULE. Occurrences are materialized as regular
+ * appointments only up to a rolling horizon; {@code materializedThrough}
+ * records how far the series has been expanded.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "appointment_series", indexes = {
+    @Index(name = "idx_series_patient", columnList = "patient_id"),
+    @Index(name = "idx_series_provider", columnList = "provider_id"),
+    @Index(name = "idx_series_active_materialized", columnList = "active, materialized_through")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class AppointmentSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    // Patient Information
+    @Column(name = "patient_id", nullable = false)
+    @NotNull(message = "Patient ID is required")
+    private UUID patientId;
+
+    @Column(name = "patient_name", nullable = false, length = 200)
+    @NotBlank(message = "Patient name is required")
+    @Size(max = 200, message = "Patient name must not exceed 200 characters")
+    private String patientName;
+
+    // Provider Information
+    @Column(name = "provider_id", nullable = false)
+    @NotNull(message = "Provider ID is required")
+    private UUID providerId;
+
+    @Column(name = "provider_name", nullable = false, length = 200)
+    @NotBlank(message = "Provider name is required")
+    @Size(max = 200, message = "Provider name must not exceed 200 characters")
+    private String providerName;
+
+    @Column(name = "provider_specialty", length = 100)
+    @Size(max = 100, message = "Provider specialty must not exceed 100 characters")
+    private String providerSpecialty;
+
+    // Location
+    @Column(name = "location_id")
+    private UUID locationId;
+
+    @Column(name = "location_name", length = 200)
+    @Size(max = 200, message = "Location name must not exceed 200 characters")
+    private String locationName;
+
+    // Recurrence
+    @Column(name = "appointment_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "Appointment type is required")
+    private AppointmentType appointmentType;
+
+    @Column(name = "duration_minutes", nullable = false)
+    @NotNull(message = "Duration is required")
+    @Min(value = 5, message = "Duration must be at least 5 minutes")
+    @Max(value = 480, message = "Duration must not exceed 8 hours")
+    private Integer durationMinutes;
+
+    @Column(name = "recurrence_rule", nullable = false, length = 500)
+    @NotBlank(message = "Recurrence rule is required")
+    @Size(max = 500, message = "Recurrence rule must not exceed 500 characters")
+    private String recurrenceRule;
+
+    @Column(name = "series_start", nullable = false)
+    @NotNull(message = "Series start is required")
+    private LocalDateTime seriesStart;
+
+    @Column(name = "last_occurrence")
+    private LocalDateTime lastOccurrence;
+
+    @Column(name = "materialized_through", nullable = false)
+    private LocalDateTime materializedThrough;
+
+    @Column(name = "occurrences_booked", nullable = false)
+    private Integer occurrencesBooked = 0;
+
+    @Column(name = "occurrences_skipped", nullable = false)
+    private Integer occurrencesSkipped = 0;
+
+    @Column(name = "active", nullable = false)
+    private Boolean active = true;
+
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+
+    // Audit fields
+    @CreatedDate
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    @LastModifiedDate
+    @Column(name = "last_modified_date")
+    private LocalDateTime lastModifiedDate;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    // Constructors
+    public AppointmentSeries() {
+        this.id = UUID.randomUUID();
+    }
+
+    // Business Methods
+
+    /**
+     * Record a materialization pass up to the given instant
+     */
+    public void recordMaterialization(LocalDateTime through, int booked, int skipped) {
+        this.materializedThrough = through;
+        this.occurrencesBooked += booked;
+        this.occurrencesSkipped += skipped;
+        if (lastOccurrence != null && !through.isBefore(lastOccurrence)) {
+            this.active = false;
+        }
+    }
+
+    /**
+     * Check if the series still has occurrences left to materialize
+     */
+    public boolean isFullyMaterialized() {
+        return lastOccurrence != null && materializedThrough != null && !materializedThrough.isBefore(lastOccurrence);
+    }
+
+    /**
+     * Build an appointment for one occurrence of this series
+     */
+    public Appointment newOccurrence(LocalDateTime start) {
+        Appointment appointment = new Appointment(patientId, patientName, providerId, providerName,
+                start, durationMinutes, appointmentType);
+        appointment.setProviderSpecialty(providerSpecialty);
+        appointment.setLocationId(locationId);
+        appointment.setLocationName(locationName);
+        appointment.setSeriesId(id);
+        return appointment;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getPatientId() { return patientId; }
+    public void setPatientId(UUID patientId) { this.patientId = patientId; }
+
+    public String getPatientName() { return patientName; }
+    public void setPatientName(String patientName) { this.patientName = patientName; }
+
+    public UUID getProviderId() { return providerId; }
+    public void setProviderId(UUID providerId) { this.providerId = providerId; }
+
+    public String getProviderName() { return providerName; }
+    public void setProviderName(String providerName) { this.providerName = providerName; }
+
+    public String getProviderSpecialty() { return providerSpecialty; }
+    public void setProviderSpecialty(String providerSpecialty) { this.providerSpecialty = providerSpecialty; }
+
+    public UUID getLocationId() { return locationId; }
+    public void setLocationId(UUID locationId) { this.locationId = locationId; }
+
+    public String getLocationName() { return locationName; }
+    public void setLocationName(String locationName) { this.locationName = locationName; }
+
+    public AppointmentType getAppointmentType() { return appointmentType; }
+    public void setAppointmentType(AppointmentType appointmentType) { this.appointmentType = appointmentType; }
+
+    public Integer getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(Integer durationMinutes) { this.durationMinutes = durationMinutes; }
+
+    public String getRecurrenceRule() { return recurrenceRule; }
+    public void setRecurrenceRule(String recurrenceRule) { this.recurrenceRule = recurrenceRule; }
+
+    public LocalDateTime getSeriesStart() { return seriesStart; }
+    public void setSeriesStart(LocalDateTime seriesStart) { this.seriesStart = seriesStart; }
+
+    public LocalDateTime getLastOccurrence() { return lastOccurrence; }
+    public void setLastOccurrence(LocalDateTime lastOccurrence) { this.lastOccurrence = lastOccurrence; }
+
+    public LocalDateTime getMaterializedThrough() { return materializedThrough; }
+    public void setMaterializedThrough(LocalDateTime materializedThrough) { this.materializedThrough = materializedThrough; }
+
+    public Integer getOccurrencesBooked() { return occurrencesBooked; }
+    public void setOccurrencesBooked(Integer occurrencesBooked) { this.occurrencesBooked = occurrencesBooked; }
+
+    public Integer getOccurrencesSkipped() { return occurrencesSkipped; }
+    public void setOccurrencesSkipped(Integer occurrencesSkipped) { this.occurrencesSkipped = occurrencesSkipped; }
+
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    public LocalDateTime getCreatedDate() { return createdDate; }
+    public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
+
+    public LocalDateTime getLastModifiedDate() { return lastModifiedDate; }
+    public void setLastModifiedDate(LocalDateTime lastModifiedDate) { this.lastModifiedDate = lastModifiedDate; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AppointmentSeries)) return false;
+        AppointmentSeries that = (AppointmentSeries) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "AppointmentSeries{" +
+                "id=" + id +
+                ", patientName='" + patientName + '\'' +
+                ", providerName='" + providerName + '\'' +
+                ", recurrenceRule='" + recurrenceRule + '\'' +
+                ", materializedThrough=" + materializedThrough +
+                '}';
+    }
+}
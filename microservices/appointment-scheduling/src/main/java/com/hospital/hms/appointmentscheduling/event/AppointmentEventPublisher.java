@@ -0,0 +1,232 @@
+package com.hospital.hms.appointmentscheduling.event;
+
+import com.hospital.hms.appointmentscheduling.entity.AppointmentStatus;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentStatusHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Publishes appointment status transitions to downstream consumers in batches
+ *
+ * Transitions are queued in memory once their transaction commits and are
+ * sent off the request thread as one message per batch. The status history
+ * table is the durable log: a row is flagged as sent only after its batch
+ * was accepted by the broker, and a periodic sweep re-publishes rows that
+ * were never flagged, for example after a broker outage, a full queue or a
+ * restart. A batch the broker refused is retried first on the next flush,
+ * and the events queued behind it stay queued. Only one service instance
+ * runs the sweep at a time, guarded by a PostgreSQL advisory lock. Delivery
+ * is therefore at-least-once.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class AppointmentEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentEventPublisher.class);
+
+    private static final long REDELIVERY_LOCK_KEY = 0x41455654L;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final AppointmentStatusHistoryRepository statusHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AppointmentStatusChangedEvent> pending;
+    /** A drained batch the broker refused; sent before anything else on the next flush */
+    private final List<AppointmentStatusChangedEvent> unsent = new ArrayList<>();
+
+    @Value("${appointment.events.exchange:hms.appointment.events}")
+    private String exchange;
+
+    @Value("${appointment.events.status-routing-key:appointment.status.changed}")
+    private String statusRoutingKey;
+
+    @Value("${appointment.events.batch-size:100}")
+    private int batchSize;
+
+    @Value("${appointment.events.redelivery-grace-seconds:60}")
+    private int redeliveryGraceSeconds;
+
+    @Value("${appointment.events.redelivery-lookback-hours:24}")
+    private int redeliveryLookbackHours;
+
+    @Autowired
+    public AppointmentEventPublisher(RabbitTemplate rabbitTemplate,
+                                     AppointmentStatusHistoryRepository statusHistoryRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     @Value("${appointment.events.queue-capacity:10000}") int queueCapacity) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.statusHistoryRepository = statusHistoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Queue a status transition for publishing once the current transaction
+     * commits; nothing is published for a rolled back transition
+     */
+    public void publishStatusChanged(AppointmentStatusChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.events.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (unsent.isEmpty()) {
+            pending.drainTo(unsent, batchSize);
+        }
+        while (!unsent.isEmpty()) {
+            if (!send(unsent)) {
+                // Kept for the next flush; everything behind it stays queued
+                return;
+            }
+            unsent.clear();
+            pending.drainTo(unsent, batchSize);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.events.redelivery-interval-ms:60000}")
+    public void redeliverUnpublished() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!isPostgreSQL(connection)) {
+                    redeliver();
+                    return null;
+                }
+                if (!tryLock(connection)) {
+                    logger.debug("Appointment event redelivery is running on another instance");
+                    return null;
+                }
+                try {
+                    redeliver();
+                } finally {
+                    unlock(connection);
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            logger.error("Appointment event redelivery failed: {}", e.getMessage());
+        }
+    }
+
+    private void redeliver() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = statusHistoryRepository.findUnpublishedTransitions(
+                now.minusHours(redeliveryLookbackHours), now.minusSeconds(redeliveryGraceSeconds),
+                PageRequest.of(0, batchSize * 10));
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        logger.info("Re-publishing {} unpublished appointment status transitions", rows.size());
+        List<AppointmentStatusChangedEvent> batch = new ArrayList<>(batchSize);
+        for (Object[] row : rows) {
+            batch.add(toEvent(row));
+            if (batch.size() == batchSize) {
+                if (!send(batch)) {
+                    return;
+                }
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void enqueue(AppointmentStatusChangedEvent event) {
+        if (!pending.offer(event)) {
+            logger.warn("Appointment event queue is full; {} will be published by the redelivery sweep", event);
+        }
+    }
+
+    private boolean send(List<AppointmentStatusChangedEvent> batch) {
+        try {
+            rabbitTemplate.convertAndSend(exchange, statusRoutingKey, batch);
+        } catch (AmqpException e) {
+            logger.error("Failed to publish {} appointment status events: {}", batch.size(), e.getMessage());
+            return false;
+        }
+
+        List<UUID> ids = new ArrayList<>(batch.size());
+        for (AppointmentStatusChangedEvent event : batch) {
+            ids.add(event.getEventId());
+        }
+        LocalDateTime oldest = batch.stream().map(AppointmentStatusChangedEvent::getChangedAt)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        statusHistoryRepository.markNotificationsSent(ids, oldest, LocalDateTime.now());
+        logger.debug("Published {} appointment status events", batch.size());
+        return true;
+    }
+
+    private static boolean isPostgreSQL(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            lock.setLong(1, REDELIVERY_LOCK_KEY);
+            try (ResultSet rows = lock.executeQuery()) {
+                return rows.next() && rows.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            unlock.setLong(1, REDELIVERY_LOCK_KEY);
+            unlock.execute();
+        }
+    }
+
+    private static AppointmentStatusChangedEvent toEvent(Object[] row) {
+        AppointmentStatusChangedEvent event = new AppointmentStatusChangedEvent(
+                (UUID) row[0], (UUID) row[1], (AppointmentStatus) row[7], (AppointmentStatus) row[8], (LocalDateTime) row[9]);
+        event.setAppointmentNumber((String) row[2]);
+        event.setPatientId((UUID) row[3]);
+        event.setProviderId((UUID) row[4]);
+        event.setLocationId((UUID) row[5]);
+        event.setAppointmentDateTime((LocalDateTime) row[6]);
+        event.setChangedBy((String) row[10]);
+        event.setNotes((String) row[11]);
+        return event;
+    }
+}
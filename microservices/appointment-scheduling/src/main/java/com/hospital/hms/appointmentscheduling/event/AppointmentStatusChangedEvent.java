@@ -0,0 +1,93 @@
+package com.hospital.hms.appointmentscheduling.event;
+
+import com.hospital.hms.appointmentscheduling.entity.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Appointment Status Changed Event
+ *
+ * One entry of the status-transition log as published to downstream
+ * consumers such as billing and the patient portal. The event ID is the ID
+ * of the corresponding status history row, so consumers can discard
+ * redelivered events.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class AppointmentStatusChangedEvent {
+
+    private UUID eventId;
+    private UUID appointmentId;
+    private String appointmentNumber;
+    private UUID patientId;
+    private UUID providerId;
+    private UUID locationId;
+    private LocalDateTime appointmentDateTime;
+    private AppointmentStatus previousStatus;
+    private AppointmentStatus newStatus;
+    private LocalDateTime changedAt;
+    private String changedBy;
+    private String notes;
+
+    // Constructors
+    public AppointmentStatusChangedEvent() {}
+
+    public AppointmentStatusChangedEvent(UUID eventId, UUID appointmentId, AppointmentStatus previousStatus,
+                                         AppointmentStatus newStatus, LocalDateTime changedAt) {
+        this.eventId = eventId;
+        this.appointmentId = appointmentId;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+        this.changedAt = changedAt;
+    }
+
+    // Getters and Setters
+    public UUID getEventId() { return eventId; }
+    public void setEventId(UUID eventId) { this.eventId = eventId; }
+
+    public UUID getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(UUID appointmentId) { this.appointmentId = appointmentId; }
+
+    public String getAppointmentNumber() { return appointmentNumber; }
+    public void setAppointmentNumber(String appointmentNumber) { this.appointmentNumber = appointmentNumber; }
+
+    public UUID getPatientId() { return patientId; }
+    public void setPatientId(UUID patientId) { this.patientId = patientId; }
+
+    public UUID getProviderId() { return providerId; }
+    public void setProviderId(UUID providerId) { this.providerId = providerId; }
+
+    public UUID getLocationId() { return locationId; }
+    public void setLocationId(UUID locationId) { this.locationId = locationId; }
+
+    public LocalDateTime getAppointmentDateTime() { return appointmentDateTime; }
+    public void setAppointmentDateTime(LocalDateTime appointmentDateTime) { this.appointmentDateTime = appointmentDateTime; }
+
+    public AppointmentStatus getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(AppointmentStatus previousStatus) { this.previousStatus = previousStatus; }
+
+    public AppointmentStatus getNewStatus() { return newStatus; }
+    public void setNewStatus(AppointmentStatus newStatus) { this.newStatus = newStatus; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+
+    public String getChangedBy() { return changedBy; }
+    public void setChangedBy(String changedBy) { this.changedBy = changedBy; }
+
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+
+    @Override
+    public String toString() {
+        return "AppointmentStatusChangedEvent{" +
+                "eventId=" + eventId +
+                ", appointmentId=" + appointmentId +
+                ", previousStatus=" + previousStatus +
+                ", newStatus=" + newStatus +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
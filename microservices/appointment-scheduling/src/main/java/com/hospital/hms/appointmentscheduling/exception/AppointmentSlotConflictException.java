@@ -0,0 +1,51 @@
+package com.hospital.hms.appointmentscheduling.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Exception thrown when a requested provider slot overlaps an existing booking
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class AppointmentSlotConflictException extends RuntimeException {
+
+    private final UUID providerId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+
+    public AppointmentSlotConflictException(UUID providerId, LocalDateTime startTime, LocalDateTime endTime) {
+        this(providerId, startTime, endTime, null);
+    }
+
+    public AppointmentSlotConflictException(UUID providerId, LocalDateTime startTime, LocalDateTime endTime, Throwable cause) {
+        super(String.format("Provider %s is already booked between %s and %s", providerId, startTime, endTime), cause);
+        this.providerId = providerId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    public AppointmentSlotConflictException(String message) {
+        super(message);
+        this.providerId = null;
+        this.startTime = null;
+        this.endTime = null;
+    }
+
+    public UUID getProviderId() {
+        return providerId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+}
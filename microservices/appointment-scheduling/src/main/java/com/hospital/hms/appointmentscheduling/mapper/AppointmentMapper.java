@@ -43,6 +43,7 @@ public interface AppointmentMapper {
     @Mapping(target = "lastModifiedDate", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "lastModifiedBy", ignore = true)
+    @Mapping(target = "requestKey", ignore = true)
     void updateEntityFromDto(AppointmentCreateRequestDto dto, @MappingTarget Appointment appointment);
 
     List<AppointmentResponseDto> toResponseDtoList(List<Appointment> appointments);
@@ -0,0 +1,217 @@
+package com.hospital.hms.appointmentscheduling.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly partitions of the appointment tables
+ *
+ * Each run creates the partitions for the current month and the configured
+ * number of months ahead, then archives every partition older than the hot
+ * window: its rows are streamed to a compressed file and the partition is
+ * detached and dropped. Only one service instance runs maintenance at a time,
+ * guarded by a PostgreSQL advisory lock. Databases without partitioned
+ * appointment tables (such as the H2 dev profile) are left untouched.
+ *
+ * A month whose partition cannot be created keeps landing in the default
+ * partition, which grows unbounded and is never archived, so every failure
+ * is logged as an error and counted in
+ * {@code appointment.partition.maintenance.failures}.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class AppointmentPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentPartitionMaintenance.class);
+
+    private static final long MAINTENANCE_LOCK_KEY = 0x41505054L;
+    private static final Pattern PARTITION_NAME = Pattern.compile("(appointments|appointment_status_history)_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionArchiveWriter archiveWriter;
+    private final Counter creationFailures;
+    private final Counter archiveFailures;
+
+    @Value("${appointment.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${appointment.partitioning.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${appointment.partitioning.hot-months:24}")
+    private int hotMonths;
+
+    @Value("${appointment.partitioning.archive-fetch-size:5000}")
+    private int archiveFetchSize;
+
+    @Autowired
+    public AppointmentPartitionMaintenance(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                           @Value("${appointment.partitioning.archive-directory:archive/appointments}") String archiveDirectory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveWriter = new PartitionArchiveWriter(Paths.get(archiveDirectory));
+        this.creationFailures = Counter.builder("appointment.partition.maintenance.failures")
+                .description("Appointment partitions that could not be created or archived")
+                .tag("stage", "create")
+                .register(meterRegistry);
+        this.archiveFailures = Counter.builder("appointment.partition.maintenance.failures")
+                .description("Appointment partitions that could not be created or archived")
+                .tag("stage", "archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${appointment.partitioning.maintenance-cron:0 15 2 * * *}")
+    public void runMaintenance() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                maintain(connection);
+                return null;
+            });
+        } catch (DataAccessException e) {
+            logger.error("Appointment partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    private void maintain(Connection connection) throws SQLException {
+        if (!isPartitioned(connection)) {
+            logger.debug("Appointment tables are not partitioned; skipping partition maintenance");
+            return;
+        }
+        if (!tryLock(connection)) {
+            logger.info("Appointment partition maintenance is running on another instance");
+            return;
+        }
+        try {
+            ensureUpcomingPartitions(connection);
+            archiveClosedPartitions(connection);
+        } finally {
+            try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                unlock.setLong(1, MAINTENANCE_LOCK_KEY);
+                unlock.execute();
+            }
+        }
+    }
+
+    private void ensureUpcomingPartitions(Connection connection) throws SQLException {
+        YearMonth current = YearMonth.now();
+        try (PreparedStatement ensure = connection.prepareStatement("SELECT hms_ensure_appointment_partitions(?)")) {
+            for (int i = 0; i <= premakeMonths; i++) {
+                YearMonth month = current.plusMonths(i);
+                try {
+                    ensure.setObject(1, month.atDay(1));
+                    ensure.execute();
+                } catch (SQLException e) {
+                    // Typically rows for this month already sit in the default partition; they have to be
+                    // moved out by hand before the partition can be created
+                    creationFailures.increment();
+                    logger.error("Could not create appointment partitions for {}; its rows stay in the default "
+                            + "partition: {}", month, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void archiveClosedPartitions(Connection connection) throws SQLException {
+        YearMonth oldestHotMonth = YearMonth.now().minusMonths(hotMonths);
+        for (String[] partition : listClosedPartitions(connection, oldestHotMonth)) {
+            archivePartition(connection, partition[0], partition[1]);
+        }
+    }
+
+    private List<String[]> listClosedPartitions(Connection connection, YearMonth oldestHotMonth) throws SQLException {
+        List<String[]> closed = new ArrayList<>();
+        String sql = "SELECT parent.relname, child.relname FROM pg_inherits i " +
+                     "JOIN pg_class parent ON parent.oid = i.inhparent " +
+                     "JOIN pg_class child ON child.oid = i.inhrelid " +
+                     "WHERE parent.relname IN ('appointments', 'appointment_status_history') " +
+                     "ORDER BY child.relname";
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            while (rows.next()) {
+                Matcher matcher = PARTITION_NAME.matcher(rows.getString(2));
+                if (matcher.matches() && matcher.group(1).equals(rows.getString(1))
+                        && YearMonth.parse(matcher.group(2), PARTITION_MONTH).isBefore(oldestHotMonth)) {
+                    closed.add(new String[] {rows.getString(1), rows.getString(2)});
+                }
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Export, detach and drop one partition in a single transaction. The
+     * partition is write-locked first so no row can change between the
+     * export and the drop.
+     */
+    private void archivePartition(Connection connection, String parent, String partition) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LOCK TABLE " + partition + " IN SHARE MODE");
+            statement.setFetchSize(archiveFetchSize);
+            long rows;
+            try (ResultSet resultSet = statement.executeQuery("SELECT * FROM " + partition)) {
+                rows = archiveWriter.write(partition, resultSet);
+            }
+            statement.execute("ALTER TABLE " + parent + " DETACH PARTITION " + partition);
+            statement.execute("DROP TABLE " + partition);
+            connection.commit();
+            logger.info("Archived partition {} ({} rows) to {}", partition, rows, archiveWriter.getArchiveDirectory());
+        } catch (SQLException | IOException e) {
+            connection.rollback();
+            archiveFailures.increment();
+            logger.error("Failed to archive partition {}: {}", partition, e.getMessage());
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private boolean isPartitioned(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return false;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                     "WHERE c.relname = 'appointments'")) {
+            return rows.next() && rows.getLong(1) > 0;
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            lock.setLong(1, MAINTENANCE_LOCK_KEY);
+            try (ResultSet rows = lock.executeQuery()) {
+                return rows.next() && rows.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.hospital.hms.appointmentscheduling.partition;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the rows of a closed partition into a gzip-compressed CSV file
+ *
+ * Rows are written as they are read, so memory use does not depend on the
+ * partition size. The file is written under a temporary name and moved into
+ * place only once complete; an archive that exists is always whole.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class PartitionArchiveWriter {
+
+    private final Path archiveDirectory;
+
+    public PartitionArchiveWriter(Path archiveDirectory) {
+        this.archiveDirectory = archiveDirectory;
+    }
+
+    /**
+     * Write all remaining rows of the result set to {@code <name>.csv.gz}
+     * and return the number of rows written
+     */
+    public long write(String name, ResultSet rows) throws IOException, SQLException {
+        Files.createDirectories(archiveDirectory);
+        Path target = archiveDirectory.resolve(name + ".csv.gz");
+        Path partial = archiveDirectory.resolve(name + ".csv.gz.partial");
+
+        long count = 0;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024), StandardCharsets.UTF_8))) {
+            ResultSetMetaData metaData = rows.getMetaData();
+            int columns = metaData.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                writeField(out, metaData.getColumnName(i), i == columns);
+            }
+            while (rows.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    writeField(out, rows.getString(i), i == columns);
+                }
+                count++;
+            }
+        } catch (IOException | SQLException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    public Path getArchiveDirectory() {
+        return archiveDirectory;
+    }
+
+    // RFC 4180 quoting; NULL is written as an empty unquoted field
+    private static void writeField(Writer out, String value, boolean last) throws IOException {
+        if (value != null) {
+            boolean quote = value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (quote) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write(last ? '\n' : ',');
+    }
+}
@@ -6,12 +6,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.cache.annotation.Cacheable;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -54,16 +56,112 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>,
                                                   @Param("startTime") LocalDateTime startTime,
                                                   @Param("endTime") LocalDateTime endTime);
 
+    @Query("SELECT a FROM Appointment a WHERE a.status = 'COMPLETED' AND a.appointmentDateTime >= :startTime " +
+           "AND a.appointmentDateTime < :endTime ORDER BY a.appointmentDateTime, a.id")
+    List<Appointment> findCompletedBetween(@Param("startTime") LocalDateTime startTime,
+                                           @Param("endTime") LocalDateTime endTime,
+                                           Pageable pageable);
+
+    @Query("SELECT a FROM Appointment a WHERE a.status IN ('SCHEDULED', 'BOOKED', 'CONFIRMED', 'RESCHEDULED') " +
+           "AND a.appointmentDateTime >= :startTime AND a.appointmentDateTime < :endTime " +
+           "ORDER BY a.appointmentDateTime, a.id")
+    List<Appointment> findUpcomingBetween(@Param("startTime") LocalDateTime startTime,
+                                          @Param("endTime") LocalDateTime endTime,
+                                          Pageable pageable);
+
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.providerId = :providerId AND a.appointmentDateTime BETWEEN :startTime AND :endTime AND a.status != 'CANCELLED'")
     long countProviderAppointments(@Param("providerId") UUID providerId,
                                   @Param("startTime") LocalDateTime startTime,
                                   @Param("endTime") LocalDateTime endTime);
 
-    @Query("SELECT a FROM Appointment a WHERE a.appointmentDateTime < :dateTime AND a.status = 'SCHEDULED'")
-    List<Appointment> findOverdueAppointments(@Param("dateTime") LocalDateTime dateTime);
+    @Query("SELECT a FROM Appointment a WHERE a.appointmentDateTime >= :since AND a.appointmentDateTime < :dateTime AND a.status = 'SCHEDULED'")
+    List<Appointment> findOverdueAppointments(@Param("since") LocalDateTime since,
+                                              @Param("dateTime") LocalDateTime dateTime);
 
     boolean existsByAppointmentNumber(String appointmentNumber);
 
+    Optional<Appointment> findByRequestKey(String requestKey);
+
+    List<Appointment> findBySeriesIdOrderByAppointmentDateTime(UUID seriesId);
+
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.providerId = :providerId AND a.id <> :appointmentId " +
+           "AND a.appointmentDateTime < :endTime AND a.endDateTime > :startTime " +
+           "AND a.status NOT IN ('CANCELLED', 'NO_SHOW', 'ENTERED_IN_ERROR', 'WAITLIST')")
+    long countOverlappingProviderAppointments(@Param("providerId") UUID providerId,
+                                              @Param("appointmentId") UUID appointmentId,
+                                              @Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT a.providerId, a.appointmentDateTime, a.endDateTime FROM Appointment a " +
+           "WHERE a.providerId IN :providerIds AND a.appointmentDateTime < :endTime AND a.endDateTime > :startTime " +
+           "AND a.status NOT IN ('CANCELLED', 'NO_SHOW', 'ENTERED_IN_ERROR', 'WAITLIST')")
+    List<Object[]> findProviderBookingWindows(@Param("providerIds") Collection<UUID> providerIds,
+                                              @Param("startTime") LocalDateTime startTime,
+                                              @Param("endTime") LocalDateTime endTime);
+
+    @Query("SELECT DISTINCT a.providerId, a.providerName FROM Appointment a " +
+           "WHERE a.appointmentDateTime >= :since " +
+           "AND (:specialty IS NULL OR a.providerSpecialty = :specialty) " +
+           "AND (:locationId IS NULL OR a.locationId = :locationId)")
+    List<Object[]> findCandidateProviders(@Param("specialty") String specialty,
+                                          @Param("locationId") UUID locationId,
+                                          @Param("since") LocalDateTime since);
+
+    @Query("SELECT DISTINCT a.providerId, a.providerName FROM Appointment a " +
+           "WHERE a.providerId IN :providerIds AND a.locationId = :locationId AND a.appointmentDateTime >= :since")
+    List<Object[]> findProvidersAtLocation(@Param("providerIds") Collection<UUID> providerIds,
+                                           @Param("locationId") UUID locationId,
+                                           @Param("since") LocalDateTime since);
+
+    // Status transitions: narrow compare-and-set updates that only succeed if
+    // the status is still the one the caller read
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.lastModifiedDate = :now, " +
+           "a.lastModifiedBy = :modifiedBy, a.version = a.version + 1 " +
+           "WHERE a.id = :id AND a.appointmentDateTime = :appointmentDateTime AND a.status = :expectedStatus")
+    int transitionStatus(@Param("id") UUID id,
+                         @Param("appointmentDateTime") LocalDateTime appointmentDateTime,
+                         @Param("expectedStatus") AppointmentStatus expectedStatus,
+                         @Param("newStatus") AppointmentStatus newStatus,
+                         @Param("now") LocalDateTime now,
+                         @Param("modifiedBy") String modifiedBy);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.checkedIn = true, a.checkInTime = :now, " +
+           "a.lastModifiedDate = :now, a.lastModifiedBy = :modifiedBy, a.version = a.version + 1 " +
+           "WHERE a.id = :id AND a.appointmentDateTime = :appointmentDateTime AND a.status = :expectedStatus")
+    int markCheckedIn(@Param("id") UUID id,
+                      @Param("appointmentDateTime") LocalDateTime appointmentDateTime,
+                      @Param("expectedStatus") AppointmentStatus expectedStatus,
+                      @Param("newStatus") AppointmentStatus newStatus,
+                      @Param("now") LocalDateTime now,
+                      @Param("modifiedBy") String modifiedBy);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.completed = true, a.completionTime = :now, " +
+           "a.lastModifiedDate = :now, a.lastModifiedBy = :modifiedBy, a.version = a.version + 1 " +
+           "WHERE a.id = :id AND a.appointmentDateTime = :appointmentDateTime AND a.status = :expectedStatus")
+    int markCompleted(@Param("id") UUID id,
+                      @Param("appointmentDateTime") LocalDateTime appointmentDateTime,
+                      @Param("expectedStatus") AppointmentStatus expectedStatus,
+                      @Param("newStatus") AppointmentStatus newStatus,
+                      @Param("now") LocalDateTime now,
+                      @Param("modifiedBy") String modifiedBy);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.status = :newStatus, a.cancelled = true, a.cancellationDate = :now, " +
+           "a.cancellationNotes = :notes, a.lastModifiedDate = :now, a.lastModifiedBy = :modifiedBy, " +
+           "a.version = a.version + 1 " +
+           "WHERE a.id = :id AND a.appointmentDateTime = :appointmentDateTime AND a.status = :expectedStatus")
+    int markCancelled(@Param("id") UUID id,
+                      @Param("appointmentDateTime") LocalDateTime appointmentDateTime,
+                      @Param("expectedStatus") AppointmentStatus expectedStatus,
+                      @Param("newStatus") AppointmentStatus newStatus,
+                      @Param("notes") String notes,
+                      @Param("now") LocalDateTime now,
+                      @Param("modifiedBy") String modifiedBy);
+
     @Query("SELECT a FROM Appointment a WHERE LOWER(a.patientName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(a.providerName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(a.appointmentNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<Appointment> fullTextSearch(@Param("searchTerm") String searchTerm, Pageable pageable);
 
@@ -71,6 +169,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>,
            "COUNT(CASE WHEN a.status = 'SCHEDULED' THEN 1 END) as scheduledCount, " +
            "COUNT(CASE WHEN a.status = 'COMPLETED' THEN 1 END) as completedCount, " +
            "COUNT(CASE WHEN a.status = 'CANCELLED' THEN 1 END) as cancelledCount " +
-           "FROM Appointment a WHERE a.appointmentDateTime >= :startDate")
-    Object[] getAppointmentStatistics(@Param("startDate") LocalDateTime startDate);
+           "FROM Appointment a WHERE a.appointmentDateTime >= :startDate AND a.appointmentDateTime < :endDate")
+    Object[] getAppointmentStatistics(@Param("startDate") LocalDateTime startDate,
+                                      @Param("endDate") LocalDateTime endDate);
 }
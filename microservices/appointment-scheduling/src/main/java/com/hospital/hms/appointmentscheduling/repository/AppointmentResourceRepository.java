@@ -0,0 +1,30 @@
+package com.hospital.hms.appointmentscheduling.repository;
+
+import com.hospital.hms.appointmentscheduling.entity.AppointmentResource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appointment Resource Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface AppointmentResourceRepository extends JpaRepository<AppointmentResource, UUID> {
+
+    List<AppointmentResource> findByResourceId(UUID resourceId);
+
+    @Query("SELECT r FROM AppointmentResource r WHERE r.resourceId IN :resourceIds AND r.reserved = true " +
+           "AND r.reservationStart < :endTime AND r.reservationEnd > :startTime")
+    List<AppointmentResource> findReservationsOverlapping(@Param("resourceIds") Collection<UUID> resourceIds,
+                                                          @Param("startTime") LocalDateTime startTime,
+                                                          @Param("endTime") LocalDateTime endTime);
+}
@@ -0,0 +1,26 @@
+package com.hospital.hms.appointmentscheduling.repository;
+
+import com.hospital.hms.appointmentscheduling.entity.AppointmentSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appointment Series Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface AppointmentSeriesRepository extends JpaRepository<AppointmentSeries, UUID> {
+
+    List<AppointmentSeries> findByPatientId(UUID patientId);
+
+    @Query("SELECT s.id FROM AppointmentSeries s WHERE s.active = true AND s.materializedThrough < :horizon")
+    List<UUID> findSeriesDueForMaterialization(@Param("horizon") LocalDateTime horizon);
+}
@@ -0,0 +1,61 @@
+package com.hospital.hms.appointmentscheduling.repository;
+
+import com.hospital.hms.appointmentscheduling.entity.AppointmentStatusHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appointment Status History Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface AppointmentStatusHistoryRepository extends JpaRepository<AppointmentStatusHistory, UUID> {
+
+    /**
+     * Append one status transition without loading or merging the appointment
+     */
+    @Modifying
+    @Query(value = "INSERT INTO appointment_status_history (id, appointment_id, status, previous_status, status_date, " +
+                   "changed_by, changed_by_name, change_reason, notes, system_generated, notification_sent, " +
+                   "patient_notified, provider_notified, created_date) " +
+                   "VALUES (:id, :appointmentId, :status, :previousStatus, :statusDate, :changedBy, :changedByName, " +
+                   "'USER_ACTION', :notes, false, false, false, false, :statusDate)",
+           nativeQuery = true)
+    int appendTransition(@Param("id") UUID id,
+                         @Param("appointmentId") UUID appointmentId,
+                         @Param("status") String status,
+                         @Param("previousStatus") String previousStatus,
+                         @Param("statusDate") LocalDateTime statusDate,
+                         @Param("changedBy") UUID changedBy,
+                         @Param("changedByName") String changedByName,
+                         @Param("notes") String notes);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AppointmentStatusHistory h SET h.notificationSent = true, h.notificationSentDate = :sentDate " +
+           "WHERE h.id IN :ids AND h.statusDate >= :since")
+    int markNotificationsSent(@Param("ids") Collection<UUID> ids,
+                              @Param("since") LocalDateTime since,
+                              @Param("sentDate") LocalDateTime sentDate);
+
+    @Query("SELECT h.id, a.id, a.appointmentNumber, a.patientId, a.providerId, a.locationId, a.appointmentDateTime, " +
+           "h.previousStatus, h.status, h.statusDate, h.changedByName, h.notes " +
+           "FROM AppointmentStatusHistory h JOIN h.appointment a " +
+           "WHERE h.notificationSent = false AND h.statusDate >= :since AND h.statusDate < :before " +
+           "ORDER BY h.statusDate")
+    List<Object[]> findUnpublishedTransitions(@Param("since") LocalDateTime since,
+                                              @Param("before") LocalDateTime before,
+                                              Pageable pageable);
+}
@@ -0,0 +1,71 @@
+package com.hospital.hms.appointmentscheduling.sequence;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocates collision-free appointment numbers from the
+ * {@code appointment_number_seq} database sequence
+ *
+ * Numbers have the form {@code APT<yyyyMMdd><sequence>} where the sequence
+ * part is globally unique, so no existence check is needed. The block size
+ * must equal the sequence's {@code INCREMENT BY}.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class AppointmentNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentNumberAllocator.class);
+
+    private static final String PREFIX = "APT";
+    private static final String SEQUENCE_NAME = "appointment_number_seq";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final BlockSequenceAllocator allocator;
+
+    @Autowired
+    public AppointmentNumberAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                      @Value("${appointment.numbering.block-size:100}") int blockSize) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        String nextBlockSql = dialect.getSequenceSupport().getSequenceNextValString(SEQUENCE_NAME);
+        this.allocator = new BlockSequenceAllocator(() -> {
+            Long start = jdbcTemplate.queryForObject(nextBlockSql, Long.class);
+            logger.debug("Leased appointment number block starting at {}", start);
+            return start;
+        }, blockSize);
+    }
+
+    public String nextAppointmentNumber() {
+        return format(LocalDate.now(), allocator.next());
+    }
+
+    /**
+     * Reserve numbers for a bulk booking such as a recurring series
+     */
+    public List<String> reserveAppointmentNumbers(int count) {
+        LocalDate today = LocalDate.now();
+        List<String> numbers = new ArrayList<>(count);
+        for (long value : allocator.reserve(count)) {
+            numbers.add(format(today, value));
+        }
+        return numbers;
+    }
+
+    private static String format(LocalDate date, long value) {
+        return PREFIX + date.format(DATE_FORMAT) + String.format("%06d", value);
+    }
+}
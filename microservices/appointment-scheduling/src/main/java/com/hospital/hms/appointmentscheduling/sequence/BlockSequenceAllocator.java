@@ -0,0 +1,103 @@
+package com.hospital.hms.appointmentscheduling.sequence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out unique values from blocks leased off a shared sequence
+ *
+ * The block source returns the first value of a fresh block of
+ * {@code blockSize} values, typically a database sequence declared with
+ * {@code INCREMENT BY blockSize}. Within a block, values are claimed with a
+ * single atomic increment and no lock; only the thread that runs a block dry
+ * takes the lease lock to fetch the next one. Values left unused when the
+ * process stops are skipped, never reused.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class BlockSequenceAllocator {
+
+    private final LongSupplier blockSource;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    public BlockSequenceAllocator(LongSupplier blockSource, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Allocate the next value
+     */
+    public long next() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            lease(block);
+        }
+    }
+
+    /**
+     * Allocate {@code count} values in one call. Values are ascending but
+     * span block boundaries, so they are not guaranteed to be contiguous.
+     */
+    public long[] reserve(int count) {
+        long[] values = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            Block block = current.get();
+            int wanted = count - filled;
+            long first = block.next.getAndAdd(wanted);
+            if (first < block.end) {
+                long taken = Math.min(wanted, block.end - first);
+                for (long value = first; value < first + taken; value++) {
+                    values[filled++] = value;
+                }
+            }
+            if (filled < count) {
+                lease(block);
+            }
+        }
+        return values;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    private void lease(Block exhausted) {
+        leaseLock.lock();
+        try {
+            // Another thread may already have replaced the block we ran dry
+            if (current.get() == exhausted) {
+                long start = blockSource.getAsLong();
+                current.set(new Block(start, start + blockSize));
+            }
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private static final class Block {
+
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hospital.hms.appointmentscheduling.service;
+
+import com.hospital.hms.appointmentscheduling.dto.AppointmentSeriesCreateRequestDto;
+import com.hospital.hms.appointmentscheduling.dto.AppointmentSeriesResponseDto;
+
+import java.util.UUID;
+
+/**
+ * Service interface for recurring appointment series
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface AppointmentSeriesService {
+
+    AppointmentSeriesResponseDto createSeries(AppointmentSeriesCreateRequestDto createRequest);
+
+    AppointmentSeriesResponseDto getSeries(UUID seriesId);
+
+    /**
+     * Book occurrences of active series that have come within the rolling horizon
+     */
+    int extendSeriesHorizons();
+}
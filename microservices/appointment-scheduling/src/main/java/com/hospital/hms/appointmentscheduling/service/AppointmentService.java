@@ -2,6 +2,8 @@ package com.hospital.hms.appointmentscheduling.service;
 
 import com.hospital.hms.appointmentscheduling.dto.AppointmentCreateRequestDto;
 import com.hospital.hms.appointmentscheduling.dto.AppointmentResponseDto;
+import com.hospital.hms.appointmentscheduling.dto.AvailableSlotDto;
+import com.hospital.hms.appointmentscheduling.dto.SlotSearchRequestDto;
 import com.hospital.hms.appointmentscheduling.entity.AppointmentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -37,6 +39,14 @@ public interface AppointmentService {
 
     List<AppointmentResponseDto> getAppointmentsByDateRange(LocalDateTime startDate, LocalDateTime endDate);
 
+    /**
+     * One page of appointments completed in [startTime, endTime), in a
+     * stable order for charge capture
+     */
+    List<AppointmentResponseDto> getCompletedAppointments(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
+
+    List<AppointmentResponseDto> getUpcomingAppointments(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
+
     AppointmentResponseDto updateAppointmentStatus(UUID appointmentId, AppointmentStatus newStatus);
 
     AppointmentResponseDto checkInAppointment(UUID appointmentId);
@@ -51,6 +61,8 @@ public interface AppointmentService {
 
     boolean isProviderAvailable(UUID providerId, LocalDateTime startTime, LocalDateTime endTime);
 
+    List<AvailableSlotDto> findAvailableSlots(SlotSearchRequestDto searchRequest);
+
     Map<String, Object> getAppointmentStatistics();
 
     List<AppointmentResponseDto> getOverdueAppointments();
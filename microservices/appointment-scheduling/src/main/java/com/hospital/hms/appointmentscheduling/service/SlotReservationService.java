@@ -0,0 +1,38 @@
+package com.hospital.hms.appointmentscheduling.service;
+
+import com.hospital.hms.appointmentscheduling.entity.Appointment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service interface for conflict-free provider slot reservation
+ * 
+ * Serializes bookings per provider so that two concurrent requests for an
+ * overlapping window cannot both succeed. The database exclusion constraint
+ * on the appointments table remains the backstop across service instances.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface SlotReservationService {
+
+    /**
+     * Persist a new appointment if its provider window is free. A replayed
+     * request key returns the appointment originally booked under that key.
+     */
+    Appointment reserveSlot(Appointment appointment);
+
+    /**
+     * Move an existing appointment to a new start time if the new window is free.
+     */
+    Appointment moveSlot(Appointment appointment, LocalDateTime newDateTime);
+
+    /**
+     * Persist a batch of occurrences for one provider after checking all of
+     * them against existing bookings with a single query. Conflicting
+     * occurrences are dropped when {@code skipConflicts} is set; otherwise
+     * any conflict rejects the whole batch.
+     */
+    List<Appointment> reserveSeries(List<Appointment> occurrences, boolean skipConflicts);
+}
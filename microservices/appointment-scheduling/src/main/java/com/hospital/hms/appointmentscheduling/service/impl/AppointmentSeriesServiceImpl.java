@@ -0,0 +1,220 @@
+package com.hospital.hms.appointmentscheduling.service.impl;
+
+import com.hospital.hms.appointmentscheduling.calendar.RecurrenceExpander;
+import com.hospital.hms.appointmentscheduling.dto.AppointmentSeriesCreateRequestDto;
+import com.hospital.hms.appointmentscheduling.dto.AppointmentSeriesResponseDto;
+import com.hospital.hms.appointmentscheduling.entity.Appointment;
+import com.hospital.hms.appointmentscheduling.entity.AppointmentSeries;
+import com.hospital.hms.appointmentscheduling.entity.AppointmentType;
+import com.hospital.hms.appointmentscheduling.exception.AppointmentNotFoundException;
+import com.hospital.hms.appointmentscheduling.mapper.AppointmentMapper;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentRepository;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentSeriesRepository;
+import com.hospital.hms.appointmentscheduling.sequence.AppointmentNumberAllocator;
+import com.hospital.hms.appointmentscheduling.service.AppointmentSeriesService;
+import com.hospital.hms.appointmentscheduling.service.SlotReservationService;
+import net.fortuna.ical4j.model.Recur;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of AppointmentSeriesService
+ *
+ * A series is booked in a single transaction: the recurrence is expanded up
+ * to the rolling horizon, appointment numbers are reserved in one call, all
+ * occurrences are conflict-checked against one schedule query, and the
+ * appointments are inserted as one JDBC batch. Occurrences beyond the
+ * horizon are booked by the nightly extension job.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+@Transactional
+public class AppointmentSeriesServiceImpl implements AppointmentSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentSeriesServiceImpl.class);
+
+    private final AppointmentSeriesRepository seriesRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentMapper appointmentMapper;
+    private final SlotReservationService slotReservationService;
+    private final AppointmentNumberAllocator appointmentNumberAllocator;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${appointment.series.materialization-horizon-days:90}")
+    private int horizonDays;
+
+    @Value("${appointment.series.max-occurrences-per-pass:500}")
+    private int maxOccurrencesPerPass;
+
+    @Autowired
+    public AppointmentSeriesServiceImpl(AppointmentSeriesRepository seriesRepository,
+                                        AppointmentRepository appointmentRepository,
+                                        AppointmentMapper appointmentMapper,
+                                        SlotReservationService slotReservationService,
+                                        AppointmentNumberAllocator appointmentNumberAllocator,
+                                        PlatformTransactionManager transactionManager) {
+        this.seriesRepository = seriesRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentMapper = appointmentMapper;
+        this.slotReservationService = slotReservationService;
+        this.appointmentNumberAllocator = appointmentNumberAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public AppointmentSeriesResponseDto createSeries(AppointmentSeriesCreateRequestDto createRequest) {
+        logger.info("Creating appointment series {} for patient: {} with provider: {}",
+                   createRequest.getRecurrenceRule(), createRequest.getPatientName(), createRequest.getProviderName());
+
+        Recur<LocalDateTime> recur = RecurrenceExpander.parse(createRequest.getRecurrenceRule());
+        LocalDateTime seriesStart = createRequest.getSeriesStart();
+
+        AppointmentSeries series = new AppointmentSeries();
+        series.setPatientId(createRequest.getPatientId());
+        series.setPatientName(createRequest.getPatientName());
+        series.setProviderId(createRequest.getProviderId());
+        series.setProviderName(createRequest.getProviderName());
+        series.setProviderSpecialty(createRequest.getProviderSpecialty());
+        series.setLocationId(createRequest.getLocationId());
+        series.setLocationName(createRequest.getLocationName());
+        series.setAppointmentType(AppointmentType.valueOf(createRequest.getAppointmentType().toUpperCase()));
+        series.setDurationMinutes(createRequest.getDurationMinutes());
+        series.setRecurrenceRule(createRequest.getRecurrenceRule());
+        series.setSeriesStart(seriesStart);
+        series.setLastOccurrence(RecurrenceExpander.lastOccurrence(recur, seriesStart, seriesStart.plusYears(5)));
+        series.setMaterializedThrough(seriesStart.minusSeconds(1));
+        series.setNotes(createRequest.getNotes());
+
+        AppointmentSeriesResponseDto response = new AppointmentSeriesResponseDto();
+        List<Appointment> booked = materialize(series, recur, Boolean.TRUE.equals(createRequest.getSkipConflicts()), response);
+        AppointmentSeries savedSeries = seriesRepository.save(series);
+
+        logger.info("Appointment series {} booked {} occurrences through {}",
+                   savedSeries.getId(), booked.size(), savedSeries.getMaterializedThrough());
+
+        populate(response, savedSeries);
+        response.setAppointments(appointmentMapper.toResponseDtoList(booked));
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentSeriesResponseDto getSeries(UUID seriesId) {
+        AppointmentSeries series = seriesRepository.findById(seriesId)
+                .orElseThrow(() -> new AppointmentNotFoundException("series ID", seriesId));
+
+        AppointmentSeriesResponseDto response = new AppointmentSeriesResponseDto();
+        populate(response, series);
+        response.setAppointments(appointmentMapper.toResponseDtoList(
+                appointmentRepository.findBySeriesIdOrderByAppointmentDateTime(seriesId)));
+        return response;
+    }
+
+    @Override
+    @Scheduled(cron = "${appointment.series.extension-cron:0 30 1 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int extendSeriesHorizons() {
+        List<UUID> dueSeries = seriesRepository.findSeriesDueForMaterialization(LocalDateTime.now().plusDays(horizonDays));
+        int extended = 0;
+
+        // One transaction per series so a conflict in one does not roll back the others
+        for (UUID seriesId : dueSeries) {
+            try {
+                Integer booked = transactionTemplate.execute(status -> {
+                    AppointmentSeries series = seriesRepository.findById(seriesId).orElse(null);
+                    if (series == null || !series.getActive()) {
+                        return 0;
+                    }
+                    Recur<LocalDateTime> recur = RecurrenceExpander.parse(series.getRecurrenceRule());
+                    int count = materialize(series, recur, true, new AppointmentSeriesResponseDto()).size();
+                    seriesRepository.save(series);
+                    return count;
+                });
+                if (booked != null && booked > 0) {
+                    extended++;
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to extend appointment series {}: {}", seriesId, e.getMessage());
+            }
+        }
+
+        if (!dueSeries.isEmpty()) {
+            logger.info("Extended {} of {} appointment series due for materialization", extended, dueSeries.size());
+        }
+        return extended;
+    }
+
+    /**
+     * Book the occurrences between the series' current materialization point
+     * and the rolling horizon, recording skipped occurrences on the response.
+     */
+    private List<Appointment> materialize(AppointmentSeries series, Recur<LocalDateTime> recur,
+                                          boolean skipConflicts, AppointmentSeriesResponseDto response) {
+        LocalDateTime through = LocalDateTime.now().plusDays(horizonDays);
+        if (series.getLastOccurrence() != null && series.getLastOccurrence().isBefore(through)) {
+            through = series.getLastOccurrence();
+        }
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(recur, series.getSeriesStart(),
+                series.getMaterializedThrough(), through);
+        if (starts.size() > maxOccurrencesPerPass) {
+            starts = starts.subList(0, maxOccurrencesPerPass);
+            through = starts.get(starts.size() - 1);
+        }
+        if (starts.isEmpty()) {
+            series.recordMaterialization(through, 0, 0);
+            return List.of();
+        }
+
+        List<String> numbers = appointmentNumberAllocator.reserveAppointmentNumbers(starts.size());
+        List<Appointment> occurrences = new ArrayList<>(starts.size());
+        for (int i = 0; i < starts.size(); i++) {
+            Appointment occurrence = series.newOccurrence(starts.get(i));
+            occurrence.setAppointmentNumber(numbers.get(i));
+            occurrences.add(occurrence);
+        }
+
+        List<Appointment> booked = slotReservationService.reserveSeries(occurrences, skipConflicts);
+
+        Set<LocalDateTime> bookedStarts = booked.stream()
+                .map(Appointment::getAppointmentDateTime)
+                .collect(Collectors.toCollection(HashSet::new));
+        List<LocalDateTime> skipped = starts.stream()
+                .filter(start -> !bookedStarts.contains(start))
+                .collect(Collectors.toList());
+        if (!skipped.isEmpty()) {
+            logger.warn("Appointment series {} skipped {} conflicting occurrences", series.getId(), skipped.size());
+        }
+
+        series.recordMaterialization(through, booked.size(), skipped.size());
+        response.getSkippedOccurrences().addAll(skipped);
+        return booked;
+    }
+
+    private void populate(AppointmentSeriesResponseDto response, AppointmentSeries series) {
+        response.setSeriesId(series.getId());
+        response.setRecurrenceRule(series.getRecurrenceRule());
+        response.setSeriesStart(series.getSeriesStart());
+        response.setMaterializedThrough(series.getMaterializedThrough());
+        response.setActive(series.getActive());
+        response.setOccurrencesBooked(series.getOccurrencesBooked());
+    }
+}
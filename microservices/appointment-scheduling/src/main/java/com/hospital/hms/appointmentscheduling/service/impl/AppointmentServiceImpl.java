@@ -1,30 +1,49 @@
 package com.hospital.hms.appointmentscheduling.service.impl;
 
 import com.hospital.hms.appointmentscheduling.dto.AppointmentCreateRequestDto;
+import com.hospital.hms.appointmentscheduling.calendar.AvailableSlotFinder;
+import com.hospital.hms.appointmentscheduling.calendar.ScheduleCalendar;
 import com.hospital.hms.appointmentscheduling.dto.AppointmentResponseDto;
+import com.hospital.hms.appointmentscheduling.dto.AvailableSlotDto;
+import com.hospital.hms.appointmentscheduling.dto.SlotSearchRequestDto;
 import com.hospital.hms.appointmentscheduling.entity.Appointment;
+import com.hospital.hms.appointmentscheduling.entity.AppointmentResource;
 import com.hospital.hms.appointmentscheduling.entity.AppointmentStatus;
+import com.hospital.hms.appointmentscheduling.event.AppointmentEventPublisher;
+import com.hospital.hms.appointmentscheduling.event.AppointmentStatusChangedEvent;
 import com.hospital.hms.appointmentscheduling.exception.AppointmentNotFoundException;
 import com.hospital.hms.appointmentscheduling.mapper.AppointmentMapper;
 import com.hospital.hms.appointmentscheduling.repository.AppointmentRepository;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentResourceRepository;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentStatusHistoryRepository;
+import com.hospital.hms.appointmentscheduling.sequence.AppointmentNumberAllocator;
 import com.hospital.hms.appointmentscheduling.service.AppointmentService;
+import com.hospital.hms.appointmentscheduling.service.SlotReservationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Implementation of AppointmentService
@@ -37,14 +56,51 @@ import java.util.concurrent.ThreadLocalRandom;
 public class AppointmentServiceImpl implements AppointmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(AppointmentServiceImpl.class);
+
+    private static final String SYSTEM_USER = "system";
+    private static final UUID SYSTEM_USER_ID = new UUID(0L, 0L);
     
     private final AppointmentRepository appointmentRepository;
     private final AppointmentMapper appointmentMapper;
+    private final AppointmentResourceRepository appointmentResourceRepository;
+    private final SlotReservationService slotReservationService;
+    private final AppointmentNumberAllocator appointmentNumberAllocator;
+    private final AppointmentStatusHistoryRepository statusHistoryRepository;
+    private final AppointmentEventPublisher appointmentEventPublisher;
+    private final AvailableSlotFinder availableSlotFinder = new AvailableSlotFinder();
+
+    @Value("${appointment.scheduling.slot-interval-minutes:15}")
+    private int slotIntervalMinutes;
+
+    @Value("${appointment.scheduling.advance-booking-days:90}")
+    private int advanceBookingDays;
+
+    @Value("${appointment.scheduling.working-day-start:08:00}")
+    private String workingDayStart;
+
+    @Value("${appointment.scheduling.working-day-end:18:00}")
+    private String workingDayEnd;
+
+    @Value("${appointment.scheduling.overdue-lookback-days:30}")
+    private int overdueLookbackDays;
+
+    @Value("${appointment.scheduling.candidate-lookback-days:180}")
+    private int candidateLookbackDays;
 
     @Autowired
-    public AppointmentServiceImpl(AppointmentRepository appointmentRepository, AppointmentMapper appointmentMapper) {
+    public AppointmentServiceImpl(AppointmentRepository appointmentRepository, AppointmentMapper appointmentMapper,
+                                  AppointmentResourceRepository appointmentResourceRepository,
+                                  SlotReservationService slotReservationService,
+                                  AppointmentNumberAllocator appointmentNumberAllocator,
+                                  AppointmentStatusHistoryRepository statusHistoryRepository,
+                                  AppointmentEventPublisher appointmentEventPublisher) {
         this.appointmentRepository = appointmentRepository;
         this.appointmentMapper = appointmentMapper;
+        this.appointmentResourceRepository = appointmentResourceRepository;
+        this.slotReservationService = slotReservationService;
+        this.appointmentNumberAllocator = appointmentNumberAllocator;
+        this.statusHistoryRepository = statusHistoryRepository;
+        this.appointmentEventPublisher = appointmentEventPublisher;
     }
 
     @Override
@@ -52,13 +108,22 @@ public class AppointmentServiceImpl implements AppointmentService {
         logger.info("Creating new appointment for patient: {} with provider: {}", 
                    createRequest.getPatientName(), createRequest.getProviderName());
         
+        if (createRequest.getRequestKey() != null) {
+            Optional<Appointment> replayed = appointmentRepository.findByRequestKey(createRequest.getRequestKey());
+            if (replayed.isPresent()) {
+                logger.info("Appointment request {} already booked as {}", 
+                           createRequest.getRequestKey(), replayed.get().getAppointmentNumber());
+                return appointmentMapper.toResponseDto(replayed.get());
+            }
+        }
+        
         Appointment appointment = appointmentMapper.toEntity(createRequest);
         appointment.setAppointmentNumber(generateAppointmentNumber());
         appointment.setEndDateTime(createRequest.getAppointmentDateTime().plusMinutes(createRequest.getDurationMinutes()));
         appointment.setCreatedBy(getCurrentUser());
         appointment.setLastModifiedBy(getCurrentUser());
         
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        Appointment savedAppointment = slotReservationService.reserveSlot(appointment);
         
         logger.info("Appointment created successfully with ID: {} and number: {}", 
                    savedAppointment.getId(), savedAppointment.getAppointmentNumber());
@@ -141,70 +206,100 @@ public class AppointmentServiceImpl implements AppointmentService {
         return appointmentMapper.toResponseDtoList(appointments);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentResponseDto> getCompletedAppointments(LocalDateTime startTime, LocalDateTime endTime,
+                                                                 Pageable pageable) {
+        List<Appointment> appointments = appointmentRepository.findCompletedBetween(startTime, endTime, pageable);
+        return appointmentMapper.toResponseDtoList(appointments);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentResponseDto> getUpcomingAppointments(LocalDateTime startTime, LocalDateTime endTime,
+                                                                Pageable pageable) {
+        List<Appointment> appointments = appointmentRepository.findUpcomingBetween(startTime, endTime, pageable);
+        return appointmentMapper.toResponseDtoList(appointments);
+    }
+
     @Override
     @CacheEvict(value = "appointments", key = "#appointmentId")
     public AppointmentResponseDto updateAppointmentStatus(UUID appointmentId, AppointmentStatus newStatus) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
+        AppointmentStatus previousStatus = appointment.getStatus();
         
-        if (!appointment.getStatus().canTransitionTo(newStatus)) {
-            throw new IllegalStateException(String.format("Cannot transition from %s to %s", appointment.getStatus(), newStatus));
+        if (!previousStatus.canTransitionTo(newStatus)) {
+            throw new IllegalStateException(String.format("Cannot transition from %s to %s", previousStatus, newStatus));
         }
         
-        appointment.setStatus(newStatus);
-        appointment.setLastModifiedBy(getCurrentUser());
-        
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        LocalDateTime now = LocalDateTime.now();
+        String currentUser = getCurrentUser();
+        int updated = appointmentRepository.transitionStatus(appointmentId, appointment.getAppointmentDateTime(),
+                previousStatus, newStatus, now, currentUser);
         
-        return appointmentMapper.toResponseDto(updatedAppointment);
+        return recordTransition(appointment, previousStatus, newStatus, now, updated, currentUser, null);
     }
 
     @Override
+    @CacheEvict(value = "appointments", key = "#appointmentId")
     public AppointmentResponseDto checkInAppointment(UUID appointmentId) {
         logger.info("Checking in appointment: {}", appointmentId);
         
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
+        AppointmentStatus previousStatus = appointment.getStatus();
         
-        appointment.setStatus(AppointmentStatus.CHECKED_IN);
-        appointment.setCheckinTime(LocalDateTime.now());
-        appointment.setLastModifiedBy(getCurrentUser());
-        
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        LocalDateTime now = LocalDateTime.now();
+        String currentUser = getCurrentUser();
+        int updated = appointmentRepository.markCheckedIn(appointmentId, appointment.getAppointmentDateTime(),
+                previousStatus, AppointmentStatus.CHECKED_IN, now, currentUser);
+        appointment.setCheckedIn(true);
+        appointment.setCheckInTime(now);
         
-        return appointmentMapper.toResponseDto(updatedAppointment);
+        return recordTransition(appointment, previousStatus, AppointmentStatus.CHECKED_IN, now, updated, currentUser,
+                null);
     }
 
     @Override
+    @CacheEvict(value = "appointments", key = "#appointmentId")
     public AppointmentResponseDto completeAppointment(UUID appointmentId) {
         logger.info("Completing appointment: {}", appointmentId);
         
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
+        AppointmentStatus previousStatus = appointment.getStatus();
         
-        appointment.setStatus(AppointmentStatus.COMPLETED);
-        appointment.setCompletionTime(LocalDateTime.now());
-        appointment.setLastModifiedBy(getCurrentUser());
+        LocalDateTime now = LocalDateTime.now();
+        String currentUser = getCurrentUser();
+        int updated = appointmentRepository.markCompleted(appointmentId, appointment.getAppointmentDateTime(),
+                previousStatus, AppointmentStatus.COMPLETED, now, currentUser);
+        appointment.setCompleted(true);
+        appointment.setCompletionTime(now);
         
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
-        
-        return appointmentMapper.toResponseDto(updatedAppointment);
+        return recordTransition(appointment, previousStatus, AppointmentStatus.COMPLETED, now, updated, currentUser,
+                null);
     }
 
     @Override
+    @CacheEvict(value = "appointments", key = "#appointmentId")
     public AppointmentResponseDto cancelAppointment(UUID appointmentId, String reason) {
         logger.info("Cancelling appointment: {} with reason: {}", appointmentId, reason);
         
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
-        
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        appointment.setCancellationReason(reason);
-        appointment.setLastModifiedBy(getCurrentUser());
-        
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
-        
-        return appointmentMapper.toResponseDto(updatedAppointment);
+        AppointmentStatus previousStatus = appointment.getStatus();
+        
+        LocalDateTime now = LocalDateTime.now();
+        String currentUser = getCurrentUser();
+        int updated = appointmentRepository.markCancelled(appointmentId, appointment.getAppointmentDateTime(),
+                previousStatus, AppointmentStatus.CANCELLED, reason, now, currentUser);
+        appointment.setCancelled(true);
+        appointment.setCancellationDate(now);
+        appointment.setCancellationNotes(reason);
+        
+        return recordTransition(appointment, previousStatus, AppointmentStatus.CANCELLED, now, updated, currentUser,
+                reason);
     }
 
     @Override
@@ -214,36 +309,17 @@ public class AppointmentServiceImpl implements AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new AppointmentNotFoundException(appointmentId));
         
-        appointment.setAppointmentDateTime(newDateTime);
-        appointment.setEndDateTime(newDateTime.plusMinutes(appointment.getDurationMinutes()));
         appointment.setStatus(AppointmentStatus.RESCHEDULED);
         appointment.setLastModifiedBy(getCurrentUser());
         
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        Appointment updatedAppointment = slotReservationService.moveSlot(appointment, newDateTime);
         
         return appointmentMapper.toResponseDto(updatedAppointment);
     }
 
     @Override
     public String generateAppointmentNumber() {
-        String prefix = "APT";
-        String dateComponent = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        
-        String appointmentNumber;
-        int attempts = 0;
-        int maxAttempts = 10;
-        
-        do {
-            int randomNumber = ThreadLocalRandom.current().nextInt(1000, 9999);
-            appointmentNumber = prefix + dateComponent + randomNumber;
-            attempts++;
-            
-            if (attempts >= maxAttempts) {
-                throw new RuntimeException("Failed to generate unique appointment number after " + maxAttempts + " attempts");
-            }
-        } while (appointmentRepository.existsByAppointmentNumber(appointmentNumber));
-        
-        return appointmentNumber;
+        return appointmentNumberAllocator.nextAppointmentNumber();
     }
 
     @Override
@@ -253,11 +329,97 @@ public class AppointmentServiceImpl implements AppointmentService {
         return conflictingAppointments == 0;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailableSlotDto> findAvailableSlots(SlotSearchRequestDto searchRequest) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime searchStart = searchRequest.getSearchStart() != null && searchRequest.getSearchStart().isAfter(now)
+                ? searchRequest.getSearchStart() : now;
+        LocalDateTime searchEnd = searchRequest.getSearchEnd();
+        LocalDateTime horizonLimit = now.plusDays(advanceBookingDays);
+        if (searchEnd.isAfter(horizonLimit)) {
+            searchEnd = horizonLimit;
+        }
+        if (!searchEnd.isAfter(searchStart)) {
+            return List.of();
+        }
+
+        Map<UUID, String> candidates = resolveCandidateProviders(searchRequest, now.minusDays(candidateLookbackDays));
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // One grid for every calendar in this search, aligned to the slot interval
+        LocalDateTime gridOrigin = searchStart.toLocalDate().atStartOfDay();
+        LocalTime open = LocalTime.parse(workingDayStart);
+        LocalTime close = LocalTime.parse(workingDayEnd);
+
+        ScheduleCalendar template = new ScheduleCalendar(gridOrigin, searchEnd, slotIntervalMinutes);
+        template.closeOutside(open, close);
+
+        Map<UUID, ScheduleCalendar> providerCalendars = new HashMap<>();
+        for (UUID providerId : candidates.keySet()) {
+            providerCalendars.put(providerId, template.copy());
+        }
+        for (Object[] window : appointmentRepository.findProviderBookingWindows(candidates.keySet(), gridOrigin, searchEnd)) {
+            providerCalendars.get((UUID) window[0]).markBusy((LocalDateTime) window[1], (LocalDateTime) window[2]);
+        }
+
+        ScheduleCalendar resourceCalendar = null;
+        List<UUID> resourceIds = searchRequest.getResourceIds();
+        if (resourceIds != null && !resourceIds.isEmpty()) {
+            resourceCalendar = new ScheduleCalendar(gridOrigin, searchEnd, slotIntervalMinutes);
+            // Widen the window so setup and cleanup time around neighbouring reservations is seen
+            for (AppointmentResource reservation : appointmentResourceRepository.findReservationsOverlapping(
+                    resourceIds, gridOrigin.minusDays(1), searchEnd.plusDays(1))) {
+                resourceCalendar.markBusy(reservation.getEffectiveReservationStart(), reservation.getEffectiveReservationEnd());
+            }
+        }
+
+        List<AvailableSlotDto> slots = availableSlotFinder.findEarliest(providerCalendars, resourceCalendar,
+                searchRequest.getDurationMinutes(), searchStart, searchRequest.getMaxResults());
+        for (AvailableSlotDto slot : slots) {
+            slot.setProviderName(candidates.get(slot.getProviderId()));
+            slot.setLocationId(searchRequest.getLocationId());
+            slot.setResourceIds(resourceIds);
+        }
+
+        logger.debug("Slot search over {} providers returned {} slots", candidates.size(), slots.size());
+        return slots;
+    }
+
+    /**
+     * Providers to search: the requested ones, narrowed to those seeing patients at the requested location,
+     * or else every provider of the specialty and location with appointments since the lookback cutoff
+     */
+    private Map<UUID, String> resolveCandidateProviders(SlotSearchRequestDto searchRequest, LocalDateTime since) {
+        Map<UUID, String> candidates = new LinkedHashMap<>();
+        Collection<UUID> requested = searchRequest.getProviderIds();
+        if (requested != null && !requested.isEmpty()) {
+            if (searchRequest.getLocationId() == null) {
+                for (UUID providerId : requested) {
+                    candidates.put(providerId, null);
+                }
+                return candidates;
+            }
+            for (Object[] provider : appointmentRepository.findProvidersAtLocation(requested,
+                    searchRequest.getLocationId(), since)) {
+                candidates.put((UUID) provider[0], (String) provider[1]);
+            }
+            return candidates;
+        }
+        for (Object[] provider : appointmentRepository.findCandidateProviders(
+                searchRequest.getSpecialty(), searchRequest.getLocationId(), since)) {
+            candidates.put((UUID) provider[0], (String) provider[1]);
+        }
+        return candidates;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getAppointmentStatistics() {
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        Object[] stats = appointmentRepository.getAppointmentStatistics(startOfMonth);
+        LocalDateTime startOfMonth = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        Object[] stats = appointmentRepository.getAppointmentStatistics(startOfMonth, startOfMonth.plusMonths(1));
         
         Map<String, Object> statistics = new HashMap<>();
         if (stats != null && stats.length >= 4) {
@@ -273,11 +435,63 @@ public class AppointmentServiceImpl implements AppointmentService {
     @Override
     @Transactional(readOnly = true)
     public List<AppointmentResponseDto> getOverdueAppointments() {
-        List<Appointment> appointments = appointmentRepository.findOverdueAppointments(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        List<Appointment> appointments = appointmentRepository.findOverdueAppointments(now.minusDays(overdueLookbackDays), now);
         return appointmentMapper.toResponseDtoList(appointments);
     }
 
+    /**
+     * Complete a status transition that was applied by a compare-and-set
+     * update: append it to the status history, queue it for publishing and
+     * build the response from the already loaded (now detached) appointment.
+     */
+    private AppointmentResponseDto recordTransition(Appointment appointment, AppointmentStatus previousStatus,
+                                                    AppointmentStatus newStatus, LocalDateTime now, int updated,
+                                                    String changedBy, String notes) {
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(Appointment.class, appointment.getId());
+        }
+        
+        UUID transitionId = UUID.randomUUID();
+        statusHistoryRepository.appendTransition(transitionId, appointment.getId(), newStatus.name(),
+                previousStatus.name(), now, userId(changedBy), changedBy, notes);
+        
+        appointment.setStatus(newStatus);
+        appointment.setLastModifiedDate(now);
+        appointment.setLastModifiedBy(changedBy);
+        appointment.setVersion(appointment.getVersion() + 1);
+        
+        AppointmentStatusChangedEvent event = new AppointmentStatusChangedEvent(
+                transitionId, appointment.getId(), previousStatus, newStatus, now);
+        event.setAppointmentNumber(appointment.getAppointmentNumber());
+        event.setPatientId(appointment.getPatientId());
+        event.setProviderId(appointment.getProviderId());
+        event.setLocationId(appointment.getLocationId());
+        event.setAppointmentDateTime(appointment.getAppointmentDateTime());
+        event.setChangedBy(changedBy);
+        event.setNotes(notes);
+        appointmentEventPublisher.publishStatusChanged(event);
+        
+        return appointmentMapper.toResponseDto(appointment);
+    }
+
     private String getCurrentUser() {
-        return "system"; // In production, get from security context
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken || authentication.getName() == null) {
+            return SYSTEM_USER;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Id of a user for the status history: the token subject when it is a UUID, otherwise the system user
+     */
+    private static UUID userId(String user) {
+        try {
+            return UUID.fromString(user);
+        } catch (IllegalArgumentException e) {
+            return SYSTEM_USER_ID;
+        }
     }
 }
@@ -0,0 +1,217 @@
+package com.hospital.hms.appointmentscheduling.service.impl;
+
+import com.hospital.hms.appointmentscheduling.calendar.ScheduleCalendar;
+import com.hospital.hms.appointmentscheduling.entity.Appointment;
+import com.hospital.hms.appointmentscheduling.exception.AppointmentSlotConflictException;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentRepository;
+import com.hospital.hms.appointmentscheduling.service.SlotReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of SlotReservationService
+ *
+ * Bookings for the same provider are serialized through a fixed pool of
+ * striped locks, so unrelated providers never contend with each other. The
+ * stripe is held until the surrounding transaction completes; releasing it
+ * any earlier would let a second booker read the schedule before the first
+ * insert is committed.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+@Transactional
+public class SlotReservationServiceImpl implements SlotReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotReservationServiceImpl.class);
+
+    private final AppointmentRepository appointmentRepository;
+    private final ReentrantLock[] providerLocks;
+    private final int stripeMask;
+    private final long lockTimeoutMillis;
+
+    @Autowired
+    public SlotReservationServiceImpl(AppointmentRepository appointmentRepository,
+                                      @Value("${appointment.scheduling.slot-lock-stripes:256}") int lockStripes,
+                                      @Value("${appointment.scheduling.slot-lock-timeout-ms:2000}") long lockTimeoutMillis) {
+        this.appointmentRepository = appointmentRepository;
+        int stripes = Integer.highestOneBit(Math.max(1, lockStripes - 1) << 1);
+        this.providerLocks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            providerLocks[i] = new ReentrantLock();
+        }
+        this.stripeMask = stripes - 1;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    @Override
+    public Appointment reserveSlot(Appointment appointment) {
+        ReentrantLock lock = acquire(appointment.getProviderId());
+        boolean handedOff = false;
+        try {
+            handedOff = releaseOnCompletion(lock);
+
+            if (appointment.getRequestKey() != null) {
+                Optional<Appointment> replayed = appointmentRepository.findByRequestKey(appointment.getRequestKey());
+                if (replayed.isPresent()) {
+                    logger.info("Returning existing appointment {} for replayed request key {}",
+                               replayed.get().getId(), appointment.getRequestKey());
+                    return replayed.get();
+                }
+            }
+
+            ensureWindowFree(appointment, appointment.getAppointmentDateTime(), appointment.getEndDateTime());
+            return saveChecked(appointment);
+        } finally {
+            if (!handedOff) {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public Appointment moveSlot(Appointment appointment, LocalDateTime newDateTime) {
+        ReentrantLock lock = acquire(appointment.getProviderId());
+        boolean handedOff = false;
+        try {
+            handedOff = releaseOnCompletion(lock);
+
+            LocalDateTime newEndDateTime = newDateTime.plusMinutes(appointment.getDurationMinutes());
+            ensureWindowFree(appointment, newDateTime, newEndDateTime);
+
+            appointment.setAppointmentDateTime(newDateTime);
+            appointment.setEndDateTime(newEndDateTime);
+            return saveChecked(appointment);
+        } finally {
+            if (!handedOff) {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<Appointment> reserveSeries(List<Appointment> occurrences, boolean skipConflicts) {
+        if (occurrences.isEmpty()) {
+            return List.of();
+        }
+        UUID providerId = occurrences.get(0).getProviderId();
+        ReentrantLock lock = acquire(providerId);
+        boolean handedOff = false;
+        try {
+            handedOff = releaseOnCompletion(lock);
+
+            LocalDateTime windowStart = occurrences.stream().map(Appointment::getAppointmentDateTime)
+                    .min(Comparator.naturalOrder()).orElseThrow();
+            LocalDateTime windowEnd = occurrences.stream().map(Appointment::getEndDateTime)
+                    .max(Comparator.naturalOrder()).orElseThrow();
+
+            // Minute resolution: occurrences are compared exactly, not rounded to booking slots
+            ScheduleCalendar booked = new ScheduleCalendar(windowStart, windowEnd, 1);
+            for (Object[] window : appointmentRepository.findProviderBookingWindows(List.of(providerId), windowStart, windowEnd)) {
+                booked.markBusy((LocalDateTime) window[1], (LocalDateTime) window[2]);
+            }
+
+            List<Appointment> accepted = new ArrayList<>(occurrences.size());
+            for (Appointment occurrence : occurrences) {
+                if (booked.isFree(occurrence.getAppointmentDateTime(), occurrence.getEndDateTime())) {
+                    booked.markBusy(occurrence.getAppointmentDateTime(), occurrence.getEndDateTime());
+                    accepted.add(occurrence);
+                } else if (!skipConflicts) {
+                    throw new AppointmentSlotConflictException(providerId,
+                            occurrence.getAppointmentDateTime(), occurrence.getEndDateTime());
+                }
+            }
+
+            try {
+                List<Appointment> saved = appointmentRepository.saveAll(accepted);
+                appointmentRepository.flush();
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Series conflict detected by database for provider {} between {} and {}",
+                           providerId, windowStart, windowEnd);
+                throw new AppointmentSlotConflictException(providerId, windowStart, windowEnd, e);
+            }
+        } finally {
+            if (!handedOff) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void ensureWindowFree(Appointment appointment, LocalDateTime startTime, LocalDateTime endTime) {
+        long overlapping = appointmentRepository.countOverlappingProviderAppointments(
+                appointment.getProviderId(), appointment.getId(), startTime, endTime);
+        if (overlapping > 0) {
+            throw new AppointmentSlotConflictException(appointment.getProviderId(), startTime, endTime);
+        }
+    }
+
+    /**
+     * Flush immediately so that the exclusion constraint fires while this
+     * booker still owns the stripe and can report a slot conflict.
+     */
+    private Appointment saveChecked(Appointment appointment) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Slot conflict detected by database for provider {} at {}",
+                       appointment.getProviderId(), appointment.getAppointmentDateTime());
+            throw new AppointmentSlotConflictException(appointment.getProviderId(),
+                    appointment.getAppointmentDateTime(), appointment.getEndDateTime(), e);
+        }
+    }
+
+    private ReentrantLock acquire(UUID providerId) {
+        ReentrantLock lock = providerLocks[stripeFor(providerId)];
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new AppointmentSlotConflictException(
+                        "Timed out waiting for schedule of provider " + providerId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AppointmentSlotConflictException(
+                    "Interrupted while waiting for schedule of provider " + providerId);
+        }
+        return lock;
+    }
+
+    private int stripeFor(UUID providerId) {
+        int h = providerId.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    /**
+     * Defer unlocking to transaction completion when a transaction is active.
+     * Returns false when the caller must unlock itself.
+     */
+    private boolean releaseOnCompletion(ReentrantLock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        return true;
+    }
+}
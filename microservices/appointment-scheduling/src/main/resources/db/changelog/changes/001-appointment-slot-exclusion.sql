@@ -0,0 +1,29 @@
+--liquibase formatted sql
+
+-- Backstop for provider slot reservation: no two active appointments for the
+-- same provider may overlap, whichever service instance booked them.
+-- tsrange is used because appointment times are stored as timestamp without
+-- time zone; a tstzrange over those columns would not be immutable and cannot
+-- be indexed.
+
+--changeset hms:001-appointment-request-key dbms:postgresql
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'appointments'
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS request_key VARCHAR(100);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_appointment_request_key ON appointments (request_key);
+--rollback DROP INDEX IF EXISTS uk_appointment_request_key;
+--rollback ALTER TABLE appointments DROP COLUMN IF EXISTS request_key;
+
+--changeset hms:001-appointment-provider-slot-exclusion dbms:postgresql
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'appointments'
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+ALTER TABLE appointments ADD CONSTRAINT ex_appointment_provider_slot
+    EXCLUDE USING gist (
+        provider_id WITH =,
+        tsrange(appointment_date_time,
+                COALESCE(end_date_time, appointment_date_time + duration_minutes * INTERVAL '1 minute'),
+                '[)') WITH &&
+    )
+    WHERE (status NOT IN ('CANCELLED', 'NO_SHOW', 'ENTERED_IN_ERROR', 'WAITLIST'));
+--rollback ALTER TABLE appointments DROP CONSTRAINT IF EXISTS ex_appointment_provider_slot;
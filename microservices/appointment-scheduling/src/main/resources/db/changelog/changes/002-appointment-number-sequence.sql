@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+-- Appointment numbers are leased from this sequence in blocks. INCREMENT BY
+-- must match appointment.numbering.block-size; each nextval hands one
+-- service instance a whole block.
+
+--changeset hms:002-appointment-number-sequence
+CREATE SEQUENCE IF NOT EXISTS appointment_number_seq START WITH 1 INCREMENT BY 100;
+--rollback DROP SEQUENCE IF EXISTS appointment_number_seq;
@@ -0,0 +1,36 @@
+--liquibase formatted sql
+
+--changeset hms:003-appointment-series dbms:postgresql
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'appointments'
+CREATE TABLE IF NOT EXISTS appointment_series (
+    id                   UUID PRIMARY KEY,
+    patient_id           UUID         NOT NULL,
+    patient_name         VARCHAR(200) NOT NULL,
+    provider_id          UUID         NOT NULL,
+    provider_name        VARCHAR(200) NOT NULL,
+    provider_specialty   VARCHAR(100),
+    location_id          UUID,
+    location_name        VARCHAR(200),
+    appointment_type     VARCHAR(20)  NOT NULL,
+    duration_minutes     INTEGER      NOT NULL,
+    recurrence_rule      VARCHAR(500) NOT NULL,
+    series_start         TIMESTAMP    NOT NULL,
+    last_occurrence      TIMESTAMP,
+    materialized_through TIMESTAMP    NOT NULL,
+    occurrences_booked   INTEGER      NOT NULL DEFAULT 0,
+    occurrences_skipped  INTEGER      NOT NULL DEFAULT 0,
+    active               BOOLEAN      NOT NULL DEFAULT TRUE,
+    notes                TEXT,
+    created_date         TIMESTAMP    NOT NULL,
+    last_modified_date   TIMESTAMP,
+    version              BIGINT
+);
+CREATE INDEX IF NOT EXISTS idx_series_patient ON appointment_series (patient_id);
+CREATE INDEX IF NOT EXISTS idx_series_provider ON appointment_series (provider_id);
+CREATE INDEX IF NOT EXISTS idx_series_active_materialized ON appointment_series (active, materialized_through);
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS series_id UUID;
+CREATE INDEX IF NOT EXISTS idx_appointment_series ON appointments (series_id);
+--rollback DROP INDEX IF EXISTS idx_appointment_series;
+--rollback ALTER TABLE appointments DROP COLUMN IF EXISTS series_id;
+--rollback DROP TABLE IF EXISTS appointment_series;
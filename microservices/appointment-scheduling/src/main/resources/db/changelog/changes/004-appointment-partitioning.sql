@@ -0,0 +1,133 @@
+--liquibase formatted sql
+
+-- Monthly range partitioning of appointments (by appointment_date_time) and
+-- appointment_status_history (by status_date).
+--
+-- PostgreSQL requires every unique constraint on a partitioned table to
+-- contain the partition key, so:
+--   * primary keys become (id, <partition key>); ids are still random UUIDs
+--   * appointment_number / fhir_id / request_key are only unique together
+--     with appointment_date_time; appointment numbers are globally unique by
+--     construction (sequence), while a fhir_id or request_key reused for a
+--     different start time is no longer rejected by the database
+--   * foreign keys into appointments are dropped
+--   * the provider slot exclusion constraint is created on each partition,
+--     the default partition included, rather than on the parent; the
+--     provider stripe lock still covers bookings that straddle a month
+--     boundary
+--
+-- Partitions are created ahead of time by AppointmentPartitionMaintenance
+-- through hms_ensure_appointment_partitions(); rows outside every monthly
+-- partition land in the default partitions.
+
+--changeset hms:004-appointment-partition-function dbms:postgresql splitStatements:false
+CREATE OR REPLACE FUNCTION hms_ensure_appointment_partitions(p_month DATE) RETURNS VOID AS $$
+DECLARE
+    v_from   DATE := date_trunc('month', p_month)::date;
+    v_to     DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_suffix TEXT := to_char(date_trunc('month', p_month), 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF appointments FOR VALUES FROM (%L) TO (%L)',
+                   'appointments_p' || v_suffix, v_from, v_to);
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'ex_appointment_provider_slot_p' || v_suffix) THEN
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist ('
+                       || 'provider_id WITH =, '
+                       || 'tsrange(appointment_date_time, '
+                       || 'COALESCE(end_date_time, appointment_date_time + duration_minutes * INTERVAL ''1 minute''), '
+                       || '''[)'') WITH &&) '
+                       || 'WHERE (status NOT IN (''CANCELLED'', ''NO_SHOW'', ''ENTERED_IN_ERROR'', ''WAITLIST''))',
+                       'appointments_p' || v_suffix, 'ex_appointment_provider_slot_p' || v_suffix);
+    END IF;
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF appointment_status_history FOR VALUES FROM (%L) TO (%L)',
+                   'appointment_status_history_p' || v_suffix, v_from, v_to);
+END;
+$$ LANGUAGE plpgsql;
+--rollback DROP FUNCTION IF EXISTS hms_ensure_appointment_partitions(DATE);
+
+--changeset hms:004-appointment-drop-foreign-keys dbms:postgresql splitStatements:false
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:2 SELECT COUNT(*) FROM pg_class WHERE relname IN ('appointments', 'appointment_status_history') AND relkind = 'r'
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN SELECT conrelid::regclass AS table_name, conname
+              FROM pg_constraint
+              WHERE contype = 'f'
+                AND confrelid IN ('appointments'::regclass, 'appointment_status_history'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+    END LOOP;
+END;
+$$;
+
+--changeset hms:004-appointment-partition-tables dbms:postgresql splitStatements:false
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:2 SELECT COUNT(*) FROM pg_class WHERE relname IN ('appointments', 'appointment_status_history') AND relkind = 'r'
+ALTER TABLE appointments RENAME TO appointments_unpartitioned;
+ALTER TABLE appointment_status_history RENAME TO appointment_status_history_unpartitioned;
+
+CREATE TABLE appointments (LIKE appointments_unpartitioned INCLUDING DEFAULTS)
+    PARTITION BY RANGE (appointment_date_time);
+CREATE TABLE appointments_default PARTITION OF appointments DEFAULT;
+
+CREATE TABLE appointment_status_history (LIKE appointment_status_history_unpartitioned INCLUDING DEFAULTS)
+    PARTITION BY RANGE (status_date);
+CREATE TABLE appointment_status_history_default PARTITION OF appointment_status_history DEFAULT;
+
+DO $$
+DECLARE
+    v_month DATE;
+    v_last  DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    SELECT date_trunc('month', LEAST(
+               (SELECT MIN(appointment_date_time) FROM appointments_unpartitioned),
+               (SELECT MIN(status_date) FROM appointment_status_history_unpartitioned),
+               now()))::date
+      INTO v_month;
+    WHILE v_month <= v_last LOOP
+        PERFORM hms_ensure_appointment_partitions(v_month);
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO appointments SELECT * FROM appointments_unpartitioned;
+INSERT INTO appointment_status_history SELECT * FROM appointment_status_history_unpartitioned;
+
+DROP TABLE appointments_unpartitioned;
+DROP TABLE appointment_status_history_unpartitioned;
+
+ALTER TABLE appointments ADD CONSTRAINT pk_appointments PRIMARY KEY (id, appointment_date_time);
+ALTER TABLE appointments ADD CONSTRAINT uk_appointment_number UNIQUE (appointment_number, appointment_date_time);
+ALTER TABLE appointments ADD CONSTRAINT uk_appointment_fhir_id UNIQUE (fhir_id, appointment_date_time);
+ALTER TABLE appointments ADD CONSTRAINT uk_appointment_request_key UNIQUE (request_key, appointment_date_time);
+CREATE INDEX idx_appointment_patient ON appointments (patient_id);
+CREATE INDEX idx_appointment_provider ON appointments (provider_id);
+CREATE INDEX idx_appointment_datetime ON appointments (appointment_date_time);
+CREATE INDEX idx_appointment_status ON appointments (status);
+CREATE INDEX idx_appointment_location ON appointments (location_id);
+CREATE INDEX idx_appointment_type ON appointments (appointment_type);
+CREATE INDEX idx_appointment_created ON appointments (created_date);
+CREATE INDEX idx_appointment_fhir ON appointments (fhir_id);
+CREATE INDEX idx_appointment_provider_window ON appointments (provider_id, appointment_date_time, end_date_time);
+CREATE INDEX idx_appointment_series ON appointments (series_id);
+
+ALTER TABLE appointment_status_history ADD CONSTRAINT pk_appointment_status_history PRIMARY KEY (id, status_date);
+CREATE INDEX idx_status_history_appointment ON appointment_status_history (appointment_id);
+CREATE INDEX idx_status_history_status ON appointment_status_history (status);
+CREATE INDEX idx_status_history_date ON appointment_status_history (status_date);
+CREATE INDEX idx_status_history_changed_by ON appointment_status_history (changed_by);
+
+--changeset hms:004-appointment-default-partition-exclusion dbms:postgresql
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM pg_class WHERE relname = 'appointments_default'
+ALTER TABLE appointments_default ADD CONSTRAINT ex_appointment_provider_slot_default
+    EXCLUDE USING gist (
+        provider_id WITH =,
+        tsrange(appointment_date_time,
+                COALESCE(end_date_time, appointment_date_time + duration_minutes * INTERVAL '1 minute'),
+                '[)') WITH &&
+    )
+    WHERE (status NOT IN ('CANCELLED', 'NO_SHOW', 'ENTERED_IN_ERROR', 'WAITLIST'));
+--rollback ALTER TABLE appointments_default DROP CONSTRAINT IF EXISTS ex_appointment_provider_slot_default;
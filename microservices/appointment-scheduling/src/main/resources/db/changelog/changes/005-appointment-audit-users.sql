@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset hms:005-appointment-audit-users dbms:postgresql
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.tables WHERE table_name = 'appointments'
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS created_by VARCHAR(100);
+ALTER TABLE appointments ADD COLUMN IF NOT EXISTS last_modified_by VARCHAR(100);
+--rollback ALTER TABLE appointments DROP COLUMN IF EXISTS last_modified_by;
+--rollback ALTER TABLE appointments DROP COLUMN IF EXISTS created_by;
@@ -0,0 +1,129 @@
+package com.hospital.hms.appointmentscheduling.calendar;
+
+import com.hospital.hms.appointmentscheduling.dto.AvailableSlotDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AvailableSlotFinder
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class AvailableSlotFinderTest {
+
+    private static final int SLOT_MINUTES = 15;
+    private static final LocalTime OPEN = LocalTime.of(8, 0);
+    private static final LocalTime CLOSE = LocalTime.of(18, 0);
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2030, 3, 4, 0, 0);
+
+    private final AvailableSlotFinder finder = new AvailableSlotFinder();
+    private ScheduleCalendar template;
+
+    @BeforeEach
+    void setUp() {
+        template = new ScheduleCalendar(ORIGIN, ORIGIN.plusDays(14), SLOT_MINUTES);
+        template.closeOutside(OPEN, CLOSE);
+    }
+
+    @Test
+    void findEarliest_SkipsBookedTimeAndClosedHours() {
+        UUID providerId = UUID.randomUUID();
+        ScheduleCalendar calendar = template.copy();
+        calendar.markBusy(ORIGIN.withHour(8), ORIGIN.withHour(9).withMinute(10));
+
+        List<AvailableSlotDto> slots = finder.findEarliest(Map.of(providerId, calendar), null, 30, ORIGIN, 2);
+
+        assertEquals(2, slots.size());
+        assertEquals(ORIGIN.withHour(9).withMinute(15), slots.get(0).getStartDateTime());
+        assertEquals(ORIGIN.withHour(9).withMinute(45), slots.get(0).getEndDateTime());
+        assertEquals(ORIGIN.withHour(9).withMinute(30), slots.get(1).getStartDateTime());
+    }
+
+    @Test
+    void findEarliest_RequiresResourcesFree() {
+        UUID providerId = UUID.randomUUID();
+        ScheduleCalendar room = new ScheduleCalendar(ORIGIN, ORIGIN.plusDays(14), SLOT_MINUTES);
+        room.markBusy(ORIGIN.withHour(8), ORIGIN.withHour(12));
+
+        List<AvailableSlotDto> slots = finder.findEarliest(Map.of(providerId, template.copy()), room, 60, ORIGIN, 1);
+
+        assertEquals(ORIGIN.withHour(12), slots.get(0).getStartDateTime());
+    }
+
+    @Test
+    void findEarliest_MergesAcrossProvidersInTimeOrder() {
+        UUID early = UUID.randomUUID();
+        UUID late = UUID.randomUUID();
+        ScheduleCalendar busyMorning = template.copy();
+        busyMorning.markBusy(ORIGIN.withHour(8), ORIGIN.withHour(11));
+
+        Map<UUID, ScheduleCalendar> calendars = new HashMap<>();
+        calendars.put(late, busyMorning);
+        calendars.put(early, template.copy());
+
+        List<AvailableSlotDto> slots = finder.findEarliest(calendars, null, 30, ORIGIN, 3);
+
+        assertEquals(3, slots.size());
+        assertTrue(slots.stream().allMatch(slot -> slot.getProviderId().equals(early)));
+    }
+
+    @Test
+    void findEarliest_ConcurrentSearchesMatchSequentialResults() throws Exception {
+        int providers = 200;
+        int searches = 400;
+        Random random = new Random(42);
+
+        Map<UUID, ScheduleCalendar> calendars = new HashMap<>();
+        for (int p = 0; p < providers; p++) {
+            ScheduleCalendar calendar = template.copy();
+            for (int day = 0; day < 14; day++) {
+                for (int booking = 0; booking < 14; booking++) {
+                    LocalDateTime start = ORIGIN.plusDays(day).withHour(8)
+                            .plusMinutes(SLOT_MINUTES * random.nextInt(40));
+                    calendar.markBusy(start, start.plusMinutes(30));
+                }
+            }
+            calendars.put(UUID.randomUUID(), calendar);
+        }
+        Map<Integer, List<AvailableSlotDto>> expected = new HashMap<>();
+        for (int durationMinutes = 15; durationMinutes <= 60; durationMinutes += 15) {
+            expected.put(durationMinutes, finder.findEarliest(calendars, null, durationMinutes, ORIGIN, 10));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<AvailableSlotDto>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < searches; i++) {
+                int durationMinutes = 15 + 15 * (i % 4);
+                results.add(executor.submit(() -> finder.findEarliest(calendars, null, durationMinutes, ORIGIN, 10)));
+            }
+            for (int i = 0; i < searches; i++) {
+                List<AvailableSlotDto> slots = results.get(i).get(30, TimeUnit.SECONDS);
+                List<AvailableSlotDto> sequential = expected.get(15 + 15 * (i % 4));
+                assertEquals(10, slots.size());
+                for (int j = 0; j < slots.size(); j++) {
+                    assertEquals(sequential.get(j).getProviderId(), slots.get(j).getProviderId());
+                    assertEquals(sequential.get(j).getStartDateTime(), slots.get(j).getStartDateTime());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.hospital.hms.appointmentscheduling.calendar;
+
+import net.fortuna.ical4j.model.Recur;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecurrenceExpander
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class RecurrenceExpanderTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 1, 5, 9, 0);
+
+    @Test
+    void expand_WeeklyRuleBooksThreeVisitsPerWeek() {
+        Recur<LocalDateTime> recur = RecurrenceExpander.parse("FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=36");
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(recur, MONDAY, MONDAY.minusSeconds(1),
+                MONDAY.plusYears(1));
+
+        assertEquals(36, starts.size());
+        assertEquals(MONDAY, starts.get(0));
+        assertEquals(LocalDateTime.of(2026, 3, 27, 9, 0), starts.get(35));
+        assertTrue(starts.stream().allMatch(start -> start.getDayOfWeek() == DayOfWeek.MONDAY
+                || start.getDayOfWeek() == DayOfWeek.WEDNESDAY || start.getDayOfWeek() == DayOfWeek.FRIDAY));
+    }
+
+    @Test
+    void expand_KeepsWallClockTimeAcrossDaylightSavingChanges() {
+        // Spans the 2026 spring-forward (8 March, 29 March) and fall-back (25 October, 1 November) dates
+        Recur<LocalDateTime> recur = RecurrenceExpander.parse("FREQ=WEEKLY;BYDAY=SU");
+        LocalDateTime sunday = LocalDateTime.of(2026, 3, 1, 2, 30);
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(recur, sunday, sunday.minusSeconds(1),
+                LocalDateTime.of(2026, 11, 8, 23, 59));
+
+        assertTrue(starts.contains(LocalDateTime.of(2026, 3, 8, 2, 30)));
+        assertTrue(starts.contains(LocalDateTime.of(2026, 11, 1, 2, 30)));
+        assertTrue(starts.stream().allMatch(start -> start.toLocalTime().equals(LocalTime.of(2, 30))));
+        assertEquals(37, starts.size());
+    }
+
+    @Test
+    void expand_LastDayOfMonthFollowsMonthLength() {
+        Recur<LocalDateTime> recur = RecurrenceExpander.parse("FREQ=MONTHLY;BYMONTHDAY=-1");
+        LocalDateTime start = LocalDateTime.of(2027, 11, 30, 10, 0);
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(recur, start, start.minusSeconds(1),
+                LocalDateTime.of(2028, 4, 30, 10, 0));
+
+        assertEquals(List.of(
+                LocalDateTime.of(2027, 11, 30, 10, 0),
+                LocalDateTime.of(2027, 12, 31, 10, 0),
+                LocalDateTime.of(2028, 1, 31, 10, 0),
+                LocalDateTime.of(2028, 2, 29, 10, 0),
+                LocalDateTime.of(2028, 3, 31, 10, 0),
+                LocalDateTime.of(2028, 4, 30, 10, 0)), starts);
+    }
+
+    @Test
+    void expand_WindowExcludesItsStartAndIncludesItsEnd() {
+        Recur<LocalDateTime> recur = RecurrenceExpander.parse("FREQ=DAILY");
+
+        List<LocalDateTime> starts = RecurrenceExpander.expand(recur, MONDAY, MONDAY.plusDays(1),
+                MONDAY.plusDays(3));
+
+        assertEquals(List.of(MONDAY.plusDays(2), MONDAY.plusDays(3)), starts);
+        assertTrue(RecurrenceExpander.expand(recur, MONDAY, MONDAY.plusDays(3), MONDAY.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    void expand_ContinuesAfterAnEarlierPass() {
+        Recur<LocalDateTime> recur = RecurrenceExpander.parse("FREQ=WEEKLY;BYDAY=TU,TH;COUNT=24");
+        LocalDateTime tuesday = MONDAY.plusDays(1);
+        List<LocalDateTime> all = RecurrenceExpander.expand(recur, tuesday, tuesday.minusSeconds(1),
+                tuesday.plusYears(1));
+
+        List<LocalDateTime> firstPass = RecurrenceExpander.expand(recur, tuesday, tuesday.minusSeconds(1),
+                all.get(9));
+        List<LocalDateTime> secondPass = RecurrenceExpander.expand(recur, tuesday, all.get(9),
+                tuesday.plusYears(1));
+
+        assertEquals(10, firstPass.size());
+        assertEquals(all.subList(10, 24), secondPass, "COUNT still counts from the series start");
+    }
+
+    @Test
+    void lastOccurrence_BoundedAndUnboundedRules() {
+        assertEquals(MONDAY.plusDays(9), RecurrenceExpander.lastOccurrence(
+                RecurrenceExpander.parse("FREQ=DAILY;COUNT=10"), MONDAY, MONDAY.plusYears(5)));
+        assertEquals(LocalDateTime.of(2026, 1, 26, 9, 0), RecurrenceExpander.lastOccurrence(
+                RecurrenceExpander.parse("FREQ=WEEKLY;UNTIL=20260131T000000"), MONDAY, MONDAY.plusYears(5)));
+        assertNull(RecurrenceExpander.lastOccurrence(
+                RecurrenceExpander.parse("FREQ=WEEKLY;BYDAY=MO"), MONDAY, MONDAY.plusYears(5)));
+    }
+
+    @Test
+    void parse_RejectsMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceExpander.parse("FREQ=FORTNIGHTLY"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceExpander.parse("FREQ=WEEKLY;COUNT=abc"));
+    }
+}
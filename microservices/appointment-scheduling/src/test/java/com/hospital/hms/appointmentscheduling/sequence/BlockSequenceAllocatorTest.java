@@ -0,0 +1,138 @@
+package com.hospital.hms.appointmentscheduling.sequence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BlockSequenceAllocator
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class BlockSequenceAllocatorTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    /**
+     * Stands in for a database sequence with INCREMENT BY {@code stride}; each lease is one round trip
+     */
+    private static final class CountingSequence implements LongSupplier {
+
+        final AtomicLong nextStart;
+        final long stride;
+        final AtomicInteger leases = new AtomicInteger();
+
+        CountingSequence(long firstStart, long stride) {
+            this.nextStart = new AtomicLong(firstStart);
+            this.stride = stride;
+        }
+
+        @Override
+        public long getAsLong() {
+            leases.incrementAndGet();
+            Thread.yield();
+            return nextStart.getAndAdd(stride);
+        }
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveBlockSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BlockSequenceAllocator(() -> 1, 0));
+    }
+
+    @Test
+    void next_LeasesLazilyAndRefillsWhenTheBlockRunsDry() {
+        CountingSequence sequence = new CountingSequence(1, BLOCK_SIZE);
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(sequence, BLOCK_SIZE);
+        assertEquals(0, sequence.leases.get());
+
+        for (long expected = 1; expected <= BLOCK_SIZE; expected++) {
+            assertEquals(expected, allocator.next());
+        }
+        assertEquals(1, sequence.leases.get());
+
+        assertEquals(BLOCK_SIZE + 1, allocator.next());
+        assertEquals(2, sequence.leases.get());
+    }
+
+    @Test
+    void next_JumpsToWhereverTheNextBlockStarts() {
+        // Another instance leased the blocks in between
+        CountingSequence sequence = new CountingSequence(1, 1_000);
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(sequence, BLOCK_SIZE);
+
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            allocator.next();
+        }
+
+        assertEquals(1_001, allocator.next());
+    }
+
+    @Test
+    void reserve_SpansBlocksInAscendingOrder() {
+        CountingSequence sequence = new CountingSequence(1, 100);
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(sequence, BLOCK_SIZE);
+        allocator.next();
+
+        long[] values = allocator.reserve(25);
+
+        assertEquals(25, values.length);
+        assertEquals(2, values[0]);
+        assertEquals(10, values[8]);
+        assertEquals(101, values[9]);
+        assertEquals(201, values[19]);
+        assertEquals(206, values[24]);
+        assertEquals(3, sequence.leases.get());
+        assertEquals(207, allocator.next(), "The rest of the last block stays shared");
+    }
+
+    @Test
+    void next_ConcurrentCallersLeaseEachBlockOnce() throws Exception {
+        int threads = 8;
+        int perThread = 5_000;
+        CountingSequence sequence = new CountingSequence(1, BLOCK_SIZE);
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(sequence, BLOCK_SIZE);
+        ConcurrentHashMap<Long, Boolean> seen = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        if (seen.putIfAbsent(allocator.next(), Boolean.TRUE) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(0, duplicates.get());
+        assertEquals(threads * perThread, seen.size());
+        // Threads racing past the end of a block must not each lease a replacement
+        assertEquals(threads * perThread / BLOCK_SIZE, sequence.leases.get());
+        assertEquals(1L, seen.keySet().stream().mapToLong(Long::longValue).min().orElseThrow());
+        assertEquals((long) threads * perThread, seen.keySet().stream().mapToLong(Long::longValue).max().orElseThrow());
+    }
+}
@@ -0,0 +1,200 @@
+package com.hospital.hms.appointmentscheduling.service;
+
+import com.hospital.hms.appointmentscheduling.dto.AppointmentSeriesCreateRequestDto;
+import com.hospital.hms.appointmentscheduling.dto.AppointmentSeriesResponseDto;
+import com.hospital.hms.appointmentscheduling.entity.Appointment;
+import com.hospital.hms.appointmentscheduling.entity.AppointmentSeries;
+import com.hospital.hms.appointmentscheduling.exception.AppointmentSlotConflictException;
+import com.hospital.hms.appointmentscheduling.mapper.AppointmentMapper;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentRepository;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentSeriesRepository;
+import com.hospital.hms.appointmentscheduling.sequence.AppointmentNumberAllocator;
+import com.hospital.hms.appointmentscheduling.service.impl.AppointmentSeriesServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentSeriesService
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AppointmentSeriesServiceTest {
+
+    private static final LocalDateTime TOMORROW = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS)
+            .withHour(9);
+
+    @Mock
+    private AppointmentSeriesRepository seriesRepository;
+    @Mock
+    private SlotReservationService slotReservationService;
+    @Mock
+    private AppointmentNumberAllocator appointmentNumberAllocator;
+
+    private AppointmentSeriesService seriesService;
+    private final List<LocalDateTime> conflicting = new ArrayList<>();
+    private final AtomicInteger numbers = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        seriesService = new AppointmentSeriesServiceImpl(seriesRepository, mock(AppointmentRepository.class),
+                mock(AppointmentMapper.class), slotReservationService, appointmentNumberAllocator,
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(seriesService, "horizonDays", 28);
+        ReflectionTestUtils.setField(seriesService, "maxOccurrencesPerPass", 500);
+
+        when(seriesRepository.save(any(AppointmentSeries.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(appointmentNumberAllocator.reserveAppointmentNumbers(anyInt())).thenAnswer(invocation -> {
+            List<String> reserved = new ArrayList<>();
+            for (int i = 0; i < invocation.<Integer>getArgument(0); i++) {
+                reserved.add("APT-" + numbers.incrementAndGet());
+            }
+            return reserved;
+        });
+        when(slotReservationService.reserveSeries(anyList(), anyBoolean())).thenAnswer(invocation -> {
+            List<Appointment> occurrences = invocation.getArgument(0);
+            boolean skipConflicts = invocation.getArgument(1);
+            List<Appointment> booked = occurrences.stream()
+                    .filter(occurrence -> !conflicting.contains(occurrence.getAppointmentDateTime()))
+                    .collect(Collectors.toList());
+            if (booked.size() < occurrences.size() && !skipConflicts) {
+                throw new AppointmentSlotConflictException("Provider is already booked");
+            }
+            return booked;
+        });
+    }
+
+    @Test
+    void createSeries_BooksEveryOccurrenceInOneBatch() {
+        AppointmentSeriesResponseDto response = seriesService.createSeries(request("FREQ=DAILY;COUNT=6", false));
+
+        verify(appointmentNumberAllocator, times(1)).reserveAppointmentNumbers(6);
+        List<Appointment> occurrences = reservedOccurrences();
+        assertEquals(6, occurrences.size());
+        assertEquals(TOMORROW, occurrences.get(0).getAppointmentDateTime());
+        assertEquals(TOMORROW.plusDays(5), occurrences.get(5).getAppointmentDateTime());
+        assertEquals(6, occurrences.stream().map(Appointment::getAppointmentNumber).distinct().count());
+        assertEquals(response.getSeriesId(), occurrences.get(0).getSeriesId());
+        assertEquals(6, response.getOccurrencesBooked());
+        assertEquals(TOMORROW.plusDays(5), response.getMaterializedThrough());
+        assertFalse(response.getActive(), "A fully booked series needs no extension");
+    }
+
+    @Test
+    void createSeries_UnboundedRuleStopsAtTheHorizon() {
+        AppointmentSeriesResponseDto response = seriesService.createSeries(request("FREQ=WEEKLY", false));
+
+        List<Appointment> occurrences = reservedOccurrences();
+        assertEquals(4, occurrences.size());
+        assertTrue(occurrences.get(3).getAppointmentDateTime().isBefore(LocalDateTime.now().plusDays(28)));
+        assertTrue(response.getActive());
+        assertTrue(response.getMaterializedThrough().isAfter(occurrences.get(3).getAppointmentDateTime()));
+    }
+
+    @Test
+    void createSeries_SkipsConflictingOccurrencesWhenAllowed() {
+        conflicting.add(TOMORROW.plusDays(2));
+
+        AppointmentSeriesResponseDto response = seriesService.createSeries(request("FREQ=DAILY;COUNT=5", true));
+
+        assertEquals(4, response.getOccurrencesBooked());
+        assertEquals(List.of(TOMORROW.plusDays(2)), response.getSkippedOccurrences());
+        ArgumentCaptor<AppointmentSeries> saved = ArgumentCaptor.forClass(AppointmentSeries.class);
+        verify(seriesRepository).save(saved.capture());
+        assertEquals(1, saved.getValue().getOccurrencesSkipped());
+    }
+
+    @Test
+    void createSeries_ConflictRejectsTheWholeSeries() {
+        conflicting.add(TOMORROW.plusDays(2));
+
+        assertThrows(AppointmentSlotConflictException.class,
+                () -> seriesService.createSeries(request("FREQ=DAILY;COUNT=5", false)));
+        verify(seriesRepository, never()).save(any());
+    }
+
+    @Test
+    void createSeries_RejectsInvalidRule() {
+        assertThrows(IllegalArgumentException.class,
+                () -> seriesService.createSeries(request("FREQ=SOMETIMES", false)));
+        verifyNoInteractions(slotReservationService, appointmentNumberAllocator);
+    }
+
+    @Test
+    void createSeries_CapsOccurrencesPerPass() {
+        ReflectionTestUtils.setField(seriesService, "maxOccurrencesPerPass", 3);
+
+        AppointmentSeriesResponseDto response = seriesService.createSeries(request("FREQ=DAILY;COUNT=10", false));
+
+        assertEquals(3, response.getOccurrencesBooked());
+        assertEquals(TOMORROW.plusDays(2), response.getMaterializedThrough());
+        assertTrue(response.getActive());
+    }
+
+    @Test
+    void extendSeriesHorizons_ContinuesWhereTheLastPassStopped() {
+        ReflectionTestUtils.setField(seriesService, "maxOccurrencesPerPass", 3);
+        seriesService.createSeries(request("FREQ=DAILY;COUNT=5", false));
+        ArgumentCaptor<AppointmentSeries> saved = ArgumentCaptor.forClass(AppointmentSeries.class);
+        verify(seriesRepository).save(saved.capture());
+        AppointmentSeries series = saved.getValue();
+        when(seriesRepository.findSeriesDueForMaterialization(any())).thenReturn(List.of(series.getId()));
+        when(seriesRepository.findById(series.getId())).thenReturn(Optional.of(series));
+        clearInvocations(slotReservationService);
+
+        assertEquals(1, seriesService.extendSeriesHorizons());
+
+        List<Appointment> extension = reservedOccurrences();
+        assertEquals(List.of(TOMORROW.plusDays(3), TOMORROW.plusDays(4)),
+                extension.stream().map(Appointment::getAppointmentDateTime).collect(Collectors.toList()));
+        assertEquals(5, series.getOccurrencesBooked());
+        assertFalse(series.getActive());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Appointment> reservedOccurrences() {
+        ArgumentCaptor<List<Appointment>> captor = ArgumentCaptor.forClass(List.class);
+        verify(slotReservationService).reserveSeries(captor.capture(), anyBoolean());
+        return captor.getValue();
+    }
+
+    private static AppointmentSeriesCreateRequestDto request(String rule, boolean skipConflicts) {
+        AppointmentSeriesCreateRequestDto request = new AppointmentSeriesCreateRequestDto();
+        request.setPatientId(UUID.randomUUID());
+        request.setPatientName("Test Patient");
+        request.setProviderId(UUID.randomUUID());
+        request.setProviderName("Dr. Test");
+        request.setAppointmentType("follow_up");
+        request.setDurationMinutes(30);
+        request.setSeriesStart(TOMORROW);
+        request.setRecurrenceRule(rule);
+        request.setSkipConflicts(skipConflicts);
+        return request;
+    }
+}
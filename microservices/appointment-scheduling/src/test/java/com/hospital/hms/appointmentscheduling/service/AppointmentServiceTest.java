@@ -0,0 +1,207 @@
+package com.hospital.hms.appointmentscheduling.service;
+
+import com.hospital.hms.appointmentscheduling.dto.AvailableSlotDto;
+import com.hospital.hms.appointmentscheduling.dto.SlotSearchRequestDto;
+import com.hospital.hms.appointmentscheduling.entity.Appointment;
+import com.hospital.hms.appointmentscheduling.entity.AppointmentStatus;
+import com.hospital.hms.appointmentscheduling.event.AppointmentEventPublisher;
+import com.hospital.hms.appointmentscheduling.event.AppointmentStatusChangedEvent;
+import com.hospital.hms.appointmentscheduling.mapper.AppointmentMapper;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentRepository;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentResourceRepository;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentStatusHistoryRepository;
+import com.hospital.hms.appointmentscheduling.sequence.AppointmentNumberAllocator;
+import com.hospital.hms.appointmentscheduling.service.impl.AppointmentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentService status transitions and slot search
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AppointmentServiceTest {
+
+    private static final UUID APPOINTMENT_ID = UUID.fromString("00000000-0000-0000-0000-0000000000c1");
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-0000000000d1");
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 9, 0);
+    private static final UUID LOCATION_ID = UUID.fromString("00000000-0000-0000-0000-0000000000e1");
+    private static final UUID PROVIDER_AT_LOCATION = UUID.fromString("00000000-0000-0000-0000-0000000000f1");
+    private static final UUID PROVIDER_ELSEWHERE = UUID.fromString("00000000-0000-0000-0000-0000000000f2");
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+    @Mock
+    private AppointmentStatusHistoryRepository statusHistoryRepository;
+    @Mock
+    private AppointmentEventPublisher appointmentEventPublisher;
+
+    private AppointmentService appointmentService;
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        appointmentService = new AppointmentServiceImpl(appointmentRepository, mock(AppointmentMapper.class),
+                mock(AppointmentResourceRepository.class), mock(SlotReservationService.class),
+                mock(AppointmentNumberAllocator.class), statusHistoryRepository, appointmentEventPublisher);
+        ReflectionTestUtils.setField(appointmentService, "slotIntervalMinutes", 15);
+        ReflectionTestUtils.setField(appointmentService, "advanceBookingDays", 90);
+        ReflectionTestUtils.setField(appointmentService, "workingDayStart", "08:00");
+        ReflectionTestUtils.setField(appointmentService, "workingDayEnd", "18:00");
+        ReflectionTestUtils.setField(appointmentService, "candidateLookbackDays", 180);
+
+        appointment = new Appointment();
+        appointment.setId(APPOINTMENT_ID);
+        appointment.setAppointmentDateTime(START);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setVersion(3L);
+        when(appointmentRepository.findById(APPOINTMENT_ID)).thenReturn(Optional.of(appointment));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void updateAppointmentStatus_RecordsTheActingUser() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                USER_ID.toString(), null, List.of(new SimpleGrantedAuthority("ROLE_SCHEDULER"))));
+        when(appointmentRepository.transitionStatus(any(), any(), any(), any(), any(), anyString())).thenReturn(1);
+
+        appointmentService.updateAppointmentStatus(APPOINTMENT_ID, AppointmentStatus.CONFIRMED);
+
+        verify(appointmentRepository).transitionStatus(eq(APPOINTMENT_ID), eq(START), eq(AppointmentStatus.SCHEDULED),
+                eq(AppointmentStatus.CONFIRMED), any(), eq(USER_ID.toString()));
+        verify(statusHistoryRepository).appendTransition(any(), eq(APPOINTMENT_ID), eq("CONFIRMED"), eq("SCHEDULED"),
+                any(), eq(USER_ID), eq(USER_ID.toString()), isNull());
+        ArgumentCaptor<AppointmentStatusChangedEvent> event =
+                ArgumentCaptor.forClass(AppointmentStatusChangedEvent.class);
+        verify(appointmentEventPublisher).publishStatusChanged(event.capture());
+        assertEquals(USER_ID.toString(), event.getValue().getChangedBy());
+        assertEquals(USER_ID.toString(), appointment.getLastModifiedBy());
+        assertEquals(4L, appointment.getVersion());
+    }
+
+    @Test
+    void cancelAppointment_RecordsSystemUserWithoutAuthentication() {
+        when(appointmentRepository.markCancelled(any(), any(), any(), any(), any(), any(), anyString())).thenReturn(1);
+
+        appointmentService.cancelAppointment(APPOINTMENT_ID, "Patient request");
+
+        verify(appointmentRepository).markCancelled(eq(APPOINTMENT_ID), eq(START), eq(AppointmentStatus.SCHEDULED),
+                eq(AppointmentStatus.CANCELLED), eq("Patient request"), any(), eq("system"));
+        verify(statusHistoryRepository).appendTransition(any(), eq(APPOINTMENT_ID), eq("CANCELLED"), eq("SCHEDULED"),
+                any(), eq(new UUID(0L, 0L)), eq("system"), eq("Patient request"));
+    }
+
+    @Test
+    void updateAppointmentStatus_LosingTheCompareAndSetRecordsNothing() {
+        // Another request moved the appointment on between the read and the update
+        when(appointmentRepository.transitionStatus(any(), any(), any(), any(), any(), anyString())).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> appointmentService.updateAppointmentStatus(APPOINTMENT_ID, AppointmentStatus.CONFIRMED));
+
+        verifyNoInteractions(statusHistoryRepository, appointmentEventPublisher);
+        assertEquals(AppointmentStatus.SCHEDULED, appointment.getStatus());
+        assertEquals(3L, appointment.getVersion());
+    }
+
+    @Test
+    void checkInAppointment_LosingTheCompareAndSetRecordsNothing() {
+        when(appointmentRepository.markCheckedIn(any(), any(), any(), any(), any(), anyString())).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> appointmentService.checkInAppointment(APPOINTMENT_ID));
+
+        verifyNoInteractions(statusHistoryRepository, appointmentEventPublisher);
+    }
+
+    @Test
+    void updateAppointmentStatus_RejectsInvalidTransitionBeforeUpdating() {
+        assertThrows(IllegalStateException.class,
+                () -> appointmentService.updateAppointmentStatus(APPOINTMENT_ID, AppointmentStatus.COMPLETED));
+
+        verify(appointmentRepository, never()).transitionStatus(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void findAvailableSlots_NarrowsRequestedProvidersToTheLocation() {
+        when(appointmentRepository.findProvidersAtLocation(anyCollection(), eq(LOCATION_ID), any()))
+                .thenReturn(List.<Object[]>of(new Object[] {PROVIDER_AT_LOCATION, "Dr. Grey"}));
+
+        List<AvailableSlotDto> slots = appointmentService.findAvailableSlots(
+                slotSearch(List.of(PROVIDER_AT_LOCATION, PROVIDER_ELSEWHERE), LOCATION_ID));
+
+        assertFalse(slots.isEmpty());
+        assertTrue(slots.stream().allMatch(slot -> PROVIDER_AT_LOCATION.equals(slot.getProviderId())));
+        assertEquals("Dr. Grey", slots.get(0).getProviderName());
+        assertEquals(LOCATION_ID, slots.get(0).getLocationId());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> searched = ArgumentCaptor.forClass(Collection.class);
+        verify(appointmentRepository).findProviderBookingWindows(searched.capture(), any(), any());
+        assertEquals(List.of(PROVIDER_AT_LOCATION), List.copyOf(searched.getValue()));
+    }
+
+    @Test
+    void findAvailableSlots_FindsNothingWhenNoRequestedProviderWorksAtTheLocation() {
+        when(appointmentRepository.findProvidersAtLocation(anyCollection(), eq(LOCATION_ID), any()))
+                .thenReturn(List.of());
+
+        assertTrue(appointmentService.findAvailableSlots(slotSearch(List.of(PROVIDER_ELSEWHERE), LOCATION_ID))
+                .isEmpty());
+        verify(appointmentRepository, never()).findProviderBookingWindows(any(), any(), any());
+    }
+
+    @Test
+    void findAvailableSlots_BoundsCandidateProviderLookupByDate() {
+        LocalDateTime before = LocalDateTime.now().minusDays(180);
+
+        appointmentService.findAvailableSlots(slotSearch(List.of(), LOCATION_ID));
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(appointmentRepository).findCandidateProviders(isNull(), eq(LOCATION_ID), since.capture());
+        assertFalse(since.getValue().isBefore(before));
+        assertTrue(since.getValue().isBefore(LocalDateTime.now().minusDays(179)));
+    }
+
+    private static SlotSearchRequestDto slotSearch(List<UUID> providerIds, UUID locationId) {
+        SlotSearchRequestDto search = new SlotSearchRequestDto();
+        search.setProviderIds(providerIds);
+        search.setLocationId(locationId);
+        search.setDurationMinutes(30);
+        search.setSearchStart(LocalDateTime.now().plusDays(1));
+        search.setSearchEnd(LocalDateTime.now().plusDays(8));
+        search.setMaxResults(3);
+        return search;
+    }
+}
@@ -0,0 +1,198 @@
+package com.hospital.hms.appointmentscheduling.service;
+
+import com.hospital.hms.appointmentscheduling.entity.Appointment;
+import com.hospital.hms.appointmentscheduling.entity.AppointmentStatus;
+import com.hospital.hms.appointmentscheduling.entity.AppointmentType;
+import com.hospital.hms.appointmentscheduling.exception.AppointmentSlotConflictException;
+import com.hospital.hms.appointmentscheduling.repository.AppointmentRepository;
+import com.hospital.hms.appointmentscheduling.service.impl.SlotReservationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SlotReservationService
+ *
+ * The repository is backed by an in-memory store without any locking of its
+ * own, so every double booking it would allow must be prevented by the
+ * provider stripes.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SlotReservationServiceTest {
+
+    private static final int PROVIDERS = 50;
+    private static final int BOOKERS = 1000;
+    private static final int SLOTS_PER_PROVIDER = 16;
+    private static final LocalDateTime DAY_START = LocalDateTime.now().plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private SlotReservationService slotReservationService;
+
+    private final Map<UUID, List<Appointment>> bookingsByProvider = new ConcurrentHashMap<>();
+    private final Map<String, Appointment> bookingsByRequestKey = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        slotReservationService = new SlotReservationServiceImpl(appointmentRepository, 64, 5000);
+
+        when(appointmentRepository.countOverlappingProviderAppointments(any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    UUID providerId = invocation.getArgument(0);
+                    UUID appointmentId = invocation.getArgument(1);
+                    LocalDateTime start = invocation.getArgument(2);
+                    LocalDateTime end = invocation.getArgument(3);
+                    // Widen the race window the way a real round-trip would
+                    Thread.yield();
+                    return bookingsByProvider.getOrDefault(providerId, List.of()).stream()
+                            .filter(a -> !a.getId().equals(appointmentId))
+                            .filter(a -> a.getAppointmentDateTime().isBefore(end) && a.getEndDateTime().isAfter(start))
+                            .count();
+                });
+
+        when(appointmentRepository.saveAndFlush(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            bookingsByProvider.computeIfAbsent(appointment.getProviderId(), id -> new CopyOnWriteArrayList<>())
+                    .add(appointment);
+            if (appointment.getRequestKey() != null) {
+                bookingsByRequestKey.put(appointment.getRequestKey(), appointment);
+            }
+            return appointment;
+        });
+
+        when(appointmentRepository.findByRequestKey(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(bookingsByRequestKey.get(invocation.<String>getArgument(0))));
+    }
+
+    @Test
+    void reserveSlot_FreeWindow_Persists() {
+        Appointment appointment = newAppointment(UUID.randomUUID(), DAY_START, null);
+
+        Appointment result = slotReservationService.reserveSlot(appointment);
+
+        assertSame(appointment, result);
+        verify(appointmentRepository).saveAndFlush(appointment);
+    }
+
+    @Test
+    void reserveSlot_OverlappingWindow_ThrowsConflict() {
+        UUID providerId = UUID.randomUUID();
+        slotReservationService.reserveSlot(newAppointment(providerId, DAY_START, null));
+
+        Appointment overlapping = newAppointment(providerId, DAY_START.plusMinutes(15), null);
+
+        assertThrows(AppointmentSlotConflictException.class, () -> slotReservationService.reserveSlot(overlapping));
+        verify(appointmentRepository, times(1)).saveAndFlush(any(Appointment.class));
+    }
+
+    @Test
+    void reserveSlot_ReplayedRequestKey_ReturnsOriginalBooking() {
+        UUID providerId = UUID.randomUUID();
+        Appointment original = slotReservationService.reserveSlot(newAppointment(providerId, DAY_START, "kiosk-42"));
+
+        Appointment replay = slotReservationService.reserveSlot(newAppointment(providerId, DAY_START, "kiosk-42"));
+
+        assertSame(original, replay);
+        verify(appointmentRepository, times(1)).saveAndFlush(any(Appointment.class));
+    }
+
+    @Test
+    void moveSlot_OwnWindowIgnored() {
+        UUID providerId = UUID.randomUUID();
+        Appointment appointment = slotReservationService.reserveSlot(newAppointment(providerId, DAY_START, null));
+
+        Appointment moved = slotReservationService.moveSlot(appointment, DAY_START.plusMinutes(15));
+
+        assertEquals(DAY_START.plusMinutes(15), moved.getAppointmentDateTime());
+        assertEquals(DAY_START.plusMinutes(45), moved.getEndDateTime());
+    }
+
+    @Test
+    void reserveSlot_ConcurrentBookers_NeverDoubleBook() throws InterruptedException {
+        List<UUID> providers = new ArrayList<>();
+        for (int i = 0; i < PROVIDERS; i++) {
+            providers.add(UUID.randomUUID());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(BOOKERS);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        for (int i = 0; i < BOOKERS; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    UUID providerId = providers.get(random.nextInt(PROVIDERS));
+                    LocalDateTime slot = DAY_START.plusMinutes(30L * random.nextInt(SLOTS_PER_PROVIDER));
+                    slotReservationService.reserveSlot(newAppointment(providerId, slot, null));
+                    booked.incrementAndGet();
+                } catch (AppointmentSlotConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(BOOKERS, booked.get() + conflicts.get());
+        assertEquals(booked.get(), bookingsByProvider.values().stream().mapToInt(List::size).sum());
+        assertTrue(booked.get() <= PROVIDERS * SLOTS_PER_PROVIDER);
+        for (List<Appointment> bookings : bookingsByProvider.values()) {
+            for (int i = 0; i < bookings.size(); i++) {
+                for (int j = i + 1; j < bookings.size(); j++) {
+                    Appointment a = bookings.get(i);
+                    Appointment b = bookings.get(j);
+                    assertFalse(a.getAppointmentDateTime().isBefore(b.getEndDateTime())
+                            && a.getEndDateTime().isAfter(b.getAppointmentDateTime()),
+                            "Double booking detected: " + a + " / " + b);
+                }
+            }
+        }
+    }
+
+    private Appointment newAppointment(UUID providerId, LocalDateTime dateTime, String requestKey) {
+        Appointment appointment = new Appointment(UUID.randomUUID(), "Test Patient", providerId, "Dr. Test",
+                dateTime, 30, AppointmentType.CONSULTATION);
+        appointment.setStatus(AppointmentStatus.SCHEDULED);
+        appointment.setRequestKey(requestKey);
+        return appointment;
+    }
+}
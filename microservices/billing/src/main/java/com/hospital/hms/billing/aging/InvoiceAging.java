@@ -0,0 +1,65 @@
+package com.hospital.hms.billing.aging;
+
+import com.hospital.hms.billing.entity.AgingDimension;
+import com.hospital.hms.billing.entity.Invoice;
+import com.hospital.hms.billing.entity.InvoiceStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Current receivable of one invoice, as handed to the aging service after
+ * the invoice changes. A zero balance means the invoice no longer ages.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class InvoiceAging {
+
+    private final UUID invoiceId;
+    private final String invoiceNumber;
+    private final UUID patientId;
+    private final UUID providerId;
+    private final UUID payerId;
+    private final LocalDate agingDate;
+    private final BigDecimal balance;
+
+    public InvoiceAging(UUID invoiceId, String invoiceNumber, UUID patientId, UUID providerId, UUID payerId,
+                        LocalDate agingDate, BigDecimal balance) {
+        this.invoiceId = invoiceId;
+        this.invoiceNumber = invoiceNumber;
+        this.patientId = patientId;
+        this.providerId = providerId;
+        this.payerId = payerId != null ? payerId : AgingDimension.SELF_PAY_ID;
+        this.agingDate = agingDate;
+        this.balance = balance != null && balance.signum() > 0 ? balance : BigDecimal.ZERO;
+    }
+
+    public static InvoiceAging of(Invoice invoice) {
+        return new InvoiceAging(invoice.getId(), invoice.getInvoiceNumber(), invoice.getPatientId(),
+                invoice.getProviderId(), invoice.getPrimaryInsuranceId(), invoice.getInvoiceDate(),
+                isReceivable(invoice.getStatus()) ? invoice.getBalanceDue() : BigDecimal.ZERO);
+    }
+
+    /**
+     * Cancelled and refunded invoices are closed whatever their stored balance
+     */
+    public static boolean isReceivable(InvoiceStatus status) {
+        return status != InvoiceStatus.CANCELLED && status != InvoiceStatus.REFUNDED;
+    }
+
+    public UUID getInvoiceId() { return invoiceId; }
+
+    public String getInvoiceNumber() { return invoiceNumber; }
+
+    public UUID getPatientId() { return patientId; }
+
+    public UUID getProviderId() { return providerId; }
+
+    public UUID getPayerId() { return payerId; }
+
+    public LocalDate getAgingDate() { return agingDate; }
+
+    public BigDecimal getBalance() { return balance; }
+}
@@ -0,0 +1,77 @@
+package com.hospital.hms.billing.chargecapture;
+
+import com.hospital.hms.billing.entity.ChargeMasterItem;
+import com.hospital.hms.billing.entity.InvoiceType;
+import com.hospital.hms.billing.money.Money;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the active charge master, loaded once per capture
+ * run and shared read-only by the worker threads
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class ChargeMaster {
+
+    private final Map<String, Price> prices;
+
+    private ChargeMaster(Map<String, Price> prices) {
+        this.prices = prices;
+    }
+
+    public static ChargeMaster of(Collection<ChargeMasterItem> items) {
+        Map<String, Price> prices = new HashMap<>(items.size() * 2);
+        for (ChargeMasterItem item : items) {
+            prices.put(item.getChargeCode(), new Price(item.getChargeCode(), item.getDescription(),
+                    Money.of(item.getUnitPrice()), item.getCptCode(), item.getRevenueCode(), item.getInvoiceType()));
+        }
+        return new ChargeMaster(prices);
+    }
+
+    /**
+     * Price for a charge code, or null when the code is not in the charge master
+     */
+    public Price lookup(String chargeCode) {
+        return prices.get(chargeCode);
+    }
+
+    public int size() {
+        return prices.size();
+    }
+
+    public static final class Price {
+
+        private final String chargeCode;
+        private final String description;
+        private final Money unitPrice;
+        private final String cptCode;
+        private final String revenueCode;
+        private final InvoiceType invoiceType;
+
+        Price(String chargeCode, String description, Money unitPrice, String cptCode,
+              String revenueCode, InvoiceType invoiceType) {
+            this.chargeCode = chargeCode;
+            this.description = description;
+            this.unitPrice = unitPrice;
+            this.cptCode = cptCode;
+            this.revenueCode = revenueCode;
+            this.invoiceType = invoiceType;
+        }
+
+        public String getChargeCode() { return chargeCode; }
+
+        public String getDescription() { return description; }
+
+        public Money getUnitPrice() { return unitPrice; }
+
+        public String getCptCode() { return cptCode; }
+
+        public String getRevenueCode() { return revenueCode; }
+
+        public InvoiceType getInvoiceType() { return invoiceType; }
+    }
+}
@@ -0,0 +1,92 @@
+package com.hospital.hms.billing.chargecapture;
+
+import com.hospital.hms.billing.entity.InvoiceType;
+import com.hospital.hms.billing.money.Money;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The charges of one patient for one service date, which become one invoice
+ *
+ * Visits are added before procedures, so the rendering provider and patient
+ * name are taken from a visit when the day has one; procedures only carry a
+ * physician name.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class DraftInvoice {
+
+    private final UUID patientId;
+    private final LocalDate serviceDate;
+    private final List<EncounterCharge> charges = new ArrayList<>();
+    private String patientName;
+    private UUID providerId;
+    private String providerName;
+
+    public DraftInvoice(UUID patientId, LocalDate serviceDate) {
+        this.patientId = patientId;
+        this.serviceDate = serviceDate;
+    }
+
+    public void add(EncounterCharge charge) {
+        charges.add(charge);
+        if (patientName == null && charge.getPatientName() != null && !charge.getPatientName().isBlank()) {
+            patientName = charge.getPatientName();
+        }
+        if (providerId == null && charge.getProviderId() != null) {
+            providerId = charge.getProviderId();
+            providerName = charge.getProviderName();
+        }
+    }
+
+    /**
+     * Drop charges whose encounters were billed since the draft was built
+     */
+    public int removeBilled(Set<String> billedSourceKeys) {
+        int before = charges.size();
+        charges.removeIf(charge -> billedSourceKeys.contains(charge.getSourceKey()));
+        return before - charges.size();
+    }
+
+    public Money total() {
+        Money total = Money.ZERO;
+        for (EncounterCharge charge : charges) {
+            total = total.plus(charge.getPrice().getUnitPrice());
+        }
+        return total;
+    }
+
+    /**
+     * Invoice type of the most expensive charge, which decides the payment terms
+     */
+    public InvoiceType invoiceType() {
+        EncounterCharge primary = null;
+        for (EncounterCharge charge : charges) {
+            if (primary == null || charge.getPrice().getUnitPrice().compareTo(primary.getPrice().getUnitPrice()) > 0) {
+                primary = charge;
+            }
+        }
+        return primary != null ? primary.getPrice().getInvoiceType() : InvoiceType.OUTPATIENT;
+    }
+
+    public boolean isEmpty() {
+        return charges.isEmpty();
+    }
+
+    public UUID getPatientId() { return patientId; }
+
+    public LocalDate getServiceDate() { return serviceDate; }
+
+    public List<EncounterCharge> getCharges() { return charges; }
+
+    public String getPatientName() { return patientName; }
+
+    public UUID getProviderId() { return providerId; }
+
+    public String getProviderName() { return providerName; }
+}
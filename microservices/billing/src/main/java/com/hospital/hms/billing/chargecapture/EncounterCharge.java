@@ -0,0 +1,64 @@
+package com.hospital.hms.billing.chargecapture;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One completed, priced encounter waiting to be billed
+ *
+ * The source type and ID identify the encounter in its owning service and
+ * become the line item's idempotency key.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class EncounterCharge {
+
+    public static final String APPOINTMENT = "APPOINTMENT";
+    public static final String PROCEDURE = "PROCEDURE";
+
+    private final String sourceType;
+    private final String sourceId;
+    private final UUID patientId;
+    private final String patientName;
+    private final UUID providerId;
+    private final String providerName;
+    private final LocalDate serviceDate;
+    private final ChargeMaster.Price price;
+
+    public EncounterCharge(String sourceType, String sourceId, UUID patientId, String patientName,
+                           UUID providerId, String providerName, LocalDate serviceDate, ChargeMaster.Price price) {
+        this.sourceType = sourceType;
+        this.sourceId = sourceId;
+        this.patientId = patientId;
+        this.patientName = patientName;
+        this.providerId = providerId;
+        this.providerName = providerName;
+        this.serviceDate = serviceDate;
+        this.price = price;
+    }
+
+    public String getSourceKey() {
+        return sourceKey(sourceType, sourceId);
+    }
+
+    public static String sourceKey(String sourceType, String sourceId) {
+        return sourceType + ':' + sourceId;
+    }
+
+    public String getSourceType() { return sourceType; }
+
+    public String getSourceId() { return sourceId; }
+
+    public UUID getPatientId() { return patientId; }
+
+    public String getPatientName() { return patientName; }
+
+    public UUID getProviderId() { return providerId; }
+
+    public String getProviderName() { return providerName; }
+
+    public LocalDate getServiceDate() { return serviceDate; }
+
+    public ChargeMaster.Price getPrice() { return price; }
+}
@@ -0,0 +1,31 @@
+package com.hospital.hms.billing.client;
+
+import com.hospital.hms.billing.dto.CompletedProcedureDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Feign Client for Procedure Management Service Integration
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@FeignClient(
+    name = "procedure-management-service",
+    url = "${microservices.procedure-management-service.url:http://procedure-management-service:8094}",
+    path = "/procedure-management/api/v1/procedures"
+)
+public interface ProcedureManagementClient {
+
+    @GetMapping("/completed")
+    List<CompletedProcedureDto> getCompletedProcedures(
+            @RequestParam("startTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam("endTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam("page") int page,
+            @RequestParam("size") int size);
+}
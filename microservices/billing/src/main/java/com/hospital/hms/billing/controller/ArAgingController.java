@@ -0,0 +1,82 @@
+package com.hospital.hms.billing.controller;
+
+import com.hospital.hms.billing.dto.AgedInvoiceDto;
+import com.hospital.hms.billing.dto.AgingSummaryDto;
+import com.hospital.hms.billing.entity.AgingBucket;
+import com.hospital.hms.billing.entity.AgingDimension;
+import com.hospital.hms.billing.service.ArAgingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller for accounts receivable aging
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/ar-aging")
+@Tag(name = "AR Aging", description = "Accounts Receivable Aging API")
+public class ArAgingController {
+
+    private final ArAgingService arAgingService;
+
+    @Autowired
+    public ArAgingController(ArAgingService arAgingService) {
+        this.arAgingService = arAgingService;
+    }
+
+    @Operation(summary = "Get facility-wide aging buckets")
+    @ApiResponse(responseCode = "200", description = "Aging retrieved")
+    @GetMapping("/summary")
+    public ResponseEntity<AgingSummaryDto> getFacilityAging() {
+        return ResponseEntity.ok(arAgingService.getFacilityAging());
+    }
+
+    @Operation(summary = "Get aging buckets of a payer")
+    @ApiResponse(responseCode = "200", description = "Aging retrieved")
+    @GetMapping("/payers/{payerId}")
+    public ResponseEntity<AgingSummaryDto> getPayerAging(@Parameter(description = "Payer ID") @PathVariable UUID payerId) {
+        return ResponseEntity.ok(arAgingService.getAging(AgingDimension.PAYER, payerId));
+    }
+
+    @Operation(summary = "Get aging buckets of self-pay balances")
+    @ApiResponse(responseCode = "200", description = "Aging retrieved")
+    @GetMapping("/payers/self-pay")
+    public ResponseEntity<AgingSummaryDto> getSelfPayAging() {
+        return ResponseEntity.ok(arAgingService.getAging(AgingDimension.PAYER, AgingDimension.SELF_PAY_ID));
+    }
+
+    @Operation(summary = "Get aging buckets of a provider")
+    @ApiResponse(responseCode = "200", description = "Aging retrieved")
+    @GetMapping("/providers/{providerId}")
+    public ResponseEntity<AgingSummaryDto> getProviderAging(@Parameter(description = "Provider ID") @PathVariable UUID providerId) {
+        return ResponseEntity.ok(arAgingService.getAging(AgingDimension.PROVIDER, providerId));
+    }
+
+    @Operation(summary = "Get aging buckets of a patient")
+    @ApiResponse(responseCode = "200", description = "Aging retrieved")
+    @GetMapping("/patients/{patientId}")
+    public ResponseEntity<AgingSummaryDto> getPatientAging(@Parameter(description = "Patient ID") @PathVariable UUID patientId) {
+        return ResponseEntity.ok(arAgingService.getAging(AgingDimension.PATIENT, patientId));
+    }
+
+    @Operation(summary = "Get the collection worklist, oldest and largest balances first")
+    @ApiResponse(responseCode = "200", description = "Worklist retrieved")
+    @GetMapping("/worklist")
+    public ResponseEntity<List<AgedInvoiceDto>> getWorklist(
+            @Parameter(description = "Youngest bucket to include") @RequestParam(defaultValue = "DAYS_61_90") AgingBucket minimumBucket,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(arAgingService.getWorklist(minimumBucket, PageRequest.of(page, size)));
+    }
+}
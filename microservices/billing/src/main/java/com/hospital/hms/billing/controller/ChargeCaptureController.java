@@ -0,0 +1,42 @@
+package com.hospital.hms.billing.controller;
+
+import com.hospital.hms.billing.dto.ChargeCaptureResultDto;
+import com.hospital.hms.billing.service.ChargeCaptureService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * REST Controller for charge capture runs
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/charge-capture")
+@Tag(name = "Charge Capture", description = "Invoice Generation from Completed Encounters API")
+public class ChargeCaptureController {
+
+    private final ChargeCaptureService chargeCaptureService;
+
+    @Autowired
+    public ChargeCaptureController(ChargeCaptureService chargeCaptureService) {
+        this.chargeCaptureService = chargeCaptureService;
+    }
+
+    @Operation(summary = "Generate invoices for visits and procedures completed in a period")
+    @ApiResponse(responseCode = "200", description = "Charges captured")
+    @PostMapping("/runs")
+    public ResponseEntity<ChargeCaptureResultDto> captureCharges(
+            @Parameter(description = "First service date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last service date") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(chargeCaptureService.captureCharges(from, to));
+    }
+}
@@ -1,9 +1,13 @@
 package com.hospital.hms.billing.controller;
 
+import com.hospital.hms.billing.dto.AgingSummaryDto;
 import com.hospital.hms.billing.dto.InvoiceCreateRequestDto;
 import com.hospital.hms.billing.dto.InvoiceResponseDto;
+import com.hospital.hms.billing.dto.LedgerEntryDto;
 import com.hospital.hms.billing.entity.InvoiceStatus;
+import com.hospital.hms.billing.service.ArAgingService;
 import com.hospital.hms.billing.service.InvoiceService;
+import com.hospital.hms.billing.service.PatientLedgerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,11 +16,13 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -33,10 +39,15 @@ import java.util.UUID;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final PatientLedgerService patientLedgerService;
+    private final ArAgingService arAgingService;
 
     @Autowired
-    public InvoiceController(InvoiceService invoiceService) {
+    public InvoiceController(InvoiceService invoiceService, PatientLedgerService patientLedgerService,
+                             ArAgingService arAgingService) {
         this.invoiceService = invoiceService;
+        this.patientLedgerService = patientLedgerService;
+        this.arAgingService = arAgingService;
     }
 
     @Operation(summary = "Create a new invoice")
@@ -138,11 +149,25 @@ public class InvoiceController {
     @Operation(summary = "Get patient outstanding balance")
     @ApiResponse(responseCode = "200", description = "Outstanding balance calculated")
     @GetMapping("/patient/{patientId}/balance")
-    public ResponseEntity<Map<String, BigDecimal>> getPatientOutstandingBalance(@Parameter(description = "Patient ID") @PathVariable UUID patientId) {
-        BigDecimal balance = invoiceService.getPatientOutstandingBalance(patientId);
+    public ResponseEntity<Map<String, BigDecimal>> getPatientOutstandingBalance(
+            @Parameter(description = "Patient ID") @PathVariable UUID patientId,
+            @Parameter(description = "Balance as of this time; defaults to now")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        BigDecimal balance = asOf != null
+                ? invoiceService.getPatientBalanceAsOf(patientId, asOf)
+                : invoiceService.getPatientOutstandingBalance(patientId);
         return ResponseEntity.ok(Map.of("outstandingBalance", balance));
     }
 
+    @Operation(summary = "Get patient account ledger")
+    @ApiResponse(responseCode = "200", description = "Ledger entries retrieved, newest first")
+    @GetMapping("/patient/{patientId}/ledger")
+    public ResponseEntity<Page<LedgerEntryDto>> getPatientLedger(
+            @Parameter(description = "Patient ID") @PathVariable UUID patientId,
+            Pageable pageable) {
+        return ResponseEntity.ok(patientLedgerService.getLedger(patientId, pageable));
+    }
+
     @Operation(summary = "Get invoice statistics")
     @ApiResponse(responseCode = "200", description = "Statistics retrieved")
     @GetMapping("/statistics")
@@ -179,12 +204,8 @@ public class InvoiceController {
     @Operation(summary = "Get aging report")
     @ApiResponse(responseCode = "200", description = "Aging report generated")
     @GetMapping("/reports/aging")
-    public ResponseEntity<Map<String, Object>> getAgingReport() {
-        // TODO: Implement aging report logic
-        Map<String, Object> report = Map.of(
-            "message", "Aging report endpoint - implementation pending"
-        );
-        return ResponseEntity.ok(report);
+    public ResponseEntity<AgingSummaryDto> getAgingReport() {
+        return ResponseEntity.ok(arAgingService.getFacilityAging());
     }
 
     @Operation(summary = "Send invoice reminder")
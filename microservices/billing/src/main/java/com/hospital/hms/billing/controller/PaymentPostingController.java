@@ -0,0 +1,48 @@
+package com.hospital.hms.billing.controller;
+
+import com.hospital.hms.billing.dto.PaymentPostingResultDto;
+import com.hospital.hms.billing.service.PaymentPostingService;
+import com.hospital.hms.shared.exception.BusinessException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST Controller for bulk payment posting
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/v1/payments")
+@Tag(name = "Payment Posting", description = "Lockbox and ERA Payment Posting API")
+public class PaymentPostingController {
+
+    private final PaymentPostingService paymentPostingService;
+
+    @Autowired
+    public PaymentPostingController(PaymentPostingService paymentPostingService) {
+        this.paymentPostingService = paymentPostingService;
+    }
+
+    @Operation(summary = "Post a lockbox CSV or X12 835 remittance file")
+    @ApiResponse(responseCode = "200", description = "Remittance file posted")
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<PaymentPostingResultDto> postRemittanceFile(
+            @Parameter(description = "Lockbox or 835 file") @RequestParam("file") MultipartFile file) {
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(paymentPostingService.postRemittanceFile(input));
+        } catch (IOException e) {
+            throw new BusinessException("Unable to read remittance file: " + e.getMessage(), "REMITTANCE_FILE_UNREADABLE");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.hospital.hms.billing.dto;
+
+import com.hospital.hms.billing.entity.AgingBucket;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * DTO for an open invoice on the collection worklist
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Open invoice with its aging bucket")
+public class AgedInvoiceDto {
+
+    @Schema(description = "Invoice ID")
+    private UUID invoiceId;
+
+    @Schema(description = "Invoice number")
+    private String invoiceNumber;
+
+    @Schema(description = "Patient ID")
+    private UUID patientId;
+
+    @Schema(description = "Provider ID")
+    private UUID providerId;
+
+    @Schema(description = "Primary payer ID; the nil UUID for self-pay")
+    private UUID payerId;
+
+    @Schema(description = "Date the invoice started aging")
+    private LocalDate agingDate;
+
+    @Schema(description = "Days outstanding", example = "74")
+    private long daysOutstanding;
+
+    @Schema(description = "Aging bucket", example = "DAYS_61_90")
+    private AgingBucket bucket;
+
+    @Schema(description = "Open balance")
+    private BigDecimal balance;
+
+    // Getters and Setters
+    public UUID getInvoiceId() { return invoiceId; }
+    public void setInvoiceId(UUID invoiceId) { this.invoiceId = invoiceId; }
+
+    public String getInvoiceNumber() { return invoiceNumber; }
+    public void setInvoiceNumber(String invoiceNumber) { this.invoiceNumber = invoiceNumber; }
+
+    public UUID getPatientId() { return patientId; }
+    public void setPatientId(UUID patientId) { this.patientId = patientId; }
+
+    public UUID getProviderId() { return providerId; }
+    public void setProviderId(UUID providerId) { this.providerId = providerId; }
+
+    public UUID getPayerId() { return payerId; }
+    public void setPayerId(UUID payerId) { this.payerId = payerId; }
+
+    public LocalDate getAgingDate() { return agingDate; }
+    public void setAgingDate(LocalDate agingDate) { this.agingDate = agingDate; }
+
+    public long getDaysOutstanding() { return daysOutstanding; }
+    public void setDaysOutstanding(long daysOutstanding) { this.daysOutstanding = daysOutstanding; }
+
+    public AgingBucket getBucket() { return bucket; }
+    public void setBucket(AgingBucket bucket) { this.bucket = bucket; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
@@ -0,0 +1,77 @@
+package com.hospital.hms.billing.dto;
+
+import com.hospital.hms.billing.entity.AgingBucket;
+import com.hospital.hms.billing.entity.AgingDimension;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DTO with the accounts receivable aging of a payer, provider, patient or
+ * the whole facility
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Accounts receivable aging buckets")
+public class AgingSummaryDto {
+
+    @Schema(description = "Dimension", example = "PAYER")
+    private AgingDimension dimension;
+
+    @Schema(description = "Payer, provider or patient ID")
+    private UUID dimensionId;
+
+    @Schema(description = "Open balance per bucket")
+    private Map<AgingBucket, BigDecimal> balances = new EnumMap<>(AgingBucket.class);
+
+    @Schema(description = "Open invoices per bucket")
+    private Map<AgingBucket, Long> invoiceCounts = new EnumMap<>(AgingBucket.class);
+
+    @Schema(description = "Total open balance")
+    private BigDecimal totalBalance = BigDecimal.ZERO;
+
+    @Schema(description = "Total open invoices")
+    private long totalInvoices;
+
+    // Constructors
+    public AgingSummaryDto() {}
+
+    public AgingSummaryDto(AgingDimension dimension, UUID dimensionId) {
+        this.dimension = dimension;
+        this.dimensionId = dimensionId;
+        for (AgingBucket bucket : AgingBucket.values()) {
+            balances.put(bucket, BigDecimal.ZERO);
+            invoiceCounts.put(bucket, 0L);
+        }
+    }
+
+    public void addBucket(AgingBucket bucket, BigDecimal balance, long invoiceCount) {
+        balances.merge(bucket, balance, BigDecimal::add);
+        invoiceCounts.merge(bucket, invoiceCount, Long::sum);
+        totalBalance = totalBalance.add(balance);
+        totalInvoices += invoiceCount;
+    }
+
+    // Getters and Setters
+    public AgingDimension getDimension() { return dimension; }
+    public void setDimension(AgingDimension dimension) { this.dimension = dimension; }
+
+    public UUID getDimensionId() { return dimensionId; }
+    public void setDimensionId(UUID dimensionId) { this.dimensionId = dimensionId; }
+
+    public Map<AgingBucket, BigDecimal> getBalances() { return balances; }
+    public void setBalances(Map<AgingBucket, BigDecimal> balances) { this.balances = balances; }
+
+    public Map<AgingBucket, Long> getInvoiceCounts() { return invoiceCounts; }
+    public void setInvoiceCounts(Map<AgingBucket, Long> invoiceCounts) { this.invoiceCounts = invoiceCounts; }
+
+    public BigDecimal getTotalBalance() { return totalBalance; }
+    public void setTotalBalance(BigDecimal totalBalance) { this.totalBalance = totalBalance; }
+
+    public long getTotalInvoices() { return totalInvoices; }
+    public void setTotalInvoices(long totalInvoices) { this.totalInvoices = totalInvoices; }
+}
@@ -0,0 +1,110 @@
+package com.hospital.hms.billing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * DTO summarizing a charge capture run
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Result of generating invoices from completed encounters")
+public class ChargeCaptureResultDto {
+
+    @Schema(description = "Run ID")
+    private UUID runId;
+
+    @Schema(description = "Batch number recorded on every generated invoice", example = "CC-20250614-1A2B3C4D")
+    private String batchNumber;
+
+    @Schema(description = "First service date captured")
+    private LocalDate fromDate;
+
+    @Schema(description = "Last service date captured")
+    private LocalDate toDate;
+
+    @Schema(description = "Completed appointments fetched")
+    private int appointmentsFetched;
+
+    @Schema(description = "Completed procedures fetched")
+    private int proceduresFetched;
+
+    @Schema(description = "Encounters skipped because they were already billed")
+    private int alreadyBilled;
+
+    @Schema(description = "Encounters skipped because they could not be priced or attributed")
+    private int unbillable;
+
+    @Schema(description = "Charge codes missing from the charge master")
+    private SortedSet<String> unpricedChargeCodes = new TreeSet<>();
+
+    @Schema(description = "Invoices created")
+    private int invoicesCreated;
+
+    @Schema(description = "Invoices created on billing hold")
+    private int invoicesOnHold;
+
+    @Schema(description = "Line items created")
+    private int lineItemsCreated;
+
+    @Schema(description = "Total amount charged")
+    private BigDecimal totalCharged = BigDecimal.ZERO;
+
+    @Schema(description = "Chunks re-applied after a concurrent change")
+    private int chunksRetried;
+
+    @Schema(description = "Processing time in milliseconds")
+    private long elapsedMillis;
+
+    // Getters and Setters
+    public UUID getRunId() { return runId; }
+    public void setRunId(UUID runId) { this.runId = runId; }
+
+    public String getBatchNumber() { return batchNumber; }
+    public void setBatchNumber(String batchNumber) { this.batchNumber = batchNumber; }
+
+    public LocalDate getFromDate() { return fromDate; }
+    public void setFromDate(LocalDate fromDate) { this.fromDate = fromDate; }
+
+    public LocalDate getToDate() { return toDate; }
+    public void setToDate(LocalDate toDate) { this.toDate = toDate; }
+
+    public int getAppointmentsFetched() { return appointmentsFetched; }
+    public void setAppointmentsFetched(int appointmentsFetched) { this.appointmentsFetched = appointmentsFetched; }
+
+    public int getProceduresFetched() { return proceduresFetched; }
+    public void setProceduresFetched(int proceduresFetched) { this.proceduresFetched = proceduresFetched; }
+
+    public int getAlreadyBilled() { return alreadyBilled; }
+    public void setAlreadyBilled(int alreadyBilled) { this.alreadyBilled = alreadyBilled; }
+
+    public int getUnbillable() { return unbillable; }
+    public void setUnbillable(int unbillable) { this.unbillable = unbillable; }
+
+    public SortedSet<String> getUnpricedChargeCodes() { return unpricedChargeCodes; }
+    public void setUnpricedChargeCodes(SortedSet<String> unpricedChargeCodes) { this.unpricedChargeCodes = unpricedChargeCodes; }
+
+    public int getInvoicesCreated() { return invoicesCreated; }
+    public void setInvoicesCreated(int invoicesCreated) { this.invoicesCreated = invoicesCreated; }
+
+    public int getInvoicesOnHold() { return invoicesOnHold; }
+    public void setInvoicesOnHold(int invoicesOnHold) { this.invoicesOnHold = invoicesOnHold; }
+
+    public int getLineItemsCreated() { return lineItemsCreated; }
+    public void setLineItemsCreated(int lineItemsCreated) { this.lineItemsCreated = lineItemsCreated; }
+
+    public BigDecimal getTotalCharged() { return totalCharged; }
+    public void setTotalCharged(BigDecimal totalCharged) { this.totalCharged = totalCharged; }
+
+    public int getChunksRetried() { return chunksRetried; }
+    public void setChunksRetried(int chunksRetried) { this.chunksRetried = chunksRetried; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
@@ -0,0 +1,55 @@
+package com.hospital.hms.billing.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Completed appointment as returned by the appointment scheduling service;
+ * only the fields charge capture reads
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CompletedAppointmentDto {
+
+    private UUID id;
+    private String appointmentNumber;
+    private UUID patientId;
+    private String patientName;
+    private UUID providerId;
+    private String providerName;
+    private String appointmentType;
+    private LocalDateTime appointmentDateTime;
+    private LocalDateTime completionTime;
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public String getAppointmentNumber() { return appointmentNumber; }
+    public void setAppointmentNumber(String appointmentNumber) { this.appointmentNumber = appointmentNumber; }
+
+    public UUID getPatientId() { return patientId; }
+    public void setPatientId(UUID patientId) { this.patientId = patientId; }
+
+    public String getPatientName() { return patientName; }
+    public void setPatientName(String patientName) { this.patientName = patientName; }
+
+    public UUID getProviderId() { return providerId; }
+    public void setProviderId(UUID providerId) { this.providerId = providerId; }
+
+    public String getProviderName() { return providerName; }
+    public void setProviderName(String providerName) { this.providerName = providerName; }
+
+    public String getAppointmentType() { return appointmentType; }
+    public void setAppointmentType(String appointmentType) { this.appointmentType = appointmentType; }
+
+    public LocalDateTime getAppointmentDateTime() { return appointmentDateTime; }
+    public void setAppointmentDateTime(LocalDateTime appointmentDateTime) { this.appointmentDateTime = appointmentDateTime; }
+
+    public LocalDateTime getCompletionTime() { return completionTime; }
+    public void setCompletionTime(LocalDateTime completionTime) { this.completionTime = completionTime; }
+}
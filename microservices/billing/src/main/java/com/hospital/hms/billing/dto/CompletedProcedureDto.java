@@ -0,0 +1,46 @@
+package com.hospital.hms.billing.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completed procedure as returned by the procedure management service;
+ * only the fields charge capture reads
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CompletedProcedureDto {
+
+    private String procedureId;
+    private String patientId;
+    private String procedureType;
+    private String procedureName;
+    private LocalDateTime actualEndTime;
+    private String primaryPhysician;
+    private String department;
+
+    // Getters and Setters
+    public String getProcedureId() { return procedureId; }
+    public void setProcedureId(String procedureId) { this.procedureId = procedureId; }
+
+    public String getPatientId() { return patientId; }
+    public void setPatientId(String patientId) { this.patientId = patientId; }
+
+    public String getProcedureType() { return procedureType; }
+    public void setProcedureType(String procedureType) { this.procedureType = procedureType; }
+
+    public String getProcedureName() { return procedureName; }
+    public void setProcedureName(String procedureName) { this.procedureName = procedureName; }
+
+    public LocalDateTime getActualEndTime() { return actualEndTime; }
+    public void setActualEndTime(LocalDateTime actualEndTime) { this.actualEndTime = actualEndTime; }
+
+    public String getPrimaryPhysician() { return primaryPhysician; }
+    public void setPrimaryPhysician(String primaryPhysician) { this.primaryPhysician = primaryPhysician; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+}
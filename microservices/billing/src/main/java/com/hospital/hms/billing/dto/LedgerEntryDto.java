@@ -0,0 +1,67 @@
+package com.hospital.hms.billing.dto;
+
+import com.hospital.hms.billing.entity.LedgerEntryType;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO for patient ledger entries
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Patient ledger entry")
+public class LedgerEntryDto {
+
+    @Schema(description = "Entry ID")
+    private UUID id;
+
+    @Schema(description = "Patient ID")
+    private UUID patientId;
+
+    @Schema(description = "Invoice ID")
+    private UUID invoiceId;
+
+    @Schema(description = "Entry type", example = "PAYMENT")
+    private LedgerEntryType entryType;
+
+    @Schema(description = "Signed amount; positive entries increase the balance", example = "-125.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Posting time")
+    private LocalDateTime postedAt;
+
+    @Schema(description = "Invoice number or payment reference")
+    private String reference;
+
+    @Schema(description = "Description")
+    private String description;
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getPatientId() { return patientId; }
+    public void setPatientId(UUID patientId) { this.patientId = patientId; }
+
+    public UUID getInvoiceId() { return invoiceId; }
+    public void setInvoiceId(UUID invoiceId) { this.invoiceId = invoiceId; }
+
+    public LedgerEntryType getEntryType() { return entryType; }
+    public void setEntryType(LedgerEntryType entryType) { this.entryType = entryType; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public LocalDateTime getPostedAt() { return postedAt; }
+    public void setPostedAt(LocalDateTime postedAt) { this.postedAt = postedAt; }
+
+    public String getReference() { return reference; }
+    public void setReference(String reference) { this.reference = reference; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
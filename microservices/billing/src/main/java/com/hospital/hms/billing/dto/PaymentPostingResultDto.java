@@ -0,0 +1,79 @@
+package com.hospital.hms.billing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO summarizing a batch payment posting run
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Result of posting a lockbox or remittance file")
+public class PaymentPostingResultDto {
+
+    @Schema(description = "Posting batch ID recorded on every posted payment")
+    private UUID batchId;
+
+    @Schema(description = "Detected file format", example = "X12_835")
+    private String format;
+
+    @Schema(description = "Payments read from the file")
+    private int totalPayments;
+
+    @Schema(description = "Payments posted")
+    private int postedPayments;
+
+    @Schema(description = "Total amount posted")
+    private BigDecimal postedAmount = BigDecimal.ZERO;
+
+    @Schema(description = "Payments skipped because they were already posted")
+    private int duplicatePayments;
+
+    @Schema(description = "Invoices updated")
+    private int invoicesUpdated;
+
+    @Schema(description = "Invoices re-applied after a concurrent change")
+    private int invoicesRetried;
+
+    @Schema(description = "Processing time in milliseconds")
+    private long elapsedMillis;
+
+    @Schema(description = "Payments that were not posted")
+    private List<RejectedPaymentDto> rejectedPayments = new ArrayList<>();
+
+    // Getters and Setters
+    public UUID getBatchId() { return batchId; }
+    public void setBatchId(UUID batchId) { this.batchId = batchId; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+
+    public int getTotalPayments() { return totalPayments; }
+    public void setTotalPayments(int totalPayments) { this.totalPayments = totalPayments; }
+
+    public int getPostedPayments() { return postedPayments; }
+    public void setPostedPayments(int postedPayments) { this.postedPayments = postedPayments; }
+
+    public BigDecimal getPostedAmount() { return postedAmount; }
+    public void setPostedAmount(BigDecimal postedAmount) { this.postedAmount = postedAmount; }
+
+    public int getDuplicatePayments() { return duplicatePayments; }
+    public void setDuplicatePayments(int duplicatePayments) { this.duplicatePayments = duplicatePayments; }
+
+    public int getInvoicesUpdated() { return invoicesUpdated; }
+    public void setInvoicesUpdated(int invoicesUpdated) { this.invoicesUpdated = invoicesUpdated; }
+
+    public int getInvoicesRetried() { return invoicesRetried; }
+    public void setInvoicesRetried(int invoicesRetried) { this.invoicesRetried = invoicesRetried; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public List<RejectedPaymentDto> getRejectedPayments() { return rejectedPayments; }
+    public void setRejectedPayments(List<RejectedPaymentDto> rejectedPayments) { this.rejectedPayments = rejectedPayments; }
+}
@@ -0,0 +1,50 @@
+package com.hospital.hms.billing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO describing a remittance payment that could not be posted
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Remittance payment that was not posted")
+public class RejectedPaymentDto {
+
+    @Schema(description = "Invoice number the payment referenced")
+    private String invoiceNumber;
+
+    @Schema(description = "Payment amount")
+    private BigDecimal amount;
+
+    @Schema(description = "Check, EFT trace or line reference")
+    private String reference;
+
+    @Schema(description = "Reason the payment was not posted")
+    private String reason;
+
+    // Constructors
+    public RejectedPaymentDto() {}
+
+    public RejectedPaymentDto(String invoiceNumber, BigDecimal amount, String reference, String reason) {
+        this.invoiceNumber = invoiceNumber;
+        this.amount = amount;
+        this.reference = reference;
+        this.reason = reason;
+    }
+
+    // Getters and Setters
+    public String getInvoiceNumber() { return invoiceNumber; }
+    public void setInvoiceNumber(String invoiceNumber) { this.invoiceNumber = invoiceNumber; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public String getReference() { return reference; }
+    public void setReference(String reference) { this.reference = reference; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
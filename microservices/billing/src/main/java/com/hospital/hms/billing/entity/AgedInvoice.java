@@ -0,0 +1,101 @@
+package com.hospital.hms.billing.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Aged Invoice Entity
+ * 
+ * The aging bucket an open invoice's balance currently sits in, and the
+ * dimensions it was counted under. Kept only while the invoice has a
+ * balance; it is what lets a payment or the daily roll move exactly the
+ * right amount between buckets without rereading the invoice.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Immutable
+@Table(name = "ar_aging_invoices", indexes = {
+    @Index(name = "idx_aging_bucket_date", columnList = "bucket, aging_date"),
+    @Index(name = "idx_aging_bucket_balance", columnList = "bucket, balance")
+})
+public class AgedInvoice {
+
+    @Id
+    @Column(name = "invoice_id", updatable = false, nullable = false)
+    private UUID invoiceId;
+
+    @Column(name = "invoice_number", nullable = false, length = 50)
+    private String invoiceNumber;
+
+    @Column(name = "patient_id", nullable = false)
+    private UUID patientId;
+
+    @Column(name = "provider_id", nullable = false)
+    private UUID providerId;
+
+    @Column(name = "payer_id", nullable = false)
+    private UUID payerId;
+
+    @Column(name = "aging_date", nullable = false)
+    private LocalDate agingDate;
+
+    @Column(name = "bucket", nullable = false)
+    @Enumerated(EnumType.ORDINAL)
+    private AgingBucket bucket;
+
+    @Column(name = "balance", precision = 19, scale = 2, nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "last_modified_date", nullable = false)
+    private LocalDateTime lastModifiedDate;
+
+    // Constructors
+    protected AgedInvoice() {
+    }
+
+    // Business Methods
+
+    public long getDaysOutstanding() {
+        return ChronoUnit.DAYS.between(agingDate, LocalDate.now());
+    }
+
+    // Getters
+    public UUID getInvoiceId() { return invoiceId; }
+
+    public String getInvoiceNumber() { return invoiceNumber; }
+
+    public UUID getPatientId() { return patientId; }
+
+    public UUID getProviderId() { return providerId; }
+
+    public UUID getPayerId() { return payerId; }
+
+    public LocalDate getAgingDate() { return agingDate; }
+
+    public AgingBucket getBucket() { return bucket; }
+
+    public BigDecimal getBalance() { return balance; }
+
+    public LocalDateTime getLastModifiedDate() { return lastModifiedDate; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AgedInvoice)) return false;
+        AgedInvoice that = (AgedInvoice) o;
+        return invoiceId != null && invoiceId.equals(that.invoiceId);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -0,0 +1,35 @@
+package com.hospital.hms.billing.entity;
+
+/**
+ * Accounts receivable aging bucket, by days since the invoice date.
+ * Persisted by ordinal, so constants must stay in ascending age order.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public enum AgingBucket {
+    CURRENT(0),
+    DAYS_31_60(31),
+    DAYS_61_90(61),
+    OVER_90(91);
+
+    private final int fromDay;
+
+    AgingBucket(int fromDay) {
+        this.fromDay = fromDay;
+    }
+
+    public int getFromDay() {
+        return fromDay;
+    }
+
+    public static AgingBucket forAge(long daysOutstanding) {
+        AgingBucket[] buckets = values();
+        for (int i = buckets.length - 1; i > 0; i--) {
+            if (daysOutstanding >= buckets[i].fromDay) {
+                return buckets[i];
+            }
+        }
+        return CURRENT;
+    }
+}
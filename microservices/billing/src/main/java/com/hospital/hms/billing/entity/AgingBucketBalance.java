@@ -0,0 +1,91 @@
+package com.hospital.hms.billing.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Aging Bucket Balance Entity
+ * 
+ * Open balance and invoice count of one aging bucket for one payer,
+ * provider, patient or the whole facility. Each bucket is spread over a
+ * few stripes so parallel postings to a busy payer do not queue on a single
+ * row; readers add the stripes up. Rows are only changed by atomic upserts
+ * that add deltas, so JPA treats them as read-only.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Immutable
+@Table(name = "ar_aging_buckets")
+@IdClass(AgingBucketBalance.Key.class)
+public class AgingBucketBalance {
+
+    @Id
+    @Column(name = "dimension", length = 10)
+    @Enumerated(EnumType.STRING)
+    private AgingDimension dimension;
+
+    @Id
+    @Column(name = "dimension_id")
+    private UUID dimensionId;
+
+    @Id
+    @Column(name = "bucket")
+    @Enumerated(EnumType.ORDINAL)
+    private AgingBucket bucket;
+
+    @Id
+    @Column(name = "stripe")
+    private Integer stripe;
+
+    @Column(name = "balance", precision = 19, scale = 2, nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "invoice_count", nullable = false)
+    private Long invoiceCount;
+
+    // Constructors
+    protected AgingBucketBalance() {
+    }
+
+    // Getters
+    public AgingDimension getDimension() { return dimension; }
+
+    public UUID getDimensionId() { return dimensionId; }
+
+    public AgingBucket getBucket() { return bucket; }
+
+    public Integer getStripe() { return stripe; }
+
+    public BigDecimal getBalance() { return balance; }
+
+    public Long getInvoiceCount() { return invoiceCount; }
+
+    public static class Key implements Serializable {
+
+        private AgingDimension dimension;
+        private UUID dimensionId;
+        private AgingBucket bucket;
+        private Integer stripe;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return dimension == that.dimension && Objects.equals(dimensionId, that.dimensionId)
+                    && bucket == that.bucket && Objects.equals(stripe, that.stripe);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, dimensionId, bucket, stripe);
+        }
+    }
+}
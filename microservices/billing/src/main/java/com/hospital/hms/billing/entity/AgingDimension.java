@@ -0,0 +1,20 @@
+package com.hospital.hms.billing.entity;
+
+import java.util.UUID;
+
+/**
+ * Axis along which aging buckets are kept. FACILITY has a single member and
+ * self-pay invoices are kept under the nil payer ID.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public enum AgingDimension {
+    FACILITY,
+    PAYER,
+    PROVIDER,
+    PATIENT;
+
+    public static final UUID FACILITY_ID = new UUID(0L, 0L);
+    public static final UUID SELF_PAY_ID = new UUID(0L, 0L);
+}
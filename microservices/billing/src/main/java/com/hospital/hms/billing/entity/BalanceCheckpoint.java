@@ -0,0 +1,107 @@
+package com.hospital.hms.billing.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Balance Checkpoint Entity
+ * 
+ * Balance of a patient account at the end of a day on which the account had
+ * ledger activity. A point-in-time balance is the latest checkpoint before
+ * the requested instant plus the entries posted since, so as-of lookups
+ * never scan more than a day of ledger.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Immutable
+@IdClass(BalanceCheckpoint.CheckpointId.class)
+@Table(name = "patient_balance_checkpoints")
+public class BalanceCheckpoint {
+
+    @Id
+    @Column(name = "patient_id", updatable = false, nullable = false)
+    private UUID patientId;
+
+    @Id
+    @Column(name = "checkpoint_date", updatable = false, nullable = false)
+    private LocalDate checkpointDate;
+
+    @Column(name = "balance", precision = 19, scale = 2, nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    // Constructors
+    protected BalanceCheckpoint() {
+    }
+
+    // Getters
+    public UUID getPatientId() { return patientId; }
+
+    public LocalDate getCheckpointDate() { return checkpointDate; }
+
+    public BigDecimal getBalance() { return balance; }
+
+    public Long getEntryCount() { return entryCount; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BalanceCheckpoint)) return false;
+        BalanceCheckpoint that = (BalanceCheckpoint) o;
+        return Objects.equals(patientId, that.patientId) && Objects.equals(checkpointDate, that.checkpointDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(patientId, checkpointDate);
+    }
+
+    @Override
+    public String toString() {
+        return "BalanceCheckpoint{" +
+                "patientId=" + patientId +
+                ", checkpointDate=" + checkpointDate +
+                ", balance=" + balance +
+                '}';
+    }
+
+    /**
+     * Composite key of a checkpoint
+     */
+    public static class CheckpointId implements Serializable {
+
+        private UUID patientId;
+        private LocalDate checkpointDate;
+
+        public CheckpointId() {
+        }
+
+        public CheckpointId(UUID patientId, LocalDate checkpointDate) {
+            this.patientId = patientId;
+            this.checkpointDate = checkpointDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CheckpointId)) return false;
+            CheckpointId that = (CheckpointId) o;
+            return Objects.equals(patientId, that.patientId) && Objects.equals(checkpointDate, that.checkpointDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(patientId, checkpointDate);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.hospital.hms.billing.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Charge Master Item Entity
+ * 
+ * Standard price of a billable service. Charge capture prices completed
+ * visits under {@code VISIT-<appointment type>} and completed procedures
+ * under {@code PROC-<procedure type>}.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "charge_master")
+public class ChargeMasterItem {
+
+    @Id
+    @Column(name = "charge_code", length = 50)
+    private String chargeCode;
+
+    @Column(name = "description", nullable = false, length = 255)
+    @NotBlank(message = "Description is required")
+    private String description;
+
+    @Column(name = "unit_price", precision = 19, scale = 2, nullable = false)
+    @NotNull(message = "Unit price is required")
+    @DecimalMin(value = "0.0", message = "Unit price must be non-negative")
+    private BigDecimal unitPrice;
+
+    @Column(name = "cpt_code", length = 10)
+    private String cptCode;
+
+    @Column(name = "revenue_code", length = 10)
+    private String revenueCode;
+
+    @Column(name = "invoice_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private InvoiceType invoiceType;
+
+    @Column(name = "active", nullable = false)
+    private Boolean active = true;
+
+    // Getters and Setters
+    public String getChargeCode() { return chargeCode; }
+    public void setChargeCode(String chargeCode) { this.chargeCode = chargeCode; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+
+    public String getCptCode() { return cptCode; }
+    public void setCptCode(String cptCode) { this.cptCode = cptCode; }
+
+    public String getRevenueCode() { return revenueCode; }
+    public void setRevenueCode(String revenueCode) { this.revenueCode = revenueCode; }
+
+    public InvoiceType getInvoiceType() { return invoiceType; }
+    public void setInvoiceType(InvoiceType invoiceType) { this.invoiceType = invoiceType; }
+
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+}
@@ -570,6 +570,27 @@ public class Invoice {
         return serviceDateTo != null ? serviceDateTo : serviceDateFrom;
     }
 
+    /**
+     * Payment due date for an invoice of the given type issued on the given date
+     */
+    public static LocalDate dueDateFor(InvoiceType invoiceType, LocalDate issuedOn) {
+        // Different payment terms based on invoice type
+        return switch (invoiceType) {
+            case EMERGENCY -> issuedOn.plusDays(15); // Faster payment for emergency services
+            case INPATIENT, SURGERY -> issuedOn.plusDays(45); // Longer payment terms for major services
+            case OUTPATIENT, CONSULTATION -> issuedOn.plusDays(30); // Standard payment terms
+            default -> issuedOn.plusDays(30);
+        };
+    }
+
+    /**
+     * Account number derived from the patient ID and the issue date
+     */
+    public static String accountNumberFor(UUID patientId, LocalDate issuedOn) {
+        String patientIdStr = patientId.toString().replace("-", "").substring(0, 8).toUpperCase();
+        return "ACC-" + patientIdStr + "-" + issuedOn.format(java.time.format.DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -0,0 +1,158 @@
+package com.hospital.hms.billing.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Invoice Line Item Entity
+ * 
+ * One priced charge on an invoice. Lines created by charge capture record
+ * the encounter they bill, and the unique source reference guarantees an
+ * encounter is never charged twice.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "invoice_line_items", indexes = {
+    @Index(name = "idx_line_item_invoice", columnList = "invoice_id"),
+    @Index(name = "idx_line_item_charge_code", columnList = "charge_code")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_line_item_source", columnNames = {"source_type", "source_id"})
+})
+@EntityListeners(AuditingEntityListener.class)
+public class InvoiceLineItem {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "invoice_id", nullable = false)
+    private Invoice invoice;
+
+    @Column(name = "line_number", nullable = false)
+    private Integer lineNumber;
+
+    @Column(name = "service_date", nullable = false)
+    @NotNull(message = "Service date is required")
+    private LocalDate serviceDate;
+
+    @Column(name = "charge_code", nullable = false, length = 50)
+    @NotBlank(message = "Charge code is required")
+    @Size(max = 50, message = "Charge code must not exceed 50 characters")
+    private String chargeCode;
+
+    @Column(name = "description", length = 255)
+    @Size(max = 255, message = "Description must not exceed 255 characters")
+    private String description;
+
+    @Column(name = "cpt_code", length = 10)
+    @Size(max = 10, message = "CPT code must not exceed 10 characters")
+    private String cptCode;
+
+    @Column(name = "revenue_code", length = 10)
+    @Size(max = 10, message = "Revenue code must not exceed 10 characters")
+    private String revenueCode;
+
+    @Column(name = "quantity", nullable = false)
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    @Column(name = "unit_price", precision = 19, scale = 2, nullable = false)
+    @NotNull(message = "Unit price is required")
+    private BigDecimal unitPrice;
+
+    @Column(name = "line_total", precision = 19, scale = 2, nullable = false)
+    @NotNull(message = "Line total is required")
+    private BigDecimal lineTotal;
+
+    @Column(name = "source_type", length = 20)
+    private String sourceType;
+
+    @Column(name = "source_id", length = 64)
+    private String sourceId;
+
+    // Audit fields
+    @CreatedDate
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    // Constructors
+    public InvoiceLineItem() {
+        this.id = UUID.randomUUID();
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Invoice getInvoice() { return invoice; }
+    public void setInvoice(Invoice invoice) { this.invoice = invoice; }
+
+    public Integer getLineNumber() { return lineNumber; }
+    public void setLineNumber(Integer lineNumber) { this.lineNumber = lineNumber; }
+
+    public LocalDate getServiceDate() { return serviceDate; }
+    public void setServiceDate(LocalDate serviceDate) { this.serviceDate = serviceDate; }
+
+    public String getChargeCode() { return chargeCode; }
+    public void setChargeCode(String chargeCode) { this.chargeCode = chargeCode; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getCptCode() { return cptCode; }
+    public void setCptCode(String cptCode) { this.cptCode = cptCode; }
+
+    public String getRevenueCode() { return revenueCode; }
+    public void setRevenueCode(String revenueCode) { this.revenueCode = revenueCode; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public BigDecimal getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+
+    public BigDecimal getLineTotal() { return lineTotal; }
+    public void setLineTotal(BigDecimal lineTotal) { this.lineTotal = lineTotal; }
+
+    public String getSourceType() { return sourceType; }
+    public void setSourceType(String sourceType) { this.sourceType = sourceType; }
+
+    public String getSourceId() { return sourceId; }
+    public void setSourceId(String sourceId) { this.sourceId = sourceId; }
+
+    public LocalDateTime getCreatedDate() { return createdDate; }
+    public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof InvoiceLineItem)) return false;
+        InvoiceLineItem that = (InvoiceLineItem) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "InvoiceLineItem{" +
+                "id=" + id +
+                ", lineNumber=" + lineNumber +
+                ", chargeCode='" + chargeCode + '\'' +
+                ", lineTotal=" + lineTotal +
+                '}';
+    }
+}
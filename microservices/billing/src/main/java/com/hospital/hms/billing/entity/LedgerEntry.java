@@ -0,0 +1,147 @@
+package com.hospital.hms.billing.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ledger Entry Entity
+ * 
+ * One immutable line of a patient account: a charge, payment, adjustment or
+ * refund. Amounts are signed so that positive entries increase what the
+ * patient owes; the balance of an account is the sum of its entries.
+ * Corrections are new entries, never updates.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries", indexes = {
+    @Index(name = "idx_ledger_patient_posted", columnList = "patient_id, posted_at"),
+    @Index(name = "idx_ledger_posted", columnList = "posted_at"),
+    @Index(name = "idx_ledger_invoice", columnList = "invoice_id")
+})
+public class LedgerEntry {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "patient_id", nullable = false)
+    private UUID patientId;
+
+    @Column(name = "invoice_id")
+    private UUID invoiceId;
+
+    @Column(name = "entry_type", nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private LedgerEntryType entryType;
+
+    @Column(name = "amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    @Column(name = "reference", length = 150)
+    private String reference;
+
+    @Column(name = "description", length = 255)
+    private String description;
+
+    // Constructors
+    protected LedgerEntry() {
+    }
+
+    public LedgerEntry(UUID patientId, UUID invoiceId, LedgerEntryType entryType, BigDecimal amount,
+                       LocalDateTime postedAt, String reference, String description) {
+        this.id = UUID.randomUUID();
+        this.patientId = patientId;
+        this.invoiceId = invoiceId;
+        this.entryType = entryType;
+        this.amount = amount;
+        this.postedAt = postedAt;
+        this.reference = reference;
+        this.description = description;
+    }
+
+    // Factory Methods
+
+    /**
+     * Charge for the full amount of a new invoice
+     */
+    public static LedgerEntry charge(Invoice invoice) {
+        return new LedgerEntry(invoice.getPatientId(), invoice.getId(), LedgerEntryType.CHARGE,
+                invoice.getTotalAmount(), LocalDateTime.now(), invoice.getInvoiceNumber(), "Invoice issued");
+    }
+
+    /**
+     * Payment received against an invoice; reduces the balance
+     */
+    public static LedgerEntry payment(UUID patientId, UUID invoiceId, BigDecimal paymentAmount,
+                                      LocalDateTime postedAt, String reference) {
+        return new LedgerEntry(patientId, invoiceId, LedgerEntryType.PAYMENT, paymentAmount.negate(),
+                postedAt, reference, "Payment received");
+    }
+
+    /**
+     * Signed correction to an invoice, for example a re-priced or written-off charge
+     */
+    public static LedgerEntry adjustment(Invoice invoice, BigDecimal delta, String description) {
+        return new LedgerEntry(invoice.getPatientId(), invoice.getId(), LedgerEntryType.ADJUSTMENT,
+                delta, LocalDateTime.now(), invoice.getInvoiceNumber(), description);
+    }
+
+    /**
+     * Money returned to the patient; increases the balance
+     */
+    public static LedgerEntry refund(Invoice invoice, BigDecimal refundAmount) {
+        return new LedgerEntry(invoice.getPatientId(), invoice.getId(), LedgerEntryType.REFUND,
+                refundAmount, LocalDateTime.now(), invoice.getInvoiceNumber(), "Payment refunded");
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+
+    public UUID getPatientId() { return patientId; }
+
+    public UUID getInvoiceId() { return invoiceId; }
+
+    public LedgerEntryType getEntryType() { return entryType; }
+
+    public BigDecimal getAmount() { return amount; }
+
+    public LocalDateTime getPostedAt() { return postedAt; }
+
+    public String getReference() { return reference; }
+
+    public String getDescription() { return description; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LedgerEntry)) return false;
+        LedgerEntry that = (LedgerEntry) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerEntry{" +
+                "id=" + id +
+                ", patientId=" + patientId +
+                ", entryType=" + entryType +
+                ", amount=" + amount +
+                ", postedAt=" + postedAt +
+                '}';
+    }
+}
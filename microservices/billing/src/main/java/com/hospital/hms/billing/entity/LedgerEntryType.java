@@ -0,0 +1,14 @@
+package com.hospital.hms.billing.entity;
+
+/**
+ * Ledger Entry Type enumeration
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public enum LedgerEntryType {
+    CHARGE,
+    PAYMENT,
+    ADJUSTMENT,
+    REFUND
+}
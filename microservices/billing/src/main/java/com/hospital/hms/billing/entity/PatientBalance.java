@@ -0,0 +1,73 @@
+package com.hospital.hms.billing.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Patient Balance Entity
+ * 
+ * Running balance of a patient account, maintained incrementally in the
+ * same transaction as every ledger append. Rows are only ever changed by an
+ * atomic upsert that adds the new entries' amounts, so JPA treats them as
+ * read-only.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Immutable
+@Table(name = "patient_balances")
+public class PatientBalance {
+
+    @Id
+    @Column(name = "patient_id", updatable = false, nullable = false)
+    private UUID patientId;
+
+    @Column(name = "balance", precision = 19, scale = 2, nullable = false)
+    private BigDecimal balance;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    @Column(name = "last_entry_at", nullable = false)
+    private LocalDateTime lastEntryAt;
+
+    // Constructors
+    protected PatientBalance() {
+    }
+
+    // Getters
+    public UUID getPatientId() { return patientId; }
+
+    public BigDecimal getBalance() { return balance; }
+
+    public Long getEntryCount() { return entryCount; }
+
+    public LocalDateTime getLastEntryAt() { return lastEntryAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PatientBalance)) return false;
+        PatientBalance that = (PatientBalance) o;
+        return patientId != null && patientId.equals(that.patientId);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "PatientBalance{" +
+                "patientId=" + patientId +
+                ", balance=" + balance +
+                ", lastEntryAt=" + lastEntryAt +
+                '}';
+    }
+}
@@ -0,0 +1,133 @@
+package com.hospital.hms.billing.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Payment Entity
+ * 
+ * A single payment applied to an invoice, either entered directly or posted
+ * from a lockbox or remittance file. The posting key identifies the payment
+ * within its source file so that re-submitting a file never posts twice.
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payment_invoice", columnList = "invoice_id"),
+    @Index(name = "idx_payment_batch", columnList = "posting_batch_id"),
+    @Index(name = "idx_payment_date", columnList = "payment_date"),
+    @Index(name = "idx_payment_reference", columnList = "reference_number")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class Payment {
+
+    @Id
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "invoice_id", nullable = false)
+    private Invoice invoice;
+
+    @Column(name = "payment_amount", precision = 19, scale = 2, nullable = false)
+    @NotNull(message = "Payment amount is required")
+    @DecimalMin(value = "0.01", message = "Payment amount must be positive")
+    private BigDecimal paymentAmount;
+
+    @Column(name = "payment_date", nullable = false)
+    @NotNull(message = "Payment date is required")
+    private LocalDate paymentDate;
+
+    @Column(name = "payment_method", length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "Payment method is required")
+    private PaymentMethod paymentMethod;
+
+    @Column(name = "reference_number", length = 50)
+    @Size(max = 50, message = "Reference number must not exceed 50 characters")
+    private String referenceNumber;
+
+    @Column(name = "payer_name", length = 200)
+    @Size(max = 200, message = "Payer name must not exceed 200 characters")
+    private String payerName;
+
+    @Column(name = "posting_key", unique = true, length = 150)
+    @Size(max = 150, message = "Posting key must not exceed 150 characters")
+    private String postingKey;
+
+    @Column(name = "posting_batch_id")
+    private UUID postingBatchId;
+
+    // Audit fields
+    @CreatedDate
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+
+    // Constructors
+    public Payment() {
+        this.id = UUID.randomUUID();
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Invoice getInvoice() { return invoice; }
+    public void setInvoice(Invoice invoice) { this.invoice = invoice; }
+
+    public BigDecimal getPaymentAmount() { return paymentAmount; }
+    public void setPaymentAmount(BigDecimal paymentAmount) { this.paymentAmount = paymentAmount; }
+
+    public LocalDate getPaymentDate() { return paymentDate; }
+    public void setPaymentDate(LocalDate paymentDate) { this.paymentDate = paymentDate; }
+
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public String getReferenceNumber() { return referenceNumber; }
+    public void setReferenceNumber(String referenceNumber) { this.referenceNumber = referenceNumber; }
+
+    public String getPayerName() { return payerName; }
+    public void setPayerName(String payerName) { this.payerName = payerName; }
+
+    public String getPostingKey() { return postingKey; }
+    public void setPostingKey(String postingKey) { this.postingKey = postingKey; }
+
+    public UUID getPostingBatchId() { return postingBatchId; }
+    public void setPostingBatchId(UUID postingBatchId) { this.postingBatchId = postingBatchId; }
+
+    public LocalDateTime getCreatedDate() { return createdDate; }
+    public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Payment)) return false;
+        Payment payment = (Payment) o;
+        return id != null && id.equals(payment.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Payment{" +
+                "id=" + id +
+                ", paymentAmount=" + paymentAmount +
+                ", paymentDate=" + paymentDate +
+                ", referenceNumber='" + referenceNumber + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,28 @@
+package com.hospital.hms.billing.mapper;
+
+import com.hospital.hms.billing.dto.AgedInvoiceDto;
+import com.hospital.hms.billing.entity.AgedInvoice;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * MapStruct mapper for AgedInvoice entity and DTOs
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Mapper(
+    componentModel = "spring",
+    unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface AgedInvoiceMapper {
+
+    /**
+     * Convert AgedInvoice entity to AgedInvoiceDto
+     */
+    AgedInvoiceDto toDto(AgedInvoice agedInvoice);
+
+    List<AgedInvoiceDto> toDtoList(List<AgedInvoice> agedInvoices);
+}
@@ -0,0 +1,24 @@
+package com.hospital.hms.billing.mapper;
+
+import com.hospital.hms.billing.dto.LedgerEntryDto;
+import com.hospital.hms.billing.entity.LedgerEntry;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * MapStruct mapper for LedgerEntry entity and DTOs
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Mapper(
+    componentModel = "spring",
+    unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface LedgerEntryMapper {
+
+    /**
+     * Convert LedgerEntry entity to LedgerEntryDto
+     */
+    LedgerEntryDto toDto(LedgerEntry entry);
+}
@@ -0,0 +1,32 @@
+package com.hospital.hms.billing.posting;
+
+import com.hospital.hms.billing.dto.RejectedPaymentDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed content of a lockbox or remittance file: the payments to post and
+ * the entries that could not be read
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class RemittanceFile {
+
+    public enum Format { LOCKBOX, X12_835 }
+
+    private final Format format;
+    private final List<RemittancePayment> payments = new ArrayList<>();
+    private final List<RejectedPaymentDto> unreadable = new ArrayList<>();
+
+    public RemittanceFile(Format format) {
+        this.format = format;
+    }
+
+    public Format getFormat() { return format; }
+
+    public List<RemittancePayment> getPayments() { return payments; }
+
+    public List<RejectedPaymentDto> getUnreadable() { return unreadable; }
+}
@@ -0,0 +1,200 @@
+package com.hospital.hms.billing.posting;
+
+import com.hospital.hms.billing.dto.RejectedPaymentDto;
+import com.hospital.hms.billing.entity.PaymentMethod;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Reads payments from bank lockbox files and X12 835 remittance advice
+ *
+ * The format is detected from the content: files starting with an ISA
+ * segment are treated as 835, anything else as a lockbox CSV with the
+ * columns {@code invoice_number,amount,check_number,payment_date[,payer_name]}.
+ * For 835 files, each CLP (claim payment) segment becomes one payment
+ * against the invoice named in CLP01, the patient control number we send
+ * on the claim. Entries that cannot be read are reported, not thrown.
+ *
+ * Every payment carries a posting key that identifies it by content, so a
+ * file that is sent again, reordered or with lines added, posts nothing
+ * twice. A lockbox payment is keyed by check, invoice, amount and date plus
+ * the count of identical entries before it; an 835 claim payment by the
+ * TRN reassociation trace of its remittance, the invoice, the payer claim
+ * control number (CLP07) and the paid amount, plus the count of identical
+ * claim payments before it. Claims of an 835 without a TRN trace cannot be
+ * keyed and are rejected.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class RemittanceFileParser {
+
+    private static final DateTimeFormatter X12_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int ISA_LENGTH = 106;
+
+    public RemittanceFile parse(InputStream input) throws IOException {
+        PushbackReader reader = new PushbackReader(
+                new InputStreamReader(input, StandardCharsets.UTF_8), ISA_LENGTH);
+        char[] head = new char[3];
+        int read = reader.read(head, 0, head.length);
+        if (read > 0) {
+            reader.unread(head, 0, read);
+        }
+        if (read == 3 && "ISA".equals(new String(head))) {
+            return parseX12(reader);
+        }
+        return parseLockbox(new BufferedReader(reader));
+    }
+
+    private RemittanceFile parseLockbox(BufferedReader reader) throws IOException {
+        RemittanceFile file = new RemittanceFile(RemittanceFile.Format.LOCKBOX);
+        Map<String, Integer> occurrences = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("invoice"))) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            String reference = "line " + lineNumber;
+            if (fields.length < 4) {
+                file.getUnreadable().add(new RejectedPaymentDto(null, null, reference, "Expected at least 4 columns"));
+                continue;
+            }
+            String invoiceNumber = fields[0].trim();
+            String checkNumber = fields[2].trim();
+            try {
+                BigDecimal amount = new BigDecimal(fields[1].trim());
+                LocalDate paymentDate = LocalDate.parse(fields[3].trim());
+                String payerName = fields.length > 4 ? fields[4].trim() : null;
+                // Identical entries are legitimate (two equal installments on one check); the counter tells them apart
+                String content = "LBX:" + checkNumber + ":" + invoiceNumber + ":"
+                        + amount.stripTrailingZeros().toPlainString() + ":" + paymentDate;
+                int occurrence = occurrences.merge(content, 1, Integer::sum);
+                file.getPayments().add(new RemittancePayment(invoiceNumber, amount, paymentDate, PaymentMethod.CHECK,
+                        checkNumber, payerName, content + ":" + occurrence));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                file.getUnreadable().add(new RejectedPaymentDto(invoiceNumber, null, reference,
+                        "Unreadable amount or date"));
+            }
+        }
+        return file;
+    }
+
+    private RemittanceFile parseX12(Reader reader) throws IOException {
+        RemittanceFile file = new RemittanceFile(RemittanceFile.Format.X12_835);
+
+        // Delimiters are fixed by position in the ISA segment
+        char[] isa = new char[ISA_LENGTH];
+        int length = 0;
+        while (length < ISA_LENGTH) {
+            int n = reader.read(isa, length, ISA_LENGTH - length);
+            if (n < 0) {
+                file.getUnreadable().add(new RejectedPaymentDto(null, null, "ISA", "Truncated interchange header"));
+                return file;
+            }
+            length += n;
+        }
+        Pattern elementSeparator = Pattern.compile(Pattern.quote(String.valueOf(isa[3])));
+        char segmentTerminator = isa[ISA_LENGTH - 1];
+
+        LocalDate paymentDate = LocalDate.now();
+        String traceNumber = null;
+        String payerName = null;
+        int claimIndex = 0;
+        Map<String, Integer> occurrences = new HashMap<>();
+
+        StringBuilder segment = new StringBuilder();
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (c != segmentTerminator) {
+                if (c != '\r' && c != '\n') {
+                    segment.append((char) c);
+                }
+                continue;
+            }
+            String[] elements = elementSeparator.split(segment, -1);
+            segment.setLength(0);
+
+            switch (elements[0]) {
+                case "BPR":
+                    if (elements.length > 16 && !elements[16].isEmpty()) {
+                        paymentDate = parseX12Date(elements[16], paymentDate);
+                    }
+                    break;
+                case "TRN":
+                    traceNumber = elements.length > 2 ? elements[2] : null;
+                    claimIndex = 0;
+                    break;
+                case "N1":
+                    if (elements.length > 2 && "PR".equals(elements[1])) {
+                        payerName = elements[2];
+                    }
+                    break;
+                case "CLP":
+                    claimIndex++;
+                    readClaimPayment(file, elements, paymentDate, traceNumber, payerName, claimIndex, occurrences);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return file;
+    }
+
+    private void readClaimPayment(RemittanceFile file, String[] clp, LocalDate paymentDate,
+                                  String traceNumber, String payerName, int claimIndex,
+                                  Map<String, Integer> occurrences) {
+        String invoiceNumber = clp.length > 1 ? clp[1] : null;
+        String reference = traceNumber != null ? traceNumber : "CLP " + claimIndex;
+        if (clp.length < 5) {
+            file.getUnreadable().add(new RejectedPaymentDto(invoiceNumber, null, reference, "Incomplete CLP segment"));
+            return;
+        }
+        if (traceNumber == null || traceNumber.isEmpty()) {
+            file.getUnreadable().add(new RejectedPaymentDto(invoiceNumber, null, reference,
+                    "Missing TRN reassociation trace"));
+            return;
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(clp[4]);
+        } catch (NumberFormatException e) {
+            file.getUnreadable().add(new RejectedPaymentDto(invoiceNumber, null, reference, "Unreadable paid amount"));
+            return;
+        }
+        if (amount.signum() == 0) {
+            // Denied or zero-paid claim; nothing to post
+            return;
+        }
+        String payerClaimNumber = clp.length > 7 ? clp[7] : "";
+        // Keyed by content, not position, so a resent remittance with claims reordered or added matches
+        String content = "835:" + traceNumber + ":" + invoiceNumber + ":" + payerClaimNumber + ":"
+                + amount.stripTrailingZeros().toPlainString();
+        int occurrence = occurrences.merge(content, 1, Integer::sum);
+        file.getPayments().add(new RemittancePayment(invoiceNumber, amount, paymentDate, PaymentMethod.INSURANCE,
+                traceNumber, payerName, content + ":" + occurrence));
+    }
+
+    private static LocalDate parseX12Date(String value, LocalDate fallback) {
+        try {
+            return LocalDate.parse(value, X12_DATE);
+        } catch (DateTimeParseException e) {
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.hospital.hms.billing.posting;
+
+import com.hospital.hms.billing.entity.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One payment read from a lockbox or remittance file
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class RemittancePayment {
+
+    private final String invoiceNumber;
+    private final BigDecimal amount;
+    private final LocalDate paymentDate;
+    private final PaymentMethod paymentMethod;
+    private final String referenceNumber;
+    private final String payerName;
+    private final String postingKey;
+
+    public RemittancePayment(String invoiceNumber, BigDecimal amount, LocalDate paymentDate,
+                             PaymentMethod paymentMethod, String referenceNumber, String payerName,
+                             String postingKey) {
+        this.invoiceNumber = invoiceNumber;
+        this.amount = amount;
+        this.paymentDate = paymentDate;
+        this.paymentMethod = paymentMethod;
+        this.referenceNumber = referenceNumber;
+        this.payerName = payerName;
+        this.postingKey = postingKey;
+    }
+
+    public String getInvoiceNumber() { return invoiceNumber; }
+
+    public BigDecimal getAmount() { return amount; }
+
+    public LocalDate getPaymentDate() { return paymentDate; }
+
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+
+    public String getReferenceNumber() { return referenceNumber; }
+
+    public String getPayerName() { return payerName; }
+
+    public String getPostingKey() { return postingKey; }
+}
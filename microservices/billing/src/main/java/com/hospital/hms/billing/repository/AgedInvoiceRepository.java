@@ -0,0 +1,29 @@
+package com.hospital.hms.billing.repository;
+
+import com.hospital.hms.billing.entity.AgedInvoice;
+import com.hospital.hms.billing.entity.AgingBucket;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Aged Invoice Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface AgedInvoiceRepository extends JpaRepository<AgedInvoice, UUID> {
+
+    /**
+     * Collection worklist: oldest buckets first, largest balances first
+     */
+    @Query("SELECT a FROM AgedInvoice a WHERE a.bucket IN :buckets ORDER BY a.bucket DESC, a.balance DESC, a.invoiceId")
+    List<AgedInvoice> findWorklist(@Param("buckets") Collection<AgingBucket> buckets, Pageable pageable);
+}
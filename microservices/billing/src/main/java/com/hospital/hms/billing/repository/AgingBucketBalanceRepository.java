@@ -0,0 +1,30 @@
+package com.hospital.hms.billing.repository;
+
+import com.hospital.hms.billing.entity.AgingBucketBalance;
+import com.hospital.hms.billing.entity.AgingDimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Aging Bucket Balance Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface AgingBucketBalanceRepository extends JpaRepository<AgingBucketBalance, AgingBucketBalance.Key> {
+
+    /**
+     * Bucket totals of one dimension member: bucket, balance, invoice count.
+     * Reads at most buckets x stripes rows through the primary key.
+     */
+    @Query("SELECT b.bucket, SUM(b.balance), SUM(b.invoiceCount) FROM AgingBucketBalance b " +
+           "WHERE b.dimension = :dimension AND b.dimensionId = :dimensionId GROUP BY b.bucket")
+    List<Object[]> sumByBucket(@Param("dimension") AgingDimension dimension,
+                               @Param("dimensionId") UUID dimensionId);
+}
@@ -0,0 +1,48 @@
+package com.hospital.hms.billing.repository;
+
+import com.hospital.hms.billing.entity.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Balance Checkpoint Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, BalanceCheckpoint.CheckpointId> {
+
+    Optional<BalanceCheckpoint> findFirstByPatientIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(
+            UUID patientId, LocalDate before);
+
+    @Query("SELECT MAX(c.checkpointDate) FROM BalanceCheckpoint c")
+    LocalDate findLatestCheckpointDate();
+
+    /**
+     * Write the end-of-day checkpoint of every account with activity on the
+     * given day, carrying forward each account's previous checkpoint.
+     * Checkpoints must be written in day order; re-running a day is a no-op.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO patient_balance_checkpoints (patient_id, checkpoint_date, balance, entry_count) " +
+                   "SELECT d.patient_id, :day, COALESCE(p.balance, 0) + d.amount, COALESCE(p.entry_count, 0) + d.entries " +
+                   "FROM (SELECT patient_id, SUM(amount) AS amount, COUNT(*) AS entries FROM ledger_entries " +
+                   "      WHERE posted_at >= :dayStart AND posted_at < :dayEnd GROUP BY patient_id) d " +
+                   "LEFT JOIN LATERAL (SELECT c.balance, c.entry_count FROM patient_balance_checkpoints c " +
+                   "      WHERE c.patient_id = d.patient_id AND c.checkpoint_date < :day " +
+                   "      ORDER BY c.checkpoint_date DESC LIMIT 1) p ON TRUE " +
+                   "ON CONFLICT (patient_id, checkpoint_date) DO NOTHING",
+           nativeQuery = true)
+    int checkpointDay(@Param("day") LocalDate day,
+                      @Param("dayStart") LocalDateTime dayStart,
+                      @Param("dayEnd") LocalDateTime dayEnd);
+}
@@ -0,0 +1,19 @@
+package com.hospital.hms.billing.repository;
+
+import com.hospital.hms.billing.entity.ChargeMasterItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Charge Master Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface ChargeMasterRepository extends JpaRepository<ChargeMasterItem, String> {
+
+    List<ChargeMasterItem> findByActiveTrue();
+}
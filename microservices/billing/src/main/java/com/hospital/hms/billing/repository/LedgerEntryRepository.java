@@ -0,0 +1,34 @@
+package com.hospital.hms.billing.repository;
+
+import com.hospital.hms.billing.entity.LedgerEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ledger Entry Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    Page<LedgerEntry> findByPatientIdOrderByPostedAtDesc(UUID patientId, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e WHERE e.patientId = :patientId " +
+           "AND e.postedAt >= :from AND e.postedAt <= :asOf")
+    BigDecimal sumAmountBetween(@Param("patientId") UUID patientId,
+                                @Param("from") LocalDateTime from,
+                                @Param("asOf") LocalDateTime asOf);
+
+    @Query("SELECT MIN(e.postedAt) FROM LedgerEntry e WHERE e.postedAt >= :from")
+    LocalDateTime findFirstPostedAtSince(@Param("from") LocalDateTime from);
+}
@@ -0,0 +1,17 @@
+package com.hospital.hms.billing.repository;
+
+import com.hospital.hms.billing.entity.PatientBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+/**
+ * Patient Balance Repository Interface
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Repository
+public interface PatientBalanceRepository extends JpaRepository<PatientBalance, UUID> {
+}
@@ -0,0 +1,130 @@
+package com.hospital.hms.billing.sequence;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out unique values from blocks leased off a shared sequence
+ *
+ * The block source returns the first values of fresh blocks of
+ * {@code blockSize} values, typically a database sequence declared with
+ * {@code INCREMENT BY blockSize}. Within a block, values are claimed with a
+ * single atomic increment and no lock; only the thread that runs a block dry
+ * takes the lease lock to fetch the next one. Large reservations lease their
+ * whole blocks privately in one call instead of draining the shared block.
+ * Values left unused when the process stops are skipped, never reused.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class BlockSequenceAllocator {
+
+    /**
+     * Source of block start values
+     */
+    @FunctionalInterface
+    public interface BlockSource {
+
+        /**
+         * Lease {@code blocks} fresh blocks and return their first values
+         */
+        long[] lease(int blocks);
+    }
+
+    private final BlockSource blockSource;
+    private final int blockSize;
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EMPTY);
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    public BlockSequenceAllocator(BlockSource blockSource, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.blockSource = blockSource;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Allocate the next value
+     */
+    public long next() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            lease(block);
+        }
+    }
+
+    /**
+     * Allocate {@code count} values in one call, in ascending order. Values
+     * span block boundaries, so they are not guaranteed to be contiguous.
+     */
+    public long[] reserve(int count) {
+        long[] values = new long[count];
+        int filled = 0;
+
+        int wholeBlocks = count / blockSize;
+        if (wholeBlocks > 0) {
+            for (long start : blockSource.lease(wholeBlocks)) {
+                for (long value = start; value < start + blockSize; value++) {
+                    values[filled++] = value;
+                }
+            }
+        }
+
+        while (filled < count) {
+            Block block = current.get();
+            int wanted = count - filled;
+            long first = block.next.getAndAdd(wanted);
+            if (first < block.end) {
+                long taken = Math.min(wanted, block.end - first);
+                for (long value = first; value < first + taken; value++) {
+                    values[filled++] = value;
+                }
+            }
+            if (filled < count) {
+                lease(block);
+            }
+        }
+
+        if (wholeBlocks > 0) {
+            Arrays.sort(values);
+        }
+        return values;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    private void lease(Block exhausted) {
+        leaseLock.lock();
+        try {
+            // Another thread may already have replaced the block we ran dry
+            if (current.get() == exhausted) {
+                long start = blockSource.lease(1)[0];
+                current.set(new Block(start, start + blockSize));
+            }
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private static final class Block {
+
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.hospital.hms.billing.service;
+
+import com.hospital.hms.billing.aging.InvoiceAging;
+import com.hospital.hms.billing.dto.AgedInvoiceDto;
+import com.hospital.hms.billing.dto.AgingSummaryDto;
+import com.hospital.hms.billing.entity.AgingBucket;
+import com.hospital.hms.billing.entity.AgingDimension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service interface for incrementally maintained accounts receivable aging
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface ArAgingService {
+
+    /**
+     * Move the aging buckets in line with the invoices' current balances.
+     * Must run inside the transaction that changed the invoices, after their
+     * rows are written.
+     */
+    void track(Collection<InvoiceAging> invoices);
+
+    AgingSummaryDto getAging(AgingDimension dimension, UUID dimensionId);
+
+    AgingSummaryDto getFacilityAging();
+
+    List<AgedInvoiceDto> getWorklist(AgingBucket minimumBucket, Pageable pageable);
+
+    /**
+     * Move balances whose invoices crossed a bucket boundary since the last roll
+     */
+    int rollBuckets();
+}
@@ -0,0 +1,23 @@
+package com.hospital.hms.billing.service;
+
+import com.hospital.hms.billing.dto.ChargeCaptureResultDto;
+
+import java.time.LocalDate;
+
+/**
+ * Service interface for generating invoices from completed encounters
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface ChargeCaptureService {
+
+    /**
+     * Bill every completed visit and procedure with a service date in
+     * [fromDate, toDate]. Encounters that already have a line item are
+     * skipped, so a period can safely be captured again.
+     */
+    ChargeCaptureResultDto captureCharges(LocalDate fromDate, LocalDate toDate);
+
+    ChargeCaptureResultDto captureYesterday();
+}
@@ -8,6 +8,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -46,5 +47,7 @@ public interface InvoiceService {
 
     BigDecimal getPatientOutstandingBalance(UUID patientId);
 
+    BigDecimal getPatientBalanceAsOf(UUID patientId, LocalDateTime asOf);
+
     Map<String, Object> getInvoiceStatistics();
 }
@@ -0,0 +1,36 @@
+package com.hospital.hms.billing.service;
+
+import com.hospital.hms.billing.dto.LedgerEntryDto;
+import com.hospital.hms.billing.entity.LedgerEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Service interface for the append-only patient account ledger
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface PatientLedgerService {
+
+    /**
+     * Append one entry and apply it to the patient's running balance. Must
+     * run inside the transaction that makes the underlying change.
+     */
+    void record(LedgerEntry entry);
+
+    void recordAll(Collection<LedgerEntry> entries);
+
+    BigDecimal getBalance(UUID patientId);
+
+    BigDecimal getBalanceAsOf(UUID patientId, LocalDateTime asOf);
+
+    Page<LedgerEntryDto> getLedger(UUID patientId, Pageable pageable);
+
+    int checkpointBalances();
+}
@@ -0,0 +1,17 @@
+package com.hospital.hms.billing.service;
+
+import com.hospital.hms.billing.dto.PaymentPostingResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk payment posting from lockbox and remittance files
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface PaymentPostingService {
+
+    PaymentPostingResultDto postRemittanceFile(InputStream remittanceFile) throws IOException;
+}
@@ -0,0 +1,366 @@
+package com.hospital.hms.billing.service.impl;
+
+import com.hospital.hms.billing.aging.InvoiceAging;
+import com.hospital.hms.billing.dto.AgedInvoiceDto;
+import com.hospital.hms.billing.dto.AgingSummaryDto;
+import com.hospital.hms.billing.entity.AgingBucket;
+import com.hospital.hms.billing.entity.AgingDimension;
+import com.hospital.hms.billing.mapper.AgedInvoiceMapper;
+import com.hospital.hms.billing.repository.AgedInvoiceRepository;
+import com.hospital.hms.billing.repository.AgingBucketBalanceRepository;
+import com.hospital.hms.billing.service.ArAgingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Implementation of ArAgingService
+ *
+ * Every open invoice has a row recording the bucket its balance sits in and
+ * the payer, provider and patient it was counted under. When an invoice
+ * changes, its old contribution is taken out of those buckets and its new
+ * balance put back, all as signed deltas; the nightly roll moves balances
+ * whose invoices crossed the 30, 60 or 90 day mark. Bucket rows are updated
+ * in one sorted order, so concurrent postings queue rather than deadlock,
+ * and each bucket is striped so that the facility and large payers do not
+ * become a single hot row.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+@Transactional
+public class ArAgingServiceImpl implements ArAgingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArAgingServiceImpl.class);
+
+    private static final String LOCK_TRACKED_SQL =
+            "SELECT invoice_id, patient_id, provider_id, payer_id, bucket, balance FROM ar_aging_invoices " +
+            "WHERE invoice_id IN (:invoiceIds) ORDER BY invoice_id FOR UPDATE";
+
+    private static final String UPSERT_TRACKED_SQL =
+            "INSERT INTO ar_aging_invoices (invoice_id, invoice_number, patient_id, provider_id, payer_id, aging_date, " +
+            "bucket, balance, last_modified_date) VALUES (:invoiceId, :invoiceNumber, :patientId, :providerId, " +
+            ":payerId, :agingDate, :bucket, :balance, :now) ON CONFLICT (invoice_id) DO UPDATE SET " +
+            "patient_id = EXCLUDED.patient_id, provider_id = EXCLUDED.provider_id, payer_id = EXCLUDED.payer_id, " +
+            "balance = EXCLUDED.balance, last_modified_date = EXCLUDED.last_modified_date";
+
+    private static final String DELETE_TRACKED_SQL =
+            "DELETE FROM ar_aging_invoices WHERE invoice_id IN (:invoiceIds)";
+
+    private static final String LOCK_DUE_SQL =
+            "SELECT invoice_id, patient_id, provider_id, payer_id, aging_date, bucket, balance FROM ar_aging_invoices " +
+            "WHERE bucket = :bucket AND aging_date <= :cutoff ORDER BY invoice_id LIMIT :limit FOR UPDATE";
+
+    private static final String MOVE_TRACKED_SQL =
+            "UPDATE ar_aging_invoices SET bucket = :bucket WHERE invoice_id = :invoiceId";
+
+    private static final String APPLY_DELTA_SQL =
+            "INSERT INTO ar_aging_buckets (dimension, dimension_id, bucket, stripe, balance, invoice_count) " +
+            "VALUES (:dimension, :dimensionId, :bucket, :stripe, :balance, :invoiceCount) " +
+            "ON CONFLICT (dimension, dimension_id, bucket, stripe) DO UPDATE SET " +
+            "balance = ar_aging_buckets.balance + EXCLUDED.balance, " +
+            "invoice_count = ar_aging_buckets.invoice_count + EXCLUDED.invoice_count";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AgingBucketBalanceRepository bucketBalanceRepository;
+    private final AgedInvoiceRepository agedInvoiceRepository;
+    private final AgedInvoiceMapper agedInvoiceMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${billing.ar-aging.stripes:8}")
+    private int stripes;
+
+    @Value("${billing.ar-aging.roll-batch-size:1000}")
+    private int rollBatchSize;
+
+    @Autowired
+    public ArAgingServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                              AgingBucketBalanceRepository bucketBalanceRepository,
+                              AgedInvoiceRepository agedInvoiceRepository,
+                              AgedInvoiceMapper agedInvoiceMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bucketBalanceRepository = bucketBalanceRepository;
+        this.agedInvoiceRepository = agedInvoiceRepository;
+        this.agedInvoiceMapper = agedInvoiceMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void track(Collection<InvoiceAging> invoices) {
+        if (invoices.isEmpty()) {
+            return;
+        }
+        Map<UUID, InvoiceAging> changes = new TreeMap<>();
+        for (InvoiceAging invoice : invoices) {
+            changes.put(invoice.getInvoiceId(), invoice);
+        }
+
+        Map<UUID, Tracked> tracked = new HashMap<>();
+        jdbcTemplate.query(LOCK_TRACKED_SQL, new MapSqlParameterSource("invoiceIds", changes.keySet()), rs -> {
+            Tracked row = new Tracked(rs.getObject("invoice_id", UUID.class), rs.getObject("patient_id", UUID.class),
+                    rs.getObject("provider_id", UUID.class), rs.getObject("payer_id", UUID.class),
+                    AgingBucket.values()[rs.getInt("bucket")], rs.getBigDecimal("balance"));
+            tracked.put(row.invoiceId, row);
+        });
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        BucketDeltas deltas = new BucketDeltas();
+        List<MapSqlParameterSource> upserts = new ArrayList<>();
+        List<UUID> closed = new ArrayList<>();
+        for (InvoiceAging change : changes.values()) {
+            Tracked old = tracked.get(change.getInvoiceId());
+            if (old != null && old.matches(change)) {
+                continue;
+            }
+            AgingBucket bucket = old != null ? old.bucket
+                    : AgingBucket.forAge(ChronoUnit.DAYS.between(change.getAgingDate(), today));
+            if (old != null) {
+                deltas.add(old.invoiceId, old.patientId, old.providerId, old.payerId, old.bucket, old.balance.negate(), -1);
+            }
+            if (change.getBalance().signum() > 0) {
+                deltas.add(change.getInvoiceId(), change.getPatientId(), change.getProviderId(), change.getPayerId(),
+                        bucket, change.getBalance(), 1);
+                upserts.add(new MapSqlParameterSource()
+                        .addValue("invoiceId", change.getInvoiceId())
+                        .addValue("invoiceNumber", change.getInvoiceNumber())
+                        .addValue("patientId", change.getPatientId())
+                        .addValue("providerId", change.getProviderId())
+                        .addValue("payerId", change.getPayerId())
+                        .addValue("agingDate", Date.valueOf(change.getAgingDate()))
+                        .addValue("bucket", bucket.ordinal())
+                        .addValue("balance", change.getBalance())
+                        .addValue("now", Timestamp.valueOf(now)));
+            } else if (old != null) {
+                closed.add(old.invoiceId);
+            }
+        }
+
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_TRACKED_SQL, upserts.toArray(new MapSqlParameterSource[0]));
+        }
+        if (!closed.isEmpty()) {
+            jdbcTemplate.update(DELETE_TRACKED_SQL, new MapSqlParameterSource("invoiceIds", closed));
+        }
+        deltas.applyTo(jdbcTemplate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AgingSummaryDto getAging(AgingDimension dimension, UUID dimensionId) {
+        AgingSummaryDto summary = new AgingSummaryDto(dimension, dimensionId);
+        for (Object[] row : bucketBalanceRepository.sumByBucket(dimension, dimensionId)) {
+            summary.addBucket((AgingBucket) row[0], (BigDecimal) row[1], ((Number) row[2]).longValue());
+        }
+        return summary;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AgingSummaryDto getFacilityAging() {
+        return getAging(AgingDimension.FACILITY, AgingDimension.FACILITY_ID);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AgedInvoiceDto> getWorklist(AgingBucket minimumBucket, Pageable pageable) {
+        EnumSet<AgingBucket> buckets = EnumSet.range(minimumBucket, AgingBucket.OVER_90);
+        return agedInvoiceMapper.toDtoList(agedInvoiceRepository.findWorklist(buckets, pageable));
+    }
+
+    @Override
+    @Scheduled(cron = "${billing.ar-aging.roll-cron:0 5 0 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rollBuckets() {
+        LocalDate today = LocalDate.now();
+        int moved = 0;
+        // Oldest first, so a balance that skips a bucket after missed rolls is moved once
+        for (int from = AgingBucket.OVER_90.ordinal() - 1; from >= 0; from--) {
+            AgingBucket bucket = AgingBucket.values()[from];
+            LocalDate cutoff = today.minusDays(AgingBucket.values()[from + 1].getFromDay());
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> rollBatch(bucket, cutoff, today));
+                moved += batch;
+            } while (batch == rollBatchSize);
+        }
+        if (moved > 0) {
+            logger.info("Rolled {} invoices into older aging buckets", moved);
+        }
+        return moved;
+    }
+
+    private int rollBatch(AgingBucket bucket, LocalDate cutoff, LocalDate today) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("bucket", bucket.ordinal())
+                .addValue("cutoff", Date.valueOf(cutoff))
+                .addValue("limit", rollBatchSize);
+
+        BucketDeltas deltas = new BucketDeltas();
+        List<MapSqlParameterSource> moves = new ArrayList<>();
+        jdbcTemplate.query(LOCK_DUE_SQL, parameters, rs -> {
+            UUID invoiceId = rs.getObject("invoice_id", UUID.class);
+            UUID patientId = rs.getObject("patient_id", UUID.class);
+            UUID providerId = rs.getObject("provider_id", UUID.class);
+            UUID payerId = rs.getObject("payer_id", UUID.class);
+            BigDecimal balance = rs.getBigDecimal("balance");
+            AgingBucket target = AgingBucket.forAge(
+                    ChronoUnit.DAYS.between(rs.getDate("aging_date").toLocalDate(), today));
+            deltas.add(invoiceId, patientId, providerId, payerId, bucket, balance.negate(), -1);
+            deltas.add(invoiceId, patientId, providerId, payerId, target, balance, 1);
+            moves.add(new MapSqlParameterSource()
+                    .addValue("invoiceId", invoiceId)
+                    .addValue("bucket", target.ordinal()));
+        });
+
+        if (!moves.isEmpty()) {
+            jdbcTemplate.batchUpdate(MOVE_TRACKED_SQL, moves.toArray(new MapSqlParameterSource[0]));
+            deltas.applyTo(jdbcTemplate);
+        }
+        return moves.size();
+    }
+
+    /**
+     * Aging row of an invoice as last counted
+     */
+    private static final class Tracked {
+
+        final UUID invoiceId;
+        final UUID patientId;
+        final UUID providerId;
+        final UUID payerId;
+        final AgingBucket bucket;
+        final BigDecimal balance;
+
+        Tracked(UUID invoiceId, UUID patientId, UUID providerId, UUID payerId, AgingBucket bucket, BigDecimal balance) {
+            this.invoiceId = invoiceId;
+            this.patientId = patientId;
+            this.providerId = providerId;
+            this.payerId = payerId;
+            this.bucket = bucket;
+            this.balance = balance;
+        }
+
+        boolean matches(InvoiceAging change) {
+            return balance.compareTo(change.getBalance()) == 0 && patientId.equals(change.getPatientId())
+                    && providerId.equals(change.getProviderId()) && payerId.equals(change.getPayerId());
+        }
+    }
+
+    /**
+     * Signed changes to bucket rows, kept in key order so every transaction
+     * locks them in the same sequence
+     */
+    private final class BucketDeltas {
+
+        private final Map<BucketKey, Delta> deltas = new TreeMap<>();
+
+        void add(UUID invoiceId, UUID patientId, UUID providerId, UUID payerId, AgingBucket bucket,
+                 BigDecimal amount, int invoiceCount) {
+            int stripe = Math.floorMod(invoiceId.hashCode(), stripes);
+            add(new BucketKey(AgingDimension.FACILITY, AgingDimension.FACILITY_ID, bucket, stripe), amount, invoiceCount);
+            add(new BucketKey(AgingDimension.PAYER, payerId, bucket, stripe), amount, invoiceCount);
+            add(new BucketKey(AgingDimension.PROVIDER, providerId, bucket, stripe), amount, invoiceCount);
+            // One patient rarely has enough open invoices to contend
+            add(new BucketKey(AgingDimension.PATIENT, patientId, bucket, 0), amount, invoiceCount);
+        }
+
+        private void add(BucketKey key, BigDecimal amount, int invoiceCount) {
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.amount = delta.amount.add(amount);
+            delta.invoiceCount += invoiceCount;
+        }
+
+        void applyTo(NamedParameterJdbcTemplate jdbcTemplate) {
+            List<MapSqlParameterSource> updates = new ArrayList<>(deltas.size());
+            for (Map.Entry<BucketKey, Delta> entry : deltas.entrySet()) {
+                Delta delta = entry.getValue();
+                if (delta.amount.signum() == 0 && delta.invoiceCount == 0) {
+                    continue;
+                }
+                BucketKey key = entry.getKey();
+                updates.add(new MapSqlParameterSource()
+                        .addValue("dimension", key.dimension.name())
+                        .addValue("dimensionId", key.dimensionId)
+                        .addValue("bucket", key.bucket.ordinal())
+                        .addValue("stripe", key.stripe)
+                        .addValue("balance", delta.amount)
+                        .addValue("invoiceCount", delta.invoiceCount));
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, updates.toArray(new MapSqlParameterSource[0]));
+            }
+        }
+    }
+
+    private static final class BucketKey implements Comparable<BucketKey> {
+
+        final AgingDimension dimension;
+        final UUID dimensionId;
+        final AgingBucket bucket;
+        final int stripe;
+
+        BucketKey(AgingDimension dimension, UUID dimensionId, AgingBucket bucket, int stripe) {
+            this.dimension = dimension;
+            this.dimensionId = dimensionId;
+            this.bucket = bucket;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public int compareTo(BucketKey other) {
+            int result = dimension.compareTo(other.dimension);
+            if (result == 0) result = dimensionId.compareTo(other.dimensionId);
+            if (result == 0) result = bucket.compareTo(other.bucket);
+            if (result == 0) result = Integer.compare(stripe, other.stripe);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BucketKey)) return false;
+            return compareTo((BucketKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dimension, dimensionId, bucket, stripe);
+        }
+    }
+
+    private static final class Delta {
+
+        BigDecimal amount = BigDecimal.ZERO;
+        int invoiceCount;
+    }
+}
@@ -0,0 +1,457 @@
+package com.hospital.hms.billing.service.impl;
+
+import com.hospital.hms.billing.aging.InvoiceAging;
+import com.hospital.hms.billing.chargecapture.ChargeMaster;
+import com.hospital.hms.billing.chargecapture.DraftInvoice;
+import com.hospital.hms.billing.chargecapture.EncounterCharge;
+import com.hospital.hms.billing.client.AppointmentSchedulingClient;
+import com.hospital.hms.billing.client.ProcedureManagementClient;
+import com.hospital.hms.billing.dto.ChargeCaptureResultDto;
+import com.hospital.hms.billing.dto.CompletedAppointmentDto;
+import com.hospital.hms.billing.dto.CompletedProcedureDto;
+import com.hospital.hms.billing.entity.Invoice;
+import com.hospital.hms.billing.entity.InvoiceStatus;
+import com.hospital.hms.billing.entity.InvoiceType;
+import com.hospital.hms.billing.entity.LedgerEntry;
+import com.hospital.hms.billing.entity.LedgerEntryType;
+import com.hospital.hms.billing.money.Money;
+import com.hospital.hms.billing.repository.ChargeMasterRepository;
+import com.hospital.hms.billing.sequence.InvoiceNumberAllocator;
+import com.hospital.hms.billing.service.ArAgingService;
+import com.hospital.hms.billing.service.ChargeCaptureService;
+import com.hospital.hms.billing.service.PatientLedgerService;
+import com.hospital.hms.shared.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Implementation of ChargeCaptureService
+ *
+ * Completed visits and procedures are paged in from their owning services
+ * concurrently, priced against a snapshot of the charge master and grouped
+ * into one invoice per patient and service date. The invoices are split into
+ * chunks written in parallel, one transaction per chunk: each chunk reserves
+ * its invoice numbers in one call, drops encounters another run billed in
+ * the meantime, then inserts its invoices, line items and ledger charges with
+ * one JDBC batch each. The unique source reference on line items makes a
+ * concurrent run fail the chunk rather than double-bill; the chunk is then
+ * re-read and re-applied.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+public class ChargeCaptureServiceImpl implements ChargeCaptureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChargeCaptureServiceImpl.class);
+
+    private static final UUID SYSTEM_USER_ID = new UUID(0L, 0L);
+    private static final String SYSTEM_USER_NAME = "charge-capture";
+    private static final String PATIENT_NAME_PENDING = "PENDING DEMOGRAPHICS";
+
+    private static final String BILLED_SOURCES_SQL =
+            "SELECT source_type, source_id FROM invoice_line_items WHERE source_id IN (:sourceIds)";
+
+    private static final String INSERT_INVOICE_SQL =
+            "INSERT INTO invoices (id, invoice_number, account_number, patient_id, patient_name, provider_id, " +
+            "provider_name, invoice_date, service_date_from, service_date_to, due_date, status, invoice_type, " +
+            "subtotal, total_amount, paid_amount, balance_due, currency_code, appointment_id, follow_up_required, " +
+            "electronic_claim_sent, paper_claim_sent, statement_sent, hold_billing, hold_reason, batch_number, " +
+            "created_date, created_by, created_by_name, version) VALUES (:id, :invoiceNumber, :accountNumber, " +
+            ":patientId, :patientName, :providerId, :providerName, :invoiceDate, :serviceDate, :serviceDate, " +
+            ":dueDate, :status, :invoiceType, :total, :total, 0, :total, 'USD', :appointmentId, false, false, " +
+            "false, false, :holdBilling, :holdReason, :batchNumber, :now, :createdBy, :createdByName, 0)";
+
+    private static final String INSERT_LINE_ITEM_SQL =
+            "INSERT INTO invoice_line_items (id, invoice_id, line_number, service_date, charge_code, description, " +
+            "cpt_code, revenue_code, quantity, unit_price, line_total, source_type, source_id, created_date) " +
+            "VALUES (:id, :invoiceId, :lineNumber, :serviceDate, :chargeCode, :description, :cptCode, " +
+            ":revenueCode, 1, :unitPrice, :unitPrice, :sourceType, :sourceId, :now)";
+
+    private final AppointmentSchedulingClient appointmentClient;
+    private final ProcedureManagementClient procedureClient;
+    private final ChargeMasterRepository chargeMasterRepository;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final PatientLedgerService patientLedgerService;
+    private final ArAgingService arAgingService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService captureExecutor;
+
+    @Value("${billing.charge-capture.enabled:true}")
+    private boolean enabled;
+
+    @Value("${billing.charge-capture.page-size:1000}")
+    private int pageSize;
+
+    @Value("${billing.charge-capture.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${billing.charge-capture.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${billing.charge-capture.max-period-days:31}")
+    private int maxPeriodDays;
+
+    @Value("${billing.charge-capture.facility-provider-id:00000000-0000-0000-0000-000000000001}")
+    private UUID facilityProviderId;
+
+    @Value("${billing.charge-capture.facility-provider-name:Facility}")
+    private String facilityProviderName;
+
+    @Autowired
+    public ChargeCaptureServiceImpl(AppointmentSchedulingClient appointmentClient,
+                                    ProcedureManagementClient procedureClient,
+                                    ChargeMasterRepository chargeMasterRepository,
+                                    InvoiceNumberAllocator invoiceNumberAllocator,
+                                    PatientLedgerService patientLedgerService,
+                                    ArAgingService arAgingService,
+                                    NamedParameterJdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${billing.charge-capture.parallelism:8}") int parallelism) {
+        this.appointmentClient = appointmentClient;
+        this.procedureClient = procedureClient;
+        this.chargeMasterRepository = chargeMasterRepository;
+        this.invoiceNumberAllocator = invoiceNumberAllocator;
+        this.patientLedgerService = patientLedgerService;
+        this.arAgingService = arAgingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.captureExecutor = Executors.newFixedThreadPool(Math.max(2, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "charge-capture-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ChargeCaptureResultDto captureCharges(LocalDate fromDate, LocalDate toDate) {
+        if (toDate.isBefore(fromDate)) {
+            throw new BusinessException("Charge capture period ends before it starts", "CHARGE_CAPTURE_INVALID_PERIOD");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= maxPeriodDays) {
+            throw new BusinessException("Charge capture period exceeds " + maxPeriodDays + " days",
+                    "CHARGE_CAPTURE_INVALID_PERIOD");
+        }
+
+        long started = System.currentTimeMillis();
+        UUID runId = UUID.randomUUID();
+        String batchNumber = "CC-" + fromDate.format(DateTimeFormatter.BASIC_ISO_DATE) + "-"
+                + runId.toString().substring(0, 8).toUpperCase();
+        logger.info("Capturing charges for services from {} to {} as batch {}", fromDate, toDate, batchNumber);
+
+        ChargeCaptureResultDto result = new ChargeCaptureResultDto();
+        result.setRunId(runId);
+        result.setBatchNumber(batchNumber);
+        result.setFromDate(fromDate);
+        result.setToDate(toDate);
+
+        ChargeMaster chargeMaster = ChargeMaster.of(chargeMasterRepository.findByActiveTrue());
+        LocalDateTime startTime = fromDate.atStartOfDay();
+        LocalDateTime endTime = toDate.plusDays(1).atStartOfDay();
+
+        Future<List<CompletedAppointmentDto>> appointments = captureExecutor.submit(() -> fetchAll(
+                page -> appointmentClient.getCompletedAppointments(startTime, endTime, page, pageSize)));
+        Future<List<CompletedProcedureDto>> procedures = captureExecutor.submit(() -> fetchAll(
+                page -> procedureClient.getCompletedProcedures(startTime, endTime, page, pageSize)));
+
+        // Visits first, so each day's invoice takes its provider from a visit when there is one
+        Map<String, DraftInvoice> drafts = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        List<CompletedAppointmentDto> completedAppointments = await(appointments, runId);
+        result.setAppointmentsFetched(completedAppointments.size());
+        for (CompletedAppointmentDto appointment : completedAppointments) {
+            addCharge(drafts, seen, result, chargeMaster, EncounterCharge.APPOINTMENT, appointment.getId().toString(),
+                    appointment.getPatientId(), appointment.getPatientName(), appointment.getProviderId(),
+                    appointment.getProviderName(), appointment.getAppointmentDateTime(),
+                    "VISIT-" + chargeCodeSuffix(appointment.getAppointmentType()));
+        }
+        List<CompletedProcedureDto> completedProcedures = await(procedures, runId);
+        result.setProceduresFetched(completedProcedures.size());
+        for (CompletedProcedureDto procedure : completedProcedures) {
+            addCharge(drafts, seen, result, chargeMaster, EncounterCharge.PROCEDURE, procedure.getProcedureId(),
+                    parsePatientId(procedure.getPatientId()), null, null, procedure.getPrimaryPhysician(),
+                    procedure.getActualEndTime(), "PROC-" + chargeCodeSuffix(procedure.getProcedureType()));
+        }
+
+        List<DraftInvoice> invoices = new ArrayList<>(drafts.values());
+        List<Future<ChunkOutcome>> futures = new ArrayList<>();
+        for (int from = 0; from < invoices.size(); from += chunkSize) {
+            List<DraftInvoice> chunk = invoices.subList(from, Math.min(from + chunkSize, invoices.size()));
+            futures.add(captureExecutor.submit(() -> captureChunkWithRetry(chunk, batchNumber)));
+        }
+        for (Future<ChunkOutcome> future : futures) {
+            await(future, runId).mergeInto(result);
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        logger.info("Batch {} created {} invoices ({} on hold) with {} lines totalling {} in {} ms; " +
+                   "{} already billed, {} unbillable, unpriced codes {}", batchNumber, result.getInvoicesCreated(),
+                   result.getInvoicesOnHold(), result.getLineItemsCreated(), result.getTotalCharged(),
+                   result.getElapsedMillis(), result.getAlreadyBilled(), result.getUnbillable(),
+                   result.getUnpricedChargeCodes());
+        return result;
+    }
+
+    @Override
+    @Scheduled(cron = "${billing.charge-capture.cron:0 30 1 * * *}")
+    public ChargeCaptureResultDto captureYesterday() {
+        if (!enabled) {
+            return null;
+        }
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        return captureCharges(yesterday, yesterday);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        captureExecutor.shutdown();
+    }
+
+    private void addCharge(Map<String, DraftInvoice> drafts, Set<String> seen, ChargeCaptureResultDto result,
+                           ChargeMaster chargeMaster, String sourceType, String sourceId, UUID patientId, String patientName, UUID providerId,
+                           String providerName, LocalDateTime servicedAt, String chargeCode) {
+        // Offset paging can return a row twice when the source changes between pages
+        if (!seen.add(EncounterCharge.sourceKey(sourceType, sourceId))) {
+            return;
+        }
+        if (patientId == null || servicedAt == null) {
+            logger.warn("Skipping {} {}: no patient or service time", sourceType, sourceId);
+            result.setUnbillable(result.getUnbillable() + 1);
+            return;
+        }
+        ChargeMaster.Price price = chargeMaster.lookup(chargeCode);
+        if (price == null) {
+            result.getUnpricedChargeCodes().add(chargeCode);
+            result.setUnbillable(result.getUnbillable() + 1);
+            return;
+        }
+        LocalDate serviceDate = servicedAt.toLocalDate();
+        drafts.computeIfAbsent(patientId + "/" + serviceDate, key -> new DraftInvoice(patientId, serviceDate))
+                .add(new EncounterCharge(sourceType, sourceId, patientId, patientName, providerId,
+                        providerName, serviceDate, price));
+    }
+
+    private ChunkOutcome captureChunkWithRetry(List<DraftInvoice> chunk, String batchNumber) {
+        boolean retried = false;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ChunkOutcome outcome = transactionTemplate.execute(status -> captureChunk(chunk, batchNumber));
+                outcome.retried = retried;
+                return outcome;
+            } catch (TransientDataAccessException | DuplicateKeyException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retried = true;
+                logger.warn("Re-applying {} invoices of batch {} after: {}", chunk.size(), batchNumber, e.getMessage());
+            }
+        }
+    }
+
+    private ChunkOutcome captureChunk(List<DraftInvoice> chunk, String batchNumber) {
+        ChunkOutcome outcome = new ChunkOutcome();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        // Work on copies so a retried attempt starts again from the full chunk
+        List<DraftInvoice> pending = new ArrayList<>(chunk.size());
+        Set<String> billed = billedSources(chunk);
+        for (DraftInvoice draft : chunk) {
+            DraftInvoice copy = new DraftInvoice(draft.getPatientId(), draft.getServiceDate());
+            draft.getCharges().forEach(copy::add);
+            outcome.alreadyBilled += copy.removeBilled(billed);
+            if (!copy.isEmpty()) {
+                pending.add(copy);
+            }
+        }
+        if (pending.isEmpty()) {
+            return outcome;
+        }
+
+        List<String> invoiceNumbers = invoiceNumberAllocator.reserveInvoiceNumbers(pending.size());
+        List<MapSqlParameterSource> invoiceInserts = new ArrayList<>(pending.size());
+        List<MapSqlParameterSource> lineInserts = new ArrayList<>();
+        List<LedgerEntry> ledgerEntries = new ArrayList<>(pending.size());
+        List<InvoiceAging> agingChanges = new ArrayList<>(pending.size());
+        Money chunkTotal = Money.ZERO;
+        for (int i = 0; i < pending.size(); i++) {
+            DraftInvoice draft = pending.get(i);
+            UUID invoiceId = UUID.randomUUID();
+            String invoiceNumber = invoiceNumbers.get(i);
+            Money total = draft.total();
+            InvoiceType invoiceType = draft.invoiceType();
+            boolean hold = draft.getPatientName() == null;
+            UUID providerId = draft.getProviderId() != null ? draft.getProviderId() : facilityProviderId;
+
+            invoiceInserts.add(new MapSqlParameterSource()
+                    .addValue("id", invoiceId)
+                    .addValue("invoiceNumber", invoiceNumber)
+                    .addValue("accountNumber", Invoice.accountNumberFor(draft.getPatientId(), today))
+                    .addValue("patientId", draft.getPatientId())
+                    .addValue("patientName", hold ? PATIENT_NAME_PENDING : draft.getPatientName())
+                    .addValue("providerId", providerId)
+                    .addValue("providerName", draft.getProviderId() != null ? draft.getProviderName() : facilityProviderName)
+                    .addValue("invoiceDate", Date.valueOf(today))
+                    .addValue("serviceDate", Date.valueOf(draft.getServiceDate()))
+                    .addValue("dueDate", Date.valueOf(Invoice.dueDateFor(invoiceType, today)))
+                    .addValue("status", InvoiceStatus.DRAFT.name())
+                    .addValue("invoiceType", invoiceType.name())
+                    .addValue("total", total.toBigDecimal())
+                    .addValue("appointmentId", firstAppointmentId(draft))
+                    .addValue("holdBilling", hold)
+                    .addValue("holdReason", hold ? "Patient demographics pending" : null)
+                    .addValue("batchNumber", batchNumber)
+                    .addValue("now", Timestamp.valueOf(now))
+                    .addValue("createdBy", SYSTEM_USER_ID)
+                    .addValue("createdByName", SYSTEM_USER_NAME));
+
+            int lineNumber = 0;
+            for (EncounterCharge charge : draft.getCharges()) {
+                ChargeMaster.Price price = charge.getPrice();
+                lineInserts.add(new MapSqlParameterSource()
+                        .addValue("id", UUID.randomUUID())
+                        .addValue("invoiceId", invoiceId)
+                        .addValue("lineNumber", ++lineNumber)
+                        .addValue("serviceDate", Date.valueOf(charge.getServiceDate()))
+                        .addValue("chargeCode", price.getChargeCode())
+                        .addValue("description", price.getDescription())
+                        .addValue("cptCode", price.getCptCode())
+                        .addValue("revenueCode", price.getRevenueCode())
+                        .addValue("unitPrice", price.getUnitPrice().toBigDecimal())
+                        .addValue("sourceType", charge.getSourceType())
+                        .addValue("sourceId", charge.getSourceId())
+                        .addValue("now", Timestamp.valueOf(now)));
+            }
+
+            ledgerEntries.add(new LedgerEntry(draft.getPatientId(), invoiceId, LedgerEntryType.CHARGE,
+                    total.toBigDecimal(), now, invoiceNumber, "Invoice issued"));
+            agingChanges.add(new InvoiceAging(invoiceId, invoiceNumber, draft.getPatientId(), providerId, null,
+                    today, total.toBigDecimal()));
+            chunkTotal = chunkTotal.plus(total);
+            outcome.onHold += hold ? 1 : 0;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_INVOICE_SQL, invoiceInserts.toArray(new MapSqlParameterSource[0]));
+        jdbcTemplate.batchUpdate(INSERT_LINE_ITEM_SQL, lineInserts.toArray(new MapSqlParameterSource[0]));
+        patientLedgerService.recordAll(ledgerEntries);
+        arAgingService.track(agingChanges);
+
+        outcome.invoicesCreated = invoiceInserts.size();
+        outcome.lineItemsCreated = lineInserts.size();
+        outcome.totalCharged = chunkTotal;
+        return outcome;
+    }
+
+    private Set<String> billedSources(List<DraftInvoice> chunk) {
+        List<String> sourceIds = new ArrayList<>();
+        for (DraftInvoice draft : chunk) {
+            for (EncounterCharge charge : draft.getCharges()) {
+                sourceIds.add(charge.getSourceId());
+            }
+        }
+        Set<String> billed = new HashSet<>();
+        jdbcTemplate.query(BILLED_SOURCES_SQL, new MapSqlParameterSource("sourceIds", sourceIds), rs -> {
+            billed.add(EncounterCharge.sourceKey(rs.getString("source_type"), rs.getString("source_id")));
+        });
+        return billed;
+    }
+
+    private <T> List<T> fetchAll(IntFunction<List<T>> pageFetcher) {
+        List<T> all = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            List<T> rows = pageFetcher.apply(page);
+            if (rows == null || rows.isEmpty()) {
+                return all;
+            }
+            all.addAll(rows);
+            if (rows.size() < pageSize) {
+                return all;
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future, UUID runId) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            logger.error("Charge capture run {} failed", runId, e.getCause());
+            throw new BusinessException("Charge capture failed: " + e.getCause().getMessage(), "CHARGE_CAPTURE_FAILED");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Charge capture interrupted", "CHARGE_CAPTURE_INTERRUPTED");
+        }
+    }
+
+    private static UUID firstAppointmentId(DraftInvoice draft) {
+        for (EncounterCharge charge : draft.getCharges()) {
+            if (EncounterCharge.APPOINTMENT.equals(charge.getSourceType())) {
+                return UUID.fromString(charge.getSourceId());
+            }
+        }
+        return null;
+    }
+
+    private static UUID parsePatientId(String patientId) {
+        try {
+            return patientId != null ? UUID.fromString(patientId) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String chargeCodeSuffix(String type) {
+        return type == null ? "UNSPECIFIED" : type.trim().toUpperCase().replace(' ', '_');
+    }
+
+    private static final class ChunkOutcome {
+
+        int invoicesCreated;
+        int onHold;
+        int lineItemsCreated;
+        int alreadyBilled;
+        boolean retried;
+        Money totalCharged = Money.ZERO;
+
+        void mergeInto(ChargeCaptureResultDto result) {
+            result.setInvoicesCreated(result.getInvoicesCreated() + invoicesCreated);
+            result.setInvoicesOnHold(result.getInvoicesOnHold() + onHold);
+            result.setLineItemsCreated(result.getLineItemsCreated() + lineItemsCreated);
+            result.setAlreadyBilled(result.getAlreadyBilled() + alreadyBilled);
+            result.setChunksRetried(result.getChunksRetried() + (retried ? 1 : 0));
+            result.setTotalCharged(result.getTotalCharged().add(totalCharged.toBigDecimal()));
+        }
+    }
+}
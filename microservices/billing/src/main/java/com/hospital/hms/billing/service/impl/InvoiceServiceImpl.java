@@ -1,13 +1,18 @@
 package com.hospital.hms.billing.service.impl;
 
+import com.hospital.hms.billing.aging.InvoiceAging;
 import com.hospital.hms.billing.dto.InvoiceCreateRequestDto;
 import com.hospital.hms.billing.dto.InvoiceResponseDto;
 import com.hospital.hms.billing.entity.Invoice;
 import com.hospital.hms.billing.entity.InvoiceStatus;
 import com.hospital.hms.billing.entity.InvoicePriority;
+import com.hospital.hms.billing.entity.LedgerEntry;
 import com.hospital.hms.billing.mapper.InvoiceMapper;
 import com.hospital.hms.billing.repository.InvoiceRepository;
+import com.hospital.hms.billing.sequence.InvoiceNumberAllocator;
+import com.hospital.hms.billing.service.ArAgingService;
 import com.hospital.hms.billing.service.InvoiceService;
+import com.hospital.hms.billing.service.PatientLedgerService;
 import com.hospital.hms.shared.exception.ResourceNotFoundException;
 import com.hospital.hms.shared.exception.BusinessException;
 import org.slf4j.Logger;
@@ -21,7 +26,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,11 +45,20 @@ public class InvoiceServiceImpl implements InvoiceService {
     
     private final InvoiceRepository invoiceRepository;
     private final InvoiceMapper invoiceMapper;
+    private final PatientLedgerService patientLedgerService;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final ArAgingService arAgingService;
 
     @Autowired
-    public InvoiceServiceImpl(InvoiceRepository invoiceRepository, InvoiceMapper invoiceMapper) {
+    public InvoiceServiceImpl(InvoiceRepository invoiceRepository, InvoiceMapper invoiceMapper,
+                              PatientLedgerService patientLedgerService,
+                              InvoiceNumberAllocator invoiceNumberAllocator,
+                              ArAgingService arAgingService) {
         this.invoiceRepository = invoiceRepository;
         this.invoiceMapper = invoiceMapper;
+        this.patientLedgerService = patientLedgerService;
+        this.invoiceNumberAllocator = invoiceNumberAllocator;
+        this.arAgingService = arAgingService;
     }
 
     @Override
@@ -82,6 +95,8 @@ public class InvoiceServiceImpl implements InvoiceService {
 
             // Save invoice
             Invoice savedInvoice = invoiceRepository.save(invoice);
+            patientLedgerService.record(LedgerEntry.charge(savedInvoice));
+            arAgingService.track(List.of(InvoiceAging.of(savedInvoice)));
 
             logger.info("Successfully created invoice: {} for patient: {}", 
                 savedInvoice.getInvoiceNumber(), savedInvoice.getPatientId());
@@ -106,6 +121,7 @@ public class InvoiceServiceImpl implements InvoiceService {
 
             // Validate update permissions
             validateInvoiceUpdate(existingInvoice, updateRequest);
+            BigDecimal previousTotal = existingInvoice.getTotalAmount();
 
             // Update entity from DTO
             invoiceMapper.updateEntityFromDto(updateRequest, existingInvoice);
@@ -116,7 +132,13 @@ public class InvoiceServiceImpl implements InvoiceService {
             // Update audit fields
             existingInvoice.setLastModifiedBy("system"); // TODO: Get from security context
 
-            Invoice updatedInvoice = invoiceRepository.save(existingInvoice);
+            // Flush first so the invoice row is locked before the patient balance
+            Invoice updatedInvoice = invoiceRepository.saveAndFlush(existingInvoice);
+            BigDecimal revision = updatedInvoice.getTotalAmount().subtract(previousTotal);
+            if (revision.signum() != 0) {
+                patientLedgerService.record(LedgerEntry.adjustment(updatedInvoice, revision, "Invoice amount revised"));
+            }
+            arAgingService.track(List.of(InvoiceAging.of(updatedInvoice)));
 
             logger.info("Successfully updated invoice: {}", updatedInvoice.getInvoiceNumber());
 
@@ -199,6 +221,8 @@ public class InvoiceServiceImpl implements InvoiceService {
         try {
             Invoice invoice = getInvoiceEntityById(invoiceId);
             InvoiceStatus oldStatus = invoice.getStatus();
+            BigDecimal previousBalance = invoice.getBalanceDue() != null ? invoice.getBalanceDue() : BigDecimal.ZERO;
+            BigDecimal previousPaid = invoice.getPaidAmount() != null ? invoice.getPaidAmount() : BigDecimal.ZERO;
 
             // Validate status transition
             validateStatusTransition(oldStatus, newStatus);
@@ -209,7 +233,9 @@ public class InvoiceServiceImpl implements InvoiceService {
             // Handle specific status changes
             handleStatusChange(invoice, oldStatus, newStatus);
 
-            Invoice updatedInvoice = invoiceRepository.save(invoice);
+            Invoice updatedInvoice = invoiceRepository.saveAndFlush(invoice);
+            recordStatusChange(updatedInvoice, newStatus, previousBalance, previousPaid);
+            arAgingService.track(List.of(InvoiceAging.of(updatedInvoice)));
 
             logger.info("Successfully updated invoice status: {} from {} to {}", 
                 invoice.getInvoiceNumber(), oldStatus, newStatus);
@@ -252,7 +278,10 @@ public class InvoiceServiceImpl implements InvoiceService {
 
             invoice.setLastModifiedBy("system"); // TODO: Get from security context
 
-            Invoice updatedInvoice = invoiceRepository.save(invoice);
+            Invoice updatedInvoice = invoiceRepository.saveAndFlush(invoice);
+            patientLedgerService.record(LedgerEntry.payment(updatedInvoice.getPatientId(), updatedInvoice.getId(),
+                    paymentAmount, LocalDateTime.now(), updatedInvoice.getInvoiceNumber()));
+            arAgingService.track(List.of(InvoiceAging.of(updatedInvoice)));
 
             logger.info("Successfully processed payment of {} for invoice: {}", 
                 paymentAmount, invoice.getInvoiceNumber());
@@ -270,17 +299,21 @@ public class InvoiceServiceImpl implements InvoiceService {
 
     @Override
     public String generateInvoiceNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String randomSuffix = String.format("%04d", (int) (Math.random() * 10000));
-        return "INV-" + timestamp + "-" + randomSuffix;
+        return invoiceNumberAllocator.nextInvoiceNumber();
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal getPatientOutstandingBalance(UUID patientId) {
-        logger.debug("Calculating outstanding balance for patient: {}", patientId);
-        BigDecimal balance = invoiceRepository.getPatientOutstandingBalance(patientId);
-        return balance != null ? balance : BigDecimal.ZERO;
+        logger.debug("Retrieving outstanding balance for patient: {}", patientId);
+        return patientLedgerService.getBalance(patientId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getPatientBalanceAsOf(UUID patientId, LocalDateTime asOf) {
+        logger.debug("Retrieving balance for patient: {} as of {}", patientId, asOf);
+        return patientLedgerService.getBalanceAsOf(patientId, asOf);
     }
 
     @Override
@@ -417,22 +450,26 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     private LocalDate calculateDueDate(com.hospital.hms.billing.entity.InvoiceType invoiceType) {
-        LocalDate today = LocalDate.now();
-        
-        // Different payment terms based on invoice type
-        return switch (invoiceType) {
-            case EMERGENCY -> today.plusDays(15); // Faster payment for emergency services
-            case INPATIENT, SURGERY -> today.plusDays(45); // Longer payment terms for major services
-            case OUTPATIENT, CONSULTATION -> today.plusDays(30); // Standard payment terms
-            default -> today.plusDays(30);
-        };
+        return Invoice.dueDateFor(invoiceType, LocalDate.now());
     }
 
     private String generateAccountNumber(UUID patientId) {
-        // Generate account number based on patient ID and timestamp
-        String patientIdStr = patientId.toString().replace("-", "").substring(0, 8).toUpperCase();
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        return "ACC-" + patientIdStr + "-" + timestamp;
+        return Invoice.accountNumberFor(patientId, LocalDate.now());
+    }
+
+    /**
+     * Post the ledger entries that bring the account in line with a
+     * cancellation or refund; other status changes do not move money.
+     */
+    private void recordStatusChange(Invoice invoice, InvoiceStatus newStatus,
+                                    BigDecimal previousBalance, BigDecimal previousPaid) {
+        if (newStatus == InvoiceStatus.CANCELLED) {
+            patientLedgerService.record(LedgerEntry.adjustment(invoice, previousBalance.negate(), "Invoice cancelled"));
+        } else if (newStatus == InvoiceStatus.REFUNDED) {
+            patientLedgerService.recordAll(List.of(
+                    LedgerEntry.refund(invoice, previousPaid),
+                    LedgerEntry.adjustment(invoice, previousBalance.add(previousPaid).negate(), "Invoice refunded")));
+        }
     }
 
     private void handleStatusChange(Invoice invoice, InvoiceStatus oldStatus, InvoiceStatus newStatus) {
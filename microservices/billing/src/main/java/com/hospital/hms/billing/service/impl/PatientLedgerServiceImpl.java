@@ -0,0 +1,210 @@
+package com.hospital.hms.billing.service.impl;
+
+import com.hospital.hms.billing.dto.LedgerEntryDto;
+import com.hospital.hms.billing.entity.BalanceCheckpoint;
+import com.hospital.hms.billing.entity.LedgerEntry;
+import com.hospital.hms.billing.entity.PatientBalance;
+import com.hospital.hms.billing.mapper.LedgerEntryMapper;
+import com.hospital.hms.billing.repository.BalanceCheckpointRepository;
+import com.hospital.hms.billing.repository.LedgerEntryRepository;
+import com.hospital.hms.billing.repository.PatientBalanceRepository;
+import com.hospital.hms.billing.service.PatientLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Implementation of PatientLedgerService
+ *
+ * Every append also adds its amount to the patient's row in
+ * patient_balances through an atomic upsert, in the caller's transaction, so
+ * the current balance is a primary-key read. Per-patient deltas are applied
+ * in patient-id order, which keeps concurrent batches from deadlocking on
+ * shared accounts. A nightly job writes end-of-day checkpoints that bound
+ * point-in-time lookups to the entries posted since the last checkpoint.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+@Transactional
+public class PatientLedgerServiceImpl implements PatientLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientLedgerServiceImpl.class);
+
+    private static final LocalDateTime LEDGER_EPOCH = LocalDate.of(1970, 1, 1).atStartOfDay();
+
+    private static final String INSERT_ENTRY_SQL =
+            "INSERT INTO ledger_entries (id, patient_id, invoice_id, entry_type, amount, posted_at, reference, description) " +
+            "VALUES (:id, :patientId, :invoiceId, :entryType, :amount, :postedAt, :reference, :description)";
+
+    private static final String APPLY_BALANCE_SQL =
+            "INSERT INTO patient_balances (patient_id, balance, entry_count, last_entry_at) " +
+            "VALUES (:patientId, :amount, :entries, :lastEntryAt) " +
+            "ON CONFLICT (patient_id) DO UPDATE SET balance = patient_balances.balance + EXCLUDED.balance, " +
+            "entry_count = patient_balances.entry_count + EXCLUDED.entry_count, " +
+            "last_entry_at = GREATEST(patient_balances.last_entry_at, EXCLUDED.last_entry_at)";
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final PatientBalanceRepository patientBalanceRepository;
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final LedgerEntryMapper ledgerEntryMapper;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public PatientLedgerServiceImpl(LedgerEntryRepository ledgerEntryRepository,
+                                    PatientBalanceRepository patientBalanceRepository,
+                                    BalanceCheckpointRepository checkpointRepository,
+                                    LedgerEntryMapper ledgerEntryMapper,
+                                    NamedParameterJdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.patientBalanceRepository = patientBalanceRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.ledgerEntryMapper = ledgerEntryMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(LedgerEntry entry) {
+        recordAll(List.of(entry));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<LedgerEntry> entries) {
+        List<MapSqlParameterSource> inserts = new ArrayList<>(entries.size());
+        Map<UUID, BalanceDelta> deltas = new TreeMap<>();
+        for (LedgerEntry entry : entries) {
+            if (entry.getAmount().signum() == 0) {
+                continue;
+            }
+            inserts.add(new MapSqlParameterSource()
+                    .addValue("id", entry.getId())
+                    .addValue("patientId", entry.getPatientId())
+                    .addValue("invoiceId", entry.getInvoiceId())
+                    .addValue("entryType", entry.getEntryType().name())
+                    .addValue("amount", entry.getAmount())
+                    .addValue("postedAt", Timestamp.valueOf(entry.getPostedAt()))
+                    .addValue("reference", entry.getReference())
+                    .addValue("description", entry.getDescription()));
+            deltas.computeIfAbsent(entry.getPatientId(), id -> new BalanceDelta()).add(entry);
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, inserts.toArray(new MapSqlParameterSource[0]));
+
+        List<MapSqlParameterSource> balanceUpdates = new ArrayList<>(deltas.size());
+        for (Map.Entry<UUID, BalanceDelta> delta : deltas.entrySet()) {
+            balanceUpdates.add(new MapSqlParameterSource()
+                    .addValue("patientId", delta.getKey())
+                    .addValue("amount", delta.getValue().amount)
+                    .addValue("entries", delta.getValue().entries)
+                    .addValue("lastEntryAt", Timestamp.valueOf(delta.getValue().lastEntryAt)));
+        }
+        jdbcTemplate.batchUpdate(APPLY_BALANCE_SQL, balanceUpdates.toArray(new MapSqlParameterSource[0]));
+
+        logger.debug("Recorded {} ledger entries for {} patients", inserts.size(), deltas.size());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(UUID patientId) {
+        return patientBalanceRepository.findById(patientId)
+                .map(PatientBalance::getBalance)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getBalanceAsOf(UUID patientId, LocalDateTime asOf) {
+        if (!asOf.isBefore(LocalDateTime.now())) {
+            return getBalance(patientId);
+        }
+
+        // A checkpoint dated the day before asOf or earlier covers everything up to its end of day
+        Optional<BalanceCheckpoint> checkpoint = checkpointRepository
+                .findFirstByPatientIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(patientId, asOf.toLocalDate());
+        BigDecimal base = checkpoint.map(BalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO);
+        LocalDateTime from = checkpoint.map(c -> c.getCheckpointDate().plusDays(1).atStartOfDay()).orElse(LEDGER_EPOCH);
+
+        return base.add(ledgerEntryRepository.sumAmountBetween(patientId, from, asOf));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LedgerEntryDto> getLedger(UUID patientId, Pageable pageable) {
+        return ledgerEntryRepository.findByPatientIdOrderByPostedAtDesc(patientId, pageable)
+                .map(ledgerEntryMapper::toDto);
+    }
+
+    @Override
+    @Scheduled(cron = "${billing.ledger.checkpoint-cron:0 15 2 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int checkpointBalances() {
+        LocalDate today = LocalDate.now();
+        LocalDate latest = checkpointRepository.findLatestCheckpointDate();
+        LocalDateTime from = latest != null ? latest.plusDays(1).atStartOfDay() : LEDGER_EPOCH;
+
+        // Walk forward only through days that have entries; today is still open
+        int days = 0;
+        int accounts = 0;
+        LocalDateTime next;
+        while ((next = ledgerEntryRepository.findFirstPostedAtSince(from)) != null
+                && next.toLocalDate().isBefore(today)) {
+            LocalDate day = next.toLocalDate();
+            Integer written = transactionTemplate.execute(status ->
+                    checkpointRepository.checkpointDay(day, day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+            accounts += written != null ? written : 0;
+            days++;
+            from = day.plusDays(1).atStartOfDay();
+        }
+
+        if (days > 0) {
+            logger.info("Checkpointed {} patient balances across {} days", accounts, days);
+        }
+        return days;
+    }
+
+    private static final class BalanceDelta {
+
+        BigDecimal amount = BigDecimal.ZERO;
+        int entries;
+        LocalDateTime lastEntryAt;
+
+        void add(LedgerEntry entry) {
+            amount = amount.add(entry.getAmount());
+            entries++;
+            if (lastEntryAt == null || entry.getPostedAt().isAfter(lastEntryAt)) {
+                lastEntryAt = entry.getPostedAt();
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.hospital.hms.billing.service.impl;
+
+import com.hospital.hms.billing.aging.InvoiceAging;
+import com.hospital.hms.billing.dto.PaymentPostingResultDto;
+import com.hospital.hms.billing.dto.RejectedPaymentDto;
+import com.hospital.hms.billing.entity.InvoiceStatus;
+import com.hospital.hms.billing.entity.LedgerEntry;
+import com.hospital.hms.billing.posting.RemittanceFile;
+import com.hospital.hms.billing.posting.RemittanceFileParser;
+import com.hospital.hms.billing.posting.RemittancePayment;
+import com.hospital.hms.billing.service.ArAgingService;
+import com.hospital.hms.billing.service.PatientLedgerService;
+import com.hospital.hms.billing.service.PaymentPostingService;
+import com.hospital.hms.shared.exception.BusinessException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of PaymentPostingService
+ *
+ * Payments are grouped by invoice and the invoices are split into chunks
+ * that are posted in parallel, one transaction per chunk. Within a chunk
+ * the invoice rows are locked in invoice-number order, so concurrent
+ * postings queue behind each other instead of failing and two posting runs
+ * can never deadlock. Payments for one invoice are applied serially in file
+ * order, then each chunk writes its invoices, payments, ledger entries and
+ * aging moves with one JDBC batch each. A chunk that hits a transient
+ * database error, or a posting key inserted concurrently by another run, is
+ * re-read and re-applied.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+public class PaymentPostingServiceImpl implements PaymentPostingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPostingServiceImpl.class);
+
+    private static final String LOCK_INVOICES_SQL =
+            "SELECT id, invoice_number, patient_id, provider_id, primary_insurance_id, invoice_date, paid_amount, " +
+            "balance_due, status FROM invoices " +
+            "WHERE invoice_number IN (:invoiceNumbers) ORDER BY invoice_number FOR UPDATE";
+
+    private static final String EXISTING_POSTING_KEYS_SQL =
+            "SELECT posting_key FROM payments WHERE posting_key IN (:postingKeys)";
+
+    private static final String UPDATE_INVOICE_SQL =
+            "UPDATE invoices SET paid_amount = :paidAmount, balance_due = :balanceDue, status = :status, " +
+            "last_payment_date = :lastPaymentDate, last_payment_amount = :lastPaymentAmount, " +
+            "payment_method = :paymentMethod, last_modified_date = :now, version = COALESCE(version, 0) + 1 WHERE id = :id";
+
+    private static final String INSERT_PAYMENT_SQL =
+            "INSERT INTO payments (id, invoice_id, payment_amount, payment_date, payment_method, reference_number, " +
+            "payer_name, posting_key, posting_batch_id, created_date) VALUES (:id, :invoiceId, :amount, " +
+            ":paymentDate, :paymentMethod, :referenceNumber, :payerName, :postingKey, :batchId, :now)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PatientLedgerService patientLedgerService;
+    private final ArAgingService arAgingService;
+    private final TransactionTemplate transactionTemplate;
+    private final RemittanceFileParser parser = new RemittanceFileParser();
+    private final ExecutorService postingExecutor;
+
+    @Value("${billing.payment.posting.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${billing.payment.posting.max-attempts:3}")
+    private int maxAttempts;
+
+    @Autowired
+    public PaymentPostingServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+                                     PatientLedgerService patientLedgerService,
+                                     ArAgingService arAgingService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${billing.payment.posting.parallelism:8}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.patientLedgerService = patientLedgerService;
+        this.arAgingService = arAgingService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.postingExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "payment-posting-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public PaymentPostingResultDto postRemittanceFile(InputStream remittanceFile) throws IOException {
+        long started = System.currentTimeMillis();
+        RemittanceFile file = parser.parse(remittanceFile);
+        UUID batchId = UUID.randomUUID();
+        logger.info("Posting {} file with {} payments as batch {}",
+                   file.getFormat(), file.getPayments().size(), batchId);
+
+        PaymentPostingResultDto result = new PaymentPostingResultDto();
+        result.setBatchId(batchId);
+        result.setFormat(file.getFormat().name());
+        result.setTotalPayments(file.getPayments().size() + file.getUnreadable().size());
+        result.getRejectedPayments().addAll(file.getUnreadable());
+
+        Map<String, List<RemittancePayment>> byInvoice = new LinkedHashMap<>();
+        for (RemittancePayment payment : file.getPayments()) {
+            if (payment.getInvoiceNumber() == null || payment.getInvoiceNumber().isEmpty()) {
+                result.getRejectedPayments().add(rejection(payment, "Missing invoice number"));
+                continue;
+            }
+            byInvoice.computeIfAbsent(payment.getInvoiceNumber(), k -> new ArrayList<>()).add(payment);
+        }
+
+        List<String> invoiceNumbers = new ArrayList<>(byInvoice.keySet());
+        List<Future<ChunkOutcome>> futures = new ArrayList<>();
+        for (int from = 0; from < invoiceNumbers.size(); from += chunkSize) {
+            Map<String, List<RemittancePayment>> chunk = new LinkedHashMap<>();
+            for (String invoiceNumber : invoiceNumbers.subList(from, Math.min(from + chunkSize, invoiceNumbers.size()))) {
+                chunk.put(invoiceNumber, byInvoice.get(invoiceNumber));
+            }
+            futures.add(postingExecutor.submit(() -> postChunkWithRetry(chunk, batchId)));
+        }
+
+        for (Future<ChunkOutcome> future : futures) {
+            try {
+                future.get().mergeInto(result);
+            } catch (ExecutionException e) {
+                logger.error("Payment posting chunk failed in batch {}", batchId, e.getCause());
+                throw new BusinessException("Payment posting failed: " + e.getCause().getMessage(),
+                        "PAYMENT_POSTING_FAILED");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("Payment posting interrupted", "PAYMENT_POSTING_INTERRUPTED");
+            }
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        logger.info("Batch {} posted {} of {} payments ({}) to {} invoices in {} ms, {} rejected, {} duplicates",
+                   batchId, result.getPostedPayments(), result.getTotalPayments(), result.getPostedAmount(),
+                   result.getInvoicesUpdated(), result.getElapsedMillis(),
+                   result.getRejectedPayments().size(), result.getDuplicatePayments());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        postingExecutor.shutdown();
+    }
+
+    private ChunkOutcome postChunkWithRetry(Map<String, List<RemittancePayment>> chunk, UUID batchId) {
+        int retried = 0;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                ChunkOutcome outcome = transactionTemplate.execute(status -> postChunk(chunk, batchId));
+                outcome.invoicesRetried = retried;
+                return outcome;
+            } catch (TransientDataAccessException | DuplicateKeyException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retried = chunk.size();
+                logger.warn("Re-applying {} invoices of batch {} after: {}", chunk.size(), batchId, e.getMessage());
+            }
+        }
+    }
+
+    private ChunkOutcome postChunk(Map<String, List<RemittancePayment>> chunk, UUID batchId) {
+        ChunkOutcome outcome = new ChunkOutcome();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, InvoiceBalance> invoices = new HashMap<>();
+        jdbcTemplate.query(LOCK_INVOICES_SQL, new MapSqlParameterSource("invoiceNumbers", chunk.keySet()), rs -> {
+            InvoiceBalance invoice = new InvoiceBalance();
+            invoice.id = rs.getObject("id", UUID.class);
+            invoice.invoiceNumber = rs.getString("invoice_number");
+            invoice.patientId = rs.getObject("patient_id", UUID.class);
+            invoice.providerId = rs.getObject("provider_id", UUID.class);
+            invoice.payerId = rs.getObject("primary_insurance_id", UUID.class);
+            invoice.invoiceDate = rs.getDate("invoice_date").toLocalDate();
+            invoice.paidAmount = orZero(rs.getBigDecimal("paid_amount"));
+            invoice.balanceDue = orZero(rs.getBigDecimal("balance_due"));
+            invoice.status = InvoiceStatus.valueOf(rs.getString("status"));
+            invoices.put(rs.getString("invoice_number"), invoice);
+        });
+
+        Set<String> alreadyPosted = existingPostingKeys(chunk);
+
+        List<MapSqlParameterSource> invoiceUpdates = new ArrayList<>();
+        List<MapSqlParameterSource> paymentInserts = new ArrayList<>();
+        List<LedgerEntry> ledgerEntries = new ArrayList<>();
+        List<InvoiceAging> agingChanges = new ArrayList<>();
+        for (Map.Entry<String, List<RemittancePayment>> entry : chunk.entrySet()) {
+            InvoiceBalance invoice = invoices.get(entry.getKey());
+            RemittancePayment lastApplied = null;
+            for (RemittancePayment payment : entry.getValue()) {
+                if (alreadyPosted.contains(payment.getPostingKey())) {
+                    outcome.duplicates++;
+                    continue;
+                }
+                String rejection = invoice == null ? "Invoice not found" : invoice.apply(payment);
+                if (rejection != null) {
+                    outcome.rejected.add(rejection(payment, rejection));
+                    continue;
+                }
+                alreadyPosted.add(payment.getPostingKey());
+                paymentInserts.add(paymentParameters(payment, invoice.id, batchId, now));
+                ledgerEntries.add(LedgerEntry.payment(invoice.patientId, invoice.id, payment.getAmount(),
+                        now, payment.getReferenceNumber()));
+                outcome.posted++;
+                outcome.postedAmount = outcome.postedAmount.add(payment.getAmount());
+                lastApplied = payment;
+            }
+            if (lastApplied != null) {
+                invoiceUpdates.add(new MapSqlParameterSource()
+                        .addValue("id", invoice.id)
+                        .addValue("paidAmount", invoice.paidAmount)
+                        .addValue("balanceDue", invoice.balanceDue)
+                        .addValue("status", invoice.status.name())
+                        .addValue("lastPaymentDate", Date.valueOf(lastApplied.getPaymentDate()))
+                        .addValue("lastPaymentAmount", lastApplied.getAmount())
+                        .addValue("paymentMethod", lastApplied.getPaymentMethod().name())
+                        .addValue("now", Timestamp.valueOf(now)));
+                agingChanges.add(new InvoiceAging(invoice.id, invoice.invoiceNumber, invoice.patientId,
+                        invoice.providerId, invoice.payerId, invoice.invoiceDate, invoice.balanceDue));
+            }
+        }
+
+        if (!invoiceUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_INVOICE_SQL, invoiceUpdates.toArray(new MapSqlParameterSource[0]));
+            jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, paymentInserts.toArray(new MapSqlParameterSource[0]));
+            patientLedgerService.recordAll(ledgerEntries);
+            arAgingService.track(agingChanges);
+        }
+        outcome.invoicesUpdated = invoiceUpdates.size();
+        return outcome;
+    }
+
+    private Set<String> existingPostingKeys(Map<String, List<RemittancePayment>> chunk) {
+        List<String> keys = new ArrayList<>();
+        for (List<RemittancePayment> payments : chunk.values()) {
+            for (RemittancePayment payment : payments) {
+                keys.add(payment.getPostingKey());
+            }
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(EXISTING_POSTING_KEYS_SQL,
+                new MapSqlParameterSource("postingKeys", keys), String.class));
+    }
+
+    private static MapSqlParameterSource paymentParameters(RemittancePayment payment, UUID invoiceId,
+                                                           UUID batchId, LocalDateTime now) {
+        return new MapSqlParameterSource()
+                .addValue("id", UUID.randomUUID())
+                .addValue("invoiceId", invoiceId)
+                .addValue("amount", payment.getAmount())
+                .addValue("paymentDate", Date.valueOf(payment.getPaymentDate()))
+                .addValue("paymentMethod", payment.getPaymentMethod().name())
+                .addValue("referenceNumber", payment.getReferenceNumber())
+                .addValue("payerName", payment.getPayerName())
+                .addValue("postingKey", payment.getPostingKey())
+                .addValue("batchId", batchId)
+                .addValue("now", Timestamp.valueOf(now));
+    }
+
+    private static RejectedPaymentDto rejection(RemittancePayment payment, String reason) {
+        return new RejectedPaymentDto(payment.getInvoiceNumber(), payment.getAmount(),
+                payment.getReferenceNumber(), reason);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Running balance of one locked invoice while its payments are applied;
+     * mirrors the checks of InvoiceServiceImpl.processPayment
+     */
+    private static final class InvoiceBalance {
+
+        UUID id;
+        String invoiceNumber;
+        UUID patientId;
+        UUID providerId;
+        UUID payerId;
+        LocalDate invoiceDate;
+        BigDecimal paidAmount;
+        BigDecimal balanceDue;
+        InvoiceStatus status;
+
+        String apply(RemittancePayment payment) {
+            BigDecimal amount = payment.getAmount();
+            if (amount.signum() <= 0) {
+                return "Payment amount must be greater than zero";
+            }
+            if (amount.scale() > 2 && amount.stripTrailingZeros().scale() > 2) {
+                return "Payment amount has more than two decimal places";
+            }
+            if (status == InvoiceStatus.PAID) {
+                return "Invoice already paid";
+            }
+            if (status == InvoiceStatus.CANCELLED || status == InvoiceStatus.REFUNDED) {
+                return "Invoice is " + status;
+            }
+            if (amount.compareTo(balanceDue) > 0) {
+                return "Payment amount exceeds outstanding balance";
+            }
+            paidAmount = paidAmount.add(amount).setScale(2, RoundingMode.UNNECESSARY);
+            balanceDue = balanceDue.subtract(amount).setScale(2, RoundingMode.UNNECESSARY);
+            status = balanceDue.signum() == 0 ? InvoiceStatus.PAID : InvoiceStatus.PARTIALLY_PAID;
+            return null;
+        }
+    }
+
+    private static final class ChunkOutcome {
+
+        int posted;
+        BigDecimal postedAmount = BigDecimal.ZERO;
+        int duplicates;
+        int invoicesUpdated;
+        int invoicesRetried;
+        final List<RejectedPaymentDto> rejected = new ArrayList<>();
+
+        void mergeInto(PaymentPostingResultDto result) {
+            result.setPostedPayments(result.getPostedPayments() + posted);
+            result.setPostedAmount(result.getPostedAmount().add(postedAmount));
+            result.setDuplicatePayments(result.getDuplicatePayments() + duplicates);
+            result.setInvoicesUpdated(result.getInvoicesUpdated() + invoicesUpdated);
+            result.setInvoicesRetried(result.getInvoicesRetried() + invoicesRetried);
+            result.getRejectedPayments().addAll(rejected);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+--liquibase formatted sql
+
+-- Payments posted against invoices. posting_key identifies a payment within
+-- its lockbox or 835 source file; the unique constraint is what makes
+-- re-submitting a file idempotent, including two concurrent submissions.
+
+--changeset hms:001-payments
+CREATE TABLE IF NOT EXISTS payments (
+    id               UUID           NOT NULL PRIMARY KEY,
+    invoice_id       UUID           NOT NULL REFERENCES invoices (id),
+    payment_amount   NUMERIC(19, 2) NOT NULL,
+    payment_date     DATE           NOT NULL,
+    payment_method   VARCHAR(20)    NOT NULL,
+    reference_number VARCHAR(50),
+    payer_name       VARCHAR(200),
+    posting_key      VARCHAR(150),
+    posting_batch_id UUID,
+    created_date     TIMESTAMP      NOT NULL,
+    CONSTRAINT uk_payment_posting_key UNIQUE (posting_key)
+);
+CREATE INDEX IF NOT EXISTS idx_payment_invoice ON payments (invoice_id);
+CREATE INDEX IF NOT EXISTS idx_payment_batch ON payments (posting_batch_id);
+CREATE INDEX IF NOT EXISTS idx_payment_date ON payments (payment_date);
+CREATE INDEX IF NOT EXISTS idx_payment_reference ON payments (reference_number);
+--rollback DROP TABLE IF EXISTS payments;
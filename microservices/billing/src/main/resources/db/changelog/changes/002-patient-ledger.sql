@@ -0,0 +1,74 @@
+--liquibase formatted sql
+
+-- Append-only patient account ledger. Amounts are signed: charges and
+-- refunds are positive, payments and write-offs negative. patient_balances
+-- holds each account's running total, maintained by the application in the
+-- same transaction as every append; patient_balance_checkpoints holds
+-- end-of-day totals for point-in-time lookups.
+
+--changeset hms:002-patient-ledger-tables
+CREATE TABLE IF NOT EXISTS ledger_entries (
+    id          UUID           NOT NULL PRIMARY KEY,
+    patient_id  UUID           NOT NULL,
+    invoice_id  UUID,
+    entry_type  VARCHAR(20)    NOT NULL,
+    amount      NUMERIC(19, 2) NOT NULL,
+    posted_at   TIMESTAMP      NOT NULL,
+    reference   VARCHAR(150),
+    description VARCHAR(255)
+);
+CREATE INDEX IF NOT EXISTS idx_ledger_patient_posted ON ledger_entries (patient_id, posted_at);
+CREATE INDEX IF NOT EXISTS idx_ledger_posted ON ledger_entries (posted_at);
+CREATE INDEX IF NOT EXISTS idx_ledger_invoice ON ledger_entries (invoice_id);
+
+CREATE TABLE IF NOT EXISTS patient_balances (
+    patient_id    UUID           NOT NULL PRIMARY KEY,
+    balance       NUMERIC(19, 2) NOT NULL,
+    entry_count   BIGINT         NOT NULL,
+    last_entry_at TIMESTAMP      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS patient_balance_checkpoints (
+    patient_id      UUID           NOT NULL,
+    checkpoint_date DATE           NOT NULL,
+    balance         NUMERIC(19, 2) NOT NULL,
+    entry_count     BIGINT         NOT NULL,
+    PRIMARY KEY (patient_id, checkpoint_date)
+);
+--rollback DROP TABLE IF EXISTS patient_balance_checkpoints;
+--rollback DROP TABLE IF EXISTS patient_balances;
+--rollback DROP TABLE IF EXISTS ledger_entries;
+
+--changeset hms:002-patient-ledger-guard dbms:postgresql splitStatements:false
+-- The ledger is append-only: reject updates and deletes at the database too
+CREATE OR REPLACE FUNCTION hms_ledger_append_only() RETURNS trigger AS $$
+BEGIN
+    RAISE EXCEPTION 'ledger_entries is append-only; post an adjustment instead';
+END;
+$$ LANGUAGE plpgsql;
+CREATE TRIGGER trg_ledger_append_only BEFORE UPDATE OR DELETE ON ledger_entries
+    FOR EACH ROW EXECUTE FUNCTION hms_ledger_append_only();
+--rollback DROP TRIGGER IF EXISTS trg_ledger_append_only ON ledger_entries;
+--rollback DROP FUNCTION IF EXISTS hms_ledger_append_only();
+
+--changeset hms:002-patient-ledger-opening-balances dbms:postgresql
+-- Open the ledger with each live invoice's charge and payments to date, then
+-- seed the running balances from it
+INSERT INTO ledger_entries (id, patient_id, invoice_id, entry_type, amount, posted_at, reference, description)
+SELECT gen_random_uuid(), patient_id, id, 'CHARGE', total_amount, COALESCE(created_date, invoice_date::timestamp),
+       invoice_number, 'Opening balance'
+FROM invoices
+WHERE status NOT IN ('CANCELLED', 'REFUNDED') AND total_amount <> 0;
+
+INSERT INTO ledger_entries (id, patient_id, invoice_id, entry_type, amount, posted_at, reference, description)
+SELECT gen_random_uuid(), patient_id, id, 'PAYMENT', -paid_amount,
+       COALESCE(last_payment_date::timestamp, last_modified_date, created_date), invoice_number, 'Opening payments'
+FROM invoices
+WHERE status NOT IN ('CANCELLED', 'REFUNDED') AND paid_amount > 0;
+
+INSERT INTO patient_balances (patient_id, balance, entry_count, last_entry_at)
+SELECT patient_id, SUM(amount), COUNT(*), MAX(posted_at)
+FROM ledger_entries
+GROUP BY patient_id
+ON CONFLICT (patient_id) DO NOTHING;
+--rollback DELETE FROM patient_balances;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+-- Invoice numbers are leased from this sequence in blocks. INCREMENT BY
+-- must match billing.numbering.block-size; each nextval hands one service
+-- instance a whole block.
+
+--changeset hms:003-invoice-number-sequence
+CREATE SEQUENCE IF NOT EXISTS invoice_number_seq START WITH 1 INCREMENT BY 100;
+--rollback DROP SEQUENCE IF EXISTS invoice_number_seq;
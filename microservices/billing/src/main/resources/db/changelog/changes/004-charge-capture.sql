@@ -0,0 +1,41 @@
+--liquibase formatted sql
+
+-- Charge capture prices completed visits and procedures from the charge
+-- master and bills them as invoice line items. source_type/source_id name
+-- the encounter a line bills; the unique constraint is what keeps two
+-- capture runs over the same period from charging an encounter twice.
+
+--changeset hms:004-charge-master
+CREATE TABLE IF NOT EXISTS charge_master (
+    charge_code  VARCHAR(50)    NOT NULL PRIMARY KEY,
+    description  VARCHAR(255)   NOT NULL,
+    unit_price   NUMERIC(19, 2) NOT NULL CHECK (unit_price >= 0),
+    cpt_code     VARCHAR(10),
+    revenue_code VARCHAR(10),
+    invoice_type VARCHAR(20)    NOT NULL,
+    active       BOOLEAN        NOT NULL DEFAULT TRUE
+);
+--rollback DROP TABLE IF EXISTS charge_master;
+
+--changeset hms:004-invoice-line-items
+CREATE TABLE IF NOT EXISTS invoice_line_items (
+    id           UUID           NOT NULL PRIMARY KEY,
+    invoice_id   UUID           NOT NULL REFERENCES invoices (id),
+    line_number  INTEGER        NOT NULL,
+    service_date DATE           NOT NULL,
+    charge_code  VARCHAR(50)    NOT NULL,
+    description  VARCHAR(255),
+    cpt_code     VARCHAR(10),
+    revenue_code VARCHAR(10),
+    quantity     INTEGER        NOT NULL,
+    unit_price   NUMERIC(19, 2) NOT NULL,
+    line_total   NUMERIC(19, 2) NOT NULL,
+    source_type  VARCHAR(20),
+    source_id    VARCHAR(64),
+    created_date TIMESTAMP      NOT NULL,
+    CONSTRAINT uk_line_item_source UNIQUE (source_type, source_id)
+);
+CREATE INDEX IF NOT EXISTS idx_line_item_invoice ON invoice_line_items (invoice_id);
+CREATE INDEX IF NOT EXISTS idx_line_item_charge_code ON invoice_line_items (charge_code);
+CREATE INDEX IF NOT EXISTS idx_line_item_source_id ON invoice_line_items (source_id);
+--rollback DROP TABLE IF EXISTS invoice_line_items;
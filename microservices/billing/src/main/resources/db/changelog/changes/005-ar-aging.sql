@@ -0,0 +1,62 @@
+--liquibase formatted sql
+
+-- Accounts receivable aging, maintained incrementally. ar_aging_invoices
+-- records the bucket each open invoice's balance is counted in (0 = 0-30
+-- days, 1 = 31-60, 2 = 61-90, 3 = over 90, by invoice date);
+-- ar_aging_buckets holds the running totals per facility, payer, provider
+-- and patient, spread over stripes that readers add up. The nil UUID is
+-- the facility, and the payer of self-pay invoices.
+
+--changeset hms:005-ar-aging-tables
+CREATE TABLE IF NOT EXISTS ar_aging_invoices (
+    invoice_id         UUID           NOT NULL PRIMARY KEY,
+    invoice_number     VARCHAR(50)    NOT NULL,
+    patient_id         UUID           NOT NULL,
+    provider_id        UUID           NOT NULL,
+    payer_id           UUID           NOT NULL,
+    aging_date         DATE           NOT NULL,
+    bucket             SMALLINT       NOT NULL,
+    balance            NUMERIC(19, 2) NOT NULL,
+    last_modified_date TIMESTAMP      NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_aging_bucket_date ON ar_aging_invoices (bucket, aging_date);
+CREATE INDEX IF NOT EXISTS idx_aging_bucket_balance ON ar_aging_invoices (bucket, balance);
+
+CREATE TABLE IF NOT EXISTS ar_aging_buckets (
+    dimension     VARCHAR(10)    NOT NULL,
+    dimension_id  UUID           NOT NULL,
+    bucket        SMALLINT       NOT NULL,
+    stripe        INTEGER        NOT NULL,
+    balance       NUMERIC(19, 2) NOT NULL,
+    invoice_count BIGINT         NOT NULL,
+    PRIMARY KEY (dimension, dimension_id, bucket, stripe)
+);
+--rollback DROP TABLE IF EXISTS ar_aging_buckets;
+--rollback DROP TABLE IF EXISTS ar_aging_invoices;
+
+--changeset hms:005-ar-aging-opening-balances dbms:postgresql
+-- Seed from the open invoices; stripes only spread write contention, so the
+-- opening totals all start in stripe 0
+INSERT INTO ar_aging_invoices (invoice_id, invoice_number, patient_id, provider_id, payer_id, aging_date, bucket,
+                               balance, last_modified_date)
+SELECT id, invoice_number, patient_id, provider_id,
+       COALESCE(primary_insurance_id, '00000000-0000-0000-0000-000000000000'::uuid), invoice_date,
+       CASE WHEN CURRENT_DATE - invoice_date > 90 THEN 3
+            WHEN CURRENT_DATE - invoice_date > 60 THEN 2
+            WHEN CURRENT_DATE - invoice_date > 30 THEN 1
+            ELSE 0 END,
+       balance_due, CURRENT_TIMESTAMP
+FROM invoices
+WHERE status NOT IN ('CANCELLED', 'REFUNDED') AND balance_due > 0;
+
+INSERT INTO ar_aging_buckets (dimension, dimension_id, bucket, stripe, balance, invoice_count)
+SELECT 'FACILITY', '00000000-0000-0000-0000-000000000000'::uuid, bucket, 0, SUM(balance), COUNT(*)
+FROM ar_aging_invoices GROUP BY bucket
+UNION ALL
+SELECT 'PAYER', payer_id, bucket, 0, SUM(balance), COUNT(*) FROM ar_aging_invoices GROUP BY payer_id, bucket
+UNION ALL
+SELECT 'PROVIDER', provider_id, bucket, 0, SUM(balance), COUNT(*) FROM ar_aging_invoices GROUP BY provider_id, bucket
+UNION ALL
+SELECT 'PATIENT', patient_id, bucket, 0, SUM(balance), COUNT(*) FROM ar_aging_invoices GROUP BY patient_id, bucket;
+--rollback DELETE FROM ar_aging_buckets;
+--rollback DELETE FROM ar_aging_invoices;
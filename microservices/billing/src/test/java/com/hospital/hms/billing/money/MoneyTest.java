@@ -0,0 +1,65 @@
+package com.hospital.hms.billing.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Money
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class MoneyTest {
+
+    @Test
+    void of_ConvertsToCents() {
+        assertEquals(1250, Money.of(new BigDecimal("12.5")).cents());
+        assertEquals(-99, Money.of(new BigDecimal("-0.99")).cents());
+        assertEquals(Money.ofCents(1250), Money.of(new BigDecimal("12.500")));
+    }
+
+    @Test
+    void of_RejectsFractionsOfACent() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("10.005")));
+    }
+
+    @Test
+    void ofCents_ZeroIsShared() {
+        assertSame(Money.ZERO, Money.ofCents(0));
+        assertSame(Money.ZERO, Money.ofCents(500).minus(Money.ofCents(500)));
+    }
+
+    @Test
+    void arithmetic_KeepsExactCents() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.of(new BigDecimal("0.10")));
+        }
+
+        assertEquals(Money.ofCents(100), total);
+        assertEquals(Money.ofCents(-50), Money.ofCents(100).minus(Money.ofCents(150)));
+        assertEquals(Money.ofCents(3675), Money.ofCents(1225).times(3));
+        assertTrue(Money.ofCents(-1).isNegative());
+        assertTrue(Money.ofCents(1).minus(Money.ofCents(1)).isZero());
+    }
+
+    @Test
+    void arithmetic_OverflowThrows() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).minus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void toBigDecimal_HasCurrencyScale() {
+        assertEquals(new BigDecimal("7.00"), Money.ofCents(700).toBigDecimal());
+        assertEquals("-0.05", Money.ofCents(-5).toString());
+        assertTrue(Money.ofCents(5).compareTo(Money.ofCents(-5)) > 0);
+    }
+}
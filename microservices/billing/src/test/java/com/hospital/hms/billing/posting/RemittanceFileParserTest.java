@@ -0,0 +1,151 @@
+package com.hospital.hms.billing.posting;
+
+import com.hospital.hms.billing.entity.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RemittanceFileParser
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class RemittanceFileParserTest {
+
+    private static final String ISA = "ISA*00*          *00*          *ZZ*PAYER          *ZZ*HMS            "
+            + "*260105*0930*^*00501*000000017*0*P*:~";
+
+    private final RemittanceFileParser parser = new RemittanceFileParser();
+
+    @Test
+    void parse_ReadsLockboxPayments() throws IOException {
+        RemittanceFile file = parse("invoice_number,amount,check_number,payment_date,payer_name\n"
+                + "INV-1,125.50,CHK-9,2026-01-05,ACME HEALTH\n");
+
+        assertEquals(RemittanceFile.Format.LOCKBOX, file.getFormat());
+        RemittancePayment payment = file.getPayments().get(0);
+        assertEquals("INV-1", payment.getInvoiceNumber());
+        assertEquals(new BigDecimal("125.50"), payment.getAmount());
+        assertEquals(LocalDate.of(2026, 1, 5), payment.getPaymentDate());
+        assertEquals(PaymentMethod.CHECK, payment.getPaymentMethod());
+        assertEquals("CHK-9", payment.getReferenceNumber());
+        assertEquals("ACME HEALTH", payment.getPayerName());
+    }
+
+    @Test
+    void parse_LockboxKeysDoNotDependOnLinePosition() throws IOException {
+        RemittanceFile original = parse("INV-1,100.00,CHK-1,2026-01-05\n"
+                + "INV-2,40.00,CHK-1,2026-01-05\n");
+        RemittanceFile resent = parse("invoice_number,amount,check_number,payment_date\n"
+                + "\n"
+                + "INV-3,75.00,CHK-2,2026-01-06\n"
+                + "INV-2,40,CHK-1,2026-01-05\n"
+                + "INV-1,100.00,CHK-1,2026-01-05\n");
+
+        List<String> resentKeys = resent.getPayments().stream().map(RemittancePayment::getPostingKey).toList();
+        for (RemittancePayment payment : original.getPayments()) {
+            assertTrue(resentKeys.contains(payment.getPostingKey()), payment.getPostingKey());
+        }
+    }
+
+    @Test
+    void parse_LockboxKeepsIdenticalEntriesApart() throws IOException {
+        RemittanceFile file = parse("INV-1,50.00,CHK-1,2026-01-05\n"
+                + "INV-1,50.00,CHK-1,2026-01-05\n");
+
+        assertEquals(2, file.getPayments().size());
+        assertNotEquals(file.getPayments().get(0).getPostingKey(), file.getPayments().get(1).getPostingKey());
+    }
+
+    @Test
+    void parse_ReportsUnreadableLockboxLines() throws IOException {
+        RemittanceFile file = parse("INV-1,abc,CHK-1,2026-01-05\nINV-2,10.00\n");
+
+        assertTrue(file.getPayments().isEmpty());
+        assertEquals(2, file.getUnreadable().size());
+        assertEquals("Unreadable amount or date", file.getUnreadable().get(0).getReason());
+        assertEquals("Expected at least 4 columns", file.getUnreadable().get(1).getReason());
+    }
+
+    @Test
+    void parse_ReadsClaimPaymentsOf835() throws IOException {
+        RemittanceFile file = parse(ISA + "GS*HP*PAYER*HMS*20260105*0930*17*X*005010X221A1~"
+                + "ST*835*0001~BPR*I*300*C*ACH*CCP*01*111*DA*222*1234567890**01*333*DA*444*20260107~"
+                + "TRN*1*EFT-555*1234567890~N1*PR*ACME HEALTH~"
+                + "CLP*INV-1*1*250*200**MC*PCN1~CLP*INV-2*4*80*0**MC*PCN2~CLP*INV-3*1*120*100**MC*PCN3~"
+                + "SE*8*0001~GE*1*17~IEA*1*000000017~");
+
+        assertEquals(RemittanceFile.Format.X12_835, file.getFormat());
+        assertEquals(2, file.getPayments().size(), "Zero-paid claims are skipped");
+        RemittancePayment first = file.getPayments().get(0);
+        assertEquals("INV-1", first.getInvoiceNumber());
+        assertEquals(new BigDecimal("200"), first.getAmount());
+        assertEquals(LocalDate.of(2026, 1, 7), first.getPaymentDate());
+        assertEquals(PaymentMethod.INSURANCE, first.getPaymentMethod());
+        assertEquals("EFT-555", first.getReferenceNumber());
+        assertEquals("ACME HEALTH", first.getPayerName());
+        assertTrue(first.getPostingKey().startsWith("835:EFT-555:INV-1:"));
+    }
+
+    @Test
+    void parse_835KeysAreStableWhenTheFileIsResent() throws IOException {
+        String remittance = "GS*HP*PAYER*HMS*20260105*0930*17*X*005010X221A1~ST*835*0001~"
+                + "TRN*1*EFT-555*1234567890~CLP*INV-1*1*250*200**MC*PCN1~CLP*INV-3*1*120*100**MC*PCN3~"
+                + "SE*5*0001~GE*1*17~IEA*1*000000017~";
+
+        List<String> original = parse(ISA + remittance).getPayments().stream()
+                .map(RemittancePayment::getPostingKey).toList();
+        List<String> resent = parse(ISA + remittance).getPayments().stream()
+                .map(RemittancePayment::getPostingKey).toList();
+
+        assertEquals(original, resent);
+    }
+
+    @Test
+    void parse_835KeysDoNotDependOnClaimPosition() throws IOException {
+        List<String> original = parse(ISA + "GS*HP*PAYER*HMS*20260105*0930*17*X*005010X221A1~ST*835*0001~"
+                + "TRN*1*EFT-555*1234567890~CLP*INV-1*1*250*200**MC*PCN1~CLP*INV-3*1*120*100**MC*PCN3~"
+                + "SE*5*0001~GE*1*17~IEA*1*000000017~").getPayments().stream()
+                .map(RemittancePayment::getPostingKey).toList();
+        List<String> resent = parse(ISA + "GS*HP*PAYER*HMS*20260105*0930*17*X*005010X221A1~ST*835*0001~"
+                + "TRN*1*EFT-555*1234567890~CLP*INV-4*1*90*90**MC*PCN4~CLP*INV-3*1*120*100.00**MC*PCN3~"
+                + "CLP*INV-1*1*250*200**MC*PCN1~SE*6*0001~GE*1*17~IEA*1*000000017~").getPayments().stream()
+                .map(RemittancePayment::getPostingKey).toList();
+
+        assertEquals(3, resent.size());
+        assertTrue(resent.containsAll(original), resent.toString());
+    }
+
+    @Test
+    void parse_835KeepsIdenticalClaimPaymentsApart() throws IOException {
+        RemittanceFile file = parse(ISA + "GS*HP*PAYER*HMS*20260105*0930*17*X*005010X221A1~ST*835*0001~"
+                + "TRN*1*EFT-555*1234567890~CLP*INV-1*1*50*50**MC*PCN1~CLP*INV-1*1*50*50**MC*PCN1~"
+                + "SE*5*0001~GE*1*17~IEA*1*000000017~");
+
+        assertEquals(2, file.getPayments().size());
+        assertNotEquals(file.getPayments().get(0).getPostingKey(), file.getPayments().get(1).getPostingKey());
+    }
+
+    @Test
+    void parse_Rejects835ClaimsWithoutTrace() throws IOException {
+        RemittanceFile file = parse(ISA + "GS*HP*PAYER*HMS*20260105*0930*17*X*005010X221A1~ST*835*0001~"
+                + "CLP*INV-1*1*250*200**MC*PCN1~SE*3*0001~GE*1*17~IEA*1*000000017~");
+
+        assertTrue(file.getPayments().isEmpty());
+        assertEquals(1, file.getUnreadable().size());
+        assertEquals("INV-1", file.getUnreadable().get(0).getInvoiceNumber());
+        assertEquals("Missing TRN reassociation trace", file.getUnreadable().get(0).getReason());
+    }
+
+    private RemittanceFile parse(String content) throws IOException {
+        return parser.parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
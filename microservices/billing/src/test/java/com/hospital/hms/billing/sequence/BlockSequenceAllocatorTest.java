@@ -0,0 +1,143 @@
+package com.hospital.hms.billing.sequence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BlockSequenceAllocator
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class BlockSequenceAllocatorTest {
+
+    private static final int BLOCK_SIZE = 100;
+
+    /**
+     * Stands in for a database sequence with INCREMENT BY BLOCK_SIZE; each
+     * lease is one round trip
+     */
+    private static final class CountingSequence implements BlockSequenceAllocator.BlockSource {
+
+        final AtomicLong nextStart = new AtomicLong(1);
+        final AtomicInteger roundTrips = new AtomicInteger();
+        final long latencyNanos;
+
+        CountingSequence(long latencyNanos) {
+            this.latencyNanos = latencyNanos;
+        }
+
+        @Override
+        public long[] lease(int blocks) {
+            roundTrips.incrementAndGet();
+            if (latencyNanos > 0) {
+                long until = System.nanoTime() + latencyNanos;
+                while (System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+            }
+            long[] starts = new long[blocks];
+            for (int i = 0; i < blocks; i++) {
+                starts[i] = nextStart.getAndAdd(BLOCK_SIZE);
+            }
+            return starts;
+        }
+    }
+
+    @Test
+    void next_LeasesOneBlockPerBlockSizeValues() {
+        CountingSequence sequence = new CountingSequence(0);
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(sequence, BLOCK_SIZE);
+
+        for (long expected = 1; expected <= 250; expected++) {
+            assertEquals(expected, allocator.next());
+        }
+        assertEquals(3, sequence.roundTrips.get());
+    }
+
+    @Test
+    void reserve_LeasesWholeBlocksInOneRoundTrip() {
+        CountingSequence sequence = new CountingSequence(0);
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(sequence, BLOCK_SIZE);
+        allocator.next();
+
+        long[] values = allocator.reserve(1_050);
+
+        assertEquals(1_050, values.length);
+        for (int i = 1; i < values.length; i++) {
+            assertTrue(values[i] > values[i - 1], "Reserved values must ascend");
+        }
+        // Ten whole blocks come from one private lease; the tail comes from the shared block
+        assertEquals(2, values[0]);
+        assertEquals(51, values[49]);
+        assertEquals(101, values[50]);
+        assertEquals(2, sequence.roundTrips.get());
+        assertEquals(52, allocator.next());
+    }
+
+    @Test
+    void next_ConcurrentAllocationIsUniqueAndMonotonicPerThread() throws Exception {
+        int threads = 16;
+        int perThread = 20_000;
+        int reservationsPerThread = 40;
+        int reservationSize = 250;
+
+        // A short lease latency widens the window in which threads race for the next block
+        CountingSequence sequence = new CountingSequence(50_000);
+        BlockSequenceAllocator allocator = new BlockSequenceAllocator(sequence, BLOCK_SIZE);
+        ConcurrentHashMap<Long, Boolean> seen = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger regressions = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    long previous = Long.MIN_VALUE;
+                    for (int i = 0; i < perThread; i++) {
+                        long value = allocator.next();
+                        if (value <= previous) {
+                            regressions.incrementAndGet();
+                        }
+                        previous = value;
+                        if (seen.putIfAbsent(value, Boolean.TRUE) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                        if (i % (perThread / reservationsPerThread) == 0) {
+                            for (long reserved : allocator.reserve(reservationSize)) {
+                                if (seen.putIfAbsent(reserved, Boolean.TRUE) != null) {
+                                    duplicates.incrementAndGet();
+                                }
+                            }
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        long allocated = (long) threads * (perThread + (long) reservationsPerThread * reservationSize);
+        assertEquals(0, duplicates.get());
+        assertEquals(0, regressions.get());
+        assertEquals(allocated, seen.size());
+    }
+}
@@ -0,0 +1,260 @@
+package com.hospital.hms.billing.service.impl;
+
+import com.hospital.hms.billing.aging.InvoiceAging;
+import com.hospital.hms.billing.entity.AgingBucket;
+import com.hospital.hms.billing.entity.AgingDimension;
+import com.hospital.hms.billing.mapper.AgedInvoiceMapper;
+import com.hospital.hms.billing.repository.AgedInvoiceRepository;
+import com.hospital.hms.billing.repository.AgingBucketBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ArAgingServiceImpl
+ *
+ * The aging rows and bucket balances live in memory and are changed only
+ * through the statements the service sends, so every check of a bucket
+ * total also checks that the signed deltas add up.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class ArAgingServiceImplTest {
+
+    private static final UUID PATIENT_ID = UUID.randomUUID();
+    private static final UUID PROVIDER_ID = UUID.randomUUID();
+    private static final UUID PAYER_ID = UUID.randomUUID();
+
+    private final LocalDate today = LocalDate.now();
+
+    /**
+     * Invoice ID to {aging date, bucket ordinal, balance}
+     */
+    private final Map<UUID, Object[]> tracked = new TreeMap<>();
+    private final Map<String, BigDecimal> bucketBalances = new HashMap<>();
+    private final Map<String, Integer> bucketCounts = new HashMap<>();
+    private ArAgingServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        doAnswer(invocation -> {
+            SqlParameterSource parameters = invocation.getArgument(1);
+            RowCallbackHandler handler = invocation.getArgument(2);
+            String sql = invocation.getArgument(0);
+            if (sql.contains("WHERE invoice_id IN")) {
+                for (Object invoiceId : (Collection<?>) parameters.getValue("invoiceIds")) {
+                    if (tracked.containsKey(invoiceId)) {
+                        handler.processRow(row((UUID) invoiceId, tracked.get(invoiceId)));
+                    }
+                }
+            } else {
+                int bucket = (Integer) parameters.getValue("bucket");
+                LocalDate cutoff = ((Date) parameters.getValue("cutoff")).toLocalDate();
+                int limit = (Integer) parameters.getValue("limit");
+                int rows = 0;
+                for (Map.Entry<UUID, Object[]> entry : tracked.entrySet()) {
+                    Object[] invoice = entry.getValue();
+                    if (rows < limit && (Integer) invoice[1] == bucket && !((LocalDate) invoice[0]).isAfter(cutoff)) {
+                        handler.processRow(row(entry.getKey(), invoice));
+                        rows++;
+                    }
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            SqlParameterSource[] batch = invocation.getArgument(1);
+            for (SqlParameterSource parameters : batch) {
+                if (sql.startsWith("INSERT INTO ar_aging_invoices")) {
+                    UUID invoiceId = (UUID) parameters.getValue("invoiceId");
+                    // The upsert keeps the bucket and aging date of an invoice already tracked
+                    Object[] existing = tracked.get(invoiceId);
+                    tracked.put(invoiceId, existing != null
+                            ? new Object[]{existing[0], existing[1], parameters.getValue("balance")}
+                            : new Object[]{((Date) parameters.getValue("agingDate")).toLocalDate(),
+                                    parameters.getValue("bucket"), parameters.getValue("balance")});
+                } else if (sql.startsWith("UPDATE ar_aging_invoices")) {
+                    tracked.get((UUID) parameters.getValue("invoiceId"))[1] = parameters.getValue("bucket");
+                } else {
+                    String key = bucketKey(AgingDimension.valueOf((String) parameters.getValue("dimension")),
+                            (UUID) parameters.getValue("dimensionId"),
+                            AgingBucket.values()[(Integer) parameters.getValue("bucket")]);
+                    bucketBalances.merge(key, (BigDecimal) parameters.getValue("balance"), BigDecimal::add);
+                    bucketCounts.merge(key, (Integer) parameters.getValue("invoiceCount"), Integer::sum);
+                }
+            }
+            return new int[batch.length];
+        });
+        when(jdbcTemplate.update(startsWith("DELETE FROM ar_aging_invoices"), any(SqlParameterSource.class)))
+                .thenAnswer(invocation -> {
+                    Collection<?> invoiceIds = (Collection<?>) invocation.<SqlParameterSource>getArgument(1)
+                            .getValue("invoiceIds");
+                    invoiceIds.forEach(tracked::remove);
+                    return invoiceIds.size();
+                });
+
+        service = new ArAgingServiceImpl(jdbcTemplate, mock(AgingBucketBalanceRepository.class),
+                mock(AgedInvoiceRepository.class), mock(AgedInvoiceMapper.class),
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "stripes", 4);
+        ReflectionTestUtils.setField(service, "rollBatchSize", 1000);
+    }
+
+    @Test
+    void forAge_BucketBoundaries() {
+        assertEquals(AgingBucket.CURRENT, AgingBucket.forAge(0));
+        assertEquals(AgingBucket.CURRENT, AgingBucket.forAge(30));
+        assertEquals(AgingBucket.DAYS_31_60, AgingBucket.forAge(31));
+        assertEquals(AgingBucket.DAYS_31_60, AgingBucket.forAge(60));
+        assertEquals(AgingBucket.DAYS_61_90, AgingBucket.forAge(61));
+        assertEquals(AgingBucket.DAYS_61_90, AgingBucket.forAge(90));
+        assertEquals(AgingBucket.OVER_90, AgingBucket.forAge(91));
+        assertEquals(AgingBucket.CURRENT, AgingBucket.forAge(-1), "Future-dated invoices are current");
+    }
+
+    @Test
+    void track_NewInvoicesLandInTheBucketOfTheirAge() {
+        track(UUID.randomUUID(), 30, "10.00");
+        track(UUID.randomUUID(), 31, "20.00");
+        track(UUID.randomUUID(), 90, "30.00");
+        track(UUID.randomUUID(), 91, "40.00");
+
+        assertFacility(AgingBucket.CURRENT, "10.00", 1);
+        assertFacility(AgingBucket.DAYS_31_60, "20.00", 1);
+        assertFacility(AgingBucket.DAYS_61_90, "30.00", 1);
+        assertFacility(AgingBucket.OVER_90, "40.00", 1);
+        assertEquals(new BigDecimal("40.00"), balance(AgingDimension.PAYER, PAYER_ID, AgingBucket.OVER_90));
+        assertEquals(new BigDecimal("40.00"), balance(AgingDimension.PATIENT, PATIENT_ID, AgingBucket.OVER_90));
+    }
+
+    @Test
+    void track_PaymentMovesOnlyTheDifference() {
+        UUID invoiceId = UUID.randomUUID();
+        track(invoiceId, 5, "100.00");
+
+        track(invoiceId, 5, "60.00");
+
+        assertFacility(AgingBucket.CURRENT, "60.00", 1);
+        assertEquals(new BigDecimal("60.00"), tracked.get(invoiceId)[2]);
+    }
+
+    @Test
+    void track_KeepsTheBucketOfATrackedInvoice() {
+        UUID invoiceId = UUID.randomUUID();
+        track(invoiceId, 10, "100.00");
+        tracked.get(invoiceId)[0] = today.minusDays(45);
+
+        track(invoiceId, 45, "80.00");
+
+        assertFacility(AgingBucket.CURRENT, "80.00", 1);
+        assertFacility(AgingBucket.DAYS_31_60, "0", 0);
+    }
+
+    @Test
+    void track_ZeroBalanceClosesTheInvoice() {
+        UUID invoiceId = UUID.randomUUID();
+        track(invoiceId, 40, "75.00");
+
+        track(invoiceId, 40, "0.00");
+
+        assertFalse(tracked.containsKey(invoiceId));
+        assertFacility(AgingBucket.DAYS_31_60, "0.00", 0);
+    }
+
+    @Test
+    void rollBuckets_MovesInvoicesThatCrossedABoundary() {
+        UUID staying = UUID.randomUUID();
+        UUID crossed31 = UUID.randomUUID();
+        UUID crossed61 = UUID.randomUUID();
+        UUID missedRolls = UUID.randomUUID();
+        track(staying, 0, "1.00");
+        track(crossed31, 0, "2.00");
+        track(crossed61, 31, "3.00");
+        track(missedRolls, 0, "4.00");
+        tracked.get(staying)[0] = today.minusDays(30);
+        tracked.get(crossed31)[0] = today.minusDays(31);
+        tracked.get(crossed61)[0] = today.minusDays(61);
+        tracked.get(missedRolls)[0] = today.minusDays(95);
+
+        assertEquals(3, service.rollBuckets());
+
+        assertEquals(AgingBucket.CURRENT.ordinal(), tracked.get(staying)[1]);
+        assertEquals(AgingBucket.DAYS_31_60.ordinal(), tracked.get(crossed31)[1]);
+        assertEquals(AgingBucket.DAYS_61_90.ordinal(), tracked.get(crossed61)[1]);
+        assertEquals(AgingBucket.OVER_90.ordinal(), tracked.get(missedRolls)[1]);
+        assertFacility(AgingBucket.CURRENT, "1.00", 1);
+        assertFacility(AgingBucket.DAYS_31_60, "2.00", 1);
+        assertFacility(AgingBucket.DAYS_61_90, "3.00", 1);
+        assertFacility(AgingBucket.OVER_90, "4.00", 1);
+        assertEquals(0, service.rollBuckets(), "A second roll the same day moves nothing");
+    }
+
+    @Test
+    void rollBuckets_DrainsInFullBatches() {
+        ReflectionTestUtils.setField(service, "rollBatchSize", 1);
+        for (int i = 0; i < 3; i++) {
+            UUID invoiceId = UUID.randomUUID();
+            track(invoiceId, 0, "5.00");
+            tracked.get(invoiceId)[0] = today.minusDays(35);
+        }
+
+        assertEquals(3, service.rollBuckets());
+        assertFacility(AgingBucket.CURRENT, "0.00", 0);
+        assertFacility(AgingBucket.DAYS_31_60, "15.00", 3);
+    }
+
+    private void track(UUID invoiceId, int ageDays, String balance) {
+        service.track(List.of(new InvoiceAging(invoiceId, "INV-" + invoiceId, PATIENT_ID, PROVIDER_ID, PAYER_ID,
+                today.minusDays(ageDays), new BigDecimal(balance))));
+    }
+
+    private void assertFacility(AgingBucket bucket, String balance, int count) {
+        String key = bucketKey(AgingDimension.FACILITY, AgingDimension.FACILITY_ID, bucket);
+        assertEquals(0, new BigDecimal(balance).compareTo(bucketBalances.getOrDefault(key, BigDecimal.ZERO)),
+                bucket + " balance");
+        assertEquals(count, bucketCounts.getOrDefault(key, 0), bucket + " count");
+    }
+
+    private BigDecimal balance(AgingDimension dimension, UUID dimensionId, AgingBucket bucket) {
+        return bucketBalances.getOrDefault(bucketKey(dimension, dimensionId, bucket), BigDecimal.ZERO);
+    }
+
+    private static String bucketKey(AgingDimension dimension, UUID dimensionId, AgingBucket bucket) {
+        return dimension + "/" + dimensionId + "/" + bucket;
+    }
+
+    private static ResultSet row(UUID invoiceId, Object[] invoice) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("invoice_id", UUID.class)).thenReturn(invoiceId);
+        when(rs.getObject("patient_id", UUID.class)).thenReturn(PATIENT_ID);
+        when(rs.getObject("provider_id", UUID.class)).thenReturn(PROVIDER_ID);
+        when(rs.getObject("payer_id", UUID.class)).thenReturn(PAYER_ID);
+        when(rs.getDate("aging_date")).thenReturn(Date.valueOf((LocalDate) invoice[0]));
+        when(rs.getInt("bucket")).thenReturn((Integer) invoice[1]);
+        when(rs.getBigDecimal("balance")).thenReturn((BigDecimal) invoice[2]);
+        return rs;
+    }
+}
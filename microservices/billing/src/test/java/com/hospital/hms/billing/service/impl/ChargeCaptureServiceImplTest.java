@@ -0,0 +1,262 @@
+package com.hospital.hms.billing.service.impl;
+
+import com.hospital.hms.billing.client.AppointmentSchedulingClient;
+import com.hospital.hms.billing.client.ProcedureManagementClient;
+import com.hospital.hms.billing.dto.ChargeCaptureResultDto;
+import com.hospital.hms.billing.dto.CompletedAppointmentDto;
+import com.hospital.hms.billing.dto.CompletedProcedureDto;
+import com.hospital.hms.billing.entity.ChargeMasterItem;
+import com.hospital.hms.billing.entity.InvoiceType;
+import com.hospital.hms.billing.repository.ChargeMasterRepository;
+import com.hospital.hms.billing.sequence.InvoiceNumberAllocator;
+import com.hospital.hms.billing.service.ArAgingService;
+import com.hospital.hms.billing.service.PatientLedgerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChargeCaptureServiceImpl
+ *
+ * Line items are kept in memory keyed by source type and ID, and a second
+ * insert of the same key fails the way uk_line_item_source does.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class ChargeCaptureServiceImplTest {
+
+    private static final LocalDate SERVICE_DATE = LocalDate.of(2026, 1, 5);
+    private static final UUID FACILITY_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private final Set<String> lineItemSources = ConcurrentHashMap.newKeySet();
+    private final Set<String> billedByOtherRun = ConcurrentHashMap.newKeySet();
+    private final List<SqlParameterSource> invoiceRows = new CopyOnWriteArrayList<>();
+    private final List<CompletedAppointmentDto> appointments = new ArrayList<>();
+    private final List<CompletedProcedureDto> procedures = new ArrayList<>();
+    private final AtomicInteger invoiceNumbers = new AtomicInteger();
+    private ChargeCaptureServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (String source : lineItemSources) {
+                handler.processRow(row(source));
+            }
+            // Another run commits its line items right after this one looked
+            lineItemSources.addAll(billedByOtherRun);
+            billedByOtherRun.clear();
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT source_type"), any(SqlParameterSource.class),
+                any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            SqlParameterSource[] batch = invocation.getArgument(1);
+            if (sql.startsWith("INSERT INTO invoices")) {
+                invoiceRows.addAll(List.of(batch));
+            } else {
+                for (SqlParameterSource parameters : batch) {
+                    if (lineItemSources.contains(sourceKey(parameters))) {
+                        throw new DuplicateKeyException("uk_line_item_source");
+                    }
+                }
+                for (SqlParameterSource parameters : batch) {
+                    lineItemSources.add(sourceKey(parameters));
+                }
+            }
+            return new int[batch.length];
+        });
+
+        AppointmentSchedulingClient appointmentClient = mock(AppointmentSchedulingClient.class);
+        when(appointmentClient.getCompletedAppointments(any(), any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> invocation.<Integer>getArgument(2) == 0 ? appointments : List.of());
+        ProcedureManagementClient procedureClient = mock(ProcedureManagementClient.class);
+        when(procedureClient.getCompletedProcedures(any(), any(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> invocation.<Integer>getArgument(2) == 0 ? procedures : List.of());
+        ChargeMasterRepository chargeMasterRepository = mock(ChargeMasterRepository.class);
+        when(chargeMasterRepository.findByActiveTrue()).thenReturn(List.of(
+                item("VISIT-CONSULTATION", "150.00", InvoiceType.CONSULTATION),
+                item("PROC-MRI", "1200.50", InvoiceType.RADIOLOGY)));
+        InvoiceNumberAllocator invoiceNumberAllocator = mock(InvoiceNumberAllocator.class);
+        when(invoiceNumberAllocator.reserveInvoiceNumbers(anyInt())).thenAnswer(invocation -> {
+            List<String> numbers = new ArrayList<>();
+            for (int i = 0; i < invocation.<Integer>getArgument(0); i++) {
+                numbers.add("INV-" + invoiceNumbers.incrementAndGet());
+            }
+            return numbers;
+        });
+
+        service = new ChargeCaptureServiceImpl(appointmentClient, procedureClient, chargeMasterRepository,
+                invoiceNumberAllocator, mock(PatientLedgerService.class), mock(ArAgingService.class),
+                jdbcTemplate, mock(PlatformTransactionManager.class), 2);
+        ReflectionTestUtils.setField(service, "pageSize", 1000);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "maxPeriodDays", 31);
+        ReflectionTestUtils.setField(service, "facilityProviderId", FACILITY_ID);
+        ReflectionTestUtils.setField(service, "facilityProviderName", "Facility");
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void captureCharges_GroupsChargesByPatientAndServiceDate() {
+        UUID patient = UUID.randomUUID();
+        UUID otherPatient = UUID.randomUUID();
+        UUID provider = UUID.randomUUID();
+        appointment(patient, provider, SERVICE_DATE.atTime(9, 0));
+        procedure(patient, SERVICE_DATE.atTime(14, 0));
+        appointment(patient, provider, SERVICE_DATE.plusDays(1).atTime(9, 0));
+        appointment(otherPatient, provider, SERVICE_DATE.atTime(10, 0));
+
+        ChargeCaptureResultDto result = service.captureCharges(SERVICE_DATE, SERVICE_DATE.plusDays(1));
+
+        assertEquals(3, result.getInvoicesCreated());
+        assertEquals(4, result.getLineItemsCreated());
+        assertEquals(new BigDecimal("1650.50"), result.getTotalCharged());
+        SqlParameterSource combined = invoiceFor(patient, SERVICE_DATE);
+        assertEquals(new BigDecimal("1350.50"), combined.getValue("total"));
+        assertEquals(InvoiceType.RADIOLOGY.name(), combined.getValue("invoiceType"));
+        assertEquals(provider, combined.getValue("providerId"), "Provider is taken from the visit");
+        assertEquals(new BigDecimal("150.00"), invoiceFor(patient, SERVICE_DATE.plusDays(1)).getValue("total"));
+    }
+
+    @Test
+    void captureCharges_HoldsProcedureOnlyInvoicesForDemographics() {
+        UUID patient = UUID.randomUUID();
+        procedure(patient, SERVICE_DATE.atTime(14, 0));
+
+        ChargeCaptureResultDto result = service.captureCharges(SERVICE_DATE, SERVICE_DATE);
+
+        assertEquals(1, result.getInvoicesOnHold());
+        SqlParameterSource invoice = invoiceFor(patient, SERVICE_DATE);
+        assertEquals(Boolean.TRUE, invoice.getValue("holdBilling"));
+        assertEquals(FACILITY_ID, invoice.getValue("providerId"));
+    }
+
+    @Test
+    void captureCharges_SkipsUnpricedAndRepeatedEncounters() {
+        UUID patient = UUID.randomUUID();
+        CompletedAppointmentDto visit = appointment(patient, UUID.randomUUID(), SERVICE_DATE.atTime(9, 0));
+        appointments.add(visit);
+        appointment(patient, UUID.randomUUID(), SERVICE_DATE.atTime(11, 0)).setAppointmentType("Telehealth");
+
+        ChargeCaptureResultDto result = service.captureCharges(SERVICE_DATE, SERVICE_DATE);
+
+        assertEquals(1, result.getLineItemsCreated());
+        assertEquals(1, result.getUnbillable());
+        assertEquals(Set.of("VISIT-TELEHEALTH"), result.getUnpricedChargeCodes());
+    }
+
+    @Test
+    void captureCharges_RerunBillsNothingTwice() {
+        UUID patient = UUID.randomUUID();
+        appointment(patient, UUID.randomUUID(), SERVICE_DATE.atTime(9, 0));
+        procedure(patient, SERVICE_DATE.atTime(14, 0));
+        service.captureCharges(SERVICE_DATE, SERVICE_DATE);
+
+        ChargeCaptureResultDto rerun = service.captureCharges(SERVICE_DATE, SERVICE_DATE);
+
+        assertEquals(0, rerun.getInvoicesCreated());
+        assertEquals(2, rerun.getAlreadyBilled());
+        assertEquals(1, invoiceRows.size());
+    }
+
+    @Test
+    void captureCharges_ReappliesChunkWhenAnotherRunBilledTheSameEncounter() {
+        UUID patient = UUID.randomUUID();
+        appointment(patient, UUID.randomUUID(), SERVICE_DATE.atTime(9, 0));
+        CompletedProcedureDto procedure = procedure(patient, SERVICE_DATE.atTime(14, 0));
+        billedByOtherRun.add("PROCEDURE:" + procedure.getProcedureId());
+
+        ChargeCaptureResultDto result = service.captureCharges(SERVICE_DATE, SERVICE_DATE);
+
+        assertEquals(1, result.getChunksRetried());
+        assertEquals(1, result.getAlreadyBilled());
+        assertEquals(1, result.getLineItemsCreated());
+        assertEquals(new BigDecimal("150.00"), result.getTotalCharged());
+    }
+
+    private CompletedAppointmentDto appointment(UUID patientId, UUID providerId, LocalDateTime at) {
+        CompletedAppointmentDto appointment = new CompletedAppointmentDto();
+        appointment.setId(UUID.randomUUID());
+        appointment.setPatientId(patientId);
+        appointment.setPatientName("Test Patient");
+        appointment.setProviderId(providerId);
+        appointment.setProviderName("Dr. Test");
+        appointment.setAppointmentType("Consultation");
+        appointment.setAppointmentDateTime(at);
+        appointments.add(appointment);
+        return appointment;
+    }
+
+    private CompletedProcedureDto procedure(UUID patientId, LocalDateTime endedAt) {
+        CompletedProcedureDto procedure = new CompletedProcedureDto();
+        procedure.setProcedureId("PRC-" + UUID.randomUUID());
+        procedure.setPatientId(patientId.toString());
+        procedure.setProcedureType("mri");
+        procedure.setPrimaryPhysician("Dr. Scan");
+        procedure.setActualEndTime(endedAt);
+        procedures.add(procedure);
+        return procedure;
+    }
+
+    private SqlParameterSource invoiceFor(UUID patientId, LocalDate serviceDate) {
+        return invoiceRows.stream()
+                .filter(row -> patientId.equals(row.getValue("patientId")))
+                .filter(row -> Date.valueOf(serviceDate).equals(row.getValue("serviceDate")))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static ChargeMasterItem item(String chargeCode, String unitPrice, InvoiceType invoiceType) {
+        ChargeMasterItem item = new ChargeMasterItem();
+        item.setChargeCode(chargeCode);
+        item.setDescription(chargeCode);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        item.setInvoiceType(invoiceType);
+        return item;
+    }
+
+    private static String sourceKey(SqlParameterSource parameters) {
+        return parameters.getValue("sourceType") + ":" + parameters.getValue("sourceId");
+    }
+
+    private static ResultSet row(String sourceKey) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        int separator = sourceKey.indexOf(':');
+        when(rs.getString("source_type")).thenReturn(sourceKey.substring(0, separator));
+        when(rs.getString("source_id")).thenReturn(sourceKey.substring(separator + 1));
+        return rs;
+    }
+}
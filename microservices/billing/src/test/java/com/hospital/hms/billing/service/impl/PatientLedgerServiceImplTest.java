@@ -0,0 +1,219 @@
+package com.hospital.hms.billing.service.impl;
+
+import com.hospital.hms.billing.entity.BalanceCheckpoint;
+import com.hospital.hms.billing.entity.LedgerEntry;
+import com.hospital.hms.billing.entity.LedgerEntryType;
+import com.hospital.hms.billing.entity.PatientBalance;
+import com.hospital.hms.billing.mapper.LedgerEntryMapper;
+import com.hospital.hms.billing.repository.BalanceCheckpointRepository;
+import com.hospital.hms.billing.repository.LedgerEntryRepository;
+import com.hospital.hms.billing.repository.PatientBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PatientLedgerServiceImpl
+ *
+ * Ledger rows and running balances live in memory and are written through
+ * the same batched statements the service sends to the database.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class PatientLedgerServiceImplTest {
+
+    private static final UUID PATIENT_A = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID PATIENT_B = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    private final List<SqlParameterSource> ledgerRows = new ArrayList<>();
+    private final List<SqlParameterSource> balanceUpserts = new ArrayList<>();
+    private final Map<UUID, BigDecimal> balances = new HashMap<>();
+    private final List<LocalDate> checkpointedDays = new ArrayList<>();
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private LedgerEntryRepository ledgerEntryRepository;
+    private PatientBalanceRepository patientBalanceRepository;
+    private BalanceCheckpointRepository checkpointRepository;
+    private PatientLedgerServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            SqlParameterSource[] batch = invocation.getArgument(1);
+            for (SqlParameterSource parameters : batch) {
+                if (sql.startsWith("INSERT INTO ledger_entries")) {
+                    ledgerRows.add(parameters);
+                } else {
+                    balanceUpserts.add(parameters);
+                    balances.merge((UUID) parameters.getValue("patientId"),
+                            (BigDecimal) parameters.getValue("amount"), BigDecimal::add);
+                }
+            }
+            return new int[batch.length];
+        });
+
+        ledgerEntryRepository = mock(LedgerEntryRepository.class);
+        when(ledgerEntryRepository.sumAmountBetween(any(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime from = invocation.getArgument(1);
+            LocalDateTime asOf = invocation.getArgument(2);
+            return ledgerRows.stream()
+                    .filter(row -> row.getValue("patientId").equals(invocation.getArgument(0)))
+                    .filter(row -> !postedAt(row).isBefore(from) && !postedAt(row).isAfter(asOf))
+                    .map(row -> (BigDecimal) row.getValue("amount"))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        });
+        when(ledgerEntryRepository.findFirstPostedAtSince(any())).thenAnswer(invocation -> ledgerRows.stream()
+                .map(PatientLedgerServiceImplTest::postedAt)
+                .filter(postedAt -> !postedAt.isBefore(invocation.getArgument(0)))
+                .min(LocalDateTime::compareTo)
+                .orElse(null));
+
+        patientBalanceRepository = mock(PatientBalanceRepository.class);
+        when(patientBalanceRepository.findById(any())).thenAnswer(invocation -> {
+            BigDecimal balance = balances.get(invocation.<UUID>getArgument(0));
+            if (balance == null) {
+                return Optional.empty();
+            }
+            PatientBalance row = mock(PatientBalance.class);
+            when(row.getBalance()).thenReturn(balance);
+            return Optional.of(row);
+        });
+
+        checkpointRepository = mock(BalanceCheckpointRepository.class);
+        when(checkpointRepository.checkpointDay(any(), any(), any())).thenAnswer(invocation -> {
+            checkpointedDays.add(invocation.getArgument(0));
+            return 1;
+        });
+
+        service = new PatientLedgerServiceImpl(ledgerEntryRepository, patientBalanceRepository,
+                checkpointRepository, mock(LedgerEntryMapper.class), jdbcTemplate,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void recordAll_UpsertsOneDeltaPerPatientInIdOrder() {
+        LocalDateTime morning = LocalDate.of(2026, 1, 5).atTime(9, 0);
+        service.recordAll(List.of(
+                charge(PATIENT_B, "50.00", morning),
+                charge(PATIENT_A, "100.00", morning),
+                LedgerEntry.payment(PATIENT_A, UUID.randomUUID(), new BigDecimal("30.00"), morning.plusHours(2),
+                        "CHK-1")));
+
+        assertEquals(3, ledgerRows.size());
+        assertEquals(2, balanceUpserts.size());
+        SqlParameterSource first = balanceUpserts.get(0);
+        assertEquals(PATIENT_A, first.getValue("patientId"));
+        assertEquals(new BigDecimal("70.00"), first.getValue("amount"));
+        assertEquals(2, first.getValue("entries"));
+        assertEquals(Timestamp.valueOf(morning.plusHours(2)), first.getValue("lastEntryAt"));
+        assertEquals(PATIENT_B, balanceUpserts.get(1).getValue("patientId"));
+    }
+
+    @Test
+    void recordAll_PaymentReducesTheRunningBalance() {
+        LocalDateTime now = LocalDateTime.now().minusMinutes(5);
+        service.record(charge(PATIENT_A, "250.00", now));
+        LedgerEntry payment = LedgerEntry.payment(PATIENT_A, UUID.randomUUID(), new BigDecimal("75.50"), now,
+                "EFT-9");
+
+        service.record(payment);
+
+        assertEquals(LedgerEntryType.PAYMENT, payment.getEntryType());
+        assertEquals(new BigDecimal("-75.50"), payment.getAmount());
+        assertEquals(new BigDecimal("174.50"), service.getBalance(PATIENT_A));
+    }
+
+    @Test
+    void recordAll_IgnoresZeroAmounts() {
+        service.recordAll(List.of(charge(PATIENT_A, "0.00", LocalDateTime.now())));
+
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(BigDecimal.ZERO, service.getBalance(PATIENT_A));
+    }
+
+    @Test
+    void getBalanceAsOf_StartsFromCheckpointBeforeTheDay() {
+        LocalDate day = LocalDate.of(2026, 1, 5);
+        service.recordAll(List.of(
+                charge(PATIENT_A, "999.00", day.minusDays(1).atTime(16, 0)),
+                charge(PATIENT_A, "40.00", day.atTime(8, 0)),
+                charge(PATIENT_A, "60.00", day.atTime(15, 0))));
+        BalanceCheckpoint checkpoint = mock(BalanceCheckpoint.class);
+        when(checkpoint.getCheckpointDate()).thenReturn(day.minusDays(1));
+        when(checkpoint.getBalance()).thenReturn(new BigDecimal("100.00"));
+        when(checkpointRepository.findFirstByPatientIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(PATIENT_A,
+                day)).thenReturn(Optional.of(checkpoint));
+
+        BigDecimal balance = service.getBalanceAsOf(PATIENT_A, day.atTime(12, 0));
+
+        assertEquals(new BigDecimal("140.00"), balance);
+        verify(ledgerEntryRepository).sumAmountBetween(PATIENT_A, day.atStartOfDay(), day.atTime(12, 0));
+    }
+
+    @Test
+    void getBalanceAsOf_WithoutCheckpointSumsTheWholeLedger() {
+        LocalDate day = LocalDate.of(2026, 1, 5);
+        service.recordAll(List.of(
+                charge(PATIENT_A, "80.00", day.minusDays(30).atTime(10, 0)),
+                LedgerEntry.payment(PATIENT_A, UUID.randomUUID(), new BigDecimal("20.00"), day.atTime(9, 0), "CHK-2"),
+                charge(PATIENT_A, "500.00", day.plusDays(1).atTime(9, 0))));
+        when(checkpointRepository.findFirstByPatientIdAndCheckpointDateLessThanOrderByCheckpointDateDesc(any(),
+                any())).thenReturn(Optional.empty());
+
+        assertEquals(new BigDecimal("60.00"), service.getBalanceAsOf(PATIENT_A, day.atTime(12, 0)));
+    }
+
+    @Test
+    void getBalanceAsOf_PresentReadsTheRunningBalance() {
+        service.record(charge(PATIENT_A, "12.00", LocalDateTime.now().minusHours(1)));
+
+        assertEquals(new BigDecimal("12.00"), service.getBalanceAsOf(PATIENT_A, LocalDateTime.now().plusMinutes(1)));
+        verifyNoInteractions(checkpointRepository);
+    }
+
+    @Test
+    void checkpointBalances_WalksClosedDaysWithEntries() {
+        LocalDate today = LocalDate.now();
+        service.recordAll(List.of(
+                charge(PATIENT_A, "10.00", today.minusDays(5).atTime(10, 0)),
+                charge(PATIENT_B, "20.00", today.minusDays(2).atTime(11, 0)),
+                charge(PATIENT_A, "30.00", today.atStartOfDay())));
+        when(checkpointRepository.findLatestCheckpointDate()).thenReturn(today.minusDays(6));
+
+        assertEquals(2, service.checkpointBalances());
+        assertEquals(List.of(today.minusDays(5), today.minusDays(2)), checkpointedDays);
+        verify(checkpointRepository).checkpointDay(eq(today.minusDays(2)), eq(today.minusDays(2).atStartOfDay()),
+                eq(today.minusDays(1).atStartOfDay()));
+    }
+
+    private static LedgerEntry charge(UUID patientId, String amount, LocalDateTime postedAt) {
+        return new LedgerEntry(patientId, UUID.randomUUID(), LedgerEntryType.CHARGE, new BigDecimal(amount),
+                postedAt, "INV-1", "Invoice issued");
+    }
+
+    private static LocalDateTime postedAt(SqlParameterSource row) {
+        return ((Timestamp) row.getValue("postedAt")).toLocalDateTime();
+    }
+}
@@ -0,0 +1,194 @@
+package com.hospital.hms.billing.service.impl;
+
+import com.hospital.hms.billing.dto.PaymentPostingResultDto;
+import com.hospital.hms.billing.entity.InvoiceStatus;
+import com.hospital.hms.billing.service.ArAgingService;
+import com.hospital.hms.billing.service.PatientLedgerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PaymentPostingServiceImpl
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class PaymentPostingServiceImplTest {
+
+    /**
+     * Invoice number to {id, paid amount, status, balance due}
+     */
+    private final Map<String, Object[]> invoices = new ConcurrentHashMap<>();
+    private final Set<String> postingKeys = ConcurrentHashMap.newKeySet();
+    private PaymentPostingServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        doAnswer(invocation -> {
+            Collection<?> numbers = (Collection<?>) invocation.<SqlParameterSource>getArgument(1)
+                    .getValue("invoiceNumbers");
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Object number : numbers) {
+                Object[] invoice = invoices.get((String) number);
+                if (invoice != null) {
+                    handler.processRow(row((String) number, invoice));
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT id, invoice_number"), any(SqlParameterSource.class),
+                any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForList(startsWith("SELECT posting_key"), any(SqlParameterSource.class),
+                eq(String.class))).thenAnswer(invocation -> {
+            List<String> existing = new ArrayList<>();
+            for (Object key : (Collection<?>) invocation.<SqlParameterSource>getArgument(1).getValue("postingKeys")) {
+                if (postingKeys.contains(key)) {
+                    existing.add((String) key);
+                }
+            }
+            return existing;
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            SqlParameterSource[] batch = invocation.getArgument(1);
+            for (SqlParameterSource parameters : batch) {
+                if (sql.startsWith("INSERT INTO payments")) {
+                    String postingKey = (String) parameters.getValue("postingKey");
+                    assertTrue(postingKeys.add(postingKey), "Posting key inserted twice: " + postingKey);
+                } else {
+                    updateInvoice(parameters);
+                }
+            }
+            return new int[batch.length];
+        });
+
+        service = new PaymentPostingServiceImpl(jdbcTemplate, mock(PatientLedgerService.class),
+                mock(ArAgingService.class), mock(PlatformTransactionManager.class), 2);
+        ReflectionTestUtils.setField(service, "chunkSize", 1);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+
+        invoice("INV-1", "300.00");
+        invoice("INV-2", "100.00");
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void postRemittanceFile_ResentLockboxFilePostsOnlyNewLines() throws IOException {
+        PaymentPostingResultDto first = post("INV-1,100.00,CHK-1,2026-01-05\n"
+                + "INV-2,40.00,CHK-1,2026-01-05\n");
+        assertEquals(2, first.getPostedPayments());
+
+        PaymentPostingResultDto resent = post("invoice_number,amount,check_number,payment_date\n"
+                + "INV-1,50.00,CHK-2,2026-01-06\n"
+                + "INV-2,40.00,CHK-1,2026-01-05\n"
+                + "INV-1,100.00,CHK-1,2026-01-05\n");
+
+        assertEquals(1, resent.getPostedPayments());
+        assertEquals(2, resent.getDuplicatePayments());
+        assertEquals(new BigDecimal("150.00"), paid("INV-1"));
+        assertEquals(new BigDecimal("40.00"), paid("INV-2"));
+    }
+
+    @Test
+    void postRemittanceFile_PostsIdenticalEntriesOnceEach() throws IOException {
+        String file = "INV-1,50.00,CHK-1,2026-01-05\nINV-1,50.00,CHK-1,2026-01-05\n";
+
+        assertEquals(2, post(file).getPostedPayments());
+        PaymentPostingResultDto resent = post(file);
+
+        assertEquals(0, resent.getPostedPayments());
+        assertEquals(2, resent.getDuplicatePayments());
+        assertEquals(new BigDecimal("100.00"), paid("INV-1"));
+    }
+
+    @Test
+    void postRemittanceFile_Resent835PostsNothingTwice() throws IOException {
+        String remittance = "ISA*00*          *00*          *ZZ*PAYER          *ZZ*HMS            "
+                + "*260105*0930*^*00501*000000017*0*P*:~GS*HP*PAYER*HMS*20260105*0930*17*X*005010X221A1~"
+                + "ST*835*0001~TRN*1*EFT-555*1234567890~N1*PR*ACME HEALTH~"
+                + "CLP*INV-1*1*250*200**MC*PCN1~CLP*INV-2*1*120*100**MC*PCN2~"
+                + "SE*6*0001~GE*1*17~IEA*1*000000017~";
+
+        assertEquals(2, post(remittance).getPostedPayments());
+        PaymentPostingResultDto resent = post(remittance);
+
+        assertEquals(0, resent.getPostedPayments());
+        assertEquals(2, resent.getDuplicatePayments());
+        assertEquals(InvoiceStatus.PAID.name(), invoices.get("INV-2")[2]);
+    }
+
+    @Test
+    void postRemittanceFile_Rejects835WithoutTrace() throws IOException {
+        PaymentPostingResultDto result = post("ISA*00*          *00*          *ZZ*PAYER          *ZZ*HMS            "
+                + "*260105*0930*^*00501*000000017*0*P*:~ST*835*0001~CLP*INV-1*1*250*200**MC*PCN1~SE*2*0001~");
+
+        assertEquals(0, result.getPostedPayments());
+        assertEquals(1, result.getRejectedPayments().size());
+        assertTrue(postingKeys.isEmpty());
+    }
+
+    private PaymentPostingResultDto post(String content) throws IOException {
+        return service.postRemittanceFile(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void invoice(String number, String total) {
+        invoices.put(number, new Object[]{UUID.randomUUID(), BigDecimal.ZERO.setScale(2),
+                InvoiceStatus.PENDING.name(), new BigDecimal(total)});
+    }
+
+    private BigDecimal paid(String number) {
+        return (BigDecimal) invoices.get(number)[1];
+    }
+
+    private void updateInvoice(SqlParameterSource parameters) {
+        for (Object[] invoice : invoices.values()) {
+            if (invoice[0].equals(parameters.getValue("id"))) {
+                invoice[1] = parameters.getValue("paidAmount");
+                invoice[2] = parameters.getValue("status");
+                invoice[3] = parameters.getValue("balanceDue");
+            }
+        }
+    }
+
+    private static ResultSet row(String number, Object[] invoice) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject("id", UUID.class)).thenReturn((UUID) invoice[0]);
+        when(rs.getString("invoice_number")).thenReturn(number);
+        when(rs.getDate("invoice_date")).thenReturn(Date.valueOf(LocalDate.of(2026, 1, 2)));
+        when(rs.getBigDecimal("paid_amount")).thenReturn((BigDecimal) invoice[1]);
+        when(rs.getBigDecimal("balance_due")).thenReturn((BigDecimal) invoice[3]);
+        when(rs.getString("status")).thenReturn((String) invoice[2]);
+        return rs;
+    }
+}
@@ -1,5 +1,8 @@
 package com.hms.graphql.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hms.graphql.instrumentation.QueryCostInstrumentation;
 import com.hms.graphql.service.GraphQLFederationService;
 import graphql.ExecutionResult;
 import org.slf4j.Logger;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -40,6 +44,9 @@ public class GraphQLFederationController {
     @Autowired
     private GraphQLFederationService federationService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Main GraphQL endpoint for query execution
      * 
@@ -56,9 +63,12 @@ public class GraphQLFederationController {
             @SuppressWarnings("unchecked")
             Map<String, Object> variables = (Map<String, Object>) requestBody.getOrDefault("variables", new HashMap<>());
             String operationName = (String) requestBody.get("operationName");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> extensions = (Map<String, Object>) requestBody.get("extensions");
+            boolean persistedQuery = extensions != null && extensions.get("persistedQuery") != null;
             
-            // Validate request
-            if (query == null || query.trim().isEmpty()) {
+            // Validate request; an Automatic Persisted Query may omit the query text
+            if ((query == null || query.trim().isEmpty()) && !persistedQuery) {
                 logger.warn("Empty or null GraphQL query received");
                 Map<String, Object> errorResponse = createErrorResponse("Query is required", "INVALID_REQUEST");
                 return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(errorResponse));
@@ -71,7 +81,7 @@ public class GraphQLFederationController {
                 operationName, getCurrentUser());
             
             // Execute query through federation service
-            return federationService.executeQuery(query, variables, context)
+            return federationService.executeQuery(query, variables, context, extensions)
                 .thenApply(executionResult -> {
                     Map<String, Object> response = buildGraphQLResponse(executionResult);
                     
@@ -112,9 +122,10 @@ public class GraphQLFederationController {
      */
     @GetMapping
     public CompletableFuture<ResponseEntity<Map<String, Object>>> executeGraphQLGet(
-            @RequestParam String query,
+            @RequestParam(required = false) String query,
             @RequestParam(required = false) String variables,
-            @RequestParam(required = false) String operationName) {
+            @RequestParam(required = false) String operationName,
+            @RequestParam(required = false) String extensions) {
         
         try {
             Map<String, Object> requestBody = new HashMap<>();
@@ -122,9 +133,12 @@ public class GraphQLFederationController {
             requestBody.put("operationName", operationName);
             
             if (variables != null && !variables.trim().isEmpty()) {
-                // Parse variables JSON string
-                // In a real implementation, use a proper JSON parser
-                requestBody.put("variables", new HashMap<>());
+                requestBody.put("variables", parseJsonObject(variables));
+            }
+
+            // Persisted queries are usually sent as GET so CDNs and browsers can cache them
+            if (extensions != null && !extensions.trim().isEmpty()) {
+                requestBody.put("extensions", parseJsonObject(extensions));
             }
             
             return executeGraphQL(requestBody);
@@ -435,6 +449,7 @@ query HealthCheck {
             context.put("user", auth.getName());
             context.put("authorities", auth.getAuthorities());
             context.put("authenticated", true);
+            context.put(QueryCostInstrumentation.CLIENT_ID_KEY, auth.getName());
         } else {
             context.put("authenticated", false);
         }
@@ -499,6 +514,10 @@ query HealthCheck {
         return response;
     }
 
+    private Map<String, Object> parseJsonObject(String json) throws IOException {
+        return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {});
+    }
+
     /**
      * Get current user from security context
      */
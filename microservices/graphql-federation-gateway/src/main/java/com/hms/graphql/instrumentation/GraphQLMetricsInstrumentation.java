@@ -0,0 +1,99 @@
+package com.hms.graphql.instrumentation;
+
+import graphql.ExecutionResult;
+import graphql.execution.ExecutionStepInfo;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.language.OperationDefinition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms per operation and per resolved field
+ *
+ * Operations are timed from the start of execution to the completed result
+ * and tagged with their name and type; fields are timed from the fetch to
+ * the completed value, so asynchronous subgraph fetches are included.
+ * Trivial property fetchers are skipped. Both publish p50/p99 and a
+ * percentile histogram so quantiles can be aggregated across instances.
+ */
+@Component
+public class GraphQLMetricsInstrumentation extends SimplePerformantInstrumentation {
+
+    static final String OTHER_OPERATION = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxOperationNames;
+    private final Map<String, Timer> operationTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> fieldTimers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GraphQLMetricsInstrumentation(MeterRegistry meterRegistry,
+            @Value("${hms.graphql.metrics.max-operation-names:500}") int maxOperationNames) {
+        this.meterRegistry = meterRegistry;
+        this.maxOperationNames = maxOperationNames;
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        OperationDefinition operation = parameters.getExecutionContext().getOperationDefinition();
+        Timer timer = operationTimer(operation.getName() != null ? operation.getName() : "anonymous",
+            operation.getOperation().name().toLowerCase());
+        long start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted(
+            (result, throwable) -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public InstrumentationContext<Object> beginFieldFetch(InstrumentationFieldFetchParameters parameters,
+                                                          InstrumentationState state) {
+        if (parameters.isTrivialDataFetcher()) {
+            return super.beginFieldFetch(parameters, state);
+        }
+        ExecutionStepInfo stepInfo = parameters.getExecutionStepInfo();
+        Timer timer = fieldTimer(stepInfo.getObjectType().getName(), stepInfo.getFieldDefinition().getName());
+        long start = System.nanoTime();
+        return SimpleInstrumentationContext.whenCompleted(
+            (value, throwable) -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private Timer operationTimer(String name, String type) {
+        Timer timer = operationTimers.get(type + ":" + name);
+        if (timer != null) {
+            return timer;
+        }
+        // Operation names are chosen by clients, so their number is capped
+        String operationName = operationTimers.size() < maxOperationNames ? name : OTHER_OPERATION;
+        return operationTimers.computeIfAbsent(type + ":" + operationName,
+            key -> Timer.builder("graphql.operation.duration")
+            .description("GraphQL operation execution time")
+            .tag("operation", operationName)
+            .tag("type", type)
+            .publishPercentiles(0.5, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private Timer fieldTimer(String parentType, String fieldName) {
+        return fieldTimers.computeIfAbsent(parentType + "." + fieldName,
+            key -> Timer.builder("graphql.field.duration")
+            .description("GraphQL field resolver latency")
+            .tag("parent", parentType)
+            .tag("field", fieldName)
+            .publishPercentiles(0.5, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+}
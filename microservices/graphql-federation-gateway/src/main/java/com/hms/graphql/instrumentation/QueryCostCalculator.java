@@ -0,0 +1,129 @@
+package com.hms.graphql.instrumentation;
+
+import graphql.language.Argument;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.VariableReference;
+import graphql.schema.GraphQLCompositeType;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLFieldsContainer;
+import graphql.schema.GraphQLObjectType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLType;
+import graphql.schema.GraphQLTypeUtil;
+
+import java.util.Map;
+
+/**
+ * Static cost of an operation from field weights and list multipliers
+ *
+ * Fragments on different types are all counted, so the cost is an upper
+ * bound for abstract selections. Costs saturate at {@link Long#MAX_VALUE}.
+ */
+public class QueryCostCalculator {
+
+    private final QueryCostProperties properties;
+
+    public QueryCostCalculator(QueryCostProperties properties) {
+        this.properties = properties;
+    }
+
+    public long cost(GraphQLSchema schema, OperationDefinition operation, Map<String, FragmentDefinition> fragments,
+                     Map<String, Object> variables) {
+        GraphQLObjectType rootType = switch (operation.getOperation()) {
+            case QUERY -> schema.getQueryType();
+            case MUTATION -> schema.getMutationType();
+            case SUBSCRIPTION -> schema.getSubscriptionType();
+        };
+        if (rootType == null) {
+            return 0;
+        }
+        return selectionCost(schema, operation.getSelectionSet(), rootType, fragments, variables);
+    }
+
+    private long selectionCost(GraphQLSchema schema, SelectionSet selectionSet, GraphQLCompositeType parentType,
+                               Map<String, FragmentDefinition> fragments, Map<String, Object> variables) {
+        long total = 0;
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field field) {
+                total = add(total, fieldCost(schema, field, parentType, fragments, variables));
+            } else if (selection instanceof InlineFragment fragment) {
+                GraphQLCompositeType type = fragment.getTypeCondition() != null
+                    ? compositeType(schema, fragment.getTypeCondition().getName(), parentType)
+                    : parentType;
+                total = add(total, selectionCost(schema, fragment.getSelectionSet(), type, fragments, variables));
+            } else if (selection instanceof FragmentSpread spread && fragments.containsKey(spread.getName())) {
+                FragmentDefinition fragment = fragments.get(spread.getName());
+                GraphQLCompositeType type = compositeType(schema, fragment.getTypeCondition().getName(), parentType);
+                total = add(total, selectionCost(schema, fragment.getSelectionSet(), type, fragments, variables));
+            }
+        }
+        return total;
+    }
+
+    private long fieldCost(GraphQLSchema schema, Field field, GraphQLCompositeType parentType,
+                           Map<String, FragmentDefinition> fragments, Map<String, Object> variables) {
+        if (field.getName().startsWith("__") || !(parentType instanceof GraphQLFieldsContainer container)) {
+            return 0;
+        }
+        GraphQLFieldDefinition definition = container.getFieldDefinition(field.getName());
+        if (definition == null) {
+            return 0;
+        }
+        GraphQLType namedType = GraphQLTypeUtil.unwrapAll(definition.getType());
+        boolean composite = namedType instanceof GraphQLCompositeType;
+
+        Integer override = properties.getFieldWeights().get(parentType.getName() + "." + field.getName());
+        long weight = override != null ? override
+            : composite ? properties.getObjectFieldWeight() : properties.getScalarFieldWeight();
+        long childCost = composite && field.getSelectionSet() != null
+            ? selectionCost(schema, field.getSelectionSet(), (GraphQLCompositeType) namedType, fragments, variables)
+            : 0;
+        // The list field itself is fetched once; its selection is resolved per element
+        long multiplier = GraphQLTypeUtil.isList(GraphQLTypeUtil.unwrapNonNull(definition.getType()))
+            ? listSize(field, variables)
+            : 1;
+        return add(weight, multiply(multiplier, childCost));
+    }
+
+    private long listSize(Field field, Map<String, Object> variables) {
+        for (String name : properties.getListSizeArguments()) {
+            for (Argument argument : field.getArguments()) {
+                if (!argument.getName().equals(name)) {
+                    continue;
+                }
+                if (argument.getValue() instanceof IntValue value) {
+                    return Math.max(0, value.getValue().longValue());
+                }
+                if (argument.getValue() instanceof VariableReference reference
+                        && variables.get(reference.getName()) instanceof Number value) {
+                    return Math.max(0, value.longValue());
+                }
+            }
+        }
+        return properties.getDefaultListSize();
+    }
+
+    private static GraphQLCompositeType compositeType(GraphQLSchema schema, String name,
+                                                      GraphQLCompositeType fallback) {
+        return schema.getType(name) instanceof GraphQLCompositeType type ? type : fallback;
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        return a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+}
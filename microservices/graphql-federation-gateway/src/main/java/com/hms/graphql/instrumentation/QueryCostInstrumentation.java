@@ -0,0 +1,192 @@
+package com.hms.graphql.instrumentation;
+
+import graphql.ErrorType;
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejects operations whose static cost exceeds the per-query limit or the
+ * calling client's remaining budget, before any field is resolved
+ *
+ * The client is read from the {@code clientId} entry of the GraphQL context.
+ * Each client owns a budget of {@code clientBudget} cost units that refills
+ * continuously over {@code budgetWindowSeconds}; rejected operations consume
+ * nothing. A budget left idle for a whole window has refilled completely, so
+ * it is dropped and recreated on the client's next operation; only clients
+ * active within the last window are tracked. Consumed cost and the number of
+ * tracked clients are exported in aggregate, never tagged with a client.
+ */
+@Component
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCostInstrumentation.class);
+
+    public static final String CLIENT_ID_KEY = "clientId";
+
+    static final String ANONYMOUS_CLIENT = "anonymous";
+    static final String OVERFLOW_CLIENT = "other";
+
+    private final QueryCostProperties properties;
+    private final QueryCostCalculator calculator;
+    private final Map<String, ClientBudget> budgets = new ConcurrentHashMap<>();
+    private final long windowNanos;
+    private final AtomicLong lastEviction = new AtomicLong(System.nanoTime());
+    private final DistributionSummary queryCost;
+    private final Counter consumedCost;
+    private final Counter rejectedTooExpensive;
+    private final Counter rejectedBudgetExhausted;
+
+    @Autowired
+    public QueryCostInstrumentation(QueryCostProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.calculator = new QueryCostCalculator(properties);
+        this.windowNanos = properties.getBudgetWindowSeconds() * 1_000_000_000L;
+        this.queryCost = DistributionSummary.builder("graphql.query.cost")
+            .description("Static cost of executed GraphQL operations")
+            .publishPercentiles(0.5, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.consumedCost = Counter.builder("graphql.client.cost.consumed")
+            .description("Cost units consumed from client budgets")
+            .register(meterRegistry);
+        Gauge.builder("graphql.client.cost.budgets.tracked", budgets, Map::size)
+            .description("Clients with a budget in use within the last window")
+            .register(meterRegistry);
+        this.rejectedTooExpensive = Counter.builder("graphql.query.rejected")
+            .tag("reason", "cost")
+            .register(meterRegistry);
+        this.rejectedBudgetExhausted = Counter.builder("graphql.query.rejected")
+            .tag("reason", "budget")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        ExecutionContext executionContext = parameters.getExecutionContext();
+        long cost = calculator.cost(executionContext.getGraphQLSchema(), executionContext.getOperationDefinition(),
+            executionContext.getFragmentsByName(), executionContext.getCoercedVariables().toMap());
+        queryCost.record(cost);
+
+        if (cost > properties.getMaxQueryCost()) {
+            rejectedTooExpensive.increment();
+            throw abort("Query cost " + cost + " exceeds maximum allowed " + properties.getMaxQueryCost(),
+                "QUERY_COST_EXCEEDED", cost);
+        }
+
+        String clientId = clientId(executionContext.getGraphQLContext());
+        ClientBudget budget = budgetFor(clientId);
+        if (!budget.tryConsume(cost)) {
+            rejectedBudgetExhausted.increment();
+            logger.debug("Client {} exhausted its query budget: cost {}, remaining {}", clientId, cost,
+                budget.remaining());
+            throw abort("Query budget exhausted for client " + clientId + ": cost " + cost + ", remaining "
+                + (long) budget.remaining(), "CLIENT_BUDGET_EXHAUSTED", cost);
+        }
+        consumedCost.increment(cost);
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    private static String clientId(GraphQLContext context) {
+        Object clientId = context != null ? context.get(CLIENT_ID_KEY) : null;
+        return clientId != null ? clientId.toString() : ANONYMOUS_CLIENT;
+    }
+
+    ClientBudget budgetFor(String clientId) {
+        long now = System.nanoTime();
+        long last = lastEviction.get();
+        if (now - last >= windowNanos && lastEviction.compareAndSet(last, now)) {
+            evictIdleBudgets(now);
+        }
+        ClientBudget budget = budgets.get(clientId);
+        if (budget != null) {
+            return budget;
+        }
+        // Bounds memory when more clients than this are active within one window
+        String key = budgets.size() < properties.getMaxTrackedClients() ? clientId : OVERFLOW_CLIENT;
+        return budgets.computeIfAbsent(key, id -> new ClientBudget(properties.getClientBudget(),
+            properties.getClientBudget() / (double) windowNanos));
+    }
+
+    /**
+     * Drop budgets untouched for a whole window; they are full, so a fresh one is equivalent
+     */
+    void evictIdleBudgets(long now) {
+        budgets.entrySet().removeIf(entry -> entry.getValue().idleSince(now) >= windowNanos);
+    }
+
+    int trackedClients() {
+        return budgets.size();
+    }
+
+    private static AbortExecutionException abort(String message, String code, long cost) {
+        GraphQLError error = GraphqlErrorBuilder.newError()
+            .message(message)
+            .errorType(ErrorType.ExecutionAborted)
+            .extensions(Map.of("code", code, "cost", cost))
+            .build();
+        return new AbortExecutionException(List.of(error));
+    }
+
+    /**
+     * Token bucket of cost units, refilled lazily on each access
+     */
+    static final class ClientBudget {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        ClientBudget(double capacity, double refillPerNano) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume(long cost) {
+            refill();
+            if (cost > tokens) {
+                return false;
+            }
+            tokens -= cost;
+            return true;
+        }
+
+        synchronized double remaining() {
+            refill();
+            return tokens;
+        }
+
+        synchronized long idleSince(long now) {
+            return now - refilledAt;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+        }
+    }
+}
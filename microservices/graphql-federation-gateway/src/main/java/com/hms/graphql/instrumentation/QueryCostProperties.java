@@ -0,0 +1,79 @@
+package com.hms.graphql.instrumentation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query cost model and per-client cost budgets
+ *
+ * A field costs its weight plus the cost of its selection, multiplied by
+ * the expected list size when it returns a list. The list size is read from
+ * the first size argument present ({@code first}, {@code limit}, ...) and
+ * falls back to {@link #defaultListSize}.
+ */
+@Component
+@ConfigurationProperties(prefix = "hms.graphql.cost")
+public class QueryCostProperties {
+
+    /**
+     * Queries costing more than this are rejected before execution
+     */
+    private long maxQueryCost = 1000;
+
+    /**
+     * Cost a client may spend per budget window; the budget refills continuously
+     */
+    private long clientBudget = 20_000;
+
+    private long budgetWindowSeconds = 60;
+
+    /**
+     * Clients active within one budget window that are tracked individually;
+     * further clients share one budget until idle budgets are dropped
+     */
+    private int maxTrackedClients = 10_000;
+
+    private int objectFieldWeight = 1;
+
+    private int scalarFieldWeight = 0;
+
+    private int defaultListSize = 10;
+
+    private List<String> listSizeArguments = List.of("first", "last", "limit", "pageSize", "size");
+
+    /**
+     * Weight overrides by {@code Type.field}, e.g. {@code Patient.medicalRecords: 5}
+     */
+    private Map<String, Integer> fieldWeights = new LinkedHashMap<>();
+
+    public long getMaxQueryCost() { return maxQueryCost; }
+    public void setMaxQueryCost(long maxQueryCost) { this.maxQueryCost = maxQueryCost; }
+
+    public long getClientBudget() { return clientBudget; }
+    public void setClientBudget(long clientBudget) { this.clientBudget = clientBudget; }
+
+    public long getBudgetWindowSeconds() { return budgetWindowSeconds; }
+    public void setBudgetWindowSeconds(long budgetWindowSeconds) { this.budgetWindowSeconds = budgetWindowSeconds; }
+
+    public int getMaxTrackedClients() { return maxTrackedClients; }
+    public void setMaxTrackedClients(int maxTrackedClients) { this.maxTrackedClients = maxTrackedClients; }
+
+    public int getObjectFieldWeight() { return objectFieldWeight; }
+    public void setObjectFieldWeight(int objectFieldWeight) { this.objectFieldWeight = objectFieldWeight; }
+
+    public int getScalarFieldWeight() { return scalarFieldWeight; }
+    public void setScalarFieldWeight(int scalarFieldWeight) { this.scalarFieldWeight = scalarFieldWeight; }
+
+    public int getDefaultListSize() { return defaultListSize; }
+    public void setDefaultListSize(int defaultListSize) { this.defaultListSize = defaultListSize; }
+
+    public List<String> getListSizeArguments() { return listSizeArguments; }
+    public void setListSizeArguments(List<String> listSizeArguments) { this.listSizeArguments = listSizeArguments; }
+
+    public Map<String, Integer> getFieldWeights() { return fieldWeights; }
+    public void setFieldWeights(Map<String, Integer> fieldWeights) { this.fieldWeights = fieldWeights; }
+}
@@ -1,14 +1,26 @@
 package com.hms.graphql.service;
 
+import com.hms.graphql.instrumentation.GraphQLMetricsInstrumentation;
+import com.hms.graphql.instrumentation.QueryCostInstrumentation;
+import com.hms.graphql.service.PersistedQueryStore.PersistedQueryException;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
+import graphql.GraphqlErrorBuilder;
+import graphql.scalars.ExtendedScalars;
+import graphql.schema.GraphQLScalarType;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.ScalarInfo;
 import graphql.schema.idl.SchemaGenerator;
 import graphql.schema.idl.SchemaParser;
 import graphql.schema.idl.TypeDefinitionRegistry;
 import graphql.execution.AsyncExecutionStrategy;
 import graphql.execution.AsyncSerialExecutionStrategy;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,11 +30,21 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.time.LocalDateTime;
@@ -49,6 +71,16 @@ public class GraphQLFederationService implements HealthIndicator {
 
     private static final Logger logger = LoggerFactory.getLogger(GraphQLFederationService.class);
 
+    private static final String GATEWAY_SCHEMA_SOURCE = "gateway";
+    private static final String SERVICE_SDL_QUERY = "{ _service { sdl } }";
+    private static final Map<String, GraphQLScalarType> HEALTHCARE_SCALARS = Map.of(
+        "DateTime", ExtendedScalars.DateTime,
+        "Date", ExtendedScalars.Date,
+        "Time", ExtendedScalars.Time,
+        "UUID", ExtendedScalars.UUID,
+        "JSON", ExtendedScalars.Json
+    );
+
     @Value("${hms.graphql.federation.enabled:true}")
     private boolean federationEnabled;
 
@@ -58,11 +90,35 @@ public class GraphQLFederationService implements HealthIndicator {
     @Value("${hms.graphql.security.hipaa-filtering:true}")
     private boolean hipaaFilteringEnabled;
 
+    @Value("${hms.graphql.document-cache.max-entries:500}")
+    private int documentCacheMaxEntries;
+
+    @Value("${hms.graphql.federation.performance.max-query-depth:15}")
+    private int maxQueryDepth;
+
+    @Value("${hms.graphql.federation.schema.fetch-timeout:5000}")
+    private long schemaFetchTimeoutMs;
+
     @Autowired
     private WebClient.Builder webClientBuilder;
 
+    @Autowired
+    private PersistedQueryStore persistedQueryStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private QueryCostInstrumentation queryCostInstrumentation;
+
+    @Autowired
+    private GraphQLMetricsInstrumentation metricsInstrumentation;
+
     // Federation state management
-    private GraphQL federatedGraphQL;
+    private volatile GraphQL federatedGraphQL;
+    private volatile ValidatedDocumentCache documentCache;
+    private final SchemaComposer schemaComposer = new SchemaComposer();
+    private final AtomicBoolean schemaReloadRunning = new AtomicBoolean(false);
     private Map<String, ServiceSchema> registeredSchemas = new ConcurrentHashMap<>();
     private Map<String, String> serviceEndpoints = new ConcurrentHashMap<>();
     
@@ -88,13 +144,15 @@ public class GraphQLFederationService implements HealthIndicator {
     private final AtomicInteger totalQueries = new AtomicInteger(0);
     private final AtomicInteger successfulQueries = new AtomicInteger(0);
     private final AtomicInteger failedQueries = new AtomicInteger(0);
-    private final AtomicLong averageQueryTime = new AtomicLong(0);
+    private Timer queryTimer;
     private final AtomicInteger schemaReloads = new AtomicInteger(0);
     private final AtomicLong lastSchemaUpdate = new AtomicLong(System.currentTimeMillis());
 
     // Federation health status
-    private boolean federationHealthy = true;
-    private List<String> federationIssues = new ArrayList<>();
+    private volatile boolean federationHealthy = true;
+    private final List<String> federationIssues = new CopyOnWriteArrayList<>();
+    /** Why the last composition could not be built; null once the composed schema is in service */
+    private volatile String schemaBuildFailure;
 
     @PostConstruct
     public void initializeFederation() {
@@ -104,16 +162,25 @@ public class GraphQLFederationService implements HealthIndicator {
         logger.info("HIPAA Filtering: {}", hipaaFilteringEnabled);
         logger.info("Healthcare Services: {}", HEALTHCARE_SERVICES.keySet());
 
+        queryTimer = Timer.builder("graphql.query.duration")
+            .description("End-to-end federated GraphQL query time")
+            .publishPercentiles(0.5, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+
         if (federationEnabled) {
             try {
-                // Discover and register service schemas
-                discoverServiceSchemas();
-                
-                // Build federated schema
+                // Serve the gateway schema at once; subgraph schemas are fetched in the background and swapped in
+                discoverServiceEndpoints();
                 buildFederatedSchema();
-                
-                logger.info("GraphQL Federation successfully initialized with {} services", 
-                    registeredSchemas.size());
+
+                reloadSchemas().subscribe(
+                    swapped -> logger.info("GraphQL Federation successfully initialized with {} services",
+                        registeredSchemas.size()),
+                    e -> {
+                        logger.error("Failed to load subgraph schemas", e);
+                        federationIssues.add("Schema discovery failed: " + e.getMessage());
+                    });
                 
             } catch (Exception e) {
                 logger.error("Failed to initialize GraphQL Federation", e);
@@ -130,13 +197,37 @@ public class GraphQLFederationService implements HealthIndicator {
      */
     public CompletableFuture<ExecutionResult> executeQuery(String query, Map<String, Object> variables, 
                                                           Object context) {
+        return executeQuery(query, variables, context, null);
+    }
+
+    /**
+     * Execute federated GraphQL query, resolving Automatic Persisted Query extensions first
+     */
+    public CompletableFuture<ExecutionResult> executeQuery(String query, Map<String, Object> variables,
+                                                          Object context, Map<String, Object> extensions) {
         totalQueries.incrementAndGet();
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         try {
+            try {
+                query = persistedQueryStore.resolve(query, extensions);
+            } catch (PersistedQueryException e) {
+                failedQueries.incrementAndGet();
+                return CompletableFuture.completedFuture(
+                    ExecutionResult.newExecutionResult()
+                        .addError(GraphqlErrorBuilder.newError()
+                            .message(e.getMessage())
+                            .extensions(Map.of("code", e.getCode()))
+                            .build())
+                        .build()
+                );
+            }
+
             logger.debug("Executing federated GraphQL query: {}", query);
             
-            if (federatedGraphQL == null) {
+            // Read once: a schema swap during this query must not change the instance executing it
+            GraphQL graphQL = federatedGraphQL;
+            if (graphQL == null) {
                 logger.error("Federated GraphQL not initialized");
                 failedQueries.incrementAndGet();
                 return CompletableFuture.completedFuture(
@@ -152,13 +243,14 @@ public class GraphQLFederationService implements HealthIndicator {
             }
             
             // Execute query asynchronously
-            return federatedGraphQL.executeAsync(builder -> builder
-                .query(query)
+            String resolvedQuery = query;
+            return graphQL.executeAsync(builder -> builder
+                .query(resolvedQuery)
                 .variables(variables != null ? variables : Collections.emptyMap())
                 .context(context)
+                .graphQLContext(Map.of(QueryCostInstrumentation.CLIENT_ID_KEY, clientIdOf(context)))
             ).thenApply(result -> {
-                long duration = System.currentTimeMillis() - startTime;
-                updateQueryMetrics(duration, result.getErrors().isEmpty());
+                long duration = recordQueryTime(startTime);
                 
                 if (!result.getErrors().isEmpty()) {
                     logger.warn("GraphQL query completed with errors: {}", result.getErrors());
@@ -170,8 +262,7 @@ public class GraphQLFederationService implements HealthIndicator {
                 
                 return result;
             }).exceptionally(throwable -> {
-                long duration = System.currentTimeMillis() - startTime;
-                updateQueryMetrics(duration, false);
+                recordQueryTime(startTime);
                 failedQueries.incrementAndGet();
                 
                 logger.error("GraphQL query execution failed", throwable);
@@ -181,8 +272,7 @@ public class GraphQLFederationService implements HealthIndicator {
             });
             
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            updateQueryMetrics(duration, false);
+            recordQueryTime(startTime);
             failedQueries.incrementAndGet();
             
             logger.error("Error executing GraphQL query", e);
@@ -195,47 +285,52 @@ public class GraphQLFederationService implements HealthIndicator {
     }
 
     /**
-     * Discover GraphQL schemas from registered microservices
+     * Resolve the endpoint of every healthcare service
      */
-    private void discoverServiceSchemas() {
-        logger.info("Discovering GraphQL schemas from healthcare services...");
-        
-        for (Map.Entry<String, ServiceDefinition> entry : HEALTHCARE_SERVICES.entrySet()) {
-            String serviceName = entry.getKey();
-            ServiceDefinition definition = entry.getValue();
-            
-            try {
-                // Get service endpoint from service discovery
-                String serviceUrl = getServiceEndpoint(serviceName);
-                if (serviceUrl != null) {
-                    serviceEndpoints.put(serviceName, serviceUrl);
-                    
-                    // Fetch schema from service
-                    String schema = fetchSchemaFromService(serviceUrl, definition.getGraphqlPath());
-                    if (schema != null && !schema.trim().isEmpty()) {
-                        ServiceSchema serviceSchema = new ServiceSchema(serviceName, schema, 
-                            definition.getTypes(), definition.getCriticality());
-                        registeredSchemas.put(serviceName, serviceSchema);
-                        
-                        logger.info("Registered schema for service: {} - Types: {} - Criticality: {}", 
-                            serviceName, definition.getTypes(), definition.getCriticality());
-                    } else {
-                        logger.warn("Empty or null schema received from service: {}", serviceName);
-                        federationIssues.add("Empty schema from service: " + serviceName);
-                    }
-                } else {
-                    logger.warn("Service endpoint not found for: {}", serviceName);
-                    federationIssues.add("Service endpoint not available: " + serviceName);
-                }
-                
-            } catch (Exception e) {
-                logger.error("Failed to discover schema for service: {}", serviceName, e);
-                federationIssues.add("Schema discovery failed for " + serviceName + ": " + e.getMessage());
+    private void discoverServiceEndpoints() {
+        for (String serviceName : HEALTHCARE_SERVICES.keySet()) {
+            String serviceUrl = getServiceEndpoint(serviceName);
+            if (serviceUrl != null) {
+                serviceEndpoints.put(serviceName, serviceUrl);
+            } else {
+                logger.warn("Service endpoint not found for: {}", serviceName);
+                federationIssues.add("Service endpoint not available: " + serviceName);
             }
         }
-        
-        logger.info("Schema discovery completed. Registered {} out of {} services", 
-            registeredSchemas.size(), HEALTHCARE_SERVICES.size());
+    }
+
+    /**
+     * Fetch every subgraph schema concurrently and swap in a new federated schema if any changed
+     *
+     * A service that cannot be reached keeps its last known schema. Emits whether a new schema was
+     * swapped in; a reload requested while another is running is skipped.
+     */
+    private Mono<Boolean> reloadSchemas() {
+        return Mono.defer(() -> {
+            if (!schemaReloadRunning.compareAndSet(false, true)) {
+                logger.debug("Schema reload already in progress");
+                return Mono.just(false);
+            }
+            long startTime = System.currentTimeMillis();
+            return Flux.fromIterable(serviceEndpoints.entrySet())
+                .flatMap(endpoint -> fetchSchemaFromService(endpoint.getKey(), endpoint.getValue(),
+                        HEALTHCARE_SERVICES.get(endpoint.getKey()).getGraphqlPath())
+                    .map(sdl -> Map.entry(endpoint.getKey(), sdl)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                // Composition is CPU work; keep it off the HTTP client's event loop
+                .publishOn(Schedulers.boundedElastic())
+                .map(fetched -> {
+                    logger.debug("Fetched {} of {} subgraph schemas in {}ms", fetched.size(),
+                        serviceEndpoints.size(), System.currentTimeMillis() - startTime);
+                    fetched.forEach((serviceName, sdl) -> {
+                        ServiceDefinition definition = HEALTHCARE_SERVICES.get(serviceName);
+                        registeredSchemas.put(serviceName, new ServiceSchema(serviceName, sdl,
+                            definition.getTypes(), definition.getCriticality()));
+                    });
+                    return buildFederatedSchema();
+                })
+                .doFinally(signal -> schemaReloadRunning.set(false));
+        });
     }
 
     /**
@@ -278,141 +373,111 @@ public class GraphQLFederationService implements HealthIndicator {
     }
 
     /**
-     * Fetch GraphQL schema from a microservice
+     * Fetch the SDL a federated subgraph publishes through {@code _service}
+     *
+     * Completes empty when the service is unreachable or returns no SDL.
      */
-    private String fetchSchemaFromService(String serviceUrl, String graphqlPath) {
-        try {
-            WebClient webClient = webClientBuilder.build();
-            
-            // Introspection query to get schema
-            String introspectionQuery = """
-                {
-                  __schema {
-                    queryType { name }
-                    mutationType { name }
-                    subscriptionType { name }
-                    types {
-                      name
-                      kind
-                      description
-                      fields {
-                        name
-                        type {
-                          name
-                          kind
-                          ofType {
-                            name
-                            kind
-                          }
-                        }
-                      }
-                    }
-                  }
-                }
-                """;
-            
-            Map<String, Object> requestBody = Map.of("query", introspectionQuery);
-            
-            String response = webClient.post()
-                .uri(serviceUrl + graphqlPath)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-            
-            // Convert introspection result to SDL (Schema Definition Language)
-            return convertIntrospectionToSDL(response);
-            
-        } catch (Exception e) {
-            logger.error("Failed to fetch schema from service: {}", serviceUrl, e);
-            return null;
-        }
-    }
-
-    /**
-     * Convert GraphQL introspection result to SDL
-     */
-    private String convertIntrospectionToSDL(String introspectionResult) {
-        // This is a simplified conversion
-        // In a real implementation, you would use a proper introspection-to-SDL converter
-        try {
-            // For now, return a basic schema template
-            // This would be replaced with actual introspection parsing
-            return """
-                type Query {
-                  health: String
-                }
-                
-                type Mutation {
-                  ping: String
-                }
-                """;
-        } catch (Exception e) {
-            logger.error("Error converting introspection to SDL", e);
-            return null;
-        }
+    private Mono<String> fetchSchemaFromService(String serviceName, String serviceUrl, String graphqlPath) {
+        return webClientBuilder.build()
+            .post()
+            .uri(serviceUrl + graphqlPath)
+            .bodyValue(Map.of("query", SERVICE_SDL_QUERY))
+            .retrieve()
+            .bodyToMono(Map.class)
+            .timeout(Duration.ofMillis(schemaFetchTimeoutMs))
+            .flatMap(response -> response.get("data") instanceof Map<?, ?> data
+                    && data.get("_service") instanceof Map<?, ?> service
+                    && service.get("sdl") instanceof String sdl && !sdl.isBlank()
+                ? Mono.just(sdl)
+                : Mono.<String>empty())
+            .switchIfEmpty(Mono.defer(() -> {
+                logger.warn("Empty or null schema received from service: {}", serviceName);
+                federationIssues.add("Empty schema from service: " + serviceName);
+                return Mono.empty();
+            }))
+            .onErrorResume(e -> {
+                logger.warn("Failed to fetch schema from service {} at {}: {}", serviceName, serviceUrl,
+                    e.getMessage());
+                federationIssues.add("Schema discovery failed for " + serviceName + ": " + e.getMessage());
+                return Mono.empty();
+            });
     }
 
     /**
-     * Build federated GraphQL schema from all registered service schemas
+     * Compose the gateway and subgraph schemas and swap in a new GraphQL instance if anything changed
+     *
+     * Only types of subgraphs whose SDL hash changed are merged again. Queries already executing
+     * finish on the instance they started with. If the composition cannot be built, the current
+     * schema stays in service (or the minimal schema when there is none yet).
+     *
+     * @return whether a new schema was swapped in
      */
-    private void buildFederatedSchema() {
-        logger.info("Building federated GraphQL schema...");
-        
+    private boolean buildFederatedSchema() {
+        long startTime = System.currentTimeMillis();
         try {
-            if (registeredSchemas.isEmpty()) {
-                logger.warn("No schemas registered, building minimal schema");
-                buildMinimalSchema();
-                return;
+            Map<String, String> sources = new LinkedHashMap<>();
+            sources.put(GATEWAY_SCHEMA_SOURCE, getHealthcareBaseSchema());
+            for (ServiceSchema serviceSchema : new TreeMap<>(registeredSchemas).values()) {
+                sources.put(serviceSchema.getServiceName(), serviceSchema.getSchemaSDL());
             }
-            
-            // Combine all service schemas
-            StringBuilder federatedSDL = new StringBuilder();
-            
-            // Add common healthcare types and directives
-            federatedSDL.append(getHealthcareBaseSchema());
-            
-            // Add each service schema
-            for (ServiceSchema serviceSchema : registeredSchemas.values()) {
-                federatedSDL.append("\n# Schema from ").append(serviceSchema.getServiceName()).append("\n");
-                federatedSDL.append(serviceSchema.getSchemaSDL());
-                federatedSDL.append("\n");
+
+            SchemaComposer.Composition composition = schemaComposer.compose(sources);
+            if (composition == null) {
+                logger.debug("Subgraph schemas unchanged, keeping the federated schema");
+                schemaBuildFailure = null;
+                return false;
             }
+
+            TypeDefinitionRegistry typeRegistry = composition.getRegistry();
+            GraphQLSchema schema = new SchemaGenerator()
+                .makeExecutableSchema(typeRegistry, buildRuntimeWiring(typeRegistry));
             
-            // Parse and build schema
-            SchemaParser schemaParser = new SchemaParser();
-            TypeDefinitionRegistry typeRegistry = schemaParser.parse(federatedSDL.toString());
-            
-            // Build runtime wiring
-            RuntimeWiring runtimeWiring = buildRuntimeWiring();
-            
-            // Generate executable schema
-            SchemaGenerator schemaGenerator = new SchemaGenerator();
-            GraphQLSchema schema = schemaGenerator.makeExecutableSchema(typeRegistry, runtimeWiring);
-            
-            // Create GraphQL instance with enhanced execution strategies
-            federatedGraphQL = GraphQL.newGraphQL(schema)
+            // Create GraphQL instance with enhanced execution strategies and a fresh document cache
+            ValidatedDocumentCache schemaDocumentCache = newDocumentCache();
+            GraphQL graphQL = GraphQL.newGraphQL(schema)
+                .preparsedDocumentProvider(schemaDocumentCache)
+                .instrumentation(queryInstrumentation())
                 .queryExecutionStrategy(new AsyncExecutionStrategy())
                 .mutationExecutionStrategy(new AsyncSerialExecutionStrategy())
                 .subscriptionExecutionStrategy(new AsyncExecutionStrategy())
                 .build();
+            documentCache = schemaDocumentCache;
+            federatedGraphQL = graphQL;
+            schemaComposer.commit(composition);
+            schemaBuildFailure = null;
             
             schemaReloads.incrementAndGet();
             lastSchemaUpdate.set(System.currentTimeMillis());
             
-            logger.info("Federated GraphQL schema built successfully with {} service schemas", 
-                registeredSchemas.size());
+            logger.info("Federated GraphQL schema swapped in after {}ms: {} changed, {} of {} types recomposed",
+                System.currentTimeMillis() - startTime, composition.getChangedSources(),
+                composition.getRecomposedTypes().size(), composition.getTypeCount());
+            return true;
             
         } catch (Exception e) {
             logger.error("Failed to build federated schema", e);
+            schemaBuildFailure = e.getMessage();
             federationHealthy = false;
             federationIssues.add("Schema building failed: " + e.getMessage());
             
-            // Fall back to minimal schema
-            buildMinimalSchema();
+            if (federatedGraphQL == null) {
+                buildMinimalSchema();
+            }
+            return false;
         }
     }
 
+    private ValidatedDocumentCache newDocumentCache() {
+        return new ValidatedDocumentCache(documentCacheMaxEntries, maxQueryDepth);
+    }
+
+    /**
+     * Cost limiting runs first so rejected operations never reach the latency histograms
+     */
+    private Instrumentation queryInstrumentation() {
+        return new ChainedInstrumentation(List.of(queryCostInstrumentation, metricsInstrumentation));
+    }
+
     /**
      * Build minimal schema when federation fails
      */
@@ -457,7 +522,13 @@ public class GraphQLFederationService implements HealthIndicator {
             SchemaGenerator schemaGenerator = new SchemaGenerator();
             GraphQLSchema schema = schemaGenerator.makeExecutableSchema(typeRegistry, runtimeWiring);
             
-            federatedGraphQL = GraphQL.newGraphQL(schema).build();
+            ValidatedDocumentCache schemaDocumentCache = newDocumentCache();
+            GraphQL graphQL = GraphQL.newGraphQL(schema)
+                .preparsedDocumentProvider(schemaDocumentCache)
+                .instrumentation(queryInstrumentation())
+                .build();
+            documentCache = schemaDocumentCache;
+            federatedGraphQL = graphQL;
             
             logger.info("Minimal GraphQL schema created as fallback");
             
@@ -559,28 +630,39 @@ public class GraphQLFederationService implements HealthIndicator {
 
     /**
      * Build runtime wiring for federated schema
+     *
+     * Scalars a subgraph declares that the gateway has no implementation for pass values through unchanged.
      */
-    private RuntimeWiring buildRuntimeWiring() {
-        return RuntimeWiring.newRuntimeWiring()
+    private RuntimeWiring buildRuntimeWiring(TypeDefinitionRegistry typeRegistry) {
+        RuntimeWiring.Builder wiring = RuntimeWiring.newRuntimeWiring()
             .type("Query", builder -> builder
                 .dataFetcher("health", env -> "OK")
                 .dataFetcher("systemInfo", env -> Map.of(
                     "service", "HMS GraphQL Federation Gateway",
                     "version", "3.0.0",
-                    "timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                    "timestamp", OffsetDateTime.now(),
                     "status", federationHealthy ? "HEALTHY" : "DEGRADED",
                     "federation", Map.of(
                         "servicesCount", serviceEndpoints.size(),
                         "schemasCount", registeredSchemas.size(),
-                        "lastUpdate", new Date(lastSchemaUpdate.get()),
+                        "lastUpdate", OffsetDateTime.ofInstant(Instant.ofEpochMilli(lastSchemaUpdate.get()),
+                            ZoneOffset.UTC),
                         "healthy", federationHealthy
                     )
                 ))
             )
             .type("Mutation", builder -> builder
                 .dataFetcher("ping", env -> "pong")
-            )
-            .build();
+            );
+        for (String scalarName : typeRegistry.scalars().keySet()) {
+            if (ScalarInfo.isGraphqlSpecifiedScalar(scalarName)) {
+                continue;
+            }
+            GraphQLScalarType scalar = HEALTHCARE_SCALARS.get(scalarName);
+            wiring.scalar(scalar != null ? scalar
+                : ExtendedScalars.Json.transform(builder -> builder.name(scalarName).description(null)));
+        }
+        return wiring.build();
     }
 
     /**
@@ -610,18 +692,30 @@ public class GraphQLFederationService implements HealthIndicator {
     }
 
     /**
-     * Update query performance metrics
+     * Record query time in the latency histogram
+     *
+     * @return the elapsed time in milliseconds
      */
-    private void updateQueryMetrics(long duration, boolean successful) {
-        long currentAverage = averageQueryTime.get();
-        long totalExecuted = totalQueries.get();
-        
-        if (totalExecuted > 0) {
-            long newAverage = ((currentAverage * (totalExecuted - 1)) + duration) / totalExecuted;
-            averageQueryTime.set(newAverage);
-        } else {
-            averageQueryTime.set(duration);
+    private long recordQueryTime(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        queryTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(elapsed);
+    }
+
+    private double percentile(double percentile) {
+        for (ValueAtPercentile value : queryTimer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    private static String clientIdOf(Object context) {
+        if (context instanceof Map<?, ?> map && map.get(QueryCostInstrumentation.CLIENT_ID_KEY) != null) {
+            return map.get(QueryCostInstrumentation.CLIENT_ID_KEY).toString();
         }
+        return "anonymous";
     }
 
     /**
@@ -636,19 +730,8 @@ public class GraphQLFederationService implements HealthIndicator {
         try {
             logger.debug("Refreshing federated schemas...");
             
-            // Check for schema updates
-            boolean schemasUpdated = false;
-            for (String serviceName : HEALTHCARE_SERVICES.keySet()) {
-                if (checkForSchemaUpdates(serviceName)) {
-                    schemasUpdated = true;
-                }
-            }
-            
-            // Rebuild federated schema if updates detected
-            if (schemasUpdated) {
-                logger.info("Schema updates detected, rebuilding federated schema");
-                buildFederatedSchema();
-            }
+            // Fetches all subgraphs concurrently; recomposes and swaps only if a schema hash changed
+            reloadSchemas().block();
             
             // Update federation health
             updateFederationHealth();
@@ -660,46 +743,21 @@ public class GraphQLFederationService implements HealthIndicator {
         }
     }
 
-    /**
-     * Check for schema updates from a service
-     */
-    private boolean checkForSchemaUpdates(String serviceName) {
-        try {
-            String serviceUrl = serviceEndpoints.get(serviceName);
-            if (serviceUrl == null) {
-                return false;
-            }
-            
-            ServiceDefinition definition = HEALTHCARE_SERVICES.get(serviceName);
-            String currentSchema = fetchSchemaFromService(serviceUrl, definition.getGraphqlPath());
-            
-            ServiceSchema existingSchema = registeredSchemas.get(serviceName);
-            if (existingSchema == null || !existingSchema.getSchemaSDL().equals(currentSchema)) {
-                // Schema updated
-                if (currentSchema != null) {
-                    ServiceSchema updatedSchema = new ServiceSchema(serviceName, currentSchema, 
-                        definition.getTypes(), definition.getCriticality());
-                    registeredSchemas.put(serviceName, updatedSchema);
-                    logger.info("Schema updated for service: {}", serviceName);
-                    return true;
-                }
-            }
-            
-            return false;
-            
-        } catch (Exception e) {
-            logger.error("Error checking schema updates for service: {}", serviceName, e);
-            return false;
-        }
-    }
-
     /**
      * Update federation health status
+     *
+     * A composition that failed to build stays reported until a later build succeeds.
      */
     private void updateFederationHealth() {
         federationIssues.clear();
         federationHealthy = true;
         
+        String buildFailure = schemaBuildFailure;
+        if (buildFailure != null) {
+            federationIssues.add("Schema building failed: " + buildFailure);
+            federationHealthy = false;
+        }
+        
         // Check critical services availability
         for (Map.Entry<String, ServiceDefinition> entry : HEALTHCARE_SERVICES.entrySet()) {
             String serviceName = entry.getKey();
@@ -742,12 +800,18 @@ public class GraphQLFederationService implements HealthIndicator {
         status.put("totalQueries", totalQueries.get());
         status.put("successfulQueries", successfulQueries.get());
         status.put("failedQueries", failedQueries.get());
-        status.put("averageQueryTime", averageQueryTime.get());
+        status.put("averageQueryTime", queryTimer.mean(TimeUnit.MILLISECONDS));
+        status.put("p99QueryTime", percentile(0.99));
         status.put("schemaReloads", schemaReloads.get());
         status.put("lastSchemaUpdate", new Date(lastSchemaUpdate.get()));
         status.put("federationIssues", new ArrayList<>(federationIssues));
         status.put("healthcareServices", HEALTHCARE_SERVICES.keySet());
         status.put("serviceEndpoints", new HashMap<>(serviceEndpoints));
+        status.put("persistedQueries", persistedQueryStore.size());
+        ValidatedDocumentCache currentDocumentCache = documentCache;
+        if (currentDocumentCache != null) {
+            status.put("documentCache", currentDocumentCache.getStatistics());
+        }
         
         // Add detailed service information
         Map<String, Object> serviceDetails = new HashMap<>();
@@ -776,7 +840,7 @@ public class GraphQLFederationService implements HealthIndicator {
                .withDetail("totalQueries", totalQueries.get())
                .withDetail("successfulQueries", successfulQueries.get())
                .withDetail("failedQueries", failedQueries.get())
-               .withDetail("averageQueryTime", averageQueryTime.get())
+               .withDetail("averageQueryTime", queryTimer.mean(TimeUnit.MILLISECONDS))
                .withDetail("lastSchemaUpdate", new Date(lastSchemaUpdate.get()));
         
         if (!federationHealthy) {
@@ -0,0 +1,109 @@
+package com.hms.graphql.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Automatic Persisted Queries
+ *
+ * Implements the APQ protocol: a client sends
+ * {@code extensions.persistedQuery = {version: 1, sha256Hash}} without the
+ * query text. If the hash is unknown the gateway answers
+ * {@code PersistedQueryNotFound}, and the client retries once with both the
+ * hash and the query, which registers it. The store keeps the most
+ * recently used queries up to a fixed bound.
+ */
+@Component
+public class PersistedQueryStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistedQueryStore.class);
+
+    public static final String NOT_FOUND = "PERSISTED_QUERY_NOT_FOUND";
+    public static final String NOT_SUPPORTED = "PERSISTED_QUERY_NOT_SUPPORTED";
+    public static final String HASH_MISMATCH = "PERSISTED_QUERY_HASH_MISMATCH";
+
+    @Value("${hms.graphql.persisted-queries.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hms.graphql.persisted-queries.max-entries:2000}")
+    private int maxEntries;
+
+    private final Map<String, String> queries = Collections.synchronizedMap(
+        new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+    /**
+     * Resolve the query text of a request, registering it when it carries both the text and its hash
+     */
+    public String resolve(String query, Map<String, Object> extensions) {
+        Object persistedQuery = extensions != null ? extensions.get("persistedQuery") : null;
+        if (!(persistedQuery instanceof Map<?, ?> descriptor)) {
+            return query;
+        }
+        if (!enabled || !"1".equals(String.valueOf(descriptor.get("version")))) {
+            throw new PersistedQueryException(NOT_SUPPORTED, "PersistedQueryNotSupported");
+        }
+        Object hash = descriptor.get("sha256Hash");
+        if (!(hash instanceof String sha256Hash) || sha256Hash.isBlank()) {
+            throw new PersistedQueryException(NOT_SUPPORTED, "persistedQuery.sha256Hash is required");
+        }
+
+        if (query == null || query.isBlank()) {
+            String persisted = queries.get(sha256Hash.toLowerCase());
+            if (persisted == null) {
+                throw new PersistedQueryException(NOT_FOUND, "PersistedQueryNotFound");
+            }
+            return persisted;
+        }
+
+        String computed = sha256(query);
+        if (!computed.equalsIgnoreCase(sha256Hash)) {
+            throw new PersistedQueryException(HASH_MISMATCH, "provided sha does not match query");
+        }
+        if (queries.putIfAbsent(computed, query) == null) {
+            logger.debug("Registered persisted query {}", computed);
+        }
+        return query;
+    }
+
+    public int size() {
+        return queries.size();
+    }
+
+    private static String sha256(String query) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A persisted query request that cannot be served; {@code code} goes to the error extensions
+     */
+    public static class PersistedQueryException extends RuntimeException {
+        private final String code;
+
+        public PersistedQueryException(String code, String message) {
+            super(message);
+            this.code = code;
+        }
+
+        public String getCode() { return code; }
+    }
+}
@@ -0,0 +1,342 @@
+package com.hms.graphql.service;
+
+import graphql.GraphQLError;
+import graphql.language.Definition;
+import graphql.language.Directive;
+import graphql.language.DirectiveDefinition;
+import graphql.language.Document;
+import graphql.language.EnumTypeDefinition;
+import graphql.language.EnumValueDefinition;
+import graphql.language.FieldDefinition;
+import graphql.language.InputObjectTypeDefinition;
+import graphql.language.InputValueDefinition;
+import graphql.language.InterfaceTypeDefinition;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.ScalarTypeDefinition;
+import graphql.language.SDLDefinition;
+import graphql.language.Type;
+import graphql.language.TypeDefinition;
+import graphql.language.TypeName;
+import graphql.language.UnionTypeDefinition;
+import graphql.parser.Parser;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.errors.SchemaProblem;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Incremental composition of subgraph SDL into one gateway schema
+ *
+ * Each subgraph's SDL is identified by its SHA-256 content hash and parsed
+ * only when the hash changes. A type defined by several subgraphs is merged
+ * into a single definition (union of fields, values and members; the first
+ * contributor wins on conflicts), so subgraphs may each declare
+ * {@code type Query} or share value types. When a subgraph changes, only the
+ * types it defined before or defines now are merged again; every other
+ * merged type is reused from the previous composition.
+ *
+ * Federation directives ({@code @key}, {@code @external}, ...) and
+ * federation-internal types ({@code _Service}, {@code _Entity}, ...) are
+ * removed: they describe how subgraphs join, not the API clients see.
+ *
+ * {@link #compose} does not change the composer; the caller
+ * {@link #commit commits} a composition once its schema has been built, so a
+ * composition that fails to build is retried on the next refresh.
+ */
+public class SchemaComposer {
+
+    private static final Set<String> FEDERATION_DIRECTIVES = Set.of(
+        "key", "extends", "external", "requires", "provides", "shareable", "inaccessible", "override", "tag",
+        "link", "composeDirective", "interfaceObject");
+    private static final String DIRECTIVE_KEY_PREFIX = "@";
+
+    /** source name → its last composed SDL, in contribution order */
+    private Map<String, Contribution> contributions = new LinkedHashMap<>();
+    /** type (or "@directive") name → merged definition */
+    private Map<String, SDLDefinition<?>> composed = new LinkedHashMap<>();
+
+    /**
+     * Compose the given sources (name → SDL, in precedence order)
+     *
+     * @return the composition, or null when no source changed since the last commit
+     * @throws SchemaProblem if a changed source is not valid SDL or the merged definitions conflict
+     */
+    public synchronized Composition compose(Map<String, String> sdlBySource) {
+        Map<String, Contribution> nextContributions = new LinkedHashMap<>();
+        Set<String> changedSources = new LinkedHashSet<>();
+        Set<String> affected = new LinkedHashSet<>();
+
+        for (Map.Entry<String, String> source : sdlBySource.entrySet()) {
+            String hash = sha256(source.getValue());
+            Contribution previous = contributions.get(source.getKey());
+            if (previous != null && previous.hash.equals(hash)) {
+                nextContributions.put(source.getKey(), previous);
+                continue;
+            }
+            Contribution contribution = Contribution.parse(hash, source.getValue());
+            nextContributions.put(source.getKey(), contribution);
+            changedSources.add(source.getKey());
+            affected.addAll(contribution.definitions.keySet());
+            if (previous != null) {
+                affected.addAll(previous.definitions.keySet());
+            }
+        }
+        for (Map.Entry<String, Contribution> previous : contributions.entrySet()) {
+            if (!nextContributions.containsKey(previous.getKey())) {
+                changedSources.add(previous.getKey());
+                affected.addAll(previous.getValue().definitions.keySet());
+            }
+        }
+        if (changedSources.isEmpty() && !composed.isEmpty()) {
+            return null;
+        }
+
+        Map<String, SDLDefinition<?>> nextComposed = new LinkedHashMap<>(composed);
+        for (String name : affected) {
+            List<SDLDefinition<?>> parts = new ArrayList<>();
+            for (Contribution contribution : nextContributions.values()) {
+                parts.addAll(contribution.definitions.getOrDefault(name, List.of()));
+            }
+            SDLDefinition<?> merged = parts.isEmpty() ? null : merge(parts);
+            if (merged == null) {
+                nextComposed.remove(name);
+            } else {
+                nextComposed.put(name, merged);
+            }
+        }
+
+        TypeDefinitionRegistry registry = new TypeDefinitionRegistry();
+        for (SDLDefinition<?> definition : nextComposed.values()) {
+            Optional<GraphQLError> error = registry.add(definition);
+            if (error.isPresent()) {
+                throw new SchemaProblem(List.of(error.get()));
+            }
+        }
+        return new Composition(nextContributions, nextComposed, registry, changedSources, affected);
+    }
+
+    /**
+     * Make a composition the baseline the next {@link #compose} diffs against
+     */
+    public synchronized void commit(Composition composition) {
+        contributions = composition.contributions;
+        composed = composition.composed;
+    }
+
+    private static SDLDefinition<?> merge(List<SDLDefinition<?>> contributed) {
+        SDLDefinition<?> first = contributed.get(0);
+        // A source declaring the name as a different kind of type cannot be merged; the first source wins
+        List<SDLDefinition<?>> parts = new ArrayList<>(contributed.size());
+        for (SDLDefinition<?> part : contributed) {
+            if (kindOf(part) == kindOf(first)) {
+                parts.add(part);
+            }
+        }
+        if (first instanceof ObjectTypeDefinition object) {
+            return ObjectTypeDefinition.newObjectTypeDefinition()
+                .name(object.getName())
+                .description(object.getDescription())
+                .implementz(mergeTypes(parts, part -> ((ObjectTypeDefinition) part).getImplements()))
+                .directives(mergeDirectives(parts, part -> ((ObjectTypeDefinition) part).getDirectives()))
+                .fieldDefinitions(mergeFields(parts, part -> ((ObjectTypeDefinition) part).getFieldDefinitions()))
+                .build();
+        }
+        if (first instanceof InterfaceTypeDefinition type) {
+            return InterfaceTypeDefinition.newInterfaceTypeDefinition()
+                .name(type.getName())
+                .description(type.getDescription())
+                .implementz(mergeTypes(parts, part -> ((InterfaceTypeDefinition) part).getImplements()))
+                .directives(mergeDirectives(parts, part -> ((InterfaceTypeDefinition) part).getDirectives()))
+                .definitions(mergeFields(parts, part -> ((InterfaceTypeDefinition) part).getFieldDefinitions()))
+                .build();
+        }
+        if (first instanceof InputObjectTypeDefinition input) {
+            Map<String, InputValueDefinition> fields = new LinkedHashMap<>();
+            for (SDLDefinition<?> part : parts) {
+                for (InputValueDefinition field : ((InputObjectTypeDefinition) part).getInputValueDefinitions()) {
+                    fields.putIfAbsent(field.getName(), field);
+                }
+            }
+            return InputObjectTypeDefinition.newInputObjectDefinition()
+                .name(input.getName())
+                .description(input.getDescription())
+                .directives(mergeDirectives(parts, part -> ((InputObjectTypeDefinition) part).getDirectives()))
+                .inputValueDefinitions(new ArrayList<>(fields.values()))
+                .build();
+        }
+        if (first instanceof EnumTypeDefinition enumType) {
+            Map<String, EnumValueDefinition> values = new LinkedHashMap<>();
+            for (SDLDefinition<?> part : parts) {
+                for (EnumValueDefinition value : ((EnumTypeDefinition) part).getEnumValueDefinitions()) {
+                    values.putIfAbsent(value.getName(), value);
+                }
+            }
+            return EnumTypeDefinition.newEnumTypeDefinition()
+                .name(enumType.getName())
+                .description(enumType.getDescription())
+                .directives(mergeDirectives(parts, part -> ((EnumTypeDefinition) part).getDirectives()))
+                .enumValueDefinitions(new ArrayList<>(values.values()))
+                .build();
+        }
+        if (first instanceof UnionTypeDefinition union) {
+            return UnionTypeDefinition.newUnionTypeDefinition()
+                .name(union.getName())
+                .description(union.getDescription())
+                .directives(mergeDirectives(parts, part -> ((UnionTypeDefinition) part).getDirectives()))
+                .memberTypes(mergeTypes(parts, part -> ((UnionTypeDefinition) part).getMemberTypes()))
+                .build();
+        }
+        if (first instanceof ScalarTypeDefinition scalar) {
+            return ScalarTypeDefinition.newScalarTypeDefinition()
+                .name(scalar.getName())
+                .description(scalar.getDescription())
+                .directives(mergeDirectives(parts, part -> ((ScalarTypeDefinition) part).getDirectives()))
+                .build();
+        }
+        // Directive definitions: the first declaration wins
+        return first;
+    }
+
+    private static Class<?> kindOf(SDLDefinition<?> definition) {
+        for (Class<?> kind : List.of(ObjectTypeDefinition.class, InterfaceTypeDefinition.class,
+                InputObjectTypeDefinition.class, EnumTypeDefinition.class, UnionTypeDefinition.class,
+                ScalarTypeDefinition.class)) {
+            if (kind.isInstance(definition)) {
+                return kind;
+            }
+        }
+        return definition.getClass();
+    }
+
+    private static List<FieldDefinition> mergeFields(List<SDLDefinition<?>> parts,
+                                                     Function<SDLDefinition<?>, List<FieldDefinition>> fieldsOf) {
+        Map<String, FieldDefinition> fields = new LinkedHashMap<>();
+        for (SDLDefinition<?> part : parts) {
+            for (FieldDefinition field : fieldsOf.apply(part)) {
+                // @external fields are declared by an extending subgraph but resolved by the owner
+                if (field.getName().startsWith("_") || field.hasDirective("external")) {
+                    continue;
+                }
+                fields.putIfAbsent(field.getName(), field.transform(builder -> builder
+                    .directives(withoutFederationDirectives(field.getDirectives()))));
+            }
+        }
+        return new ArrayList<>(fields.values());
+    }
+
+    private static List<Directive> mergeDirectives(List<SDLDefinition<?>> parts,
+                                                   Function<SDLDefinition<?>, List<Directive>> directivesOf) {
+        Map<String, Directive> directives = new LinkedHashMap<>();
+        for (SDLDefinition<?> part : parts) {
+            for (Directive directive : withoutFederationDirectives(directivesOf.apply(part))) {
+                directives.putIfAbsent(directive.getName(), directive);
+            }
+        }
+        return new ArrayList<>(directives.values());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static List<Type> mergeTypes(List<SDLDefinition<?>> parts,
+                                         Function<SDLDefinition<?>, List<? extends Type>> typesOf) {
+        Map<String, Type> types = new LinkedHashMap<>();
+        for (SDLDefinition<?> part : parts) {
+            for (Type type : typesOf.apply(part)) {
+                types.putIfAbsent(((TypeName) type).getName(), type);
+            }
+        }
+        return new ArrayList<>(types.values());
+    }
+
+    private static List<Directive> withoutFederationDirectives(List<Directive> directives) {
+        List<Directive> kept = new ArrayList<>(directives.size());
+        for (Directive directive : directives) {
+            if (!FEDERATION_DIRECTIVES.contains(directive.getName())) {
+                kept.add(directive);
+            }
+        }
+        return kept;
+    }
+
+    private static String sha256(String sdl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sdl.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * One source's parsed definitions, grouped by the type (or directive) they declare
+     */
+    private static final class Contribution {
+        private final String hash;
+        private final Map<String, List<SDLDefinition<?>>> definitions;
+
+        private Contribution(String hash, Map<String, List<SDLDefinition<?>>> definitions) {
+            this.hash = hash;
+            this.definitions = definitions;
+        }
+
+        static Contribution parse(String hash, String sdl) {
+            Document document = Parser.parse(sdl);
+            Map<String, List<SDLDefinition<?>>> definitions = new HashMap<>();
+            for (Definition<?> definition : document.getDefinitions()) {
+                String name;
+                if (definition instanceof TypeDefinition<?> type) {
+                    name = type.getName();
+                } else if (definition instanceof DirectiveDefinition directive) {
+                    if (FEDERATION_DIRECTIVES.contains(directive.getName())) {
+                        continue;
+                    }
+                    name = DIRECTIVE_KEY_PREFIX + directive.getName();
+                } else {
+                    // Schema definitions and executable definitions have no place in a subgraph SDL
+                    continue;
+                }
+                if (!name.startsWith("_")) {
+                    definitions.computeIfAbsent(name, key -> new ArrayList<>()).add((SDLDefinition<?>) definition);
+                }
+            }
+            return new Contribution(hash, definitions);
+        }
+    }
+
+    /**
+     * A composed schema and what changed relative to the previous commit
+     */
+    public static final class Composition {
+        private final Map<String, Contribution> contributions;
+        private final Map<String, SDLDefinition<?>> composed;
+        private final TypeDefinitionRegistry registry;
+        private final Set<String> changedSources;
+        private final Set<String> recomposedTypes;
+
+        private Composition(Map<String, Contribution> contributions, Map<String, SDLDefinition<?>> composed,
+                            TypeDefinitionRegistry registry, Set<String> changedSources,
+                            Set<String> recomposedTypes) {
+            this.contributions = contributions;
+            this.composed = composed;
+            this.registry = registry;
+            this.changedSources = changedSources;
+            this.recomposedTypes = recomposedTypes;
+        }
+
+        public TypeDefinitionRegistry getRegistry() { return registry; }
+        public Set<String> getChangedSources() { return changedSources; }
+        public Set<String> getRecomposedTypes() { return recomposedTypes; }
+        public int getTypeCount() { return composed.size(); }
+    }
+}
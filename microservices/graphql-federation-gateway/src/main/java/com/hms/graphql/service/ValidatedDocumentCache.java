@@ -0,0 +1,128 @@
+package com.hms.graphql.service;
+
+import graphql.ErrorType;
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of parsed and validated documents
+ *
+ * A document is parsed, validated against the schema and checked against
+ * the depth limit once; later requests with the same query text reuse the
+ * result, including its errors. Cost depends on variables and on the
+ * caller, so it is checked per execution by
+ * {@link com.hms.graphql.instrumentation.QueryCostInstrumentation}. One
+ * cache belongs to one built {@link graphql.GraphQL} instance, so a schema
+ * rebuild starts with an empty cache and never reuses a document validated
+ * against the old schema.
+ */
+public class ValidatedDocumentCache implements PreparsedDocumentProvider {
+
+    private final int maxQueryDepth;
+    private final Map<String, PreparsedDocumentEntry> documents;
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+
+    public ValidatedDocumentCache(int maxEntries, int maxQueryDepth) {
+        this.maxQueryDepth = maxQueryDepth;
+        this.documents = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparsedDocumentEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(ExecutionInput executionInput,
+            Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction) {
+        PreparsedDocumentEntry entry = documents.get(executionInput.getQuery());
+        if (entry != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(entry);
+        }
+        misses.incrementAndGet();
+
+        // Parsing happens outside the lock; two first requests for the same text may both parse it
+        entry = parseAndValidateFunction.apply(executionInput);
+        if (!entry.hasErrors()) {
+            GraphQLError limitError = checkLimits(entry.getDocument());
+            if (limitError != null) {
+                entry = new PreparsedDocumentEntry(limitError);
+            }
+        }
+        documents.put(executionInput.getQuery(), entry);
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("size", documents.size());
+        statistics.put("hits", hits.get());
+        statistics.put("misses", misses.get());
+        return statistics;
+    }
+
+    /**
+     * Depth limit over every operation of the document, fragments inlined
+     */
+    private GraphQLError checkLimits(Document document) {
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+            fragments.put(fragment.getName(), fragment);
+        }
+        for (OperationDefinition operation : document.getDefinitionsOfType(OperationDefinition.class)) {
+            int depth = measure(operation.getSelectionSet(), fragments, 0);
+            if (depth > maxQueryDepth) {
+                return limitError("Query depth exceeds maximum allowed: " + depth + " > " + maxQueryDepth);
+            }
+        }
+        return null;
+    }
+
+    private static int measure(SelectionSet selectionSet, Map<String, FragmentDefinition> fragments, int depth) {
+        if (selectionSet == null) {
+            return depth;
+        }
+        int deepest = depth;
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field field) {
+                deepest = Math.max(deepest, measure(field.getSelectionSet(), fragments, depth + 1));
+            } else if (selection instanceof InlineFragment fragment) {
+                deepest = Math.max(deepest, measure(fragment.getSelectionSet(), fragments, depth));
+            } else if (selection instanceof FragmentSpread spread && fragments.containsKey(spread.getName())) {
+                // Validation has already rejected fragment cycles
+                deepest = Math.max(deepest,
+                    measure(fragments.get(spread.getName()).getSelectionSet(), fragments, depth));
+            }
+        }
+        return deepest;
+    }
+
+    private static GraphQLError limitError(String message) {
+        return GraphqlErrorBuilder.newError()
+            .message(message)
+            .errorType(ErrorType.ValidationError)
+            .extensions(Map.of("code", "QUERY_LIMIT_EXCEEDED"))
+            .build();
+    }
+}
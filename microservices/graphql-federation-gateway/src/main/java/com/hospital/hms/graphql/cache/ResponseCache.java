@@ -0,0 +1,365 @@
+package com.hospital.hms.graphql.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hospital.hms.graphql.federation.QueryPlan;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of federated query responses
+ *
+ * Keys are SHA-256 digests of the normalized operation, the variables
+ * (serialized with sorted keys), the schema version and the caller's
+ * authorization scope, so responses containing PHI are never shared
+ * between callers. Responses are stored serialized; the serialized size is
+ * the entry weight and every hit returns a fresh copy.
+ *
+ * Entries are evicted least-recently-used when either the entry count or
+ * the total weight is exceeded. Expiry runs on a single hashed timer wheel
+ * ticking once per second rather than one scheduled task per entry. Each
+ * entry is indexed by the object types and subgraphs it read, so a
+ * mutation or a subgraph removal drops the entries it may affect.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private static final int WHEEL_SLOTS = 512;
+    private static final String SERVICE_TAG_PREFIX = "service:";
+    private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {
+    };
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long maxWeightBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    /** access-ordered, guarded by this */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    /** tag (type name or service) → entries that read it, guarded by this */
+    private final Map<String, Set<Entry>> byTag = new HashMap<>();
+    /** timer wheel slots of entries, guarded by this */
+    private final List<Set<Entry>> wheel = new ArrayList<>(WHEEL_SLOTS);
+    private int cursor;
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sizeEvictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ScheduledExecutorService ticker;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${graphql.federation.cache.enabled:true}") boolean enabled,
+                         @Value("${graphql.federation.cache.default-ttl-seconds:300}") long ttlSeconds,
+                         @Value("${graphql.federation.cache.max-entries:10000}") int maxEntries,
+                         @Value("${graphql.federation.cache.max-weight-mb:64}") long maxWeightMb) {
+        this.enabled = enabled;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.maxWeightBytes = maxWeightMb * 1024 * 1024;
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new HashSet<>());
+        }
+
+        FunctionCounter.builder("graphql.response.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("graphql.response.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("graphql.response.cache.evictions", sizeEvictions, AtomicLong::get)
+                .tag("cause", "size").register(meterRegistry);
+        FunctionCounter.builder("graphql.response.cache.evictions", expirations, AtomicLong::get)
+                .tag("cause", "expired").register(meterRegistry);
+        FunctionCounter.builder("graphql.response.cache.evictions", invalidations, AtomicLong::get)
+                .tag("cause", "invalidated").register(meterRegistry);
+        Gauge.builder("graphql.response.cache.entries", this, ResponseCache::size).register(meterRegistry);
+        Gauge.builder("graphql.response.cache.weight.bytes", this, ResponseCache::weight).register(meterRegistry);
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "response-cache-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Cache key for an operation, its variables and the caller's authorization scope
+     */
+    public String key(QueryPlan plan, Map<String, Object> variables, Map<String, Object> context) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(plan.getNormalizedOperation().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(objectMapper.writeValueAsBytes(variables != null ? variables : Map.of()));
+            digest.update((byte) 0);
+            digest.update(Long.toString(plan.getSchemaVersion()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(scope(context).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to compute response cache key", e);
+        }
+    }
+
+    /**
+     * A fresh copy of the cached response, or null
+     */
+    public Map<String, Object> get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        byte[] body;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+                if (entry != null) {
+                    entries.remove(key);
+                    unlink(entry);
+                    expirations.incrementAndGet();
+                }
+                misses.incrementAndGet();
+                return null;
+            }
+            body = entry.body;
+        }
+        hits.incrementAndGet();
+        try {
+            return objectMapper.readValue(body, RESPONSE_TYPE);
+        } catch (IOException e) {
+            log.warn("Dropping unreadable cached response: {}", e.getMessage());
+            invalidate(List.of(key));
+            return null;
+        }
+    }
+
+    /**
+     * Cache a response of a query plan; responses with errors are not cached
+     */
+    public void put(String key, Map<String, Object> response, QueryPlan plan) {
+        if (!enabled || response.get("errors") instanceof Collection<?> errors && !errors.isEmpty()) {
+            return;
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            log.warn("Response not cacheable: {}", e.getMessage());
+            return;
+        }
+        if (body.length > maxWeightBytes) {
+            return;
+        }
+
+        Set<String> tags = new HashSet<>(plan.getTypes());
+        plan.getServices().forEach(service -> tags.add(SERVICE_TAG_PREFIX + service));
+
+        synchronized (this) {
+            int slot = (int) ((cursor + Math.max(1, ttlMillis / 1000)) % WHEEL_SLOTS);
+            Entry entry = new Entry(key, body, System.currentTimeMillis() + ttlMillis, slot, tags);
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                unlink(previous);
+            }
+            wheel.get(slot).add(entry);
+            for (String tag : tags) {
+                byTag.computeIfAbsent(tag, t -> new HashSet<>()).add(entry);
+            }
+            weight += body.length;
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || weight > maxWeightBytes) && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                unlink(evicted);
+                sizeEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop every entry that read any of the given object types
+     */
+    public void invalidateTypes(Collection<String> types) {
+        invalidateTags(types);
+    }
+
+    /**
+     * Drop every entry that was served by the subgraph
+     */
+    public void invalidateService(String service) {
+        invalidateTags(List.of(SERVICE_TAG_PREFIX + service));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        byTag.clear();
+        wheel.forEach(Set::clear);
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void invalidateTags(Collection<String> tags) {
+        int dropped;
+        synchronized (this) {
+            Set<Entry> affected = new HashSet<>();
+            for (String tag : tags) {
+                affected.addAll(byTag.getOrDefault(tag, Set.of()));
+            }
+            for (Entry entry : affected) {
+                entries.remove(entry.key, entry);
+                unlink(entry);
+            }
+            dropped = affected.size();
+        }
+        if (dropped > 0) {
+            invalidations.addAndGet(dropped);
+            log.debug("Invalidated {} cached responses for {}", dropped, tags);
+        }
+    }
+
+    private synchronized void invalidate(Collection<String> keys) {
+        for (String key : keys) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                unlink(entry);
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Advance the wheel one slot and drop the entries in it that are due
+     */
+    void tick() {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            cursor = (cursor + 1) % WHEEL_SLOTS;
+            Iterator<Entry> due = wheel.get(cursor).iterator();
+            while (due.hasNext()) {
+                Entry entry = due.next();
+                if (entry.expiresAt > now) {
+                    // TTL longer than one turn of the wheel; revisit on the next turn
+                    continue;
+                }
+                due.remove();
+                if (entries.remove(entry.key, entry)) {
+                    unlink(entry);
+                    expirations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove an entry that is no longer in {@link #entries} from the wheel, the tag index and the weight
+     */
+    private void unlink(Entry entry) {
+        wheel.get(entry.slot).remove(entry);
+        for (String tag : entry.tags) {
+            Set<Entry> tagged = byTag.get(tag);
+            if (tagged != null) {
+                tagged.remove(entry);
+                if (tagged.isEmpty()) {
+                    byTag.remove(tag);
+                }
+            }
+        }
+        weight -= entry.body.length;
+    }
+
+    /**
+     * Authorization scope of the caller: tenant, user and roles when known, otherwise the credential itself
+     */
+    private static String scope(Map<String, Object> context) {
+        if (context == null) {
+            return "anonymous";
+        }
+        Object userId = context.get("userId");
+        if (userId != null) {
+            Object roles = context.get("roles");
+            Set<String> sortedRoles = new TreeSet<>();
+            if (roles instanceof Collection<?> collection) {
+                collection.forEach(role -> sortedRoles.add(String.valueOf(role)));
+            }
+            return "tenant=" + context.getOrDefault("tenantId", "") + ";user=" + userId + ";roles=" + sortedRoles;
+        }
+        Object authorization = context.get("authorization");
+        return authorization != null ? "credential=" + authorization : "anonymous";
+    }
+
+    /**
+     * Identity-compared cache entry
+     */
+    private static final class Entry {
+        private final String key;
+        private final byte[] body;
+        private final long expiresAt;
+        private final int slot;
+        private final Set<String> tags;
+
+        Entry(String key, byte[] body, long expiresAt, int slot, Set<String> tags) {
+            this.key = key;
+            this.body = body;
+            this.expiresAt = expiresAt;
+            this.slot = slot;
+            this.tags = tags;
+        }
+    }
+}
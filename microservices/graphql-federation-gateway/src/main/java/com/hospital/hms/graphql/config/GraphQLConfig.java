@@ -1,7 +1,9 @@
 package com.hospital.hms.graphql.config;
 
+import com.hms.graphql.instrumentation.GraphQLMetricsInstrumentation;
+import com.hms.graphql.instrumentation.QueryCostInstrumentation;
+import com.hospital.hms.graphql.subscription.SubscriptionWebSocketHandler;
 import com.netflix.graphql.dgs.federation.DefaultDgsFederationResolver;
-import graphql.analysis.MaxQueryComplexityInstrumentation;
 import graphql.analysis.MaxQueryDepthInstrumentation;
 import graphql.execution.AsyncExecutionStrategy;
 import graphql.execution.AsyncSerialExecutionStrategy;
@@ -31,7 +33,7 @@ import java.util.concurrent.ForkJoinPool;
  * 
  * Comprehensive configuration for GraphQL federation including:
  * - Schema federation and stitching
- * - Query complexity and depth analysis
+ * - Query cost and depth analysis
  * - Performance instrumentation
  * - Custom scalar types for healthcare data
  * - WebSocket configuration for subscriptions
@@ -46,9 +48,6 @@ import java.util.concurrent.ForkJoinPool;
 @EnableWebSocket
 public class GraphQLConfig implements WebSocketConfigurer {
 
-    @Value("${graphql.query.max-complexity:1000}")
-    private int maxQueryComplexity;
-
     @Value("${graphql.query.max-depth:15}")
     private int maxQueryDepth;
 
@@ -64,6 +63,21 @@ public class GraphQLConfig implements WebSocketConfigurer {
     @Value("${graphql.introspection.enabled:true}")
     private boolean introspectionEnabled;
 
+    private final SubscriptionWebSocketHandler subscriptionWebSocketHandler;
+    private final SubscriptionProperties subscriptionProperties;
+    private final QueryCostInstrumentation queryCostInstrumentation;
+    private final GraphQLMetricsInstrumentation metricsInstrumentation;
+
+    public GraphQLConfig(SubscriptionWebSocketHandler subscriptionWebSocketHandler,
+                         SubscriptionProperties subscriptionProperties,
+                         QueryCostInstrumentation queryCostInstrumentation,
+                         GraphQLMetricsInstrumentation metricsInstrumentation) {
+        this.subscriptionWebSocketHandler = subscriptionWebSocketHandler;
+        this.subscriptionProperties = subscriptionProperties;
+        this.queryCostInstrumentation = queryCostInstrumentation;
+        this.metricsInstrumentation = metricsInstrumentation;
+    }
+
     /**
      * Configure GraphQL Runtime Wiring with healthcare-specific scalars
      */
@@ -112,8 +126,8 @@ public class GraphQLConfig implements WebSocketConfigurer {
     public Instrumentation graphQLInstrumentation() {
         ChainedInstrumentation.Builder builder = ChainedInstrumentation.newChainedInstrumentation();
         
-        // Query complexity analysis
-        builder.instrumentation(new MaxQueryComplexityInstrumentation(maxQueryComplexity));
+        // Query cost analysis: field weights, list multipliers and per-client budgets
+        builder.instrumentation(queryCostInstrumentation);
         
         // Query depth analysis
         builder.instrumentation(new MaxQueryDepthInstrumentation(maxQueryDepth));
@@ -129,8 +143,8 @@ public class GraphQLConfig implements WebSocketConfigurer {
         // Healthcare-specific query validation instrumentation
         builder.instrumentation(new HealthcareQueryValidationInstrumentation());
         
-        // Performance metrics instrumentation
-        builder.instrumentation(new GraphQLMetricsInstrumentation());
+        // Operation and field latency histograms
+        builder.instrumentation(metricsInstrumentation);
         
         // Security instrumentation for healthcare compliance
         builder.instrumentation(new HealthcareSecurityInstrumentation());
@@ -180,12 +194,15 @@ public class GraphQLConfig implements WebSocketConfigurer {
 
     /**
      * WebSocket configuration for real-time subscriptions
+     *
+     * graphql-transport-ws clients speak plain WebSocket, so the endpoint is
+     * registered without a SockJS fallback. Browsers send cookies with the
+     * handshake, so only the configured origins may open it.
      */
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
-        registry.addHandler(new GraphQLSubscriptionHandler(), "/graphql-ws")
-                .setAllowedOrigins("*")
-                .withSockJS();
+        registry.addHandler(subscriptionWebSocketHandler, "/graphql-ws")
+                .setAllowedOrigins(subscriptionProperties.getAllowedOrigins().toArray(new String[0]));
     }
 
     // Healthcare-specific custom scalar implementations
@@ -280,16 +297,6 @@ public class GraphQLConfig implements WebSocketConfigurer {
         // Validates medical terminology usage
     }
 
-    /**
-     * GraphQL metrics instrumentation for performance monitoring
-     */
-    private static class GraphQLMetricsInstrumentation implements Instrumentation {
-        // Implementation for collecting GraphQL metrics
-        // Query execution time, complexity, depth
-        // Federation performance metrics
-        // Cache hit/miss ratios
-    }
-
     /**
      * Healthcare security instrumentation for compliance
      */
@@ -300,42 +307,6 @@ public class GraphQLConfig implements WebSocketConfigurer {
         // Audit trail for medical data queries
     }
 
-    /**
-     * WebSocket handler for GraphQL subscriptions
-     */
-    private static class GraphQLSubscriptionHandler implements org.springframework.web.socket.WebSocketHandler {
-        // Implementation for real-time GraphQL subscriptions
-        // Handles patient status updates, critical alerts, etc.
-        
-        @Override
-        public void afterConnectionEstablished(org.springframework.web.socket.WebSocketSession session) {
-            // Initialize subscription session
-        }
-        
-        @Override
-        public void handleMessage(org.springframework.web.socket.WebSocketSession session, 
-                                org.springframework.web.socket.WebSocketMessage<?> message) {
-            // Handle GraphQL subscription messages
-        }
-        
-        @Override
-        public void handleTransportError(org.springframework.web.socket.WebSocketSession session, 
-                                       Throwable exception) {
-            // Handle transport errors
-        }
-        
-        @Override
-        public void afterConnectionClosed(org.springframework.web.socket.WebSocketSession session, 
-                                        org.springframework.web.socket.CloseStatus closeStatus) {
-            // Clean up subscription session
-        }
-        
-        @Override
-        public boolean supportsPartialMessages() {
-            return false;
-        }
-    }
-
     /**
      * Healthcare-specific data fetcher exception handler
      */
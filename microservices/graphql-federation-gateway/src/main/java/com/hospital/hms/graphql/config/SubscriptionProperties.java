@@ -0,0 +1,78 @@
+package com.hospital.hms.graphql.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GraphQL subscription delivery settings
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "graphql.federation.subscriptions")
+public class SubscriptionProperties {
+
+    /**
+     * Pending messages held per connection; a slow consumer keeps only the latest event per entity
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * Threads writing queued messages to sockets, shared by all connections
+     */
+    private int deliveryThreads = 16;
+
+    /**
+     * A socket write taking longer than this closes the connection
+     */
+    private int sendTimeLimitMs = 10_000;
+
+    private int sendBufferSizeBytes = 512 * 1024;
+
+    /**
+     * Browser origins allowed to open the subscription socket
+     */
+    private List<String> allowedOrigins = new ArrayList<>(List.of("http://localhost:3000", "http://localhost:8080"));
+
+    private Authorization authorization = new Authorization();
+
+    private Kafka kafka = new Kafka();
+
+    @Data
+    public static class Authorization {
+
+        /**
+         * Topic (entity type) → roles allowed to follow single entities of it; unlisted topics are denied
+         */
+        private Map<String, List<String>> topics = new LinkedHashMap<>();
+
+        /**
+         * Roles allowed to follow every entity of a topic they may subscribe to
+         */
+        private List<String> allEntitiesRoles = new ArrayList<>(List.of("ADMIN"));
+    }
+
+    @Data
+    public static class Kafka {
+
+        private boolean enabled = true;
+
+        /**
+         * Kafka topic → entity type its events describe, e.g. vital-signs-events → VitalSigns
+         */
+        private Map<String, String> topics = new LinkedHashMap<>();
+
+        /**
+         * Event field identifying the entity when the record has no key
+         */
+        private String entityKeyField = "id";
+    }
+}
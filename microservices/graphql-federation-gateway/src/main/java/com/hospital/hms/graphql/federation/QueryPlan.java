@@ -0,0 +1,206 @@
+package com.hospital.hms.graphql.federation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Subgraph fetches for one federated operation
+ *
+ * Root fetches are independent of each other and run in parallel (in order
+ * for mutations). Each fetch lists the {@code _entities} fetches that need
+ * keys from its result; those start as soon as it is merged.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class QueryPlan {
+
+    private final String rootType;
+    private final boolean serial;
+    private final List<Fetch> roots;
+    private final List<String> localTypenames;
+    private final Set<String> types;
+    private final String normalizedOperation;
+    private final long schemaVersion;
+
+    QueryPlan(String rootType, boolean serial, List<Fetch> roots, List<String> localTypenames, Set<String> types,
+              String normalizedOperation, long schemaVersion) {
+        this.rootType = rootType;
+        this.serial = serial;
+        this.roots = List.copyOf(roots);
+        this.localTypenames = List.copyOf(localTypenames);
+        this.types = Collections.unmodifiableSet(new LinkedHashSet<>(types));
+        this.normalizedOperation = normalizedOperation;
+        this.schemaVersion = schemaVersion;
+    }
+
+    public String getRootType() {
+        return rootType;
+    }
+
+    /**
+     * Whether root fetches must run one after another (mutations)
+     */
+    public boolean isSerial() {
+        return serial;
+    }
+
+    public List<Fetch> getRoots() {
+        return roots;
+    }
+
+    /**
+     * Response keys of root {@code __typename} selections, answered by the gateway
+     */
+    public List<String> getLocalTypenames() {
+        return localTypenames;
+    }
+
+    /**
+     * Object types the operation selects fields of, at any depth
+     */
+    public Set<String> getTypes() {
+        return types;
+    }
+
+    /**
+     * Operation name and compact-printed document, identical for whitespace and comment variants
+     */
+    public String getNormalizedOperation() {
+        return normalizedOperation;
+    }
+
+    public long getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    /**
+     * Every subgraph the plan calls
+     */
+    public Set<String> getServices() {
+        Set<String> services = new LinkedHashSet<>();
+        collectServices(roots, services);
+        return services;
+    }
+
+    public int getFetchCount() {
+        return countFetches(roots);
+    }
+
+    private static void collectServices(List<Fetch> fetches, Set<String> services) {
+        for (Fetch fetch : fetches) {
+            services.add(fetch.getService());
+            collectServices(fetch.getDependents(), services);
+        }
+    }
+
+    private static int countFetches(List<Fetch> fetches) {
+        int count = fetches.size();
+        for (Fetch fetch : fetches) {
+            count += countFetches(fetch.getDependents());
+        }
+        return count;
+    }
+
+    /**
+     * One request to one subgraph
+     */
+    public static final class Fetch {
+
+        private final String service;
+        private final boolean entities;
+        private final List<String> path;
+        private final String typeName;
+        private final List<String> keyFields;
+        private final List<Fetch> dependents = new ArrayList<>();
+        private String document;
+        private String entitySelection;
+        private Map<String, String> variableDefinitions = Map.of();
+        private Set<String> variables = Set.of();
+
+        Fetch(String service, boolean entities, List<String> path, String typeName, List<String> keyFields) {
+            this.service = service;
+            this.entities = entities;
+            this.path = List.copyOf(path);
+            this.typeName = typeName;
+            this.keyFields = List.copyOf(keyFields);
+        }
+
+        public String getService() {
+            return service;
+        }
+
+        /**
+         * Whether this is an {@code _entities} fetch rather than a root fetch
+         */
+        public boolean isEntities() {
+            return entities;
+        }
+
+        /**
+         * Response keys from the root to the objects this fetch extends; lists are walked element-wise
+         */
+        public List<String> getPath() {
+            return path;
+        }
+
+        public String getTypeName() {
+            return typeName;
+        }
+
+        public List<String> getKeyFields() {
+            return keyFields;
+        }
+
+        /**
+         * Subgraph operation of a root fetch; entity fetches are assembled into batches at execution time
+         */
+        public String getDocument() {
+            return document;
+        }
+
+        /**
+         * Inline fragment selected on each {@code _entities} result, e.g. {@code ... on Patient{name}}
+         */
+        public String getEntitySelection() {
+            return entitySelection;
+        }
+
+        /**
+         * Printed definitions ({@code $id:ID!}) of the operation variables the entity selection uses, by name
+         */
+        public Map<String, String> getVariableDefinitions() {
+            return variableDefinitions;
+        }
+
+        /**
+         * Operation variables the subgraph document uses
+         */
+        public Set<String> getVariables() {
+            return variables;
+        }
+
+        public List<Fetch> getDependents() {
+            return Collections.unmodifiableList(dependents);
+        }
+
+        void addDependent(Fetch dependent) {
+            dependents.add(dependent);
+        }
+
+        void setDocument(String document, Set<String> variables) {
+            this.document = document;
+            this.variables = Set.copyOf(variables);
+        }
+
+        void setEntitySelection(String entitySelection, Map<String, String> variableDefinitions) {
+            this.entitySelection = entitySelection;
+            this.variableDefinitions = Map.copyOf(variableDefinitions);
+            this.variables = Set.copyOf(variableDefinitions.keySet());
+        }
+    }
+}
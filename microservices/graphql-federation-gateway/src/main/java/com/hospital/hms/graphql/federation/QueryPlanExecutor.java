@@ -0,0 +1,508 @@
+package com.hospital.hms.graphql.federation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link QueryPlan} against the subgraphs
+ *
+ * Independent root fetches are sent concurrently. Entity fetches are
+ * grouped by plan depth and subgraph, and a group is dispatched once every
+ * fetch one level up that feeds any of its members has been merged. This
+ * buys one {@code _entities} request per subgraph and depth across sibling
+ * branches, at a price: a slow branch also holds back the other members of
+ * its group, including dependents it does not feed itself. Groups it feeds
+ * no member of are not held back. Each group goes through a per-request
+ * {@link DataLoader} for its subgraph, which deduplicates representations,
+ * remembers entities already loaded in this request, and sends them as one
+ * {@code _entities} request (split at the configured max batch size).
+ *
+ * A subgraph that fails or times out is reported in {@code errors} with its
+ * service name, and the data the other subgraphs returned is still
+ * delivered.
+ *
+ * Every subgraph request is timed into {@code graphql.subgraph.duration},
+ * tagged with the service, the fetch kind ({@code root} or
+ * {@code entities}) and the outcome, which gives the per-subgraph share of
+ * each operation's latency.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class QueryPlanExecutor {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final String ENTITIES_ALIAS = QueryPlanner.INTERNAL_ALIAS_PREFIX + "Entities";
+    private static final String REPRESENTATIONS_VARIABLE = QueryPlanner.INTERNAL_ALIAS_PREFIX + "Representations";
+
+    private final QueryPlanner queryPlanner;
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final int maxBatchSize;
+    private final boolean batchLoading;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> subgraphTimers = new ConcurrentHashMap<>();
+
+    public QueryPlanExecutor(QueryPlanner queryPlanner,
+                             WebClient.Builder webClientBuilder,
+                             MeterRegistry meterRegistry,
+                             @Value("${graphql.federation.query.timeout-seconds:30}") long timeoutSeconds,
+                             @Value("${graphql.federation.performance.max-batch-size:100}") int maxBatchSize,
+                             @Value("${graphql.federation.performance.batch-loading:true}") boolean batchLoading) {
+        this.queryPlanner = queryPlanner;
+        this.webClient = webClientBuilder.build();
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.maxBatchSize = maxBatchSize;
+        this.batchLoading = batchLoading;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Execute the plan and return a GraphQL response map with {@code data} and, when any fetch failed, {@code errors}
+     */
+    public Mono<Map<String, Object>> execute(QueryPlan plan, Map<String, Object> variables, String authorization) {
+        Execution execution = new Execution(queryPlanner.getIndex(), plan, variables, authorization);
+        Flux<QueryPlan.Fetch> roots = Flux.fromIterable(plan.getRoots());
+        Mono<Void> run = plan.isSerial()
+                ? roots.concatMap(execution::runRoot).then()
+                : roots.flatMap(execution::runRoot).then();
+        return run.then(Mono.fromSupplier(() -> execution.response(plan)));
+    }
+
+    private Timer subgraphTimer(String service, String kind, SignalType signal) {
+        String outcome = switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+        return subgraphTimers.computeIfAbsent(service + ":" + kind + ":" + outcome,
+                key -> Timer.builder("graphql.subgraph.duration")
+                        .description("Subgraph request time within federated operations")
+                        .tag("service", service)
+                        .tag("kind", kind)
+                        .tag("outcome", outcome)
+                        .publishPercentiles(0.5, 0.99)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    /**
+     * An entity to load: the selection to apply and the representation identifying it
+     */
+    private record EntityKey(String selection, Map<String, Object> representation) {
+    }
+
+    /**
+     * Entity fetches at one plan depth that go to one subgraph
+     */
+    private record Level(int depth, String service) {
+    }
+
+    private static final class LevelBatch {
+        private final List<QueryPlan.Fetch> fetches = new ArrayList<>();
+        private int pendingFeeders;
+    }
+
+    /**
+     * Mutable state of one plan execution; all access to the response tree holds its lock
+     */
+    private final class Execution {
+
+        private final SupergraphIndex index;
+        private final Map<String, Object> variables;
+        private final String authorization;
+        private final Map<String, Object> data = new LinkedHashMap<>();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private final Map<Level, LevelBatch> levels = new HashMap<>();
+        private final Map<String, DataLoader<EntityKey, Map<String, Object>>> loaders = new HashMap<>();
+        private final Map<String, Map<String, String>> selectionVariables = new HashMap<>();
+
+        Execution(SupergraphIndex index, QueryPlan plan, Map<String, Object> variables, String authorization) {
+            this.index = index;
+            this.variables = variables != null ? variables : Map.of();
+            this.authorization = authorization;
+            indexLevels(plan.getRoots(), 0);
+        }
+
+        Mono<Void> runRoot(QueryPlan.Fetch fetch) {
+            Map<String, Object> fetchVariables = new HashMap<>();
+            for (String name : fetch.getVariables()) {
+                if (variables.containsKey(name)) {
+                    fetchVariables.put(name, variables.get(name));
+                }
+            }
+            return send(fetch.getService(), "root", fetch.getDocument(), fetchVariables)
+                    .doOnNext(response -> {
+                        recordErrors(fetch.getService(), response);
+                        mergeRoot(response);
+                    })
+                    .then(Mono.defer(() -> completed(fetch, 0)));
+        }
+
+        /**
+         * Count, for every level batch, the fetches one level up that feed any member; the batch waits for all of them
+         */
+        private void indexLevels(List<QueryPlan.Fetch> fetches, int depth) {
+            for (QueryPlan.Fetch fetch : fetches) {
+                Set<Level> fed = new LinkedHashSet<>();
+                for (QueryPlan.Fetch dependent : fetch.getDependents()) {
+                    Level level = new Level(depth + 1, dependent.getService());
+                    LevelBatch batch = levels.computeIfAbsent(level, l -> new LevelBatch());
+                    batch.fetches.add(dependent);
+                    if (fed.add(level)) {
+                        batch.pendingFeeders++;
+                    }
+                }
+                indexLevels(fetch.getDependents(), depth + 1);
+            }
+        }
+
+        /**
+         * Mark a fetch merged (or failed) and dispatch the level batches that were only waiting for it
+         */
+        private Mono<Void> completed(QueryPlan.Fetch fetch, int depth) {
+            List<Level> ready = new ArrayList<>();
+            synchronized (data) {
+                Set<Level> fed = new LinkedHashSet<>();
+                for (QueryPlan.Fetch dependent : fetch.getDependents()) {
+                    fed.add(new Level(depth + 1, dependent.getService()));
+                }
+                for (Level level : fed) {
+                    if (--levels.get(level).pendingFeeders == 0) {
+                        ready.add(level);
+                    }
+                }
+            }
+            return Flux.fromIterable(ready).flatMap(this::dispatch).then();
+        }
+
+        private Mono<Void> dispatch(Level level) {
+            List<Mono<Void>> merges = new ArrayList<>();
+            synchronized (data) {
+                DataLoader<EntityKey, Map<String, Object>> loader = loaders.computeIfAbsent(level.service(),
+                        service -> DataLoaderFactory.newDataLoader(keys -> loadEntities(service, keys),
+                                DataLoaderOptions.newOptions()
+                                        .setBatchingEnabled(batchLoading)
+                                        .setMaxBatchSize(maxBatchSize)));
+
+                for (QueryPlan.Fetch fetch : levels.get(level).fetches) {
+                    List<Map<String, Object>> targets = new ArrayList<>();
+                    List<Map<String, Object>> representations = new ArrayList<>();
+                    collectEntities(fetch, targets, representations);
+                    selectionVariables.putIfAbsent(fetch.getEntitySelection(), fetch.getVariableDefinitions());
+
+                    List<CompletableFuture<Map<String, Object>>> loads = new ArrayList<>(representations.size());
+                    for (Map<String, Object> representation : representations) {
+                        loads.add(loader.load(new EntityKey(fetch.getEntitySelection(), representation)));
+                    }
+                    merges.add(Mono.fromFuture(CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])))
+                            .then(Mono.fromRunnable(() -> mergeEntities(targets, loads)))
+                            .then(Mono.defer(() -> completed(fetch, level.depth()))));
+                }
+                loader.dispatch();
+            }
+            return Flux.merge(merges).then();
+        }
+
+        /**
+         * Batch function of a subgraph's loader: one request with an aliased {@code _entities} field per selection
+         */
+        private CompletionStage<List<Map<String, Object>>> loadEntities(String service, List<EntityKey> keys) {
+            Map<String, List<Integer>> positions = new LinkedHashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                positions.computeIfAbsent(keys.get(i).selection(), s -> new ArrayList<>()).add(i);
+            }
+
+            Map<String, String> definitions = new LinkedHashMap<>();
+            Map<String, Object> batchVariables = new HashMap<>();
+            StringBuilder selections = new StringBuilder();
+            int group = 0;
+            for (Map.Entry<String, List<Integer>> entry : positions.entrySet()) {
+                String variable = REPRESENTATIONS_VARIABLE + group;
+                definitions.put(variable, "$" + variable + ":[_Any!]!");
+                batchVariables.put(variable, entry.getValue().stream().map(i -> keys.get(i).representation()).toList());
+                synchronized (data) {
+                    for (Map.Entry<String, String> used : selectionVariables.get(entry.getKey()).entrySet()) {
+                        definitions.putIfAbsent(used.getKey(), used.getValue());
+                        if (variables.containsKey(used.getKey())) {
+                            batchVariables.put(used.getKey(), variables.get(used.getKey()));
+                        }
+                    }
+                }
+                selections.append(ENTITIES_ALIAS).append(group)
+                        .append(":_entities(representations:$").append(variable).append("){")
+                        .append(entry.getKey()).append("} ");
+                group++;
+            }
+            String document = "query(" + String.join(",", definitions.values()) + "){"
+                    + selections.toString().trim() + "}";
+            log.debug("Loading {} entities from {} in one batch", keys.size(), service);
+
+            List<Map<String, Object>> loaded = new ArrayList<>(Collections.nCopies(keys.size(), null));
+            return send(service, "entities", document, batchVariables)
+                    .map(response -> {
+                        recordErrors(service, response);
+                        if (response.get("data") instanceof Map<?, ?> responseData) {
+                            int alias = 0;
+                            for (List<Integer> indexes : positions.values()) {
+                                if (responseData.get(ENTITIES_ALIAS + alias++) instanceof List<?> entities) {
+                                    fill(loaded, indexes, entities);
+                                }
+                            }
+                        }
+                        return loaded;
+                    })
+                    .defaultIfEmpty(loaded)
+                    .toFuture();
+        }
+
+        private Mono<Map<String, Object>> send(String service, String kind, String document,
+                                               Map<String, Object> fetchVariables) {
+            String endpoint = index.endpoint(service);
+            if (endpoint == null) {
+                unavailable(service, "no endpoint registered");
+                return Mono.empty();
+            }
+            Map<String, Object> body = new HashMap<>();
+            body.put("query", document);
+            body.put("variables", fetchVariables);
+
+            return Mono.defer(() -> {
+                        long start = System.nanoTime();
+                        return webClient.post()
+                                .uri(endpoint)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .headers(headers -> {
+                                    if (authorization != null) {
+                                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                                    }
+                                })
+                                .bodyValue(body)
+                                .retrieve()
+                                .bodyToMono(RESPONSE_TYPE)
+                                .timeout(timeout)
+                                .doFinally(signal -> subgraphTimer(service, kind, signal)
+                                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+                    })
+                    .onErrorResume(e -> {
+                        log.warn("Subgraph {} failed: {}", service, e.getMessage());
+                        unavailable(service, e.getMessage());
+                        return Mono.empty();
+                    });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void mergeRoot(Map<String, Object> response) {
+            synchronized (data) {
+                if (response.get("data") instanceof Map<?, ?> responseData) {
+                    deepMerge(data, (Map<String, Object>) responseData);
+                }
+            }
+        }
+
+        private void mergeEntities(List<Map<String, Object>> targets,
+                                   List<CompletableFuture<Map<String, Object>>> loads) {
+            synchronized (data) {
+                for (int i = 0; i < targets.size(); i++) {
+                    Map<String, Object> entity = loads.get(i).join();
+                    if (entity != null) {
+                        deepMerge(targets.get(i), entity);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Objects at the fetch path that have every key field, with their representations in the same order
+         */
+        private void collectEntities(QueryPlan.Fetch fetch, List<Map<String, Object>> targets,
+                                     List<Map<String, Object>> representations) {
+            List<Map<String, Object>> candidates = new ArrayList<>();
+            collectObjects(data, fetch.getPath(), 0, candidates);
+            candidates:
+            for (Map<String, Object> candidate : candidates) {
+                Object typename = candidate.get(QueryPlanner.TYPENAME_ALIAS);
+                if (typename != null && !fetch.getTypeName().equals(typename)) {
+                    continue;
+                }
+                Map<String, Object> representation = new LinkedHashMap<>();
+                representation.put("__typename", fetch.getTypeName());
+                for (String keyField : fetch.getKeyFields()) {
+                    Object key = candidate.get(QueryPlanner.keyAlias(keyField));
+                    if (key == null) {
+                        continue candidates;
+                    }
+                    representation.put(keyField, key);
+                }
+                targets.add(candidate);
+                representations.add(representation);
+            }
+        }
+
+        Map<String, Object> response(QueryPlan plan) {
+            synchronized (data) {
+                for (String responseKey : plan.getLocalTypenames()) {
+                    data.put(responseKey, plan.getRootType());
+                }
+                stripInternal(data);
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("data", data);
+                if (!errors.isEmpty()) {
+                    response.put("errors", List.copyOf(errors));
+                }
+                return response;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void recordErrors(String service, Map<String, Object> response) {
+            if (response.get("errors") instanceof List<?> subgraphErrors) {
+                synchronized (data) {
+                    for (Object error : subgraphErrors) {
+                        if (error instanceof Map<?, ?> map) {
+                            errors.add(withService((Map<String, Object>) map, service));
+                        }
+                    }
+                }
+            }
+        }
+
+        private void unavailable(String service, String reason) {
+            Map<String, Object> extensions = new LinkedHashMap<>();
+            extensions.put("code", "SUBGRAPH_UNAVAILABLE");
+            extensions.put("serviceName", service);
+            Map<String, Object> error = new LinkedHashMap<>();
+            error.put("message", "Service " + service + " is unavailable: " + reason);
+            error.put("extensions", extensions);
+            synchronized (data) {
+                errors.add(error);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void fill(List<Map<String, Object>> loaded, List<Integer> indexes, List<?> entities) {
+        for (int i = 0; i < Math.min(indexes.size(), entities.size()); i++) {
+            if (entities.get(i) instanceof Map<?, ?> entity) {
+                loaded.set(indexes.get(i), (Map<String, Object>) entity);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectObjects(Object node, List<String> path, int depth, List<Map<String, Object>> out) {
+        if (node instanceof List<?> list) {
+            for (Object element : list) {
+                collectObjects(element, path, depth, out);
+            }
+        } else if (node instanceof Map<?, ?> map) {
+            if (depth == path.size()) {
+                out.add((Map<String, Object>) map);
+            } else {
+                collectObjects(map.get(path.get(depth)), path, depth + 1, out);
+            }
+        }
+    }
+
+    /**
+     * Merge a subgraph result into the response tree; values are copied since memoized entities can be merged twice
+     */
+    @SuppressWarnings("unchecked")
+    private static void deepMerge(Map<String, Object> target, Map<String, Object> source) {
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            Object existing = target.get(entry.getKey());
+            Object incoming = entry.getValue();
+            if (existing instanceof Map<?, ?> existingMap && incoming instanceof Map<?, ?> incomingMap) {
+                deepMerge((Map<String, Object>) existingMap, (Map<String, Object>) incomingMap);
+            } else if (existing instanceof List<?> existingList && incoming instanceof List<?> incomingList
+                    && existingList.size() == incomingList.size()) {
+                for (int i = 0; i < existingList.size(); i++) {
+                    if (existingList.get(i) instanceof Map<?, ?> existingElement
+                            && incomingList.get(i) instanceof Map<?, ?> incomingElement) {
+                        deepMerge((Map<String, Object>) existingElement, (Map<String, Object>) incomingElement);
+                    }
+                }
+            } else {
+                target.put(entry.getKey(), deepCopy(incoming));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object deepCopy(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                copy.put((String) entry.getKey(), deepCopy(entry.getValue()));
+            }
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                copy.add(deepCopy(element));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private static void stripInternal(Object node) {
+        if (node instanceof List<?> list) {
+            list.forEach(QueryPlanExecutor::stripInternal);
+        } else if (node instanceof Map<?, ?> map) {
+            Iterator<? extends Map.Entry<?, ?>> entries = map.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<?, ?> entry = entries.next();
+                if (String.valueOf(entry.getKey()).startsWith(QueryPlanner.INTERNAL_ALIAS_PREFIX)) {
+                    entries.remove();
+                } else {
+                    stripInternal(entry.getValue());
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> withService(Map<String, Object> error, String service) {
+        Map<String, Object> copy = new LinkedHashMap<>(error);
+        Map<String, Object> extensions = copy.get("extensions") instanceof Map<?, ?> existing
+                ? new LinkedHashMap<>((Map<String, Object>) existing)
+                : new LinkedHashMap<>();
+        extensions.put("serviceName", service);
+        copy.put("extensions", extensions);
+        return copy;
+    }
+}
@@ -0,0 +1,392 @@
+package com.hospital.hms.graphql.federation;
+
+import graphql.language.ArrayValue;
+import graphql.language.AstPrinter;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.Field;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.ObjectField;
+import graphql.language.ObjectValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.TypeName;
+import graphql.language.Value;
+import graphql.language.VariableDefinition;
+import graphql.language.VariableReference;
+import graphql.parser.Parser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Splits a federated operation into subgraph fetches
+ *
+ * Root fields are grouped by the subgraph that owns them. Within each
+ * selection, fields the current subgraph cannot resolve are moved into an
+ * {@code _entities} fetch on the subgraph that owns them, and the entity's
+ * key fields are added to the parent selection so the representations can
+ * be built from its result. This repeats for every level of nesting.
+ *
+ * Plans are cached by the operation text and by its normalized (compact
+ * printed) form, so whitespace and comment variants share one plan. The
+ * cache is cleared whenever the set of subgraphs changes.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class QueryPlanner {
+
+    /**
+     * Alias prefix of key and {@code __typename} selections the planner adds; stripped from responses
+     */
+    public static final String INTERNAL_ALIAS_PREFIX = "_hms";
+    public static final String TYPENAME_ALIAS = INTERNAL_ALIAS_PREFIX + "Typename";
+
+    private final Map<String, QueryPlan> plans;
+    private final AtomicLong schemaVersions = new AtomicLong();
+    private volatile SupergraphIndex index = SupergraphIndex.EMPTY;
+
+    public QueryPlanner(@Value("${graphql.federation.planner.cache-size:1000}") int cacheSize) {
+        this.plans = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QueryPlan> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public static String keyAlias(String keyField) {
+        return INTERNAL_ALIAS_PREFIX + "Key_" + keyField;
+    }
+
+    /**
+     * Rebuild field ownership after a subgraph was registered or removed
+     */
+    public void updateSchemas(Map<String, Map<String, Object>> federatedSchemas, Map<String, String> endpoints) {
+        index = new SupergraphIndex(schemaVersions.incrementAndGet(), Map.copyOf(federatedSchemas), endpoints);
+        plans.clear();
+        log.info("Query planner now federates {} services; plan cache cleared", federatedSchemas.size());
+    }
+
+    public SupergraphIndex getIndex() {
+        return index;
+    }
+
+    public int getCachedPlanCount() {
+        return plans.size();
+    }
+
+    public QueryPlan plan(String query, String operationName) {
+        SupergraphIndex current = index;
+        String rawKey = cacheKey(query, operationName);
+        QueryPlan plan = plans.get(rawKey);
+        if (plan != null && plan.getSchemaVersion() == current.getVersion()) {
+            return plan;
+        }
+
+        Document document = Parser.parse(query);
+        String normalizedKey = cacheKey(AstPrinter.printAstCompact(document), operationName);
+        plan = plans.get(normalizedKey);
+        if (plan == null || plan.getSchemaVersion() != current.getVersion()) {
+            plan = new Planning(current, document, operationName).plan(normalizedKey);
+            plans.put(normalizedKey, plan);
+            log.debug("Planned operation {} into {} fetches across {}", operationName, plan.getFetchCount(),
+                      plan.getServices());
+        }
+        plans.put(rawKey, plan);
+        return plan;
+    }
+
+    private static String cacheKey(String text, String operationName) {
+        return (operationName == null ? "" : operationName) + '\u0000' + text;
+    }
+
+    /**
+     * State of planning one document
+     */
+    private static final class Planning {
+
+        private final SupergraphIndex index;
+        private final OperationDefinition operation;
+        private final Map<String, FragmentDefinition> fragments = new LinkedHashMap<>();
+        private final Set<String> types = new LinkedHashSet<>();
+
+        Planning(SupergraphIndex index, Document document, String operationName) {
+            this.index = index;
+            this.operation = selectOperation(document, operationName);
+            for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+                fragments.put(fragment.getName(), fragment);
+            }
+        }
+
+        QueryPlan plan(String normalizedOperation) {
+            boolean serial = operation.getOperation() == OperationDefinition.Operation.MUTATION;
+            if (operation.getOperation() == OperationDefinition.Operation.SUBSCRIPTION) {
+                throw new IllegalArgumentException("Subscriptions are not planned as federated queries");
+            }
+            String rootType = serial ? "Mutation" : "Query";
+
+            // Group root fields by owning service; mutations keep their order, so only consecutive fields share a fetch
+            List<Map.Entry<String, List<Field>>> groups = new ArrayList<>();
+            Map<String, List<Field>> byService = new LinkedHashMap<>();
+            List<String> localTypenames = new ArrayList<>();
+            for (Field field : rootFields(operation.getSelectionSet())) {
+                if ("__typename".equals(field.getName())) {
+                    localTypenames.add(field.getResultKey());
+                    continue;
+                }
+                String service = index.rootOwner(rootType, field.getName());
+                if (service == null) {
+                    throw unknownField(rootType, field.getName());
+                }
+                if (serial) {
+                    Map.Entry<String, List<Field>> last = groups.isEmpty() ? null : groups.get(groups.size() - 1);
+                    if (last == null || !last.getKey().equals(service)) {
+                        last = Map.entry(service, new ArrayList<>());
+                        groups.add(last);
+                    }
+                    last.getValue().add(field);
+                } else {
+                    byService.computeIfAbsent(service, s -> new ArrayList<>()).add(field);
+                }
+            }
+            if (!serial) {
+                groups.addAll(byService.entrySet());
+            }
+
+            List<QueryPlan.Fetch> roots = new ArrayList<>(groups.size());
+            for (Map.Entry<String, List<Field>> group : groups) {
+                String service = group.getKey();
+                QueryPlan.Fetch fetch = new QueryPlan.Fetch(service, false, List.of(), rootType, List.of());
+                List<Selection> selections = new ArrayList<>();
+                for (Field field : group.getValue()) {
+                    selections.add(planField(field, index.rootFieldType(rootType, field.getName()), service,
+                            List.of(field.getResultKey()), fetch));
+                }
+                finishRoot(fetch, new SelectionSet(selections));
+                roots.add(fetch);
+            }
+            return new QueryPlan(rootType, serial, roots, localTypenames, types, normalizedOperation,
+                    index.getVersion());
+        }
+
+        private Field planField(Field field, String fieldType, String service, List<String> path,
+                                QueryPlan.Fetch fetch) {
+            if (field.getSelectionSet() == null || fieldType == null) {
+                return field;
+            }
+            types.add(fieldType);
+            SelectionSet selectionSet = split(fieldType, field.getSelectionSet(), service, path, fetch);
+            return field.transform(builder -> builder.selectionSet(selectionSet));
+        }
+
+        /**
+         * Keep what the service resolves and move the rest into dependent {@code _entities} fetches
+         */
+        private SelectionSet split(String type, SelectionSet selectionSet, String service, List<String> path,
+                                   QueryPlan.Fetch fetch) {
+            List<Selection> kept = new ArrayList<>();
+            Map<String, List<Selection>> remote = new LinkedHashMap<>();
+            for (Selection<?> selection : selectionSet.getSelections()) {
+                if (selection instanceof Field field) {
+                    if (field.getName().startsWith("__") || index.resolves(service, type, field.getName())) {
+                        kept.add(planField(field, index.fieldType(type, field.getName()), service,
+                                append(path, field.getResultKey()), fetch));
+                    } else {
+                        String owner = index.owner(type, field.getName());
+                        if (owner == null) {
+                            throw unknownField(type, field.getName());
+                        }
+                        remote.computeIfAbsent(owner, o -> new ArrayList<>()).add(field);
+                    }
+                } else if (selection instanceof InlineFragment fragment) {
+                    kept.add(planFragment(type, fragment.getTypeCondition(), fragment.getDirectives(),
+                            fragment.getSelectionSet(), service, path, fetch));
+                } else if (selection instanceof FragmentSpread spread) {
+                    FragmentDefinition definition = fragments.get(spread.getName());
+                    if (definition == null) {
+                        throw new IllegalArgumentException("Unknown fragment: " + spread.getName());
+                    }
+                    kept.add(planFragment(type, definition.getTypeCondition(), spread.getDirectives(),
+                            definition.getSelectionSet(), service, path, fetch));
+                }
+            }
+
+            for (Map.Entry<String, List<Selection>> entry : remote.entrySet()) {
+                String owner = entry.getKey();
+                List<String> keyFields = index.keyFields(type, owner);
+                if (keyFields.isEmpty()) {
+                    throw new IllegalArgumentException(type + " has no @key in " + owner + " to join on");
+                }
+                addKeySelections(kept, type, service, keyFields);
+
+                QueryPlan.Fetch dependent = new QueryPlan.Fetch(owner, true, path, type, keyFields);
+                SelectionSet entitySelection = split(type, new SelectionSet(entry.getValue()), owner, path, dependent);
+                finishEntities(dependent, type, entitySelection);
+                fetch.addDependent(dependent);
+            }
+            return new SelectionSet(kept);
+        }
+
+        private InlineFragment planFragment(String parentType, TypeName typeCondition, List<Directive> directives,
+                                            SelectionSet selectionSet, String service, List<String> path,
+                                            QueryPlan.Fetch fetch) {
+            String fragmentType = typeCondition != null ? typeCondition.getName() : parentType;
+            types.add(fragmentType);
+            return InlineFragment.newInlineFragment()
+                    .typeCondition(typeCondition)
+                    .directives(directives)
+                    .selectionSet(split(fragmentType, selectionSet, service, path, fetch))
+                    .build();
+        }
+
+        private void addKeySelections(List<Selection> kept, String type, String service, List<String> keyFields) {
+            Set<String> present = new LinkedHashSet<>();
+            for (Selection<?> selection : kept) {
+                if (selection instanceof Field field && field.getAlias() != null) {
+                    present.add(field.getAlias());
+                }
+            }
+            if (!present.contains(TYPENAME_ALIAS)) {
+                kept.add(Field.newField().name("__typename").alias(TYPENAME_ALIAS).build());
+            }
+            for (String keyField : keyFields) {
+                if (!index.resolves(service, type, keyField)) {
+                    throw new IllegalArgumentException("Key " + type + "." + keyField + " is not available from "
+                            + service);
+                }
+                if (!present.contains(keyAlias(keyField))) {
+                    kept.add(Field.newField().name(keyField).alias(keyAlias(keyField)).build());
+                }
+            }
+        }
+
+        private void finishRoot(QueryPlan.Fetch fetch, SelectionSet selectionSet) {
+            Set<String> variables = new LinkedHashSet<>();
+            collectVariables(selectionSet, variables);
+            OperationDefinition subgraphOperation = OperationDefinition.newOperationDefinition()
+                    .operation(operation.getOperation())
+                    .variableDefinitions(variableDefinitions(variables))
+                    .selectionSet(selectionSet)
+                    .build();
+            fetch.setDocument(print(subgraphOperation), variables);
+        }
+
+        private void finishEntities(QueryPlan.Fetch fetch, String type, SelectionSet selectionSet) {
+            Set<String> variables = new LinkedHashSet<>();
+            collectVariables(selectionSet, variables);
+            Map<String, String> definitions = new LinkedHashMap<>();
+            for (VariableDefinition definition : variableDefinitions(variables)) {
+                definitions.put(definition.getName(), AstPrinter.printAstCompact(definition));
+            }
+            InlineFragment selection = InlineFragment.newInlineFragment()
+                    .typeCondition(new TypeName(type))
+                    .selectionSet(selectionSet)
+                    .build();
+            fetch.setEntitySelection(AstPrinter.printAstCompact(selection), definitions);
+        }
+
+        private List<VariableDefinition> variableDefinitions(Set<String> names) {
+            return operation.getVariableDefinitions().stream()
+                    .filter(definition -> names.contains(definition.getName()))
+                    .toList();
+        }
+
+        /**
+         * Root selections with fragments on the root type flattened into plain fields
+         */
+        private List<Field> rootFields(SelectionSet selectionSet) {
+            List<Field> fields = new ArrayList<>();
+            for (Selection<?> selection : selectionSet.getSelections()) {
+                if (selection instanceof Field field) {
+                    fields.add(field);
+                } else if (selection instanceof InlineFragment fragment) {
+                    fields.addAll(rootFields(fragment.getSelectionSet()));
+                } else if (selection instanceof FragmentSpread spread && fragments.containsKey(spread.getName())) {
+                    fields.addAll(rootFields(fragments.get(spread.getName()).getSelectionSet()));
+                }
+            }
+            return fields;
+        }
+
+        private static OperationDefinition selectOperation(Document document, String operationName) {
+            List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+            if (operationName == null || operationName.isBlank()) {
+                if (operations.size() != 1) {
+                    throw new IllegalArgumentException("Operation name is required for documents with "
+                            + operations.size() + " operations");
+                }
+                return operations.get(0);
+            }
+            return operations.stream()
+                    .filter(operation -> operationName.equals(operation.getName()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + operationName));
+        }
+
+        private static void collectVariables(SelectionSet selectionSet, Set<String> names) {
+            if (selectionSet == null) {
+                return;
+            }
+            for (Selection<?> selection : selectionSet.getSelections()) {
+                if (selection instanceof Field field) {
+                    field.getArguments().forEach(argument -> collectVariables(argument.getValue(), names));
+                    collectDirectiveVariables(field.getDirectives(), names);
+                    collectVariables(field.getSelectionSet(), names);
+                } else if (selection instanceof InlineFragment fragment) {
+                    collectDirectiveVariables(fragment.getDirectives(), names);
+                    collectVariables(fragment.getSelectionSet(), names);
+                }
+            }
+        }
+
+        private static void collectDirectiveVariables(List<Directive> directives, Set<String> names) {
+            for (Directive directive : directives) {
+                directive.getArguments().forEach(argument -> collectVariables(argument.getValue(), names));
+            }
+        }
+
+        private static void collectVariables(Value<?> value, Set<String> names) {
+            if (value instanceof VariableReference reference) {
+                names.add(reference.getName());
+            } else if (value instanceof ArrayValue array) {
+                array.getValues().forEach(element -> collectVariables(element, names));
+            } else if (value instanceof ObjectValue object) {
+                for (ObjectField field : object.getObjectFields()) {
+                    collectVariables(field.getValue(), names);
+                }
+            }
+        }
+
+        private static String print(OperationDefinition operation) {
+            return AstPrinter.printAstCompact(Document.newDocument().definition(operation).build());
+        }
+
+        private static List<String> append(List<String> path, String key) {
+            List<String> extended = new ArrayList<>(path.size() + 1);
+            extended.addAll(path);
+            extended.add(key);
+            return extended;
+        }
+
+        private static IllegalArgumentException unknownField(String type, String field) {
+            return new IllegalArgumentException("Field " + type + "." + field
+                    + " is not provided by any registered service");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.hospital.hms.graphql.federation;
+
+import graphql.language.Argument;
+import graphql.language.Directive;
+import graphql.language.Document;
+import graphql.language.FieldDefinition;
+import graphql.language.ObjectTypeDefinition;
+import graphql.language.ObjectTypeExtensionDefinition;
+import graphql.language.StringValue;
+import graphql.parser.Parser;
+import graphql.schema.idl.TypeUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes a subgraph SDL as the plain maps kept in the federated schema registry
+ *
+ * <pre>
+ * types:         { Patient: { fields: { name: { type: String, external: false } }, keys: ["id"], extension: false } }
+ * queries:       { patient: Patient }
+ * mutations:     { ... }
+ * subscriptions: { ... }
+ * </pre>
+ *
+ * Federation directives ({@code @key}, {@code @external}) are read from the
+ * SDL as written; they do not need to be declared in it.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class SubgraphSchemas {
+
+    public static final String TYPES = "types";
+    public static final String QUERIES = "queries";
+    public static final String MUTATIONS = "mutations";
+    public static final String SUBSCRIPTIONS = "subscriptions";
+    public static final String FIELDS = "fields";
+    public static final String KEYS = "keys";
+    public static final String TYPE = "type";
+    public static final String EXTERNAL = "external";
+    public static final String EXTENSION = "extension";
+
+    private SubgraphSchemas() {
+    }
+
+    public static Map<String, Object> describe(String sdl) {
+        Document document = Parser.parse(sdl);
+        Map<String, Object> types = new LinkedHashMap<>();
+        Map<String, Object> queries = new LinkedHashMap<>();
+        Map<String, Object> mutations = new LinkedHashMap<>();
+        Map<String, Object> subscriptions = new LinkedHashMap<>();
+
+        for (ObjectTypeDefinition definition : document.getDefinitionsOfType(ObjectTypeDefinition.class)) {
+            Map<String, Object> rootFields = switch (definition.getName()) {
+                case "Query" -> queries;
+                case "Mutation" -> mutations;
+                case "Subscription" -> subscriptions;
+                default -> null;
+            };
+            if (rootFields != null) {
+                for (FieldDefinition field : definition.getFieldDefinitions()) {
+                    rootFields.put(field.getName(), TypeUtil.unwrapAll(field.getType()).getName());
+                }
+                continue;
+            }
+            describeType(definition, types);
+        }
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put(TYPES, types);
+        description.put(QUERIES, queries);
+        description.put(MUTATIONS, mutations);
+        description.put(SUBSCRIPTIONS, subscriptions);
+        return description;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void describeType(ObjectTypeDefinition definition, Map<String, Object> types) {
+        Map<String, Object> type = (Map<String, Object>) types.computeIfAbsent(definition.getName(), name -> {
+            Map<String, Object> created = new LinkedHashMap<>();
+            created.put(FIELDS, new LinkedHashMap<String, Object>());
+            created.put(KEYS, new ArrayList<String>());
+            created.put(EXTENSION, true);
+            return created;
+        });
+        if (!(definition instanceof ObjectTypeExtensionDefinition)) {
+            type.put(EXTENSION, false);
+        }
+
+        List<String> keys = (List<String>) type.get(KEYS);
+        for (Directive directive : definition.getDirectives("key")) {
+            Argument fieldsArgument = directive.getArgument("fields");
+            if (fieldsArgument != null && fieldsArgument.getValue() instanceof StringValue value) {
+                keys.add(value.getValue().trim());
+            }
+        }
+
+        Map<String, Object> fields = (Map<String, Object>) type.get(FIELDS);
+        for (FieldDefinition field : definition.getFieldDefinitions()) {
+            Map<String, Object> described = new LinkedHashMap<>();
+            described.put(TYPE, TypeUtil.unwrapAll(field.getType()).getName());
+            described.put(EXTERNAL, field.hasDirective("external"));
+            fields.put(field.getName(), described);
+        }
+    }
+}
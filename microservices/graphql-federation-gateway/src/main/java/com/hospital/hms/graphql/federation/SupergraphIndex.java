@@ -0,0 +1,152 @@
+package com.hospital.hms.graphql.federation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Field ownership across subgraphs, built from the federated schema registry
+ *
+ * A subgraph resolves a field of an entity when it defines the field
+ * without {@code @external}, or when the field is part of one of its keys
+ * (the key comes back from the representation it was sent). Immutable;
+ * a new index is built whenever a subgraph is registered or removed.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class SupergraphIndex {
+
+    public static final SupergraphIndex EMPTY = new SupergraphIndex(0, Map.of(), Map.of());
+
+    private final long version;
+    private final Map<String, String> endpoints;
+    /** root type name → field → owning service */
+    private final Map<String, Map<String, String>> rootOwners = new HashMap<>();
+    /** root type name → field → return type */
+    private final Map<String, Map<String, String>> rootTypes = new HashMap<>();
+    /** type → field → services that resolve it, in registration order */
+    private final Map<String, Map<String, List<String>>> fieldOwners = new HashMap<>();
+    /** type → field → return type */
+    private final Map<String, Map<String, String>> fieldTypes = new HashMap<>();
+    /** type → field → number of services at the head of fieldOwners that own it outright */
+    private final Map<String, Map<String, Integer>> owning = new HashMap<>();
+    /** type → service → key fields of that service's first @key */
+    private final Map<String, Map<String, List<String>>> keys = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public SupergraphIndex(long version, Map<String, Map<String, Object>> federatedSchemas,
+                           Map<String, String> endpoints) {
+        this.version = version;
+        this.endpoints = Map.copyOf(endpoints);
+
+        for (Map.Entry<String, Map<String, Object>> schema : federatedSchemas.entrySet()) {
+            String service = schema.getKey();
+            Map<String, Object> description = schema.getValue();
+            indexRoot("Query", service, (Map<String, Object>) description.get(SubgraphSchemas.QUERIES));
+            indexRoot("Mutation", service, (Map<String, Object>) description.get(SubgraphSchemas.MUTATIONS));
+            indexRoot("Subscription", service,
+                    (Map<String, Object>) description.get(SubgraphSchemas.SUBSCRIPTIONS));
+
+            Map<String, Object> types = (Map<String, Object>) description.get(SubgraphSchemas.TYPES);
+            if (types == null) {
+                continue;
+            }
+            for (Map.Entry<String, Object> type : types.entrySet()) {
+                indexType(service, type.getKey(), (Map<String, Object>) type.getValue());
+            }
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String endpoint(String service) {
+        return endpoints.get(service);
+    }
+
+    public String rootOwner(String rootType, String field) {
+        return rootOwners.getOrDefault(rootType, Map.of()).get(field);
+    }
+
+    public String rootFieldType(String rootType, String field) {
+        return rootTypes.getOrDefault(rootType, Map.of()).get(field);
+    }
+
+    public String fieldType(String type, String field) {
+        return fieldTypes.getOrDefault(type, Map.of()).get(field);
+    }
+
+    /**
+     * Whether the service can resolve the field without another subgraph
+     */
+    public boolean resolves(String service, String type, String field) {
+        return fieldOwners.getOrDefault(type, Map.of()).getOrDefault(field, List.of()).contains(service);
+    }
+
+    /**
+     * The service that resolves the field, or null when no subgraph does
+     */
+    public String owner(String type, String field) {
+        List<String> owners = fieldOwners.getOrDefault(type, Map.of()).get(field);
+        return owners == null || owners.isEmpty() ? null : owners.get(0);
+    }
+
+    /**
+     * Key fields the service accepts in {@code _entities} representations of the type
+     */
+    public List<String> keyFields(String type, String service) {
+        return keys.getOrDefault(type, Map.of()).getOrDefault(service, List.of());
+    }
+
+    private void indexRoot(String rootType, String service, Map<String, Object> fields) {
+        if (fields == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            rootOwners.computeIfAbsent(rootType, t -> new HashMap<>()).putIfAbsent(field.getKey(), service);
+            rootTypes.computeIfAbsent(rootType, t -> new HashMap<>()).putIfAbsent(field.getKey(),
+                    String.valueOf(field.getValue()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void indexType(String service, String type, Map<String, Object> description) {
+        List<String> typeKeys = (List<String>) description.getOrDefault(SubgraphSchemas.KEYS, List.of());
+        List<String> keyFields = typeKeys.isEmpty()
+                ? List.of()
+                : List.copyOf(Arrays.asList(typeKeys.get(0).split("\\s+")));
+        if (!keyFields.isEmpty()) {
+            keys.computeIfAbsent(type, t -> new HashMap<>()).put(service, keyFields);
+        }
+
+        Map<String, Object> fields = (Map<String, Object>) description.getOrDefault(SubgraphSchemas.FIELDS,
+                Collections.emptyMap());
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            Map<String, Object> fieldDescription = (Map<String, Object>) field.getValue();
+            boolean external = Boolean.TRUE.equals(fieldDescription.get(SubgraphSchemas.EXTERNAL));
+            fieldTypes.computeIfAbsent(type, t -> new HashMap<>()).putIfAbsent(field.getKey(),
+                    String.valueOf(fieldDescription.get(SubgraphSchemas.TYPE)));
+            if (!external || keyFields.contains(field.getKey())) {
+                List<String> owners = fieldOwners.computeIfAbsent(type, t -> new HashMap<>())
+                        .computeIfAbsent(field.getKey(), f -> new ArrayList<>());
+                if (external) {
+                    // Echoing a key back is a fallback; prefer a subgraph that owns the field
+                    owners.add(service);
+                } else {
+                    owners.add(owningCount(type, field.getKey()), service);
+                    owning.computeIfAbsent(type, t -> new HashMap<>())
+                            .merge(field.getKey(), 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    private int owningCount(String type, String field) {
+        return owning.getOrDefault(type, Map.of()).getOrDefault(field, 0);
+    }
+}
@@ -1,11 +1,20 @@
 package com.hospital.hms.graphql.service.impl;
 
+import com.hospital.hms.graphql.cache.ResponseCache;
+import com.hospital.hms.graphql.federation.QueryPlan;
+import com.hospital.hms.graphql.federation.QueryPlanExecutor;
+import com.hospital.hms.graphql.federation.QueryPlanner;
+import com.hospital.hms.graphql.federation.SubgraphSchemas;
 import com.hospital.hms.graphql.service.GraphQLFederationService;
+import com.hospital.hms.graphql.subscription.SubscriptionAuthorizer;
+import com.hospital.hms.graphql.subscription.SubscriptionBroker;
+import com.hospital.hms.graphql.subscription.SubscriptionSelection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -49,20 +58,20 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
     @Value("${graphql.federation.max.query.complexity:1000}")
     private int maxQueryComplexity;
 
-    @Value("${graphql.federation.cache.ttl.seconds:300}")
-    private int cacheExpirySeconds;
-
     @Value("${graphql.federation.batch.size:100}")
     private int batchSize;
 
+    private final QueryPlanner queryPlanner;
+    private final QueryPlanExecutor queryPlanExecutor;
+    private final ResponseCache responseCache;
+    private final SubscriptionBroker subscriptionBroker;
+    private final SubscriptionAuthorizer subscriptionAuthorizer;
+
     // In-memory data structures for demonstration (in production, use proper databases and caches)
     private final Map<String, Map<String, Object>> federatedSchemas = new ConcurrentHashMap<>();
-    private final Map<String, Map<String, Object>> queryCache = new ConcurrentHashMap<>();
-    private final Map<String, List<Map<String, Object>>> subscriptions = new ConcurrentHashMap<>();
     private final Map<String, Map<String, Object>> serviceConfigurations = new ConcurrentHashMap<>();
     private final Map<String, AtomicLong> queryMetrics = new ConcurrentHashMap<>();
     private final ExecutorService executorService = Executors.newFixedThreadPool(20);
-    private final ScheduledExecutorService scheduledExecutor = Executors.newScheduledThreadPool(5);
 
     // Performance and monitoring metrics
     private final AtomicLong totalQueries = new AtomicLong(0);
@@ -84,10 +93,13 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
             Map<String, Object> queryAnalysis = analyzeQuery(query);
             validateQueryComplexity(queryAnalysis);
 
+            // Plan query execution across federated services
+            QueryPlan executionPlan = createExecutionPlan(query, context);
+
             // Check cache first
-            String cacheKey = generateCacheKey(query, variables);
-            Map<String, Object> cachedResult = getCachedResult(cacheKey);
-            
+            String cacheKey = responseCache.key(executionPlan, variables, context);
+            Map<String, Object> cachedResult = executionPlan.isSerial() ? null : responseCache.get(cacheKey);
+
             if (cachedResult != null) {
                 cacheHits.incrementAndGet();
                 log.debug("Cache hit for query");
@@ -96,19 +108,20 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
 
             cacheMisses.incrementAndGet();
 
-            // Plan query execution across federated services
-            Map<String, Object> executionPlan = createExecutionPlan(queryAnalysis, context);
-
             // Execute federated query
             Map<String, Object> result = executeFederatedQuery(executionPlan, variables, context);
 
             // Post-process and cache result
             Map<String, Object> processedResult = postProcessResult(result, queryAnalysis);
-            cacheResult(cacheKey, processedResult);
+            if (executionPlan.isSerial()) {
+                invalidateRelatedCache(executionPlan, processedResult);
+            } else {
+                responseCache.put(cacheKey, processedResult, executionPlan);
+            }
 
             // Update metrics
             long executionTime = System.currentTimeMillis() - startTime;
-            updateQueryMetrics(queryAnalysis, executionTime);
+            updateQueryMetrics(queryAnalysis, executionPlan, executionTime);
 
             processedResult.put("_metadata", createMetadata(executionTime, queryAnalysis));
 
@@ -132,7 +145,7 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
             validateMutationSecurity(mutationAnalysis, context);
 
             // Plan mutation execution across services
-            Map<String, Object> executionPlan = createMutationExecutionPlan(mutationAnalysis, context);
+            QueryPlan executionPlan = createMutationExecutionPlan(mutation, context);
 
             // Execute coordinated mutation
             Map<String, Object> result = executeCoordinatedMutation(executionPlan, variables, context);
@@ -141,10 +154,7 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
             handleTransactionCoordination(result, executionPlan);
 
             // Invalidate related cache entries
-            invalidateRelatedCache(mutationAnalysis);
-
-            // Trigger subscription notifications
-            triggerSubscriptionUpdates(mutationAnalysis, result);
+            invalidateRelatedCache(executionPlan, result);
 
             long executionTime = System.currentTimeMillis() - startTime;
             result.put("_metadata", createMetadata(executionTime, mutationAnalysis));
@@ -161,44 +171,21 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
     @Override
     public String createSubscription(String subscription, Map<String, Object> variables, Map<String, Object> context) {
         try {
-            log.info("Creating GraphQL subscription");
-
-            String subscriptionId = UUID.randomUUID().toString();
-            
             // Parse and validate subscription
-            Map<String, Object> subscriptionAnalysis = analyzeSubscription(subscription);
-            validateSubscriptionSecurity(subscriptionAnalysis, context);
-
-            // Create subscription configuration
-            Map<String, Object> subscriptionConfig = new HashMap<>();
-            subscriptionConfig.put("subscriptionId", subscriptionId);
-            subscriptionConfig.put("query", subscription);
-            subscriptionConfig.put("variables", variables);
-            subscriptionConfig.put("context", context);
-            subscriptionConfig.put("analysis", subscriptionAnalysis);
-            subscriptionConfig.put("createdAt", LocalDateTime.now());
-            subscriptionConfig.put("status", "ACTIVE");
-            subscriptionConfig.put("lastTriggered", null);
-
-            // Determine target services for subscription
-            List<String> targetServices = determineTargetServices(subscriptionAnalysis);
-            subscriptionConfig.put("targetServices", targetServices);
-
-            // Register subscription with each target service
-            for (String service : targetServices) {
-                registerSubscriptionWithService(service, subscriptionId, subscriptionConfig);
-            }
+            analyzeSubscription(subscription);
+            validateSubscriptionSecurity(subscription, variables, context);
 
-            // Store subscription
-            subscriptions.computeIfAbsent("active", k -> new ArrayList<>()).add(subscriptionConfig);
+            // Subscribers are fed from the entity event streams, not by polling subgraphs
+            String connectionId = String.valueOf(context.get("connectionId"));
+            String operationId = String.valueOf(context.getOrDefault("operationId", UUID.randomUUID().toString()));
+            String subscriptionId = subscriptionBroker.subscribe(connectionId, operationId, subscription, variables);
             totalSubscriptions.incrementAndGet();
 
-            // Initialize subscription data stream
-            initializeSubscriptionStream(subscriptionId, subscriptionAnalysis);
-
-            log.info("GraphQL subscription created successfully: {}", subscriptionId);
+            log.debug("GraphQL subscription created: {}", subscriptionId);
             return subscriptionId;
 
+        } catch (IllegalArgumentException | IllegalStateException | AccessDeniedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error creating GraphQL subscription", e);
             throw new RuntimeException("Failed to create subscription", e);
@@ -207,40 +194,10 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
 
     @Override
     public void cancelSubscription(String subscriptionId) {
-        try {
-            log.info("Cancelling GraphQL subscription: {}", subscriptionId);
-
-            // Find and remove subscription
-            List<Map<String, Object>> activeSubscriptions = subscriptions.get("active");
-            if (activeSubscriptions != null) {
-                Optional<Map<String, Object>> subscriptionOpt = activeSubscriptions.stream()
-                        .filter(sub -> subscriptionId.equals(sub.get("subscriptionId")))
-                        .findFirst();
-
-                if (subscriptionOpt.isPresent()) {
-                    Map<String, Object> subscription = subscriptionOpt.get();
-                    subscription.put("status", "CANCELLED");
-                    subscription.put("cancelledAt", LocalDateTime.now());
-
-                    // Unregister from target services
-                    List<String> targetServices = (List<String>) subscription.get("targetServices");
-                    for (String service : targetServices) {
-                        unregisterSubscriptionFromService(service, subscriptionId);
-                    }
-
-                    // Move to cancelled list
-                    activeSubscriptions.remove(subscription);
-                    subscriptions.computeIfAbsent("cancelled", k -> new ArrayList<>()).add(subscription);
-
-                    log.info("GraphQL subscription cancelled successfully: {}", subscriptionId);
-                } else {
-                    log.warn("Subscription not found for cancellation: {}", subscriptionId);
-                }
-            }
-
-        } catch (Exception e) {
-            log.error("Error cancelling GraphQL subscription: {}", subscriptionId, e);
-            throw new RuntimeException("Failed to cancel subscription", e);
+        if (subscriptionBroker.unsubscribe(subscriptionId)) {
+            log.debug("GraphQL subscription cancelled: {}", subscriptionId);
+        } else {
+            log.debug("Subscription not found for cancellation: {}", subscriptionId);
         }
     }
 
@@ -279,7 +236,7 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
             result.put("success", true);
             result.put("serviceName", serviceName);
             result.put("registeredAt", serviceConfig.get("registeredAt"));
-            result.put("federatedTypes", ((Map<String, Object>) typeDefinitions).size());
+            result.put("federatedTypes", ((Map<String, Object>) typeDefinitions.get(SubgraphSchemas.TYPES)).size());
 
             log.info("GraphQL service registered successfully: {}", serviceName);
             return result;
@@ -300,9 +257,6 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
                 // Update federated schema to remove service types
                 removeFederatedTypes(serviceName);
 
-                // Cancel any subscriptions dependent on this service
-                cancelServiceSubscriptions(serviceName);
-
                 // Invalidate cache entries related to this service
                 invalidateServiceCache(serviceName);
 
@@ -424,15 +378,15 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
 
             // Cache metrics
             Map<String, Object> cacheMetrics = new HashMap<>();
-            cacheMetrics.put("cacheSize", queryCache.size());
+            cacheMetrics.put("cacheSize", responseCache.size());
             cacheMetrics.put("cacheHits", cacheHits.get());
             cacheMetrics.put("cacheMisses", cacheMisses.get());
             cacheMetrics.put("cacheHitRatio", cacheHitRatio);
             metrics.put("cacheMetrics", cacheMetrics);
 
             // Active subscriptions
-            List<Map<String, Object>> activeSubscriptionsList = subscriptions.get("active");
-            metrics.put("activeSubscriptions", activeSubscriptionsList != null ? activeSubscriptionsList.size() : 0);
+            metrics.put("activeSubscriptions", subscriptionBroker.getSubscriptionCount());
+            metrics.put("subscriptionMetrics", subscriptionBroker.getStatistics());
 
             metrics.put("generatedAt", LocalDateTime.now());
 
@@ -450,7 +404,7 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
         try {
             log.info("Clearing GraphQL federation cache");
             
-            queryCache.clear();
+            responseCache.clear();
             
             // Reset cache metrics
             cacheHits.set(0);
@@ -486,7 +440,7 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
             health.put("services", serviceHealths);
             health.put("totalQueries", totalQueries.get());
             health.put("activeSubscriptions", getActiveSubscriptionsCount());
-            health.put("cacheSize", queryCache.size());
+            health.put("cacheSize", responseCache.size());
             health.put("lastQueryTime", lastQueryTime);
             health.put("checkedAt", LocalDateTime.now());
 
@@ -512,7 +466,7 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
             details.put("totalQueries", totalQueries.get());
             details.put("totalSubscriptions", totalSubscriptions.get());
             details.put("activeServices", serviceConfigurations.size());
-            details.put("cacheSize", queryCache.size());
+            details.put("cacheSize", responseCache.size());
             details.put("lastQueryTime", lastQueryTime);
             
             // Check service health
@@ -578,35 +532,15 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
         }
     }
 
-    private String generateCacheKey(String query, Map<String, Object> variables) {
-        return "query:" + query.hashCode() + ":vars:" + (variables != null ? variables.hashCode() : 0);
-    }
-
-    private Map<String, Object> getCachedResult(String cacheKey) {
-        return queryCache.get(cacheKey);
-    }
-
-    private void cacheResult(String cacheKey, Map<String, Object> result) {
-        queryCache.put(cacheKey, result);
-        
-        // Schedule cache expiry
-        scheduledExecutor.schedule(() -> queryCache.remove(cacheKey), cacheExpirySeconds, TimeUnit.SECONDS);
-    }
-
-    private Map<String, Object> createExecutionPlan(Map<String, Object> queryAnalysis, Map<String, Object> context) {
-        Map<String, Object> plan = new HashMap<>();
-        plan.put("services", determineTargetServices(queryAnalysis));
-        plan.put("batching", shouldUseBatching(queryAnalysis));
-        plan.put("parallel", canExecuteInParallel(queryAnalysis));
-        return plan;
+    private QueryPlan createExecutionPlan(String query, Map<String, Object> context) {
+        String operationName = context != null ? (String) context.get("operationName") : null;
+        return queryPlanner.plan(query, operationName);
     }
 
-    private Map<String, Object> executeFederatedQuery(Map<String, Object> executionPlan, Map<String, Object> variables, Map<String, Object> context) {
-        // Simplified federation execution
-        Map<String, Object> result = new HashMap<>();
-        result.put("data", new HashMap<>());
-        result.put("errors", new ArrayList<>());
-        return result;
+    private Map<String, Object> executeFederatedQuery(QueryPlan executionPlan, Map<String, Object> variables, Map<String, Object> context) {
+        String authorization = context != null ? (String) context.get("authorization") : null;
+        Map<String, Object> result = queryPlanExecutor.execute(executionPlan, variables, authorization).block();
+        return result != null ? new HashMap<>(result) : new HashMap<>();
     }
 
     private Map<String, Object> postProcessResult(Map<String, Object> result, Map<String, Object> analysis) {
@@ -623,10 +557,13 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
         return metadata;
     }
 
-    private void updateQueryMetrics(Map<String, Object> analysis, long executionTime) {
+    private void updateQueryMetrics(Map<String, Object> analysis, QueryPlan plan, long executionTime) {
         String operation = (String) analysis.getOrDefault("operation", "query");
         queryMetrics.computeIfAbsent(operation, k -> new AtomicLong(0)).incrementAndGet();
         queryMetrics.computeIfAbsent(operation + "_total_time", k -> new AtomicLong(0)).addAndGet(executionTime);
+        for (String serviceName : plan.getServices()) {
+            queryMetrics.computeIfAbsent(serviceName + "_queries", k -> new AtomicLong(0)).incrementAndGet();
+        }
     }
 
     private Map<String, Object> createErrorResponse(Exception e) {
@@ -645,50 +582,46 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
         // Security validation for mutations
     }
 
-    private Map<String, Object> createMutationExecutionPlan(Map<String, Object> analysis, Map<String, Object> context) {
-        return createExecutionPlan(analysis, context);
+    private QueryPlan createMutationExecutionPlan(String mutation, Map<String, Object> context) {
+        // Mutation plans run their root fetches one after another, in document order
+        return createExecutionPlan(mutation, context);
     }
 
-    private Map<String, Object> executeCoordinatedMutation(Map<String, Object> plan, Map<String, Object> variables, Map<String, Object> context) {
-        // Coordinated mutation execution with transaction support
-        return new HashMap<>();
+    private Map<String, Object> executeCoordinatedMutation(QueryPlan plan, Map<String, Object> variables, Map<String, Object> context) {
+        return executeFederatedQuery(plan, variables, context);
     }
 
-    private void handleTransactionCoordination(Map<String, Object> result, Map<String, Object> plan) {
+    private void handleTransactionCoordination(Map<String, Object> result, QueryPlan plan) {
         // Transaction coordination logic
     }
 
-    private void invalidateRelatedCache(Map<String, Object> analysis) {
-        // Cache invalidation based on mutation analysis
-    }
-
-    private void triggerSubscriptionUpdates(Map<String, Object> analysis, Map<String, Object> result) {
-        // Trigger relevant subscriptions
+    private void invalidateRelatedCache(QueryPlan plan, Map<String, Object> result) {
+        // Only a mutation that returned data for at least one root field changed anything
+        if (result.get("data") instanceof Map<?, ?> data && data.values().stream().anyMatch(Objects::nonNull)) {
+            // Root field types miss writes behind scalar results and payload wrappers, so everything the
+            // subgraphs running the mutation served is dropped as well
+            responseCache.invalidateTypes(plan.getTypes());
+            plan.getRoots().forEach(root -> responseCache.invalidateService(root.getService()));
+        }
     }
 
     private Map<String, Object> analyzeSubscription(String subscription) {
         return analyzeQuery(subscription);
     }
 
-    private void validateSubscriptionSecurity(Map<String, Object> analysis, Map<String, Object> context) {
-        // Subscription security validation
-    }
-
-    private List<String> determineTargetServices(Map<String, Object> analysis) {
-        // Determine which services need to be called
-        return new ArrayList<>(serviceConfigurations.keySet());
-    }
-
-    private void registerSubscriptionWithService(String service, String subscriptionId, Map<String, Object> config) {
-        // Register subscription with target service
-    }
-
-    private void initializeSubscriptionStream(String subscriptionId, Map<String, Object> analysis) {
-        // Initialize real-time data stream
-    }
-
-    private void unregisterSubscriptionFromService(String service, String subscriptionId) {
-        // Unregister subscription from service
+    private void validateSubscriptionSecurity(String subscription, Map<String, Object> variables,
+                                              Map<String, Object> context) {
+        // Events come straight from the entity streams, so the caller is checked here rather than by a subgraph
+        SubscriptionSelection selection = SubscriptionSelection.parse(subscription, variables);
+        String topic = subscriptionBroker.topicOf(selection.getFieldName());
+        SubscriptionAuthorizer.Subscriber subscriber = context != null
+                && context.get(SubscriptionAuthorizer.CONTEXT_KEY) instanceof SubscriptionAuthorizer.Subscriber caller
+                ? caller : null;
+        if (!subscriptionAuthorizer.isAuthorized(subscriber, topic, selection.getEntityKey())) {
+            log.warn("Denied subscription to {}[{}] for {}", topic, selection.getEntityKey(),
+                    subscriber != null ? subscriber.subject() : "anonymous");
+            throw new AccessDeniedException("Not authorized to subscribe to " + topic + " events");
+        }
     }
 
     private void validateSchemaDefinition(Map<String, Object> schemaDefinition) {
@@ -696,12 +629,27 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
     }
 
     private Map<String, Object> extractTypeDefinitions(Map<String, Object> schemaDefinition) {
-        // Extract type definitions from schema
-        return new HashMap<>();
+        Object sdl = schemaDefinition.getOrDefault("sdl", schemaDefinition.get("schemaDefinition"));
+        if (!(sdl instanceof String text) || text.isBlank()) {
+            throw new IllegalArgumentException("Schema definition must include the subgraph SDL");
+        }
+        return SubgraphSchemas.describe(text);
     }
 
     private void updateFederatedSchema(String serviceName, Map<String, Object> typeDefinitions) {
         federatedSchemas.put(serviceName, typeDefinitions);
+        refreshQueryPlanner();
+    }
+
+    private void refreshQueryPlanner() {
+        Map<String, String> endpoints = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : serviceConfigurations.entrySet()) {
+            Object endpoint = entry.getValue().get("endpoint");
+            if (endpoint != null) {
+                endpoints.put(entry.getKey(), endpoint.toString());
+            }
+        }
+        queryPlanner.updateSchemas(federatedSchemas, endpoints);
     }
 
     private void validateFederationCompatibility() {
@@ -710,14 +658,11 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
 
     private void removeFederatedTypes(String serviceName) {
         federatedSchemas.remove(serviceName);
-    }
-
-    private void cancelServiceSubscriptions(String serviceName) {
-        // Cancel subscriptions dependent on service
+        refreshQueryPlanner();
     }
 
     private void invalidateServiceCache(String serviceName) {
-        // Invalidate cache entries for service
+        responseCache.invalidateService(serviceName);
     }
 
     private String resolveTypeNameConflict(String typeName, String serviceName, Map<String, Object> existingTypes) {
@@ -743,14 +688,6 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
         return Arrays.asList("query");
     }
 
-    private boolean shouldUseBatching(Map<String, Object> analysis) {
-        return true; // Simplified batching decision
-    }
-
-    private boolean canExecuteInParallel(Map<String, Object> analysis) {
-        return true; // Simplified parallel execution decision
-    }
-
     private String getServiceStatus(String serviceName) {
         return serviceConfigurations.containsKey(serviceName) ? "ACTIVE" : "INACTIVE";
     }
@@ -765,8 +702,7 @@ public class GraphQLFederationServiceImpl implements GraphQLFederationService, H
     }
 
     private int getActiveSubscriptionsCount() {
-        List<Map<String, Object>> active = subscriptions.get("active");
-        return active != null ? active.size() : 0;
+        return subscriptionBroker.getSubscriptionCount();
     }
 
     private Map<String, Object> checkServiceHealth(String serviceName) {
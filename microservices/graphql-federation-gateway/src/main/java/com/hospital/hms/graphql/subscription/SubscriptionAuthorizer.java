@@ -0,0 +1,115 @@
+package com.hospital.hms.graphql.subscription;
+
+import com.hospital.hms.graphql.config.SubscriptionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Authenticates subscription connections and authorizes each subscription
+ *
+ * The bearer token sent with {@code connection_init} (or the handshake) is
+ * verified once per connection. Every subscription is then checked against
+ * the caller's roles: the topic, i.e. the entity type the subscription
+ * streams, must grant one of them, and following every entity of a topic
+ * rather than a single one needs one of the all-entities roles. Topics
+ * without a rule are denied.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SubscriptionAuthorizer {
+
+    /**
+     * Subscription context entry holding the verified {@link Subscriber}
+     */
+    public static final String CONTEXT_KEY = "subscriber";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final JwtDecoder jwtDecoder;
+    private final SubscriptionProperties.Authorization properties;
+
+    public SubscriptionAuthorizer(JwtDecoder jwtDecoder, SubscriptionProperties properties) {
+        this.jwtDecoder = jwtDecoder;
+        this.properties = properties.getAuthorization();
+    }
+
+    /**
+     * The caller behind an authorization value, or null when it is missing or fails verification
+     */
+    public Subscriber authenticate(String authorization) {
+        if (authorization == null
+                || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        if (token.isEmpty()) {
+            return null;
+        }
+        try {
+            Jwt jwt = jwtDecoder.decode(token);
+            return new Subscriber(jwt.getSubject(), roles(jwt.getClaim("roles")), authorization);
+        } catch (JwtException e) {
+            log.debug("Rejected subscription token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Whether {@code subscriber} may follow {@code entityKey} of {@code topic}
+     */
+    public boolean isAuthorized(Subscriber subscriber, String topic, String entityKey) {
+        if (subscriber == null) {
+            return false;
+        }
+        List<String> topicRoles = properties.getTopics().get(topic);
+        if (topicRoles == null || !subscriber.hasAnyRole(topicRoles)) {
+            return false;
+        }
+        return !SubscriptionBroker.ANY_ENTITY.equals(entityKey) || subscriber.hasAnyRole(properties.getAllEntitiesRoles());
+    }
+
+    private static Set<String> roles(Object claim) {
+        if (!(claim instanceof Collection<?> values)) {
+            return claim instanceof String value ? Set.of(normalize(value)) : Set.of();
+        }
+        return values.stream()
+                .map(String::valueOf)
+                .map(SubscriptionAuthorizer::normalize)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static String normalize(String role) {
+        String upper = role.trim().toUpperCase(Locale.ROOT);
+        return upper.startsWith(ROLE_PREFIX) ? upper.substring(ROLE_PREFIX.length()) : upper;
+    }
+
+    /**
+     * A verified subscription caller
+     *
+     * @param authorization the verified header value, forwarded to subgraphs
+     */
+    public record Subscriber(String subject, Set<String> roles, String authorization) {
+
+        boolean hasAnyRole(Collection<String> candidates) {
+            for (String candidate : candidates) {
+                if (roles.contains(normalize(candidate))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.hospital.hms.graphql.subscription;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hospital.hms.graphql.config.SubscriptionProperties;
+import com.hospital.hms.graphql.federation.QueryPlanner;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans subscription events out to connected subscribers
+ *
+ * Subscribers are indexed by topic (the entity type their root field
+ * returns) and by the entity they follow, so publishing an event touches
+ * only the subscribers of that entity plus the topic-wide ones, never the
+ * full subscriber list. An event is projected and serialized once per
+ * distinct selection and handed to each subscriber's connection queue; the
+ * publishing thread never writes to a socket.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SubscriptionBroker {
+
+    /**
+     * Entity key of subscriptions that receive every event of their topic
+     */
+    public static final String ANY_ENTITY = "*";
+
+    private static final String SUBSCRIPTION_ROOT = "Subscription";
+
+    private final QueryPlanner queryPlanner;
+    private final SubscriptionProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /** topic → entity key → subscriptions */
+    private final Map<String, Map<String, Set<Subscription>>> index = new ConcurrentHashMap<>();
+    private final Map<String, Subscription> byId = new ConcurrentHashMap<>();
+    private final Map<String, SubscriptionConnection> connections = new ConcurrentHashMap<>();
+    /** connection id → its subscriptions */
+    private final Map<String, Set<Subscription>> byConnection = new ConcurrentHashMap<>();
+    private final ExecutorService deliveryExecutor;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong fannedOut = new AtomicLong();
+    /** delivered, conflated and dropped totals of connections already closed */
+    private final AtomicLong closedDelivered = new AtomicLong();
+    private final AtomicLong closedConflated = new AtomicLong();
+    private final AtomicLong closedDropped = new AtomicLong();
+
+    public SubscriptionBroker(QueryPlanner queryPlanner, MeterRegistry meterRegistry,
+                              SubscriptionProperties properties) {
+        this.queryPlanner = queryPlanner;
+        this.properties = properties;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(properties.getDeliveryThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "subscription-delivery-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        FunctionCounter.builder("graphql.subscription.events.published", published, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("graphql.subscription.messages", this, SubscriptionBroker::getDelivered)
+                .tag("outcome", "delivered").register(meterRegistry);
+        FunctionCounter.builder("graphql.subscription.messages", this, SubscriptionBroker::getConflated)
+                .tag("outcome", "conflated").register(meterRegistry);
+        FunctionCounter.builder("graphql.subscription.messages", this, SubscriptionBroker::getDropped)
+                .tag("outcome", "dropped").register(meterRegistry);
+        Gauge.builder("graphql.subscription.connections", connections, Map::size).register(meterRegistry);
+        Gauge.builder("graphql.subscription.active", byId, Map::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.keySet().forEach(this::disconnect);
+        deliveryExecutor.shutdownNow();
+    }
+
+    /**
+     * Register a client connection; messages for it are written through {@code outbound}
+     */
+    public SubscriptionConnection connect(String connectionId, SubscriptionConnection.Outbound outbound) {
+        disconnect(connectionId);
+        SubscriptionConnection connection = new SubscriptionConnection(connectionId, outbound,
+                properties.getQueueCapacity(), deliveryExecutor, this::onDeliveryFailure);
+        connections.put(connectionId, connection);
+        return connection;
+    }
+
+    private void onDeliveryFailure(SubscriptionConnection failed) {
+        // A reconnect may already have replaced the failed connection under the same id
+        if (connections.get(failed.getId()) == failed) {
+            disconnect(failed.getId());
+        }
+    }
+
+    /**
+     * Drop a connection together with all of its subscriptions
+     */
+    public void disconnect(String connectionId) {
+        SubscriptionConnection connection = connections.remove(connectionId);
+        if (connection == null) {
+            return;
+        }
+        Set<Subscription> owned = byConnection.remove(connectionId);
+        if (owned != null) {
+            for (Subscription subscription : owned) {
+                if (byId.remove(subscription.id, subscription)) {
+                    unindex(subscription);
+                }
+            }
+        }
+        retire(connection);
+    }
+
+    /**
+     * Start a subscription on a connection
+     *
+     * @return the subscription id
+     * @throws IllegalArgumentException if the document is not a single-field subscription
+     * @throws IllegalStateException if the connection is unknown or the operation id is in use
+     */
+    public String subscribe(String connectionId, String operationId, String query, Map<String, Object> variables) {
+        SubscriptionConnection connection = connections.get(connectionId);
+        if (connection == null) {
+            throw new IllegalStateException("Unknown subscription connection: " + connectionId);
+        }
+        SubscriptionSelection selection = SubscriptionSelection.parse(query, variables);
+        String topic = topicOf(selection.getFieldName());
+        String id = connectionId + ":" + operationId;
+        Subscription subscription = new Subscription(id, connection, topic, selection,
+                "{\"id\":" + toJson(operationId) + ",\"type\":\"next\",\"payload\":");
+
+        if (byId.putIfAbsent(id, subscription) != null) {
+            throw new IllegalStateException("Subscriber for " + operationId + " already exists");
+        }
+        byConnection.computeIfAbsent(connectionId, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        index.computeIfAbsent(topic, key -> new ConcurrentHashMap<>())
+                .compute(selection.getEntityKey(), (key, subscribers) -> {
+                    Set<Subscription> updated = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                    updated.add(subscription);
+                    return updated;
+                });
+        log.debug("Subscription {} on {}[{}]", id, topic, selection.getEntityKey());
+        return id;
+    }
+
+    public boolean unsubscribe(String connectionId, String operationId) {
+        return unsubscribe(connectionId + ":" + operationId);
+    }
+
+    public boolean unsubscribe(String subscriptionId) {
+        Subscription subscription = byId.remove(subscriptionId);
+        if (subscription == null) {
+            return false;
+        }
+        Set<Subscription> owned = byConnection.get(subscription.connection.getId());
+        if (owned != null) {
+            owned.remove(subscription);
+        }
+        unindex(subscription);
+        return true;
+    }
+
+    /**
+     * Queue a protocol message (ack, error, complete) on a connection
+     */
+    public void send(String connectionId, String message) {
+        SubscriptionConnection connection = connections.get(connectionId);
+        if (connection != null) {
+            connection.enqueueControl(message);
+        }
+    }
+
+    /**
+     * Deliver an event about one entity to its subscribers and to the topic-wide subscribers
+     *
+     * @return the number of subscribers the event was queued for
+     */
+    public int publish(String topic, String entityKey, Object event) {
+        published.incrementAndGet();
+        Map<String, Set<Subscription>> byEntity = index.get(topic);
+        if (byEntity == null) {
+            return 0;
+        }
+        Map<String, String> payloads = new HashMap<>();
+        int queued = deliver(byEntity.get(entityKey), entityKey, event, payloads);
+        if (!ANY_ENTITY.equals(entityKey)) {
+            queued += deliver(byEntity.get(ANY_ENTITY), entityKey, event, payloads);
+        }
+        fannedOut.addAndGet(queued);
+        return queued;
+    }
+
+    private int deliver(Set<Subscription> subscribers, String entityKey, Object event, Map<String, String> payloads) {
+        if (subscribers == null) {
+            return 0;
+        }
+        int queued = 0;
+        for (Subscription subscription : subscribers) {
+            String payload = payloads.computeIfAbsent(subscription.selection.getShapeKey(),
+                    shape -> toJson(Map.of("data", Map.of(subscription.selection.getResultKey(),
+                            subscription.selection.project(event)))));
+            subscription.connection.enqueue(subscription.id, entityKey, subscription.messagePrefix + payload + "}");
+            queued++;
+        }
+        return queued;
+    }
+
+    /**
+     * Topic a subscription root field streams: the entity type it returns
+     */
+    public String topicOf(String fieldName) {
+        String type = queryPlanner.getIndex().rootFieldType(SUBSCRIPTION_ROOT, fieldName);
+        return type != null ? type : fieldName;
+    }
+
+    private void unindex(Subscription subscription) {
+        Map<String, Set<Subscription>> byEntity = index.get(subscription.topic);
+        if (byEntity != null) {
+            byEntity.computeIfPresent(subscription.selection.getEntityKey(), (key, subscribers) -> {
+                subscribers.remove(subscription);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+
+    private void retire(SubscriptionConnection connection) {
+        connection.close();
+        closedDelivered.addAndGet(connection.getDelivered());
+        closedConflated.addAndGet(connection.getConflated());
+        closedDropped.addAndGet(connection.getDropped());
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Subscription event is not serializable", e);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    public int getSubscriptionCount() {
+        return byId.size();
+    }
+
+    public long getDelivered() {
+        return closedDelivered.get() + connections.values().stream()
+                .mapToLong(SubscriptionConnection::getDelivered).sum();
+    }
+
+    public long getConflated() {
+        return closedConflated.get() + connections.values().stream()
+                .mapToLong(SubscriptionConnection::getConflated).sum();
+    }
+
+    public long getDropped() {
+        return closedDropped.get() + connections.values().stream()
+                .mapToLong(SubscriptionConnection::getDropped).sum();
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("connections", getConnectionCount());
+        statistics.put("subscriptions", getSubscriptionCount());
+        statistics.put("topics", index.size());
+        statistics.put("published", published.get());
+        statistics.put("queued", fannedOut.get());
+        statistics.put("delivered", getDelivered());
+        statistics.put("conflated", getConflated());
+        statistics.put("dropped", getDropped());
+        return statistics;
+    }
+
+    private static final class Subscription {
+        private final String id;
+        private final SubscriptionConnection connection;
+        private final String topic;
+        private final SubscriptionSelection selection;
+        /** the serialized "next" message up to its payload */
+        private final String messagePrefix;
+
+        private Subscription(String id, SubscriptionConnection connection, String topic,
+                             SubscriptionSelection selection, String messagePrefix) {
+            this.id = id;
+            this.connection = connection;
+            this.topic = topic;
+            this.selection = selection;
+            this.messagePrefix = messagePrefix;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.hospital.hms.graphql.subscription;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One subscriber connection and its bounded outbound queue
+ *
+ * Pending events are keyed by subscription and entity: a newer event for an
+ * entity the consumer has not received yet replaces the queued one in place
+ * (conflation), so a slow consumer always catches up to the latest state
+ * rather than replaying history. When the queue is full of distinct
+ * entities the oldest pending message is dropped. At most one delivery
+ * task per connection runs on the shared executor, so a slow socket holds
+ * one delivery thread and never blocks publishers.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Slf4j
+public final class SubscriptionConnection {
+
+    /**
+     * Writes one text frame to the client
+     */
+    @FunctionalInterface
+    public interface Outbound {
+        void send(String message) throws IOException;
+    }
+
+    private final String id;
+    private final Outbound outbound;
+    private final int capacity;
+    private final Executor executor;
+    private final Consumer<SubscriptionConnection> onFailure;
+    private final LinkedHashMap<String, String> pending = new LinkedHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private final AtomicLong controlSequence = new AtomicLong(0);
+    private final AtomicLong delivered = new AtomicLong(0);
+    private final AtomicLong conflated = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+    private volatile boolean closed;
+
+    SubscriptionConnection(String id, Outbound outbound, int capacity, Executor executor,
+                           Consumer<SubscriptionConnection> onFailure) {
+        this.id = id;
+        this.outbound = outbound;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.onFailure = onFailure;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Queue an event for a subscription, replacing one still pending for the same entity
+     */
+    void enqueue(String subscriptionId, String entityKey, String message) {
+        offer(subscriptionId + '\0' + entityKey, message);
+    }
+
+    /**
+     * Queue a protocol message that must not be conflated (acks, errors, completions)
+     */
+    void enqueueControl(String message) {
+        offer("\0control\0" + controlSequence.incrementAndGet(), message);
+    }
+
+    private void offer(String key, String message) {
+        if (closed) {
+            return;
+        }
+        synchronized (pending) {
+            if (pending.containsKey(key)) {
+                // Replacing keeps the original position, so the entity is not starved by its own updates
+                pending.put(key, message);
+                conflated.incrementAndGet();
+            } else {
+                if (pending.size() >= capacity) {
+                    Iterator<String> eldest = pending.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    dropped.incrementAndGet();
+                }
+                pending.put(key, message);
+            }
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            String message;
+            while (!closed && (message = poll()) != null) {
+                outbound.send(message);
+                delivered.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Delivery to subscription connection {} failed: {}", id, e.getMessage());
+            close();
+            onFailure.accept(this);
+            return;
+        } finally {
+            scheduled.set(false);
+        }
+        // An enqueue between the last poll and clearing the flag would otherwise wait for the next event
+        if (!closed && pendingCount() > 0) {
+            schedule();
+        }
+    }
+
+    private String poll() {
+        synchronized (pending) {
+            Iterator<Map.Entry<String, String>> iterator = pending.entrySet().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            String message = iterator.next().getValue();
+            iterator.remove();
+            return message;
+        }
+    }
+
+    void close() {
+        closed = true;
+        synchronized (pending) {
+            pending.clear();
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getConflated() {
+        return conflated.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.hospital.hms.graphql.subscription;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.hms.graphql.config.SubscriptionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Feeds entity change events from Kafka into the {@link SubscriptionBroker}
+ *
+ * Every gateway node holds its own subscribers, so each node consumes with
+ * its own consumer group and sees every event; the partition key (or the
+ * configured key field of the event) identifies the entity.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "graphql.federation.subscriptions.kafka", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class SubscriptionEventListener {
+
+    private static final TypeReference<Map<String, Object>> EVENT_TYPE = new TypeReference<>() {
+    };
+
+    private final SubscriptionBroker broker;
+    private final SubscriptionProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public SubscriptionEventListener(SubscriptionBroker broker, SubscriptionProperties properties) {
+        this.broker = broker;
+        this.properties = properties;
+    }
+
+    @KafkaListener(
+            topics = "#{@subscriptionProperties.kafka.topics.keySet().toArray(new String[0])}",
+            groupId = "hms-graphql-subscriptions-#{T(java.util.UUID).randomUUID()}",
+            autoStartup = "#{!@subscriptionProperties.kafka.topics.isEmpty()}")
+    public void onEvent(ConsumerRecord<String, String> record) {
+        String type = properties.getKafka().getTopics().get(record.topic());
+        if (type == null || record.value() == null) {
+            return;
+        }
+        Map<String, Object> event;
+        try {
+            event = objectMapper.readValue(record.value(), EVENT_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable event at {}-{}@{}: {}", record.topic(), record.partition(),
+                    record.offset(), e.getOriginalMessage());
+            return;
+        }
+        Object key = record.key() != null ? record.key() : event.get(properties.getKafka().getEntityKeyField());
+        broker.publish(type, key != null ? key.toString() : SubscriptionBroker.ANY_ENTITY, event);
+    }
+}
@@ -0,0 +1,192 @@
+package com.hospital.hms.graphql.subscription;
+
+import graphql.language.AstPrinter;
+import graphql.language.BooleanValue;
+import graphql.language.Document;
+import graphql.language.EnumValue;
+import graphql.language.Field;
+import graphql.language.FloatValue;
+import graphql.language.FragmentDefinition;
+import graphql.language.FragmentSpread;
+import graphql.language.InlineFragment;
+import graphql.language.IntValue;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.language.VariableReference;
+import graphql.parser.Parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The root field a subscription listens to and the shape it wants events in
+ *
+ * A subscription selects one root field; its first argument, when present,
+ * is the entity it follows (e.g. {@code vitalsUpdated(patientId: "P1")}),
+ * otherwise it receives every entity of the topic. Events are projected to
+ * the selected fields, so subscribers with the same selection share one
+ * serialized payload.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class SubscriptionSelection {
+
+    private final String fieldName;
+    private final String resultKey;
+    private final String entityKey;
+    private final String shapeKey;
+    private final Projection projection;
+
+    private SubscriptionSelection(String fieldName, String resultKey, String entityKey, String shapeKey,
+                                  Projection projection) {
+        this.fieldName = fieldName;
+        this.resultKey = resultKey;
+        this.entityKey = entityKey;
+        this.shapeKey = shapeKey;
+        this.projection = projection;
+    }
+
+    public static SubscriptionSelection parse(String query, Map<String, Object> variables) {
+        Document document = Parser.parse(query);
+        OperationDefinition operation = document.getDefinitionsOfType(OperationDefinition.class).stream()
+                .filter(definition -> definition.getOperation() == OperationDefinition.Operation.SUBSCRIPTION)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Document has no subscription operation"));
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+            fragments.put(fragment.getName(), fragment);
+        }
+
+        List<Field> rootFields = new ArrayList<>();
+        collectFields(operation.getSelectionSet(), fragments, rootFields);
+        if (rootFields.size() != 1) {
+            throw new IllegalArgumentException("A subscription must select exactly one root field");
+        }
+        Field root = rootFields.get(0);
+        String entityKey = root.getArguments().isEmpty()
+                ? SubscriptionBroker.ANY_ENTITY
+                : String.valueOf(valueOf(root.getArguments().get(0).getValue(),
+                        variables != null ? variables : Map.of()));
+        String shapeKey = root.getResultKey()
+                + (root.getSelectionSet() != null ? AstPrinter.printAstCompact(root.getSelectionSet()) : "");
+        return new SubscriptionSelection(root.getName(), root.getResultKey(), entityKey, shapeKey,
+                Projection.of(root.getSelectionSet(), fragments));
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getResultKey() {
+        return resultKey;
+    }
+
+    /**
+     * The followed entity, or {@link SubscriptionBroker#ANY_ENTITY}
+     */
+    public String getEntityKey() {
+        return entityKey;
+    }
+
+    /**
+     * Equal for subscriptions whose payloads for the same event are identical
+     */
+    public String getShapeKey() {
+        return shapeKey;
+    }
+
+    /**
+     * The event reduced to the selected fields
+     */
+    public Object project(Object event) {
+        return projection != null ? projection.apply(event) : event;
+    }
+
+    private static void collectFields(SelectionSet selectionSet, Map<String, FragmentDefinition> fragments,
+                                      List<Field> fields) {
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field field) {
+                fields.add(field);
+            } else if (selection instanceof InlineFragment fragment) {
+                collectFields(fragment.getSelectionSet(), fragments, fields);
+            } else if (selection instanceof FragmentSpread spread && fragments.containsKey(spread.getName())) {
+                collectFields(fragments.get(spread.getName()).getSelectionSet(), fragments, fields);
+            }
+        }
+    }
+
+    private static Object valueOf(Value<?> value, Map<String, Object> variables) {
+        if (value instanceof VariableReference reference) {
+            return variables.get(reference.getName());
+        }
+        if (value instanceof StringValue string) {
+            return string.getValue();
+        }
+        if (value instanceof IntValue integer) {
+            return integer.getValue();
+        }
+        if (value instanceof FloatValue decimal) {
+            return decimal.getValue();
+        }
+        if (value instanceof BooleanValue bool) {
+            return bool.isValue();
+        }
+        if (value instanceof EnumValue enumValue) {
+            return enumValue.getName();
+        }
+        return AstPrinter.printAstCompact(value);
+    }
+
+    /**
+     * Response key → (field name, nested projection) for one selection set
+     */
+    private static final class Projection {
+
+        private final Map<String, String> fieldNames = new LinkedHashMap<>();
+        private final Map<String, Projection> children = new HashMap<>();
+
+        static Projection of(SelectionSet selectionSet, Map<String, FragmentDefinition> fragments) {
+            if (selectionSet == null) {
+                return null;
+            }
+            Projection projection = new Projection();
+            List<Field> fields = new ArrayList<>();
+            collectFields(selectionSet, fragments, fields);
+            for (Field field : fields) {
+                projection.fieldNames.put(field.getResultKey(), field.getName());
+                Projection child = of(field.getSelectionSet(), fragments);
+                if (child != null) {
+                    projection.children.put(field.getResultKey(), child);
+                }
+            }
+            return projection;
+        }
+
+        Object apply(Object value) {
+            if (value instanceof List<?> list) {
+                List<Object> projected = new ArrayList<>(list.size());
+                for (Object element : list) {
+                    projected.add(apply(element));
+                }
+                return projected;
+            }
+            if (!(value instanceof Map<?, ?> map)) {
+                return value;
+            }
+            Map<String, Object> projected = new LinkedHashMap<>();
+            for (Map.Entry<String, String> field : fieldNames.entrySet()) {
+                Object fieldValue = map.get(field.getValue());
+                Projection child = children.get(field.getKey());
+                projected.put(field.getKey(), child != null ? child.apply(fieldValue) : fieldValue);
+            }
+            return projected;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.hospital.hms.graphql.subscription;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.hms.graphql.config.SubscriptionProperties;
+import com.hospital.hms.graphql.service.GraphQLFederationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket endpoint for GraphQL subscriptions (graphql-transport-ws protocol)
+ *
+ * Each session becomes a {@link SubscriptionConnection} of the
+ * {@link SubscriptionBroker}; everything sent to the client, protocol
+ * replies included, goes through that connection's bounded queue. The
+ * bearer token of {@code connection_init} is verified before the
+ * connection is acknowledged; a missing or invalid token closes it with
+ * 4401.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SubscriptionWebSocketHandler extends TextWebSocketHandler {
+
+    private static final TypeReference<Map<String, Object>> MESSAGE_TYPE = new TypeReference<>() {
+    };
+    private static final CloseStatus UNAUTHORIZED = new CloseStatus(4401, "Unauthorized");
+    private static final CloseStatus INVALID_MESSAGE = new CloseStatus(4400, "Invalid message");
+    private static final CloseStatus TOO_MANY_INITIALISATIONS = new CloseStatus(4429, "Too many initialisation requests");
+
+    private final GraphQLFederationService federationService;
+    private final SubscriptionBroker broker;
+    private final SubscriptionAuthorizer authorizer;
+    private final SubscriptionProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** session id → verified caller, present once acknowledged */
+    private final Map<String, SubscriptionAuthorizer.Subscriber> acknowledged = new ConcurrentHashMap<>();
+
+    public SubscriptionWebSocketHandler(GraphQLFederationService federationService, SubscriptionBroker broker,
+                                        SubscriptionAuthorizer authorizer, SubscriptionProperties properties) {
+        this.federationService = federationService;
+        this.broker = broker;
+        this.authorizer = authorizer;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession outbound = new ConcurrentWebSocketSessionDecorator(session,
+                properties.getSendTimeLimitMs(), properties.getSendBufferSizeBytes());
+        broker.connect(session.getId(), message -> outbound.sendMessage(new TextMessage(message)));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage textMessage) throws IOException {
+        Map<String, Object> message;
+        try {
+            message = objectMapper.readValue(textMessage.getPayload(), MESSAGE_TYPE);
+        } catch (JsonProcessingException e) {
+            session.close(INVALID_MESSAGE);
+            return;
+        }
+        String connectionId = session.getId();
+        String id = message.get("id") instanceof String operationId ? operationId : null;
+
+        switch (String.valueOf(message.get("type"))) {
+            case "connection_init" -> initialise(session, message.get("payload"));
+            case "ping" -> broker.send(connectionId, "{\"type\":\"pong\"}");
+            case "pong" -> {
+                // Keep-alive reply, nothing to do
+            }
+            case "subscribe" -> subscribe(session, id, message.get("payload"));
+            case "complete" -> {
+                if (id != null) {
+                    federationService.cancelSubscription(connectionId + ":" + id);
+                }
+            }
+            default -> session.close(INVALID_MESSAGE);
+        }
+    }
+
+    private void initialise(WebSocketSession session, Object payload) throws IOException {
+        String connectionId = session.getId();
+        if (acknowledged.containsKey(connectionId)) {
+            session.close(TOO_MANY_INITIALISATIONS);
+            return;
+        }
+        SubscriptionAuthorizer.Subscriber subscriber = authorizer.authenticate(authorization(session, payload));
+        if (subscriber == null) {
+            session.close(UNAUTHORIZED);
+            return;
+        }
+        acknowledged.put(connectionId, subscriber);
+        broker.send(connectionId, "{\"type\":\"connection_ack\"}");
+    }
+
+    private void subscribe(WebSocketSession session, String id, Object payload) throws IOException {
+        String connectionId = session.getId();
+        SubscriptionAuthorizer.Subscriber subscriber = acknowledged.get(connectionId);
+        if (subscriber == null) {
+            session.close(UNAUTHORIZED);
+            return;
+        }
+        if (id == null || !(payload instanceof Map<?, ?> request) || !(request.get("query") instanceof String query)) {
+            session.close(INVALID_MESSAGE);
+            return;
+        }
+
+        Map<String, Object> context = new HashMap<>();
+        context.put("connectionId", connectionId);
+        context.put("operationId", id);
+        context.put("operationName", request.get("operationName"));
+        context.put(SubscriptionAuthorizer.CONTEXT_KEY, subscriber);
+        context.put("authorization", subscriber.authorization());
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> variables = request.get("variables") instanceof Map<?, ?> values
+                    ? (Map<String, Object>) values : Map.of();
+            federationService.createSubscription(query, variables, context);
+        } catch (IllegalStateException e) {
+            // graphql-transport-ws closes the socket when an operation id is reused
+            session.close(new CloseStatus(4409, e.getMessage()));
+        } catch (RuntimeException e) {
+            broker.send(connectionId, objectMapper.writeValueAsString(Map.of(
+                    "id", id,
+                    "type", "error",
+                    "payload", List.of(Map.of("message", String.valueOf(e.getMessage()))))));
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Subscription transport error on {}: {}", session.getId(), exception.getMessage());
+        release(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        release(session);
+    }
+
+    private void release(WebSocketSession session) {
+        acknowledged.remove(session.getId());
+        broker.disconnect(session.getId());
+    }
+
+    private static String authorization(WebSocketSession session, Object initPayload) {
+        if (initPayload instanceof Map<?, ?> payload) {
+            Object value = payload.get("Authorization");
+            if (value == null) {
+                value = payload.get("authorization");
+            }
+            if (value != null) {
+                return value.toString();
+            }
+        }
+        return session.getHandshakeHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    }
+}
@@ -0,0 +1,124 @@
+package com.hms.graphql.instrumentation;
+
+import graphql.language.Document;
+import graphql.language.FragmentDefinition;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.RuntimeWiring;
+import graphql.schema.idl.SchemaGenerator;
+import graphql.schema.idl.SchemaParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryCostCalculator
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class QueryCostCalculatorTest {
+
+    private static final GraphQLSchema SCHEMA = new SchemaGenerator().makeExecutableSchema(
+            new SchemaParser().parse("""
+                    type Query {
+                      patient(id: ID!): Patient
+                      patients(first: Int, limit: Int): [Patient!]!
+                      search(term: String!): [SearchResult]
+                    }
+                    union SearchResult = Patient | Appointment
+                    type Patient {
+                      id: ID!
+                      name: String
+                      appointments(first: Int): [Appointment]
+                      medicalRecords: [Record]
+                    }
+                    type Appointment { id: ID! provider: Provider }
+                    type Provider { id: ID! name: String }
+                    type Record { id: ID! }
+                    """),
+            RuntimeWiring.newRuntimeWiring().build());
+
+    private final QueryCostProperties properties = new QueryCostProperties();
+
+    @Test
+    void cost_CountsObjectFieldsAndIgnoresScalars() {
+        assertEquals(1, cost("{ patient(id: 1) { id name } }"));
+        assertEquals(2, cost("{ patient(id: 1) { id appointments(first: 0) { id } } }"));
+    }
+
+    @Test
+    void cost_MultipliesSelectionByListSizeArgument() {
+        // patients: 1 + 5 * (appointments: 1 + 3 * provider 1)
+        assertEquals(1 + 5 * (1 + 3), cost("{ patients(first: 5) { appointments(first: 3) { provider { id } } } }"));
+    }
+
+    @Test
+    void cost_FallsBackToDefaultListSize() {
+        properties.setDefaultListSize(7);
+
+        assertEquals(1 + 7 * 1, cost("{ patients { medicalRecords { id } } }"));
+    }
+
+    @Test
+    void cost_ReadsListSizeFromVariables() {
+        String query = "query($n: Int) { patients(limit: $n) { appointments(first: 2) { id } } }";
+
+        assertEquals(1 + 20 * 1, cost(query, Map.of("n", 20)));
+        assertEquals(1 + 10 * 1, cost(query, Map.of()), "Unbound variables use the default list size");
+        assertEquals(1, cost(query, Map.of("n", -4)), "Negative sizes count as empty lists");
+    }
+
+    @Test
+    void cost_UsesFirstConfiguredSizeArgument() {
+        assertEquals(1 + 2 * 1, cost("{ patients(limit: 50, first: 2) { appointments(first: 0) { id } } }"));
+    }
+
+    @Test
+    void cost_CountsFragmentsAndInlineFragments() {
+        String query = """
+                { patients(first: 2) { ...withAppointments } }
+                fragment withAppointments on Patient { appointments(first: 4) { provider { id } } }
+                """;
+        assertEquals(1 + 2 * (1 + 4), cost(query));
+
+        // Both union members are counted, so the cost is an upper bound
+        assertEquals(1 + 10 * (1 + 1), cost("""
+                { search(term: "x") {
+                    ... on Patient { medicalRecords { id } }
+                    ... on Appointment { provider { id } }
+                } }
+                """));
+    }
+
+    @Test
+    void cost_AppliesFieldWeightOverrides() {
+        properties.setFieldWeights(Map.of("Patient.medicalRecords", 5));
+
+        assertEquals(1 + 5, cost("{ patient(id: 1) { medicalRecords { id } } }"));
+    }
+
+    @Test
+    void cost_SaturatesInsteadOfOverflowing() {
+        assertEquals(Long.MAX_VALUE, cost("{ patients(first: 2147483647) { appointments(first: 2147483647) { "
+                + "provider { id } } } }"));
+    }
+
+    private long cost(String query) {
+        return cost(query, Map.of());
+    }
+
+    private long cost(String query, Map<String, Object> variables) {
+        Document document = Parser.parse(query);
+        OperationDefinition operation = document.getDefinitionsOfType(OperationDefinition.class).get(0);
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        for (FragmentDefinition fragment : document.getDefinitionsOfType(FragmentDefinition.class)) {
+            fragments.put(fragment.getName(), fragment);
+        }
+        return new QueryCostCalculator(properties).cost(SCHEMA, operation, fragments, variables);
+    }
+}
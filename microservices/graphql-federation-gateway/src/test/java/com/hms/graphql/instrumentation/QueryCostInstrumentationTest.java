@@ -0,0 +1,84 @@
+package com.hms.graphql.instrumentation;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryCostInstrumentation
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class QueryCostInstrumentationTest {
+
+    private static final long WINDOW_NANOS = 60_000_000_000L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private QueryCostProperties properties;
+    private QueryCostInstrumentation instrumentation;
+
+    @BeforeEach
+    void setUp() {
+        properties = new QueryCostProperties();
+        properties.setClientBudget(100);
+        properties.setBudgetWindowSeconds(60);
+        properties.setMaxTrackedClients(2);
+        instrumentation = new QueryCostInstrumentation(properties, meterRegistry);
+    }
+
+    @Test
+    void budgetFor_ConsumesFromOneBudgetPerClient() {
+        assertTrue(instrumentation.budgetFor("client-a").tryConsume(80));
+
+        assertFalse(instrumentation.budgetFor("client-a").tryConsume(30));
+        assertTrue(instrumentation.budgetFor("client-b").tryConsume(30));
+        assertEquals(2, instrumentation.trackedClients());
+    }
+
+    @Test
+    void budgetFor_SharesOverflowBudgetBeyondTrackedClients() {
+        instrumentation.budgetFor("client-a");
+        instrumentation.budgetFor("client-b");
+
+        assertTrue(instrumentation.budgetFor("client-c").tryConsume(60));
+        assertFalse(instrumentation.budgetFor("client-d").tryConsume(60));
+        assertSame(instrumentation.budgetFor("client-c"),
+                instrumentation.budgetFor(QueryCostInstrumentation.OVERFLOW_CLIENT));
+    }
+
+    @Test
+    void evictIdleBudgets_DropsBudgetsIdleForAWindow() {
+        instrumentation.budgetFor("client-a").tryConsume(100);
+        instrumentation.budgetFor("client-b");
+
+        instrumentation.evictIdleBudgets(System.nanoTime() + WINDOW_NANOS);
+
+        assertEquals(0, instrumentation.trackedClients());
+        assertTrue(instrumentation.budgetFor("client-c").tryConsume(100), "Freed slots go to new clients");
+    }
+
+    @Test
+    void evictIdleBudgets_KeepsRecentlyUsedBudgets() {
+        instrumentation.budgetFor("client-a").tryConsume(100);
+
+        instrumentation.evictIdleBudgets(System.nanoTime());
+
+        assertEquals(1, instrumentation.trackedClients());
+        assertFalse(instrumentation.budgetFor("client-a").tryConsume(100));
+    }
+
+    @Test
+    void meters_AreNotTaggedWithClients() {
+        instrumentation.budgetFor("client-a");
+        instrumentation.budgetFor("client-b");
+
+        for (Meter meter : meterRegistry.getMeters()) {
+            assertNull(meter.getId().getTag("client"), meter.getId().getName());
+        }
+        assertEquals(2.0, meterRegistry.get("graphql.client.cost.budgets.tracked").gauge().value());
+    }
+}
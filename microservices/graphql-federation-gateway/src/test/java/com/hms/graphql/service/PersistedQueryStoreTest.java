@@ -0,0 +1,114 @@
+package com.hms.graphql.service;
+
+import com.hms.graphql.service.PersistedQueryStore.PersistedQueryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PersistedQueryStore
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class PersistedQueryStoreTest {
+
+    private static final String QUERY = "{ patient(id: 1) { name } }";
+
+    private PersistedQueryStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new PersistedQueryStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "maxEntries", 2);
+    }
+
+    @Test
+    void resolve_PassesQueriesWithoutPersistedQueryThrough() {
+        assertEquals(QUERY, store.resolve(QUERY, null));
+        assertEquals(QUERY, store.resolve(QUERY, Map.of("tracing", true)));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void resolve_UnknownHashIsNotFound() {
+        PersistedQueryException e = assertThrows(PersistedQueryException.class,
+                () -> store.resolve(null, extensions(sha256(QUERY))));
+
+        assertEquals(PersistedQueryStore.NOT_FOUND, e.getCode());
+        assertEquals("PersistedQueryNotFound", e.getMessage());
+    }
+
+    @Test
+    void resolve_RegistersQueryAndServesItByHash() {
+        assertEquals(QUERY, store.resolve(QUERY, extensions(sha256(QUERY))));
+
+        assertEquals(QUERY, store.resolve(null, extensions(sha256(QUERY))));
+        assertEquals(QUERY, store.resolve("", extensions(sha256(QUERY).toUpperCase())));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void resolve_RejectsHashMismatch() {
+        PersistedQueryException e = assertThrows(PersistedQueryException.class,
+                () -> store.resolve(QUERY, extensions(sha256("{ patients { name } }"))));
+
+        assertEquals(PersistedQueryStore.HASH_MISMATCH, e.getCode());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void resolve_RejectsUnsupportedRequests() {
+        PersistedQueryException version = assertThrows(PersistedQueryException.class,
+                () -> store.resolve(QUERY, Map.of("persistedQuery",
+                        Map.of("version", 2, "sha256Hash", sha256(QUERY)))));
+        PersistedQueryException hash = assertThrows(PersistedQueryException.class,
+                () -> store.resolve(QUERY, Map.of("persistedQuery", Map.of("version", 1))));
+        ReflectionTestUtils.setField(store, "enabled", false);
+        PersistedQueryException disabled = assertThrows(PersistedQueryException.class,
+                () -> store.resolve(QUERY, extensions(sha256(QUERY))));
+
+        assertEquals(PersistedQueryStore.NOT_SUPPORTED, version.getCode());
+        assertEquals(PersistedQueryStore.NOT_SUPPORTED, hash.getCode());
+        assertEquals(PersistedQueryStore.NOT_SUPPORTED, disabled.getCode());
+    }
+
+    @Test
+    void resolve_KeepsTheMostRecentlyUsedQueriesUpToTheBound() {
+        String second = "{ patients { name } }";
+        String third = "{ appointments { status } }";
+        store.resolve(QUERY, extensions(sha256(QUERY)));
+        store.resolve(second, extensions(sha256(second)));
+        store.resolve(null, extensions(sha256(QUERY)));
+
+        store.resolve(third, extensions(sha256(third)));
+
+        assertEquals(2, store.size());
+        assertEquals(QUERY, store.resolve(null, extensions(sha256(QUERY))));
+        assertEquals(third, store.resolve(null, extensions(sha256(third))));
+        PersistedQueryException e = assertThrows(PersistedQueryException.class,
+                () -> store.resolve(null, extensions(sha256(second))));
+        assertEquals(PersistedQueryStore.NOT_FOUND, e.getCode());
+    }
+
+    private static Map<String, Object> extensions(String sha256Hash) {
+        return Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", sha256Hash));
+    }
+
+    private static String sha256(String query) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(query.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.hms.graphql.service;
+
+import graphql.language.FieldDefinition;
+import graphql.language.ObjectTypeDefinition;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SchemaComposer
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class SchemaComposerTest {
+
+    private static final String GATEWAY_SDL = """
+            directive @hipaa(level: String!) on FIELD_DEFINITION | OBJECT
+            type Query { health: String }
+            """;
+    private static final String PATIENT_SDL = """
+            directive @key(fields: String!) repeatable on OBJECT | INTERFACE
+            scalar _Any
+            type _Service { sdl: String }
+            union _Entity = Patient
+            type Query {
+              patient(id: ID!): Patient
+              _service: _Service!
+              _entities(representations: [_Any!]!): [_Entity]!
+            }
+            type Patient @key(fields: "id") {
+              id: ID!
+              name: String
+              ssn: String @hipaa(level: "PHI")
+              allergies: [Allergy]
+            }
+            type Allergy { code: String }
+            """;
+    private static final String BILLING_SDL = """
+            type Query { invoices: [Invoice] }
+            type Patient @key(fields: "id") @extends {
+              id: ID! @external
+              balance: Float @requires(fields: "id")
+            }
+            type Invoice { id: ID! }
+            """;
+
+    private final SchemaComposer composer = new SchemaComposer();
+
+    @Test
+    void compose_MergesTypesAcrossSources() {
+        TypeDefinitionRegistry registry = composer.compose(sources(BILLING_SDL)).getRegistry();
+
+        assertEquals(List.of("health", "patient", "invoices"), fieldNames(registry, "Query"));
+        assertEquals(List.of("id", "name", "ssn", "allergies", "balance"), fieldNames(registry, "Patient"));
+        assertTrue(registry.getType("Allergy").isPresent());
+        assertTrue(registry.getType("Invoice").isPresent());
+    }
+
+    @Test
+    void compose_UnchangedSourcesShortCircuitOnceCommitted() {
+        SchemaComposer.Composition first = composer.compose(sources(BILLING_SDL));
+
+        assertNotNull(composer.compose(sources(BILLING_SDL)), "An uncommitted composition is retried");
+        composer.commit(first);
+        assertNull(composer.compose(sources(BILLING_SDL)));
+    }
+
+    @Test
+    void compose_RecomposesOnlyTypesOfChangedSources() {
+        composer.commit(composer.compose(sources(BILLING_SDL)));
+
+        SchemaComposer.Composition changed = composer.compose(sources(BILLING_SDL.replace(
+                "type Invoice { id: ID! }", "type Invoice { id: ID! total: Float }")));
+
+        assertEquals(Set.of("billing"), changed.getChangedSources());
+        assertEquals(Set.of("Query", "Patient", "Invoice"), changed.getRecomposedTypes());
+        assertEquals(List.of("id", "total"), fieldNames(changed.getRegistry(), "Invoice"));
+        assertTrue(changed.getRegistry().getType("Allergy").isPresent());
+    }
+
+    @Test
+    void compose_DropsTypesOfRemovedSources() {
+        composer.commit(composer.compose(sources(BILLING_SDL)));
+        Map<String, String> withoutBilling = sources(BILLING_SDL);
+        withoutBilling.remove("billing");
+
+        TypeDefinitionRegistry registry = composer.compose(withoutBilling).getRegistry();
+
+        assertFalse(registry.getType("Invoice").isPresent());
+        assertEquals(List.of("health", "patient"), fieldNames(registry, "Query"));
+        assertEquals(List.of("id", "name", "ssn", "allergies"), fieldNames(registry, "Patient"));
+    }
+
+    @Test
+    void compose_StripsFederationDirectivesAndTypes() {
+        TypeDefinitionRegistry registry = composer.compose(sources(BILLING_SDL)).getRegistry();
+
+        ObjectTypeDefinition patient = (ObjectTypeDefinition) registry.getType("Patient").orElseThrow();
+        assertFalse(patient.hasDirective("key"));
+        assertFalse(patient.hasDirective("extends"));
+        assertFalse(field(patient, "balance").hasDirective("requires"));
+        assertTrue(field(patient, "ssn").hasDirective("hipaa"), "Non-federation directives are kept");
+        assertFalse(registry.getDirectiveDefinition("key").isPresent());
+        assertTrue(registry.getDirectiveDefinition("hipaa").isPresent());
+        for (String internal : List.of("_Any", "_Service", "_Entity")) {
+            assertFalse(registry.getType(internal).isPresent(), internal);
+        }
+    }
+
+    private static Map<String, String> sources(String billingSdl) {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("gateway", GATEWAY_SDL);
+        sources.put("patient", PATIENT_SDL);
+        sources.put("billing", billingSdl);
+        return sources;
+    }
+
+    private static List<String> fieldNames(TypeDefinitionRegistry registry, String type) {
+        return ((ObjectTypeDefinition) registry.getType(type).orElseThrow()).getFieldDefinitions().stream()
+                .map(FieldDefinition::getName)
+                .toList();
+    }
+
+    private static FieldDefinition field(ObjectTypeDefinition type, String name) {
+        return type.getFieldDefinitions().stream()
+                .filter(field -> field.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hms.graphql.service;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ValidatedDocumentCache
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class ValidatedDocumentCacheTest {
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate = input -> {
+        parses.incrementAndGet();
+        return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+    };
+
+    @Test
+    void getDocumentAsync_ParsesEachQueryTextOnce() {
+        ValidatedDocumentCache cache = new ValidatedDocumentCache(10, 5);
+
+        PreparsedDocumentEntry first = document(cache, "{ patient(id: 1) { name } }", parseAndValidate);
+        PreparsedDocumentEntry second = document(cache, "{ patient(id: 1) { name } }", parseAndValidate);
+
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+        assertEquals(Map.of("size", 1, "hits", 1L, "misses", 1L), cache.getStatistics());
+    }
+
+    @Test
+    void getDocumentAsync_CachesValidationErrors() {
+        ValidatedDocumentCache cache = new ValidatedDocumentCache(10, 5);
+        Function<ExecutionInput, PreparsedDocumentEntry> invalid = input -> {
+            parses.incrementAndGet();
+            return new PreparsedDocumentEntry(GraphqlErrorBuilder.newError().message("Unknown field").build());
+        };
+
+        PreparsedDocumentEntry first = document(cache, "{ unknown }", invalid);
+        PreparsedDocumentEntry second = document(cache, "{ unknown }", invalid);
+
+        assertTrue(first.hasErrors());
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void getDocumentAsync_RejectsDocumentsDeeperThanTheLimit() {
+        ValidatedDocumentCache cache = new ValidatedDocumentCache(10, 2);
+
+        PreparsedDocumentEntry shallow = document(cache, "{ patient(id: 1) { name } }", parseAndValidate);
+        PreparsedDocumentEntry deep = document(cache,
+                "{ patient(id: 1) { ...Visits } } fragment Visits on Patient { appointments { id } }",
+                parseAndValidate);
+
+        assertFalse(shallow.hasErrors());
+        assertTrue(deep.hasErrors());
+        assertEquals("QUERY_LIMIT_EXCEEDED", deep.getErrors().get(0).getExtensions().get("code"));
+    }
+
+    @Test
+    void getDocumentAsync_EvictsTheLeastRecentlyUsedBeyondTheBound() {
+        ValidatedDocumentCache cache = new ValidatedDocumentCache(2, 5);
+        document(cache, "{ a }", parseAndValidate);
+        document(cache, "{ b }", parseAndValidate);
+        document(cache, "{ a }", parseAndValidate);
+
+        document(cache, "{ c }", parseAndValidate);
+        document(cache, "{ a }", parseAndValidate);
+        document(cache, "{ b }", parseAndValidate);
+
+        assertEquals(4, parses.get());
+        assertEquals(2, cache.getStatistics().get("size"));
+    }
+
+    private static PreparsedDocumentEntry document(ValidatedDocumentCache cache, String query,
+                                                   Function<ExecutionInput, PreparsedDocumentEntry> parse) {
+        return cache.getDocumentAsync(ExecutionInput.newExecutionInput(query).build(), parse).join();
+    }
+}
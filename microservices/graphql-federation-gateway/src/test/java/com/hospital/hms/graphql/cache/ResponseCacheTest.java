@@ -0,0 +1,189 @@
+package com.hospital.hms.graphql.cache;
+
+import com.hospital.hms.graphql.federation.QueryPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ResponseCache
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class ResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<ResponseCache> caches = new ArrayList<>();
+    private ResponseCache cache;
+    private QueryPlan patientPlan;
+    private QueryPlan appointmentPlan;
+
+    @BeforeEach
+    void setUp() {
+        cache = cache(300, 10, 64);
+        patientPlan = plan("{patient(id:$id){name}}", Set.of("Patient"), Set.of("patient-service"));
+        appointmentPlan = plan("{appointments{id provider{name}}}", Set.of("Appointment", "Provider"),
+                Set.of("appointment-service", "provider-service"));
+    }
+
+    @AfterEach
+    void shutdown() {
+        caches.forEach(ResponseCache::shutdown);
+    }
+
+    @Test
+    void key_SeparatesCallersAndIgnoresOrdering() {
+        Map<String, Object> variables = new HashMap<>(Map.of("id", "P-1", "include", true));
+        Map<String, Object> doctor = Map.of("tenantId", "T1", "userId", "U1", "roles", List.of("DOCTOR", "NURSE"));
+
+        String key = cache.key(patientPlan, variables, doctor);
+
+        assertEquals(key, cache.key(patientPlan, Map.of("include", true, "id", "P-1"),
+                Map.of("tenantId", "T1", "userId", "U1", "roles", List.of("NURSE", "DOCTOR"))));
+        assertNotEquals(key, cache.key(patientPlan, variables,
+                Map.of("tenantId", "T1", "userId", "U2", "roles", List.of("DOCTOR", "NURSE"))));
+        assertNotEquals(key, cache.key(patientPlan, variables, Map.of("tenantId", "T1", "userId", "U1")));
+        assertNotEquals(key, cache.key(patientPlan, Map.of("id", "P-2", "include", true), doctor));
+        assertNotEquals(cache.key(patientPlan, variables, Map.of("authorization", "Bearer a")),
+                cache.key(patientPlan, variables, Map.of("authorization", "Bearer b")));
+    }
+
+    @Test
+    void get_ReturnsAFreshCopyOnEveryHit() {
+        cache.put("k", response("Jane"), patientPlan);
+
+        Map<String, Object> first = cache.get("k");
+        first.put("_metadata", Map.of("executionTime", 5));
+
+        assertEquals(response("Jane"), cache.get("k"));
+        assertNull(cache.get("missing"));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void put_SkipsResponsesWithErrors() {
+        Map<String, Object> failed = new HashMap<>(response("Jane"));
+        failed.put("errors", List.of(Map.of("message", "boom")));
+
+        cache.put("k", failed, patientPlan);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedBeyondMaxEntries() {
+        cache = cache(300, 2, 64);
+        cache.put("a", response("A"), patientPlan);
+        cache.put("b", response("B"), patientPlan);
+        cache.get("a");
+
+        cache.put("c", response("C"), patientPlan);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1.0, evictions("size"));
+    }
+
+    @Test
+    void put_EvictsBeyondMaxWeight() {
+        cache = cache(300, 100, 1);
+        String name = "x".repeat(400 * 1024);
+        cache.put("a", response(name), patientPlan);
+        cache.put("b", response(name), patientPlan);
+        long twoEntries = cache.weight();
+
+        cache.put("c", response(name), patientPlan);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+        assertEquals(twoEntries, cache.weight());
+        assertTrue(cache.weight() <= 1024 * 1024);
+    }
+
+    @Test
+    void tick_DropsExpiredEntries() {
+        cache = cache(0, 10, 64);
+        cache.put("k", response("Jane"), patientPlan);
+        assertEquals(1, cache.size());
+
+        cache.tick();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+        assertEquals(1.0, evictions("expired"));
+    }
+
+    @Test
+    void tick_KeepsEntriesThatAreNotDue() {
+        cache.put("k", response("Jane"), patientPlan);
+
+        for (int i = 0; i < 600; i++) {
+            cache.tick();
+        }
+
+        assertNotNull(cache.get("k"), "TTL of 300s outlasts 600 ticks run back to back");
+    }
+
+    @Test
+    void invalidateTypes_DropsOnlyEntriesThatReadTheType() {
+        cache.put("patient", response("Jane"), patientPlan);
+        cache.put("appointments", response("Visit"), appointmentPlan);
+
+        cache.invalidateTypes(List.of("Provider"));
+
+        assertNotNull(cache.get("patient"));
+        assertNull(cache.get("appointments"));
+        assertEquals(1.0, evictions("invalidated"));
+    }
+
+    @Test
+    void invalidateService_DropsEntriesTheSubgraphServed() {
+        cache.put("patient", response("Jane"), patientPlan);
+        cache.put("appointments", response("Visit"), appointmentPlan);
+
+        cache.invalidateService("provider-service");
+        cache.invalidateService("unknown-service");
+
+        assertNotNull(cache.get("patient"));
+        assertNull(cache.get("appointments"));
+        assertEquals(1, cache.size());
+    }
+
+    private ResponseCache cache(long ttlSeconds, int maxEntries, long maxWeightMb) {
+        caches.forEach(ResponseCache::shutdown);
+        meterRegistry.clear();
+        ResponseCache created = new ResponseCache(meterRegistry, true, ttlSeconds, maxEntries, maxWeightMb);
+        caches.add(created);
+        return created;
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get("graphql.response.cache.evictions").tag("cause", cause).functionCounter().count();
+    }
+
+    private static QueryPlan plan(String operation, Set<String> types, Set<String> services) {
+        QueryPlan plan = mock(QueryPlan.class);
+        when(plan.getNormalizedOperation()).thenReturn(operation);
+        when(plan.getSchemaVersion()).thenReturn(1L);
+        when(plan.getTypes()).thenReturn(types);
+        when(plan.getServices()).thenReturn(services);
+        return plan;
+    }
+
+    private static Map<String, Object> response(String name) {
+        return Map.of("data", Map.of("patient", Map.of("name", name)));
+    }
+}
@@ -0,0 +1,247 @@
+package com.hospital.hms.graphql.federation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.language.Field;
+import graphql.language.InlineFragment;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.VariableReference;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryPlanExecutor
+ *
+ * Subgraphs are stubbed behind the WebClient exchange function; each stub
+ * receives the decoded request body and returns a response body. Entity
+ * stubs answer only the fields each {@code _entities} alias selects.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class QueryPlanExecutorTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Function<Map<String, Object>, Map<String, Object>>> subgraphs =
+            new ConcurrentHashMap<>();
+    private final Map<String, List<Map<String, Object>>> requests = new ConcurrentHashMap<>();
+    private QueryPlanner planner;
+    private QueryPlanExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        planner = new QueryPlanner(100);
+        QueryPlannerTest.update(planner);
+        WebClient.Builder webClient = WebClient.builder().exchangeFunction(this::exchange);
+        executor = new QueryPlanExecutor(planner, webClient, new SimpleMeterRegistry(), 5, 100, true);
+
+        subgraphs.put("patient-service", request -> entities(request,
+                representation -> Map.of("name", "Name of " + representation.get("id"),
+                        "mrn", "MRN-" + representation.get("id"))));
+        subgraphs.put("billing-service", request -> entities(request,
+                representation -> Map.of("balance", 12.5)));
+    }
+
+    @Test
+    void execute_MergesEntityFieldsIntoRootResults() {
+        subgraphs.put("appointment-service", request -> data(Map.of("appointments", List.of(
+                Map.of("status", "BOOKED", "patient", reference("P1")),
+                Map.of("status", "DONE", "patient", reference("P2"))))));
+
+        Map<String, Object> response = execute("{ appointments { status patient { name balance } } }");
+
+        assertNull(response.get("errors"));
+        assertEquals(Map.of("appointments", List.of(
+                Map.of("status", "BOOKED", "patient", Map.of("name", "Name of P1", "balance", 12.5)),
+                Map.of("status", "DONE", "patient", Map.of("name", "Name of P2", "balance", 12.5)))),
+                response.get("data"));
+    }
+
+    @Test
+    void execute_ReportsAFailedSubgraphAndKeepsTheRest() {
+        subgraphs.put("appointment-service", request -> data(Map.of("appointments", List.of(
+                Map.of("status", "BOOKED", "patient", reference("P1"))))));
+        subgraphs.put("patient-service", request -> {
+            throw new IllegalStateException("connection refused");
+        });
+
+        Map<String, Object> response = execute("{ __typename appointments { status patient { name } } }");
+
+        assertEquals(Map.of("__typename", "Query", "appointments", List.of(Map.of("status", "BOOKED",
+                "patient", Map.of()))), response.get("data"));
+        Map<?, ?> error = (Map<?, ?>) ((List<?>) response.get("errors")).get(0);
+        assertEquals(Map.of("code", "SUBGRAPH_UNAVAILABLE", "serviceName", "patient-service"),
+                error.get("extensions"));
+    }
+
+    @Test
+    void execute_TagsSubgraphErrorsWithTheirService() {
+        subgraphs.put("appointment-service", request -> Map.of(
+                "data", Map.of("appointments", List.of()),
+                "errors", List.of(Map.of("message", "Access denied", "extensions", Map.of("code", "FORBIDDEN")))));
+
+        Map<String, Object> response = execute("{ appointments { status } }");
+
+        assertEquals(Map.of("appointments", List.of()), response.get("data"));
+        assertEquals(List.of(Map.of("message", "Access denied",
+                "extensions", Map.of("code", "FORBIDDEN", "serviceName", "appointment-service"))),
+                response.get("errors"));
+    }
+
+    @Test
+    void execute_LoadsEachEntityOncePerBatch() {
+        subgraphs.put("appointment-service", request -> data(Map.of("appointments", List.of(
+                Map.of("status", "BOOKED", "patient", reference("P1")),
+                Map.of("status", "BOOKED", "patient", reference("P2")),
+                Map.of("status", "DONE", "patient", reference("P1"))))));
+
+        Map<String, Object> response = execute("{ appointments { status patient { name } } }");
+
+        assertEquals(1, requests.get("patient-service").size());
+        Map<?, ?> variables = (Map<?, ?>) requests.get("patient-service").get(0).get("variables");
+        assertEquals(List.of(Map.of("__typename", "Patient", "id", "P1"), Map.of("__typename", "Patient", "id", "P2")),
+                variables.get("_hmsRepresentations0"));
+        assertEquals(List.of("Name of P1", "Name of P2", "Name of P1"), patientNames(response, "appointments"));
+    }
+
+    @Test
+    void execute_FansSelectionsOutAsEntityAliasesOfOneRequest() {
+        subgraphs.put("appointment-service", request -> data(Map.of(
+                "appointments", List.of(Map.of("patient", reference("P1"))),
+                "upcoming", List.of(Map.of("patient", reference("P1")), Map.of("patient", reference("P2"))))));
+
+        Map<String, Object> response = execute(
+                "{ appointments { patient { name } } upcoming: appointments { patient { mrn } } }");
+
+        assertEquals(1, requests.get("patient-service").size());
+        String query = (String) requests.get("patient-service").get(0).get("query");
+        assertTrue(query.contains("_hmsEntities0:_entities(representations:$_hmsRepresentations0)"), query);
+        assertTrue(query.contains("_hmsEntities1:_entities(representations:$_hmsRepresentations1)"), query);
+        assertEquals(Map.of(
+                "appointments", List.of(Map.of("patient", Map.of("name", "Name of P1"))),
+                "upcoming", List.of(Map.of("patient", Map.of("mrn", "MRN-P1")),
+                        Map.of("patient", Map.of("mrn", "MRN-P2")))),
+                response.get("data"));
+    }
+
+    Map<String, Object> execute(String query) {
+        return executor.execute(planner.plan(query, null), Map.of(), "Bearer token").block(Duration.ofSeconds(5));
+    }
+
+    static Map<String, Object> data(Map<String, Object> data) {
+        return Map.of("data", data);
+    }
+
+    static Map<String, Object> reference(String id) {
+        return Map.of(QueryPlanner.TYPENAME_ALIAS, "Patient", QueryPlanner.keyAlias("id"), id);
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Object> patientNames(Map<String, Object> response, String field) {
+        List<Object> names = new ArrayList<>();
+        for (Object appointment : (List<?>) ((Map<String, Object>) response.get("data")).get(field)) {
+            names.add(((Map<?, ?>) ((Map<?, ?>) appointment).get("patient")).get("name"));
+        }
+        return names;
+    }
+
+    /**
+     * Answer every aliased {@code _entities} field of a batch with one entity per representation,
+     * keeping only the fields that alias selects
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> entities(Map<String, Object> request,
+                                        Function<Map<String, Object>, Map<String, Object>> resolver) {
+        Map<String, Object> variables = (Map<String, Object>) request.get("variables");
+        OperationDefinition operation = Parser.parse((String) request.get("query"))
+                .getFirstDefinitionOfType(OperationDefinition.class).orElseThrow();
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (Selection<?> selection : operation.getSelectionSet().getSelections()) {
+            Field entitiesField = (Field) selection;
+            String variable = ((VariableReference) entitiesField.getArguments().get(0).getValue()).getName();
+            List<Map<String, Object>> entities = new ArrayList<>();
+            for (Object representation : (List<?>) variables.get(variable)) {
+                Map<String, Object> resolved = resolver.apply((Map<String, Object>) representation);
+                Map<String, Object> entity = new LinkedHashMap<>();
+                for (Selection<?> fragment : entitiesField.getSelectionSet().getSelections()) {
+                    for (Selection<?> field : ((InlineFragment) fragment).getSelectionSet().getSelections()) {
+                        Field selected = (Field) field;
+                        if (resolved.containsKey(selected.getName())) {
+                            entity.put(selected.getResultKey(), resolved.get(selected.getName()));
+                        }
+                    }
+                }
+                entities.add(entity);
+            }
+            data.put(entitiesField.getResultKey(), entities);
+        }
+        return data(data);
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request) {
+        Function<Map<String, Object>, Map<String, Object>> subgraph = subgraphs.get(request.url().getHost());
+        MockClientHttpRequest captured = new MockClientHttpRequest(request.method(), request.url());
+        return request.body().insert(captured, new BodyInserter.Context() {
+                    @Override
+                    public List<HttpMessageWriter<?>> messageWriters() {
+                        return ExchangeStrategies.withDefaults().messageWriters();
+                    }
+
+                    @Override
+                    public Optional<ServerHttpRequest> serverRequest() {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public Map<String, Object> hints() {
+                        return Map.of();
+                    }
+                })
+                .then(Mono.defer(captured::getBodyAsString))
+                .map(body -> {
+                    try {
+                        Map<String, Object> decoded = MAPPER.readValue(body, new TypeReference<>() {
+                        });
+                        requests.computeIfAbsent(request.url().getHost(), host -> new CopyOnWriteArrayList<>())
+                                .add(decoded);
+                        Map<String, Object> response = subgraph.apply(decoded);
+                        return ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body(MAPPER.writeValueAsString(response))
+                                .build();
+                    } catch (RuntimeException e) {
+                        return ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+}
@@ -0,0 +1,212 @@
+package com.hospital.hms.graphql.federation;
+
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.Selection;
+import graphql.language.SelectionSet;
+import graphql.parser.Parser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QueryPlanner
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class QueryPlannerTest {
+
+    static final String PATIENT_SDL = """
+            type Query { patient(id: ID!): Patient patients: [Patient] }
+            type Patient @key(fields: "id") { id: ID! name: String mrn: String }
+            """;
+    static final String APPOINTMENT_SDL = """
+            type Query { appointments: [Appointment] }
+            type Mutation { cancelAppointment(id: ID!): Boolean }
+            type Appointment @key(fields: "id") { id: ID! status: String patient: Patient provider: Provider }
+            type Patient @key(fields: "id") { id: ID! @external appointments: [Appointment] }
+            type Provider @key(fields: "id") { id: ID! @external }
+            """;
+    static final String PROVIDER_SDL = """
+            type Query { provider(id: ID!): Provider }
+            type Provider @key(fields: "id") { id: ID! name: String specialty: String }
+            """;
+    static final String BILLING_SDL = """
+            type Mutation { postPayment(id: ID!): Boolean }
+            type Patient @key(fields: "id") { id: ID! @external balance: Float }
+            """;
+
+    private QueryPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new QueryPlanner(100);
+        update(planner);
+    }
+
+    static void update(QueryPlanner planner) {
+        Map<String, Map<String, Object>> schemas = new LinkedHashMap<>();
+        schemas.put("patient-service", SubgraphSchemas.describe(PATIENT_SDL));
+        schemas.put("appointment-service", SubgraphSchemas.describe(APPOINTMENT_SDL));
+        schemas.put("provider-service", SubgraphSchemas.describe(PROVIDER_SDL));
+        schemas.put("billing-service", SubgraphSchemas.describe(BILLING_SDL));
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        for (String service : schemas.keySet()) {
+            endpoints.put(service, "http://" + service + "/graphql");
+        }
+        planner.updateSchemas(schemas, endpoints);
+    }
+
+    @Test
+    void plan_GroupsRootFieldsByOwningService() {
+        QueryPlan plan = planner.plan("{ patient(id: \"P1\") { name } appointments { status } patients { mrn } }",
+                null);
+
+        assertEquals("Query", plan.getRootType());
+        assertFalse(plan.isSerial());
+        assertEquals(2, plan.getRoots().size());
+        QueryPlan.Fetch patients = plan.getRoots().get(0);
+        assertEquals("patient-service", patients.getService());
+        assertFalse(patients.isEntities());
+        assertEquals(List.of("patient", "patients"), resultKeys(selections(patients.getDocument())));
+        assertEquals("appointment-service", plan.getRoots().get(1).getService());
+        assertEquals(2, plan.getFetchCount());
+    }
+
+    @Test
+    void plan_MovesForeignFieldsIntoEntityFetches() {
+        QueryPlan plan = planner.plan("{ appointments { status patient { name balance } provider { name } } }",
+                null);
+
+        QueryPlan.Fetch root = plan.getRoots().get(0);
+        assertEquals("appointment-service", root.getService());
+        assertEquals(Set.of("appointment-service", "patient-service", "billing-service", "provider-service"),
+                plan.getServices());
+        assertEquals(List.of("status", "patient", "provider"),
+                resultKeys(field(selections(root.getDocument()), "appointments").getSelectionSet()));
+
+        SelectionSet patient = field(field(selections(root.getDocument()), "appointments").getSelectionSet(),
+                "patient").getSelectionSet();
+        assertEquals(List.of(QueryPlanner.TYPENAME_ALIAS, QueryPlanner.keyAlias("id")), resultKeys(patient),
+                "Only the join key is asked of the service that does not own the fields");
+
+        QueryPlan.Fetch names = dependent(root, "patient-service");
+        assertTrue(names.isEntities());
+        assertEquals(List.of("appointments", "patient"), names.getPath());
+        assertEquals("Patient", names.getTypeName());
+        assertEquals(List.of("id"), names.getKeyFields());
+        assertTrue(names.getEntitySelection().contains("name"));
+        assertFalse(names.getEntitySelection().contains("balance"));
+        assertTrue(dependent(root, "billing-service").getEntitySelection().contains("balance"));
+        assertEquals(List.of("appointments", "provider"), dependent(root, "provider-service").getPath());
+        assertTrue(plan.getTypes().containsAll(Set.of("Appointment", "Patient", "Provider")));
+    }
+
+    @Test
+    void plan_ChainsEntityFetchesAcrossLevels() {
+        QueryPlan plan = planner.plan("{ patient(id: \"P1\") { name appointments { status provider { name } } } }",
+                null);
+
+        QueryPlan.Fetch root = plan.getRoots().get(0);
+        QueryPlan.Fetch appointments = dependent(root, "appointment-service");
+        assertEquals(List.of("patient"), appointments.getPath());
+        QueryPlan.Fetch providers = dependent(appointments, "provider-service");
+        assertEquals(List.of("patient", "appointments", "provider"), providers.getPath());
+        assertEquals("Provider", providers.getTypeName());
+        assertEquals(3, plan.getFetchCount());
+    }
+
+    @Test
+    void plan_ExpandsFragmentsAndSplitsTheirFields() {
+        QueryPlan plan = planner.plan("query Roster { ...Root } "
+                + "fragment Root on Query { patients { ...Details } } "
+                + "fragment Details on Patient { name balance }", "Roster");
+
+        QueryPlan.Fetch root = plan.getRoots().get(0);
+        assertEquals("patient-service", root.getService());
+        assertFalse(root.getDocument().contains("fragment"), "Subgraphs get self-contained documents");
+        assertTrue(root.getDocument().contains("on Patient"));
+        QueryPlan.Fetch balances = dependent(root, "billing-service");
+        assertEquals(List.of("patients"), balances.getPath());
+        assertTrue(balances.getEntitySelection().contains("balance"));
+    }
+
+    @Test
+    void plan_PassesOnlyTheVariablesEachFetchUses() {
+        QueryPlan plan = planner.plan("query Chart($id: ID!, $other: ID!) { patient(id: $id) { name } "
+                + "appointments { status } provider(id: $other) { name } }", "Chart");
+
+        assertEquals(Set.of("id"), plan.getRoots().get(0).getVariables());
+        assertTrue(plan.getRoots().get(0).getDocument().contains("$id"));
+        assertFalse(plan.getRoots().get(0).getDocument().contains("$other"));
+        assertEquals(Set.of(), plan.getRoots().get(1).getVariables());
+        assertEquals(Set.of("other"), plan.getRoots().get(2).getVariables());
+    }
+
+    @Test
+    void plan_MutationsRunInOrderAndTypenameIsAnsweredLocally() {
+        QueryPlan plan = planner.plan("mutation { __typename cancelAppointment(id: \"A1\") postPayment(id: \"P1\") }",
+                null);
+
+        assertEquals("Mutation", plan.getRootType());
+        assertTrue(plan.isSerial());
+        assertEquals(List.of("__typename"), plan.getLocalTypenames());
+        assertEquals(List.of("appointment-service", "billing-service"),
+                plan.getRoots().stream().map(QueryPlan.Fetch::getService).toList());
+        assertEquals(OperationDefinition.Operation.MUTATION, Parser.parse(plan.getRoots().get(0).getDocument())
+                .getDefinitionsOfType(OperationDefinition.class).get(0).getOperation());
+    }
+
+    @Test
+    void plan_RejectsFieldsNoServiceProvides() {
+        assertThrows(IllegalArgumentException.class, () -> planner.plan("{ invoices { id } }", null));
+        assertThrows(IllegalArgumentException.class, () -> planner.plan("{ patients { ssn } }", null));
+        assertThrows(IllegalArgumentException.class, () -> planner.plan("query A { patients { id } } "
+                + "query B { appointments { id } }", null));
+    }
+
+    @Test
+    void plan_SharesCachedPlansAcrossFormattingUntilSchemasChange() {
+        QueryPlan plan = planner.plan("{ patients { name } }", null);
+
+        assertSame(plan, planner.plan("{\n  patients {\n    name # display name\n  }\n}", null));
+        update(planner);
+        QueryPlan replanned = planner.plan("{ patients { name } }", null);
+        assertNotSame(plan, replanned);
+        assertTrue(replanned.getSchemaVersion() > plan.getSchemaVersion());
+    }
+
+    private static QueryPlan.Fetch dependent(QueryPlan.Fetch fetch, String service) {
+        return fetch.getDependents().stream()
+                .filter(dependent -> dependent.getService().equals(service))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No fetch on " + service));
+    }
+
+    private static SelectionSet selections(String document) {
+        return Parser.parse(document).getDefinitionsOfType(OperationDefinition.class).get(0).getSelectionSet();
+    }
+
+    private static Field field(SelectionSet selectionSet, String resultKey) {
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            if (selection instanceof Field field && field.getResultKey().equals(resultKey)) {
+                return field;
+            }
+        }
+        throw new AssertionError("No field " + resultKey);
+    }
+
+    private static List<String> resultKeys(SelectionSet selectionSet) {
+        return selectionSet.getSelections().stream()
+                .filter(Field.class::isInstance)
+                .map(selection -> ((Field) selection).getResultKey())
+                .toList();
+    }
+}
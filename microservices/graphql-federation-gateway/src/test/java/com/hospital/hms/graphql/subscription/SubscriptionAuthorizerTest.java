@@ -0,0 +1,75 @@
+package com.hospital.hms.graphql.subscription;
+
+import com.hospital.hms.graphql.config.SubscriptionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SubscriptionAuthorizer
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class SubscriptionAuthorizerTest {
+
+    private final SubscriptionAuthorizer authorizer = newAuthorizer();
+
+    private static SubscriptionAuthorizer newAuthorizer() {
+        SubscriptionProperties properties = new SubscriptionProperties();
+        properties.getAuthorization().setTopics(Map.of(
+                "VitalSigns", List.of("DOCTOR", "NURSE", "ADMIN"),
+                "Appointment", List.of("REGISTRATION_STAFF", "ADMIN")));
+        properties.getAuthorization().setAllEntitiesRoles(List.of("ADMIN"));
+        return new SubscriptionAuthorizer(token -> {
+            List<String> roles = switch (token) {
+                case "nurse-token" -> List.of("nurse");
+                case "admin-token" -> List.of("ROLE_ADMIN");
+                case "patient-token" -> List.of("PATIENT");
+                default -> throw new BadJwtException("Invalid signature");
+            };
+            return Jwt.withTokenValue(token).header("alg", "RS256").subject(token).claim("roles", roles).build();
+        }, properties);
+    }
+
+    @Test
+    void authenticate_RejectsMissingMalformedAndUnverifiedTokens() {
+        assertNull(authorizer.authenticate(null));
+        assertNull(authorizer.authenticate(""));
+        assertNull(authorizer.authenticate("nurse-token"));
+        assertNull(authorizer.authenticate("Basic bnVyc2U6c2VjcmV0"));
+        assertNull(authorizer.authenticate("Bearer "));
+        assertNull(authorizer.authenticate("Bearer forged-token"));
+
+        SubscriptionAuthorizer.Subscriber nurse = authorizer.authenticate("bearer nurse-token");
+        assertEquals("nurse-token", nurse.subject());
+        assertEquals(Set.of("NURSE"), nurse.roles());
+    }
+
+    @Test
+    void isAuthorized_RequiresARoleOfTheTopic() {
+        SubscriptionAuthorizer.Subscriber nurse = authorizer.authenticate("Bearer nurse-token");
+        SubscriptionAuthorizer.Subscriber patient = authorizer.authenticate("Bearer patient-token");
+
+        assertTrue(authorizer.isAuthorized(nurse, "VitalSigns", "P1"));
+        assertFalse(authorizer.isAuthorized(nurse, "Appointment", "A1"));
+        assertFalse(authorizer.isAuthorized(patient, "VitalSigns", "P1"));
+        assertFalse(authorizer.isAuthorized(nurse, "Patient", "P1"), "Topics without a rule are denied");
+        assertFalse(authorizer.isAuthorized(null, "VitalSigns", "P1"));
+    }
+
+    @Test
+    void isAuthorized_FollowingEveryEntityNeedsAnAllEntitiesRole() {
+        SubscriptionAuthorizer.Subscriber nurse = authorizer.authenticate("Bearer nurse-token");
+        SubscriptionAuthorizer.Subscriber admin = authorizer.authenticate("Bearer admin-token");
+
+        assertFalse(authorizer.isAuthorized(nurse, "VitalSigns", SubscriptionBroker.ANY_ENTITY));
+        assertTrue(authorizer.isAuthorized(admin, "VitalSigns", SubscriptionBroker.ANY_ENTITY));
+    }
+}
@@ -0,0 +1,257 @@
+package com.hospital.hms.graphql.subscription;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hospital.hms.graphql.config.SubscriptionProperties;
+import com.hospital.hms.graphql.federation.QueryPlanner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests and fan-out load harness for SubscriptionBroker
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class SubscriptionBrokerLoadTest {
+
+    private static final String VITALS_SUBSCRIPTION =
+            "subscription Vitals($patientId: ID!) { vitalsUpdated(patientId: $patientId) { id heartRate } }";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SubscriptionBroker broker;
+
+    private SubscriptionBroker newBroker(int queueCapacity, int deliveryThreads) {
+        SubscriptionProperties properties = new SubscriptionProperties();
+        properties.setQueueCapacity(queueCapacity);
+        properties.setDeliveryThreads(deliveryThreads);
+        broker = new SubscriptionBroker(new QueryPlanner(100), new SimpleMeterRegistry(), properties);
+        return broker;
+    }
+
+    @AfterEach
+    void shutdown() {
+        if (broker != null) {
+            broker.shutdown();
+        }
+    }
+
+    @Test
+    void publish_ProjectsEventToTheSubscribedSelection() throws Exception {
+        newBroker(16, 1);
+        LinkedBlockingQueue<String> received = new LinkedBlockingQueue<>();
+        broker.connect("c1", received::add);
+        broker.subscribe("c1", "1", "subscription { v: vitalsUpdated(patientId: \"P1\") { hr: heartRate } }", null);
+
+        int queued = broker.publish("vitalsUpdated", "P1", Map.of("id", "P1", "heartRate", 80, "ssn", "123-45-6789"));
+
+        assertEquals(1, queued);
+        assertEquals("{\"id\":\"1\",\"type\":\"next\",\"payload\":{\"data\":{\"v\":{\"hr\":80}}}}",
+                received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void publish_ReachesEntityAndTopicWideSubscribersOnly() {
+        newBroker(16, 1);
+        broker.connect("c1", message -> { });
+        broker.subscribe("c1", "p1", VITALS_SUBSCRIPTION, Map.of("patientId", "P1"));
+        broker.subscribe("c1", "p2", VITALS_SUBSCRIPTION, Map.of("patientId", "P2"));
+        broker.subscribe("c1", "all", "subscription { vitalsUpdated { id } }", null);
+
+        assertEquals(2, broker.publish("vitalsUpdated", "P1", Map.of("id", "P1")));
+        assertEquals(1, broker.publish("vitalsUpdated", "P3", Map.of("id", "P3")));
+        assertEquals(0, broker.publish("appointmentUpdated", "P1", Map.of("id", "P1")));
+    }
+
+    @Test
+    void subscribe_RejectsReusedOperationIdAndMultipleRootFields() {
+        newBroker(16, 1);
+        broker.connect("c1", message -> { });
+        broker.subscribe("c1", "1", VITALS_SUBSCRIPTION, Map.of("patientId", "P1"));
+
+        assertThrows(IllegalStateException.class,
+                () -> broker.subscribe("c1", "1", VITALS_SUBSCRIPTION, Map.of("patientId", "P2")));
+        assertThrows(IllegalArgumentException.class,
+                () -> broker.subscribe("c1", "2", "subscription { a: vitalsUpdated { id } b: alerts { id } }", null));
+        assertThrows(IllegalStateException.class,
+                () -> broker.subscribe("unknown", "1", VITALS_SUBSCRIPTION, Map.of("patientId", "P1")));
+    }
+
+    @Test
+    void disconnect_RemovesEverySubscriptionOfTheConnection() {
+        newBroker(16, 1);
+        broker.connect("c1", message -> { });
+        broker.connect("c2", message -> { });
+        for (int i = 0; i < 3; i++) {
+            broker.subscribe("c1", "op" + i, VITALS_SUBSCRIPTION, Map.of("patientId", "P1"));
+        }
+        broker.subscribe("c2", "op0", VITALS_SUBSCRIPTION, Map.of("patientId", "P1"));
+        assertTrue(broker.unsubscribe("c1", "op0"));
+
+        broker.disconnect("c1");
+
+        assertEquals(1, broker.getConnectionCount());
+        assertEquals(1, broker.getSubscriptionCount());
+        assertEquals(1, broker.publish("vitalsUpdated", "P1", Map.of("id", "P1")));
+    }
+
+    @Test
+    void delivery_FailingSocketDisconnectsTheConnection() throws Exception {
+        newBroker(16, 1);
+        broker.connect("c1", message -> {
+            throw new IOException("Broken pipe");
+        });
+        broker.subscribe("c1", "1", VITALS_SUBSCRIPTION, Map.of("patientId", "P1"));
+
+        broker.publish("vitalsUpdated", "P1", Map.of("id", "P1"));
+
+        assertTrue(await(() -> broker.getConnectionCount() == 0, 5_000));
+        assertEquals(0, broker.getSubscriptionCount());
+    }
+
+    @Test
+    void connection_FullQueueConflatesPerEntityAndDropsOldest() throws Exception {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        List<String> sent = new ArrayList<>();
+        SubscriptionConnection connection = new SubscriptionConnection("c1", sent::add, 4, tasks::add, failed -> { });
+
+        for (int entity = 1; entity <= 6; entity++) {
+            connection.enqueue("s", "E" + entity, "E" + entity + "v1");
+        }
+        connection.enqueue("s", "E4", "E4v2");
+        assertEquals(4, connection.pendingCount());
+
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+
+        assertEquals(List.of("E3v1", "E4v2", "E5v1", "E6v1"), sent);
+        assertEquals(2, connection.getDropped());
+        assertEquals(1, connection.getConflated());
+        assertEquals(4, connection.getDelivered());
+    }
+
+    @Test
+    void connection_SlowConsumerCatchesUpToTheLatestValuePerEntity() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        List<String> sent = new ArrayList<>();
+        SubscriptionConnection connection = new SubscriptionConnection("c1", sent::add, 64, tasks::add, failed -> { });
+
+        for (int round = 1; round <= 20; round++) {
+            for (int entity = 1; entity <= 10; entity++) {
+                connection.enqueue("s", "E" + entity, "E" + entity + "v" + round);
+            }
+        }
+        assertEquals(10, connection.pendingCount());
+
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+
+        List<String> latest = new ArrayList<>();
+        for (int entity = 1; entity <= 10; entity++) {
+            latest.add("E" + entity + "v20");
+        }
+        assertEquals(latest, sent);
+        assertEquals(190, connection.getConflated());
+        assertEquals(0, connection.getDropped());
+        assertEquals(10, connection.getDelivered());
+    }
+
+    /**
+     * 20,000 subscriptions over 2,000 connections, a tenth of them slow
+     * readers; every subscriber must end up with the latest value of the
+     * entity it follows, and slow reader queues must stay bounded. Run with
+     * {@code -Dhms.large-tests=true}
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "hms.large-tests", matches = "true")
+    void loadTest_SlowConsumersAreConflatedAndEveryoneSeesTheLatestValue() throws Exception {
+        int connections = 2_000;
+        int subscriptionsPerConnection = 10;
+        int patients = 500;
+        int rounds = 20;
+        int queueCapacity = 64;
+        newBroker(queueCapacity, 32);
+
+        List<SubscriptionConnection> slow = new ArrayList<>();
+        Map<String, Map<String, String>> lastMessages = new ConcurrentHashMap<>();
+        for (int c = 0; c < connections; c++) {
+            String connectionId = "conn-" + c;
+            Map<String, String> last = new ConcurrentHashMap<>();
+            lastMessages.put(connectionId, last);
+            boolean slowReader = c % 10 == 0;
+            SubscriptionConnection connection = broker.connect(connectionId, message -> {
+                if (slowReader) {
+                    sleep(1);
+                }
+                // One drainer per connection, so messages arrive in queue order
+                last.put(message.substring(7, message.indexOf('"', 7)), message);
+            });
+            if (slowReader) {
+                slow.add(connection);
+            }
+            for (int s = 0; s < subscriptionsPerConnection; s++) {
+                String patientId = "P" + ((c * subscriptionsPerConnection + s) % patients);
+                broker.subscribe(connectionId, "op" + s, VITALS_SUBSCRIPTION, Map.of("patientId", patientId));
+            }
+        }
+        assertEquals(connections * subscriptionsPerConnection, broker.getSubscriptionCount());
+
+        long queued = 0;
+        for (int round = 1; round <= rounds; round++) {
+            for (int p = 0; p < patients; p++) {
+                queued += broker.publish("vitalsUpdated", "P" + p, Map.of("id", "P" + p, "heartRate", round));
+            }
+            for (SubscriptionConnection connection : slow) {
+                assertTrue(connection.pendingCount() <= queueCapacity, "Slow reader queue must stay bounded");
+            }
+        }
+        long finalQueued = queued;
+        assertTrue(await(() -> broker.getDelivered() + broker.getConflated() + broker.getDropped() == finalQueued,
+                60_000), "Every queued message must be delivered, conflated or dropped");
+
+        assertEquals(0, broker.getDropped());
+        for (Map.Entry<String, Map<String, String>> connection : lastMessages.entrySet()) {
+            assertEquals(subscriptionsPerConnection, connection.getValue().size(), connection.getKey());
+            for (String message : connection.getValue().values()) {
+                Map<?, ?> payload = (Map<?, ?>) objectMapper.readValue(message, Map.class).get("payload");
+                Map<?, ?> vitals = (Map<?, ?>) ((Map<?, ?>) payload.get("data")).get("vitalsUpdated");
+                assertEquals(rounds, vitals.get("heartRate"), connection.getKey() + " missed the latest value");
+            }
+        }
+    }
+
+    private static boolean await(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.hospital.hms.graphql.subscription;
+
+import com.hospital.hms.graphql.config.SubscriptionProperties;
+import com.hospital.hms.graphql.federation.QueryPlanner;
+import com.hospital.hms.graphql.service.GraphQLFederationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SubscriptionWebSocketHandler
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class SubscriptionWebSocketHandlerTest {
+
+    private static final CloseStatus UNAUTHORIZED = new CloseStatus(4401, "Unauthorized");
+    private static final String SUBSCRIBE =
+            "{\"id\":\"1\",\"type\":\"subscribe\",\"payload\":{\"query\":"
+                    + "\"subscription { vitalsUpdated(patientId: \\\"P1\\\") { heartRate } }\"}}";
+
+    private GraphQLFederationService federationService;
+    private SubscriptionBroker broker;
+    private SubscriptionWebSocketHandler handler;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() {
+        SubscriptionProperties properties = new SubscriptionProperties();
+        properties.setDeliveryThreads(1);
+        broker = new SubscriptionBroker(new QueryPlanner(100), new SimpleMeterRegistry(), properties);
+        SubscriptionAuthorizer authorizer = new SubscriptionAuthorizer(token -> {
+            if (!"valid-token".equals(token)) {
+                throw new BadJwtException("Signed JWT rejected: Invalid signature");
+            }
+            return Jwt.withTokenValue(token)
+                    .header("alg", "RS256")
+                    .subject("dr.grey")
+                    .claim("roles", List.of("DOCTOR"))
+                    .build();
+        }, properties);
+        federationService = mock(GraphQLFederationService.class);
+        handler = new SubscriptionWebSocketHandler(federationService, broker, authorizer, properties);
+
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        when(session.getHandshakeHeaders()).thenReturn(new HttpHeaders());
+        handler.afterConnectionEstablished(session);
+    }
+
+    @AfterEach
+    void shutdown() {
+        broker.shutdown();
+    }
+
+    @Test
+    void subscribe_WithoutConnectionInit_ClosesUnauthorizedAndNeverSubscribes() throws Exception {
+        handler.handleTextMessage(session, new TextMessage(SUBSCRIBE));
+
+        verify(session).close(UNAUTHORIZED);
+        verify(federationService, never()).createSubscription(anyString(), anyMap(), anyMap());
+        assertEquals(0, broker.getSubscriptionCount());
+    }
+
+    @Test
+    void connectionInit_WithoutToken_ClosesUnauthorized() throws Exception {
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"connection_init\",\"payload\":{}}"));
+        handler.handleTextMessage(session, new TextMessage(SUBSCRIBE));
+
+        verify(session, times(2)).close(UNAUTHORIZED);
+        verify(federationService, never()).createSubscription(anyString(), anyMap(), anyMap());
+    }
+
+    @Test
+    void connectionInit_WithForgedToken_ClosesUnauthorized() throws Exception {
+        handler.handleTextMessage(session, new TextMessage(
+                "{\"type\":\"connection_init\",\"payload\":{\"Authorization\":\"Bearer forged-token\"}}"));
+
+        verify(session).close(UNAUTHORIZED);
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    void connectionInit_WithVerifiedToken_AcknowledgesAndPassesTheCallerOn() throws Exception {
+        handler.handleTextMessage(session, new TextMessage(
+                "{\"type\":\"connection_init\",\"payload\":{\"Authorization\":\"Bearer valid-token\"}}"));
+        verify(session, timeout(1_000)).sendMessage(new TextMessage("{\"type\":\"connection_ack\"}"));
+
+        handler.handleTextMessage(session, new TextMessage(SUBSCRIBE));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> context = ArgumentCaptor.forClass(Map.class);
+        verify(federationService).createSubscription(anyString(), anyMap(), context.capture());
+        SubscriptionAuthorizer.Subscriber subscriber =
+                (SubscriptionAuthorizer.Subscriber) context.getValue().get(SubscriptionAuthorizer.CONTEXT_KEY);
+        assertEquals("dr.grey", subscriber.subject());
+        assertEquals("Bearer valid-token", context.getValue().get("authorization"));
+        verify(session, never()).close(any());
+    }
+}
@@ -530,4 +530,18 @@ public class PatientController {
         
         return ResponseEntity.ok(response);
     }
+
+    @Operation(summary = "Get primary insurance coverage",
+               description = "Returns the primary insurance in force on a date for a batch of patients")
+    @PostMapping("/insurance/primary")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BILLING_MANAGER')")
+    public ResponseEntity<List<InsuranceCoverageDto>> getPrimaryCoverage(
+            @Parameter(description = "Date the coverage must be in force", required = true)
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestBody List<UUID> patientIds) {
+        
+        List<InsuranceCoverageDto> response = patientService.getPrimaryCoverage(patientIds, asOf);
+        
+        return ResponseEntity.ok(response);
+    }
 }
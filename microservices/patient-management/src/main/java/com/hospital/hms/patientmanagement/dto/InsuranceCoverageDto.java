@@ -0,0 +1,157 @@
+package com.hospital.hms.patientmanagement.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Primary insurance coverage of a patient, as needed to build an
+ * eligibility inquiry
+ * 
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Schema(description = "Primary insurance coverage of a patient")
+public class InsuranceCoverageDto {
+
+    @Schema(description = "Patient unique identifier")
+    private UUID patientId;
+
+    @Schema(description = "Patient family name")
+    private String familyName;
+
+    @Schema(description = "Patient given name")
+    private String givenName;
+
+    @Schema(description = "Patient date of birth")
+    private LocalDate dateOfBirth;
+
+    @Schema(description = "Payer identifier")
+    private String payerId;
+
+    @Schema(description = "Payer name", example = "Blue Cross Blue Shield")
+    private String payerName;
+
+    @Schema(description = "Subscriber member ID")
+    private String memberId;
+
+    @Schema(description = "Policy number")
+    private String policyNumber;
+
+    @Schema(description = "Group number")
+    private String groupNumber;
+
+    @Schema(description = "Coverage effective date")
+    private LocalDate effectiveDate;
+
+    @Schema(description = "Coverage expiration date")
+    private LocalDate expirationDate;
+
+    public InsuranceCoverageDto() {
+    }
+
+    public InsuranceCoverageDto(UUID patientId, String familyName, String givenName, LocalDate dateOfBirth,
+                                String payerId, String payerName, String memberId, String policyNumber,
+                                String groupNumber, LocalDate effectiveDate, LocalDate expirationDate) {
+        this.patientId = patientId;
+        this.familyName = familyName;
+        this.givenName = givenName;
+        this.dateOfBirth = dateOfBirth;
+        this.payerId = payerId;
+        this.payerName = payerName;
+        this.memberId = memberId;
+        this.policyNumber = policyNumber;
+        this.groupNumber = groupNumber;
+        this.effectiveDate = effectiveDate;
+        this.expirationDate = expirationDate;
+    }
+
+    public UUID getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(UUID patientId) {
+        this.patientId = patientId;
+    }
+
+    public String getFamilyName() {
+        return familyName;
+    }
+
+    public void setFamilyName(String familyName) {
+        this.familyName = familyName;
+    }
+
+    public String getGivenName() {
+        return givenName;
+    }
+
+    public void setGivenName(String givenName) {
+        this.givenName = givenName;
+    }
+
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public void setDateOfBirth(LocalDate dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+    }
+
+    public String getPayerId() {
+        return payerId;
+    }
+
+    public void setPayerId(String payerId) {
+        this.payerId = payerId;
+    }
+
+    public String getPayerName() {
+        return payerName;
+    }
+
+    public void setPayerName(String payerName) {
+        this.payerName = payerName;
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    public void setMemberId(String memberId) {
+        this.memberId = memberId;
+    }
+
+    public String getPolicyNumber() {
+        return policyNumber;
+    }
+
+    public void setPolicyNumber(String policyNumber) {
+        this.policyNumber = policyNumber;
+    }
+
+    public String getGroupNumber() {
+        return groupNumber;
+    }
+
+    public void setGroupNumber(String groupNumber) {
+        this.groupNumber = groupNumber;
+    }
+
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    public void setEffectiveDate(LocalDate effectiveDate) {
+        this.effectiveDate = effectiveDate;
+    }
+
+    public LocalDate getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(LocalDate expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+}
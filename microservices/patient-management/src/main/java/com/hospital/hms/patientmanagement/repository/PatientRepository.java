@@ -1,5 +1,6 @@
 package com.hospital.hms.patientmanagement.repository;
 
+import com.hospital.hms.patientmanagement.dto.InsuranceCoverageDto;
 import com.hospital.hms.patientmanagement.entity.Gender;
 import com.hospital.hms.patientmanagement.entity.Patient;
 import org.springframework.data.domain.Page;
@@ -244,4 +245,16 @@ public interface PatientRepository extends JpaRepository<Patient, UUID>, JpaSpec
            "COUNT(CASE WHEN FUNCTION('YEAR', CURRENT_DATE) - FUNCTION('YEAR', p.dateOfBirth) < 18 THEN 1 END) as minorPatients " +
            "FROM Patient p")
     Object[] getPatientStatistics(@Param("startOfMonth") LocalDate startOfMonth);
+
+    /**
+     * Primary insurance in force on a date for a set of patients
+     */
+    @Query("SELECT new com.hospital.hms.patientmanagement.dto.InsuranceCoverageDto(" +
+           "i.patient.id, i.patient.familyName, i.patient.givenName, i.patient.dateOfBirth, " +
+           "i.payerId, i.payerName, i.memberId, i.policyNumber, i.groupNumber, i.effectiveDate, i.expirationDate) " +
+           "FROM PatientInsurance i WHERE i.patient.id IN :patientIds AND i.primary = true AND i.active = true " +
+           "AND (i.effectiveDate IS NULL OR i.effectiveDate <= :asOf) " +
+           "AND (i.expirationDate IS NULL OR i.expirationDate >= :asOf)")
+    List<InsuranceCoverageDto> findPrimaryCoverage(@Param("patientIds") List<UUID> patientIds,
+                                                   @Param("asOf") LocalDate asOf);
 }
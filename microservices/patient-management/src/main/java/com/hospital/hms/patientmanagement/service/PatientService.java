@@ -324,4 +324,13 @@ public interface PatientService {
      * @return Number of updated patients
      */
     int bulkUpdatePatients(List<UUID> patientIds, PatientUpdateRequestDto updateRequest);
+
+    /**
+     * Get the primary insurance in force on a date for several patients
+     * 
+     * @param patientIds Patient IDs
+     * @param asOf Date the coverage must be in force
+     * @return Coverage of the patients that have one
+     */
+    List<InsuranceCoverageDto> getPrimaryCoverage(List<UUID> patientIds, LocalDate asOf);
 }
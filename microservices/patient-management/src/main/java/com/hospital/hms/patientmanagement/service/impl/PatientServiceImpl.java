@@ -654,6 +654,15 @@ public class PatientServiceImpl implements PatientService {
         return updatedCount;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<InsuranceCoverageDto> getPrimaryCoverage(List<UUID> patientIds, LocalDate asOf) {
+        if (patientIds.isEmpty()) {
+            return List.of();
+        }
+        return patientRepository.findPrimaryCoverage(patientIds, asOf);
+    }
+
     // Private helper methods
     
     private void validateCreateRequest(PatientCreateRequestDto request) {
@@ -0,0 +1,34 @@
+package com.hospital.hms.payer.claimstatus;
+
+import com.hospital.hms.payer.edi.ClaimStatus277Handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the current status of each claim in a 277
+ *
+ * A claim loop may carry several STC segments; the first one is the
+ * current status and the rest are history, so only the first is kept.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class ClaimStatusCollector implements ClaimStatus277Handler {
+
+    private final Map<String, ClaimStatus> byClaimNumber = new HashMap<>();
+
+    /**
+     * Current status by claim number (TRN trace number)
+     */
+    public Map<String, ClaimStatus> statuses() {
+        return byClaimNumber;
+    }
+
+    @Override
+    public void onClaimStatus(ClaimStatus status) {
+        if (status.traceNumber() != null) {
+            byClaimNumber.putIfAbsent(status.traceNumber(), status);
+        }
+    }
+}
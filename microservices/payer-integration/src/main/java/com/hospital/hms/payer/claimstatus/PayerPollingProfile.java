@@ -0,0 +1,87 @@
+package com.hospital.hms.payer.claimstatus;
+
+import com.hospital.hms.payer.config.ClaimStatusPollingProperties;
+
+import java.time.Duration;
+
+/**
+ * What polling has learned about one payer
+ *
+ * Batch size follows the payer's response time: it grows by half after an
+ * answer within the target latency and halves after a slow answer or a
+ * failure. The share of polled claims whose status changed is tracked as an
+ * exponentially weighted average. Payers that rarely change a status between
+ * polls are asked less often; payers that change many are asked more often.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class PayerPollingProfile {
+
+    /**
+     * Change rate at which a claim's interval is the plain exponential backoff
+     */
+    static final double REFERENCE_CHANGE_RATE = 0.2;
+
+    private static final double SMOOTHING = 0.3;
+    private static final int MAX_BACKOFF_STEPS = 10;
+
+    private final ClaimStatusPollingProperties properties;
+    private int batchSize;
+    private double changeRate = REFERENCE_CHANGE_RATE;
+    private long latencyMillis;
+
+    public PayerPollingProfile(ClaimStatusPollingProperties properties) {
+        this.properties = properties;
+        this.batchSize = properties.getInitialBatchSize();
+    }
+
+    public synchronized int batchSize() {
+        return batchSize;
+    }
+
+    public synchronized double changeRate() {
+        return changeRate;
+    }
+
+    public synchronized long latencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * Record an answered inquiry
+     */
+    public synchronized void recordAnswer(int claims, int changed, long elapsedMillis) {
+        latencyMillis = elapsedMillis;
+        if (claims > 0) {
+            changeRate = SMOOTHING * changed / claims + (1 - SMOOTHING) * changeRate;
+        }
+        if (elapsedMillis <= properties.getTargetLatency().toMillis()) {
+            if (claims >= batchSize) {
+                batchSize = Math.min(properties.getMaxBatchSize(), batchSize + Math.max(1, batchSize / 2));
+            }
+        } else {
+            shrink();
+        }
+    }
+
+    public synchronized void recordFailure() {
+        shrink();
+    }
+
+    /**
+     * Time until a claim is polled again after the given number of polls
+     * in a row without a status change
+     */
+    public synchronized Duration intervalFor(int unchangedPolls) {
+        long base = properties.getMinInterval().toMillis() << Math.min(Math.max(unchangedPolls, 0), MAX_BACKOFF_STEPS);
+        double factor = Math.max(0.5, Math.min(4.0, REFERENCE_CHANGE_RATE / Math.max(changeRate, 0.01)));
+        long interval = (long) (base * factor);
+        return Duration.ofMillis(Math.max(properties.getMinInterval().toMillis(),
+                Math.min(properties.getMaxInterval().toMillis(), interval)));
+    }
+
+    private void shrink() {
+        batchSize = Math.max(properties.getMinBatchSize(), batchSize / 2);
+    }
+}
@@ -0,0 +1,32 @@
+package com.hospital.hms.payer.clearinghouse;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Transport for outbound X12 interchanges
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface ClearinghouseGateway {
+
+    /**
+     * Upload a spooled interchange file. Transport failures are thrown;
+     * envelope rejections are reported through the receipt.
+     */
+    ClearinghouseReceipt submit(String clearinghouseId, Path interchange, long controlNumber);
+
+    /**
+     * The receipt of an interchange uploaded earlier, or empty when the
+     * clearinghouse never received it. Transport failures are thrown.
+     */
+    Optional<ClearinghouseReceipt> lookup(String clearinghouseId, long controlNumber);
+
+    /**
+     * Send a batch inquiry interchange (270 or 276) and spool the interchange
+     * answering it (271 or 277) to {@code response}. Failures, including a
+     * missing answer, are thrown.
+     */
+    void inquire(String clearinghouseId, Path request, long controlNumber, Path response);
+}
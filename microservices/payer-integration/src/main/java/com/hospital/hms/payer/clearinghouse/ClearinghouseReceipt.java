@@ -0,0 +1,27 @@
+package com.hospital.hms.payer.clearinghouse;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Clearinghouse acknowledgement of one submitted interchange
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Value
+@Builder
+@Jacksonized
+public class ClearinghouseReceipt {
+
+    /**
+     * False when the clearinghouse rejected the envelope (TA1 rejection);
+     * the claims inside were not forwarded to the payer
+     */
+    boolean accepted;
+
+    String traceId;
+
+    String message;
+}
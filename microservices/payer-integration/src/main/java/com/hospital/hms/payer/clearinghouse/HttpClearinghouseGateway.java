@@ -0,0 +1,101 @@
+package com.hospital.hms.payer.clearinghouse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Uploads interchanges to the configured clearinghouse over HTTPS
+ *
+ * The spooled file is streamed as the request body rather than read into
+ * memory, so interchange size is bounded by the batch limit only. Answers
+ * to batch inquiries are streamed straight back to disk the same way.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "hms.payer-integration.clearinghouses", name = "stub", havingValue = "false",
+        matchIfMissing = true)
+public class HttpClearinghouseGateway implements ClearinghouseGateway {
+
+    private static final MediaType X12 = MediaType.parseMediaType("application/edi-x12");
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public HttpClearinghouseGateway(WebClient.Builder webClientBuilder,
+                                    @Value("${hms.payer-integration.clearinghouses.primary.endpoint}") String endpoint,
+                                    @Value("${hms.payer-integration.clearinghouses.primary.credentials}") String credentials,
+                                    @Value("${hms.payer-integration.clearinghouses.timeout-seconds:120}") long timeoutSeconds,
+                                    @Value("${hms.payer-integration.claim-batching.enabled:true}") boolean claimBatching) {
+        // Claims marked submitted must have left the building; refuse to start rather than batch into nowhere
+        if (claimBatching && !StringUtils.hasText(endpoint)) {
+            throw new IllegalStateException("Claim batching is enabled but no clearinghouse endpoint is configured: "
+                    + "set hms.payer-integration.clearinghouses.primary.endpoint, or disable claim batching");
+        }
+        this.webClient = webClientBuilder
+                .baseUrl(endpoint)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, credentials)
+                .build();
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+    }
+
+    @Override
+    public ClearinghouseReceipt submit(String clearinghouseId, Path interchange, long controlNumber) {
+        log.debug("Uploading interchange {} to clearinghouse {}", controlNumber, clearinghouseId);
+        return webClient.post()
+                .uri("/interchanges")
+                .header("X-Clearinghouse-Id", clearinghouseId)
+                .header("X-Interchange-Control-Number", String.valueOf(controlNumber))
+                .contentType(X12)
+                .body(BodyInserters.fromResource(new FileSystemResource(interchange)))
+                .retrieve()
+                .bodyToMono(ClearinghouseReceipt.class)
+                .block(timeout);
+    }
+
+    @Override
+    public Optional<ClearinghouseReceipt> lookup(String clearinghouseId, long controlNumber) {
+        log.debug("Looking up interchange {} at clearinghouse {}", controlNumber, clearinghouseId);
+        return webClient.get()
+                .uri("/interchanges/{controlNumber}", controlNumber)
+                .header("X-Clearinghouse-Id", clearinghouseId)
+                .retrieve()
+                .bodyToMono(ClearinghouseReceipt.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .blockOptional(timeout);
+    }
+
+    @Override
+    public void inquire(String clearinghouseId, Path request, long controlNumber, Path response) {
+        log.debug("Sending inquiry {} to clearinghouse {}", controlNumber, clearinghouseId);
+        Flux<DataBuffer> answer = webClient.post()
+                .uri("/inquiries")
+                .header("X-Clearinghouse-Id", clearinghouseId)
+                .header("X-Interchange-Control-Number", String.valueOf(controlNumber))
+                .contentType(X12)
+                .accept(X12)
+                .body(BodyInserters.fromResource(new FileSystemResource(request)))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+        DataBufferUtils.write(answer, response).block(timeout);
+    }
+}
@@ -0,0 +1,264 @@
+package com.hospital.hms.payer.clearinghouse;
+
+import com.hospital.hms.payer.edi.InterchangeEnvelope;
+import com.hospital.hms.payer.edi.X12Segment;
+import com.hospital.hms.payer.edi.X12Tokenizer;
+import com.hospital.hms.payer.edi.X12Writer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for the clearinghouse
+ *
+ * Checks the envelope the way a clearinghouse front end would before
+ * issuing a TA1: control numbers match between ISA and IEA, every ST has a
+ * matching SE with the right segment count, and the GE/IEA counts agree.
+ * Eligibility and claim status inquiries are answered locally. Nothing is
+ * forwarded anywhere, so it is only active when explicitly enabled with
+ * {@code hms.payer-integration.clearinghouses.stub=true}.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "hms.payer-integration.clearinghouses", name = "stub", havingValue = "true")
+public class StubClearinghouseGateway implements ClearinghouseGateway {
+
+    private static final BigDecimal STUB_COPAY = new BigDecimal("25");
+
+    private final Map<String, ClearinghouseReceipt> receipts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void warnActive() {
+        log.warn("Stub clearinghouse is active: claims are not forwarded and eligibility answers are fabricated");
+    }
+
+    @Override
+    public ClearinghouseReceipt submit(String clearinghouseId, Path interchange, long controlNumber) {
+        String error;
+        try (BufferedReader reader = Files.newBufferedReader(interchange, StandardCharsets.US_ASCII)) {
+            error = validate(reader, controlNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ClearinghouseReceipt receipt;
+        if (error != null) {
+            log.warn("Stub clearinghouse {} rejected interchange {}: {}", clearinghouseId, controlNumber, error);
+            receipt = ClearinghouseReceipt.builder().accepted(false).message(error).build();
+        } else {
+            log.info("Stub clearinghouse {} accepted interchange {}", clearinghouseId, controlNumber);
+            receipt = ClearinghouseReceipt.builder()
+                    .accepted(true)
+                    .traceId("STUB-" + controlNumber)
+                    .message("Accepted")
+                    .build();
+        }
+        receipts.put(clearinghouseId + ':' + controlNumber, receipt);
+        return receipt;
+    }
+
+    @Override
+    public Optional<ClearinghouseReceipt> lookup(String clearinghouseId, long controlNumber) {
+        return Optional.ofNullable(receipts.get(clearinghouseId + ':' + controlNumber));
+    }
+
+    /**
+     * Answers every subscriber of a 270 with active health plan coverage, or
+     * an AAA rejection when the inquiry carries no member ID. Answers every
+     * claim of a 276 with a status picked from its claim number, so repeated
+     * polls of a claim see the same answer.
+     */
+    @Override
+    public void inquire(String clearinghouseId, Path request, long controlNumber, Path response) {
+        try (X12Tokenizer tokenizer = X12Tokenizer.of(FileChannel.open(request, StandardOpenOption.READ));
+             X12Writer x12 = new X12Writer(Files.newBufferedWriter(response, StandardCharsets.US_ASCII))) {
+            answer(tokenizer, x12, controlNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Stub clearinghouse {} answered inquiry {}", clearinghouseId, controlNumber);
+    }
+
+    private static void answer(X12Tokenizer tokenizer, X12Writer x12, long controlNumber) {
+        int transactionSets = 0;
+        boolean claimStatus = false;
+        String implementationGuide = null;
+        String trace = null;
+        String memberId = null;
+        String lastName = null;
+        String firstName = null;
+        LocalDate serviceDate = null;
+        InterchangeEnvelope envelope = null;
+
+        while (tokenizer.next()) {
+            X12Segment segment = tokenizer.segment();
+            switch (segment.id()) {
+                case "ISA" -> envelope = InterchangeEnvelope.builder()
+                        .senderId(segment.text(8).trim())
+                        .receiverId(segment.text(6).trim())
+                        .controlNumber(controlNumber)
+                        .usageIndicator(segment.text(15).charAt(0))
+                        .createdAt(LocalDateTime.now())
+                        .build();
+                case "GS" -> {
+                    claimStatus = segment.elementEquals(1, "HR");
+                    implementationGuide = segment.text(8);
+                    x12.openInterchange(envelope, claimStatus ? "HN" : "HB", implementationGuide);
+                }
+                case "ST" -> {
+                    x12.resetSegmentCount();
+                    x12.segment("ST").element(claimStatus ? "277" : "271").element(segment.text(2))
+                            .element(implementationGuide).end();
+                    x12.segment("BHT").element(claimStatus ? "0010" : "0022").element(claimStatus ? "08" : "11")
+                            .element(segment.text(2)).date(LocalDate.now()).time(LocalTime.now())
+                            .element(claimStatus ? "DG" : null).end();
+                }
+                case "HL" -> x12.segment("HL").element(segment.text(1)).element(segment.text(2))
+                        .element(segment.text(3)).element(segment.text(4)).end();
+                case "NM1" -> {
+                    if (segment.elementEquals(1, "IL") && !claimStatus) {
+                        lastName = segment.text(3);
+                        firstName = segment.text(4);
+                        memberId = segment.text(9);
+                    } else {
+                        x12.segment("NM1").element(segment.text(1)).element(segment.text(2))
+                                .element(segment.text(3)).element(segment.text(4)).skip(3)
+                                .element(segment.text(8)).element(segment.text(9)).end();
+                    }
+                }
+                case "TRN" -> {
+                    trace = segment.text(2);
+                    if (claimStatus) {
+                        x12.segment("TRN").element("2").element(trace).end();
+                    }
+                }
+                case "AMT" -> {
+                    if (claimStatus) {
+                        writeClaimStatus(x12, trace, segment.decimal(2));
+                    }
+                }
+                case "DTP" -> serviceDate = segment.date(3);
+                case "EQ" -> {
+                    x12.segment("TRN").element("2").element(trace).element("9STUBCH").end();
+                    x12.segment("NM1").element("IL").element("1").element(lastName).element(firstName)
+                            .skip(3).element("MI").element(memberId).end();
+                    if (memberId == null) {
+                        x12.segment("AAA").element("N").skip(1).element("72").element("C").end();
+                    } else {
+                        LocalDate day = serviceDate != null ? serviceDate : LocalDate.now();
+                        x12.segment("DTP").element("346").element("D8")
+                                .date(day.withDayOfYear(1)).end();
+                        x12.segment("EB").element("1").element("IND").element("30").element("HM")
+                                .element("STUB PLAN").end();
+                        x12.segment("EB").element("B").element("IND").element("98").skip(3)
+                                .amount(STUB_COPAY).skip(4).element("Y").end();
+                    }
+                    trace = null;
+                    memberId = null;
+                    lastName = null;
+                    firstName = null;
+                    serviceDate = null;
+                }
+                case "SE" -> {
+                    x12.segment("SE").element(x12.segmentCount()).element(segment.text(2)).end();
+                    transactionSets++;
+                }
+                default -> {
+                }
+            }
+        }
+        if (envelope == null) {
+            throw new IllegalArgumentException("Inquiry " + controlNumber + " has no ISA header");
+        }
+        x12.closeInterchange(envelope, transactionSets);
+    }
+
+    /**
+     * One in three claims is paid in full; the rest are acknowledged or pending
+     */
+    private static void writeClaimStatus(X12Writer x12, String claimNumber, BigDecimal charged) {
+        int pick = claimNumber == null ? 0 : Math.floorMod(claimNumber.hashCode(), 3);
+        x12.segment("STC");
+        switch (pick) {
+            case 0 -> x12.composite("F1").component("65");
+            case 1 -> x12.composite("A2").component("20");
+            default -> x12.composite("P1").component("20");
+        }
+        x12.date(LocalDate.now()).skip(1).amount(charged).amount(pick == 0 ? charged : BigDecimal.ZERO).end();
+        x12.segment("REF").element("1K").element("STUB" + claimNumber).end();
+    }
+
+    private static String validate(BufferedReader reader, long controlNumber) throws IOException {
+        StringBuilder segment = new StringBuilder(256);
+        int transactionSets = 0;
+        int segmentsInSet = -1;
+        boolean sawTrailer = false;
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            if (ch == '\n' || ch == '\r') {
+                continue;
+            }
+            if (ch != X12Writer.SEGMENT_TERMINATOR) {
+                segment.append((char) ch);
+                continue;
+            }
+            String[] elements = segment.toString().split("\\" + X12Writer.ELEMENT_SEPARATOR, -1);
+            segment.setLength(0);
+            if (segmentsInSet >= 0) {
+                segmentsInSet++;
+            }
+            switch (elements[0]) {
+                case "ISA" -> {
+                    if (elements.length < 14 || Long.parseLong(elements[13].trim()) != controlNumber) {
+                        return "ISA13 does not match control number " + controlNumber;
+                    }
+                }
+                case "ST" -> segmentsInSet = 1;
+                case "SE" -> {
+                    if (segmentsInSet < 0 || Integer.parseInt(elements[1]) != segmentsInSet) {
+                        return "SE01 segment count mismatch in transaction set " + (transactionSets + 1);
+                    }
+                    transactionSets++;
+                    segmentsInSet = -1;
+                }
+                case "GE" -> {
+                    if (Integer.parseInt(elements[1]) != transactionSets) {
+                        return "GE01 reports " + elements[1] + " transaction sets, found " + transactionSets;
+                    }
+                }
+                case "IEA" -> {
+                    if (Long.parseLong(elements[2]) != controlNumber) {
+                        return "IEA02 does not match ISA13";
+                    }
+                    sawTrailer = true;
+                }
+                default -> {
+                }
+            }
+        }
+        if (!sawTrailer) {
+            return "Missing IEA trailer";
+        }
+        return transactionSets == 0 ? "Interchange contains no transaction sets" : null;
+    }
+}
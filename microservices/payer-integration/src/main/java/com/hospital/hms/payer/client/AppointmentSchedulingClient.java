@@ -0,0 +1,34 @@
+package com.hospital.hms.payer.client;
+
+import com.hospital.hms.payer.dto.UpcomingAppointmentDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Feign Client for Appointment Scheduling Service Integration
+ *
+ * No fallback: an empty page would look like a day without visits and the
+ * pre-verification run would silently do nothing.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@FeignClient(
+    name = "appointment-scheduling-service",
+    url = "${microservices.appointment-scheduling-service.url:http://appointment-scheduling-service:8082}",
+    path = "/appointments/api/v1/appointments"
+)
+public interface AppointmentSchedulingClient {
+
+    @GetMapping("/upcoming")
+    List<UpcomingAppointmentDto> getUpcomingAppointments(
+            @RequestParam("startTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam("endTime") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam("page") int page,
+            @RequestParam("size") int size);
+}
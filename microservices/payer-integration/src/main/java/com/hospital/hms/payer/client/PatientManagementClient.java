@@ -0,0 +1,31 @@
+package com.hospital.hms.payer.client;
+
+import com.hospital.hms.payer.dto.PatientCoverageDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feign Client for Patient Management Service Integration
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@FeignClient(
+    name = "patient-management-service",
+    url = "${microservices.patient-management-service.url:http://patient-management-service:8081}",
+    path = "/api/v1/patients"
+)
+public interface PatientManagementClient {
+
+    @PostMapping("/insurance/primary")
+    List<PatientCoverageDto> getPrimaryCoverage(
+            @RequestParam("asOf") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+            @RequestBody List<UUID> patientIds);
+}
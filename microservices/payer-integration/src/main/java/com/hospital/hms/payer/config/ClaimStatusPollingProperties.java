@@ -0,0 +1,61 @@
+package com.hospital.hms.payer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Background claim status polling settings
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "hms.payer-integration.claim-status-polling")
+public class ClaimStatusPollingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Wait this long after submission before the first status inquiry
+     */
+    private Duration firstCheckAfter = Duration.ofHours(24);
+
+    /**
+     * Shortest and longest gap between inquiries for one claim
+     */
+    private Duration minInterval = Duration.ofHours(4);
+
+    private Duration maxInterval = Duration.ofDays(7);
+
+    /**
+     * How long leased claims are held before another poller may retry them
+     */
+    private Duration lease = Duration.ofMinutes(30);
+
+    private int initialBatchSize = 200;
+
+    private int minBatchSize = 20;
+
+    private int maxBatchSize = 2000;
+
+    /**
+     * Batches grow while the payer answers faster than this and shrink when it is slower
+     */
+    private Duration targetLatency = Duration.ofSeconds(60);
+
+    /**
+     * Inquiries per payer per run, so one large backlog cannot hold up the rest
+     */
+    private int maxInquiriesPerPayer = 10;
+
+    /**
+     * Payers polled in parallel
+     */
+    private int parallelism = 4;
+
+    private String clearinghouseId = "primary";
+}
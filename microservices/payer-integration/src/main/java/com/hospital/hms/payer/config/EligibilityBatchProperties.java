@@ -0,0 +1,59 @@
+package com.hospital.hms.payer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Overnight eligibility pre-verification settings
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "hms.payer-integration.eligibility-batch")
+public class EligibilityBatchProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Verify appointments this many days ahead of the run
+     */
+    private int daysAhead = 1;
+
+    /**
+     * Page size when reading appointments and coverage from other services
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Subscribers per 270 interchange
+     */
+    private int maxSubscribersPerInquiry = 500;
+
+    /**
+     * Inquiries in flight across all payers
+     */
+    private int parallelism = 8;
+
+    /**
+     * Inquiries in flight per payer when the payer has no override
+     */
+    private int defaultPayerConcurrency = 2;
+
+    /**
+     * Per-payer limits, for payers that throttle batch traffic harder or allow more
+     */
+    private Map<UUID, Integer> payerConcurrency = new HashMap<>();
+
+    private String clearinghouseId = "primary";
+
+    public int concurrencyFor(UUID payerId) {
+        return Math.max(1, payerConcurrency.getOrDefault(payerId, defaultPayerConcurrency));
+    }
+}
@@ -0,0 +1,46 @@
+package com.hospital.hms.payer.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Eligibility response cache settings
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "hms.payer-integration.eligibility-cache")
+public class EligibilityCacheProperties {
+
+    /**
+     * How long a verification is served as fresh when the payer has no override
+     */
+    private Duration defaultTtl = Duration.ofHours(24);
+
+    /**
+     * Per-payer freshness, for payers whose coverage data changes more or less often
+     */
+    private Map<UUID, Duration> payerTtls = new HashMap<>();
+
+    /**
+     * How long past freshness a verification may still be served while it is refreshed
+     */
+    private Duration staleWindow = Duration.ofHours(12);
+
+    /**
+     * How long a caller waits for another caller's payer call for the same key before giving up
+     */
+    private Duration loadWaitTimeout = Duration.ofSeconds(30);
+
+    private int maxEntries = 50_000;
+
+    private int refreshThreads = 2;
+}
@@ -1,6 +1,9 @@
 package com.hospital.hms.payer.controller;
 
 import com.hospital.hms.payer.dto.*;
+import com.hospital.hms.payer.service.ClaimBatchSubmissionService;
+import com.hospital.hms.payer.service.ClaimStatusPollingService;
+import com.hospital.hms.payer.service.EligibilityBatchService;
 import com.hospital.hms.payer.service.PayerIntegrationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,11 +16,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -36,6 +41,9 @@ import java.util.UUID;
 public class PayerIntegrationController {
 
     private final PayerIntegrationService payerIntegrationService;
+    private final ClaimBatchSubmissionService claimBatchSubmissionService;
+    private final EligibilityBatchService eligibilityBatchService;
+    private final ClaimStatusPollingService claimStatusPollingService;
 
     // ===============================
     // Insurance Claims Management
@@ -127,6 +135,53 @@ public class PayerIntegrationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/claims/batches")
+    @PreAuthorize("hasRole('BILLING_MANAGER')")
+    @Operation(summary = "Submit draft claims in batches",
+               description = "Groups draft claims by clearinghouse and payer into 837 interchanges and submits them")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch run completed"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<ClaimBatchSubmissionResultDto> submitDraftClaimBatches() {
+        log.info("Submitting draft claims in batches");
+        
+        ClaimBatchSubmissionResultDto response = claimBatchSubmissionService.submitDraftClaims();
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/eligibility/batches")
+    @PreAuthorize("hasRole('BILLING_MANAGER')")
+    @Operation(summary = "Pre-verify eligibility for a service date",
+               description = "Sends batch 270 inquiries for every patient booked on the date and stores the 271 answers")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch run completed"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<EligibilityBatchResultDto> verifyEligibilityBatch(
+            @Parameter(description = "Service date to pre-verify")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate serviceDate) {
+        log.info("Pre-verifying eligibility for appointments on {}", serviceDate);
+        
+        EligibilityBatchResultDto response = eligibilityBatchService.verifyAppointments(serviceDate);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/claims/status-polls")
+    @PreAuthorize("hasRole('BILLING_MANAGER')")
+    @Operation(summary = "Poll claim status",
+               description = "Sends batch 276 inquiries for every claim whose status check is due and applies the 277 answers")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Polling run completed"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public ResponseEntity<ClaimStatusPollResultDto> pollClaimStatus() {
+        log.info("Polling claim status");
+        
+        ClaimStatusPollResultDto response = claimStatusPollingService.pollDueClaims();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/claims/search")
     @PreAuthorize("hasRole('BILLING_MANAGER') or hasRole('CLAIMS_SPECIALIST') or hasRole('PROVIDER')")
     @Operation(summary = "Search claims", description = "Searches insurance claims based on criteria")
@@ -0,0 +1,35 @@
+package com.hospital.hms.payer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of one batched 837 submission run
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimBatchSubmissionResultDto {
+
+    private int interchangesSubmitted;
+    private int interchangesRejected;
+    private int interchangesFailed;
+    private int claimsSubmitted;
+    private int claimsRejected;
+    private int claimsReleased;
+    private int staleReservationsReleased;
+    private int inFlightReconciled;
+    private long elapsedMillis;
+
+    @Builder.Default
+    private List<String> controlNumbers = new ArrayList<>();
+}
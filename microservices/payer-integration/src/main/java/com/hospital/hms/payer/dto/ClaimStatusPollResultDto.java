@@ -0,0 +1,27 @@
+package com.hospital.hms.payer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one claim status polling run
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimStatusPollResultDto {
+
+    private int payers;
+    private int inquiries;
+    private int inquiriesFailed;
+    private int claimsChecked;
+    private int statusesChanged;
+    private int unanswered;
+    private long elapsedMillis;
+}
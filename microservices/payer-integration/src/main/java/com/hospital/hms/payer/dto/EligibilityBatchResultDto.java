@@ -0,0 +1,33 @@
+package com.hospital.hms.payer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one eligibility pre-verification run
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EligibilityBatchResultDto {
+
+    private LocalDate serviceDate;
+    private int appointments;
+    private int patients;
+    private int withoutCoverage;
+    private int alreadyVerified;
+    private int inquiries;
+    private int inquiriesFailed;
+    private int verified;
+    private int rejected;
+    private int unanswered;
+    private long elapsedMillis;
+}
@@ -0,0 +1,33 @@
+package com.hospital.hms.payer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Primary insurance of a patient as returned by the patient management
+ * service
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PatientCoverageDto {
+
+    private UUID patientId;
+    private String familyName;
+    private String givenName;
+    private LocalDate dateOfBirth;
+    private String payerId;
+    private String payerName;
+    private String memberId;
+    private String policyNumber;
+    private String groupNumber;
+    private LocalDate effectiveDate;
+    private LocalDate expirationDate;
+}
@@ -0,0 +1,26 @@
+package com.hospital.hms.payer.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Booked appointment as returned by the appointment scheduling service;
+ * only the fields eligibility pre-verification reads
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UpcomingAppointmentDto {
+
+    private UUID id;
+    private UUID patientId;
+    private UUID providerId;
+    private LocalDateTime appointmentDateTime;
+}
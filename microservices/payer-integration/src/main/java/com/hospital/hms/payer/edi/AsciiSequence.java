@@ -0,0 +1,56 @@
+package com.hospital.hms.payer.edi;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only character view over ASCII bytes
+ *
+ * X12 is restricted to single-byte characters, so bytes can be read as
+ * characters without decoding. Absolute reads are used, so the view works
+ * for heap, direct and memory-mapped buffers alike and never moves the
+ * buffer's position.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+final class AsciiSequence implements CharSequence {
+
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    AsciiSequence(ByteBuffer bytes) {
+        this(bytes, 0, -1);
+    }
+
+    private AsciiSequence(ByteBuffer bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length < 0 ? bytes.limit() : length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (bytes.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new AsciiSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        int n = length();
+        char[] chars = new char[n];
+        for (int i = 0; i < n; i++) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+}
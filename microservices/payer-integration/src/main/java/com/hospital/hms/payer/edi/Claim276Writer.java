@@ -0,0 +1,91 @@
+package com.hospital.hms.payer.edi;
+
+import com.hospital.hms.payer.entity.InsuranceClaim;
+import org.springframework.stereotype.Component;
+
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Writes batch claim status inquiries (276, 005010X212) for one payer
+ *
+ * Claims are grouped up to {@link #CLAIMS_PER_TRANSACTION} per ST/SE. Each
+ * claim is traced by its claim number in TRN, which the payer echoes in
+ * the 277, and carries the payer claim control number when one is known.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class Claim276Writer {
+
+    public static final String IMPLEMENTATION_GUIDE = "005010X212";
+
+    public static final int CLAIMS_PER_TRANSACTION = 99;
+
+    /**
+     * Write the interchange and return the number of transaction sets
+     *
+     * @param payer information source, NM1*PR
+     */
+    public int write(Writer target, InterchangeEnvelope envelope, X12Party payer, List<InsuranceClaim> claims) {
+        X12Writer x12 = new X12Writer(target);
+        LocalDate date = envelope.getCreatedAt().toLocalDate();
+        LocalTime time = envelope.getCreatedAt().toLocalTime();
+
+        x12.openInterchange(envelope, "HR", IMPLEMENTATION_GUIDE);
+
+        int transactionSets = 0;
+        for (int from = 0; from < claims.size(); from += CLAIMS_PER_TRANSACTION) {
+            List<InsuranceClaim> group = claims.subList(from, Math.min(from + CLAIMS_PER_TRANSACTION, claims.size()));
+            writeTransactionSet(x12, envelope, payer, group, ++transactionSets, date, time);
+        }
+
+        x12.closeInterchange(envelope, transactionSets);
+        return transactionSets;
+    }
+
+    private void writeTransactionSet(X12Writer x12, InterchangeEnvelope envelope, X12Party payer,
+                                     List<InsuranceClaim> claims, int setNumber, LocalDate date, LocalTime time) {
+        x12.resetSegmentCount();
+        x12.segment("ST").element("276").padded(setNumber, 4).element(IMPLEMENTATION_GUIDE).end();
+        x12.segment("BHT").element("0010").element("13")
+                .element(envelope.getControlNumber() + "-" + setNumber).date(date).time(time).end();
+
+        // 2000A/2100A information source, 2000B/2100B information receiver
+        x12.segment("HL").element(1).skip(1).element("20").element("1").end();
+        x12.segment("NM1").element("PR").element("2").element(payer.name())
+                .skip(4).element(payer.idQualifier()).element(payer.id()).end();
+        x12.segment("HL").element(2).element(1).element("21").element("1").end();
+        x12.segment("NM1").element("41").element("2").element(envelope.getSubmitterName())
+                .skip(4).element("46").element(envelope.getSenderId()).end();
+
+        int hierarchicalId = 2;
+        for (InsuranceClaim claim : claims) {
+            // 2000C/2100C service provider
+            int providerId = ++hierarchicalId;
+            x12.segment("HL").element(providerId).element(2).element("19").element("1").end();
+            x12.segment("NM1").element("1P").element("2").element(claim.getBillingProviderName())
+                    .skip(4).element("XX").element(claim.getBillingProviderNpi()).end();
+
+            // 2000D/2100D subscriber, 2200D claim
+            x12.segment("HL").element(++hierarchicalId).element(providerId).element("22").element("0").end();
+            x12.segment("NM1").element("IL").element("1").skip(5)
+                    .element("MI").element(claim.getPolicyNumber()).end();
+            x12.segment("TRN").element("1").element(claim.getClaimNumber()).end();
+            if (claim.getClaimControlNumber() != null) {
+                x12.segment("REF").element("1K").element(claim.getClaimControlNumber()).end();
+            }
+            x12.segment("AMT").element("T3").amount(claim.getTotalChargeAmount()).end();
+            if (claim.getServiceDate() != null) {
+                LocalDate from = claim.getServiceDate().toLocalDate();
+                LocalDate to = claim.getServiceEndDate() != null ? claim.getServiceEndDate().toLocalDate() : from;
+                x12.segment("DTP").element("472").element("RD8").dateRange(from, to).end();
+            }
+        }
+
+        x12.segment("SE").element(x12.segmentCount()).padded(setNumber, 4).end();
+    }
+}
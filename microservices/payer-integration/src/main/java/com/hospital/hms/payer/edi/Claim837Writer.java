@@ -0,0 +1,129 @@
+package com.hospital.hms.payer.edi;
+
+import com.hospital.hms.payer.entity.InsuranceClaim;
+import org.springframework.stereotype.Component;
+
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Writes professional claims (837P, 005010X222A1) as one X12 interchange
+ *
+ * Each claim becomes its own ST/SE transaction set inside a single ISA/GS
+ * envelope, so a payer batch of thousands of claims is one file and one
+ * clearinghouse call. Claims are streamed to the writer one at a time.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class Claim837Writer {
+
+    public static final String IMPLEMENTATION_GUIDE = "005010X222A1";
+
+    /**
+     * Write the interchange and return the number of transaction sets
+     */
+    public int write(Writer target, InterchangeEnvelope envelope, List<InsuranceClaim> claims) {
+        X12Writer x12 = new X12Writer(target);
+        LocalDate date = envelope.getCreatedAt().toLocalDate();
+        LocalTime time = envelope.getCreatedAt().toLocalTime();
+
+        x12.openInterchange(envelope, "HC", IMPLEMENTATION_GUIDE);
+
+        int transactionSets = 0;
+        for (InsuranceClaim claim : claims) {
+            writeTransactionSet(x12, envelope, claim, ++transactionSets, date, time);
+        }
+
+        x12.closeInterchange(envelope, transactionSets);
+        return transactionSets;
+    }
+
+    private void writeTransactionSet(X12Writer x12, InterchangeEnvelope envelope, InsuranceClaim claim,
+                                     int setNumber, LocalDate date, LocalTime time) {
+        x12.resetSegmentCount();
+        x12.segment("ST").element("837").padded(setNumber, 4).element(IMPLEMENTATION_GUIDE).end();
+        x12.segment("BHT").element("0019").element("00").element(claim.getClaimNumber())
+                .date(date).time(time).element("CH").end();
+
+        // 1000A submitter, 1000B receiver
+        x12.segment("NM1").element("41").element("2").element(envelope.getSubmitterName())
+                .skip(4).element("46").element(envelope.getSenderId()).end();
+        x12.segment("PER").element("IC").element(envelope.getSubmitterName()).end();
+        x12.segment("NM1").element("40").element("2").element(envelope.getReceiverName())
+                .skip(4).element("46").element(envelope.getReceiverId()).end();
+
+        // 2000A/2010AA billing provider
+        x12.segment("HL").element(1).skip(1).element("20").element("1").end();
+        x12.segment("NM1").element("85").element("2").element(claim.getBillingProviderName())
+                .skip(4).element("XX").element(claim.getBillingProviderNpi()).end();
+        if (claim.getBillingProviderTaxId() != null) {
+            x12.segment("REF").element("EI").element(claim.getBillingProviderTaxId()).end();
+        }
+
+        // 2000B/2010BA subscriber, 2010BB payer
+        x12.segment("HL").element(2).element(1).element("22").element("0").end();
+        x12.segment("SBR").element("P").element("18").element(claim.getGroupNumber())
+                .skip(5).element("CI").end();
+        x12.segment("NM1").element("IL").element("1").skip(5)
+                .element("MI").element(claim.getPolicyNumber()).end();
+        x12.segment("NM1").element("PR").element("2").element(claim.getPayerName())
+                .skip(4).element("PI").element(claim.getPayerId().toString()).end();
+
+        // 2300 claim
+        x12.segment("CLM").element(claim.getClaimNumber()).amount(claim.getTotalChargeAmount()).skip(2)
+                .composite(claim.getPlaceOfServiceCode()).component("B").component(frequencyCode(claim))
+                .element("Y").element("A").element("Y").element("Y").end();
+        if (claim.getServiceDate() != null) {
+            x12.segment("DTP").element("472").element("D8").date(claim.getServiceDate().toLocalDate()).end();
+        }
+        if (claim.getAuthorizationNumber() != null) {
+            x12.segment("REF").element("G1").element(claim.getAuthorizationNumber()).end();
+        }
+        if (claim.getClaimControlNumber() != null && Boolean.TRUE.equals(claim.getIsCorrectedClaim())) {
+            x12.segment("REF").element("F8").element(claim.getClaimControlNumber()).end();
+        }
+        writeDiagnoses(x12, claim);
+
+        // 2310B rendering provider
+        if (claim.getRenderingProviderNpi() != null) {
+            x12.segment("NM1").element("82").element("1").element(claim.getRenderingProviderName())
+                .skip(4).element("XX").element(claim.getRenderingProviderNpi()).end();
+        }
+
+        x12.segment("SE").element(x12.segmentCount()).padded(setNumber, 4).end();
+    }
+
+    /**
+     * HI segment: principal diagnosis plus up to eleven secondary codes
+     * from the comma-separated list, without the ICD-10 decimal point
+     */
+    private void writeDiagnoses(X12Writer x12, InsuranceClaim claim) {
+        if (claim.getPrimaryDiagnosisCode() == null) {
+            return;
+        }
+        x12.segment("HI").composite("ABK").component(stripDot(claim.getPrimaryDiagnosisCode()));
+        String secondary = claim.getSecondaryDiagnosisCodes();
+        if (secondary != null) {
+            int written = 0;
+            for (String code : secondary.split(",")) {
+                String trimmed = code.trim();
+                if (!trimmed.isEmpty() && written++ < 11) {
+                    x12.composite("ABF").component(stripDot(trimmed));
+                }
+            }
+        }
+        x12.end();
+    }
+
+    private static String frequencyCode(InsuranceClaim claim) {
+        return Boolean.TRUE.equals(claim.getIsCorrectedClaim()) ? "7" : "1";
+    }
+
+    private static String stripDot(String code) {
+        return code.indexOf('.') < 0 ? code : code.replace(".", "");
+    }
+}
@@ -0,0 +1,34 @@
+package com.hospital.hms.payer.edi;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Callbacks for 277 health care claim status responses
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface ClaimStatus277Handler {
+
+    /**
+     * One STC status of a claim (loop 2200D), reported with the claim's
+     * TRN trace number (our claim number) and REF*1K payer control number
+     */
+    record ClaimStatus(String traceNumber, String payerClaimControlNumber, String categoryCode,
+                       String statusCode, String entityCode, LocalDate effectiveDate,
+                       BigDecimal chargedAmount, BigDecimal paidAmount) {
+    }
+
+    default void onTransactionStart(String controlNumber) {
+    }
+
+    default void onParty(X12Party party) {
+    }
+
+    default void onClaimStatus(ClaimStatus status) {
+    }
+
+    default void onTransactionEnd(String controlNumber) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.hospital.hms.payer.edi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives a {@link ClaimStatus277Handler} from a tokenizer
+ *
+ * Within a claim loop the REF*1K payer control number follows the STC
+ * segments, so statuses are held until the loop closes (next TRN, HL or
+ * SE) and then reported with the complete claim identification.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class ClaimStatus277Parser {
+
+    private final ClaimStatus277Handler handler;
+    private final List<ClaimStatus277Handler.ClaimStatus> pending = new ArrayList<>();
+    private String traceNumber;
+    private String payerClaimControlNumber;
+
+    public ClaimStatus277Parser(ClaimStatus277Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Parse every 277 transaction set in the input
+     *
+     * @return the number of transaction sets parsed
+     */
+    public int parse(X12Tokenizer tokenizer) {
+        int transactions = 0;
+        boolean in277 = false;
+        String controlNumber = null;
+
+        while (tokenizer.next()) {
+            X12Segment segment = tokenizer.segment();
+            if (segment.is("ST")) {
+                in277 = segment.elementEquals(1, "277");
+                if (in277) {
+                    controlNumber = segment.text(2);
+                    handler.onTransactionStart(controlNumber);
+                }
+                continue;
+            }
+            if (!in277) {
+                continue;
+            }
+
+            if (segment.is("STC")) {
+                pending.add(new ClaimStatus277Handler.ClaimStatus(traceNumber, null, segment.component(1, 1),
+                        segment.component(1, 2), segment.component(1, 3), segment.date(2), segment.decimal(4),
+                        segment.decimal(5)));
+            } else if (segment.is("REF")) {
+                if (segment.elementEquals(1, "1K")) {
+                    payerClaimControlNumber = segment.text(2);
+                }
+            } else if (segment.is("TRN")) {
+                closeClaim();
+                traceNumber = segment.text(2);
+            } else if (segment.is("HL")) {
+                closeClaim();
+                traceNumber = null;
+            } else if (segment.is("NM1")) {
+                handler.onParty(X12Party.fromNm1(segment));
+            } else if (segment.is("SE")) {
+                closeClaim();
+                traceNumber = null;
+                handler.onTransactionEnd(controlNumber);
+                transactions++;
+                in277 = false;
+            }
+        }
+        return transactions;
+    }
+
+    private void closeClaim() {
+        for (ClaimStatus277Handler.ClaimStatus status : pending) {
+            handler.onClaimStatus(new ClaimStatus277Handler.ClaimStatus(status.traceNumber(),
+                    payerClaimControlNumber, status.categoryCode(), status.statusCode(), status.entityCode(),
+                    status.effectiveDate(), status.chargedAmount(), status.paidAmount()));
+        }
+        pending.clear();
+        payerClaimControlNumber = null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.hospital.hms.payer.edi;
+
+import org.springframework.stereotype.Component;
+
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Writes batch eligibility inquiries (270, 005010X279A1) for one payer
+ *
+ * Subscribers are grouped up to {@link #SUBSCRIBERS_PER_TRANSACTION} per
+ * ST/SE under a single information source and receiver, and each carries a
+ * TRN trace number that the payer echoes in the 271, which is how answers
+ * are matched back to requests.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+public class Eligibility270Writer {
+
+    public static final String IMPLEMENTATION_GUIDE = "005010X279A1";
+
+    /**
+     * Upper bound recommended by the implementation guide for subscriber
+     * loops in one transaction set
+     */
+    public static final int SUBSCRIBERS_PER_TRANSACTION = 99;
+
+    /**
+     * Health benefit plan coverage
+     */
+    private static final String SERVICE_TYPE = "30";
+
+    /**
+     * One patient to verify
+     *
+     * @param traceNumber unique within the interchange; returned in the 271 TRN
+     */
+    public record Subscriber(String traceNumber, String memberId, String lastName, String firstName,
+                             LocalDate dateOfBirth, String groupNumber, LocalDate serviceDate) {
+    }
+
+    /**
+     * Write the interchange and return the number of transaction sets
+     *
+     * @param payer    information source, NM1*PR
+     * @param provider information receiver, NM1*1P
+     */
+    public int write(Writer target, InterchangeEnvelope envelope, X12Party payer, X12Party provider,
+                     List<Subscriber> subscribers) {
+        X12Writer x12 = new X12Writer(target);
+        LocalDate date = envelope.getCreatedAt().toLocalDate();
+        LocalTime time = envelope.getCreatedAt().toLocalTime();
+        String traceOriginator = "9" + envelope.getSenderId();
+
+        x12.openInterchange(envelope, "HS", IMPLEMENTATION_GUIDE);
+
+        int transactionSets = 0;
+        for (int from = 0; from < subscribers.size(); from += SUBSCRIBERS_PER_TRANSACTION) {
+            List<Subscriber> group = subscribers.subList(from,
+                    Math.min(from + SUBSCRIBERS_PER_TRANSACTION, subscribers.size()));
+            writeTransactionSet(x12, envelope, payer, provider, group, ++transactionSets, traceOriginator,
+                    date, time);
+        }
+
+        x12.closeInterchange(envelope, transactionSets);
+        return transactionSets;
+    }
+
+    private void writeTransactionSet(X12Writer x12, InterchangeEnvelope envelope, X12Party payer,
+                                     X12Party provider, List<Subscriber> subscribers, int setNumber,
+                                     String traceOriginator, LocalDate date, LocalTime time) {
+        x12.resetSegmentCount();
+        x12.segment("ST").element("270").padded(setNumber, 4).element(IMPLEMENTATION_GUIDE).end();
+        x12.segment("BHT").element("0022").element("13")
+                .element(envelope.getControlNumber() + "-" + setNumber).date(date).time(time).end();
+
+        // 2000A/2100A information source
+        x12.segment("HL").element(1).skip(1).element("20").element("1").end();
+        x12.segment("NM1").element("PR").element("2").element(payer.name())
+                .skip(4).element(payer.idQualifier()).element(payer.id()).end();
+
+        // 2000B/2100B information receiver
+        x12.segment("HL").element(2).element(1).element("21").element("1").end();
+        x12.segment("NM1").element("1P").element("2").element(provider.name())
+                .skip(4).element(provider.idQualifier()).element(provider.id()).end();
+
+        // 2000C/2100C subscribers
+        int hierarchicalId = 2;
+        for (Subscriber subscriber : subscribers) {
+            x12.segment("HL").element(++hierarchicalId).element(2).element("22").element("0").end();
+            x12.segment("TRN").element("1").element(subscriber.traceNumber()).element(traceOriginator).end();
+            x12.segment("NM1").element("IL").element("1").element(subscriber.lastName())
+                    .element(subscriber.firstName()).skip(3).element("MI").element(subscriber.memberId()).end();
+            if (subscriber.groupNumber() != null) {
+                x12.segment("REF").element("6P").element(subscriber.groupNumber()).end();
+            }
+            if (subscriber.dateOfBirth() != null) {
+                x12.segment("DMG").element("D8").date(subscriber.dateOfBirth()).end();
+            }
+            x12.segment("DTP").element("291").element("D8").date(subscriber.serviceDate()).end();
+            x12.segment("EQ").element(SERVICE_TYPE).end();
+        }
+
+        x12.segment("SE").element(x12.segmentCount()).padded(setNumber, 4).end();
+    }
+}
@@ -0,0 +1,62 @@
+package com.hospital.hms.payer.edi;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Callbacks for 271 eligibility, coverage or benefit information
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface Eligibility271Handler {
+
+    /**
+     * EB eligibility or benefit information (loop 2110C/2110D)
+     *
+     * @param serviceTypeCodes EB03, possibly several codes separated by the repetition separator
+     * @param inNetwork        EB12: Y, N, U or W (not applicable)
+     */
+    record Benefit(String informationCode, String coverageLevel, String serviceTypeCodes, String insuranceType,
+                   String planDescription, String timePeriod, BigDecimal amount, BigDecimal percent,
+                   String authorizationRequired, String inNetwork) {
+    }
+
+    /**
+     * AAA request validation: the payer could not answer the inquiry
+     */
+    record Rejection(boolean valid, String reasonCode, String followUpCode) {
+    }
+
+    default void onTransactionStart(String controlNumber) {
+    }
+
+    /**
+     * TRN in the subscriber or dependent loop. A trace type of 2 (referenced
+     * transaction) echoes the trace number sent in the 270; everything up to
+     * the next TRN belongs to that inquiry.
+     */
+    default void onTrace(String traceType, String traceNumber) {
+    }
+
+    /**
+     * NM1 in the information source, receiver, subscriber or dependent loops
+     */
+    default void onParty(X12Party party) {
+    }
+
+    default void onBenefit(Benefit benefit) {
+    }
+
+    default void onRejection(Rejection rejection) {
+    }
+
+    /**
+     * DTP with either a single date (D8) or a range (RD8)
+     */
+    default void onDate(String qualifier, LocalDate from, LocalDate to) {
+    }
+
+    default void onTransactionEnd(String controlNumber) {
+    }
+}
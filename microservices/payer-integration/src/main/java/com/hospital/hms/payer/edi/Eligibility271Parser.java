@@ -0,0 +1,63 @@
+package com.hospital.hms.payer.edi;
+
+/**
+ * Drives an {@link Eligibility271Handler} from a tokenizer
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class Eligibility271Parser {
+
+    private final Eligibility271Handler handler;
+
+    public Eligibility271Parser(Eligibility271Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Parse every 271 transaction set in the input
+     *
+     * @return the number of transaction sets parsed
+     */
+    public int parse(X12Tokenizer tokenizer) {
+        int transactions = 0;
+        boolean in271 = false;
+        String controlNumber = null;
+
+        while (tokenizer.next()) {
+            X12Segment segment = tokenizer.segment();
+            if (segment.is("ST")) {
+                in271 = segment.elementEquals(1, "271");
+                if (in271) {
+                    controlNumber = segment.text(2);
+                    handler.onTransactionStart(controlNumber);
+                }
+                continue;
+            }
+            if (!in271) {
+                continue;
+            }
+
+            if (segment.is("EB")) {
+                handler.onBenefit(new Eligibility271Handler.Benefit(segment.text(1), segment.text(2),
+                        segment.text(3), segment.text(4), segment.text(5), segment.text(6), segment.decimal(7),
+                        segment.decimal(8), segment.text(11), segment.text(12)));
+            } else if (segment.is("TRN")) {
+                handler.onTrace(segment.text(1), segment.text(2));
+            } else if (segment.is("NM1")) {
+                handler.onParty(X12Party.fromNm1(segment));
+            } else if (segment.is("DTP")) {
+                boolean range = segment.elementEquals(2, "RD8");
+                handler.onDate(segment.text(1), segment.date(3), range ? segment.rangeEnd(3) : segment.date(3));
+            } else if (segment.is("AAA")) {
+                handler.onRejection(new Eligibility271Handler.Rejection(segment.elementEquals(1, "Y"),
+                        segment.text(3), segment.text(4)));
+            } else if (segment.is("SE")) {
+                handler.onTransactionEnd(controlNumber);
+                transactions++;
+                in271 = false;
+            }
+        }
+        return transactions;
+    }
+}
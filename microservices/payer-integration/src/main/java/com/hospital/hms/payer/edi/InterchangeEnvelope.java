@@ -0,0 +1,35 @@
+package com.hospital.hms.payer.edi;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * ISA/GS envelope values for one outbound interchange
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Value
+@Builder
+public class InterchangeEnvelope {
+
+    String senderId;
+    String receiverId;
+    String submitterName;
+    String receiverName;
+
+    /**
+     * ISA13; the same number is used as the GS06 group control number
+     * since every interchange carries exactly one functional group
+     */
+    long controlNumber;
+
+    /**
+     * ISA15: P for production, T for test
+     */
+    char usageIndicator;
+
+    LocalDateTime createdAt;
+}
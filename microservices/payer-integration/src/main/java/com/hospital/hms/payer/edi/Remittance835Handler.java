@@ -0,0 +1,85 @@
+package com.hospital.hms.payer.edi;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Callbacks for 835 health care claim payment/advice transactions
+ *
+ * Events arrive in file order: the payment header, the payer and payee,
+ * then each claim followed by its adjustments, dates and service lines,
+ * and finally provider-level adjustments. Nothing is retained between
+ * callbacks, so a handler that aggregates or persists as it goes keeps
+ * the whole parse in constant memory.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public interface Remittance835Handler {
+
+    /**
+     * Loop an adjustment or date belongs to
+     */
+    enum Loop { HEADER, CLAIM, SERVICE_LINE }
+
+    /**
+     * BPR financial information with the TRN reassociation trace
+     */
+    record Payment(String handlingCode, BigDecimal amount, String creditDebit, String method,
+                   LocalDate effectiveDate, String traceNumber, String originatingCompanyId) {
+    }
+
+    /**
+     * CLP claim payment information (loop 2100)
+     */
+    record Claim(String claimNumber, String statusCode, BigDecimal chargedAmount, BigDecimal paidAmount,
+                 BigDecimal patientResponsibility, String filingIndicator, String payerClaimControlNumber) {
+    }
+
+    /**
+     * SVC service payment information (loop 2110)
+     */
+    record ServiceLine(String procedureQualifier, String procedureCode, String modifier,
+                       BigDecimal chargedAmount, BigDecimal paidAmount, BigDecimal units) {
+    }
+
+    /**
+     * One reason/amount/quantity triple of a CAS segment
+     */
+    record Adjustment(String groupCode, String reasonCode, BigDecimal amount, BigDecimal quantity) {
+    }
+
+    /**
+     * One reason/amount pair of a PLB segment
+     */
+    record ProviderAdjustment(String providerId, LocalDate fiscalPeriodEnd, String reasonCode,
+                              String reference, BigDecimal amount) {
+    }
+
+    default void onTransactionStart(String controlNumber) {
+    }
+
+    default void onPayment(Payment payment) {
+    }
+
+    default void onParty(X12Party party) {
+    }
+
+    default void onClaim(Claim claim) {
+    }
+
+    default void onServiceLine(ServiceLine serviceLine) {
+    }
+
+    default void onAdjustment(Loop loop, Adjustment adjustment) {
+    }
+
+    default void onDate(Loop loop, String qualifier, LocalDate date) {
+    }
+
+    default void onProviderAdjustment(ProviderAdjustment adjustment) {
+    }
+
+    default void onTransactionEnd(String controlNumber) {
+    }
+}
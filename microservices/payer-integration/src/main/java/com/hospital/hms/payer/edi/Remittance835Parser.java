@@ -0,0 +1,120 @@
+package com.hospital.hms.payer.edi;
+
+import com.hospital.hms.payer.edi.Remittance835Handler.Loop;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Drives a {@link Remittance835Handler} from a tokenizer
+ *
+ * Only the segments that carry payment data are interpreted; everything
+ * else (addresses, contacts, supplemental amounts) is skipped without
+ * being copied. Transaction sets other than 835 are ignored, so a file
+ * with mixed functional groups can be fed in as is.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class Remittance835Parser {
+
+    private final Remittance835Handler handler;
+
+    public Remittance835Parser(Remittance835Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Parse every 835 transaction set in the input
+     *
+     * @return the number of transaction sets parsed
+     */
+    public int parse(X12Tokenizer tokenizer) {
+        int transactions = 0;
+        boolean in835 = false;
+        String controlNumber = null;
+        Loop loop = Loop.HEADER;
+
+        // BPR and TRN are reported together, so BPR fields are held until TRN arrives
+        String handlingCode = null;
+        BigDecimal amount = null;
+        String creditDebit = null;
+        String method = null;
+        LocalDate effectiveDate = null;
+
+        while (tokenizer.next()) {
+            X12Segment segment = tokenizer.segment();
+            if (segment.is("ST")) {
+                in835 = segment.elementEquals(1, "835");
+                if (in835) {
+                    controlNumber = segment.text(2);
+                    loop = Loop.HEADER;
+                    handler.onTransactionStart(controlNumber);
+                }
+                continue;
+            }
+            if (!in835) {
+                continue;
+            }
+
+            if (segment.is("CLP")) {
+                loop = Loop.CLAIM;
+                handler.onClaim(new Remittance835Handler.Claim(segment.text(1), segment.text(2),
+                        segment.decimal(3), segment.decimal(4), segment.decimal(5), segment.text(6),
+                        segment.text(7)));
+            } else if (segment.is("CAS")) {
+                adjustments(segment, loop);
+            } else if (segment.is("SVC")) {
+                loop = Loop.SERVICE_LINE;
+                handler.onServiceLine(new Remittance835Handler.ServiceLine(segment.component(1, 1),
+                        segment.component(1, 2), segment.component(1, 3), segment.decimal(2),
+                        segment.decimal(3), segment.decimal(5)));
+            } else if (segment.is("DTM")) {
+                handler.onDate(loop, segment.text(1), segment.date(2));
+            } else if (segment.is("BPR")) {
+                handlingCode = segment.text(1);
+                amount = segment.decimal(2);
+                creditDebit = segment.text(3);
+                method = segment.text(4);
+                effectiveDate = segment.date(16);
+            } else if (segment.is("TRN")) {
+                handler.onPayment(new Remittance835Handler.Payment(handlingCode, amount, creditDebit, method,
+                        effectiveDate, segment.text(2), segment.text(3)));
+            } else if (segment.is("N1")) {
+                handler.onParty(X12Party.fromN1(segment));
+            } else if (segment.is("NM1")) {
+                handler.onParty(X12Party.fromNm1(segment));
+            } else if (segment.is("PLB")) {
+                providerAdjustments(segment);
+            } else if (segment.is("SE")) {
+                handler.onTransactionEnd(controlNumber);
+                transactions++;
+                in835 = false;
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * CAS01 is the group code, followed by up to six reason/amount/quantity triples
+     */
+    private void adjustments(X12Segment cas, Loop loop) {
+        String groupCode = cas.text(1);
+        for (int i = 2; i <= 17 && cas.has(i); i += 3) {
+            handler.onAdjustment(loop, new Remittance835Handler.Adjustment(groupCode, cas.text(i),
+                    cas.decimal(i + 1), cas.decimal(i + 2)));
+        }
+    }
+
+    /**
+     * PLB03 onwards are pairs of a reason:reference composite and an amount
+     */
+    private void providerAdjustments(X12Segment plb) {
+        String providerId = plb.text(1);
+        LocalDate fiscalPeriodEnd = plb.date(2);
+        for (int i = 3; i < 15 && plb.has(i); i += 2) {
+            handler.onProviderAdjustment(new Remittance835Handler.ProviderAdjustment(providerId, fiscalPeriodEnd,
+                    plb.component(i, 1), plb.component(i, 2), plb.decimal(i + 1)));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.hospital.hms.payer.edi;
+
+/**
+ * Delimiters of one interchange, as declared by its ISA segment
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public record X12Delimiters(char element, char component, char repetition, char segment) {
+
+    /**
+     * Delimiters written by {@link X12Writer}
+     */
+    public static final X12Delimiters DEFAULT = new X12Delimiters(X12Writer.ELEMENT_SEPARATOR,
+            X12Writer.COMPONENT_SEPARATOR, X12Writer.REPETITION_SEPARATOR, X12Writer.SEGMENT_TERMINATOR);
+
+    static final int ISA_LENGTH = 106;
+
+    /**
+     * Read the delimiters from the fixed-width ISA segment starting at {@code offset}
+     */
+    static X12Delimiters fromIsa(CharSequence data, int offset) {
+        return new X12Delimiters(data.charAt(offset + 3), data.charAt(offset + 104),
+                data.charAt(offset + 82), data.charAt(offset + 105));
+    }
+}
@@ -0,0 +1,26 @@
+package com.hospital.hms.payer.edi;
+
+/**
+ * Raised when inbound X12 data is malformed
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class X12ParseException extends RuntimeException {
+
+    private final long segmentNumber;
+
+    public X12ParseException(String message, long segmentNumber) {
+        super(message + " (segment " + segmentNumber + ")");
+        this.segmentNumber = segmentNumber;
+    }
+
+    public X12ParseException(String message, long segmentNumber, Throwable cause) {
+        super(message + " (segment " + segmentNumber + ")", cause);
+        this.segmentNumber = segmentNumber;
+    }
+
+    public long getSegmentNumber() {
+        return segmentNumber;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hospital.hms.payer.edi;
+
+/**
+ * Entity named by an NM1 or N1 segment
+ *
+ * @param entityCode     NM101/N101, for example PR (payer), PE (payee), IL (subscriber)
+ * @param name           organization or last name
+ * @param firstName      first name for people; null for organizations
+ * @param idQualifier    NM108/N103
+ * @param id             NM109/N104
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public record X12Party(String entityCode, String name, String firstName, String idQualifier, String id) {
+
+    static X12Party fromNm1(X12Segment nm1) {
+        return new X12Party(nm1.text(1), nm1.text(3), nm1.text(4), nm1.text(8), nm1.text(9));
+    }
+
+    static X12Party fromN1(X12Segment n1) {
+        return new X12Party(n1.text(1), n1.text(2), null, n1.text(3), n1.text(4));
+    }
+}
@@ -0,0 +1,289 @@
+package com.hospital.hms.payer.edi;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The segment the tokenizer is currently positioned on
+ *
+ * This is a flyweight: it records element boundaries over the tokenizer's
+ * buffer and is overwritten by the next call to {@link X12Tokenizer#next()}.
+ * Element 0 is the segment identifier and elements are numbered as in the
+ * implementation guides, so {@code element(2)} of {@code CLP} is CLP02.
+ * The typed accessors parse straight from the buffer; {@link #element(int)}
+ * returns a view, and only {@link #text(int)} copies.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class X12Segment {
+
+    private CharSequence source;
+    private X12Delimiters delimiters;
+    private int start;
+    private int end;
+    private int[] bounds = new int[64];
+    private int elementCount;
+
+    X12Segment() {
+    }
+
+    void reset(CharSequence source, int start, int end, X12Delimiters delimiters) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.delimiters = delimiters;
+        this.elementCount = 0;
+
+        char separator = delimiters.element();
+        int elementStart = start;
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) == separator) {
+                addElement(elementStart, i);
+                elementStart = i + 1;
+            }
+        }
+        addElement(elementStart, end);
+    }
+
+    private void addElement(int from, int to) {
+        int index = elementCount * 2;
+        if (index + 1 >= bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        bounds[index] = from;
+        bounds[index + 1] = to;
+        elementCount++;
+    }
+
+    /**
+     * Check the segment identifier without allocating
+     */
+    public boolean is(String id) {
+        return elementEquals(0, id);
+    }
+
+    public String id() {
+        return text(0);
+    }
+
+    /**
+     * Highest element number present; trailing empty elements are not transmitted
+     */
+    public int size() {
+        return elementCount - 1;
+    }
+
+    public boolean has(int index) {
+        return index < elementCount && bounds[index * 2 + 1] > bounds[index * 2];
+    }
+
+    /**
+     * Zero-copy view of an element; empty when the element is absent
+     */
+    public CharSequence element(int index) {
+        if (!has(index)) {
+            return "";
+        }
+        return new View(source, bounds[index * 2], bounds[index * 2 + 1]);
+    }
+
+    /**
+     * Copy of an element, or null when it is absent
+     */
+    public String text(int index) {
+        if (!has(index)) {
+            return null;
+        }
+        return copy(bounds[index * 2], bounds[index * 2 + 1]);
+    }
+
+    public boolean elementEquals(int index, String expected) {
+        if (index >= elementCount) {
+            return expected.isEmpty();
+        }
+        int from = bounds[index * 2];
+        int length = bounds[index * 2 + 1] - from;
+        if (length != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source.charAt(from + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Component of a composite element, numbered from 1; null when absent
+     */
+    public String component(int index, int component) {
+        if (!has(index)) {
+            return null;
+        }
+        char separator = delimiters.component();
+        int from = bounds[index * 2];
+        int to = bounds[index * 2 + 1];
+        int current = 1;
+        int componentStart = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || source.charAt(i) == separator) {
+                if (current == component) {
+                    return i > componentStart ? copy(componentStart, i) : null;
+                }
+                current++;
+                componentStart = i + 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Numeric (N0) element, or the default when absent
+     */
+    public long longValue(int index, long defaultValue) {
+        if (!has(index)) {
+            return defaultValue;
+        }
+        int from = bounds[index * 2];
+        int to = bounds[index * 2 + 1];
+        boolean negative = source.charAt(from) == '-';
+        long value = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not an integer: " + copy(from, to));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decimal (R) element such as a monetary amount, or null when absent
+     */
+    public BigDecimal decimal(int index) {
+        if (!has(index)) {
+            return null;
+        }
+        int from = bounds[index * 2];
+        int to = bounds[index * 2 + 1];
+        boolean negative = source.charAt(from) == '-';
+        long unscaled = 0;
+        int scale = -1;
+        int digits = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c >= '0' && c <= '9' && digits < 18) {
+                unscaled = unscaled * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                // Exponents and very long values are legal but rare; take the slow path
+                return new BigDecimal(copy(from, to));
+            }
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    /**
+     * CCYYMMDD date element, or null when absent or not a date
+     */
+    public LocalDate date(int index) {
+        if (!has(index)) {
+            return null;
+        }
+        return parseDate(bounds[index * 2], bounds[index * 2 + 1]);
+    }
+
+    /**
+     * End of a date range element (RD8 {@code CCYYMMDD-CCYYMMDD}); the
+     * single date for a D8 element
+     */
+    public LocalDate rangeEnd(int index) {
+        if (!has(index)) {
+            return null;
+        }
+        int to = bounds[index * 2 + 1];
+        return to - bounds[index * 2] == 17 ? parseDate(to - 8, to) : date(index);
+    }
+
+    private LocalDate parseDate(int from, int to) {
+        if (to - from < 8) {
+            return null;
+        }
+        int year = digits(from, 4);
+        int month = digits(from + 4, 2);
+        int day = digits(from + 6, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private String copy(int from, int to) {
+        char[] chars = new char[to - from];
+        for (int i = from; i < to; i++) {
+            chars[i - from] = source.charAt(i);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return copy(start, end) + delimiters.segment();
+    }
+
+    /**
+     * Window onto the tokenizer buffer; valid until the tokenizer advances
+     */
+    private record View(CharSequence source, int from, int to) implements CharSequence {
+
+        @Override
+        public int length() {
+            return to - from;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return source.charAt(from + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new View(source, from + start, from + end);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[to - from];
+            for (int i = from; i < to; i++) {
+                chars[i - from] = source.charAt(i);
+            }
+            return new String(chars);
+        }
+    }
+}
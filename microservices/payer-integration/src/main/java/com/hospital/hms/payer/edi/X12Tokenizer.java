@@ -0,0 +1,227 @@
+package com.hospital.hms.payer.edi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Pull tokenizer for X12 interchanges
+ *
+ * Delimiters are taken from each ISA segment, so files from payers that
+ * use non-default separators parse the same way. Input is either held in
+ * memory ({@link #of(CharSequence)}, {@link #of(ByteBuffer)}, including
+ * memory-mapped files) or streamed from a channel through one fixed buffer,
+ * which is what keeps multi-hundred-megabyte 835 files in constant memory.
+ * Segments are never copied out of the buffer; see {@link X12Segment}.
+ *
+ * <pre>
+ * try (X12Tokenizer x12 = X12Tokenizer.of(channel)) {
+ *     while (x12.next()) {
+ *         X12Segment segment = x12.segment();
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class X12Tokenizer implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_SEGMENT_LENGTH = 4 * 1024 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final X12Segment segment = new X12Segment();
+    private ByteBuffer buffer;
+    private CharSequence window;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private X12Delimiters delimiters;
+    private long segmentNumber;
+
+    private X12Tokenizer(CharSequence window, ReadableByteChannel channel, ByteBuffer buffer) {
+        this.window = window;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.limit = channel == null ? window.length() : 0;
+        this.endOfInput = channel == null;
+    }
+
+    public static X12Tokenizer of(CharSequence data) {
+        return new X12Tokenizer(data, null, null);
+    }
+
+    /**
+     * Tokenize the remaining bytes of a buffer in place
+     */
+    public static X12Tokenizer of(ByteBuffer data) {
+        ByteBuffer view = data.slice();
+        return new X12Tokenizer(new AsciiSequence(view), null, null);
+    }
+
+    public static X12Tokenizer of(ReadableByteChannel channel) {
+        return of(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static X12Tokenizer of(ReadableByteChannel channel, int bufferSize) {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(X12Delimiters.ISA_LENGTH * 2, bufferSize));
+        buffer.limit(0);
+        return new X12Tokenizer(new AsciiSequence(buffer), channel, buffer);
+    }
+
+    public static X12Tokenizer of(InputStream in) {
+        return of(Channels.newChannel(in));
+    }
+
+    /**
+     * Advance to the next segment
+     *
+     * @return false once the input is exhausted
+     */
+    public boolean next() {
+        skipLineBreaks();
+        if (!ensureAvailable(1)) {
+            return false;
+        }
+        if (delimiters == null || startsWith("ISA")) {
+            readDelimiters();
+        }
+
+        char terminator = delimiters.segment();
+        int scan = position;
+        while (true) {
+            for (; scan < limit; scan++) {
+                if (window.charAt(scan) == terminator) {
+                    segmentNumber++;
+                    segment.reset(window, position, scan, delimiters);
+                    position = scan + 1;
+                    return true;
+                }
+            }
+            int consumed = position;
+            if (!fill()) {
+                throw new X12ParseException("Unterminated segment at end of input", segmentNumber + 1);
+            }
+            scan -= consumed - position;
+        }
+    }
+
+    public X12Segment segment() {
+        return segment;
+    }
+
+    /**
+     * Delimiters of the current interchange; null before the first ISA
+     */
+    public X12Delimiters delimiters() {
+        return delimiters;
+    }
+
+    /**
+     * One-based number of the current segment within the input
+     */
+    public long segmentNumber() {
+        return segmentNumber;
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readDelimiters() {
+        if (!ensureAvailable(X12Delimiters.ISA_LENGTH) || !startsWith("ISA")) {
+            throw new X12ParseException("Interchange does not start with a complete ISA segment", segmentNumber + 1);
+        }
+        delimiters = X12Delimiters.fromIsa(window, position);
+    }
+
+    private boolean startsWith(String id) {
+        if (!ensureAvailable(id.length())) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (window.charAt(position + i) != id.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Line breaks between segments are formatting, not data; before the
+     * first ISA, leading blanks and a byte order mark are skipped as well
+     */
+    private void skipLineBreaks() {
+        while (ensureAvailable(1)) {
+            char c = window.charAt(position);
+            boolean leading = delimiters == null && (c == ' ' || c > 0x7F);
+            if (c != '\n' && c != '\r' && !leading) {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private boolean ensureAvailable(int count) {
+        while (limit - position < count) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move unread bytes to the front of the buffer and read more. The buffer
+     * only grows when a single segment is larger than it.
+     */
+    private boolean fill() {
+        if (endOfInput) {
+            return false;
+        }
+        buffer.limit(limit).position(position);
+        if (position == 0 && limit == buffer.capacity()) {
+            if (buffer.capacity() >= MAX_SEGMENT_LENGTH) {
+                throw new X12ParseException("Segment exceeds " + MAX_SEGMENT_LENGTH + " bytes", segmentNumber + 1);
+            }
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            larger.put(buffer);
+            buffer = larger;
+            window = new AsciiSequence(buffer);
+        } else {
+            buffer.compact();
+        }
+
+        try {
+            int read = 0;
+            while (read == 0) {
+                read = channel.read(buffer);
+            }
+            if (read < 0) {
+                endOfInput = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        buffer.flip();
+        int before = limit - position;
+        position = 0;
+        limit = buffer.limit();
+        return limit > before;
+    }
+}
@@ -0,0 +1,359 @@
+package com.hospital.hms.payer.edi;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Streaming X12 segment writer
+ *
+ * Segments are encoded straight into a reusable character buffer that is
+ * drained to the underlying writer when full, so writing an interchange does
+ * not build intermediate strings per segment or element. Empty trailing
+ * elements are dropped as X12 requires: separators for empty elements are
+ * only emitted once a non-empty element follows them.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public final class X12Writer implements Flushable, Closeable {
+
+    public static final char SEGMENT_TERMINATOR = '~';
+    public static final char ELEMENT_SEPARATOR = '*';
+    public static final char COMPONENT_SEPARATOR = ':';
+    public static final char REPETITION_SEPARATOR = '^';
+
+    private static final String INTERCHANGE_VERSION = "00501";
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Writer out;
+    private final char[] buffer;
+    private final boolean lineBreaks;
+    private int position;
+    private int pendingSeparators;
+    private boolean inSegment;
+    private int segmentCount;
+
+    public X12Writer(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE, true);
+    }
+
+    /**
+     * @param lineBreaks write a newline after each segment terminator, which
+     *                   clearinghouses ignore but makes spooled files readable
+     */
+    public X12Writer(Writer out, int bufferSize, boolean lineBreaks) {
+        this.out = out;
+        this.buffer = new char[Math.max(256, bufferSize)];
+        this.lineBreaks = lineBreaks;
+    }
+
+    /**
+     * Start a segment, terminating the current one if still open
+     */
+    public X12Writer segment(String id) {
+        if (inSegment) {
+            end();
+        }
+        write(id);
+        inSegment = true;
+        segmentCount++;
+        return this;
+    }
+
+    public X12Writer element(CharSequence value) {
+        if (value == null || value.length() == 0) {
+            pendingSeparators++;
+            return this;
+        }
+        separator();
+        writeEscaped(value);
+        return this;
+    }
+
+    /**
+     * Leave the next elements empty
+     */
+    public X12Writer skip(int elements) {
+        pendingSeparators += elements;
+        return this;
+    }
+
+    public X12Writer element(long value) {
+        separator();
+        writeNumber(value, 0);
+        return this;
+    }
+
+    /**
+     * Monetary amount in X12 R format: no trailing zeros, no exponent
+     */
+    public X12Writer amount(BigDecimal value) {
+        if (value == null) {
+            return element((CharSequence) null);
+        }
+        separator();
+        BigDecimal cents = value.setScale(2, RoundingMode.HALF_UP);
+        long unscaled = cents.unscaledValue().longValueExact();
+        if (unscaled < 0) {
+            put('-');
+            unscaled = -unscaled;
+        }
+        writeNumber(unscaled / 100, 0);
+        long fraction = unscaled % 100;
+        if (fraction != 0) {
+            put('.');
+            put((char) ('0' + fraction / 10));
+            if (fraction % 10 != 0) {
+                put((char) ('0' + fraction % 10));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Zero-padded number, used for control numbers
+     */
+    public X12Writer padded(long value, int width) {
+        separator();
+        writeNumber(value, width);
+        return this;
+    }
+
+    /**
+     * Space-padded fixed-width element, used by the ISA segment
+     */
+    public X12Writer fixed(CharSequence value, int width) {
+        separator();
+        int length = value == null ? 0 : Math.min(value.length(), width);
+        if (length > 0) {
+            writeEscaped(value.subSequence(0, length));
+        }
+        for (int i = length; i < width; i++) {
+            put(' ');
+        }
+        return this;
+    }
+
+    /**
+     * Literal single-character element such as the ISA repetition separator
+     */
+    public X12Writer element(char value) {
+        separator();
+        put(value);
+        return this;
+    }
+
+    /**
+     * First component of a composite element
+     */
+    public X12Writer composite(CharSequence first) {
+        return element(first);
+    }
+
+    /**
+     * Subsequent component of the composite element just written
+     */
+    public X12Writer component(CharSequence value) {
+        put(COMPONENT_SEPARATOR);
+        if (value != null) {
+            writeEscaped(value);
+        }
+        return this;
+    }
+
+    public X12Writer date(LocalDate date) {
+        if (date == null) {
+            return element((CharSequence) null);
+        }
+        separator();
+        writeNumber(date.getYear(), 4);
+        writeNumber(date.getMonthValue(), 2);
+        writeNumber(date.getDayOfMonth(), 2);
+        return this;
+    }
+
+    /**
+     * RD8 date range, CCYYMMDD-CCYYMMDD in one element
+     */
+    public X12Writer dateRange(LocalDate from, LocalDate to) {
+        date(from);
+        put('-');
+        writeNumber(to.getYear(), 4);
+        writeNumber(to.getMonthValue(), 2);
+        writeNumber(to.getDayOfMonth(), 2);
+        return this;
+    }
+
+    /**
+     * Two-digit year date used by the ISA segment
+     */
+    public X12Writer shortDate(LocalDate date) {
+        separator();
+        writeNumber(date.getYear() % 100, 2);
+        writeNumber(date.getMonthValue(), 2);
+        writeNumber(date.getDayOfMonth(), 2);
+        return this;
+    }
+
+    public X12Writer time(LocalTime time) {
+        separator();
+        writeNumber(time.getHour(), 2);
+        writeNumber(time.getMinute(), 2);
+        return this;
+    }
+
+    /**
+     * Terminate the current segment, dropping any trailing empty elements
+     */
+    public X12Writer end() {
+        pendingSeparators = 0;
+        put(SEGMENT_TERMINATOR);
+        if (lineBreaks) {
+            put('\n');
+        }
+        inSegment = false;
+        return this;
+    }
+
+    /**
+     * Write the ISA and GS headers for a single functional group
+     *
+     * @param functionalIdentifier GS01, for example HC (837) or HS (270)
+     * @param implementationGuide  GS08 version, release and industry identifier
+     */
+    public X12Writer openInterchange(InterchangeEnvelope envelope, String functionalIdentifier,
+                                     String implementationGuide) {
+        LocalDate date = envelope.getCreatedAt().toLocalDate();
+        LocalTime time = envelope.getCreatedAt().toLocalTime();
+        segment("ISA").element("00").fixed(null, 10).element("00").fixed(null, 10)
+                .element("ZZ").fixed(envelope.getSenderId(), 15)
+                .element("ZZ").fixed(envelope.getReceiverId(), 15)
+                .shortDate(date).time(time)
+                .element(REPETITION_SEPARATOR).element(INTERCHANGE_VERSION)
+                .padded(envelope.getControlNumber(), 9).element("0")
+                .element(envelope.getUsageIndicator()).element(COMPONENT_SEPARATOR).end();
+        segment("GS").element(functionalIdentifier).element(envelope.getSenderId())
+                .element(envelope.getReceiverId()).date(date).time(time).element(envelope.getControlNumber())
+                .element("X").element(implementationGuide).end();
+        return this;
+    }
+
+    /**
+     * Write the GE and IEA trailers and flush
+     */
+    public void closeInterchange(InterchangeEnvelope envelope, int transactionSets) {
+        segment("GE").element(transactionSets).element(envelope.getControlNumber()).end();
+        segment("IEA").element(1).padded(envelope.getControlNumber(), 9).end();
+        flush();
+    }
+
+    /**
+     * Segments written since the last reset, including an open segment
+     */
+    public int segmentCount() {
+        return segmentCount;
+    }
+
+    public void resetSegmentCount() {
+        segmentCount = 0;
+    }
+
+    @Override
+    public void flush() {
+        if (inSegment) {
+            end();
+        }
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void separator() {
+        for (; pendingSeparators > 0; pendingSeparators--) {
+            put(ELEMENT_SEPARATOR);
+        }
+        put(ELEMENT_SEPARATOR);
+    }
+
+    private void write(String value) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            put(value.charAt(i));
+        }
+    }
+
+    /**
+     * Delimiters inside data would split the element, so they become spaces
+     */
+    private void writeEscaped(CharSequence value) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case SEGMENT_TERMINATOR, ELEMENT_SEPARATOR, COMPONENT_SEPARATOR, REPETITION_SEPARATOR, '\r', '\n' ->
+                        put(' ');
+                default -> put(c);
+            }
+        }
+    }
+
+    private void writeNumber(long value, int width) {
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            put('0');
+        }
+        if (position + digits > buffer.length) {
+            drain();
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void put(char c) {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = c;
+    }
+
+    private void drain() {
+        if (position == 0) {
+            return;
+        }
+        try {
+            out.write(buffer, 0, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        position = 0;
+    }
+}
@@ -0,0 +1,219 @@
+package com.hospital.hms.payer.eligibility;
+
+import com.hospital.hms.payer.config.EligibilityCacheProperties;
+import com.hospital.hms.payer.entity.EligibilityVerification;
+import com.hospital.hms.payer.entity.VerificationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Single-flight cache of eligibility verifications
+ *
+ * Concurrent lookups for the same patient, payer and service date share one
+ * payer call: the first caller loads, everyone else waits on its result for
+ * at most the load wait timeout, so a hung payer call fails its waiters
+ * instead of holding them. A verification is fresh until its cache expiry,
+ * or for the payer's TTL from when the payer answered if it has none. For a
+ * further stale window it is still returned immediately while one
+ * background refresh replaces it. Only definitive answers (verified or
+ * rejected) are kept; errors and timeouts are retried by the next caller.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Component
+@Slf4j
+public class EligibilityCache {
+
+    private final EligibilityCacheProperties properties;
+    private final Map<EligibilityKey, Entry> entries;
+    private final ConcurrentHashMap<EligibilityKey, CompletableFuture<EligibilityVerification>> inFlight =
+            new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public EligibilityCache(EligibilityCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        int maxEntries = properties.getMaxEntries();
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EligibilityKey, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getRefreshThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "eligibility-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hits = counter(meterRegistry, "hit");
+        this.staleHits = counter(meterRegistry, "stale");
+        this.misses = counter(meterRegistry, "miss");
+        this.coalesced = counter(meterRegistry, "coalesced");
+    }
+
+    /**
+     * Return the cached verification for the key, loading it at most once
+     * across concurrent callers
+     */
+    public EligibilityVerification get(EligibilityKey key, Function<EligibilityKey, EligibilityVerification> loader) {
+        LocalDateTime now = LocalDateTime.now();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && now.isBefore(entry.freshUntil())) {
+            hits.increment();
+            return entry.verification();
+        }
+        if (entry != null && now.isBefore(entry.staleUntil())) {
+            staleHits.increment();
+            refreshInBackground(key, loader);
+            return entry.verification();
+        }
+
+        CompletableFuture<EligibilityVerification> load = new CompletableFuture<>();
+        CompletableFuture<EligibilityVerification> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            coalesced.increment();
+            return await(key, existing);
+        }
+        misses.increment();
+        try {
+            EligibilityVerification verification = loader.apply(key);
+            store(key, verification);
+            load.complete(verification);
+            return verification;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * Freshness for a payer's verifications
+     */
+    public Duration ttlFor(UUID payerId) {
+        return properties.getPayerTtls().getOrDefault(payerId, properties.getDefaultTtl());
+    }
+
+    /**
+     * Seed the cache with a verification obtained outside {@link #get}
+     */
+    public void put(EligibilityVerification verification) {
+        store(keyOf(verification), verification);
+    }
+
+    public void invalidate(EligibilityKey key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public static EligibilityKey keyOf(EligibilityVerification verification) {
+        LocalDateTime serviceDate = verification.getServiceDate() != null
+                ? verification.getServiceDate() : LocalDateTime.now();
+        return new EligibilityKey(verification.getPatientId(), verification.getPayerId(), serviceDate.toLocalDate());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    private void refreshInBackground(EligibilityKey key, Function<EligibilityKey, EligibilityVerification> loader) {
+        CompletableFuture<EligibilityVerification> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, refresh) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    EligibilityVerification verification = loader.apply(key);
+                    store(key, verification);
+                    refresh.complete(verification);
+                } catch (RuntimeException e) {
+                    log.warn("Background eligibility refresh failed for patient {} payer {}: {}",
+                             key.patientId(), key.payerId(), e.getMessage());
+                    refresh.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, refresh);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, refresh);
+            refresh.completeExceptionally(e);
+        }
+    }
+
+    private void store(EligibilityKey key, EligibilityVerification verification) {
+        if (verification == null || !isDefinitive(verification.getVerificationStatus())) {
+            return;
+        }
+        LocalDateTime freshUntil = verification.getCacheExpiry();
+        if (freshUntil == null) {
+            LocalDateTime answeredAt = verification.getVerificationDate() != null
+                    ? verification.getVerificationDate() : LocalDateTime.now();
+            freshUntil = answeredAt.plus(ttlFor(key.payerId()));
+        }
+        Entry entry = new Entry(verification, freshUntil, freshUntil.plus(properties.getStaleWindow()));
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static boolean isDefinitive(VerificationStatus status) {
+        return status == VerificationStatus.VERIFIED || status == VerificationStatus.REJECTED;
+    }
+
+    private EligibilityVerification await(EligibilityKey key, CompletableFuture<EligibilityVerification> load) {
+        Duration timeout = properties.getLoadWaitTimeout();
+        try {
+            return load.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Eligibility call in flight for patient " + key.patientId()
+                    + " payer " + key.payerId() + " did not answer within " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for eligibility call in flight", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("payer.eligibility.cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(EligibilityVerification verification, LocalDateTime freshUntil, LocalDateTime staleUntil) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.hospital.hms.payer.eligibility;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Identity of an eligibility question: is this patient covered by this
+ * payer on this date of service
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public record EligibilityKey(UUID patientId, UUID payerId, LocalDate serviceDate) {
+}
@@ -0,0 +1,145 @@
+package com.hospital.hms.payer.eligibility;
+
+import com.hospital.hms.payer.edi.Eligibility271Handler;
+import com.hospital.hms.payer.entity.CoverageStatus;
+import com.hospital.hms.payer.entity.EligibilityVerification;
+import com.hospital.hms.payer.entity.VerificationStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a batch 271 to the verifications that asked for it
+ *
+ * Answers are matched to requests by the echoed TRN trace number. Only
+ * individual-level benefits are recorded. A verification with an AAA
+ * rejection is marked rejected; one with benefits is marked verified.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+public class EligibilityResponseCollector implements Eligibility271Handler {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final Map<String, EligibilityVerification> byTrace;
+    private final Set<String> answered = new HashSet<>();
+    private EligibilityVerification current;
+
+    public EligibilityResponseCollector(Map<String, EligibilityVerification> byTrace) {
+        this.byTrace = byTrace;
+    }
+
+    /**
+     * Trace numbers that received a definitive answer
+     */
+    public Set<String> answered() {
+        return answered;
+    }
+
+    @Override
+    public void onTrace(String traceType, String traceNumber) {
+        current = "2".equals(traceType) ? byTrace.get(traceNumber) : null;
+    }
+
+    @Override
+    public void onRejection(Rejection rejection) {
+        if (current == null || rejection.valid()) {
+            return;
+        }
+        current.setVerificationStatus(VerificationStatus.REJECTED);
+        current.setCoverageStatus(CoverageStatus.UNKNOWN);
+        current.setRejectionReason(rejection.reasonCode());
+        answered.add(current.getTraceNumber());
+    }
+
+    @Override
+    public void onBenefit(Benefit benefit) {
+        if (current == null || current.getVerificationStatus() == VerificationStatus.REJECTED) {
+            return;
+        }
+        current.setVerificationStatus(VerificationStatus.VERIFIED);
+        answered.add(current.getTraceNumber());
+
+        boolean individual = benefit.coverageLevel() == null || "IND".equals(benefit.coverageLevel());
+        boolean remaining = "29".equals(benefit.timePeriod());
+        switch (benefit.informationCode()) {
+            case "1" -> {
+                current.setCoverageStatus(CoverageStatus.ACTIVE);
+                current.setIsActive(true);
+                if (benefit.planDescription() != null) {
+                    current.setPlanName(benefit.planDescription());
+                }
+                if (benefit.insuranceType() != null) {
+                    current.setPlanType(benefit.insuranceType());
+                }
+            }
+            case "6" -> {
+                current.setCoverageStatus(CoverageStatus.INACTIVE);
+                current.setIsActive(false);
+            }
+            case "A" -> {
+                if (individual && benefit.percent() != null && current.getCoinsurancePercentage() == null) {
+                    current.setCoinsurancePercentage(benefit.percent().multiply(HUNDRED).intValue());
+                }
+            }
+            case "B" -> {
+                if (individual && benefit.amount() != null && current.getCopayAmount() == null) {
+                    current.setCopayAmount(benefit.amount());
+                }
+            }
+            case "C" -> {
+                if (individual && benefit.amount() != null) {
+                    if (remaining) {
+                        current.setDeductibleRemaining(benefit.amount());
+                    } else if (current.getDeductibleAmount() == null) {
+                        current.setDeductibleAmount(benefit.amount());
+                    }
+                }
+            }
+            case "G" -> {
+                if (individual && benefit.amount() != null) {
+                    if (remaining) {
+                        current.setOutOfPocketRemaining(benefit.amount());
+                    } else if (current.getOutOfPocketMax() == null) {
+                        current.setOutOfPocketMax(benefit.amount());
+                    }
+                }
+            }
+            default -> {
+            }
+        }
+        if ("Y".equals(benefit.authorizationRequired())) {
+            current.setAuthorizationRequired(true);
+        }
+        if ("Y".equals(benefit.inNetwork())) {
+            current.setNetworkStatus("IN_NETWORK");
+        } else if ("N".equals(benefit.inNetwork()) && current.getNetworkStatus() == null) {
+            current.setNetworkStatus("OUT_OF_NETWORK");
+        }
+    }
+
+    @Override
+    public void onDate(String qualifier, LocalDate from, LocalDate to) {
+        if (current == null || from == null) {
+            return;
+        }
+        switch (qualifier) {
+            case "346" -> current.setPlanBeginDate(from.atStartOfDay());
+            case "347" -> current.setPlanEndDate(from.atStartOfDay());
+            case "356" -> current.setEffectiveDate(from.atStartOfDay());
+            case "357" -> current.setTerminationDate(from.atStartOfDay());
+            case "291" -> {
+                current.setPlanBeginDate(from.atStartOfDay());
+                if (to != null && !to.equals(from)) {
+                    current.setPlanEndDate(to.atStartOfDay());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+}
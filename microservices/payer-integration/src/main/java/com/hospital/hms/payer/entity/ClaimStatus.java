@@ -9,6 +9,7 @@ package com.hospital.hms.payer.entity;
 public enum ClaimStatus {
     DRAFT,                // Claim being prepared
     READY_FOR_SUBMISSION, // Ready to submit
+    SUBMITTING,           // Sent to clearinghouse, outcome not yet recorded
     SUBMITTED,            // Submitted to payer
     ACKNOWLEDGED,         // Acknowledged by payer
     UNDER_REVIEW,         // Under payer review
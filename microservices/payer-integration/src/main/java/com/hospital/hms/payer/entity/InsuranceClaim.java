@@ -34,7 +34,8 @@ import java.util.UUID;
     @Index(name = "idx_claim_status", columnList = "claimStatus"),
     @Index(name = "idx_service_date", columnList = "serviceDate"),
     @Index(name = "idx_submission_date", columnList = "submissionDate"),
-    @Index(name = "idx_auth_number", columnList = "authorizationNumber")
+    @Index(name = "idx_auth_number", columnList = "authorizationNumber"),
+    @Index(name = "idx_next_status_check", columnList = "claimStatus, nextStatusCheck")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -213,6 +214,24 @@ public class InsuranceClaim {
     @Column(name = "remittance_advice_number")
     private String remittanceAdviceNumber;
 
+    // Claim Status Tracking
+    @Column(name = "status_date")
+    private LocalDateTime statusDate;
+
+    @Size(max = 500)
+    @Column(name = "status_reason")
+    private String statusReason;
+
+    @Column(name = "next_status_check")
+    private LocalDateTime nextStatusCheck;
+
+    @Column(name = "status_check_count")
+    private Integer statusCheckCount;
+
+    @Size(max = 50)
+    @Column(name = "status_check_lease")
+    private String statusCheckLease;
+
     // Denial/Rejection Information
     @Size(max = 2000)
     @Column(name = "denial_reason")
@@ -81,6 +81,34 @@ public interface EligibilityVerificationRepository extends JpaRepository<Eligibi
                                                             @Param("payerId") UUID payerId,
                                                             @Param("cutoffDate") LocalDateTime cutoffDate);
 
+    /**
+     * Find the latest unexpired definitive verification for a patient, payer and service day
+     */
+    @Query("SELECT e FROM EligibilityVerification e WHERE e.patientId = :patientId AND e.payerId = :payerId " +
+           "AND e.serviceDate >= :dayStart AND e.serviceDate < :dayEnd " +
+           "AND e.verificationStatus IN :statuses AND e.cacheExpiry > :now " +
+           "ORDER BY e.verificationDate DESC LIMIT 1")
+    Optional<EligibilityVerification> findCachedVerification(@Param("patientId") UUID patientId,
+                                                             @Param("payerId") UUID payerId,
+                                                             @Param("dayStart") LocalDateTime dayStart,
+                                                             @Param("dayEnd") LocalDateTime dayEnd,
+                                                             @Param("statuses") List<VerificationStatus> statuses,
+                                                             @Param("now") LocalDateTime now);
+
+    /**
+     * Of the given patients, those that already have a definitive verification with a payer
+     * for a service day that stays valid until at least the given time
+     */
+    @Query("SELECT DISTINCT e.patientId FROM EligibilityVerification e WHERE e.payerId = :payerId " +
+           "AND e.patientId IN :patientIds AND e.serviceDate >= :dayStart AND e.serviceDate < :dayEnd " +
+           "AND e.verificationStatus IN :statuses AND e.cacheExpiry >= :validThrough")
+    List<UUID> findPatientsWithCachedVerification(@Param("payerId") UUID payerId,
+                                                  @Param("patientIds") List<UUID> patientIds,
+                                                  @Param("dayStart") LocalDateTime dayStart,
+                                                  @Param("dayEnd") LocalDateTime dayEnd,
+                                                  @Param("statuses") List<VerificationStatus> statuses,
+                                                  @Param("validThrough") LocalDateTime validThrough);
+
     /**
      * Count verifications by status
      */
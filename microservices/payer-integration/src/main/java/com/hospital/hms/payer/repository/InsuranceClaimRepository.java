@@ -259,6 +259,128 @@ public interface InsuranceClaimRepository extends JpaRepository<InsuranceClaim,
                                @Param("paidAmount") BigDecimal paidAmount,
                                @Param("patientResponsibility") BigDecimal patientResponsibility);
 
+    /**
+     * Clearinghouse and payer pairs that have draft claims waiting to be batched
+     */
+    @Query("SELECT DISTINCT COALESCE(c.clearinghouseId, :defaultClearinghouseId), c.payerId FROM InsuranceClaim c " +
+           "WHERE c.claimStatus = 'DRAFT'")
+    List<Object[]> findDraftClaimGroups(@Param("defaultClearinghouseId") String defaultClearinghouseId);
+
+    /**
+     * Reserve up to {@code limit} submittable draft claims of one clearinghouse and payer for an
+     * interchange, skipping rows another batcher has locked
+     */
+    @Modifying
+    @Query(value = "UPDATE insurance_claims SET claim_status = 'READY_FOR_SUBMISSION', " +
+           "transaction_control_number = :controlNumber, clearinghouse_id = :clearinghouseId, " +
+           "submission_method = 'BATCH_FILE', last_modified_date = :reservedAt " +
+           "WHERE id IN (SELECT id FROM insurance_claims WHERE claim_status = 'DRAFT' AND payer_id = :payerId " +
+           "AND COALESCE(clearinghouse_id, :defaultClearinghouseId) = :clearinghouseId " +
+           "AND total_charge_amount > 0 AND billing_provider_npi IS NOT NULL " +
+           "ORDER BY service_date, id LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int reserveDraftClaims(@Param("clearinghouseId") String clearinghouseId,
+                           @Param("defaultClearinghouseId") String defaultClearinghouseId,
+                           @Param("payerId") UUID payerId,
+                           @Param("controlNumber") String controlNumber,
+                           @Param("reservedAt") LocalDateTime reservedAt,
+                           @Param("limit") int limit);
+
+    /**
+     * Claims reserved for an interchange, in transaction set order
+     */
+    @Query("SELECT c FROM InsuranceClaim c WHERE c.transactionControlNumber = :controlNumber AND " +
+           "c.claimStatus = 'READY_FOR_SUBMISSION' ORDER BY c.serviceDate, c.id")
+    List<InsuranceClaim> findReservedClaims(@Param("controlNumber") String controlNumber);
+
+    /**
+     * Mark the claims of an interchange as sent before the upload starts, so a crash or lost
+     * response leaves them in flight rather than eligible for release and a second 837
+     */
+    @Modifying
+    @Query("UPDATE InsuranceClaim c SET c.claimStatus = 'SUBMITTING', c.lastModifiedDate = :sentAt " +
+           "WHERE c.transactionControlNumber = :controlNumber AND c.claimStatus = 'READY_FOR_SUBMISSION'")
+    int markInterchangeInFlight(@Param("controlNumber") String controlNumber,
+                                @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Record the clearinghouse outcome for every claim of an interchange
+     */
+    @Modifying
+    @Query("UPDATE InsuranceClaim c SET c.claimStatus = :claimStatus, c.submissionDate = :submittedAt, " +
+           "c.ediTransactionSet = '837', c.ediVersion = :ediVersion, c.acknowledgmentId = :acknowledgmentId, " +
+           "c.lastModifiedDate = :submittedAt " +
+           "WHERE c.transactionControlNumber = :controlNumber AND c.claimStatus = 'SUBMITTING'")
+    int completeInterchange(@Param("controlNumber") String controlNumber,
+                            @Param("claimStatus") ClaimStatus claimStatus,
+                            @Param("submittedAt") LocalDateTime submittedAt,
+                            @Param("ediVersion") String ediVersion,
+                            @Param("acknowledgmentId") String acknowledgmentId);
+
+    /**
+     * Return the claims of an interchange that never reached the clearinghouse to the draft pool
+     */
+    @Modifying
+    @Query("UPDATE InsuranceClaim c SET c.claimStatus = 'DRAFT', c.transactionControlNumber = NULL, " +
+           "c.lastModifiedDate = :releasedAt " +
+           "WHERE c.transactionControlNumber = :controlNumber " +
+           "AND c.claimStatus IN ('READY_FOR_SUBMISSION', 'SUBMITTING')")
+    int releaseInterchange(@Param("controlNumber") String controlNumber,
+                           @Param("releasedAt") LocalDateTime releasedAt);
+
+    /**
+     * Release reservations left behind by a batcher that stopped before uploading them
+     */
+    @Modifying
+    @Query("UPDATE InsuranceClaim c SET c.claimStatus = 'DRAFT', c.transactionControlNumber = NULL, " +
+           "c.lastModifiedDate = :releasedAt " +
+           "WHERE c.claimStatus = 'READY_FOR_SUBMISSION' AND c.submissionMethod = 'BATCH_FILE' AND " +
+           "c.lastModifiedDate < :cutoff")
+    int releaseStaleReservations(@Param("cutoff") LocalDateTime cutoff,
+                                 @Param("releasedAt") LocalDateTime releasedAt);
+
+    /**
+     * Clearinghouse and control number of interchanges sent before {@code cutoff} whose outcome
+     * was never recorded
+     */
+    @Query("SELECT DISTINCT c.clearinghouseId, c.transactionControlNumber FROM InsuranceClaim c " +
+           "WHERE c.claimStatus = 'SUBMITTING' AND c.lastModifiedDate < :cutoff")
+    List<Object[]> findStaleInFlightInterchanges(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Payers with claims in adjudication whose status check is due
+     */
+    @Query("SELECT DISTINCT c.payerId FROM InsuranceClaim c WHERE c.claimStatus IN :statuses AND " +
+           "(c.nextStatusCheck <= :now OR (c.nextStatusCheck IS NULL AND c.submissionDate <= :firstCheckBefore))")
+    List<UUID> findPayersWithDueStatusChecks(@Param("statuses") List<ClaimStatus> statuses,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("firstCheckBefore") LocalDateTime firstCheckBefore);
+
+    /**
+     * Lease up to {@code limit} due claims of one payer for a 276 inquiry, highest priority and
+     * longest overdue first, skipping rows another poller has locked. The lease pushes the next
+     * check out, so claims of a failed inquiry are retried once it lapses.
+     */
+    @Modifying
+    @Query(value = "UPDATE insurance_claims SET status_check_lease = :lease, next_status_check = :leaseUntil " +
+           "WHERE id IN (SELECT id FROM insurance_claims WHERE payer_id = :payerId " +
+           "AND claim_status IN ('SUBMITTED', 'ACKNOWLEDGED', 'UNDER_REVIEW', 'PENDING_INFO', 'SUSPENDED') " +
+           "AND (next_status_check <= :now OR (next_status_check IS NULL AND submission_date <= :firstCheckBefore)) " +
+           "ORDER BY CASE priority_level WHEN 'EMERGENCY' THEN 0 WHEN 'STAT' THEN 1 WHEN 'URGENT' THEN 2 " +
+           "WHEN 'HIGH' THEN 3 ELSE 4 END, COALESCE(next_status_check, submission_date), id " +
+           "LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int leaseStatusChecks(@Param("payerId") UUID payerId,
+                          @Param("now") LocalDateTime now,
+                          @Param("firstCheckBefore") LocalDateTime firstCheckBefore,
+                          @Param("lease") String lease,
+                          @Param("leaseUntil") LocalDateTime leaseUntil,
+                          @Param("limit") int limit);
+
+    /**
+     * Claims leased for a 276 inquiry
+     */
+    @Query("SELECT c FROM InsuranceClaim c WHERE c.statusCheckLease = :lease ORDER BY c.id")
+    List<InsuranceClaim> findByStatusCheckLease(@Param("lease") String lease);
+
     /**
      * Search claims by multiple criteria
      */
@@ -0,0 +1,329 @@
+package com.hospital.hms.payer.service;
+
+import com.hospital.hms.payer.clearinghouse.ClearinghouseGateway;
+import com.hospital.hms.payer.clearinghouse.ClearinghouseReceipt;
+import com.hospital.hms.payer.dto.ClaimBatchSubmissionResultDto;
+import com.hospital.hms.payer.edi.Claim837Writer;
+import com.hospital.hms.payer.edi.InterchangeControlNumbers;
+import com.hospital.hms.payer.edi.InterchangeEnvelope;
+import com.hospital.hms.payer.entity.ClaimStatus;
+import com.hospital.hms.payer.entity.InsuranceClaim;
+import com.hospital.hms.payer.repository.InsuranceClaimRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Claim Batch Submission Service
+ * Groups draft claims by clearinghouse and payer into 837 interchanges
+ *
+ * Each interchange goes through short steps, with no transaction or row
+ * lock held during the network call:
+ * <ol>
+ *   <li>one statement reserves up to the batch limit of draft claims under a
+ *       fresh interchange control number ({@code READY_FOR_SUBMISSION});</li>
+ *   <li>the claims are streamed into a spooled X12 file;</li>
+ *   <li>one statement marks them in flight ({@code SUBMITTING}) before the
+ *       file is uploaded;</li>
+ *   <li>one statement moves every claim of the interchange to its outcome.</li>
+ * </ol>
+ * Interchanges are uploaded in parallel. Claims that fail before the upload
+ * starts are released to the next run, as are reservations orphaned by a
+ * crash once they go stale. Claims in flight are never released blindly: the
+ * clearinghouse may already have them, so once they go stale the interchange
+ * is looked up by its ISA control number and either completed from the
+ * receipt found or, when the clearinghouse never received it, released.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class ClaimBatchSubmissionService {
+
+    private final InsuranceClaimRepository claimRepository;
+    private final Claim837Writer claim837Writer;
+    private final InterchangeControlNumbers controlNumbers;
+    private final ClearinghouseGateway clearinghouseGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService submissionExecutor;
+
+    @Value("${hms.payer-integration.claim-batching.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hms.payer-integration.claim-batching.max-claims-per-interchange:5000}")
+    private int maxClaimsPerInterchange;
+
+    @Value("${hms.payer-integration.claim-batching.stale-reservation-minutes:60}")
+    private long staleReservationMinutes;
+
+    @Value("${hms.payer-integration.claim-batching.default-clearinghouse-id:primary}")
+    private String defaultClearinghouseId;
+
+    @Value("${hms.payer-integration.claim-batching.spool-directory:${java.io.tmpdir}}")
+    private Path spoolDirectory;
+
+    @Value("${hms.payer-integration.edi.sender-id:HMS}")
+    private String senderId;
+
+    @Value("${hms.payer-integration.edi.submitter-name:HMS ENTERPRISE}")
+    private String submitterName;
+
+    @Value("${hms.payer-integration.edi.receiver-id:CLEARINGHOUSE}")
+    private String receiverId;
+
+    @Value("${hms.payer-integration.edi.receiver-name:CLEARINGHOUSE}")
+    private String receiverName;
+
+    @Value("${hms.payer-integration.edi.usage-indicator:T}")
+    private char usageIndicator;
+
+    public ClaimBatchSubmissionService(InsuranceClaimRepository claimRepository,
+                                       Claim837Writer claim837Writer,
+                                       InterchangeControlNumbers controlNumbers,
+                                       ClearinghouseGateway clearinghouseGateway,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${hms.payer-integration.claim-batching.parallelism:4}") int parallelism) {
+        this.claimRepository = claimRepository;
+        this.claim837Writer = claim837Writer;
+        this.controlNumbers = controlNumbers;
+        this.clearinghouseGateway = clearinghouseGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.submissionExecutor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "claim-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(cron = "${hms.payer-integration.claim-batching.cron:0 0 */2 * * *}")
+    public void submitScheduled() {
+        if (enabled) {
+            submitDraftClaims();
+        }
+    }
+
+    /**
+     * Batch and submit every draft claim that is ready to bill
+     */
+    public ClaimBatchSubmissionResultDto submitDraftClaims() {
+        long started = System.currentTimeMillis();
+        ClaimBatchSubmissionResultDto result = ClaimBatchSubmissionResultDto.builder().build();
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusMinutes(staleReservationMinutes);
+        Integer stale = transactionTemplate.execute(status -> claimRepository.releaseStaleReservations(cutoff, now));
+        result.setStaleReservationsReleased(stale == null ? 0 : stale);
+        for (Object[] interchange : claimRepository.findStaleInFlightInterchanges(cutoff)) {
+            reconcileInFlight((String) interchange[0], (String) interchange[1]).mergeInto(result);
+            result.setInFlightReconciled(result.getInFlightReconciled() + 1);
+        }
+
+        List<CompletableFuture<InterchangeOutcome>> uploads = new ArrayList<>();
+        for (Object[] group : claimRepository.findDraftClaimGroups(defaultClearinghouseId)) {
+            String clearinghouseId = (String) group[0];
+            UUID payerId = (UUID) group[1];
+            while (true) {
+                long controlNumber = controlNumbers.next();
+                Integer reserved = transactionTemplate.execute(status -> claimRepository.reserveDraftClaims(
+                        clearinghouseId, defaultClearinghouseId, payerId, formatControlNumber(controlNumber),
+                        LocalDateTime.now(), maxClaimsPerInterchange));
+                if (reserved == null || reserved == 0) {
+                    break;
+                }
+                uploads.add(CompletableFuture.supplyAsync(
+                        () -> submitInterchange(clearinghouseId, controlNumber), submissionExecutor));
+                if (reserved < maxClaimsPerInterchange) {
+                    break;
+                }
+            }
+        }
+
+        for (CompletableFuture<InterchangeOutcome> upload : uploads) {
+            upload.join().mergeInto(result);
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        if (!uploads.isEmpty() || result.getStaleReservationsReleased() > 0 || result.getInFlightReconciled() > 0) {
+            log.info("Claim batching submitted {} claims in {} interchanges ({} rejected, {} failed, {} claims " +
+                     "released) in {} ms", result.getClaimsSubmitted(), result.getInterchangesSubmitted(),
+                     result.getInterchangesRejected(), result.getInterchangesFailed(), result.getClaimsReleased(),
+                     result.getElapsedMillis());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        submissionExecutor.shutdown();
+    }
+
+    private InterchangeOutcome submitInterchange(String clearinghouseId, long controlNumber) {
+        String controlNumberText = formatControlNumber(controlNumber);
+        Path spoolFile = null;
+        boolean sent = false;
+        try {
+            List<InsuranceClaim> claims = claimRepository.findReservedClaims(controlNumberText);
+            if (claims.isEmpty()) {
+                return InterchangeOutcome.empty(controlNumberText);
+            }
+
+            InterchangeEnvelope envelope = InterchangeEnvelope.builder()
+                    .senderId(senderId)
+                    .receiverId(receiverId)
+                    .submitterName(submitterName)
+                    .receiverName(receiverName)
+                    .controlNumber(controlNumber)
+                    .usageIndicator(usageIndicator)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            spoolFile = Files.createTempFile(spoolDirectory, "837-" + controlNumberText + "-", ".x12");
+            try (Writer writer = Files.newBufferedWriter(spoolFile, StandardCharsets.US_ASCII)) {
+                claim837Writer.write(writer, envelope, claims);
+            }
+
+            // Committed before the upload: from here on the claims may be at the clearinghouse
+            Integer inFlight = transactionTemplate.execute(status ->
+                    claimRepository.markInterchangeInFlight(controlNumberText, LocalDateTime.now()));
+            if (inFlight == null || inFlight == 0) {
+                return InterchangeOutcome.empty(controlNumberText);
+            }
+            sent = true;
+            ClearinghouseReceipt receipt = clearinghouseGateway.submit(clearinghouseId, spoolFile, controlNumber);
+            if (receipt == null) {
+                throw new IllegalStateException("Clearinghouse returned no receipt");
+            }
+            return complete(clearinghouseId, controlNumberText, receipt);
+
+        } catch (RuntimeException | IOException e) {
+            if (sent) {
+                // The clearinghouse may have the claims; releasing them could submit them twice
+                log.error("Interchange {} to clearinghouse {} failed after it was sent; its claims stay in " +
+                          "flight until it is reconciled", controlNumberText, clearinghouseId, e);
+                return InterchangeOutcome.failed(controlNumberText, 0);
+            }
+            log.error("Interchange {} to clearinghouse {} failed before it was sent; releasing its claims",
+                      controlNumberText, clearinghouseId, e);
+            Integer released = transactionTemplate.execute(status ->
+                    claimRepository.releaseInterchange(controlNumberText, LocalDateTime.now()));
+            return InterchangeOutcome.failed(controlNumberText, released == null ? 0 : released);
+        } finally {
+            deleteQuietly(spoolFile);
+        }
+    }
+
+    /**
+     * Settle an interchange whose outcome was never recorded from the clearinghouse's own record of it
+     */
+    private InterchangeOutcome reconcileInFlight(String clearinghouseId, String controlNumberText) {
+        Optional<ClearinghouseReceipt> receipt;
+        try {
+            receipt = clearinghouseGateway.lookup(clearinghouseId, Long.parseLong(controlNumberText));
+        } catch (RuntimeException e) {
+            log.warn("Could not look up in-flight interchange {} at clearinghouse {}; retrying next run: {}",
+                     controlNumberText, clearinghouseId, e.getMessage());
+            return InterchangeOutcome.failed(controlNumberText, 0);
+        }
+        if (receipt.isPresent()) {
+            log.info("Clearinghouse {} has in-flight interchange {}; recording its outcome", clearinghouseId,
+                     controlNumberText);
+            return complete(clearinghouseId, controlNumberText, receipt.get());
+        }
+        log.warn("Clearinghouse {} never received in-flight interchange {}; releasing its claims", clearinghouseId,
+                 controlNumberText);
+        Integer released = transactionTemplate.execute(status ->
+                claimRepository.releaseInterchange(controlNumberText, LocalDateTime.now()));
+        return InterchangeOutcome.released(controlNumberText, released == null ? 0 : released);
+    }
+
+    private InterchangeOutcome complete(String clearinghouseId, String controlNumberText,
+                                        ClearinghouseReceipt receipt) {
+        ClaimStatus outcome = receipt.isAccepted() ? ClaimStatus.SUBMITTED : ClaimStatus.REJECTED;
+        String traceId = receipt.getTraceId();
+        Integer updated = transactionTemplate.execute(status -> claimRepository.completeInterchange(
+                controlNumberText, outcome, LocalDateTime.now(), Claim837Writer.IMPLEMENTATION_GUIDE, traceId));
+        int count = updated == null ? 0 : updated;
+
+        if (outcome == ClaimStatus.REJECTED) {
+            log.warn("Clearinghouse {} rejected interchange {} with {} claims: {}", clearinghouseId,
+                     controlNumberText, count, receipt.getMessage());
+            return InterchangeOutcome.rejected(controlNumberText, count);
+        }
+        log.debug("Interchange {} with {} claims accepted by clearinghouse {} as {}",
+                  controlNumberText, count, clearinghouseId, traceId);
+        return InterchangeOutcome.submitted(controlNumberText, count);
+    }
+
+    private static String formatControlNumber(long controlNumber) {
+        return String.format("%09d", controlNumber);
+    }
+
+    private static void deleteQuietly(Path spoolFile) {
+        if (spoolFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled interchange {}: {}", spoolFile, e.getMessage());
+        }
+    }
+
+    private record InterchangeOutcome(String controlNumber, int submitted, int rejected, int released,
+                                      boolean failed) {
+
+        static InterchangeOutcome empty(String controlNumber) {
+            return new InterchangeOutcome(controlNumber, 0, 0, 0, false);
+        }
+
+        static InterchangeOutcome submitted(String controlNumber, int claims) {
+            return new InterchangeOutcome(controlNumber, claims, 0, 0, false);
+        }
+
+        static InterchangeOutcome rejected(String controlNumber, int claims) {
+            return new InterchangeOutcome(controlNumber, 0, claims, 0, false);
+        }
+
+        static InterchangeOutcome failed(String controlNumber, int released) {
+            return new InterchangeOutcome(controlNumber, 0, 0, released, true);
+        }
+
+        static InterchangeOutcome released(String controlNumber, int released) {
+            return new InterchangeOutcome(controlNumber, 0, 0, released, false);
+        }
+
+        void mergeInto(ClaimBatchSubmissionResultDto result) {
+            if (failed) {
+                result.setInterchangesFailed(result.getInterchangesFailed() + 1);
+            } else if (rejected > 0) {
+                result.setInterchangesRejected(result.getInterchangesRejected() + 1);
+            } else if (submitted > 0) {
+                result.setInterchangesSubmitted(result.getInterchangesSubmitted() + 1);
+                result.getControlNumbers().add(controlNumber);
+            }
+            result.setClaimsSubmitted(result.getClaimsSubmitted() + submitted);
+            result.setClaimsRejected(result.getClaimsRejected() + rejected);
+            result.setClaimsReleased(result.getClaimsReleased() + released);
+        }
+    }
+}
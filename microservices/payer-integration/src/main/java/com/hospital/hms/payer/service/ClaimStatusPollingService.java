@@ -0,0 +1,409 @@
+package com.hospital.hms.payer.service;
+
+import com.hospital.hms.payer.claimstatus.ClaimStatusCollector;
+import com.hospital.hms.payer.claimstatus.PayerPollingProfile;
+import com.hospital.hms.payer.clearinghouse.ClearinghouseGateway;
+import com.hospital.hms.payer.config.ClaimStatusPollingProperties;
+import com.hospital.hms.payer.dto.ClaimStatusPollResultDto;
+import com.hospital.hms.payer.edi.Claim276Writer;
+import com.hospital.hms.payer.edi.ClaimStatus277Handler;
+import com.hospital.hms.payer.edi.ClaimStatus277Parser;
+import com.hospital.hms.payer.edi.InterchangeControlNumbers;
+import com.hospital.hms.payer.edi.InterchangeEnvelope;
+import com.hospital.hms.payer.edi.X12Party;
+import com.hospital.hms.payer.edi.X12Tokenizer;
+import com.hospital.hms.payer.entity.ClaimStatus;
+import com.hospital.hms.payer.entity.InsuranceClaim;
+import com.hospital.hms.payer.repository.InsuranceClaimRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Claim Status Polling Service
+ * Keeps the status of submitted claims current so status reads never wait on a payer
+ *
+ * Each run finds the payers with claims whose status check is due and gives
+ * every payer one lane on the polling pool. A lane repeatedly
+ * <ol>
+ *   <li>leases the payer's most urgent due claims, highest priority and
+ *       longest overdue first, up to the payer's current batch size;</li>
+ *   <li>sends them as one batch 276 inquiry with no transaction held;</li>
+ *   <li>applies the 277 to every leased claim in one transaction and
+ *       schedules each claim's next check.</li>
+ * </ol>
+ * Batch size and check intervals adapt per payer: see {@link PayerPollingProfile}.
+ * Claims of a failed inquiry keep their lease and are retried once it lapses.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class ClaimStatusPollingService {
+
+    /**
+     * Claim statuses that are still waiting on the payer
+     */
+    static final List<ClaimStatus> POLLED_STATUSES = List.of(ClaimStatus.SUBMITTED, ClaimStatus.ACKNOWLEDGED,
+            ClaimStatus.UNDER_REVIEW, ClaimStatus.PENDING_INFO, ClaimStatus.SUSPENDED);
+
+    private final InsuranceClaimRepository claimRepository;
+    private final Claim276Writer claim276Writer;
+    private final InterchangeControlNumbers controlNumbers;
+    private final ClearinghouseGateway clearinghouseGateway;
+    private final ClaimStatusPollingProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService pollingExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Map<UUID, PayerPollingProfile> profiles = new ConcurrentHashMap<>();
+    private final Counter changedCounter;
+    private final Counter unchangedCounter;
+    private final Counter unansweredCounter;
+    private final Counter failedCounter;
+
+    @Value("${hms.payer-integration.claim-status-polling.spool-directory:${java.io.tmpdir}}")
+    private Path spoolDirectory;
+
+    @Value("${hms.payer-integration.edi.sender-id:HMS}")
+    private String senderId;
+
+    @Value("${hms.payer-integration.edi.submitter-name:HMS ENTERPRISE}")
+    private String submitterName;
+
+    @Value("${hms.payer-integration.edi.receiver-id:CLEARINGHOUSE}")
+    private String receiverId;
+
+    @Value("${hms.payer-integration.edi.receiver-name:CLEARINGHOUSE}")
+    private String receiverName;
+
+    @Value("${hms.payer-integration.edi.usage-indicator:T}")
+    private char usageIndicator;
+
+    public ClaimStatusPollingService(InsuranceClaimRepository claimRepository,
+                                     Claim276Writer claim276Writer,
+                                     InterchangeControlNumbers controlNumbers,
+                                     ClearinghouseGateway clearinghouseGateway,
+                                     ClaimStatusPollingProperties properties,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.claimRepository = claimRepository;
+        this.claim276Writer = claim276Writer;
+        this.controlNumbers = controlNumbers;
+        this.clearinghouseGateway = clearinghouseGateway;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pollingExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "claim-status-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.changedCounter = claimCounter("changed");
+        this.unchangedCounter = claimCounter("unchanged");
+        this.unansweredCounter = claimCounter("unanswered");
+        this.failedCounter = claimCounter("failed");
+    }
+
+    @Scheduled(cron = "${hms.payer-integration.claim-status-polling.cron:0 */10 * * * *}")
+    public void pollScheduled() {
+        if (properties.isEnabled()) {
+            pollDueClaims();
+        }
+    }
+
+    /**
+     * Send status inquiries for every claim whose check is due
+     */
+    public ClaimStatusPollResultDto pollDueClaims() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime firstCheckBefore = now.minus(properties.getFirstCheckAfter());
+
+        List<UUID> payerIds = claimRepository.findPayersWithDueStatusChecks(POLLED_STATUSES, now, firstCheckBefore);
+        Progress progress = new Progress();
+        List<CompletableFuture<Void>> lanes = new ArrayList<>(payerIds.size());
+        for (UUID payerId : payerIds) {
+            lanes.add(CompletableFuture.runAsync(() -> pollPayer(payerId, now, firstCheckBefore, progress),
+                    pollingExecutor));
+        }
+        lanes.forEach(CompletableFuture::join);
+
+        ClaimStatusPollResultDto result = progress.toResult(payerIds.size());
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        if (result.getInquiries() > 0) {
+            log.info("Claim status polling checked {} claims of {} payers in {} inquiries ({} failed): " +
+                     "{} changed, {} unanswered in {} ms", result.getClaimsChecked(), result.getPayers(),
+                     result.getInquiries(), result.getInquiriesFailed(), result.getStatusesChanged(),
+                     result.getUnanswered(), result.getElapsedMillis());
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pollingExecutor.shutdown();
+    }
+
+    private void pollPayer(UUID payerId, LocalDateTime now, LocalDateTime firstCheckBefore, Progress progress) {
+        PayerPollingProfile profile = profiles.computeIfAbsent(payerId, id -> new PayerPollingProfile(properties));
+        for (int inquiry = 0; inquiry < properties.getMaxInquiriesPerPayer(); inquiry++) {
+            int batchSize = profile.batchSize();
+            long controlNumber = controlNumbers.next();
+            String lease = "276-" + controlNumber;
+            Integer leased = transactionTemplate.execute(status -> claimRepository.leaseStatusChecks(payerId, now,
+                    firstCheckBefore, lease, LocalDateTime.now().plus(properties.getLease()), batchSize));
+            if (leased == null || leased == 0) {
+                return;
+            }
+            inquire(payerId, profile, lease, controlNumber, progress);
+            if (leased < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void inquire(UUID payerId, PayerPollingProfile profile, String lease, long controlNumber,
+                         Progress progress) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        Path request = null;
+        Path response = null;
+        int claimCount = 0;
+        try {
+            List<InsuranceClaim> claims = claimRepository.findByStatusCheckLease(lease);
+            claimCount = claims.size();
+            if (claims.isEmpty()) {
+                outcome = "empty";
+                return;
+            }
+
+            InterchangeEnvelope envelope = InterchangeEnvelope.builder()
+                    .senderId(senderId)
+                    .receiverId(receiverId)
+                    .submitterName(submitterName)
+                    .receiverName(receiverName)
+                    .controlNumber(controlNumber)
+                    .usageIndicator(usageIndicator)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            X12Party payer = new X12Party("PR", claims.get(0).getPayerName(), null, "PI", payerId.toString());
+            request = Files.createTempFile(spoolDirectory, "276-" + controlNumber + "-", ".x12");
+            try (Writer writer = Files.newBufferedWriter(request, StandardCharsets.US_ASCII)) {
+                claim276Writer.write(writer, envelope, payer, claims);
+            }
+
+            response = Files.createTempFile(spoolDirectory, "277-" + controlNumber + "-", ".x12");
+            long sent = System.currentTimeMillis();
+            clearinghouseGateway.inquire(properties.getClearinghouseId(), request, controlNumber, response);
+            long elapsed = System.currentTimeMillis() - sent;
+            ClaimStatusCollector collector = new ClaimStatusCollector();
+            try (X12Tokenizer tokenizer = X12Tokenizer.of(FileChannel.open(response, StandardOpenOption.READ))) {
+                new ClaimStatus277Parser(collector).parse(tokenizer);
+            }
+
+            List<UUID> ids = claims.stream().map(InsuranceClaim::getId).toList();
+            Tally tally = transactionTemplate.execute(status ->
+                    apply(claimRepository.findAllById(ids), lease, collector.statuses(), profile));
+            profile.recordAnswer(claimCount, tally.changed, elapsed);
+
+            progress.answered(claimCount, tally.changed, tally.unanswered);
+            changedCounter.increment(tally.changed);
+            unchangedCounter.increment(claimCount - tally.changed - tally.unanswered);
+            unansweredCounter.increment(tally.unanswered);
+            outcome = "success";
+            log.debug("Claim status inquiry {} to payer {}: {} claims, {} changed, {} unanswered in {} ms " +
+                      "(next batch {})", controlNumber, payerId, claimCount, tally.changed, tally.unanswered,
+                      elapsed, profile.batchSize());
+
+        } catch (RuntimeException | IOException e) {
+            log.error("Claim status inquiry {} to payer {} with {} claims failed", controlNumber, payerId,
+                      claimCount, e);
+            profile.recordFailure();
+            progress.failed(claimCount);
+            failedCounter.increment(claimCount);
+        } finally {
+            sample.stop(Timer.builder("payer.claim.status.inquiry")
+                    .tag("payer", payerId.toString())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            deleteQuietly(request);
+            deleteQuietly(response);
+        }
+    }
+
+    /**
+     * Apply a 277 to the claims of one lease and schedule their next check;
+     * claims the payer did not answer back off as if unchanged
+     */
+    private Tally apply(List<InsuranceClaim> claims, String lease,
+                       Map<String, ClaimStatus277Handler.ClaimStatus> statuses, PayerPollingProfile profile) {
+        LocalDateTime now = LocalDateTime.now();
+        Tally tally = new Tally();
+        for (InsuranceClaim claim : claims) {
+            if (!lease.equals(claim.getStatusCheckLease())) {
+                // Lease lapsed and was taken by a later inquiry
+                continue;
+            }
+            ClaimStatus277Handler.ClaimStatus status = statuses.get(claim.getClaimNumber());
+            boolean changed = status != null && applyStatus(claim, status, now);
+            if (status == null) {
+                tally.unanswered++;
+            } else if (changed) {
+                tally.changed++;
+            }
+
+            int previousChecks = claim.getStatusCheckCount() == null ? 0 : claim.getStatusCheckCount();
+            int unchangedChecks = changed ? 0 : previousChecks + 1;
+            claim.setStatusCheckCount(unchangedChecks);
+            claim.setStatusCheckLease(null);
+            claim.setNextStatusCheck(POLLED_STATUSES.contains(claim.getClaimStatus())
+                    ? now.plus(profile.intervalFor(unchangedChecks))
+                    : null);
+        }
+        return tally;
+    }
+
+    /**
+     * @return whether the payer reported a status other than the last one recorded
+     */
+    private static boolean applyStatus(InsuranceClaim claim, ClaimStatus277Handler.ClaimStatus status,
+                                       LocalDateTime now) {
+        String reason = status.categoryCode() + ":" + status.statusCode();
+        boolean changed = !reason.equals(claim.getStatusReason());
+        claim.setStatusReason(reason);
+        claim.setStatusDate(status.effectiveDate() != null ? status.effectiveDate().atStartOfDay() : now);
+        if (status.payerClaimControlNumber() != null) {
+            claim.setClaimControlNumber(status.payerClaimControlNumber());
+        }
+
+        ClaimStatus mapped = toClaimStatus(status, claim);
+        if (mapped == null || mapped == claim.getClaimStatus()) {
+            return changed;
+        }
+        claim.setClaimStatus(mapped);
+        if (mapped == ClaimStatus.PAID || mapped == ClaimStatus.PARTIALLY_PAID || mapped == ClaimStatus.DENIED) {
+            claim.setAdjudicationDate(claim.getStatusDate());
+            if (status.paidAmount() != null) {
+                claim.setTotalPaidAmount(status.paidAmount());
+            }
+        }
+        if (mapped == ClaimStatus.DENIED || mapped == ClaimStatus.REJECTED) {
+            claim.setDenialReason("Claim status " + reason);
+        }
+        return true;
+    }
+
+    /**
+     * Map a 277 status category (code source 507) onto the claim lifecycle;
+     * null leaves the claim status as it is
+     */
+    private static ClaimStatus toClaimStatus(ClaimStatus277Handler.ClaimStatus status, InsuranceClaim claim) {
+        String category = Objects.requireNonNullElse(status.categoryCode(), "");
+        if (category.startsWith("R")) {
+            // R categories are requests for more information
+            return ClaimStatus.PENDING_INFO;
+        }
+        return switch (category) {
+            case "A1", "A2" -> ClaimStatus.ACKNOWLEDGED;
+            case "A3", "A6", "A7", "A8" -> ClaimStatus.REJECTED;
+            case "P1", "P2" -> ClaimStatus.UNDER_REVIEW;
+            case "P3", "P4" -> ClaimStatus.PENDING_INFO;
+            case "F1" -> isPartialPayment(status, claim) ? ClaimStatus.PARTIALLY_PAID : ClaimStatus.PAID;
+            case "F2" -> ClaimStatus.DENIED;
+            default -> null;
+        };
+    }
+
+    private static boolean isPartialPayment(ClaimStatus277Handler.ClaimStatus status, InsuranceClaim claim) {
+        BigDecimal charged = status.chargedAmount() != null ? status.chargedAmount() : claim.getTotalChargeAmount();
+        return status.paidAmount() != null && charged != null && status.paidAmount().compareTo(charged) < 0;
+    }
+
+    private Counter claimCounter(String outcome) {
+        return Counter.builder("payer.claim.status.checks")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static void deleteQuietly(Path spoolFile) {
+        if (spoolFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled interchange {}: {}", spoolFile, e.getMessage());
+        }
+    }
+
+    private static final class Tally {
+        private int changed;
+        private int unanswered;
+    }
+
+    /**
+     * Run totals updated from the polling lanes
+     */
+    private static final class Progress {
+
+        private final AtomicInteger inquiries = new AtomicInteger();
+        private final AtomicInteger inquiriesFailed = new AtomicInteger();
+        private final AtomicInteger claimsChecked = new AtomicInteger();
+        private final AtomicInteger changed = new AtomicInteger();
+        private final AtomicInteger unanswered = new AtomicInteger();
+
+        void answered(int claims, int changedCount, int unansweredCount) {
+            inquiries.incrementAndGet();
+            claimsChecked.addAndGet(claims);
+            changed.addAndGet(changedCount);
+            unanswered.addAndGet(unansweredCount);
+        }
+
+        void failed(int claims) {
+            inquiries.incrementAndGet();
+            inquiriesFailed.incrementAndGet();
+            unanswered.addAndGet(claims);
+        }
+
+        ClaimStatusPollResultDto toResult(int payers) {
+            return ClaimStatusPollResultDto.builder()
+                    .payers(payers)
+                    .inquiries(inquiries.get())
+                    .inquiriesFailed(inquiriesFailed.get())
+                    .claimsChecked(claimsChecked.get())
+                    .statusesChanged(changed.get())
+                    .unanswered(unanswered.get())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,515 @@
+package com.hospital.hms.payer.service;
+
+import com.hospital.hms.payer.client.AppointmentSchedulingClient;
+import com.hospital.hms.payer.client.PatientManagementClient;
+import com.hospital.hms.payer.clearinghouse.ClearinghouseGateway;
+import com.hospital.hms.payer.config.EligibilityBatchProperties;
+import com.hospital.hms.payer.dto.EligibilityBatchResultDto;
+import com.hospital.hms.payer.dto.PatientCoverageDto;
+import com.hospital.hms.payer.dto.UpcomingAppointmentDto;
+import com.hospital.hms.payer.edi.Eligibility270Writer;
+import com.hospital.hms.payer.edi.Eligibility271Parser;
+import com.hospital.hms.payer.edi.InterchangeControlNumbers;
+import com.hospital.hms.payer.edi.InterchangeEnvelope;
+import com.hospital.hms.payer.edi.X12Party;
+import com.hospital.hms.payer.edi.X12Tokenizer;
+import com.hospital.hms.payer.eligibility.EligibilityCache;
+import com.hospital.hms.payer.eligibility.EligibilityResponseCollector;
+import com.hospital.hms.payer.entity.CoverageStatus;
+import com.hospital.hms.payer.entity.EligibilityVerification;
+import com.hospital.hms.payer.entity.VerificationStatus;
+import com.hospital.hms.payer.repository.EligibilityVerificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Eligibility Batch Service
+ * Verifies next-day appointments overnight so check-in never waits on a payer
+ *
+ * A run works through four steps:
+ * <ol>
+ *   <li>page through the booked appointments of the service date and collect
+ *       the distinct patients;</li>
+ *   <li>look up their primary coverage in bulk and drop patients whose
+ *       verification for that day is still valid;</li>
+ *   <li>send the rest to each payer as batch 270 interchanges, with a per-payer
+ *       limit on inquiries in flight;</li>
+ *   <li>apply each 271 and persist its verifications in one transaction.</li>
+ * </ol>
+ * Verifications written here stay valid through the end of the service day,
+ * so the eligibility cache answers check-in from them on any node.
+ * Subscribers the payer did not answer are left for check-in to verify live.
+ * Only one service instance runs the scheduled batch at a time, guarded by a
+ * PostgreSQL advisory lock.
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+@Service
+@Slf4j
+public class EligibilityBatchService {
+
+    private static final List<VerificationStatus> DEFINITIVE =
+            List.of(VerificationStatus.VERIFIED, VerificationStatus.REJECTED);
+    private static final long BATCH_LOCK_KEY = 0x454C4947L;
+
+    private final AppointmentSchedulingClient appointmentClient;
+    private final PatientManagementClient patientClient;
+    private final EligibilityVerificationRepository eligibilityRepository;
+    private final Eligibility270Writer eligibility270Writer;
+    private final InterchangeControlNumbers controlNumbers;
+    private final ClearinghouseGateway clearinghouseGateway;
+    private final EligibilityCache eligibilityCache;
+    private final EligibilityBatchProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutorService inquiryExecutor;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger pendingSubscribers = new AtomicInteger();
+    private final Counter verifiedCounter;
+    private final Counter rejectedCounter;
+    private final Counter unansweredCounter;
+    private final Counter failedCounter;
+    private final Counter alreadyVerifiedCounter;
+
+    @Value("${hms.payer-integration.eligibility-batch.spool-directory:${java.io.tmpdir}}")
+    private Path spoolDirectory;
+
+    @Value("${hms.payer-integration.edi.sender-id:HMS}")
+    private String senderId;
+
+    @Value("${hms.payer-integration.edi.receiver-id:CLEARINGHOUSE}")
+    private String receiverId;
+
+    @Value("${hms.payer-integration.edi.usage-indicator:T}")
+    private char usageIndicator;
+
+    @Value("${hms.payer-integration.edi.provider-name:HMS ENTERPRISE}")
+    private String providerName;
+
+    @Value("${hms.payer-integration.edi.provider-npi:}")
+    private String providerNpi;
+
+    public EligibilityBatchService(AppointmentSchedulingClient appointmentClient,
+                                   PatientManagementClient patientClient,
+                                   EligibilityVerificationRepository eligibilityRepository,
+                                   Eligibility270Writer eligibility270Writer,
+                                   InterchangeControlNumbers controlNumbers,
+                                   ClearinghouseGateway clearinghouseGateway,
+                                   EligibilityCache eligibilityCache,
+                                   EligibilityBatchProperties properties,
+                                   PlatformTransactionManager transactionManager,
+                                   JdbcTemplate jdbcTemplate,
+                                   MeterRegistry meterRegistry) {
+        this.appointmentClient = appointmentClient;
+        this.patientClient = patientClient;
+        this.eligibilityRepository = eligibilityRepository;
+        this.eligibility270Writer = eligibility270Writer;
+        this.controlNumbers = controlNumbers;
+        this.clearinghouseGateway = clearinghouseGateway;
+        this.eligibilityCache = eligibilityCache;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.inquiryExecutor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()), runnable -> {
+            Thread thread = new Thread(runnable, "eligibility-batch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        meterRegistry.gauge("payer.eligibility.batch.pending", pendingSubscribers);
+        this.verifiedCounter = subscriberCounter("verified");
+        this.rejectedCounter = subscriberCounter("rejected");
+        this.unansweredCounter = subscriberCounter("unanswered");
+        this.failedCounter = subscriberCounter("failed");
+        this.alreadyVerifiedCounter = subscriberCounter("already_verified");
+    }
+
+    @Scheduled(cron = "${hms.payer-integration.eligibility-batch.cron:0 0 1 * * *}")
+    public void verifyScheduled() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!tryLock(connection)) {
+                    log.info("Eligibility pre-verification is running on another instance");
+                    return null;
+                }
+                try {
+                    verifyAppointments(LocalDate.now().plusDays(properties.getDaysAhead()));
+                } finally {
+                    unlock(connection);
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.error("Eligibility pre-verification failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pre-verify every patient booked on the service date
+     */
+    public EligibilityBatchResultDto verifyAppointments(LocalDate serviceDate) {
+        long started = System.currentTimeMillis();
+        EligibilityBatchResultDto result = EligibilityBatchResultDto.builder().serviceDate(serviceDate).build();
+
+        Set<UUID> patientIds = loadPatients(serviceDate, result);
+        Map<UUID, List<PatientCoverageDto>> byPayer = loadCoverage(patientIds, serviceDate, result);
+        removeAlreadyVerified(byPayer, serviceDate, result);
+
+        // Each payer gets up to its concurrency limit of lanes; a lane sends that payer's inquiries one at a time
+        Progress progress = new Progress();
+        List<CompletableFuture<Void>> lanes = new ArrayList<>();
+        for (Map.Entry<UUID, List<PatientCoverageDto>> payer : byPayer.entrySet()) {
+            Queue<List<PatientCoverageDto>> inquiries = new ConcurrentLinkedQueue<>();
+            List<PatientCoverageDto> coverages = payer.getValue();
+            for (int from = 0; from < coverages.size(); from += properties.getMaxSubscribersPerInquiry()) {
+                inquiries.add(coverages.subList(from,
+                        Math.min(from + properties.getMaxSubscribersPerInquiry(), coverages.size())));
+            }
+            pendingSubscribers.addAndGet(coverages.size());
+            int laneCount = Math.min(properties.concurrencyFor(payer.getKey()), inquiries.size());
+            for (int i = 0; i < laneCount; i++) {
+                lanes.add(CompletableFuture.runAsync(
+                        () -> drain(payer.getKey(), inquiries, serviceDate, progress), inquiryExecutor));
+            }
+        }
+        lanes.forEach(CompletableFuture::join);
+
+        progress.copyTo(result);
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        int sent = result.getVerified() + result.getRejected() + result.getUnanswered();
+        log.info("Eligibility pre-verification for {}: {} patients, {} already verified, {} without coverage; " +
+                 "{} verified, {} rejected, {} unanswered in {} inquiries ({} failed) in {} ms ({} subscribers/s)",
+                 serviceDate, result.getPatients(), result.getAlreadyVerified(), result.getWithoutCoverage(),
+                 result.getVerified(), result.getRejected(), result.getUnanswered(), result.getInquiries(),
+                 result.getInquiriesFailed(), result.getElapsedMillis(),
+                 result.getElapsedMillis() == 0 ? sent : sent * 1000L / result.getElapsedMillis());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        inquiryExecutor.shutdown();
+    }
+
+    private Set<UUID> loadPatients(LocalDate serviceDate, EligibilityBatchResultDto result) {
+        LocalDateTime dayStart = serviceDate.atStartOfDay();
+        Set<UUID> patientIds = new LinkedHashSet<>();
+        int appointments = 0;
+        for (int page = 0; ; page++) {
+            List<UpcomingAppointmentDto> batch = appointmentClient.getUpcomingAppointments(
+                    dayStart, dayStart.plusDays(1), page, properties.getPageSize());
+            for (UpcomingAppointmentDto appointment : batch) {
+                appointments++;
+                if (appointment.getPatientId() != null) {
+                    patientIds.add(appointment.getPatientId());
+                }
+            }
+            if (batch.size() < properties.getPageSize()) {
+                break;
+            }
+        }
+        result.setAppointments(appointments);
+        result.setPatients(patientIds.size());
+        return patientIds;
+    }
+
+    private Map<UUID, List<PatientCoverageDto>> loadCoverage(Set<UUID> patientIds, LocalDate serviceDate,
+                                                             EligibilityBatchResultDto result) {
+        Map<UUID, List<PatientCoverageDto>> byPayer = new LinkedHashMap<>();
+        List<UUID> ids = new ArrayList<>(patientIds);
+        int covered = 0;
+        for (int from = 0; from < ids.size(); from += properties.getPageSize()) {
+            List<UUID> page = ids.subList(from, Math.min(from + properties.getPageSize(), ids.size()));
+            for (PatientCoverageDto coverage : patientClient.getPrimaryCoverage(serviceDate, page)) {
+                UUID payerId = parsePayerId(coverage);
+                if (payerId == null || (coverage.getMemberId() == null && coverage.getPolicyNumber() == null)) {
+                    continue;
+                }
+                byPayer.computeIfAbsent(payerId, id -> new ArrayList<>()).add(coverage);
+                covered++;
+            }
+        }
+        result.setWithoutCoverage(patientIds.size() - covered);
+        return byPayer;
+    }
+
+    private void removeAlreadyVerified(Map<UUID, List<PatientCoverageDto>> byPayer, LocalDate serviceDate,
+                                       EligibilityBatchResultDto result) {
+        LocalDateTime dayStart = serviceDate.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        int alreadyVerified = 0;
+        for (Map.Entry<UUID, List<PatientCoverageDto>> payer : byPayer.entrySet()) {
+            List<PatientCoverageDto> coverages = payer.getValue();
+            Set<UUID> verified = new HashSet<>();
+            for (int from = 0; from < coverages.size(); from += properties.getPageSize()) {
+                List<UUID> page = coverages.subList(from, Math.min(from + properties.getPageSize(), coverages.size()))
+                        .stream().map(PatientCoverageDto::getPatientId).toList();
+                verified.addAll(eligibilityRepository.findPatientsWithCachedVerification(
+                        payer.getKey(), page, dayStart, dayEnd, DEFINITIVE, dayEnd));
+            }
+            if (!verified.isEmpty()) {
+                coverages.removeIf(coverage -> verified.contains(coverage.getPatientId()));
+                alreadyVerified += verified.size();
+            }
+        }
+        byPayer.values().removeIf(List::isEmpty);
+        result.setAlreadyVerified(alreadyVerified);
+        alreadyVerifiedCounter.increment(alreadyVerified);
+    }
+
+    private void drain(UUID payerId, Queue<List<PatientCoverageDto>> inquiries, LocalDate serviceDate,
+                       Progress progress) {
+        List<PatientCoverageDto> inquiry;
+        while ((inquiry = inquiries.poll()) != null) {
+            inquire(payerId, inquiry, serviceDate, progress);
+        }
+    }
+
+    private void inquire(UUID payerId, List<PatientCoverageDto> coverages, LocalDate serviceDate,
+                         Progress progress) {
+        long controlNumber = controlNumbers.next();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        Path request = null;
+        Path response = null;
+        try {
+            LocalDateTime requestedAt = LocalDateTime.now();
+            Map<String, EligibilityVerification> byTrace = new HashMap<>(coverages.size() * 2);
+            List<Eligibility270Writer.Subscriber> subscribers = new ArrayList<>(coverages.size());
+            int sequence = 0;
+            for (PatientCoverageDto coverage : coverages) {
+                String trace = controlNumber + "-" + (++sequence);
+                byTrace.put(trace, newVerification(coverage, payerId, trace, serviceDate, requestedAt));
+                subscribers.add(new Eligibility270Writer.Subscriber(trace, memberId(coverage),
+                        coverage.getFamilyName(), coverage.getGivenName(), coverage.getDateOfBirth(),
+                        coverage.getGroupNumber(), serviceDate));
+            }
+
+            InterchangeEnvelope envelope = InterchangeEnvelope.builder()
+                    .senderId(senderId)
+                    .receiverId(receiverId)
+                    .controlNumber(controlNumber)
+                    .usageIndicator(usageIndicator)
+                    .createdAt(requestedAt)
+                    .build();
+            X12Party payer = new X12Party("PR", coverages.get(0).getPayerName(), null, "PI", payerId.toString());
+            X12Party provider = new X12Party("1P", providerName, null, "XX", providerNpi);
+            request = Files.createTempFile(spoolDirectory, "270-" + controlNumber + "-", ".x12");
+            try (Writer writer = Files.newBufferedWriter(request, StandardCharsets.US_ASCII)) {
+                eligibility270Writer.write(writer, envelope, payer, provider, subscribers);
+            }
+
+            response = Files.createTempFile(spoolDirectory, "271-" + controlNumber + "-", ".x12");
+            clearinghouseGateway.inquire(properties.getClearinghouseId(), request, controlNumber, response);
+            EligibilityResponseCollector collector = new EligibilityResponseCollector(byTrace);
+            try (X12Tokenizer tokenizer = X12Tokenizer.of(FileChannel.open(response, StandardOpenOption.READ))) {
+                new Eligibility271Parser(collector).parse(tokenizer);
+            }
+
+            List<EligibilityVerification> answered = complete(byTrace, collector.answered(), payerId, serviceDate,
+                    controlNumber);
+            transactionTemplate.executeWithoutResult(status -> eligibilityRepository.saveAll(answered));
+
+            int verified = (int) answered.stream()
+                    .filter(v -> v.getVerificationStatus() == VerificationStatus.VERIFIED).count();
+            progress.answered(verified, answered.size() - verified, coverages.size() - answered.size());
+            verifiedCounter.increment(verified);
+            rejectedCounter.increment(answered.size() - verified);
+            unansweredCounter.increment(coverages.size() - answered.size());
+            outcome = "success";
+            log.debug("Eligibility inquiry {} to payer {}: {} of {} subscribers answered", controlNumber, payerId,
+                      answered.size(), coverages.size());
+
+        } catch (RuntimeException | IOException e) {
+            log.error("Eligibility inquiry {} to payer {} with {} subscribers failed", controlNumber, payerId,
+                      coverages.size(), e);
+            progress.failed(coverages.size());
+            failedCounter.increment(coverages.size());
+        } finally {
+            sample.stop(Timer.builder("payer.eligibility.batch.inquiry")
+                    .tag("payer", payerId.toString())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+            pendingSubscribers.addAndGet(-coverages.size());
+            deleteQuietly(request);
+            deleteQuietly(response);
+        }
+    }
+
+    private EligibilityVerification newVerification(PatientCoverageDto coverage, UUID payerId, String trace,
+                                                    LocalDate serviceDate, LocalDateTime requestedAt) {
+        EligibilityVerification verification = new EligibilityVerification();
+        verification.setPatientId(coverage.getPatientId());
+        verification.setPayerId(payerId);
+        verification.setPayerName(coverage.getPayerName());
+        verification.setMemberId(coverage.getMemberId());
+        verification.setPolicyNumber(coverage.getPolicyNumber());
+        verification.setGroupNumber(coverage.getGroupNumber());
+        verification.setServiceDate(serviceDate.atStartOfDay());
+        verification.setServiceTypeCode("30");
+        verification.setRequestingProviderName(providerName);
+        verification.setRequestingProviderNpi(providerNpi);
+        verification.setVerificationDate(requestedAt);
+        verification.setVerificationStatus(VerificationStatus.IN_PROGRESS);
+        verification.setTraceNumber(trace);
+        verification.setEdiTransactionSet("270");
+        return verification;
+    }
+
+    /**
+     * Stamp the answered verifications; a batch answer stays valid through
+     * the end of the service day even when the payer's TTL is shorter
+     */
+    private List<EligibilityVerification> complete(Map<String, EligibilityVerification> byTrace,
+                                                   Set<String> answeredTraces, UUID payerId,
+                                                   LocalDate serviceDate, long controlNumber) {
+        LocalDateTime answeredAt = LocalDateTime.now();
+        LocalDateTime ttlExpiry = answeredAt.plus(eligibilityCache.ttlFor(payerId));
+        LocalDateTime dayEnd = serviceDate.plusDays(1).atStartOfDay();
+        LocalDateTime cacheExpiry = ttlExpiry.isAfter(dayEnd) ? ttlExpiry : dayEnd;
+
+        List<EligibilityVerification> answered = new ArrayList<>(answeredTraces.size());
+        for (String trace : answeredTraces) {
+            EligibilityVerification verification = byTrace.get(trace);
+            if (verification.getCoverageStatus() == null) {
+                verification.setCoverageStatus(CoverageStatus.UNKNOWN);
+            }
+            verification.setVerificationDate(answeredAt);
+            verification.setResponseDate(answeredAt);
+            verification.setTransactionId(String.valueOf(controlNumber));
+            verification.setCacheExpiry(cacheExpiry);
+            verification.setIsCachedResponse(false);
+            answered.add(verification);
+        }
+        return answered;
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            lock.setLong(1, BATCH_LOCK_KEY);
+            try (ResultSet rows = lock.executeQuery()) {
+                return rows.next() && rows.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            unlock.setLong(1, BATCH_LOCK_KEY);
+            unlock.execute();
+        }
+    }
+
+    private static UUID parsePayerId(PatientCoverageDto coverage) {
+        if (coverage.getPayerId() == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(coverage.getPayerId().trim());
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping coverage of patient {} with unregistered payer {}", coverage.getPatientId(),
+                      coverage.getPayerId());
+            return null;
+        }
+    }
+
+    private static String memberId(PatientCoverageDto coverage) {
+        return coverage.getMemberId() != null ? coverage.getMemberId() : coverage.getPolicyNumber();
+    }
+
+    private Counter subscriberCounter(String outcome) {
+        return Counter.builder("payer.eligibility.batch.subscribers")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static void deleteQuietly(Path spoolFile) {
+        if (spoolFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled interchange {}: {}", spoolFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Run totals updated from the inquiry lanes
+     */
+    private static final class Progress {
+
+        private final AtomicInteger inquiries = new AtomicInteger();
+        private final AtomicInteger inquiriesFailed = new AtomicInteger();
+        private final AtomicInteger verified = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger unanswered = new AtomicInteger();
+
+        void answered(int verifiedCount, int rejectedCount, int unansweredCount) {
+            inquiries.incrementAndGet();
+            verified.addAndGet(verifiedCount);
+            rejected.addAndGet(rejectedCount);
+            unanswered.addAndGet(unansweredCount);
+        }
+
+        void failed(int subscribers) {
+            inquiries.incrementAndGet();
+            inquiriesFailed.incrementAndGet();
+            unanswered.addAndGet(subscribers);
+        }
+
+        void copyTo(EligibilityBatchResultDto result) {
+            result.setInquiries(inquiries.get());
+            result.setInquiriesFailed(inquiriesFailed.get());
+            result.setVerified(verified.get());
+            result.setRejected(rejected.get());
+            result.setUnanswered(unanswered.get());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.hospital.hms.payer.service;
 
 import com.hospital.hms.payer.dto.*;
 import com.hospital.hms.payer.entity.*;
+import com.hospital.hms.payer.eligibility.EligibilityCache;
+import com.hospital.hms.payer.eligibility.EligibilityKey;
 import com.hospital.hms.payer.exception.*;
 import com.hospital.hms.payer.mapper.InsuranceClaimMapper;
 import com.hospital.hms.payer.mapper.EligibilityVerificationMapper;
@@ -12,10 +14,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -38,6 +42,7 @@ public class PayerIntegrationService {
     private final EdiTransactionService ediTransactionService;
     private final ClaimsProcessingService claimsProcessingService;
     private final EligibilityVerificationService eligibilityVerificationService;
+    private final EligibilityCache eligibilityCache;
 
     // ===============================
     // Insurance Claims Management
@@ -168,38 +173,21 @@ public class PayerIntegrationService {
     // Eligibility Verification
     // ===============================
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EligibilityVerificationResponseDto verifyEligibility(EligibilityVerificationRequestDto request) {
         log.info("Verifying eligibility for patient: {}, payer: {}", request.getPatientId(), request.getPayerId());
         
         try {
-            // Check for existing verification
-            EligibilityVerification existingVerification = eligibilityRepository
-                .findValidVerificationByPatientAndPayer(request.getPatientId(), request.getPayerId())
-                .orElse(null);
-            
-            if (existingVerification != null && isVerificationValid(existingVerification)) {
-                log.info("Using existing valid verification: {}", existingVerification.getId());
-                return eligibilityMapper.toResponseDto(existingVerification);
+            EligibilityVerification requested = eligibilityMapper.toEntity(request);
+            if (requested.getServiceDate() == null) {
+                requested.setServiceDate(LocalDateTime.now());
             }
             
-            // Perform new verification
-            EligibilityVerification verification = eligibilityMapper.toEntity(request);
-            verification.setVerificationDate(LocalDateTime.now());
-            verification.setVerificationStatus(VerificationStatus.IN_PROGRESS);
-            
-            // Save initial verification
-            verification = eligibilityRepository.save(verification);
-            
-            // Perform real-time verification via EDI 270/271
-            EligibilityResponse response = eligibilityVerificationService.performVerification(verification);
-            
-            // Update verification with response
-            updateVerificationWithResponse(verification, response);
-            
-            EligibilityVerification finalVerification = eligibilityRepository.save(verification);
+            // Concurrent requests for the same patient, payer and service date share one payer call
+            EligibilityVerification verification = eligibilityCache.get(EligibilityCache.keyOf(requested),
+                key -> verifyWithPayer(key, requested));
             
-            log.info("Eligibility verification completed: {}", finalVerification.getId());
-            return eligibilityMapper.toResponseDto(finalVerification);
+            return eligibilityMapper.toResponseDto(verification);
             
         } catch (Exception e) {
             log.error("Error during eligibility verification: {}", e.getMessage(), e);
@@ -232,17 +220,16 @@ public class PayerIntegrationService {
     // Claims Status and Processing
     // ===============================
 
+    /**
+     * Status as last reported by the payer; kept current by {@link ClaimStatusPollingService}
+     */
+    @Transactional(readOnly = true)
     public ClaimStatusResponseDto getClaimStatus(UUID claimId) {
         log.debug("Retrieving claim status: {}", claimId);
         
         InsuranceClaim claim = claimRepository.findById(claimId)
             .orElseThrow(() -> new ClaimNotFoundException("Insurance claim not found: " + claimId));
         
-        // Get real-time status from payer if needed
-        if (shouldUpdateClaimStatus(claim)) {
-            updateClaimStatusFromPayer(claim);
-        }
-        
         return ClaimStatusResponseDto.builder()
             .claimId(claim.getId())
             .claimNumber(claim.getClaimNumber())
@@ -363,14 +350,35 @@ public class PayerIntegrationService {
         }
     }
 
-    private boolean isVerificationValid(EligibilityVerification verification) {
-        if (verification.getVerificationStatus() != VerificationStatus.VERIFIED) {
-            return false;
+    /**
+     * Load a verification for the cache: reuse an unexpired row written by any
+     * node, otherwise run a real-time 270/271 exchange and persist the result
+     */
+    private EligibilityVerification verifyWithPayer(EligibilityKey key, EligibilityVerification requested) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dayStart = key.serviceDate().atStartOfDay();
+        Optional<EligibilityVerification> persisted = eligibilityRepository.findCachedVerification(
+            key.patientId(), key.payerId(), dayStart, dayStart.plusDays(1),
+            List.of(VerificationStatus.VERIFIED, VerificationStatus.REJECTED), now);
+        if (persisted.isPresent()) {
+            log.info("Using existing valid verification: {}", persisted.get().getId());
+            return persisted.get();
         }
         
-        // Check if verification is still valid (e.g., within 30 days)
-        LocalDateTime expiryDate = verification.getVerificationDate().plusDays(30);
-        return LocalDateTime.now().isBefore(expiryDate);
+        EligibilityVerification verification = requested;
+        verification.setVerificationDate(now);
+        verification.setVerificationStatus(VerificationStatus.IN_PROGRESS);
+        verification = eligibilityRepository.save(verification);
+        
+        // Perform real-time verification via EDI 270/271
+        EligibilityResponse response = eligibilityVerificationService.performVerification(verification);
+        updateVerificationWithResponse(verification, response);
+        verification.setCacheExpiry(LocalDateTime.now().plus(eligibilityCache.ttlFor(key.payerId())));
+        verification.setIsCachedResponse(false);
+        
+        EligibilityVerification finalVerification = eligibilityRepository.save(verification);
+        log.info("Eligibility verification completed: {}", finalVerification.getId());
+        return finalVerification;
     }
 
     private void updateVerificationWithResponse(EligibilityVerification verification, EligibilityResponse response) {
@@ -385,36 +393,6 @@ public class PayerIntegrationService {
         verification.setLastModifiedDate(LocalDateTime.now());
     }
 
-    private boolean shouldUpdateClaimStatus(InsuranceClaim claim) {
-        if (claim.getClaimStatus() == ClaimStatus.SUBMITTED || claim.getClaimStatus() == ClaimStatus.PENDING) {
-            // Check if status was last updated more than 1 hour ago
-            return claim.getStatusDate() == null || 
-                   claim.getStatusDate().isBefore(LocalDateTime.now().minusHours(1));
-        }
-        return false;
-    }
-
-    private void updateClaimStatusFromPayer(InsuranceClaim claim) {
-        try {
-            ClaimStatusResponse statusResponse = ediTransactionService.getClaimStatus276(claim.getClaimNumber());
-            
-            if (statusResponse != null) {
-                claim.setClaimStatus(statusResponse.getStatus());
-                claim.setStatusDate(LocalDateTime.now());
-                claim.setStatusReason(statusResponse.getReason());
-                
-                if (statusResponse.getPaymentAmount() != null) {
-                    claim.setPaymentAmount(statusResponse.getPaymentAmount());
-                    claim.setPaymentDate(statusResponse.getPaymentDate());
-                }
-                
-                claimRepository.save(claim);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to update claim status from payer: {}", e.getMessage());
-        }
-    }
-
     private void validatePaymentProcessing(InsuranceClaim claim, ClaimPaymentRequestDto request) {
         if (claim.getClaimStatus() != ClaimStatus.APPROVED) {
             throw new PaymentProcessingException("Claim must be approved before payment processing");
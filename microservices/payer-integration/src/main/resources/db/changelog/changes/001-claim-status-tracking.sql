@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+-- 276/277 status polling state on claims. next_status_check drives the
+-- poller: claims due for a check are found through idx_next_status_check and
+-- leased with status_check_lease so replicas never poll the same claim.
+-- IF NOT EXISTS lets the changeset run against databases where the columns
+-- were already added by hand.
+
+--changeset hms:001-claim-status-tracking
+ALTER TABLE insurance_claims ADD COLUMN IF NOT EXISTS status_date        TIMESTAMP;
+ALTER TABLE insurance_claims ADD COLUMN IF NOT EXISTS status_reason      VARCHAR(500);
+ALTER TABLE insurance_claims ADD COLUMN IF NOT EXISTS next_status_check  TIMESTAMP;
+ALTER TABLE insurance_claims ADD COLUMN IF NOT EXISTS status_check_count INTEGER;
+ALTER TABLE insurance_claims ADD COLUMN IF NOT EXISTS status_check_lease VARCHAR(50);
+CREATE INDEX IF NOT EXISTS idx_next_status_check ON insurance_claims (claim_status, next_status_check);
+--rollback DROP INDEX IF EXISTS idx_next_status_check;
+--rollback ALTER TABLE insurance_claims DROP COLUMN IF EXISTS status_check_lease;
+--rollback ALTER TABLE insurance_claims DROP COLUMN IF EXISTS status_check_count;
+--rollback ALTER TABLE insurance_claims DROP COLUMN IF EXISTS next_status_check;
+--rollback ALTER TABLE insurance_claims DROP COLUMN IF EXISTS status_reason;
+--rollback ALTER TABLE insurance_claims DROP COLUMN IF EXISTS status_date;
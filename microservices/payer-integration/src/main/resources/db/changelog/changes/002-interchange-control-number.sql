@@ -0,0 +1,25 @@
+--liquibase formatted sql
+
+-- ISA13 interchange control numbers. A database sequence survives restarts
+-- and cache evictions, so a number is never issued twice until the nine
+-- digit space wraps; reconcileInFlight matches clearinghouse receipts by
+-- control number and must never see one reused. The sequence starts past
+-- the highest control number already recorded on claims.
+
+--changeset hms:002-interchange-control-number dbms:postgresql splitStatements:false
+CREATE SEQUENCE IF NOT EXISTS interchange_control_number
+    MINVALUE 1 MAXVALUE 999999999 START WITH 1 CYCLE;
+DO $$
+DECLARE
+    v_last BIGINT;
+BEGIN
+    SELECT MAX(transaction_control_number::BIGINT)
+      INTO v_last
+      FROM insurance_claims
+     WHERE transaction_control_number ~ '^[0-9]{1,9}$';
+    IF v_last IS NOT NULL AND v_last < 999999999 THEN
+        PERFORM setval('interchange_control_number', v_last);
+    END IF;
+END;
+$$;
+--rollback DROP SEQUENCE IF EXISTS interchange_control_number;
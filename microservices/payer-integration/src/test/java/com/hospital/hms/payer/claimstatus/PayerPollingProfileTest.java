@@ -0,0 +1,106 @@
+package com.hospital.hms.payer.claimstatus;
+
+import com.hospital.hms.payer.config.ClaimStatusPollingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PayerPollingProfile
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class PayerPollingProfileTest {
+
+    private ClaimStatusPollingProperties properties;
+    private PayerPollingProfile profile;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ClaimStatusPollingProperties();
+        properties.setInitialBatchSize(100);
+        properties.setMinBatchSize(20);
+        properties.setMaxBatchSize(300);
+        properties.setTargetLatency(Duration.ofSeconds(10));
+        properties.setMinInterval(Duration.ofHours(4));
+        properties.setMaxInterval(Duration.ofDays(7));
+        profile = new PayerPollingProfile(properties);
+    }
+
+    @Test
+    void recordAnswer_FastFullBatchGrowsByHalfUpToMax() {
+        profile.recordAnswer(100, 20, 2_000);
+        assertEquals(150, profile.batchSize());
+
+        profile.recordAnswer(150, 30, 2_000);
+        assertEquals(225, profile.batchSize());
+
+        profile.recordAnswer(225, 45, 2_000);
+        assertEquals(300, profile.batchSize(), "Capped at the maximum batch size");
+    }
+
+    @Test
+    void recordAnswer_FastPartialBatchKeepsSize() {
+        profile.recordAnswer(40, 8, 2_000);
+
+        assertEquals(100, profile.batchSize());
+        assertEquals(2_000, profile.latencyMillis());
+    }
+
+    @Test
+    void recordAnswer_SlowAnswerHalvesDownToMin() {
+        profile.recordAnswer(100, 20, 15_000);
+        assertEquals(50, profile.batchSize());
+
+        profile.recordAnswer(50, 10, 15_000);
+        assertEquals(25, profile.batchSize());
+
+        profile.recordAnswer(25, 5, 15_000);
+        assertEquals(20, profile.batchSize(), "Floored at the minimum batch size");
+    }
+
+    @Test
+    void recordFailure_HalvesBatch() {
+        profile.recordFailure();
+
+        assertEquals(50, profile.batchSize());
+    }
+
+    @Test
+    void recordAnswer_SmoothsChangeRate() {
+        assertEquals(PayerPollingProfile.REFERENCE_CHANGE_RATE, profile.changeRate(), 1e-9);
+
+        profile.recordAnswer(100, 100, 1_000);
+        assertEquals(0.3 + 0.7 * 0.2, profile.changeRate(), 1e-9);
+
+        profile.recordAnswer(0, 0, 1_000);
+        assertEquals(0.3 + 0.7 * 0.2, profile.changeRate(), 1e-9, "Empty answers carry no signal");
+    }
+
+    @Test
+    void intervalFor_DoublesPerUnchangedPollWithinBounds() {
+        assertEquals(Duration.ofHours(4), profile.intervalFor(0));
+        assertEquals(Duration.ofHours(8), profile.intervalFor(1));
+        assertEquals(Duration.ofHours(16), profile.intervalFor(2));
+        assertEquals(Duration.ofDays(7), profile.intervalFor(10), "Capped at the maximum interval");
+        assertEquals(Duration.ofHours(4), profile.intervalFor(-3));
+    }
+
+    @Test
+    void intervalFor_ScalesWithChangeRate() {
+        for (int i = 0; i < 30; i++) {
+            profile.recordAnswer(10, 0, 1_000);
+        }
+        assertEquals(Duration.ofHours(32), profile.intervalFor(1), "Quiet payers back off up to 4x");
+
+        for (int i = 0; i < 30; i++) {
+            profile.recordAnswer(10, 10, 1_000);
+        }
+        assertEquals(Duration.ofHours(4), profile.intervalFor(1), "Busy payers are asked up to twice as often");
+        assertEquals(Duration.ofHours(4), profile.intervalFor(0), "Never below the minimum interval");
+    }
+}
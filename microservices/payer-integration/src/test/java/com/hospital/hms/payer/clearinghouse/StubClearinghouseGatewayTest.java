@@ -0,0 +1,122 @@
+package com.hospital.hms.payer.clearinghouse;
+
+import com.hospital.hms.payer.edi.Claim837Writer;
+import com.hospital.hms.payer.edi.InterchangeEnvelope;
+import com.hospital.hms.payer.entity.InsuranceClaim;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StubClearinghouseGateway
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class StubClearinghouseGatewayTest {
+
+    private static final long CONTROL_NUMBER = 42;
+
+    private final StubClearinghouseGateway gateway = new StubClearinghouseGateway();
+
+    @TempDir
+    Path spool;
+
+    @Test
+    void submit_AcceptsWellFormedInterchange() throws IOException {
+        Path interchange = write837(CONTROL_NUMBER);
+
+        ClearinghouseReceipt receipt = gateway.submit("primary", interchange, CONTROL_NUMBER);
+
+        assertTrue(receipt.isAccepted());
+        assertEquals("STUB-42", receipt.getTraceId());
+    }
+
+    @Test
+    void submit_RejectsIsaControlNumberMismatch() throws IOException {
+        Path interchange = write837(CONTROL_NUMBER);
+
+        ClearinghouseReceipt receipt = gateway.submit("primary", interchange, 43);
+
+        assertFalse(receipt.isAccepted());
+        assertTrue(receipt.getMessage().startsWith("ISA13"), receipt.getMessage());
+    }
+
+    @Test
+    void submit_RejectsWrongSegmentCount() throws IOException {
+        Path interchange = write837(CONTROL_NUMBER);
+        String content = Files.readString(interchange, StandardCharsets.US_ASCII);
+        String corrupted = content.replaceFirst("(~\\s*)SE\\*\\d+\\*", "$1SE*99*");
+        Files.writeString(interchange, corrupted, StandardCharsets.US_ASCII);
+
+        ClearinghouseReceipt receipt = gateway.submit("primary", interchange, CONTROL_NUMBER);
+
+        assertFalse(receipt.isAccepted());
+        assertTrue(receipt.getMessage().startsWith("SE01"), receipt.getMessage());
+    }
+
+    @Test
+    void submit_RejectsTruncatedInterchange() throws IOException {
+        Path interchange = write837(CONTROL_NUMBER);
+        String content = Files.readString(interchange, StandardCharsets.US_ASCII);
+        Files.writeString(interchange, content.substring(0, content.indexOf("IEA*")), StandardCharsets.US_ASCII);
+
+        ClearinghouseReceipt receipt = gateway.submit("primary", interchange, CONTROL_NUMBER);
+
+        assertFalse(receipt.isAccepted());
+        assertEquals("Missing IEA trailer", receipt.getMessage());
+    }
+
+    @Test
+    void lookup_ReturnsReceiptOfSubmittedInterchangeOnly() throws IOException {
+        assertTrue(gateway.lookup("primary", CONTROL_NUMBER).isEmpty());
+
+        gateway.submit("primary", write837(CONTROL_NUMBER), CONTROL_NUMBER);
+
+        assertEquals("STUB-42", gateway.lookup("primary", CONTROL_NUMBER).orElseThrow().getTraceId());
+        assertTrue(gateway.lookup("secondary", CONTROL_NUMBER).isEmpty());
+    }
+
+    private Path write837(long controlNumber) throws IOException {
+        InterchangeEnvelope envelope = InterchangeEnvelope.builder()
+                .senderId("HMS")
+                .receiverId("CLEARINGHOUSE")
+                .submitterName("HMS ENTERPRISE")
+                .receiverName("CLEARINGHOUSE")
+                .controlNumber(controlNumber)
+                .usageIndicator('T')
+                .createdAt(LocalDateTime.of(2026, 1, 5, 9, 30))
+                .build();
+        Path interchange = spool.resolve("837-" + controlNumber + ".x12");
+        try (Writer writer = Files.newBufferedWriter(interchange, StandardCharsets.US_ASCII)) {
+            new Claim837Writer().write(writer, envelope, List.of(claim("CLM-1"), claim("CLM-2")));
+        }
+        return interchange;
+    }
+
+    private static InsuranceClaim claim(String claimNumber) {
+        return InsuranceClaim.builder()
+                .claimNumber(claimNumber)
+                .payerId(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .payerName("ACME HEALTH")
+                .policyNumber("POL123")
+                .totalChargeAmount(new BigDecimal("150.00"))
+                .placeOfServiceCode("11")
+                .billingProviderName("HMS CLINIC")
+                .billingProviderNpi("1234567893")
+                .serviceDate(LocalDateTime.of(2026, 1, 2, 10, 0))
+                .primaryDiagnosisCode("J06.9")
+                .build();
+    }
+}
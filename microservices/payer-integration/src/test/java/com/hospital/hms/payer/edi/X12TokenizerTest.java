@@ -0,0 +1,296 @@
+package com.hospital.hms.payer.edi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the X12 tokenizer and 835/271/277 parsers
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class X12TokenizerTest {
+
+    private static final String ISA_PIPE = "ISA|00|          |00|          |ZZ|PAYER          |ZZ|HMS            "
+            + "|260105|0930|^|00501|000000017|0|P|>!";
+
+    @Test
+    void next_UsesDelimitersDeclaredByIsa() {
+        String data = ISA_PIPE + "\nGS|HP|PAYER|HMS|20260105|0930|17|X|005010X221A1!\n"
+                + "SVC|HC>99213>25|125.5|80||1!\nGE|1|17!\nIEA|1|000000017!\n";
+
+        X12Tokenizer tokenizer = X12Tokenizer.of(data);
+        assertTrue(tokenizer.next());
+        assertEquals('|', tokenizer.delimiters().element());
+        assertEquals('>', tokenizer.delimiters().component());
+        assertEquals('!', tokenizer.delimiters().segment());
+        assertEquals(17, tokenizer.segment().longValue(13, 0));
+
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.segment().is("GS"));
+        assertEquals(LocalDate.of(2026, 1, 5), tokenizer.segment().date(4));
+
+        assertTrue(tokenizer.next());
+        X12Segment svc = tokenizer.segment();
+        assertEquals("99213", svc.component(1, 2));
+        assertEquals("25", svc.component(1, 3));
+        assertNull(svc.component(1, 4));
+        assertEquals(new BigDecimal("125.5"), svc.decimal(2));
+        assertFalse(svc.has(4));
+        assertEquals("1", svc.element(5).toString());
+
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.segment().is("IEA"));
+        assertFalse(tokenizer.next());
+    }
+
+    @Test
+    void next_RejectsUnterminatedSegment() {
+        X12Tokenizer tokenizer = X12Tokenizer.of(ISA_PIPE + "GS|HP");
+        assertTrue(tokenizer.next());
+        assertThrows(X12ParseException.class, tokenizer::next);
+    }
+
+    @Test
+    void parse835_ReportsClaimsAdjustmentsAndProviderAdjustments() throws IOException {
+        String remittance = remittance(2, 2);
+        List<Remittance835Handler.Claim> claims = new ArrayList<>();
+        List<Remittance835Handler.Adjustment> lineAdjustments = new ArrayList<>();
+        List<Remittance835Handler.ProviderAdjustment> providerAdjustments = new ArrayList<>();
+        Remittance835Handler.Payment[] payment = new Remittance835Handler.Payment[1];
+
+        int transactions = new Remittance835Parser(new Remittance835Handler() {
+            @Override
+            public void onPayment(Payment p) {
+                payment[0] = p;
+            }
+
+            @Override
+            public void onClaim(Claim claim) {
+                claims.add(claim);
+            }
+
+            @Override
+            public void onAdjustment(Loop loop, Adjustment adjustment) {
+                if (loop == Loop.SERVICE_LINE) {
+                    lineAdjustments.add(adjustment);
+                }
+            }
+
+            @Override
+            public void onProviderAdjustment(ProviderAdjustment adjustment) {
+                providerAdjustments.add(adjustment);
+            }
+        }).parse(X12Tokenizer.of(remittance));
+
+        assertEquals(1, transactions);
+        assertEquals("CHK000001", payment[0].traceNumber());
+        assertEquals(new BigDecimal("329"), payment[0].amount());
+        assertEquals(2, claims.size());
+        assertEquals("CLM-00000001", claims.get(1).claimNumber());
+        assertEquals(new BigDecimal("169.5"), claims.get(1).paidAmount());
+        assertEquals(4, lineAdjustments.size());
+        assertEquals("CO", lineAdjustments.get(0).groupCode());
+        assertEquals(new BigDecimal("20.25"), lineAdjustments.get(0).amount());
+        assertEquals(1, providerAdjustments.size());
+        assertEquals("WO", providerAdjustments.get(0).reasonCode());
+    }
+
+    @Test
+    void parse271_ReportsBenefitsAndRanges() {
+        String eligibility = ISA_PIPE
+                + "GS|HB|PAYER|HMS|20260105|0930|17|X|005010X279A1!ST|271|0001|005010X279A1!"
+                + "NM1|IL|1|DOE|JANE||||MI|W123456789!DTP|291|RD8|20260101-20261231!"
+                + "EB|1|IND|30^1^33|HM|GOLD PPO!EB|C|IND|30|||23|1500!EB|B|IND|98|||27|25|||||Y!"
+                + "SE|7|0001!GE|1|17!IEA|1|000000017!";
+        List<Eligibility271Handler.Benefit> benefits = new ArrayList<>();
+        LocalDate[] coverage = new LocalDate[2];
+
+        new Eligibility271Parser(new Eligibility271Handler() {
+            @Override
+            public void onBenefit(Benefit benefit) {
+                benefits.add(benefit);
+            }
+
+            @Override
+            public void onDate(String qualifier, LocalDate from, LocalDate to) {
+                coverage[0] = from;
+                coverage[1] = to;
+            }
+        }).parse(X12Tokenizer.of(eligibility));
+
+        assertEquals(3, benefits.size());
+        assertEquals("30^1^33", benefits.get(0).serviceTypeCodes());
+        assertEquals(new BigDecimal("1500"), benefits.get(1).amount());
+        assertEquals("Y", benefits.get(2).inNetwork());
+        assertEquals(LocalDate.of(2026, 12, 31), coverage[1]);
+    }
+
+    @Test
+    void parse277_ReportsStatusWithPayerControlNumber() {
+        String status = ISA_PIPE
+                + "GS|HN|PAYER|HMS|20260105|0930|17|X|005010X212!ST|277|0001|005010X212!"
+                + "HL|5|4|PT!NM1|QC|1|DOE|JANE!TRN|2|CLM-1!STC|A2>20>PR|20260104||125.5|0!REF|1K|PCN-77!"
+                + "TRN|2|CLM-2!STC|F1>65|20260104||80|80!SE|10|0001!GE|1|17!IEA|1|000000017!";
+        List<ClaimStatus277Handler.ClaimStatus> statuses = new ArrayList<>();
+
+        new ClaimStatus277Parser(new ClaimStatus277Handler() {
+            @Override
+            public void onClaimStatus(ClaimStatus claimStatus) {
+                statuses.add(claimStatus);
+            }
+        }).parse(X12Tokenizer.of(status));
+
+        assertEquals(2, statuses.size());
+        assertEquals("CLM-1", statuses.get(0).traceNumber());
+        assertEquals("PCN-77", statuses.get(0).payerClaimControlNumber());
+        assertEquals("A2", statuses.get(0).categoryCode());
+        assertEquals("F1", statuses.get(1).categoryCode());
+        assertNull(statuses.get(1).payerClaimControlNumber());
+    }
+
+    @Test
+    void parse835_SameResultWhenSegmentsSpanBufferRefills() throws IOException {
+        String remittance = remittance(300, 3);
+        CountingHandler inMemory = new CountingHandler();
+        new Remittance835Parser(inMemory).parse(X12Tokenizer.of(remittance));
+
+        CountingHandler streamed = new CountingHandler();
+        byte[] bytes = remittance.getBytes(StandardCharsets.US_ASCII);
+        new Remittance835Parser(streamed).parse(X12Tokenizer.of(
+                Channels.newChannel(new ByteArrayInputStream(bytes)), 256));
+
+        assertEquals(300, inMemory.claims);
+        assertEquals(inMemory.claims, streamed.claims);
+        assertEquals(inMemory.serviceLines, streamed.serviceLines);
+        assertEquals(0, inMemory.paidCents - streamed.paidCents);
+    }
+
+    /**
+     * Streams a 65 MB remittance from disk through the default buffer; run with {@code -Dhms.large-tests=true}
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "hms.large-tests", matches = "true")
+    void parse835_StreamsLargeRemittanceFile(@TempDir Path tempDir) throws IOException {
+        int claims = 200_000;
+        Path file = tempDir.resolve("remittance.835");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            writeRemittance(writer, claims, 3);
+        }
+
+        CountingHandler handler = new CountingHandler();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            new Remittance835Parser(handler).parse(X12Tokenizer.of(channel));
+        }
+
+        assertEquals(claims, handler.claims);
+        assertEquals(claims * 3L, handler.serviceLines);
+    }
+
+    @Test
+    void of_ByteBufferParsesInPlace() throws IOException {
+        byte[] bytes = remittance(10, 1).getBytes(StandardCharsets.US_ASCII);
+        CountingHandler handler = new CountingHandler();
+        new Remittance835Parser(handler).parse(X12Tokenizer.of(ByteBuffer.wrap(bytes)));
+        assertEquals(10, handler.claims);
+    }
+
+    private static String remittance(int claims, int linesPerClaim) throws IOException {
+        StringWriter writer = new StringWriter();
+        writeRemittance(writer, claims, linesPerClaim);
+        return writer.toString();
+    }
+
+    /**
+     * Remittance with the segment mix of a typical professional 835
+     */
+    private static void writeRemittance(Writer target, int claims, int linesPerClaim) {
+        X12Writer x12 = new X12Writer(target);
+        LocalDate date = LocalDate.of(2026, 1, 5);
+        LocalTime time = LocalTime.of(9, 30);
+        BigDecimal lineCharge = new BigDecimal("100.00");
+        BigDecimal linePaid = new BigDecimal("79.75");
+        BigDecimal lineAdjustment = new BigDecimal("20.25");
+        BigDecimal claimCharge = lineCharge.multiply(BigDecimal.valueOf(linesPerClaim));
+        BigDecimal claimPaid = linePaid.multiply(BigDecimal.valueOf(linesPerClaim)).add(BigDecimal.TEN);
+
+        x12.segment("ISA").element("00").fixed(null, 10).element("00").fixed(null, 10).element("ZZ")
+                .fixed("PAYER", 15).element("ZZ").fixed("HMS", 15).shortDate(date).time(time)
+                .element(X12Writer.REPETITION_SEPARATOR).element("00501").padded(1, 9).element("0").element("P")
+                .element(X12Writer.COMPONENT_SEPARATOR).end();
+        x12.segment("GS").element("HP").element("PAYER").element("HMS").date(date).time(time).element(1)
+                .element("X").element("005010X221A1").end();
+        x12.resetSegmentCount();
+        x12.segment("ST").element("835").element("0001").end();
+        x12.segment("BPR").element("I").amount(claimPaid.multiply(BigDecimal.valueOf(claims)).subtract(BigDecimal.TEN))
+                .element("C").element("CHK").skip(11).date(date).end();
+        x12.segment("TRN").element("1").element("CHK000001").element("1512345678").end();
+        x12.segment("DTM").element("405").date(date).end();
+        x12.segment("N1").element("PR").element("ACME HEALTH PLAN").end();
+        x12.segment("N3").element("100 MAIN ST").end();
+        x12.segment("N4").element("SPRINGFIELD").element("IL").element("62701").end();
+        x12.segment("N1").element("PE").element("HMS ENTERPRISE").element("XX").element("1234567893").end();
+        x12.segment("LX").element(1).end();
+        for (int c = 0; c < claims; c++) {
+            String claimNumber = String.format("CLM-%08d", c);
+            x12.segment("CLP").element(claimNumber).element("1").amount(claimCharge).amount(claimPaid)
+                    .amount(BigDecimal.ZERO).element("12").element("PCN" + c).element("11").element("1").end();
+            x12.segment("CAS").element("PR").element("1").amount(BigDecimal.ZERO).end();
+            x12.segment("NM1").element("QC").element("1").element("DOE").element("JANE").skip(3)
+                    .element("MI").element("W" + c).end();
+            x12.segment("DTM").element("232").date(date.minusDays(10)).end();
+            for (int l = 0; l < linesPerClaim; l++) {
+                x12.segment("SVC").composite("HC").component("99213").amount(lineCharge).amount(linePaid)
+                        .skip(1).element(1).end();
+                x12.segment("DTM").element("472").date(date.minusDays(10)).end();
+                x12.segment("CAS").element("CO").element("45").amount(lineAdjustment).end();
+                x12.segment("AMT").element("B6").amount(linePaid).end();
+            }
+        }
+        x12.segment("PLB").element("1234567893").date(date).composite("WO").component("CLM-00000000")
+                .amount(BigDecimal.TEN.negate()).end();
+        x12.segment("SE").element(x12.segmentCount()).element("0001").end();
+        x12.segment("GE").element(1).element(1).end();
+        x12.segment("IEA").element(1).padded(1, 9).end();
+        x12.flush();
+    }
+
+    private static final class CountingHandler implements Remittance835Handler {
+
+        int claims;
+        long serviceLines;
+        long paidCents;
+
+        @Override
+        public void onClaim(Claim claim) {
+            claims++;
+            paidCents += claim.paidAmount().movePointRight(2).longValue();
+        }
+
+        @Override
+        public void onServiceLine(ServiceLine serviceLine) {
+            serviceLines++;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.hospital.hms.payer.eligibility;
+
+import com.hospital.hms.payer.config.EligibilityCacheProperties;
+import com.hospital.hms.payer.entity.EligibilityVerification;
+import com.hospital.hms.payer.entity.VerificationStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EligibilityCache
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class EligibilityCacheTest {
+
+    private static final int CALLERS_PER_KEY = 16;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<EligibilityKey, AtomicInteger> upstreamCalls = new ConcurrentHashMap<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EligibilityCacheProperties properties;
+    private EligibilityCache cache;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EligibilityCacheProperties();
+        properties.setLoadWaitTimeout(Duration.ofSeconds(10));
+        cache = new EligibilityCache(properties, meterRegistry);
+        callers = Executors.newFixedThreadPool(2 * CALLERS_PER_KEY);
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        callers.shutdownNow();
+        cache.shutdown();
+    }
+
+    @Test
+    void get_ConcurrentCallersShareOneUpstreamCallPerKey() throws Exception {
+        List<EligibilityKey> keys = List.of(key(), key());
+        List<Future<EligibilityVerification>> results = new ArrayList<>();
+        for (EligibilityKey key : keys) {
+            for (int i = 0; i < CALLERS_PER_KEY; i++) {
+                results.add(callers.submit(() -> cache.get(key, this::blockingPayerCall)));
+            }
+        }
+
+        awaitCoalesced(2 * (CALLERS_PER_KEY - 1));
+        release.countDown();
+
+        for (int i = 0; i < results.size(); i++) {
+            EligibilityVerification verification = results.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(keys.get(i / CALLERS_PER_KEY).patientId(), verification.getPatientId());
+        }
+        for (EligibilityKey key : keys) {
+            assertEquals(1, upstreamCalls.get(key).get());
+        }
+    }
+
+    @Test
+    void get_WaiterGivesUpOnAHungPayerCall() throws Exception {
+        properties.setLoadWaitTimeout(Duration.ofMillis(100));
+        EligibilityKey key = key();
+        Future<EligibilityVerification> loader = callers.submit(() -> cache.get(key, this::blockingPayerCall));
+        awaitUpstreamCall(key);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> cache.get(key, this::blockingPayerCall));
+
+        assertTrue(e.getMessage().contains("did not answer within"), e.getMessage());
+        release.countDown();
+        assertEquals(key.patientId(), loader.get(10, TimeUnit.SECONDS).getPatientId());
+        assertEquals(1, upstreamCalls.get(key).get());
+    }
+
+    @Test
+    void get_WaitersSeeTheLoaderFailureAndTheNextCallerRetries() throws Exception {
+        EligibilityKey key = key();
+        Function<EligibilityKey, EligibilityVerification> failing = k -> {
+            blockingPayerCall(k);
+            throw new IllegalArgumentException("payer rejected the inquiry");
+        };
+        Future<EligibilityVerification> loader = callers.submit(() -> cache.get(key, failing));
+        awaitUpstreamCall(key);
+        Future<EligibilityVerification> waiter = callers.submit(() -> cache.get(key, failing));
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        ExecutionException loaderFailure = assertThrows(ExecutionException.class,
+                () -> loader.get(10, TimeUnit.SECONDS));
+        ExecutionException waiterFailure = assertThrows(ExecutionException.class,
+                () -> waiter.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, loaderFailure.getCause());
+        assertInstanceOf(IllegalArgumentException.class, waiterFailure.getCause());
+        assertEquals(key.patientId(), cache.get(key, this::blockingPayerCall).getPatientId());
+        assertEquals(2, upstreamCalls.get(key).get());
+    }
+
+    @Test
+    void get_ServesFreshVerificationsWithoutCallingThePayer() {
+        EligibilityKey key = key();
+        release.countDown();
+        EligibilityVerification first = cache.get(key, this::blockingPayerCall);
+
+        EligibilityVerification second = cache.get(key, this::blockingPayerCall);
+
+        assertSame(first, second);
+        assertEquals(1, upstreamCalls.get(key).get());
+    }
+
+    private EligibilityVerification blockingPayerCall(EligibilityKey key) {
+        upstreamCalls.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return EligibilityVerification.builder()
+                .patientId(key.patientId())
+                .payerId(key.payerId())
+                .serviceDate(key.serviceDate().atStartOfDay())
+                .verificationStatus(VerificationStatus.VERIFIED)
+                .verificationDate(LocalDateTime.now())
+                .build();
+    }
+
+    private void awaitCoalesced(int waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("payer.eligibility.cache.requests").tag("result", "coalesced").counter().count()
+                < waiters) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not queue behind the payer call");
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitUpstreamCall(EligibilityKey key) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!upstreamCalls.containsKey(key)) {
+            assertTrue(System.nanoTime() < deadline, "The payer call did not start");
+            Thread.sleep(5);
+        }
+    }
+
+    private static EligibilityKey key() {
+        return new EligibilityKey(UUID.randomUUID(), UUID.randomUUID(), LocalDate.now().plusDays(1));
+    }
+}
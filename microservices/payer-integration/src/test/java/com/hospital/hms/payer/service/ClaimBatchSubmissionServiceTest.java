@@ -0,0 +1,159 @@
+package com.hospital.hms.payer.service;
+
+import com.hospital.hms.payer.clearinghouse.ClearinghouseGateway;
+import com.hospital.hms.payer.clearinghouse.ClearinghouseReceipt;
+import com.hospital.hms.payer.dto.ClaimBatchSubmissionResultDto;
+import com.hospital.hms.payer.edi.Claim837Writer;
+import com.hospital.hms.payer.edi.InterchangeControlNumbers;
+import com.hospital.hms.payer.entity.ClaimStatus;
+import com.hospital.hms.payer.entity.InsuranceClaim;
+import com.hospital.hms.payer.repository.InsuranceClaimRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ClaimBatchSubmissionService
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class ClaimBatchSubmissionServiceTest {
+
+    private static final UUID PAYER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private InsuranceClaimRepository claimRepository;
+    private ClearinghouseGateway clearinghouseGateway;
+    private InterchangeControlNumbers controlNumbers;
+    private ClaimBatchSubmissionService service;
+
+    @TempDir
+    Path spool;
+
+    @BeforeEach
+    void setUp() {
+        claimRepository = mock(InsuranceClaimRepository.class);
+        clearinghouseGateway = mock(ClearinghouseGateway.class);
+        controlNumbers = mock(InterchangeControlNumbers.class);
+        service = new ClaimBatchSubmissionService(claimRepository, mock(Claim837Writer.class), controlNumbers,
+                clearinghouseGateway, mock(PlatformTransactionManager.class), 1);
+        ReflectionTestUtils.setField(service, "maxClaimsPerInterchange", 100);
+        ReflectionTestUtils.setField(service, "staleReservationMinutes", 60L);
+        ReflectionTestUtils.setField(service, "defaultClearinghouseId", "primary");
+        ReflectionTestUtils.setField(service, "spoolDirectory", spool);
+        ReflectionTestUtils.setField(service, "usageIndicator", 'T');
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void submitDraftClaims_MarksInterchangeInFlightBeforeUploading() {
+        reserveOneInterchange();
+        when(claimRepository.markInterchangeInFlight(eq("000000007"), any())).thenReturn(1);
+        when(clearinghouseGateway.submit(eq("primary"), any(), eq(7L)))
+                .thenReturn(ClearinghouseReceipt.builder().accepted(true).traceId("TRACE-7").build());
+        when(claimRepository.completeInterchange(eq("000000007"), eq(ClaimStatus.SUBMITTED), any(), anyString(),
+                eq("TRACE-7"))).thenReturn(1);
+
+        ClaimBatchSubmissionResultDto result = service.submitDraftClaims();
+
+        InOrder order = inOrder(claimRepository, clearinghouseGateway);
+        order.verify(claimRepository).markInterchangeInFlight(eq("000000007"), any());
+        order.verify(clearinghouseGateway).submit(eq("primary"), any(), eq(7L));
+        order.verify(claimRepository).completeInterchange(eq("000000007"), eq(ClaimStatus.SUBMITTED), any(),
+                anyString(), eq("TRACE-7"));
+        assertEquals(1, result.getClaimsSubmitted());
+        assertEquals(List.of("000000007"), result.getControlNumbers());
+    }
+
+    @Test
+    void submitDraftClaims_TransportFailureAfterSendingKeepsClaimsInFlight() {
+        reserveOneInterchange();
+        when(claimRepository.markInterchangeInFlight(eq("000000007"), any())).thenReturn(1);
+        when(clearinghouseGateway.submit(anyString(), any(), anyLong()))
+                .thenThrow(new IllegalStateException("Timeout on blocking read"));
+
+        ClaimBatchSubmissionResultDto result = service.submitDraftClaims();
+
+        verify(claimRepository, never()).releaseInterchange(anyString(), any());
+        assertEquals(1, result.getInterchangesFailed());
+        assertEquals(0, result.getClaimsReleased());
+    }
+
+    @Test
+    void submitDraftClaims_CompletesStaleInFlightInterchangeFromClearinghouseReceipt() {
+        staleInFlight("primary", "000000005");
+        when(clearinghouseGateway.lookup("primary", 5L)).thenReturn(Optional.of(
+                ClearinghouseReceipt.builder().accepted(false).message("IEA02 does not match ISA13").build()));
+        when(claimRepository.completeInterchange(eq("000000005"), eq(ClaimStatus.REJECTED), any(), anyString(),
+                any())).thenReturn(3);
+
+        ClaimBatchSubmissionResultDto result = service.submitDraftClaims();
+
+        verify(clearinghouseGateway, never()).submit(anyString(), any(), anyLong());
+        verify(claimRepository, never()).releaseInterchange(anyString(), any());
+        assertEquals(1, result.getInFlightReconciled());
+        assertEquals(3, result.getClaimsRejected());
+    }
+
+    @Test
+    void submitDraftClaims_ReleasesStaleInFlightInterchangeTheClearinghouseNeverReceived() {
+        staleInFlight("primary", "000000005");
+        when(clearinghouseGateway.lookup("primary", 5L)).thenReturn(Optional.empty());
+        when(claimRepository.releaseInterchange(eq("000000005"), any())).thenReturn(3);
+
+        ClaimBatchSubmissionResultDto result = service.submitDraftClaims();
+
+        verify(claimRepository, never()).completeInterchange(anyString(), any(), any(), anyString(), any());
+        assertEquals(1, result.getInFlightReconciled());
+        assertEquals(3, result.getClaimsReleased());
+        assertEquals(0, result.getInterchangesFailed());
+    }
+
+    @Test
+    void submitDraftClaims_LeavesInFlightInterchangeWhenLookupFails() {
+        staleInFlight("primary", "000000005");
+        when(clearinghouseGateway.lookup("primary", 5L)).thenThrow(new IllegalStateException("Connection refused"));
+
+        ClaimBatchSubmissionResultDto result = service.submitDraftClaims();
+
+        verify(claimRepository, never()).releaseInterchange(anyString(), any());
+        verify(claimRepository, never()).completeInterchange(anyString(), any(), any(), anyString(), any());
+        assertEquals(1, result.getInterchangesFailed());
+    }
+
+    private void reserveOneInterchange() {
+        when(claimRepository.findDraftClaimGroups("primary"))
+                .thenReturn(List.<Object[]>of(new Object[]{"primary", PAYER_ID}));
+        when(controlNumbers.next()).thenReturn(7L);
+        when(claimRepository.reserveDraftClaims(eq("primary"), eq("primary"), eq(PAYER_ID), eq("000000007"), any(),
+                anyInt())).thenReturn(1);
+        when(claimRepository.findReservedClaims("000000007"))
+                .thenReturn(List.of(InsuranceClaim.builder().claimNumber("CLM-1").payerId(PAYER_ID).build()));
+    }
+
+    private void staleInFlight(String clearinghouseId, String controlNumber) {
+        when(claimRepository.findStaleInFlightInterchanges(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{clearinghouseId, controlNumber}));
+    }
+}
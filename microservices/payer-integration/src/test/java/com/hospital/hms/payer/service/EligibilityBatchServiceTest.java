@@ -0,0 +1,184 @@
+package com.hospital.hms.payer.service;
+
+import com.hospital.hms.payer.client.AppointmentSchedulingClient;
+import com.hospital.hms.payer.client.PatientManagementClient;
+import com.hospital.hms.payer.clearinghouse.StubClearinghouseGateway;
+import com.hospital.hms.payer.config.EligibilityBatchProperties;
+import com.hospital.hms.payer.dto.EligibilityBatchResultDto;
+import com.hospital.hms.payer.dto.PatientCoverageDto;
+import com.hospital.hms.payer.dto.UpcomingAppointmentDto;
+import com.hospital.hms.payer.edi.Eligibility270Writer;
+import com.hospital.hms.payer.edi.InterchangeControlNumbers;
+import com.hospital.hms.payer.eligibility.EligibilityCache;
+import com.hospital.hms.payer.entity.CoverageStatus;
+import com.hospital.hms.payer.entity.EligibilityVerification;
+import com.hospital.hms.payer.entity.VerificationStatus;
+import com.hospital.hms.payer.repository.EligibilityVerificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EligibilityBatchService
+ *
+ * @author HMS Enterprise Team
+ * @version 1.0.0
+ */
+class EligibilityBatchServiceTest {
+
+    private static final UUID PAYER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID VERIFIED_PATIENT = UUID.fromString("00000000-0000-0000-0000-0000000000a1");
+    private static final UUID NEW_PATIENT = UUID.fromString("00000000-0000-0000-0000-0000000000a2");
+
+    private AppointmentSchedulingClient appointmentClient;
+    private PatientManagementClient patientClient;
+    private EligibilityVerificationRepository eligibilityRepository;
+    private JdbcTemplate jdbcTemplate;
+    private PreparedStatement statement;
+    private ResultSet lockResult;
+    private EligibilityBatchService service;
+
+    @TempDir
+    Path spool;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        appointmentClient = mock(AppointmentSchedulingClient.class);
+        patientClient = mock(PatientManagementClient.class);
+        eligibilityRepository = mock(EligibilityVerificationRepository.class);
+        InterchangeControlNumbers controlNumbers = mock(InterchangeControlNumbers.class);
+        when(controlNumbers.next()).thenReturn(101L, 102L);
+        EligibilityCache eligibilityCache = mock(EligibilityCache.class);
+        when(eligibilityCache.ttlFor(any())).thenReturn(Duration.ofHours(4));
+
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        lockResult = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation ->
+                invocation.<ConnectionCallback<Object>>getArgument(0).doInConnection(connection));
+
+        service = new EligibilityBatchService(appointmentClient, patientClient, eligibilityRepository,
+                new Eligibility270Writer(), controlNumbers, new StubClearinghouseGateway(), eligibilityCache,
+                new EligibilityBatchProperties(), mock(PlatformTransactionManager.class), jdbcTemplate,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "spoolDirectory", spool);
+        ReflectionTestUtils.setField(service, "senderId", "HMS");
+        ReflectionTestUtils.setField(service, "receiverId", "CLEARINGHOUSE");
+        ReflectionTestUtils.setField(service, "usageIndicator", 'T');
+        ReflectionTestUtils.setField(service, "providerName", "HMS ENTERPRISE");
+        ReflectionTestUtils.setField(service, "providerNpi", "1234567893");
+    }
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void verifyScheduled_SkipsWhileAnotherInstanceHoldsTheLock() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(false);
+
+        service.verifyScheduled();
+
+        verifyNoInteractions(appointmentClient, patientClient, eligibilityRepository);
+    }
+
+    @Test
+    void verifyScheduled_RunsUnderTheLockAndReleasesIt() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+
+        service.verifyScheduled();
+
+        verify(appointmentClient).getUpcomingAppointments(any(), any(), eq(0), anyInt());
+        verify(statement).execute();
+    }
+
+    @Test
+    void verifyScheduled_ReleasesTheLockWhenTheRunFails() throws Exception {
+        when(lockResult.getBoolean(1)).thenReturn(true);
+        when(appointmentClient.getUpcomingAppointments(any(), any(), anyInt(), anyInt()))
+                .thenThrow(new IllegalStateException("appointment-scheduling unavailable"));
+
+        assertThrows(IllegalStateException.class, service::verifyScheduled);
+
+        verify(statement).execute();
+    }
+
+    @Test
+    void verifyAppointments_VerifiesEachPatientOnceAndSkipsValidVerifications() {
+        LocalDate serviceDate = LocalDate.of(2026, 3, 2);
+        when(appointmentClient.getUpcomingAppointments(any(), any(), eq(0), anyInt())).thenReturn(List.of(
+                appointment(VERIFIED_PATIENT), appointment(NEW_PATIENT), appointment(NEW_PATIENT)));
+        when(patientClient.getPrimaryCoverage(eq(serviceDate), anyList())).thenReturn(List.of(
+                coverage(VERIFIED_PATIENT, "MEM-1"), coverage(NEW_PATIENT, "MEM-2")));
+        when(eligibilityRepository.findPatientsWithCachedVerification(eq(PAYER_ID), anyList(), any(), any(),
+                anyList(), any())).thenReturn(List.of(VERIFIED_PATIENT));
+
+        EligibilityBatchResultDto result = service.verifyAppointments(serviceDate);
+
+        assertEquals(3, result.getAppointments());
+        assertEquals(2, result.getPatients());
+        assertEquals(1, result.getAlreadyVerified());
+        assertEquals(1, result.getVerified());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EligibilityVerification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(eligibilityRepository).saveAll(saved.capture());
+        EligibilityVerification verification = saved.getValue().get(0);
+        assertEquals(1, saved.getValue().size());
+        assertEquals(NEW_PATIENT, verification.getPatientId());
+        assertEquals(VerificationStatus.VERIFIED, verification.getVerificationStatus());
+        assertEquals(CoverageStatus.ACTIVE, verification.getCoverageStatus());
+        assertFalse(verification.getCacheExpiry().isBefore(LocalDateTime.of(2026, 3, 3, 0, 0)),
+                "A batch answer stays valid through the service day");
+    }
+
+    private static UpcomingAppointmentDto appointment(UUID patientId) {
+        UpcomingAppointmentDto appointment = new UpcomingAppointmentDto();
+        appointment.setId(UUID.randomUUID());
+        appointment.setPatientId(patientId);
+        return appointment;
+    }
+
+    private static PatientCoverageDto coverage(UUID patientId, String memberId) {
+        PatientCoverageDto coverage = new PatientCoverageDto();
+        coverage.setPatientId(patientId);
+        coverage.setPayerId(PAYER_ID.toString());
+        coverage.setPayerName("ACME HEALTH");
+        coverage.setMemberId(memberId);
+        coverage.setFamilyName("DOE");
+        coverage.setGivenName("JANE");
+        coverage.setDateOfBirth(LocalDate.of(1980, 5, 17));
+        return coverage;
+    }
+}
@@ -284,6 +284,24 @@ public class ProcedureManagementController {
         return ResponseEntity.ok(conflicts);
     }
 
+    /**
+     * Get completed procedures for charge capture
+     */
+    @GetMapping("/completed")
+    @Operation(summary = "Get completed procedures", description = "Get one page of procedures completed in a period, for charge capture")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('BILLING_MANAGER')")
+    public ResponseEntity<List<ProcedureResponseDto>> getCompletedProcedures(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "1000") @Min(1) int size) {
+        log.info("Retrieving procedures completed from: {} to: {} page: {}", startTime, endTime, page);
+
+        List<ProcedureResponseDto> procedures = procedureManagementService.getCompletedProcedures(
+            startTime, endTime, PageRequest.of(page, size));
+        return ResponseEntity.ok(procedures);
+    }
+
     /**
      * Get today's procedures
      */
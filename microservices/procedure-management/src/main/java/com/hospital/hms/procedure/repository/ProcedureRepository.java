@@ -22,6 +22,15 @@ import java.util.Optional;
 @Repository
 public interface ProcedureRepository extends JpaRepository<ProcedureEntity, String> {
 
+    /**
+     * Find procedures completed in [startTime, endTime), in a stable order for charge capture
+     */
+    @Query("SELECT p FROM ProcedureEntity p WHERE p.status = 'COMPLETED' AND p.actualEndTime >= :startTime " +
+           "AND p.actualEndTime < :endTime ORDER BY p.actualEndTime ASC, p.procedureId ASC")
+    List<ProcedureEntity> findCompletedBetween(@Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime,
+                                               Pageable pageable);
+
     /**
      * Find procedures by patient ID
      */
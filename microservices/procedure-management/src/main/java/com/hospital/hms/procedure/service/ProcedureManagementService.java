@@ -1,9 +1,11 @@
 package com.hospital.hms.procedure.service;
 
+import com.hospital.hms.procedure.dto.ProcedureResponseDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -116,6 +118,7 @@ public interface ProcedureManagementService {
     void recordAdditionalCharges(String procedureId, List<Map<String, Object>> charges);
     Map<String, Object> getBillingReport(String procedureId);
     List<Map<String, Object>> getUnbilledProcedures(String department);
+    List<ProcedureResponseDto> getCompletedProcedures(LocalDateTime startTime, LocalDateTime endTime, Pageable pageable);
     
     // Risk Assessment & Safety
     Map<String, Object> assessProcedureRisk(String procedureId);
@@ -1,5 +1,8 @@
 package com.hospital.hms.procedure.service.impl;
 
+import com.hospital.hms.procedure.dto.ProcedureResponseDto;
+import com.hospital.hms.procedure.entity.ProcedureEntity;
+import com.hospital.hms.procedure.repository.ProcedureRepository;
 import com.hospital.hms.procedure.service.ProcedureManagementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -63,6 +66,8 @@ public class ProcedureManagementServiceImpl implements ProcedureManagementServic
     @Value("${procedure.emergency.priority.threshold:1}")
     private int emergencyPriorityThreshold;
 
+    private final ProcedureRepository procedureRepository;
+
     // In-memory data structures for demonstration (in production, use proper databases)
     private final Map<String, Map<String, Object>> procedures = new ConcurrentHashMap<>();
     private final Map<String, Map<String, Object>> procedureTemplates = new ConcurrentHashMap<>();
@@ -622,6 +627,31 @@ public class ProcedureManagementServiceImpl implements ProcedureManagementServic
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProcedureResponseDto> getCompletedProcedures(LocalDateTime startTime, LocalDateTime endTime,
+                                                             Pageable pageable) {
+        // Only the fields charge capture needs; resources and events would be loaded per procedure
+        return procedureRepository.findCompletedBetween(startTime, endTime, pageable).stream()
+                .map(this::toChargeCaptureDto)
+                .collect(Collectors.toList());
+    }
+
+    private ProcedureResponseDto toChargeCaptureDto(ProcedureEntity procedure) {
+        return ProcedureResponseDto.builder()
+                .procedureId(procedure.getProcedureId())
+                .patientId(procedure.getPatientId())
+                .procedureType(procedure.getProcedureType())
+                .procedureName(procedure.getProcedureName())
+                .status(procedure.getStatus().name())
+                .actualStartTime(procedure.getActualStartTime())
+                .actualEndTime(procedure.getActualEndTime())
+                .actualDurationMinutes(procedure.getActualDurationMinutes())
+                .primaryPhysician(procedure.getPrimaryPhysician())
+                .department(procedure.getDepartment())
+                .build();
+    }
+
     @Override
     public Health health() {
         try {